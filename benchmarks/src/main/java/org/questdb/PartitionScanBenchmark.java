@@ -0,0 +1,168 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.questdb;
+
+import io.questdb.MessageBus;
+import io.questdb.MessageBusImpl;
+import io.questdb.PropServerConfiguration;
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.ColumnPrefetchJob;
+import io.questdb.cairo.TableUtils;
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.SqlCompiler;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.SqlExecutionContextImpl;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.WorkerPool;
+import io.questdb.std.str.Path;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares full scan of partitioned table with and without partition read-ahead.
+ * Table is created in current directory and is reused between runs.
+ * <p>
+ * Read-ahead only helps when partitions are not in page cache, so every measurement is a
+ * single scan that starts with cache dropped. Dropping cache requires writing to
+ * /proc/sys/vm/drop_caches, run benchmark as root on Linux.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PartitionScanBenchmark {
+    private static final String DROP_CACHES = "/proc/sys/vm/drop_caches";
+
+    @Param({"false", "true"})
+    public boolean prefetch;
+
+    private CairoEngine engine;
+    private WorkerPool workerPool;
+    private SqlCompiler compiler;
+    private SqlExecutionContext executionContext;
+    private RecordCursorFactory sumFactory;
+    private RecordCursorFactory scanFactory;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(PartitionScanBenchmark.class.getSimpleName())
+                .warmupIterations(1)
+                .measurementIterations(10)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+
+        LogFactory.INSTANCE.haltThread();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        final Properties properties = new Properties();
+        properties.setProperty("cairo.sql.partition.prefetch.enabled", Boolean.toString(prefetch));
+        properties.setProperty("cairo.sql.partition.prefetch.depth", "4");
+        final PropServerConfiguration configuration = new PropServerConfiguration(".", properties);
+        final MessageBus messageBus = new MessageBusImpl(configuration);
+        engine = new CairoEngine(configuration.getCairoConfiguration(), messageBus);
+        workerPool = new WorkerPool(configuration.getWorkerPoolConfiguration());
+        final ColumnPrefetchJob prefetchJob = new ColumnPrefetchJob(configuration.getCairoConfiguration(), messageBus);
+        workerPool.assign(prefetchJob);
+        workerPool.assign(0, (Closeable) prefetchJob);
+        workerPool.start(null);
+
+        executionContext = new SqlExecutionContextImpl(messageBus, 1, engine).with(AllowAllCairoSecurityContext.INSTANCE, null, null, -1, null);
+        compiler = new SqlCompiler(engine);
+        final int status;
+        try (Path path = new Path()) {
+            status = engine.getStatus(AllowAllCairoSecurityContext.INSTANCE, path, "scan");
+        }
+        if (status != TableUtils.TABLE_EXISTS) {
+            compiler.compile(
+                    "create table scan as (" +
+                            "select rnd_double() d, rnd_long() l, timestamp_sequence(0, 1000000) ts" +
+                            " from long_sequence(20000000)" +
+                            ") timestamp(ts) partition by HOUR",
+                    executionContext
+            );
+        }
+        sumFactory = compiler.compile("select sum(d) from scan", executionContext).getRecordCursorFactory();
+        scanFactory = compiler.compile("select l from scan", executionContext).getRecordCursorFactory();
+    }
+
+    @Setup(Level.Iteration)
+    public void dropCache() throws Exception {
+        // mapped pages stay in page cache, readers have to let go of them first
+        engine.releaseAllReaders();
+        final Process sync = new ProcessBuilder("sync").inheritIO().start();
+        if (sync.waitFor() != 0) {
+            throw new IllegalStateException("sync failed");
+        }
+        try (FileOutputStream out = new FileOutputStream(DROP_CACHES)) {
+            out.write('1');
+        } catch (IOException e) {
+            throw new IllegalStateException("cannot drop page cache, cold scan cannot be measured [file=" + DROP_CACHES + ']', e);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sumFactory.close();
+        scanFactory.close();
+        compiler.close();
+        workerPool.halt();
+        engine.close();
+    }
+
+    @Benchmark
+    public double testVectorSum() {
+        try (RecordCursor cursor = sumFactory.getCursor(executionContext)) {
+            cursor.hasNext();
+            return cursor.getRecord().getDouble(0);
+        }
+    }
+
+    @Benchmark
+    public long testRowScan() {
+        long sum = 0;
+        try (RecordCursor cursor = scanFactory.getCursor(executionContext)) {
+            final Record record = cursor.getRecord();
+            while (cursor.hasNext()) {
+                sum += record.getLong(0);
+            }
+        }
+        return sum;
+    }
+}
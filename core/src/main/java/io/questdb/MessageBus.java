@@ -28,6 +28,9 @@ import io.questdb.mp.RingQueue;
 import io.questdb.mp.SCSequence;
 import io.questdb.mp.Sequence;
 import io.questdb.tasks.ColumnIndexerTask;
+import io.questdb.tasks.ColumnPrefetchTask;
+import io.questdb.tasks.GroupCommitTask;
+import io.questdb.tasks.HashJoinTask;
 import io.questdb.tasks.TelemetryTask;
 import io.questdb.tasks.VectorAggregateTask;
 
@@ -38,6 +41,24 @@ public interface MessageBus {
 
     Sequence getIndexerSubSequence();
 
+    RingQueue<GroupCommitTask> getGroupCommitQueue();
+
+    Sequence getGroupCommitPubSequence();
+
+    Sequence getGroupCommitSubSequence();
+
+    RingQueue<ColumnPrefetchTask> getColumnPrefetchQueue();
+
+    Sequence getColumnPrefetchPubSequence();
+
+    Sequence getColumnPrefetchSubSequence();
+
+    RingQueue<HashJoinTask> getHashJoinQueue();
+
+    Sequence getHashJoinPubSequence();
+
+    Sequence getHashJoinSubSequence();
+
     RingQueue<VectorAggregateTask> getVectorAggregateQueue();
 
     Sequence getVectorAggregatePubSequence();
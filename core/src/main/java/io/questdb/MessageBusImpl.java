@@ -30,6 +30,9 @@ import io.questdb.mp.RingQueue;
 import io.questdb.mp.SCSequence;
 import io.questdb.mp.Sequence;
 import io.questdb.tasks.ColumnIndexerTask;
+import io.questdb.tasks.ColumnPrefetchTask;
+import io.questdb.tasks.GroupCommitTask;
+import io.questdb.tasks.HashJoinTask;
 import io.questdb.tasks.TelemetryTask;
 import io.questdb.tasks.VectorAggregateTask;
 
@@ -38,6 +41,18 @@ public class MessageBusImpl implements MessageBus {
     private final MPSequence indexerPubSeq;
     private final MCSequence indexerSubSeq;
 
+    private final RingQueue<GroupCommitTask> groupCommitQueue;
+    private final MPSequence groupCommitPubSeq;
+    private final MCSequence groupCommitSubSeq;
+
+    private final RingQueue<ColumnPrefetchTask> columnPrefetchQueue;
+    private final MPSequence columnPrefetchPubSeq;
+    private final MCSequence columnPrefetchSubSeq;
+
+    private final RingQueue<HashJoinTask> hashJoinQueue;
+    private final MPSequence hashJoinPubSeq;
+    private final MCSequence hashJoinSubSeq;
+
     private final RingQueue<VectorAggregateTask> vectorAggregateQueue;
     private final MPSequence vectorAggregatePubSeq;
     private final MCSequence vectorAggregateSubSeq;
@@ -55,6 +70,18 @@ public class MessageBusImpl implements MessageBus {
         this.indexerPubSeq = new MPSequence(indexerQueue.getCapacity());
         this.indexerSubSeq = new MCSequence(indexerQueue.getCapacity());
 
+        this.groupCommitQueue = new RingQueue<>(GroupCommitTask::new, configuration.getCairoConfiguration().getGroupCommitQueueCapacity());
+        this.groupCommitPubSeq = new MPSequence(groupCommitQueue.getCapacity());
+        this.groupCommitSubSeq = new MCSequence(groupCommitQueue.getCapacity());
+
+        this.columnPrefetchQueue = new RingQueue<>(ColumnPrefetchTask::new, 1024);
+        this.columnPrefetchPubSeq = new MPSequence(columnPrefetchQueue.getCapacity());
+        this.columnPrefetchSubSeq = new MCSequence(columnPrefetchQueue.getCapacity());
+
+        this.hashJoinQueue = new RingQueue<>(HashJoinTask::new, 1024);
+        this.hashJoinPubSeq = new MPSequence(hashJoinQueue.getCapacity());
+        this.hashJoinSubSeq = new MCSequence(hashJoinQueue.getCapacity());
+
         this.vectorAggregateQueue = new RingQueue<>(VectorAggregateTask::new, 1024);
         this.vectorAggregatePubSeq = new MPSequence(vectorAggregateQueue.getCapacity());
         this.vectorAggregateSubSeq = new MCSequence(vectorAggregateQueue.getCapacity());
@@ -64,6 +91,9 @@ public class MessageBusImpl implements MessageBus {
         this.telemetrySubSeq = new SCSequence();
 
         indexerPubSeq.then(indexerSubSeq).then(indexerPubSeq);
+        groupCommitPubSeq.then(groupCommitSubSeq).then(groupCommitPubSeq);
+        columnPrefetchPubSeq.then(columnPrefetchSubSeq).then(columnPrefetchPubSeq);
+        hashJoinPubSeq.then(hashJoinSubSeq).then(hashJoinPubSeq);
         vectorAggregatePubSeq.then(vectorAggregateSubSeq).then(vectorAggregatePubSeq);
         telemetryPubSeq.then(telemetrySubSeq).then(telemetryPubSeq);
     }
@@ -88,6 +118,51 @@ public class MessageBusImpl implements MessageBus {
         return indexerSubSeq;
     }
 
+    @Override
+    public RingQueue<GroupCommitTask> getGroupCommitQueue() {
+        return groupCommitQueue;
+    }
+
+    @Override
+    public Sequence getGroupCommitPubSequence() {
+        return groupCommitPubSeq;
+    }
+
+    @Override
+    public Sequence getGroupCommitSubSequence() {
+        return groupCommitSubSeq;
+    }
+
+    @Override
+    public RingQueue<ColumnPrefetchTask> getColumnPrefetchQueue() {
+        return columnPrefetchQueue;
+    }
+
+    @Override
+    public Sequence getColumnPrefetchPubSequence() {
+        return columnPrefetchPubSeq;
+    }
+
+    @Override
+    public Sequence getColumnPrefetchSubSequence() {
+        return columnPrefetchSubSeq;
+    }
+
+    @Override
+    public RingQueue<HashJoinTask> getHashJoinQueue() {
+        return hashJoinQueue;
+    }
+
+    @Override
+    public Sequence getHashJoinPubSequence() {
+        return hashJoinPubSeq;
+    }
+
+    @Override
+    public Sequence getHashJoinSubSequence() {
+        return hashJoinSubSeq;
+    }
+
     @Override
     public RingQueue<VectorAggregateTask> getVectorAggregateQueue() {
         return vectorAggregateQueue;
@@ -106,6 +106,25 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final int sqlSortValueMaxPages;
     private final long workStealTimeoutNanos;
     private final boolean parallelIndexingEnabled;
+    private final boolean partitionPrefetchEnabled;
+    private final long partitionPrefetchBufferSize;
+    private final int partitionPrefetchDepth;
+    private final long sqlQueryMemoryLimit;
+    private final int sqlHashJoinBloomFilterBitsPerKey;
+    private final boolean sqlParallelHashJoinEnabled;
+    private final boolean sqlMergeJoinEnabled;
+    private final String coldStorageRoot;
+    private final int coldStoragePartitionAge;
+    private final long coldStorageCheckInterval;
+    private final long dedupWindow;
+    private final long partitionTtlCheckInterval;
+    private final boolean symbolRankEnabled;
+    private final boolean deferredIndexingEnabled;
+    private final CharSequence warmUpTables;
+    private final int warmUpPartitionCount;
+    private final CharSequence warmUpQueries;
+    private final long groupCommitWindow;
+    private final int groupCommitQueueCapacity;
     private final int sqlJoinMetadataPageSize;
     private final int sqlJoinMetadataMaxResizes;
     private final int lineUdpCommitRate;
@@ -114,6 +133,9 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final int lineUdpMsgCount;
     private final int lineUdpReceiveBufferSize;
     private final int lineUdpCommitMode;
+    private final int lineUdpReceiverCount;
+    private final int lineUdpWriterCount;
+    private final int lineUdpWriterQueueCapacity;
     private final int[] sharedWorkerAffinity;
     private final int sharedWorkerCount;
     private final boolean sharedWorkerHaltOnError;
@@ -195,6 +217,11 @@ public class PropServerConfiguration implements ServerConfiguration {
     private boolean readOnlySecurityContext;
     private long maxHttpQueryResponseRowLimit;
     private boolean interruptOnClosedConnection;
+    private int heavyQueryConcurrency;
+    private long heavyQueryRowThreshold;
+    private int heavyQueryQueueCapacity;
+    private long heavyQueryQueueTimeout;
+    private long heavyQueryTimeout;
     private int interruptorNIterationsPerCheck;
     private int interruptorBufferSize;
     private int pgNetActiveConnectionLimit;
@@ -302,6 +329,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             this.interruptOnClosedConnection = getBoolean(properties, "http.security.interrupt.on.closed.connection", true);
             this.interruptorNIterationsPerCheck = getInt(properties, "http.security.interruptor.iterations.per.check", 2_000_000);
             this.interruptorBufferSize = getInt(properties, "http.security.interruptor.buffer.size", 64);
+            this.heavyQueryConcurrency = getInt(properties, "http.query.heavy.concurrency", 0);
+            this.heavyQueryRowThreshold = getLong(properties, "http.query.heavy.row.threshold", 100_000_000);
+            this.heavyQueryQueueCapacity = getInt(properties, "http.query.heavy.queue.capacity", 64);
+            this.heavyQueryQueueTimeout = getLong(properties, "http.query.heavy.queue.timeout", 60_000);
+            this.heavyQueryTimeout = getLong(properties, "http.query.heavy.timeout", 0);
 
             parseBindTo(properties, "http.bind.to", "0.0.0.0:9000", (a, p) -> {
                 bindIPv4Address = a;
@@ -399,6 +431,25 @@ public class PropServerConfiguration implements ServerConfiguration {
         this.sqlSortValueMaxPages = getIntSize(properties, "cairo.sql.sort.value.max.pages", Integer.MAX_VALUE);
         this.workStealTimeoutNanos = getLong(properties, "cairo.work.steal.timeout.nanos", 10_000);
         this.parallelIndexingEnabled = getBoolean(properties, "cairo.parallel.indexing.enabled", true);
+        this.partitionPrefetchEnabled = getBoolean(properties, "cairo.sql.partition.prefetch.enabled", false);
+        this.partitionPrefetchBufferSize = getLongSize(properties, "cairo.sql.partition.prefetch.buffer.size", 1024 * 1024);
+        this.partitionPrefetchDepth = getInt(properties, "cairo.sql.partition.prefetch.depth", 2);
+        this.sqlQueryMemoryLimit = getLongSize(properties, "cairo.sql.query.memory.limit", 0);
+        this.sqlHashJoinBloomFilterBitsPerKey = getInt(properties, "cairo.sql.hash.join.bloom.filter.bits.per.key", 10);
+        this.sqlParallelHashJoinEnabled = getBoolean(properties, "cairo.sql.parallel.hash.join.enabled", true);
+        this.sqlMergeJoinEnabled = getBoolean(properties, "cairo.sql.merge.join.enabled", true);
+        this.coldStorageRoot = getString(properties, "cairo.cold.storage.root", null);
+        this.coldStoragePartitionAge = getInt(properties, "cairo.cold.storage.partition.age.days", 30);
+        this.coldStorageCheckInterval = getLong(properties, "cairo.cold.storage.check.interval", 60_000);
+        this.dedupWindow = getLong(properties, "cairo.dedup.window", 60_000);
+        this.partitionTtlCheckInterval = getLong(properties, "cairo.partition.ttl.check.interval", 60_000);
+        this.symbolRankEnabled = getBoolean(properties, "cairo.symbol.rank.enabled", false);
+        this.deferredIndexingEnabled = getBoolean(properties, "cairo.deferred.indexing.enabled", false);
+        this.warmUpTables = getString(properties, "cairo.warm.up.tables", null);
+        this.warmUpPartitionCount = getInt(properties, "cairo.warm.up.partition.count", 0);
+        this.warmUpQueries = getString(properties, "cairo.warm.up.queries", null);
+        this.groupCommitWindow = getLong(properties, "cairo.group.commit.window", 0);
+        this.groupCommitQueueCapacity = Numbers.ceilPow2(getInt(properties, "cairo.group.commit.queue.capacity", 1024));
         this.sqlJoinMetadataPageSize = getIntSize(properties, "cairo.sql.join.metadata.page.size", 16384);
         this.sqlJoinMetadataMaxResizes = getIntSize(properties, "cairo.sql.join.metadata.max.resizes", Integer.MAX_VALUE);
         this.sqlAnalyticColumnPoolCapacity = getInt(properties, "cairo.sql.analytic.column.pool.capacity", 64);
@@ -463,6 +514,9 @@ public class PropServerConfiguration implements ServerConfiguration {
         this.lineUdpOwnThread = getBoolean(properties, "line.udp.own.thread", false);
         this.lineUdpUnicast = getBoolean(properties, "line.udp.unicast", false);
         this.lineUdpCommitMode = getCommitMode(properties, "line.udp.commit.mode");
+        this.lineUdpReceiverCount = getInt(properties, "line.udp.receiver.count", 1);
+        this.lineUdpWriterCount = getInt(properties, "line.udp.writer.count", 1);
+        this.lineUdpWriterQueueCapacity = Numbers.ceilPow2(getInt(properties, "line.udp.writer.queue.capacity", 1024));
 
         final String lineUdpTimestampSwitch = getString(properties, "line.udp.timestamp", "n");
         switch (lineUdpTimestampSwitch) {
@@ -1272,6 +1326,101 @@ public class PropServerConfiguration implements ServerConfiguration {
             return parallelIndexingEnabled;
         }
 
+        @Override
+        public boolean isPartitionPrefetchEnabled() {
+            return partitionPrefetchEnabled;
+        }
+
+        @Override
+        public long getPartitionPrefetchBufferSize() {
+            return partitionPrefetchBufferSize;
+        }
+
+        @Override
+        public int getPartitionPrefetchDepth() {
+            return partitionPrefetchDepth;
+        }
+
+        @Override
+        public long getSqlQueryMemoryLimit() {
+            return sqlQueryMemoryLimit;
+        }
+
+        @Override
+        public int getSqlHashJoinBloomFilterBitsPerKey() {
+            return sqlHashJoinBloomFilterBitsPerKey;
+        }
+
+        @Override
+        public boolean isSqlParallelHashJoinEnabled() {
+            return sqlParallelHashJoinEnabled;
+        }
+
+        @Override
+        public boolean isSqlMergeJoinEnabled() {
+            return sqlMergeJoinEnabled;
+        }
+
+        @Override
+        public CharSequence getColdStorageRoot() {
+            return coldStorageRoot;
+        }
+
+        @Override
+        public int getColdStoragePartitionAge() {
+            return coldStoragePartitionAge;
+        }
+
+        @Override
+        public long getColdStorageCheckInterval() {
+            return coldStorageCheckInterval;
+        }
+
+        @Override
+        public long getDedupWindow() {
+            return dedupWindow;
+        }
+
+        @Override
+        public long getPartitionTtlCheckInterval() {
+            return partitionTtlCheckInterval;
+        }
+
+        @Override
+        public boolean isSymbolRankEnabled() {
+            return symbolRankEnabled;
+        }
+
+        @Override
+        public boolean isDeferredIndexingEnabled() {
+            return deferredIndexingEnabled;
+        }
+
+        @Override
+        public CharSequence getWarmUpTables() {
+            return warmUpTables;
+        }
+
+        @Override
+        public int getWarmUpPartitionCount() {
+            return warmUpPartitionCount;
+        }
+
+        @Override
+        public CharSequence getWarmUpQueries() {
+            return warmUpQueries;
+        }
+
+        @Override
+        public long getGroupCommitWindow() {
+            return groupCommitWindow;
+        }
+
+        @Override
+        public int getGroupCommitQueueCapacity() {
+            return groupCommitQueueCapacity;
+        }
+
         @Override
         public int getSqlJoinMetadataPageSize() {
             return sqlJoinMetadataPageSize;
@@ -1384,6 +1533,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return lineUdpReceiveBufferSize;
         }
 
+        @Override
+        public int getReceiverCount() {
+            return lineUdpReceiverCount;
+        }
+
         @Override
         public CairoSecurityContext getCairoSecurityContext() {
             return AllowAllCairoSecurityContext.INSTANCE;
@@ -1413,6 +1567,16 @@ public class PropServerConfiguration implements ServerConfiguration {
         public LineProtoTimestampAdapter getTimestampAdapter() {
             return lineUdpTimestampAdapter;
         }
+
+        @Override
+        public int getWriterCount() {
+            return lineUdpWriterCount;
+        }
+
+        @Override
+        public int getWriterQueueCapacity() {
+            return lineUdpWriterQueueCapacity;
+        }
     }
 
     private class PropJsonQueryProcessorConfiguration implements JsonQueryProcessorConfiguration {
@@ -1450,6 +1614,31 @@ public class PropServerConfiguration implements ServerConfiguration {
         public long getMaxQueryResponseRowLimit() {
             return maxHttpQueryResponseRowLimit;
         }
+
+        @Override
+        public int getHeavyQueryConcurrency() {
+            return heavyQueryConcurrency;
+        }
+
+        @Override
+        public long getHeavyQueryRowThreshold() {
+            return heavyQueryRowThreshold;
+        }
+
+        @Override
+        public int getHeavyQueryQueueCapacity() {
+            return heavyQueryQueueCapacity;
+        }
+
+        @Override
+        public long getHeavyQueryQueueTimeout() {
+            return heavyQueryQueueTimeout;
+        }
+
+        @Override
+        public long getHeavyQueryTimeout() {
+            return heavyQueryTimeout;
+        }
     }
 
     private class PropWorkerPoolConfiguration implements WorkerPoolConfiguration {
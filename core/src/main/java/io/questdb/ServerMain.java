@@ -25,10 +25,12 @@
 package io.questdb;
 
 import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.ColdStorageJob;
+import io.questdb.cairo.ColumnPrefetchJob;
+import io.questdb.cairo.PartitionTtlJob;
+import io.questdb.cairo.TableWarmUpJob;
 import io.questdb.cutlass.http.HttpServer;
-import io.questdb.cutlass.line.udp.AbstractLineProtoReceiver;
-import io.questdb.cutlass.line.udp.LineProtoReceiver;
-import io.questdb.cutlass.line.udp.LinuxMMLineProtoReceiver;
+import io.questdb.cutlass.line.udp.LineProtoReceiverGroup;
 import io.questdb.cutlass.pgwire.PGWireServer;
 import io.questdb.griffin.FunctionFactory;
 import io.questdb.griffin.FunctionFactoryCache;
@@ -145,6 +147,27 @@ public class ServerMain {
         LogFactory.configureFromSystemProperties(workerPool);
         final CairoEngine cairoEngine = new CairoEngine(configuration.getCairoConfiguration(), messageBus);
         workerPool.assign(cairoEngine.getWriterMaintenanceJob());
+        if (configuration.getCairoConfiguration().getGroupCommitWindow() > 0) {
+            workerPool.assign(cairoEngine.getGroupCommitJob());
+        }
+        if (configuration.getCairoConfiguration().isPartitionPrefetchEnabled()) {
+            final ColumnPrefetchJob columnPrefetchJob = new ColumnPrefetchJob(configuration.getCairoConfiguration(), messageBus);
+            workerPool.assign(columnPrefetchJob);
+            workerPool.assign(0, (Closeable) columnPrefetchJob);
+        }
+        if (configuration.getCairoConfiguration().getColdStorageRoot() != null) {
+            final ColdStorageJob coldStorageJob = new ColdStorageJob(cairoEngine);
+            workerPool.assign(coldStorageJob);
+            workerPool.assign(0, (Closeable) coldStorageJob);
+        }
+        if (configuration.getCairoConfiguration().getPartitionTtlCheckInterval() > 0) {
+            final PartitionTtlJob partitionTtlJob = new PartitionTtlJob(cairoEngine);
+            workerPool.assign(partitionTtlJob);
+            workerPool.assign(0, (Closeable) partitionTtlJob);
+        }
+        if (configuration.getCairoConfiguration().getWarmUpTables() != null) {
+            workerPool.assign(new TableWarmUpJob(cairoEngine));
+        }
         // The TelemetryJob is always needed (even when telemetry is off) because it is responsible for
         // updating the telemetry_config table.
         final TelemetryJob telemetryJob = new TelemetryJob(configuration, cairoEngine, messageBus);
@@ -178,21 +201,11 @@ public class ServerMain {
                 pgWireServer = null;
             }
 
-            final AbstractLineProtoReceiver lineProtocolReceiver;
-
-            if (Os.type == Os.LINUX_AMD64 || Os.type == Os.LINUX_ARM64) {
-                lineProtocolReceiver = new LinuxMMLineProtoReceiver(
-                        configuration.getLineUdpReceiverConfiguration(),
-                        cairoEngine,
-                        workerPool
-                );
-            } else {
-                lineProtocolReceiver = new LineProtoReceiver(
-                        configuration.getLineUdpReceiverConfiguration(),
-                        cairoEngine,
-                        workerPool
-                );
-            }
+            final LineProtoReceiverGroup lineProtocolReceiver = new LineProtoReceiverGroup(
+                    configuration.getLineUdpReceiverConfiguration(),
+                    cairoEngine,
+                    workerPool
+            );
 
             startQuestDb(workerPool, lineProtocolReceiver, log);
             logWebConsoleUrls(log, configuration);
@@ -381,7 +394,7 @@ public class ServerMain {
                                           final CairoEngine cairoEngine,
                                           final HttpServer httpServer,
                                           final PGWireServer pgWireServer,
-                                          final AbstractLineProtoReceiver lineProtocolReceiver,
+                                          final LineProtoReceiverGroup lineProtocolReceiver,
                                           final TelemetryJob telemetryJob
     ) {
         lineProtocolReceiver.halt();
@@ -395,7 +408,7 @@ public class ServerMain {
 
     protected static void startQuestDb(
             final WorkerPool workerPool,
-            final AbstractLineProtoReceiver lineProtocolReceiver,
+            final LineProtoReceiverGroup lineProtocolReceiver,
             final Log log
     ) {
         workerPool.start(log);
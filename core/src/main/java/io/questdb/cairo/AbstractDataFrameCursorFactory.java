@@ -25,6 +25,7 @@
 package io.questdb.cairo;
 
 import io.questdb.cairo.sql.DataFrameCursorFactory;
+import org.jetbrains.annotations.Nullable;
 
 public abstract class AbstractDataFrameCursorFactory implements DataFrameCursorFactory {
     private final CairoEngine engine;
@@ -37,6 +38,14 @@ public abstract class AbstractDataFrameCursorFactory implements DataFrameCursorF
         this.tableVersion = tableVersion;
     }
 
+    /**
+     * @return partition read-ahead helper for new cursor or null when prefetch is disabled
+     */
+    @Nullable
+    protected PartitionPrefetcher newPrefetcher() {
+        return PartitionPrefetcher.newInstance(engine, null);
+    }
+
     protected TableReader getReader(CairoSecurityContext securityContext) {
         return engine.getReader(
                 securityContext,
@@ -27,12 +27,14 @@ package io.questdb.cairo;
 import io.questdb.cairo.sql.DataFrame;
 import io.questdb.cairo.sql.DataFrameCursor;
 import io.questdb.cairo.sql.StaticSymbolTable;
+import org.jetbrains.annotations.Nullable;
 
 public abstract class AbstractFullDataFrameCursor implements DataFrameCursor {
     protected final FullTableDataFrame frame = new FullTableDataFrame();
     protected TableReader reader;
     protected int partitionHi;
     protected int partitionIndex;
+    protected PartitionPrefetcher prefetcher;
 
     @Override
     public void close() {
@@ -72,6 +74,16 @@ public abstract class AbstractFullDataFrameCursor implements DataFrameCursor {
         return this;
     }
 
+    public void setPrefetcher(@Nullable PartitionPrefetcher prefetcher) {
+        this.prefetcher = prefetcher;
+    }
+
+    protected void resetPrefetch() {
+        if (prefetcher != null) {
+            prefetcher.clear();
+        }
+    }
+
     protected class FullTableDataFrame implements DataFrame {
         final static private long rowLo = 0;
         protected long rowHi;
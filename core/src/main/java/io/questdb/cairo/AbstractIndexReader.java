@@ -24,12 +24,14 @@
 
 package io.questdb.cairo;
 
+import io.questdb.cairo.sql.RowCursor;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.std.Misc;
 import io.questdb.std.Unsafe;
 import io.questdb.std.microtime.MicrosecondClock;
 import io.questdb.std.str.Path;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.concurrent.locks.LockSupport;
 
@@ -43,7 +45,15 @@ public abstract class AbstractIndexReader implements BitmapIndexReader {
     protected MicrosecondClock clock;
     protected int keyCount;
     protected long unIndexedNullCount;
+    private final TailCursor tailCursor = new TailCursor();
+    private final boolean forward;
     private int keyCountIncludingNulls;
+    private ReadOnlyColumn column;
+    private long indexedRowCount = Long.MAX_VALUE;
+
+    protected AbstractIndexReader(int direction) {
+        this.forward = direction == DIR_FORWARD;
+    }
 
     @Override
     public void close() {
@@ -53,6 +63,27 @@ public abstract class AbstractIndexReader implements BitmapIndexReader {
         }
     }
 
+    /**
+     * Returns cursor over rows of given key. When index reader is attached to column it combines
+     * values from index with rows found by scanning column above index high-water mark. Such rows
+     * have been committed by writer, which deferred indexing to {@link ColumnIndexerJob}.
+     */
+    @Override
+    public RowCursor getCursor(boolean cachedInstance, int key, long minValue, long maxValue) {
+        if (column != null && maxValue >= indexedRowCount) {
+            // index may have caught up since we last looked
+            indexedRowCount = readIndexedRowCount();
+            if (maxValue >= indexedRowCount) {
+                final RowCursor indexCursor = minValue < indexedRowCount ?
+                        getIndexCursor(cachedInstance, key, minValue, indexedRowCount - 1) : EmptyRowCursor.INSTANCE;
+                final TailCursor tailCursor = cachedInstance ? this.tailCursor : new TailCursor();
+                tailCursor.of(indexCursor, key, Math.max(minValue, indexedRowCount), maxValue);
+                return tailCursor;
+            }
+        }
+        return getIndexCursor(cachedInstance, key, minValue, maxValue);
+    }
+
     @Override
     public int getKeyCount() {
         return keyCountIncludingNulls;
@@ -64,7 +95,16 @@ public abstract class AbstractIndexReader implements BitmapIndexReader {
     }
 
     public void of(CairoConfiguration configuration, Path path, CharSequence name, long unIndexedNullCount) {
+        of(configuration, path, name, unIndexedNullCount, null);
+    }
+
+    /**
+     * @param column symbol column, which is scanned for rows index does not cover yet, or null when
+     *               index is known to cover all rows
+     */
+    public void of(CairoConfiguration configuration, Path path, CharSequence name, long unIndexedNullCount, @Nullable ReadOnlyColumn column) {
         this.unIndexedNullCount = unIndexedNullCount;
+        this.column = column;
         final int plen = path.length();
         final long pageSize = configuration.getFilesFacade().getMapPageSize();
         this.spinLockTimeoutUs = configuration.getSpinLockTimeoutUs();
@@ -123,6 +163,7 @@ public abstract class AbstractIndexReader implements BitmapIndexReader {
             }
             this.valueMem.of(configuration.getFilesFacade(), BitmapIndexUtils.valueFileName(path.trimTo(plen), name), pageSize, 0);
             this.valueMem.grow(configuration.getFilesFacade().length(this.valueMem.getFd()));
+            this.indexedRowCount = readIndexedRowCount();
         } catch (CairoException e) {
             close();
             throw e;
@@ -131,6 +172,43 @@ public abstract class AbstractIndexReader implements BitmapIndexReader {
         }
     }
 
+    protected abstract RowCursor getIndexCursor(boolean cachedInstance, int key, long minValue, long maxValue);
+
+    private long readIndexedRowCount() {
+        if (column == null) {
+            return Long.MAX_VALUE;
+        }
+
+        long indexedRowCount;
+        final long deadline = clock.getTicks() + spinLockTimeoutUs;
+        while (true) {
+            long seq = this.keyMem.getLong(BitmapIndexUtils.KEY_RESERVED_OFFSET_SEQUENCE);
+
+            Unsafe.getUnsafe().loadFence();
+            if (this.keyMem.getLong(BitmapIndexUtils.KEY_RESERVED_OFFSET_SEQUENCE_CHECK) == seq) {
+
+                indexedRowCount = this.keyMem.getLong(BitmapIndexUtils.KEY_RESERVED_OFFSET_INDEXED_ROW_COUNT) - 1;
+
+                Unsafe.getUnsafe().loadFence();
+                if (seq == this.keyMem.getLong(BitmapIndexUtils.KEY_RESERVED_OFFSET_SEQUENCE)) {
+                    break;
+                }
+            }
+
+            if (clock.getTicks() > deadline) {
+                LOG.error().$("failed to consistently read indexed row count [corrupt index?] [timeout=").$(spinLockTimeoutUs).utf8("μs]").$();
+                throw CairoException.instance(0).put("failed to consistently read indexed row count [corrupt index?]");
+            }
+        }
+
+        if (indexedRowCount < 0) {
+            // index file does not keep track of row count, all rows are in index
+            return Long.MAX_VALUE;
+        }
+        // rows below column top are nulls, they are never in index and never in column
+        return Math.max(indexedRowCount, unIndexedNullCount);
+    }
+
     protected void updateKeyCount() {
         int keyCount;
         final long deadline = clock.getTicks() + spinLockTimeoutUs;
@@ -162,4 +240,59 @@ public abstract class AbstractIndexReader implements BitmapIndexReader {
             }
         }
     }
+
+    private class TailCursor implements RowCursor {
+        private RowCursor indexCursor;
+        private int key;
+        private long lo;
+        private long hi;
+        private long next;
+
+        @Override
+        public boolean hasNext() {
+            if (forward) {
+                if (indexCursor.hasNext()) {
+                    next = indexCursor.next();
+                    return true;
+                }
+                while (lo <= hi) {
+                    final long row = lo++;
+                    if (keyAt(row) == key) {
+                        next = row;
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            while (hi >= lo) {
+                final long row = hi--;
+                if (keyAt(row) == key) {
+                    next = row;
+                    return true;
+                }
+            }
+            if (indexCursor.hasNext()) {
+                next = indexCursor.next();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public long next() {
+            return next;
+        }
+
+        private int keyAt(long row) {
+            return TableUtils.toIndexKey(column.getInt((row - unIndexedNullCount) * Integer.BYTES));
+        }
+
+        void of(RowCursor indexCursor, int key, long lo, long hi) {
+            this.indexCursor = indexCursor;
+            this.key = key;
+            this.lo = lo;
+            this.hi = hi;
+        }
+    }
 }
@@ -29,6 +29,7 @@ import io.questdb.cairo.sql.DataFrameCursor;
 import io.questdb.cairo.sql.StaticSymbolTable;
 import io.questdb.std.LongList;
 import io.questdb.std.Transient;
+import org.jetbrains.annotations.Nullable;
 
 public abstract class AbstractIntervalDataFrameCursor implements DataFrameCursor {
     protected final LongList intervals;
@@ -47,6 +48,7 @@ public abstract class AbstractIntervalDataFrameCursor implements DataFrameCursor
     private int initialIntervalsHi;
     private int initialPartitionLo;
     private int initialPartitionHi;
+    protected PartitionPrefetcher prefetcher;
 
     static final int SCAN_UP = -1;
     static final int SCAN_DOWN = 1;
@@ -111,6 +113,9 @@ public abstract class AbstractIntervalDataFrameCursor implements DataFrameCursor
         intervalsHi = initialIntervalsHi;
         partitionLo = initialPartitionLo;
         partitionHi = initialPartitionHi;
+        if (prefetcher != null) {
+            prefetcher.clear();
+        }
     }
 
     public void of(TableReader reader) {
@@ -118,6 +123,10 @@ public abstract class AbstractIntervalDataFrameCursor implements DataFrameCursor
         calculateRanges();
     }
 
+    public void setPrefetcher(@Nullable PartitionPrefetcher prefetcher) {
+        this.prefetcher = prefetcher;
+    }
+
     private void calculateRanges() {
         if (intervals.size() > 0) {
             if (reader.getPartitionedBy() == PartitionBy.NONE) {
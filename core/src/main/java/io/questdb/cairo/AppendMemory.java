@@ -28,6 +28,7 @@ import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.std.Files;
 import io.questdb.std.FilesFacade;
+import io.questdb.std.LongList;
 import io.questdb.std.str.LPSZ;
 
 public class AppendMemory extends VirtualMemory {
@@ -134,6 +135,14 @@ public class AppendMemory extends VirtualMemory {
         ff.munmap(address, getPageSize(page));
     }
 
+    public void addSyncRegion(LongList regions) {
+        if (pageAddress != 0) {
+            regions.add(fd);
+            regions.add(pageAddress);
+            regions.add(getMapPageSize());
+        }
+    }
+
     public void sync(boolean async) {
         if (pageAddress != 0) {
             if (ff.msync(pageAddress, getMapPageSize(), async) == 0) {
@@ -27,20 +27,27 @@ package io.questdb.cairo;
 import io.questdb.cairo.sql.RowCursor;
 import io.questdb.std.Unsafe;
 import io.questdb.std.str.Path;
+import org.jetbrains.annotations.Nullable;
 
 public class BitmapIndexBwdReader extends AbstractIndexReader {
     private final Cursor cursor = new Cursor();
     private final NullCursor nullCursor = new NullCursor();
 
     public BitmapIndexBwdReader() {
+        super(DIR_BACKWARD);
     }
 
     public BitmapIndexBwdReader(CairoConfiguration configuration, Path path, CharSequence name, long unIndexedNullCount) {
-        of(configuration, path, name, unIndexedNullCount);
+        this(configuration, path, name, unIndexedNullCount, null);
+    }
+
+    public BitmapIndexBwdReader(CairoConfiguration configuration, Path path, CharSequence name, long unIndexedNullCount, @Nullable ReadOnlyColumn column) {
+        super(DIR_BACKWARD);
+        of(configuration, path, name, unIndexedNullCount, column);
     }
 
     @Override
-    public RowCursor getCursor(boolean cachedInstance, int key, long minValue, long maxValue) {
+    protected RowCursor getIndexCursor(boolean cachedInstance, int key, long minValue, long maxValue) {
 
         assert minValue <= maxValue;
 
@@ -29,6 +29,7 @@ import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.std.Unsafe;
 import io.questdb.std.str.Path;
+import org.jetbrains.annotations.Nullable;
 
 public class BitmapIndexFwdReader extends AbstractIndexReader {
     private final static Log LOG = LogFactory.getLog(BitmapIndexFwdReader.class);
@@ -36,11 +37,16 @@ public class BitmapIndexFwdReader extends AbstractIndexReader {
     private final NullCursor nullCursor = new NullCursor();
 
     public BitmapIndexFwdReader(CairoConfiguration configuration, Path path, CharSequence name, long unIndexedNullCount) {
-        of(configuration, path, name, unIndexedNullCount);
+        this(configuration, path, name, unIndexedNullCount, null);
+    }
+
+    public BitmapIndexFwdReader(CairoConfiguration configuration, Path path, CharSequence name, long unIndexedNullCount, @Nullable ReadOnlyColumn column) {
+        super(DIR_FORWARD);
+        of(configuration, path, name, unIndexedNullCount, column);
     }
 
     @Override
-    public RowCursor getCursor(boolean cachedInstance, int key, long minValue, long maxValue) {
+    protected RowCursor getIndexCursor(boolean cachedInstance, int key, long minValue, long maxValue) {
 
         if (key >= keyCount) {
             updateKeyCount();
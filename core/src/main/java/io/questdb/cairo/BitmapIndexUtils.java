@@ -43,6 +43,11 @@ public final class BitmapIndexUtils {
     static final int KEY_RESERVED_OFFSET_BLOCK_VALUE_COUNT = 17;
     static final int KEY_RESERVED_OFFSET_KEY_COUNT = 21;
     static final int KEY_RESERVED_OFFSET_SEQUENCE_CHECK = 29;
+    /**
+     * Number of column rows covered by index plus one. Zero is found in files, which
+     * pre-date this field, and stands for index that covers all rows.
+     */
+    static final int KEY_RESERVED_OFFSET_INDEXED_ROW_COUNT = 37;
 
     static final byte SIGNATURE = (byte) 0xfa;
     static final int VALUE_BLOCK_FILE_RESERVED = 16;
@@ -67,6 +67,7 @@ public class BitmapIndexWriter implements Closeable {
         keyMem.putLong(0); // KEY COUNT
         Unsafe.getUnsafe().storeFence();
         keyMem.putLong(1); // SEQUENCE CHECK
+        keyMem.putLong(1); // INDEXED ROW COUNT
         keyMem.skip(BitmapIndexUtils.KEY_FILE_RESERVED - keyMem.getAppendOffset());
     }
 
@@ -139,6 +140,13 @@ public class BitmapIndexWriter implements Closeable {
         return EmptyRowCursor.INSTANCE;
     }
 
+    /**
+     * @return number of column rows added to index or -1 when index file does not keep track of it.
+     */
+    public long getIndexedRowCount() {
+        return keyMem.getLong(BitmapIndexUtils.KEY_RESERVED_OFFSET_INDEXED_ROW_COUNT) - 1;
+    }
+
     final public void of(CairoConfiguration configuration, Path path, CharSequence name) {
         close();
         long pageSize = configuration.getFilesFacade().getMapPageSize();
@@ -236,6 +244,25 @@ public class BitmapIndexWriter implements Closeable {
         }
         valueMemSize = maxValueBlockOffset + blockCapacity;
         updateValueMemSize();
+
+        if (getIndexedRowCount() > maxValue + 1) {
+            setIndexedRowCount(maxValue + 1);
+        }
+    }
+
+    /**
+     * Publishes number of column rows added to index. Readers scan column for rows
+     * above this count.
+     *
+     * @param rowCount number of rows, which index covers
+     */
+    public void setIndexedRowCount(long rowCount) {
+        long seq = keyMem.getLong(BitmapIndexUtils.KEY_RESERVED_OFFSET_SEQUENCE) + 1;
+        keyMem.putLong(BitmapIndexUtils.KEY_RESERVED_OFFSET_SEQUENCE, seq);
+        Unsafe.getUnsafe().storeFence();
+        keyMem.putLong(BitmapIndexUtils.KEY_RESERVED_OFFSET_INDEXED_ROW_COUNT, rowCount + 1);
+        Unsafe.getUnsafe().storeFence();
+        keyMem.putLong(BitmapIndexUtils.KEY_RESERVED_OFFSET_SEQUENCE_CHECK, seq);
     }
 
     private void addValueBlockAndStoreValue(long offset, long valueBlockOffset, long valueCount, long value) {
@@ -147,6 +147,108 @@ public interface CairoConfiguration {
 
     boolean isParallelIndexingEnabled();
 
+    boolean isPartitionPrefetchEnabled();
+
+    long getPartitionPrefetchBufferSize();
+
+    int getPartitionPrefetchDepth();
+
+    /**
+     * Maximum number of bytes of native memory a single query can allocate for its maps,
+     * sort and join structures. Query that breaches this limit fails with an error.
+     *
+     * @return memory limit in bytes, 0 when queries are not limited
+     */
+    long getSqlQueryMemoryLimit();
+
+    /**
+     * Number of bits per distinct join key in Bloom filter, which inner hash join builds
+     * over slave keys and pushes down to master scan. Zero disables the filter.
+     */
+    int getSqlHashJoinBloomFilterBitsPerKey();
+
+    /**
+     * Enables partitioned hash join, which builds join key tables and probes master table
+     * frames on shared worker pool. It is used for table scans joined on single fixed-size key.
+     */
+    boolean isSqlParallelHashJoinEnabled();
+
+    /**
+     * Enables merge join of two time series on their timestamps. When disabled such joins are
+     * hashed as any other equi-join. Run of slave rows sharing one timestamp is bounded by
+     * {@link #getSqlHashJoinLightValuePageSize()} and {@link #getSqlHashJoinLightValueMaxPages()}.
+     */
+    boolean isSqlMergeJoinEnabled();
+
+    /**
+     * Root directory of secondary, typically slower, volume. Partitions older than
+     * {@link #getColdStoragePartitionAge()} days are moved there by {@link ColdStorageJob}.
+     * Returns null when tiered storage is disabled.
+     */
+    CharSequence getColdStorageRoot();
+
+    int getColdStoragePartitionAge();
+
+    long getColdStorageCheckInterval();
+
+    /**
+     * Time window in milliseconds, within which rows appended to tables with DEDUP KEYS
+     * are checked for duplicate keys. Writer keeps keys of at most two such windows in memory.
+     */
+    long getDedupWindow();
+
+    /**
+     * Interval in milliseconds between checks for partitions older than table TTL.
+     * Value of 0 disables {@link PartitionTtlJob}.
+     */
+    long getPartitionTtlCheckInterval();
+
+    /**
+     * When enabled symbol map writers maintain rank of every symbol value in sorted dictionary
+     * order. Ranks are updated on commit and allow sorts and range filters on symbol columns
+     * to compare integers instead of strings. Commit that adds symbols sorting after all existing
+     * ones appends to rank file. Commit that adds symbol between existing ones rewrites rank file
+     * of the column in full, which is 8 bytes per symbol.
+     */
+    boolean isSymbolRankEnabled();
+
+    /**
+     * When enabled commit does not wait for bitmap indexes to be updated. Indexing is handed
+     * over to {@link ColumnIndexerJob} and readers scan rows index has not caught up with yet.
+     */
+    boolean isDeferredIndexingEnabled();
+
+    /**
+     * Comma separated list of table name patterns, where "*" matches any number of characters.
+     * Readers of matching tables are opened and returned to reader pool on startup by
+     * {@link TableWarmUpJob}. Returns null when warm-up is disabled.
+     */
+    CharSequence getWarmUpTables();
+
+    /**
+     * Number of most recent partitions of each table {@link TableWarmUpJob} reads column
+     * pages of. Zero opens readers only.
+     */
+    int getWarmUpPartitionCount();
+
+    /**
+     * Semicolon separated list of SELECT queries that HTTP and PostgreSQL wire workers
+     * compile into their query caches on startup, see {@link io.questdb.griffin.QueryWarmUpJob}.
+     * Returns null when there are no saved queries.
+     */
+    CharSequence getWarmUpQueries();
+
+    /**
+     * Maximum time in microseconds {@link GroupCommitJob} waits for writers that are publishing their
+     * regions to join the group of concurrent {@link CommitMode#SYNC} commits. Zero disables group
+     * commit and writers sync their own columns.
+     *
+     * @return group commit window in microseconds
+     */
+    long getGroupCommitWindow();
+
+    int getGroupCommitQueueCapacity();
+
     /**
      * This holds table metadata, which is usually quite small. 16K page should be adequate.
      *
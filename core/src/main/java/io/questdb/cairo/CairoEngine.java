@@ -53,6 +53,7 @@ public class CairoEngine implements Closeable {
     private final CairoConfiguration configuration;
     private final WriterMaintenanceJob writerMaintenanceJob;
     private final MessageBus messageBus;
+    private final GroupCommitJob groupCommitJob;
 
     public CairoEngine(CairoConfiguration configuration) {
         this(configuration, null);
@@ -60,12 +61,22 @@ public class CairoEngine implements Closeable {
 
     public CairoEngine(CairoConfiguration configuration, @Nullable MessageBus messageBus) {
         this.configuration = configuration;
-        this.writerPool = new WriterPool(configuration, messageBus);
+        this.groupCommitJob = messageBus != null && configuration.getGroupCommitWindow() > 0 ? new GroupCommitJob(configuration, messageBus) : null;
+        this.writerPool = new WriterPool(configuration, messageBus, groupCommitJob);
         this.readerPool = new ReaderPool(configuration);
         this.writerMaintenanceJob = new WriterMaintenanceJob(configuration);
         this.messageBus = messageBus;
     }
 
+    /**
+     * Returns job shared by writers of this engine to group their durable commits,
+     * null when group commit is disabled.
+     */
+    @Nullable
+    public GroupCommitJob getGroupCommitJob() {
+        return groupCommitJob;
+    }
+
     public Job getWriterMaintenanceJob() {
         return writerMaintenanceJob;
     }
@@ -105,6 +116,11 @@ public class CairoEngine implements Closeable {
         return configuration;
     }
 
+    @Nullable
+    public MessageBus getMessageBus() {
+        return messageBus;
+    }
+
     public PoolListener getPoolListener() {
         return this.writerPool.getPoolListener();
     }
@@ -160,16 +176,6 @@ public class CairoEngine implements Closeable {
         return writerPool.get(tableName);
     }
 
-    public TableWriter getBackupWriter(
-            CairoSecurityContext securityContext,
-            CharSequence tableName,
-            CharSequence backupDirName
-    ) {
-        securityContext.checkWritePermission();
-        // There is no point in pooling/caching these writers since they are only used once, backups are not incremental
-        return new TableWriter(configuration, tableName, messageBus, true, DefaultLifecycleManager.INSTANCE, backupDirName);
-    }
-
     public boolean lock(
             CairoSecurityContext securityContext,
             CharSequence tableName
@@ -0,0 +1,242 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.SynchronizedJob;
+import io.questdb.std.*;
+import io.questdb.std.microtime.MicrosecondClock;
+import io.questdb.std.microtime.TimestampFormat;
+import io.questdb.std.microtime.Timestamps;
+import io.questdb.std.str.NativeLPSZ;
+import io.questdb.std.str.Path;
+
+import java.io.Closeable;
+
+/**
+ * Moves partitions older than configured age from table directory to cold storage root,
+ * typically on a slower and cheaper volume. Partition files are copied into temporary
+ * directory under cold storage root, which is then renamed to partition name. Original
+ * partition directory is renamed out of the way before it is deleted. {@link TableReader}
+ * and {@link TableWriter} look up partitions missing from table directory in cold storage,
+ * so partition remains visible throughout the move.
+ * <p>
+ * Job does not take table lock and does not block writers. Active partition is never moved.
+ * Move is abandoned when table structure changes or partition is removed while files are
+ * being copied.
+ */
+public class ColdStorageJob extends SynchronizedJob implements Closeable {
+    private static final Log LOG = LogFactory.getLog(ColdStorageJob.class);
+    private static final String MOVING_DIR_SUFFIX = ".moving";
+    private static final String MOVED_DIR_SUFFIX = ".moved";
+    private final CairoEngine engine;
+    private final FilesFacade ff;
+    private final MicrosecondClock clock;
+    private final CharSequence root;
+    private final CharSequence coldRoot;
+    private final long checkInterval;
+    private final long partitionAge;
+    private final int mkDirMode;
+    private final int commitMode;
+    private final Path path = new Path();
+    private final Path other = new Path();
+    private final Path tmp = new Path();
+    private final NativeLPSZ nativeLPSZ = new NativeLPSZ();
+    private final ObjList<String> tableNames = new ObjList<>();
+    private final LongList partitionTimestamps = new LongList();
+    private long last = 0;
+
+    public ColdStorageJob(CairoEngine engine) {
+        final CairoConfiguration configuration = engine.getConfiguration();
+        this.engine = engine;
+        this.ff = configuration.getFilesFacade();
+        this.clock = configuration.getMicrosecondClock();
+        this.root = configuration.getRoot();
+        this.coldRoot = configuration.getColdStorageRoot();
+        this.checkInterval = configuration.getColdStorageCheckInterval() * 1000;
+        this.partitionAge = configuration.getColdStoragePartitionAge() * Timestamps.DAY_MICROS;
+        this.mkDirMode = configuration.getMkDirMode();
+        this.commitMode = configuration.getCommitMode();
+    }
+
+    @Override
+    public void close() {
+        Misc.free(path);
+        Misc.free(other);
+        Misc.free(tmp);
+    }
+
+    @Override
+    protected boolean runSerially() {
+        final long t = clock.getTicks();
+        if (last + checkInterval < t) {
+            last = t;
+            return moveTables(t - partitionAge);
+        }
+        return false;
+    }
+
+    private boolean copyFile(int plen, int tmpLen, long name) {
+        return TableUtils.copyFile(ff, path.trimTo(plen).concat(name).$(), tmp.trimTo(tmpLen).concat(name).$(), commitMode);
+    }
+
+    private boolean copyFiles(int plen, int tmpLen) {
+        final long p = ff.findFirst(path.trimTo(plen).$());
+        if (p > 0) {
+            try {
+                do {
+                    if (ff.findType(p) != Files.DT_DIR && !copyFile(plen, tmpLen, ff.findName(p))) {
+                        return false;
+                    }
+                } while (ff.findNext(p) > 0);
+            } finally {
+                ff.findClose(p);
+            }
+        }
+        return true;
+    }
+
+    private boolean movePartition(TableReader reader, CharSequence tableName, TimestampFormat partitionDirFmt, long timestamp) {
+        final long structureVersion = reader.getVersion();
+
+        partitionDirFmt.format(timestamp, null, null, path.of(root).concat(tableName).put(Files.SEPARATOR));
+        final int plen = path.length();
+        partitionDirFmt.format(timestamp, null, null, other.of(coldRoot).concat(tableName).put(Files.SEPARATOR));
+
+        // cold copy might be complete already when we did not get
+        // to remove original partition last time
+        if (!ff.exists(other.$())) {
+            partitionDirFmt.format(timestamp, null, null, tmp.of(coldRoot).concat(tableName).put(Files.SEPARATOR));
+            tmp.put(MOVING_DIR_SUFFIX);
+            final int tmpLen = tmp.length();
+            if (ff.exists(tmp.$()) && !ff.rmdir(tmp)) {
+                LOG.error().$("could not remove [path=").$(tmp).$(", errno=").$(ff.errno()).$(']').$();
+                return false;
+            }
+
+            if (ff.mkdirs(tmp.trimTo(tmpLen).put(Files.SEPARATOR).$(), mkDirMode) != 0) {
+                LOG.error().$("could not create [path=").$(tmp).$(", errno=").$(ff.errno()).$(']').$();
+                return false;
+            }
+
+            LOG.info().$("moving to cold storage [from=").$(path.$()).$(", to=").$(other).$(']').$();
+
+            boolean copied = copyFiles(plen, tmpLen);
+            if (copied) {
+                // writer may have removed partition or changed table structure
+                // while we were busy copying, files we copied would be stale then
+                reader.reload();
+                copied = reader.getVersion() == structureVersion && ff.exists(path.trimTo(plen).$());
+                if (!copied) {
+                    LOG.info().$("table changed, cold storage move abandoned [path=").$(path).$(']').$();
+                }
+            }
+
+            if (!copied || !ff.rename(tmp.trimTo(tmpLen).$(), other)) {
+                LOG.error().$("could not move to cold storage [path=").$(path.trimTo(plen).$()).$(", errno=").$(ff.errno()).$(']').$();
+                if (!ff.rmdir(tmp.trimTo(tmpLen).$())) {
+                    LOG.error().$("could not remove [path=").$(tmp).$(", errno=").$(ff.errno()).$(']').$();
+                }
+                return false;
+            }
+        }
+
+        // partition directory is renamed before it is removed, otherwise
+        // readers could find it half-deleted
+        partitionDirFmt.format(timestamp, null, null, tmp.of(root).concat(tableName).put(Files.SEPARATOR));
+        if (!ff.rename(path.trimTo(plen).$(), tmp.put(MOVED_DIR_SUFFIX).$())) {
+            LOG.error().$("could not rename [from=").$(path).$(", to=").$(tmp).$(", errno=").$(ff.errno()).$(']').$();
+            return false;
+        }
+
+        if (!ff.rmdir(tmp)) {
+            LOG.info().$("partition directory delete is postponed [path=").$(tmp).$(']').$();
+        }
+
+        LOG.info().$("moved to cold storage [path=").$(other).$(']').$();
+        return true;
+    }
+
+    private boolean moveTable(CharSequence tableName, long threshold) {
+        if (TableUtils.exists(ff, path, root, tableName) != TableUtils.TABLE_EXISTS) {
+            return false;
+        }
+
+        try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, tableName)) {
+            final int partitionBy = reader.getPartitionedBy();
+            if (partitionBy == PartitionBy.NONE || reader.getMaxTimestamp() == Long.MIN_VALUE) {
+                return false;
+            }
+
+            final TimestampFormat partitionDirFmt = TableWriter.selectPartitionDirFmt(partitionBy);
+            final Timestamps.TimestampAddMethod addMethod = TableWriter.selectPartitionAddMethod(partitionBy);
+            final long activePartitionTimestamp = reader.floorToPartitionTimestamp(reader.getMaxTimestamp());
+
+            partitionTimestamps.clear();
+            ff.iterateDir(path.of(root).concat(tableName).$(), (name, type) -> {
+                if (type == Files.DT_DIR) {
+                    nativeLPSZ.of(name);
+                    try {
+                        final long timestamp = partitionDirFmt.parse(nativeLPSZ, null);
+                        if (timestamp < activePartitionTimestamp && addMethod.calculate(timestamp, 1) <= threshold) {
+                            partitionTimestamps.add(timestamp);
+                        }
+                    } catch (NumericException ignore) {
+                        // not a partition
+                    }
+                }
+            });
+
+            boolean moved = false;
+            for (int i = 0, n = partitionTimestamps.size(); i < n; i++) {
+                moved |= movePartition(reader, tableName, partitionDirFmt, partitionTimestamps.getQuick(i));
+            }
+            return moved;
+        } catch (CairoException e) {
+            LOG.error().$("could not move partitions to cold storage [table=").utf8(tableName).$(", e=").$((Sinkable) e).$(']').$();
+            return false;
+        }
+    }
+
+    private boolean moveTables(long threshold) {
+        tableNames.clear();
+        ff.iterateDir(path.of(root).$(), (name, type) -> {
+            if (type == Files.DT_DIR) {
+                nativeLPSZ.of(name);
+                if (nativeLPSZ.charAt(0) != '.') {
+                    tableNames.add(Chars.toString(nativeLPSZ));
+                }
+            }
+        });
+
+        boolean moved = false;
+        for (int i = 0, n = tableNames.size(); i < n; i++) {
+            moved |= moveTable(tableNames.getQuick(i), threshold);
+        }
+        return moved;
+    }
+}
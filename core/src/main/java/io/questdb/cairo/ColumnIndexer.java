@@ -27,14 +27,31 @@ package io.questdb.cairo;
 import io.questdb.std.str.Path;
 
 public interface ColumnIndexer {
+    /**
+     * Indexes rows between index high-water mark and given row count. This brings index
+     * in line with column after indexing was deferred and writer did not get to finish it.
+     *
+     * @param hiRow partition-level row count, which index should cover
+     */
+    void catchUp(long hiRow);
+
     void distress();
 
     long getFd();
 
     long getSequence();
 
+    void refreshSource();
+
     void refreshSourceAndIndex(long loRow, long hiRow);
 
+    /**
+     * Indexes rows of source as it was at last {@link #refreshSource()}. Unlike
+     * {@link #refreshSourceAndIndex(long, long)} this method does not read state of column
+     * memory, which makes it safe to call while writer continues appending rows.
+     */
+    void index(long loRow, long hiRow);
+
     void index(VirtualMemory mem, long loRow, long hiRow);
 
     boolean isDistressed();
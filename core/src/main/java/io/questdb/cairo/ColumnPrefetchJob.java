@@ -0,0 +1,117 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.MessageBus;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.RingQueue;
+import io.questdb.mp.Sequence;
+import io.questdb.mp.SynchronizedJob;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.Path;
+import io.questdb.tasks.ColumnPrefetchTask;
+
+import java.io.Closeable;
+
+/**
+ * Reads column files of partitions that data frame cursors are about to scan. Reading
+ * file ahead of the query thread populates OS page cache, so that page faults on
+ * sequential scan of cold partitions are served from memory rather than disk.
+ * <p>
+ * Tasks carry file names rather than descriptors of the reader. Reader can close its
+ * descriptor before the task is picked up and the number can be reused by an unrelated
+ * file, so the job opens files itself. Read buffer is allocated once, job is synchronized
+ * and only one worker reads into it at a time.
+ */
+public class ColumnPrefetchJob extends SynchronizedJob implements Closeable {
+    private static final Log LOG = LogFactory.getLog(ColumnPrefetchJob.class);
+    private final RingQueue<ColumnPrefetchTask> queue;
+    private final Sequence subSeq;
+    private final FilesFacade ff;
+    private final long bufferSize;
+    private final Path path = new Path();
+    private long buf;
+
+    public ColumnPrefetchJob(CairoConfiguration configuration, MessageBus messageBus) {
+        this.queue = messageBus.getColumnPrefetchQueue();
+        this.subSeq = messageBus.getColumnPrefetchSubSequence();
+        this.ff = configuration.getFilesFacade();
+        this.bufferSize = configuration.getPartitionPrefetchBufferSize();
+        this.buf = Unsafe.malloc(bufferSize);
+    }
+
+    @Override
+    public void close() {
+        if (buf != 0) {
+            Unsafe.free(buf, bufferSize);
+            buf = 0;
+        }
+        path.close();
+    }
+
+    @Override
+    protected boolean runSerially() {
+        long cursor;
+        do {
+            cursor = subSeq.next();
+        } while (cursor == -2);
+
+        if (cursor < 0) {
+            return false;
+        }
+
+        path.of(queue.get(cursor).path).$();
+        subSeq.done(cursor);
+        prefetch();
+        return true;
+    }
+
+    private void prefetch() {
+        // file could have been removed by the time we get here,
+        // in which case we lose nothing but the hint
+        final long fd = ff.openRO(path);
+        if (fd == -1) {
+            LOG.debug().$("prefetch skipped [path=").$(path).$(", errno=").$(ff.errno()).$(']').$();
+            return;
+        }
+
+        try {
+            final long len = ff.length(fd);
+            long offset = 0;
+            while (offset < len) {
+                final long n = ff.read(fd, buf, Math.min(bufferSize, len - offset), offset);
+                if (n < 1) {
+                    LOG.debug().$("prefetch interrupted [path=").$(path).$(", offset=").$(offset).$(", errno=").$(ff.errno()).$(']').$();
+                    break;
+                }
+                offset += n;
+            }
+        } finally {
+            ff.close(fd);
+        }
+    }
+}
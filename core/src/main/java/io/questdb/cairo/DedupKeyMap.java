@@ -0,0 +1,124 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+package io.questdb.cairo;
+
+import io.questdb.cairo.map.FastMap;
+import io.questdb.cairo.map.MapKey;
+import io.questdb.std.IntList;
+import io.questdb.std.Misc;
+
+import java.io.Closeable;
+
+/**
+ * Off-heap set of recent row keys of a table created with DEDUP KEYS. Key is
+ * designated timestamp and values of one or more symbol columns. Keys are grouped
+ * into generations, each covering one time window. Only current and previous
+ * generations are kept, memory is therefore bounded by number of rows appended
+ * within two windows.
+ */
+class DedupKeyMap implements Closeable {
+    static final int KEY_NEW = 0;
+    static final int KEY_DUPLICATE = 1;
+    static final int KEY_OUT_OF_WINDOW = 2;
+    private static final int PAGE_SIZE = 1024 * 1024;
+    private static final int KEY_CAPACITY = 64 * 1024;
+    private static final double LOAD_FACTOR = 0.5;
+    private final long window;
+    private FastMap current;
+    private FastMap previous;
+    private long generation = Long.MIN_VALUE;
+
+    DedupKeyMap(CairoConfiguration configuration, int symbolKeyCount) {
+        final ArrayColumnTypes keyTypes = new ArrayColumnTypes();
+        keyTypes.add(ColumnType.TIMESTAMP);
+        for (int i = 0; i < symbolKeyCount; i++) {
+            keyTypes.add(ColumnType.INT);
+        }
+        this.window = configuration.getDedupWindow() * 1000;
+        this.current = new FastMap(PAGE_SIZE, keyTypes, KEY_CAPACITY, LOAD_FACTOR, Integer.MAX_VALUE);
+        this.previous = new FastMap(PAGE_SIZE, keyTypes, KEY_CAPACITY, LOAD_FACTOR, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void close() {
+        current = Misc.free(current);
+        previous = Misc.free(previous);
+    }
+
+    void clear() {
+        current.clear();
+        previous.clear();
+        generation = Long.MIN_VALUE;
+    }
+
+    /**
+     * Timestamps of keys added by this method are expected to grow. Rows arriving
+     * late, within the window, can be checked without being added.
+     *
+     * @param timestamp  designated timestamp of the row
+     * @param symbolKeys symbol keys in the order of key columns
+     * @param add        when false key is looked up without being added
+     * @return {@link #KEY_NEW} when key has not been seen before, {@link #KEY_DUPLICATE} when key
+     * has been seen before and {@link #KEY_OUT_OF_WINDOW} when timestamp is too old to tell
+     */
+    int put(long timestamp, IntList symbolKeys, boolean add) {
+        final long g = Math.floorDiv(timestamp, window);
+        final FastMap map;
+        if (g == generation) {
+            map = current;
+        } else if (g > generation) {
+            if (g == generation + 1) {
+                final FastMap tmp = previous;
+                previous = current;
+                current = tmp;
+            } else {
+                previous.clear();
+            }
+            current.clear();
+            generation = g;
+            map = current;
+        } else if (g == generation - 1) {
+            map = previous;
+        } else {
+            return KEY_OUT_OF_WINDOW;
+        }
+
+        final MapKey key = map.withKey();
+        key.putTimestamp(timestamp);
+        for (int i = 0, n = symbolKeys.size(); i < n; i++) {
+            key.putInt(symbolKeys.getQuick(i));
+        }
+        if (add) {
+            return key.create() ? KEY_NEW : KEY_DUPLICATE;
+        }
+        return key.notFound() ? KEY_NEW : KEY_DUPLICATE;
+    }
+
+    /**
+     * @return lowest timestamp, which duplicates can still be detected for
+     */
+    long getWindowLo(long maxTimestamp) {
+        return (Math.floorDiv(maxTimestamp, window) - 1) * window;
+    }
+}
@@ -314,6 +314,101 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return true;
     }
 
+    @Override
+    public boolean isPartitionPrefetchEnabled() {
+        return false;
+    }
+
+    @Override
+    public long getPartitionPrefetchBufferSize() {
+        return Numbers.SIZE_1MB;
+    }
+
+    @Override
+    public int getPartitionPrefetchDepth() {
+        return 2;
+    }
+
+    @Override
+    public long getSqlQueryMemoryLimit() {
+        return 0;
+    }
+
+    @Override
+    public int getSqlHashJoinBloomFilterBitsPerKey() {
+        return 10;
+    }
+
+    @Override
+    public boolean isSqlParallelHashJoinEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isSqlMergeJoinEnabled() {
+        return true;
+    }
+
+    @Override
+    public CharSequence getColdStorageRoot() {
+        return null;
+    }
+
+    @Override
+    public int getColdStoragePartitionAge() {
+        return 30;
+    }
+
+    @Override
+    public long getColdStorageCheckInterval() {
+        return 60_000;
+    }
+
+    @Override
+    public long getDedupWindow() {
+        return 60_000;
+    }
+
+    @Override
+    public long getPartitionTtlCheckInterval() {
+        return 60_000;
+    }
+
+    @Override
+    public boolean isSymbolRankEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isDeferredIndexingEnabled() {
+        return false;
+    }
+
+    @Override
+    public CharSequence getWarmUpTables() {
+        return null;
+    }
+
+    @Override
+    public int getWarmUpPartitionCount() {
+        return 0;
+    }
+
+    @Override
+    public CharSequence getWarmUpQueries() {
+        return null;
+    }
+
+    @Override
+    public long getGroupCommitWindow() {
+        return 0;
+    }
+
+    @Override
+    public int getGroupCommitQueueCapacity() {
+        return 1024;
+    }
+
     @Override
     public int getSqlJoinMetadataPageSize() {
         return 16 * 1024;
@@ -39,6 +39,9 @@ public class FullBwdDataFrameCursor extends AbstractFullDataFrameCursor {
                 frame.partitionIndex = partitionIndex;
                 frame.rowHi = hi;
                 partitionIndex--;
+                if (prefetcher != null) {
+                    prefetcher.bwd(reader, partitionIndex, 0);
+                }
                 return frame;
 
             }
@@ -49,5 +52,6 @@ public class FullBwdDataFrameCursor extends AbstractFullDataFrameCursor {
     @Override
     public void toTop() {
         this.partitionIndex = this.partitionHi - 1;
+        resetPrefetch();
     }
 }
@@ -31,6 +31,7 @@ public class FullBwdDataFrameCursorFactory extends AbstractDataFrameCursorFactor
 
     public FullBwdDataFrameCursorFactory(CairoEngine engine, String tableName, long tableVersion) {
         super(engine, tableName, tableVersion);
+        cursor.setPrefetcher(newPrefetcher());
     }
 
     @Override
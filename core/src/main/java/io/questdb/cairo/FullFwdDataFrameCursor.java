@@ -40,6 +40,9 @@ public class FullFwdDataFrameCursor extends AbstractFullDataFrameCursor {
                 frame.partitionIndex = partitionIndex;
                 frame.rowHi = hi;
                 partitionIndex++;
+                if (prefetcher != null) {
+                    prefetcher.fwd(reader, partitionIndex, partitionHi);
+                }
                 return frame;
 
             }
@@ -51,5 +54,6 @@ public class FullFwdDataFrameCursor extends AbstractFullDataFrameCursor {
     @Override
     public void toTop() {
         this.partitionIndex = 0;
+        resetPrefetch();
     }
 }
@@ -31,6 +31,7 @@ public class FullFwdDataFrameCursorFactory extends AbstractDataFrameCursorFactor
 
     public FullFwdDataFrameCursorFactory(CairoEngine engine, String tableName, long tableVersion) {
         super(engine, tableName, tableVersion);
+        cursor.setPrefetcher(newPrefetcher());
     }
 
     @Override
@@ -0,0 +1,227 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.MessageBus;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.RingQueue;
+import io.questdb.mp.SOCountDownLatch;
+import io.questdb.mp.Sequence;
+import io.questdb.mp.SynchronizedJob;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.LongHashSet;
+import io.questdb.std.LongList;
+import io.questdb.std.ObjList;
+import io.questdb.std.microtime.MicrosecondClock;
+import io.questdb.tasks.GroupCommitTask;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Coalesces durable commits of concurrently committing writers. Writers publish dirty memory
+ * regions to the group commit queue and wait on a latch. This job collects regions of all
+ * writers that are publishing at the time, msync()-s every distinct region once and releases
+ * all waiting writers. Writers that publish while the group is being flushed form the next
+ * group, so that under concurrent load one thread flushes commits of many writers.
+ * <p>
+ * Single instance of this job is owned by {@link CairoEngine} and shared by all writers of
+ * the engine. Regions are synced one by one, so files of the same group may reside on different
+ * volumes, e.g. partitions moved to cold storage. Writers run the job themselves when their latch is not released in time. This makes the waiting
+ * writer the leader of the group and guarantees progress when there are no worker threads
+ * running the job.
+ * <p>
+ * Failure to sync a region is reported to the writer that published it, which fails its commit.
+ */
+public class GroupCommitJob extends SynchronizedJob {
+    private static final Log LOG = LogFactory.getLog(GroupCommitJob.class);
+    private final RingQueue<GroupCommitTask> queue;
+    private final Sequence pubSeq;
+    private final Sequence subSeq;
+    private final FilesFacade ff;
+    private final MicrosecondClock clock;
+    private final long window;
+    private final long stealTimeout;
+    private final AtomicInteger publishingWriters = new AtomicInteger();
+    private final LongList regions = new LongList();
+    private final ObjList<Latch> latches = new ObjList<>();
+    private final LongHashSet syncedAddresses = new LongHashSet();
+    private int groupWriterCount;
+    private int lastGroupWriterCount;
+
+    public GroupCommitJob(CairoConfiguration configuration, MessageBus messageBus) {
+        this.queue = messageBus.getGroupCommitQueue();
+        this.pubSeq = messageBus.getGroupCommitPubSequence();
+        this.subSeq = messageBus.getGroupCommitSubSequence();
+        this.ff = configuration.getFilesFacade();
+        this.clock = configuration.getMicrosecondClock();
+        this.window = configuration.getGroupCommitWindow();
+        this.stealTimeout = configuration.getWorkStealTimeoutNanos();
+    }
+
+    /**
+     * Makes regions durable as part of a group and returns once they are.
+     *
+     * @param regions triplets of file descriptor, address and length of regions to sync
+     * @param latch   latch owned by calling writer
+     * @throws CairoException when any of the regions could not be synced
+     */
+    public void sync(LongList regions, Latch latch) {
+        final int regionCount = regions.size() / 3;
+        if (regionCount == 0) {
+            return;
+        }
+
+        latch.errno = 0;
+        latch.setCount(regionCount);
+        publishingWriters.incrementAndGet();
+        try {
+            boolean first = true;
+            for (int i = 0; i < regionCount; i++) {
+                final long fd = regions.getQuick(i * 3);
+                final long address = regions.getQuick(i * 3 + 1);
+                final long length = regions.getQuick(i * 3 + 2);
+                long cursor;
+                do {
+                    cursor = pubSeq.next();
+                } while (cursor == -2);
+
+                if (cursor == -1) {
+                    // queue is full, sync in the current thread
+                    msync(address, length, latch);
+                    latch.countDown();
+                    continue;
+                }
+
+                final GroupCommitTask task = queue.get(cursor);
+                task.fd = fd;
+                task.address = address;
+                task.length = length;
+                task.countDownLatch = latch;
+                task.first = first;
+                pubSeq.done(cursor);
+                first = false;
+            }
+        } finally {
+            publishingWriters.decrementAndGet();
+        }
+
+        // when the job did not pick up our regions in time we lead the group ourselves
+        while (!latch.await(stealTimeout)) {
+            run(0);
+        }
+
+        if (latch.errno != 0) {
+            throw CairoException.instance(latch.errno).put("could not msync");
+        }
+    }
+
+    @Override
+    protected boolean runSerially() {
+        if (!collect()) {
+            return false;
+        }
+
+        // writers that are half way through publishing their regions join this group, when previous
+        // group was formed by several writers we also give them time to arrive, lone writer never waits
+        final long deadline = clock.getTicks() + window;
+        while ((publishingWriters.get() > 0 || groupWriterCount < lastGroupWriterCount) && clock.getTicks() < deadline) {
+            if (!collect()) {
+                LockSupport.parkNanos(1);
+            }
+        }
+
+        //noinspection StatementWithEmptyBody
+        while (collect()) ;
+
+        sync();
+        return true;
+    }
+
+    private boolean collect() {
+        while (true) {
+            long cursor = subSeq.next();
+            if (cursor > -1) {
+                final GroupCommitTask task = queue.get(cursor);
+                regions.add(task.fd);
+                regions.add(task.address);
+                regions.add(task.length);
+                latches.add(task.countDownLatch);
+                if (task.first) {
+                    groupWriterCount++;
+                }
+                subSeq.done(cursor);
+                return true;
+            }
+
+            if (cursor == -1) {
+                return false;
+            }
+        }
+    }
+
+    private void msync(long address, long length, Latch latch) {
+        if (ff.msync(address, length, false) != 0) {
+            final int errno = ff.errno();
+            LOG.error().$("could not msync [address=").$(address).$(", errno=").$(errno).$(']').$();
+            latch.errno = errno;
+        }
+    }
+
+    private void sync() {
+        final int regionCount = latches.size();
+        int syncCount = 0;
+        for (int i = 0; i < regionCount; i++) {
+            final long address = regions.getQuick(i * 3 + 1);
+            // same page can be published twice only by the same writer, its latch gets the error once
+            if (syncedAddresses.excludes(address)) {
+                syncedAddresses.add(address);
+                msync(address, regions.getQuick(i * 3 + 2), latches.getQuick(i));
+                syncCount++;
+            }
+        }
+
+        for (int i = 0; i < regionCount; i++) {
+            latches.getQuick(i).countDown();
+        }
+
+        LOG.debug().$("group commit [writers=").$(groupWriterCount).$(", regions=").$(regionCount).$(", syncs=").$(syncCount).$(']').$();
+
+        regions.clear();
+        latches.clear();
+        syncedAddresses.clear();
+        lastGroupWriterCount = groupWriterCount;
+        groupWriterCount = 0;
+    }
+
+    /**
+     * Latch writer waits on for its regions to be synced. Besides counting regions down it
+     * carries error of a failed region back to the writer.
+     */
+    public static class Latch extends SOCountDownLatch {
+        private volatile int errno;
+    }
+}
@@ -101,6 +101,9 @@ public class IntervalBwdDataFrameCursor extends AbstractIntervalDataFrameCursor
                         // whole partition, will need to skip to next one
                         partitionLimit = -1; // use row count next time
                         partitionHi = currentPartition;
+                        if (prefetcher != null) {
+                            prefetcher.bwd(reader, currentPartition - 1, partitionLo);
+                        }
                     } else {
                         // only fragment, need to skip to next interval
                         partitionLimit = lo; // use "lo" for max
@@ -39,6 +39,7 @@ public class IntervalBwdDataFrameCursorFactory extends AbstractDataFrameCursorFa
     ) {
         super(engine, tableName, tableVersion);
         this.cursor = new IntervalBwdDataFrameCursor(intervals, timestampIndex);
+        this.cursor.setPrefetcher(newPrefetcher());
     }
 
     @Override
@@ -103,6 +103,9 @@ public class IntervalFwdDataFrameCursor extends AbstractIntervalDataFrameCursor
                         // whole partition, will need to skip to next one
                         partitionLimit = 0;
                         partitionLo++;
+                        if (prefetcher != null) {
+                            prefetcher.fwd(reader, partitionLo, partitionHi);
+                        }
                     } else {
                         // only fragment, need to skip to next interval
                         partitionLimit = hi;
@@ -39,6 +39,7 @@ public class IntervalFwdDataFrameCursorFactory extends AbstractDataFrameCursorFa
     ) {
         super(engine, tableName, tableVersion);
         this.cursor = new IntervalFwdDataFrameCursor(intervals, timestampIndex);
+        this.cursor.setPrefetcher(newPrefetcher());
     }
 
     @Override
@@ -0,0 +1,95 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.MessageBus;
+import io.questdb.std.IntList;
+import io.questdb.std.Mutable;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Keeps column files of several partitions ahead of the scan in flight on {@link ColumnPrefetchJob}.
+ * Cursors call {@link #fwd(TableReader, int, int)} or {@link #bwd(TableReader, int, int)} with
+ * partition they are about to scan and this class makes sure that up to "depth" partitions
+ * from that one in the scan direction are published to the prefetch queue exactly once.
+ * <p>
+ * Read-ahead is plain buffered pread() of whole column files on worker threads, which warms
+ * OS page cache for the mmap-ed scan. There is no io_uring submission and no aligned direct
+ * I/O buffers: the prebuilt native library exposes neither, so prefetched partitions still
+ * cost one page cache copy and worker threads block on disk while reading.
+ */
+public class PartitionPrefetcher implements Mutable {
+    private final MessageBus messageBus;
+    private final int depth;
+    private final IntList columnIndexes;
+    // furthest partition published in the scan direction
+    private int lastPartitionIndex = -1;
+
+    /**
+     * @param messageBus    bus that owns prefetch queue
+     * @param depth         number of partitions to keep in flight
+     * @param columnIndexes reader column indexes to read ahead, null to read all columns
+     */
+    public PartitionPrefetcher(MessageBus messageBus, int depth, @Nullable IntList columnIndexes) {
+        this.messageBus = messageBus;
+        this.depth = depth;
+        this.columnIndexes = columnIndexes;
+    }
+
+    @Nullable
+    public static PartitionPrefetcher newInstance(CairoEngine engine, @Nullable IntList columnIndexes) {
+        final CairoConfiguration configuration = engine.getConfiguration();
+        final MessageBus messageBus = engine.getMessageBus();
+        if (messageBus != null && configuration.isPartitionPrefetchEnabled()) {
+            return new PartitionPrefetcher(messageBus, configuration.getPartitionPrefetchDepth(), columnIndexes);
+        }
+        return null;
+    }
+
+    @Override
+    public void clear() {
+        lastPartitionIndex = -1;
+    }
+
+    public void fwd(TableReader reader, int partitionIndex, int partitionHi) {
+        if (lastPartitionIndex < partitionIndex) {
+            lastPartitionIndex = partitionIndex - 1;
+        }
+        final int hi = Math.min(partitionIndex + depth, partitionHi);
+        while (lastPartitionIndex + 1 < hi) {
+            reader.prefetchPartition(++lastPartitionIndex, columnIndexes, messageBus);
+        }
+    }
+
+    public void bwd(TableReader reader, int partitionIndex, int partitionLo) {
+        if (lastPartitionIndex == -1 || lastPartitionIndex > partitionIndex) {
+            lastPartitionIndex = partitionIndex + 1;
+        }
+        final int lo = Math.max(partitionIndex - depth + 1, partitionLo);
+        while (lastPartitionIndex - 1 >= lo) {
+            reader.prefetchPartition(--lastPartitionIndex, columnIndexes, messageBus);
+        }
+    }
+}
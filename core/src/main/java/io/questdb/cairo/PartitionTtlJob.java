@@ -0,0 +1,185 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.pool.ex.EntryUnavailableException;
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.SynchronizedJob;
+import io.questdb.std.*;
+import io.questdb.std.microtime.MicrosecondClock;
+import io.questdb.std.microtime.Timestamps;
+import io.questdb.std.str.NativeLPSZ;
+import io.questdb.std.str.Path;
+
+import java.io.Closeable;
+
+/**
+ * Removes partitions of tables with TTL, see {@link TableWriter#setTtlHours(int)}. Partition
+ * is removed once its upper bound is more than TTL behind max timestamp of the table. Age of
+ * partitions is measured against data rather than wall clock, loading historical data into
+ * table does not wipe it out.
+ * <p>
+ * TTL is read straight from table metadata file, tables without TTL are never opened. Tables
+ * with TTL are checked via pooled reader first. Writer is taken only when there are partitions
+ * to remove and only when it is idle in the pool, job never waits for busy writer and
+ * retries on the next run instead.
+ */
+public class PartitionTtlJob extends SynchronizedJob implements Closeable {
+    private static final Log LOG = LogFactory.getLog(PartitionTtlJob.class);
+    private final CairoEngine engine;
+    private final FilesFacade ff;
+    private final MicrosecondClock clock;
+    private final CharSequence root;
+    private final long checkInterval;
+    private final Path path = new Path();
+    private final NativeLPSZ nativeLPSZ = new NativeLPSZ();
+    private final ObjList<String> tableNames = new ObjList<>();
+    private long tempMem4b = Unsafe.malloc(Integer.BYTES, MemoryTag.NATIVE_DEFAULT);
+    private long last = 0;
+
+    public PartitionTtlJob(CairoEngine engine) {
+        final CairoConfiguration configuration = engine.getConfiguration();
+        this.engine = engine;
+        this.ff = configuration.getFilesFacade();
+        this.clock = configuration.getMicrosecondClock();
+        this.root = configuration.getRoot();
+        this.checkInterval = configuration.getPartitionTtlCheckInterval() * 1000;
+    }
+
+    @Override
+    public void close() {
+        Misc.free(path);
+        if (tempMem4b != 0) {
+            Unsafe.free(tempMem4b, Integer.BYTES, MemoryTag.NATIVE_DEFAULT);
+            tempMem4b = 0;
+        }
+    }
+
+    /**
+     * Removes expired partitions of all tables.
+     *
+     * @return number of partitions removed
+     */
+    public int removeExpiredPartitions() {
+        tableNames.clear();
+        ff.iterateDir(path.of(root).$(), (name, type) -> {
+            if (type == Files.DT_DIR) {
+                nativeLPSZ.of(name);
+                if (nativeLPSZ.charAt(0) != '.') {
+                    tableNames.add(Chars.toString(nativeLPSZ));
+                }
+            }
+        });
+
+        int count = 0;
+        for (int i = 0, n = tableNames.size(); i < n; i++) {
+            count += removeExpiredPartitions(tableNames.getQuick(i));
+        }
+        return count;
+    }
+
+    @Override
+    protected boolean runSerially() {
+        final long t = clock.getTicks();
+        if (last + checkInterval < t) {
+            last = t;
+            return removeExpiredPartitions() > 0;
+        }
+        return false;
+    }
+
+    private static boolean isExpired(
+            Timestamps.TimestampFloorMethod floorMethod,
+            Timestamps.TimestampAddMethod addMethod,
+            long minTimestamp,
+            long maxTimestamp,
+            long ttl
+    ) {
+        final long partitionTimestamp = floorMethod.floor(minTimestamp);
+        return partitionTimestamp != floorMethod.floor(maxTimestamp)
+                && addMethod.calculate(partitionTimestamp, 1) <= maxTimestamp - ttl;
+    }
+
+    private int removeExpiredPartitions(CharSequence tableName) {
+        if (TableUtils.exists(ff, path, root, tableName) != TableUtils.TABLE_EXISTS) {
+            return 0;
+        }
+
+        try {
+            path.of(root).concat(tableName).concat(TableUtils.META_FILE_NAME).$();
+            if (TableUtils.readIntAtOffset(ff, path, tempMem4b, TableUtils.META_OFFSET_TTL_HOURS) == 0) {
+                return 0;
+            }
+        } catch (CairoException e) {
+            // metadata could be in the middle of being swapped by ALTER TABLE, check on the next run
+            LOG.info().$("could not read TTL [table=").utf8(tableName).$(", e=").$((Sinkable) e).$(']').$();
+            return 0;
+        }
+
+        final Timestamps.TimestampFloorMethod floorMethod;
+        final Timestamps.TimestampAddMethod addMethod;
+        final long ttl;
+        try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, tableName)) {
+            final int partitionBy = reader.getPartitionedBy();
+            if (partitionBy == PartitionBy.NONE || reader.getTtlHours() == 0 || reader.getMaxTimestamp() == Long.MIN_VALUE) {
+                return 0;
+            }
+
+            floorMethod = TableWriter.selectPartitionFloorMethod(partitionBy);
+            addMethod = TableWriter.selectPartitionAddMethod(partitionBy);
+            ttl = reader.getTtlHours() * Timestamps.HOUR_MICROS;
+            if (!isExpired(floorMethod, addMethod, reader.getMinTimestamp(), reader.getMaxTimestamp(), ttl)) {
+                return 0;
+            }
+        } catch (CairoException e) {
+            LOG.error().$("could not check TTL [table=").utf8(tableName).$(", e=").$((Sinkable) e).$(']').$();
+            return 0;
+        }
+
+        int count = 0;
+        try (TableWriter writer = engine.getWriter(AllowAllCairoSecurityContext.INSTANCE, tableName)) {
+            // TTL could have changed since reader was opened
+            final long writerTtl = writer.getTtlHours() * Timestamps.HOUR_MICROS;
+            while (writerTtl > 0 && isExpired(floorMethod, addMethod, writer.getMinTimestamp(), writer.getMaxTimestamp(), writerTtl)) {
+                final long timestamp = floorMethod.floor(writer.getMinTimestamp());
+                if (!writer.removePartition(timestamp)) {
+                    break;
+                }
+                count++;
+            }
+        } catch (EntryUnavailableException e) {
+            LOG.info().$("writer is busy, TTL check postponed [table=").utf8(tableName).$(']').$();
+        } catch (CairoException e) {
+            LOG.error().$("could not remove expired partitions [table=").utf8(tableName).$(", e=").$((Sinkable) e).$(']').$();
+        }
+
+        if (count > 0) {
+            LOG.info().$("removed expired partitions [table=").utf8(tableName).$(", count=").$(count).$(']').$();
+        }
+        return count;
+    }
+}
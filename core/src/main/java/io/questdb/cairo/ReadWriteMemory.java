@@ -28,6 +28,7 @@ import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.std.Files;
 import io.questdb.std.FilesFacade;
+import io.questdb.std.LongList;
 import io.questdb.std.str.LPSZ;
 
 public class ReadWriteMemory extends VirtualMemory {
@@ -55,6 +56,12 @@ public class ReadWriteMemory extends VirtualMemory {
         }
     }
 
+    public void addSyncRegion(int pageIndex, LongList regions) {
+        regions.add(fd);
+        regions.add(pages.getQuick(pageIndex));
+        regions.add(getMapPageSize());
+    }
+
     public void sync(int pageIndex, boolean async) {
         if (ff.msync(pages.getQuick(pageIndex), getMapPageSize(), async) == 0) {
             return;
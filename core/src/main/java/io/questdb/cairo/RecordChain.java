@@ -28,6 +28,8 @@ import io.questdb.cairo.sql.Record;
 import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.std.BinarySequence;
 import io.questdb.std.Long256;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.MemoryTracker;
 import io.questdb.std.Mutable;
 import io.questdb.std.Transient;
 import io.questdb.std.str.CharSink;
@@ -49,7 +51,11 @@ public class RecordChain implements Closeable, RecordCursor, Mutable, RecordSink
     private RecordCursor symbolTableResolver;
 
     public RecordChain(@Transient ColumnTypes columnTypes, RecordSink recordSink, long pageSize, int maxPages) {
-        this.mem = new VirtualMemory(pageSize, maxPages);
+        this(columnTypes, recordSink, pageSize, maxPages, MemoryTag.NATIVE_DEFAULT);
+    }
+
+    public RecordChain(@Transient ColumnTypes columnTypes, RecordSink recordSink, long pageSize, int maxPages, int memoryTag) {
+        this.mem = new VirtualMemory(pageSize, maxPages, memoryTag);
         this.recordSink = recordSink;
         int count = columnTypes.getColumnCount();
         long varOffset = 0L;
@@ -240,6 +246,10 @@ public class RecordChain implements Closeable, RecordCursor, Mutable, RecordSink
         putLong(value);
     }
 
+    public void setMemoryTracker(MemoryTracker memoryTracker) {
+        mem.setMemoryTracker(memoryTracker);
+    }
+
     public void setSymbolTableResolver(RecordCursor resolver) {
         this.symbolTableResolver = resolver;
     }
@@ -45,6 +45,21 @@ class SymbolColumnIndexer implements ColumnIndexer, Closeable {
     private volatile long sequence = 0L;
     private volatile boolean distressed = false;
 
+    @Override
+    public void catchUp(long hiRow) {
+        final long indexedRowCount = writer.getIndexedRowCount();
+        if (indexedRowCount < 0) {
+            // index file pre-dates row count, it would have been indexed synchronously
+            writer.setIndexedRowCount(hiRow);
+        } else {
+            // rows above column top are the only ones that ever make it into index
+            final long loRow = Math.max(indexedRowCount, columnTop);
+            if (loRow < hiRow) {
+                refreshSourceAndIndex(loRow, hiRow);
+            }
+        }
+    }
+
     @Override
     public void close() {
         Misc.free(writer);
@@ -66,12 +81,22 @@ class SymbolColumnIndexer implements ColumnIndexer, Closeable {
         return sequence;
     }
 
+    @Override
+    public void refreshSource() {
+        mem.updateSize();
+    }
+
     @Override
     public void refreshSourceAndIndex(long loRow, long hiRow) {
         mem.updateSize();
         index(mem, loRow, hiRow);
     }
 
+    @Override
+    public void index(long loRow, long hiRow) {
+        index(mem, loRow, hiRow);
+    }
+
     @Override
     public void index(VirtualMemory mem, long loRow, long hiRow) {
         // while we may have to read column starting with zero offset
@@ -79,6 +104,7 @@ class SymbolColumnIndexer implements ColumnIndexer, Closeable {
         for (long lo = loRow - columnTop; lo < hiRow; lo++) {
             writer.add(TableUtils.toIndexKey(mem.getInt(lo * Integer.BYTES)), lo + columnTop);
         }
+        writer.setIndexedRowCount(hiRow);
     }
 
     @Override
@@ -39,6 +39,11 @@ public class SymbolMapReaderImpl implements Closeable, SymbolMapReader {
     private final ReadOnlyMemory charMem = new ReadOnlyMemory();
     private final ReadOnlyMemory offsetMem = new ReadOnlyMemory();
     private final ObjList<String> cache = new ObjList<>();
+    private final ReadOnlyMemory rankMem = new ReadOnlyMemory();
+    private FilesFacade ff;
+    private Path rankPath;
+    private long rankCount;
+    private boolean ranked;
     private int maxHash;
     private boolean cached;
     private int symbolCount;
@@ -54,6 +59,9 @@ public class SymbolMapReaderImpl implements Closeable, SymbolMapReader {
     public void close() {
         Misc.free(indexReader);
         Misc.free(charMem);
+        Misc.free(rankMem);
+        rankPath = Misc.free(rankPath);
+        ranked = false;
         this.cache.clear();
         long fd = this.offsetMem.getFd();
         Misc.free(offsetMem);
@@ -80,6 +88,34 @@ public class SymbolMapReaderImpl implements Closeable, SymbolMapReader {
         return SymbolTable.VALUE_IS_NULL;
     }
 
+    @Override
+    public boolean hasRanks() {
+        return ranked;
+    }
+
+    @Override
+    public int rankBound(CharSequence value, boolean inclusive) {
+        assert ranked;
+        int lo = 0;
+        int hi = (int) rankCount;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            final int key = rankMem.getInt(SymbolMapWriter.sortedKeyOffset(mid));
+            final int cmp = Chars.compare(uncachedValue(key), value);
+            if (cmp < 0 || (inclusive && cmp == 0)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    @Override
+    public int rankOf(int key) {
+        return key < 0 ? -1 : rankMem.getInt(SymbolMapWriter.rankOffset(key));
+    }
+
     @Override
     public int size() {
         return symbolCount;
@@ -112,7 +148,7 @@ public class SymbolMapReaderImpl implements Closeable, SymbolMapReader {
     }
 
     public void of(CairoConfiguration configuration, Path path, CharSequence name, int symbolCount) {
-        FilesFacade ff = configuration.getFilesFacade();
+        this.ff = configuration.getFilesFacade();
         this.symbolCount = symbolCount;
         this.maxOffset = SymbolMapWriter.keyToOffset(symbolCount - 1);
         final int plen = path.length();
@@ -159,6 +195,13 @@ public class SymbolMapReaderImpl implements Closeable, SymbolMapReader {
                 this.cache.setPos(symbolCapacity);
             }
             this.cache.clear();
+
+            if (rankPath == null) {
+                rankPath = new Path();
+            }
+            SymbolMapWriter.rankFileName(path.trimTo(plen), name);
+            rankPath.trimTo(0).concat(path.address()).$();
+            openRanks();
             LOG.info().$("open [name=").$(path.trimTo(plen).concat(name).$()).$(", fd=").$(this.offsetMem.getFd()).$(", capacity=").$(symbolCapacity).$(']').$();
         } catch (CairoException e) {
             close();
@@ -175,6 +218,8 @@ public class SymbolMapReaderImpl implements Closeable, SymbolMapReader {
             this.maxOffset = SymbolMapWriter.keyToOffset(symbolCount);
             this.offsetMem.grow(maxOffset);
             growCharMemToSymbolCount(symbolCount);
+            // rank file is replaced when symbols are added
+            openRanks();
         }
     }
 
@@ -201,6 +246,34 @@ public class SymbolMapReaderImpl implements Closeable, SymbolMapReader {
         }
     }
 
+    private void openRanks() {
+        ranked = false;
+        if (ff.exists(rankPath)) {
+            try {
+                final long len = ff.length(rankPath);
+                if (len >= SymbolMapWriter.RANK_HEADER_SIZE) {
+                    rankMem.of(ff, rankPath, ff.getMapPageSize(), len);
+                    final long count = rankMem.getLong(0);
+                    // rank file can cover symbols that are not yet visible to this reader,
+                    // their values are needed to look up rank bounds
+                    if (count >= symbolCount && len >= SymbolMapWriter.rankFileSize(count)) {
+                        if (count > symbolCount) {
+                            this.offsetMem.grow(SymbolMapWriter.keyToOffset((int) count));
+                            growCharMemToSymbolCount((int) count);
+                        }
+                        rankCount = count;
+                        ranked = true;
+                        return;
+                    }
+                }
+            } catch (CairoException e) {
+                // writer could have replaced rank file, symbol values will be compared instead
+                LOG.info().$("cannot open ranks [path=").$(rankPath).$(", msg=").$(e.getFlyweightMessage()).$(']').$();
+            }
+        }
+        rankMem.close();
+    }
+
     private CharSequence uncachedValue(int key) {
         return charMem.getStr(offsetMem.getLong(SymbolMapWriter.keyToOffset(key)));
     }
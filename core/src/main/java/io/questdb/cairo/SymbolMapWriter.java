@@ -40,18 +40,30 @@ public class SymbolMapWriter implements Closeable {
     public static final int HEADER_CAPACITY = 0;
     public static final int HEADER_CACHE_ENABLED = 4;
     public static final int HEADER_NULL_FLAG = 8;
+    public static final int RANK_HEADER_SIZE = 8;
 
     private final BitmapIndexWriter indexWriter;
     private final ReadWriteMemory charMem;
     private final ReadWriteMemory offsetMem;
     private final CharSequenceIntHashMap cache;
     private final int maxHash;
+    private final FilesFacade ff;
+    private final Path rankPath;
+    private final Path rankTmpPath;
+    private final ReadWriteMemory rankMem;
+    // symbol keys in order of their values, null when ranks are disabled
+    private IntList sortedKeys;
+    private IntList rankBuf;
+    private IntList mergeBuf;
+    private int rankedCount;
+    // symbol count in rank file, -1 when file is not known to be intact
+    private int rankFileCount = -1;
     private boolean nullValue = false;
 
     public SymbolMapWriter(CairoConfiguration configuration, Path path, CharSequence name, int symbolCount) {
         final int plen = path.length();
+        this.ff = configuration.getFilesFacade();
         try {
-            final FilesFacade ff = configuration.getFilesFacade();
             final long mapPageSize = ff.getMapPageSize();
 
             // this constructor does not create index. Index must exist
@@ -95,6 +107,25 @@ public class SymbolMapWriter implements Closeable {
             } else {
                 this.cache = null;
             }
+
+            rankFileName(path.trimTo(plen), name);
+            if (configuration.isSymbolRankEnabled()) {
+                this.rankPath = new Path().concat(path.address()).$();
+                this.rankTmpPath = new Path().concat(path.address()).put(".tmp").$();
+                this.rankMem = new ReadWriteMemory();
+                this.sortedKeys = new IntList();
+                this.rankBuf = new IntList();
+                this.mergeBuf = new IntList();
+                loadRanks(symbolCount);
+            } else {
+                // ranks are not maintained and would go stale
+                this.rankPath = null;
+                this.rankTmpPath = null;
+                this.rankMem = null;
+                if (ff.exists(path) && !ff.remove(path)) {
+                    LOG.error().$("cannot remove [path=").$(path).$(", errno=").$(ff.errno()).$(']').$();
+                }
+            }
             LOG.info().$("open [name=").$(path.trimTo(plen).concat(name).$()).$(", fd=").$(this.offsetMem.getFd()).$(", cache=").$(cache != null).$(", capacity=").$(symbolCapacity).$(']').$();
         } catch (CairoException e) {
             close();
@@ -133,6 +164,24 @@ public class SymbolMapWriter implements Closeable {
         return path.concat(columnName).put(".o").$();
     }
 
+    public static Path rankFileName(Path path, CharSequence columnName) {
+        return path.concat(columnName).put(".r").$();
+    }
+
+    static long rankFileSize(long rankCount) {
+        return RANK_HEADER_SIZE + rankCount * 8L;
+    }
+
+    // rank file entry i holds rank of key i followed by key of rank i,
+    // so that entries of existing symbols stay in place when symbols are appended
+    static long rankOffset(int key) {
+        return RANK_HEADER_SIZE + key * 8L;
+    }
+
+    static long sortedKeyOffset(int rank) {
+        return RANK_HEADER_SIZE + rank * 8L + 4;
+    }
+
     public int put(char c) {
         return put(SingleCharCharSequence.get(c));
     }
@@ -166,6 +215,9 @@ public class SymbolMapWriter implements Closeable {
     public void close() {
         Misc.free(indexWriter);
         Misc.free(charMem);
+        Misc.free(rankMem);
+        Misc.free(rankPath);
+        Misc.free(rankTmpPath);
         if (this.offsetMem != null) {
             long fd = this.offsetMem.getFd();
             Misc.free(offsetMem);
@@ -174,6 +226,66 @@ public class SymbolMapWriter implements Closeable {
         nullValue = false;
     }
 
+    /**
+     * Updates rank file to cover symbols added since last call. Keys of new symbols are
+     * sorted and merged into sorted key list, which is kept in memory between commits.
+     * When all new symbols sort after existing ones, ranks of existing symbols do not change
+     * and entries of new symbols are appended to rank file in place before its symbol count
+     * is updated. Otherwise rank file is written in full under temporary name and renamed
+     * over, so that readers see either previous or new version of it. Failure to write ranks
+     * is not fatal, readers fall back to comparing symbol values when ranks do not cover
+     * their symbols.
+     */
+    public void commitRanks() {
+        if (sortedKeys == null) {
+            return;
+        }
+
+        final int symbolCount = getSymbolCount();
+        if (rankedCount == symbolCount) {
+            return;
+        }
+
+        final int n = symbolCount - rankedCount;
+        rankBuf.clear();
+        for (int key = rankedCount; key < symbolCount; key++) {
+            rankBuf.add(key);
+        }
+        final IntList buf = mergeBuf;
+        buf.ensureCapacity(n);
+        sortKeys(rankBuf, buf, 0, n);
+
+        final int m = sortedKeys.size();
+        if (rankFileCount == m && m > 0 && compareKeys(sortedKeys.getQuick(m - 1), rankBuf.getQuick(0)) < 0) {
+            sortedKeys.addAll(rankBuf);
+            rankedCount = symbolCount;
+            appendRanks(m, symbolCount);
+            return;
+        }
+
+        // merge new keys into sorted list
+        buf.clear();
+        int i = 0;
+        int j = 0;
+        while (i < m && j < n) {
+            if (compareKeys(sortedKeys.getQuick(i), rankBuf.getQuick(j)) < 0) {
+                buf.add(sortedKeys.getQuick(i++));
+            } else {
+                buf.add(rankBuf.getQuick(j++));
+            }
+        }
+        while (i < m) {
+            buf.add(sortedKeys.getQuick(i++));
+        }
+        while (j < n) {
+            buf.add(rankBuf.getQuick(j++));
+        }
+        mergeBuf = sortedKeys;
+        sortedKeys = buf;
+        rankedCount = symbolCount;
+        writeRanks(symbolCount);
+    }
+
     public int getSymbolCount() {
         return offsetToKey(offsetMem.getAppendOffset());
     }
@@ -186,6 +298,20 @@ public class SymbolMapWriter implements Closeable {
         offsetMem.putBool(HEADER_CACHE_ENABLED, flag);
     }
 
+    /**
+     * Points rank file at new column name. Other symbol map files stay open
+     * when column is renamed and do not need this.
+     */
+    public void renameRankFile(Path path, CharSequence columnName) {
+        if (rankPath != null) {
+            final int plen = path.length();
+            rankFileName(path, columnName);
+            rankPath.trimTo(0).concat(path.address()).$();
+            rankTmpPath.trimTo(0).concat(path.address()).put(".tmp").$();
+            path.trimTo(plen);
+        }
+    }
+
     public void rollback(int symbolCount) {
         indexWriter.rollbackValues(keyToOffset(symbolCount));
         offsetMem.jumpTo(keyToOffset(symbolCount));
@@ -193,6 +319,10 @@ public class SymbolMapWriter implements Closeable {
         if (cache != null) {
             cache.clear();
         }
+        if (sortedKeys != null && symbolCount < rankedCount) {
+            // keys are about to be reused for different values
+            removeRanks(symbolCount);
+        }
     }
 
     boolean isCached() {
@@ -209,6 +339,142 @@ public class SymbolMapWriter implements Closeable {
         }
     }
 
+    private int compareKeys(int keyA, int keyB) {
+        return Chars.compare(
+                charMem.getStr(offsetMem.getLong(keyToOffset(keyA))),
+                charMem.getStr2(offsetMem.getLong(keyToOffset(keyB)))
+        );
+    }
+
+    private void loadRanks(int symbolCount) {
+        if (!ff.exists(rankPath)) {
+            return;
+        }
+
+        final long len = ff.length(rankPath);
+        if (len >= RANK_HEADER_SIZE) {
+            try (ReadOnlyMemory mem = new ReadOnlyMemory(ff, rankPath, ff.getMapPageSize(), len)) {
+                final long count = mem.getLong(0);
+                // rank file can be ahead of symbol count when commit did not complete
+                if (count <= symbolCount && len >= rankFileSize(count)) {
+                    for (int rank = 0; rank < count; rank++) {
+                        sortedKeys.add(mem.getInt(sortedKeyOffset(rank)));
+                    }
+                    rankedCount = (int) count;
+                    rankFileCount = len == rankFileSize(count) ? rankedCount : -1;
+                    return;
+                }
+            }
+        }
+        removeRanks(0);
+    }
+
+    private void removeRanks(int symbolCount) {
+        int n = 0;
+        for (int i = 0, m = sortedKeys.size(); i < m; i++) {
+            final int key = sortedKeys.getQuick(i);
+            if (key < symbolCount) {
+                sortedKeys.setQuick(n++, key);
+            }
+        }
+        sortedKeys.ensureCapacity(n);
+        rankedCount = symbolCount;
+        rankFileCount = -1;
+        if (ff.exists(rankPath) && !ff.remove(rankPath)) {
+            LOG.error().$("cannot remove [path=").$(rankPath).$(", errno=").$(ff.errno()).$(']').$();
+        }
+    }
+
+    private void sortKeys(IntList keys, IntList buf, int lo, int hi) {
+        if (hi - lo < 2) {
+            return;
+        }
+        final int mid = (lo + hi) >>> 1;
+        sortKeys(keys, buf, lo, mid);
+        sortKeys(keys, buf, mid, hi);
+
+        int i = lo;
+        int j = mid;
+        int k = lo;
+        while (i < mid && j < hi) {
+            if (compareKeys(keys.getQuick(i), keys.getQuick(j)) < 0) {
+                buf.setQuick(k++, keys.getQuick(i++));
+            } else {
+                buf.setQuick(k++, keys.getQuick(j++));
+            }
+        }
+        while (i < mid) {
+            buf.setQuick(k++, keys.getQuick(i++));
+        }
+        while (j < hi) {
+            buf.setQuick(k++, keys.getQuick(j++));
+        }
+        for (k = lo; k < hi; k++) {
+            keys.setQuick(k, buf.getQuick(k));
+        }
+    }
+
+    private void appendRanks(int rankCount, int symbolCount) {
+        // keys from rankCount on rank after all existing keys, in order of rankBuf
+        rankBuf.ensureCapacity(symbolCount);
+        for (int rank = rankCount; rank < symbolCount; rank++) {
+            rankBuf.setQuick(sortedKeys.getQuick(rank), rank);
+        }
+
+        try {
+            rankMem.of(ff, rankPath, ff.getMapPageSize());
+            if (rankMem.getAppendOffset() == rankFileSize(rankCount)) {
+                for (int i = rankCount; i < symbolCount; i++) {
+                    rankMem.putInt(rankBuf.getQuick(i));
+                    rankMem.putInt(sortedKeys.getQuick(i));
+                }
+                // readers do not look past symbol count
+                rankMem.putLong(0, symbolCount);
+                rankMem.close();
+                rankFileCount = symbolCount;
+                return;
+            }
+            rankMem.close();
+        } catch (CairoException e) {
+            rankMem.close();
+            LOG.error().$("cannot append ranks [path=").$(rankPath).$(", msg=").$(e.getFlyweightMessage()).$(']').$();
+        }
+        writeRanks(symbolCount);
+    }
+
+    private void writeRanks(int symbolCount) {
+        rankBuf.ensureCapacity(symbolCount);
+        for (int rank = 0; rank < symbolCount; rank++) {
+            rankBuf.setQuick(sortedKeys.getQuick(rank), rank);
+        }
+
+        rankFileCount = -1;
+        try {
+            rankMem.of(ff, rankTmpPath, ff.getMapPageSize());
+            rankMem.jumpTo(0);
+            rankMem.putLong(symbolCount);
+            for (int i = 0; i < symbolCount; i++) {
+                rankMem.putInt(rankBuf.getQuick(i));
+                rankMem.putInt(sortedKeys.getQuick(i));
+            }
+            rankMem.close();
+
+            if (ff.rename(rankTmpPath, rankPath)) {
+                rankFileCount = symbolCount;
+                return;
+            }
+            // some file systems do not rename over existing file
+            if (ff.remove(rankPath) && ff.rename(rankTmpPath, rankPath)) {
+                rankFileCount = symbolCount;
+                return;
+            }
+            LOG.error().$("cannot rename [from=").$(rankTmpPath).$(", to=").$(rankPath).$(", errno=").$(ff.errno()).$(']').$();
+        } catch (CairoException e) {
+            rankMem.close();
+            LOG.error().$("cannot write ranks [path=").$(rankTmpPath).$(", msg=").$(e.getFlyweightMessage()).$(']').$();
+        }
+    }
+
     private int lookupAndPut(CharSequence symbol) {
         int hash = Hash.boundedHash(symbol, maxHash);
         RowCursor cursor = indexWriter.getCursor(hash);
@@ -24,12 +24,19 @@
 
 package io.questdb.cairo;
 
+import io.questdb.MessageBus;
 import io.questdb.cairo.sql.RecordMetadata;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
+import io.questdb.mp.RingQueue;
+import io.questdb.mp.Sequence;
 import io.questdb.std.*;
 import io.questdb.std.microtime.Timestamps;
+import io.questdb.std.str.LPSZ;
 import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
+import io.questdb.tasks.ColumnPrefetchTask;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.Closeable;
 import java.util.concurrent.locks.LockSupport;
@@ -41,7 +48,7 @@ public class TableReader implements Closeable {
     private static final PartitionPathGenerator YEAR_GEN = TableReader::pathGenYear;
     private static final PartitionPathGenerator MONTH_GEN = TableReader::pathGenMonth;
     private static final PartitionPathGenerator DAY_GEN = TableReader::pathGenDay;
-    private static final PartitionPathGenerator DEFAULT_GEN = (reader, partitionIndex) -> reader.pathGenDefault();
+    private static final PartitionPathGenerator DEFAULT_GEN = (reader, path, partitionIndex) -> reader.pathGenDefault(path);
     private static final ReloadMethod FIRST_TIME_PARTITIONED_RELOAD_METHOD = TableReader::reloadInitialPartitioned;
     private static final ReloadMethod FIRST_TIME_NON_PARTITIONED_RELOAD_METHOD = TableReader::reloadInitialNonPartitioned;
     private static final ReloadMethod PARTITIONED_RELOAD_METHOD = TableReader::reloadPartitioned;
@@ -51,6 +58,8 @@ public class TableReader implements Closeable {
     private final FilesFacade ff;
     private final Path path;
     private final int rootLen;
+    private final Path coldPath;
+    private final int coldRootLen;
     private final ReadOnlyColumn txMem;
     private final TableReaderMetadata metadata;
     private final LongList partitionRowCounts;
@@ -83,6 +92,7 @@ public class TableReader implements Closeable {
     private long prevMinTimestamp = Long.MAX_VALUE;
     private ReloadMethod reloadMethod;
     private long tempMem8b = Unsafe.malloc(8);
+    private long touchSum;
 
     public TableReader(CairoConfiguration configuration, CharSequence tableName) {
         LOG.info().$("open '").utf8(tableName).$('\'').$();
@@ -91,6 +101,14 @@ public class TableReader implements Closeable {
         this.tableName = Chars.toString(tableName);
         this.path = new Path().of(configuration.getRoot()).concat(tableName);
         this.rootLen = path.length();
+        final CharSequence coldRoot = configuration.getColdStorageRoot();
+        if (coldRoot != null) {
+            this.coldPath = new Path().of(coldRoot).concat(tableName);
+            this.coldRootLen = coldPath.length();
+        } else {
+            this.coldPath = null;
+            this.coldRootLen = 0;
+        }
         try {
             failOnPendingTodo();
             this.txMem = openTxnFile();
@@ -189,6 +207,7 @@ public class TableReader implements Closeable {
             freeSymbolMapReaders();
             freeBitmapIndexCache();
             Misc.free(path);
+            Misc.free(coldPath);
             Misc.free(metadata);
             Misc.free(txMem);
             freeColumns();
@@ -294,6 +313,10 @@ public class TableReader implements Closeable {
         return metadata.getPartitionBy();
     }
 
+    public int getTtlHours() {
+        return metadata.getTtlHours();
+    }
+
     public SymbolMapReader getSymbolMapReader(int columnIndex) {
         return symbolMapReaders.getQuick(columnIndex);
     }
@@ -539,7 +562,7 @@ public class TableReader implements Closeable {
         if (maxTimestamp == Numbers.LONG_NaN) {
             partitionCount = 0;
         } else {
-            Path path = pathGenDefault();
+            Path path = pathGenDefault(this.path);
             partitionCount = ff.exists(path) ? 1 : 0;
             path.trimTo(rootLen);
         }
@@ -584,6 +607,22 @@ public class TableReader implements Closeable {
                 .$(", partitionCount=").$(partitionCount)
                 .$(']').$();
 
+        // leading partitions have been attached, indexes of open partitions are
+        // no longer valid so close them all and let cursor re-open them lazily
+        if (prevMinTimestamp > minTimestamp) {
+            for (int partitionIndex = 0; partitionIndex < partitionCount; partitionIndex++) {
+                if (getPartitionRowCount(partitionIndex) != -1) {
+                    int base = getColumnBase(partitionIndex);
+                    for (int k = 0; k < columnCount; k++) {
+                        closeColumn(base, k);
+                    }
+                }
+            }
+            prevMinTimestamp = minTimestamp;
+            partitionCount = calculatePartitionCount();
+            updateCapacities();
+        }
+
         // adjust columns list when leading partitions have been removed
         if (prevMinTimestamp != minTimestamp) {
             assert prevMinTimestamp < minTimestamp;
@@ -638,17 +677,17 @@ public class TableReader implements Closeable {
                 bitmapIndexes.setQuick(globalIndex + 1, reader);
             }
         } else {
-            Path path = partitionPathGenerator.generate(this, getPartitionIndex(columnBase));
+            Path path = partitionPath(getPartitionIndex(columnBase));
             try {
                 if (direction == BitmapIndexReader.DIR_BACKWARD) {
-                    reader = new BitmapIndexBwdReader(configuration, path.chopZ(), metadata.getColumnName(columnIndex), getColumnTop(columnBase, columnIndex));
+                    reader = new BitmapIndexBwdReader(configuration, path.chopZ(), metadata.getColumnName(columnIndex), getColumnTop(columnBase, columnIndex), col);
                     bitmapIndexes.setQuick(globalIndex, reader);
                 } else {
-                    reader = new BitmapIndexFwdReader(configuration, path.chopZ(), metadata.getColumnName(columnIndex), getColumnTop(columnBase, columnIndex));
+                    reader = new BitmapIndexFwdReader(configuration, path.chopZ(), metadata.getColumnName(columnIndex), getColumnTop(columnBase, columnIndex), col);
                     bitmapIndexes.setQuick(globalIndex + 1, reader);
                 }
             } finally {
-                path.trimTo(rootLen);
+                this.path.trimTo(rootLen);
             }
         }
         return reader;
@@ -670,7 +709,7 @@ public class TableReader implements Closeable {
             final int base = partitionIndex << columnBits;
             final int oldBase = partitionIndex << columnCountBits;
             try {
-                final Path path = partitionPathGenerator.generate(this, partitionIndex);
+                final Path path = partitionPath(partitionIndex);
                 final long partitionRowCount = partitionRowCounts.getQuick(partitionIndex);
                 final boolean lastPartition = partitionIndex == partitionCount - 1;
                 for (int i = 0; i < columnCount; i++) {
@@ -762,6 +801,10 @@ public class TableReader implements Closeable {
         return partitionRowCounts.getQuick(partitionIndex);
     }
 
+    long getPartitionTableVersion() {
+        return partitionTableVersion;
+    }
+
     long getTransientRowCount() {
         return transientRowCount;
     }
@@ -815,6 +858,107 @@ public class TableReader implements Closeable {
         return openPartition0(partitionIndex);
     }
 
+    /**
+     * Opens partition and publishes its column files to be read ahead by {@link ColumnPrefetchJob}.
+     * This is a hint, tasks that do not fit the queue are dropped.
+     *
+     * @param partitionIndex index of partition, out of range values are ignored
+     * @param columnIndexes  indexes of columns to read ahead, null to read all columns
+     * @param messageBus     bus that owns prefetch queue
+     */
+    public void prefetchPartition(int partitionIndex, @Nullable IntList columnIndexes, MessageBus messageBus) {
+        if (partitionIndex < 0 || partitionIndex >= partitionCount || openPartition(partitionIndex) < 1) {
+            return;
+        }
+
+        final Sequence pubSeq = messageBus.getColumnPrefetchPubSequence();
+        final RingQueue<ColumnPrefetchTask> queue = messageBus.getColumnPrefetchQueue();
+        final int base = getColumnBase(partitionIndex);
+        try {
+            final Path partitionDir = partitionPath(partitionIndex).chopZ();
+            final int plen = partitionDir.length();
+            for (int i = 0, n = columnIndexes == null ? columnCount : columnIndexes.size(); i < n; i++) {
+                final int columnIndex = columnIndexes == null ? i : columnIndexes.getQuick(i);
+                final int index = getPrimaryColumnIndex(base, columnIndex);
+                final CharSequence name = metadata.getColumnName(columnIndex);
+                if (isColumnOpen(columns.getQuick(index))) {
+                    prefetchFile(TableUtils.dFile(partitionDir.trimTo(plen), name), pubSeq, queue);
+                }
+                if (isColumnOpen(columns.getQuick(index + 1))) {
+                    prefetchFile(TableUtils.iFile(partitionDir.trimTo(plen), name), pubSeq, queue);
+                }
+            }
+        } finally {
+            path.trimTo(rootLen);
+        }
+    }
+
+    /**
+     * Opens partition and reads a byte of every OS page of its column files on calling thread.
+     * Unlike {@link #prefetchPartition(int, IntList, MessageBus)} this maps pages into reader
+     * memory as well as into page cache, so that first query against partition does not
+     * take page faults.
+     *
+     * @param partitionIndex index of partition, out of range values are ignored
+     * @return number of pages touched
+     */
+    public long touchPartition(int partitionIndex) {
+        if (partitionIndex < 0 || partitionIndex >= partitionCount || openPartition(partitionIndex) < 1) {
+            return 0;
+        }
+
+        final long osPageSize = ff.getPageSize();
+        final int base = getColumnBase(partitionIndex);
+        long pageCount = 0;
+        for (int i = 0; i < columnCount; i++) {
+            final int index = getPrimaryColumnIndex(base, i);
+            pageCount += touchColumn(columns.getQuick(index), osPageSize);
+            pageCount += touchColumn(columns.getQuick(index + 1), osPageSize);
+        }
+        return pageCount;
+    }
+
+    private long touchColumn(ReadOnlyColumn column, long osPageSize) {
+        if (column == null || column.getFd() == -1) {
+            return 0;
+        }
+
+        long pageCount = 0;
+        long sum = 0;
+        for (int i = 0, n = column.getPageCount(); i < n; i++) {
+            final long address = column.getPageAddress(i);
+            final long size = column.getPageSize(i);
+            if (address == 0) {
+                continue;
+            }
+            for (long offset = 0; offset < size; offset += osPageSize) {
+                sum += Unsafe.getUnsafe().getByte(address + offset);
+                pageCount++;
+            }
+        }
+        // keep reads from being optimised away
+        touchSum += sum;
+        return pageCount;
+    }
+
+    private static boolean isColumnOpen(ReadOnlyColumn column) {
+        return column != null && column.getFd() != -1;
+    }
+
+    private static void prefetchFile(LPSZ path, Sequence pubSeq, RingQueue<ColumnPrefetchTask> queue) {
+        long cursor;
+        do {
+            cursor = pubSeq.next();
+        } while (cursor == -2);
+
+        if (cursor > -1) {
+            final StringSink sink = queue.get(cursor).path;
+            sink.clear();
+            Chars.utf8DecodeZ(path.address(), sink);
+            pubSeq.done(cursor);
+        }
+    }
+
     private long openPartition0(int partitionIndex) {
         // is this table is partitioned?
         if (timestampAddMethod != null
@@ -830,7 +974,7 @@ public class TableReader implements Closeable {
         }
 
         try {
-            Path path = partitionPathGenerator.generate(this, partitionIndex);
+            Path path = partitionPath(partitionIndex);
             if (ff.exists(path)) {
 
                 path.chopZ();
@@ -892,7 +1036,22 @@ public class TableReader implements Closeable {
         }
     }
 
-    private Path pathGenDay(int partitionIndex) {
+    /**
+     * Points path at directory of given partition. Partitions moved to cold storage
+     * by {@link ColdStorageJob} are no longer present under table root, in which case
+     * the cold storage path is returned. Both paths are trimmed back to table root
+     * before partition name is appended.
+     */
+    private Path partitionPath(int partitionIndex) {
+        final Path path = partitionPathGenerator.generate(this, this.path, partitionIndex);
+        if (coldPath == null || ff.exists(path)) {
+            return path;
+        }
+        path.trimTo(rootLen);
+        return partitionPathGenerator.generate(this, coldPath.trimTo(coldRootLen), partitionIndex);
+    }
+
+    private Path pathGenDay(Path path, int partitionIndex) {
         TableUtils.fmtDay.format(
                 Timestamps.addDays(minTimestamp, partitionIndex),
                 null, // this format does not need locale access
@@ -902,11 +1061,11 @@ public class TableReader implements Closeable {
         return path.$();
     }
 
-    private Path pathGenDefault() {
+    private Path pathGenDefault(Path path) {
         return path.concat(TableUtils.DEFAULT_PARTITION_NAME).$();
     }
 
-    private Path pathGenMonth(int partitionIndex) {
+    private Path pathGenMonth(Path path, int partitionIndex) {
         TableUtils.fmtMonth.format(
                 Timestamps.addMonths(minTimestamp, partitionIndex),
                 null, // this format does not need locale access
@@ -916,7 +1075,7 @@ public class TableReader implements Closeable {
         return path.$();
     }
 
-    private Path pathGenYear(int partitionIndex) {
+    private Path pathGenYear(Path path, int partitionIndex) {
         TableUtils.fmtYear.format(
                 Timestamps.addYear(minTimestamp, partitionIndex),
                 null, // this format does not need locale access
@@ -1080,12 +1239,12 @@ public class TableReader implements Closeable {
                 if (metadata.isColumnIndexed(columnIndex)) {
                     BitmapIndexReader indexReader = indexReaders.getQuick(primaryIndex);
                     if (indexReader instanceof BitmapIndexBwdReader) {
-                        ((BitmapIndexBwdReader) indexReader).of(configuration, path.trimTo(plen), name, columnTop);
+                        ((BitmapIndexBwdReader) indexReader).of(configuration, path.trimTo(plen), name, columnTop, mem1);
                     }
 
                     indexReader = indexReaders.getQuick(secondaryIndex);
                     if (indexReader instanceof BitmapIndexFwdReader) {
-                        ((BitmapIndexFwdReader) indexReader).of(configuration, path.trimTo(plen), name, columnTop);
+                        ((BitmapIndexFwdReader) indexReader).of(configuration, path.trimTo(plen), name, columnTop, mem1);
                     }
 
                 } else {
@@ -1240,11 +1399,11 @@ public class TableReader implements Closeable {
             if (getPartitionRowCount(partitionIndex) > -1) {
                 if (delta > 0) {
                     incrementPartitionCountBy(delta);
-                    Path path = partitionPathGenerator.generate(this, partitionIndex);
+                    Path path = partitionPath(partitionIndex);
                     try {
                         reloadPartition(partitionIndex, TableUtils.readPartitionSize(ff, path.chopZ(), tempMem8b));
                     } finally {
-                        path.trimTo(rootLen);
+                        this.path.trimTo(rootLen);
                     }
                 } else {
                     reloadPartition(partitionIndex, transientRowCount);
@@ -1313,7 +1472,7 @@ public class TableReader implements Closeable {
         for (int partitionIndex = 0; partitionIndex < partitionCount; partitionIndex++) {
             int base = getColumnBase(partitionIndex);
             try {
-                final Path path = partitionPathGenerator.generate(this, partitionIndex);
+                final Path path = partitionPath(partitionIndex);
                 final long partitionRowCount = partitionRowCounts.getQuick(partitionIndex);
                 final boolean lastPartition = partitionIndex == partitionCount - 1;
 
@@ -1388,7 +1547,7 @@ public class TableReader implements Closeable {
 
     @FunctionalInterface
     private interface PartitionPathGenerator {
-        Path generate(TableReader reader, int partitionIndex);
+        Path generate(TableReader reader, Path path, int partitionIndex);
     }
 
     private static class ColumnCopyStruct {
@@ -229,6 +229,10 @@ public class TableReaderMetadata extends BaseRecordMetadata implements Closeable
         return metaMem.getInt(TableUtils.META_OFFSET_PARTITION_BY);
     }
 
+    public int getTtlHours() {
+        return metaMem.getInt(TableUtils.META_OFFSET_TTL_HOURS);
+    }
+
     public int getVersion() {
         return metaMem.getInt(TableUtils.META_OFFSET_VERSION);
     }
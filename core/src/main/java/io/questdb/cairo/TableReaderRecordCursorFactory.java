@@ -73,6 +73,19 @@ public class TableReaderRecordCursorFactory extends AbstractRecordCursorFactory
         return cursor;
     }
 
+    public IntList getColumnIndexes() {
+        return columnIndexes;
+    }
+
+    /**
+     * Opens reader of the table at the structure version this factory was compiled for. Caller
+     * owns the reader. Column indexes of the factory metadata map onto reader columns via
+     * {@link #getColumnIndexes()}.
+     */
+    public TableReader getReader(CairoSecurityContext securityContext) {
+        return engine.getReader(securityContext, tableName, tableVersion);
+    }
+
     @Override
     public boolean recordCursorSupportsRandomAccess() {
         return true;
@@ -83,7 +96,11 @@ public class TableReaderRecordCursorFactory extends AbstractRecordCursorFactory
         if (pageFrameCursor != null) {
             return pageFrameCursor.of(engine.getReader(executionContext.getCairoSecurityContext(), tableName));
         } else if (framingSupported) {
-            pageFrameCursor = new TableReaderPageFrameCursor(columnIndexes, columnSizes);
+            pageFrameCursor = new TableReaderPageFrameCursor(
+                    columnIndexes,
+                    columnSizes,
+                    PartitionPrefetcher.newInstance(engine, columnIndexes)
+            );
             return pageFrameCursor.of(engine.getReader(executionContext.getCairoSecurityContext(), tableName));
         } else {
             return null;
@@ -105,15 +122,17 @@ public class TableReaderRecordCursorFactory extends AbstractRecordCursorFactory
         private TableReader reader;
         private final IntList columnIndexes;
         private final IntList columnSizes;
+        private final PartitionPrefetcher prefetcher;
         private int partitionIndex;
         private int partitionCount;
         private final LongList pageSizes = new LongList();
         private long pageValueCount;
         private long partitionRemaining = 0L;
 
-        public TableReaderPageFrameCursor(IntList columnIndexes, IntList columnSizes) {
+        public TableReaderPageFrameCursor(IntList columnIndexes, IntList columnSizes, @Nullable PartitionPrefetcher prefetcher) {
             this.columnIndexes = columnIndexes;
             this.columnSizes = columnSizes;
+            this.prefetcher = prefetcher;
             this.columnCount = columnIndexes.size();
         }
 
@@ -138,6 +157,10 @@ public class TableReaderRecordCursorFactory extends AbstractRecordCursorFactory
             }
 
             while (++partitionIndex < partitionCount) {
+                if (prefetcher != null) {
+                    // keep partitions after this one in flight while frames of current partition are consumed
+                    prefetcher.fwd(reader, partitionIndex + 1, partitionCount);
+                }
                 partitionRemaining = reader.openPartition(partitionIndex);
                 if (partitionRemaining > 0) {
                     final int base = reader.getColumnBase(partitionIndex);
@@ -165,6 +188,9 @@ public class TableReaderRecordCursorFactory extends AbstractRecordCursorFactory
             columnPageNextAddress.setAll(columnCount, 0);
             pageSizes.setAll(columnCount, -1L);
             pageValueCount = 0;
+            if (prefetcher != null) {
+                prefetcher.clear();
+            }
         }
 
         @Override
@@ -0,0 +1,240 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+package io.questdb.cairo;
+
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.*;
+import io.questdb.std.microtime.TimestampFormat;
+import io.questdb.std.microtime.Timestamps;
+import io.questdb.std.str.NativeLPSZ;
+import io.questdb.std.str.Path;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+
+/**
+ * Creates point-in-time copy of a table without reading it row by row. Closed
+ * partitions are never modified by {@link TableWriter}, so their files are hard-linked
+ * into the snapshot and cost neither time nor space. When link cannot be created, for
+ * example when partition is on cold storage volume, closed partition file is linked to the
+ * same file of the previous snapshot instead, if there is one and the file has the same
+ * length. Files are copied only when neither link can be created. Active partition, "_txn",
+ * "_meta" and symbol files are always copied. Time snapshot takes therefore depends on the
+ * size of active partition rather than size of table.
+ * <p>
+ * Copy-on-write clones are not attempted. Prebuilt native libraries do not export file
+ * cloning call, so files that cannot be linked are copied in full.
+ * <p>
+ * Snapshot does not lock table. "_txn" file is copied first and everything it refers to
+ * is copied after, so that snapshot contains at least the data transaction describes.
+ * Snapshot fails if table structure changes or partitions are removed while it is taken.
+ */
+public class TableSnapshot implements Closeable {
+    private static final Log LOG = LogFactory.getLog(TableSnapshot.class);
+    private final FilesFacade ff;
+    private final CharSequence root;
+    private final CharSequence coldRoot;
+    private final int mkDirMode;
+    private final int commitMode;
+    private final Path path = new Path();
+    private final Path other = new Path();
+    private final Path prev = new Path();
+    private final NativeLPSZ nativeLPSZ = new NativeLPSZ();
+    private long tempMem8b = Unsafe.malloc(8, MemoryTag.NATIVE_DEFAULT);
+    private int linkCount;
+    private int copyCount;
+
+    public TableSnapshot(CairoConfiguration configuration) {
+        this.ff = configuration.getFilesFacade();
+        this.root = configuration.getRoot();
+        this.coldRoot = configuration.getColdStorageRoot();
+        this.mkDirMode = configuration.getMkDirMode();
+        this.commitMode = configuration.getCommitMode();
+    }
+
+    @Override
+    public void close() {
+        Misc.free(path);
+        Misc.free(other);
+        Misc.free(prev);
+        if (tempMem8b != 0) {
+            Unsafe.free(tempMem8b, 8, MemoryTag.NATIVE_DEFAULT);
+            tempMem8b = 0;
+        }
+    }
+
+    public int getCopyCount() {
+        return copyCount;
+    }
+
+    public int getLinkCount() {
+        return linkCount;
+    }
+
+    /**
+     * Writes snapshot of table reader is open for to table directory under given root.
+     * This directory must exist and be empty.
+     *
+     * @param reader   table reader, it is reloaded while snapshot is taken
+     * @param dstRoot  root of snapshot directory
+     * @param prevRoot root of previous snapshot of the table, closed partitions that cannot be
+     *                 linked to table files are linked to files of previous snapshot, can be null
+     */
+    public void snapshot(TableReader reader, CharSequence dstRoot, @Nullable CharSequence prevRoot) {
+        final CharSequence tableName = reader.getTableName();
+        linkCount = 0;
+        copyCount = 0;
+
+        path.of(root).concat(tableName);
+        final int rootLen = path.length();
+        other.of(dstRoot).concat(tableName);
+        final int dstLen = other.length();
+        final int prevLen;
+        if (prevRoot != null) {
+            prev.of(prevRoot).concat(tableName);
+            prevLen = prev.length();
+        } else {
+            prevLen = 0;
+        }
+
+        try {
+            copy(path.concat(TableUtils.TXN_FILE_NAME).$(), other.concat(TableUtils.TXN_FILE_NAME).$());
+            final long structureVersion = TableUtils.readLongAtOffset(ff, other, tempMem8b, TableUtils.TX_OFFSET_STRUCT_VERSION);
+            final long partitionTableVersion = TableUtils.readLongAtOffset(ff, other, tempMem8b, TableUtils.TX_OFFSET_PARTITION_TABLE_VERSION);
+
+            // reader must see at least what copied transaction refers to
+            reader.reload();
+            copyTableFiles(rootLen, dstLen);
+
+            final int partitionBy = reader.getPartitionedBy();
+            if (partitionBy == PartitionBy.NONE) {
+                snapshotPartition(path.trimTo(rootLen).concat(TableUtils.DEFAULT_PARTITION_NAME), other.trimTo(dstLen).concat(TableUtils.DEFAULT_PARTITION_NAME), false, 0);
+            } else if (reader.getMaxTimestamp() != Long.MIN_VALUE) {
+                final TimestampFormat partitionDirFmt = TableWriter.selectPartitionDirFmt(partitionBy);
+                final Timestamps.TimestampAddMethod addMethod = TableWriter.selectPartitionAddMethod(partitionBy);
+                final long activePartitionTimestamp = reader.floorToPartitionTimestamp(reader.getMaxTimestamp());
+                for (long timestamp = reader.floorToPartitionTimestamp(reader.getMinTimestamp()); timestamp <= activePartitionTimestamp; timestamp = addMethod.calculate(timestamp, 1)) {
+                    partitionDirFmt.format(timestamp, null, null, path.trimTo(rootLen).put(Files.SEPARATOR));
+                    if (!ff.exists(path.$()) && coldRoot != null) {
+                        partitionDirFmt.format(timestamp, null, null, path.of(coldRoot).concat(tableName).put(Files.SEPARATOR));
+                    }
+                    partitionDirFmt.format(timestamp, null, null, other.trimTo(dstLen).put(Files.SEPARATOR));
+                    if (prevLen > 0) {
+                        partitionDirFmt.format(timestamp, null, null, prev.trimTo(prevLen).put(Files.SEPARATOR));
+                    }
+                    snapshotPartition(path, other, timestamp < activePartitionTimestamp, prevLen);
+                    path.of(root).concat(tableName);
+                }
+            }
+
+            reader.reload();
+            if (reader.getVersion() != structureVersion || reader.getPartitionTableVersion() != partitionTableVersion) {
+                throw CairoException.instance(0).put("table changed while snapshot was taken [table=").put(tableName).put(']');
+            }
+
+            LOG.info().$("snapshot complete [table=").utf8(tableName).$(", linked=").$(linkCount).$(", copied=").$(copyCount).$(']').$();
+        } finally {
+            path.trimTo(0);
+            other.trimTo(0);
+            prev.trimTo(0);
+        }
+    }
+
+    private void copy(Path from, Path to) {
+        if (!TableUtils.copyFile(ff, from, to, commitMode)) {
+            throw CairoException.instance(ff.errno()).put("could not copy [from=").put(from).put(", to=").put(to).put(']');
+        }
+        copyCount++;
+    }
+
+    private void copyTableFiles(int rootLen, int dstLen) {
+        final long p = ff.findFirst(path.trimTo(rootLen).$());
+        if (p > 0) {
+            try {
+                do {
+                    if (ff.findType(p) == Files.DT_DIR) {
+                        continue;
+                    }
+                    final long name = ff.findName(p);
+                    nativeLPSZ.of(name);
+                    // "_txn" has been copied already, the rest are writer's transient files
+                    if (Chars.equals(nativeLPSZ, TableUtils.TXN_FILE_NAME)
+                            || Chars.equals(nativeLPSZ, TableUtils.TODO_FILE_NAME)
+                            || Chars.equals(nativeLPSZ, TableUtils.META_SWAP_FILE_NAME)
+                            || Chars.equals(nativeLPSZ, TableUtils.META_PREV_FILE_NAME)) {
+                        continue;
+                    }
+                    copy(path.trimTo(rootLen).concat(name).$(), other.trimTo(dstLen).concat(name).$());
+                } while (ff.findNext(p) > 0);
+            } finally {
+                ff.findClose(p);
+            }
+        }
+    }
+
+    private void snapshotPartition(Path path, Path other, boolean link, int prevLen) {
+        // partition may have been removed or table may have gaps
+        if (!ff.exists(path.$())) {
+            return;
+        }
+
+        final int plen = path.length();
+        final int olen = other.length();
+        final int prevPartitionLen = prev.length();
+        if (ff.mkdirs(other.put(Files.SEPARATOR).$(), mkDirMode) != 0) {
+            throw CairoException.instance(ff.errno()).put("could not create [dir=").put(other).put(']');
+        }
+
+        final long p = ff.findFirst(path.trimTo(plen).$());
+        if (p > 0) {
+            try {
+                do {
+                    if (ff.findType(p) == Files.DT_DIR) {
+                        continue;
+                    }
+                    final long name = ff.findName(p);
+                    path.trimTo(plen).concat(name).$();
+                    other.trimTo(olen).concat(name).$();
+                    if (link && (ff.hardLink(path, other) || linkPrevious(path, other, name, prevLen, prevPartitionLen))) {
+                        linkCount++;
+                    } else {
+                        copy(path, other);
+                    }
+                } while (ff.findNext(p) > 0);
+            } finally {
+                ff.findClose(p);
+            }
+        }
+    }
+
+    private boolean linkPrevious(Path path, Path other, long name, int prevLen, int prevPartitionLen) {
+        // closed partition is never modified, file of the same length in previous snapshot is the same file
+        if (prevLen == 0) {
+            return false;
+        }
+        prev.trimTo(prevPartitionLen).concat(name).$();
+        return ff.exists(prev) && ff.length(prev) == ff.length(path) && ff.hardLink(prev, other);
+    }
+}
@@ -37,8 +37,12 @@ public interface TableStructure {
 
     boolean isSequential(int columnIndex);
 
+    boolean isDedupKey(int columnIndex);
+
     int getPartitionBy();
 
+    int getTtlHours();
+
     boolean getSymbolCacheFlag(int columnIndex);
 
     int getSymbolCapacity(int columnIndex);
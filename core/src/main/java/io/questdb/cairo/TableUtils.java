@@ -52,6 +52,7 @@ public final class TableUtils {
     static final TimestampFormat fmtYear;
     static final String ARCHIVE_FILE_NAME = "_archive";
     static final String DEFAULT_PARTITION_NAME = "default";
+    static final String DETACHED_DIR_SUFFIX = ".detached";
     // transaction file structure
     static final long TX_OFFSET_TXN = 0;
     static final long TX_OFFSET_TRANSIENT_ROW_COUNT = 8;
@@ -88,11 +89,13 @@ public final class TableUtils {
     static final long META_OFFSET_PARTITION_BY = 4;
     static final long META_OFFSET_TIMESTAMP_INDEX = 8;
     static final long META_OFFSET_VERSION = 12;
+    static final long META_OFFSET_TTL_HOURS = 16;
     static final long META_COLUMN_DATA_SIZE = 16;
     static final long META_COLUMN_DATA_RESERVED = 3;
     static final long META_OFFSET_COLUMN_TYPES = 128;
     static final int META_FLAG_BIT_INDEXED = 1;
     static final int META_FLAG_BIT_SEQUENTIAL = 1 << 1;
+    static final int META_FLAG_BIT_DEDUP_KEY = 1 << 2;
 
     static final String TODO_FILE_NAME = "_todo";
     private static final int MIN_SYMBOL_CAPACITY = 2;
@@ -139,6 +142,7 @@ public final class TableUtils {
             mem.putInt(structure.getPartitionBy());
             mem.putInt(structure.getTimestampIndex());
             mem.putInt(tableVersion);
+            mem.putInt(structure.getTtlHours());
             mem.jumpTo(TableUtils.META_OFFSET_COLUMN_TYPES);
 
             for (int i = 0; i < count; i++) {
@@ -152,6 +156,10 @@ public final class TableUtils {
                     flags |= META_FLAG_BIT_SEQUENTIAL;
                 }
 
+                if (structure.isDedupKey(i)) {
+                    flags |= META_FLAG_BIT_DEDUP_KEY;
+                }
+
                 mem.putLong(flags);
                 mem.putInt(structure.getIndexBlockCapacity(i));
                 mem.skip(META_COLUMN_DATA_RESERVED); // reserved
@@ -365,6 +373,82 @@ public final class TableUtils {
         }
     }
 
+    /**
+     * Copies contents of one file to another by memory mapping both. Target file
+     * is created or truncated to the length of source file. Errors are logged.
+     *
+     * @return true when file has been copied
+     */
+    static boolean copyFile(FilesFacade ff, LPSZ from, LPSZ to, int commitMode) {
+        final long fdFrom = ff.openRO(from);
+        if (fdFrom == -1) {
+            LOG.error().$("could not open [file=").$(from).$(", errno=").$(ff.errno()).$(']').$();
+            return false;
+        }
+        try {
+            final long fdTo = ff.openRW(to);
+            if (fdTo == -1) {
+                LOG.error().$("could not open [file=").$(to).$(", errno=").$(ff.errno()).$(']').$();
+                return false;
+            }
+            try {
+                final long len = ff.length(fdFrom);
+                if (!ff.truncate(fdTo, len)) {
+                    LOG.error().$("could not resize [file=").$(to).$(", size=").$(len).$(", errno=").$(ff.errno()).$(']').$();
+                    return false;
+                }
+
+                if (len < 1) {
+                    return true;
+                }
+
+                final long src = ff.mmap(fdFrom, len, 0, Files.MAP_RO);
+                if (src == -1) {
+                    LOG.error().$("could not mmap [file=").$(from).$(", errno=").$(ff.errno()).$(']').$();
+                    return false;
+                }
+                try {
+                    final long dst = ff.mmap(fdTo, len, 0, Files.MAP_RW);
+                    if (dst == -1) {
+                        LOG.error().$("could not mmap [file=").$(to).$(", errno=").$(ff.errno()).$(']').$();
+                        return false;
+                    }
+                    try {
+                        Unsafe.getUnsafe().copyMemory(src, dst, len);
+                        if (commitMode != CommitMode.NOSYNC) {
+                            ff.msync(dst, len, commitMode == CommitMode.ASYNC);
+                        }
+                    } finally {
+                        ff.munmap(dst, len);
+                    }
+                } finally {
+                    ff.munmap(src, len);
+                }
+                return true;
+            } finally {
+                ff.close(fdTo);
+            }
+        } finally {
+            ff.close(fdFrom);
+        }
+    }
+
+    static int readIntAtOffset(FilesFacade ff, Path path, long tempMem4b, long offset) {
+        long fd = ff.openRO(path);
+        if (fd == -1) {
+            throw CairoException.instance(ff.errno()).put("Cannot open: ").put(path);
+        }
+
+        try {
+            if (ff.read(fd, tempMem4b, Integer.BYTES, offset) != Integer.BYTES) {
+                throw CairoException.instance(ff.errno()).put("Cannot read: ").put(path);
+            }
+            return Unsafe.getUnsafe().getInt(tempMem4b);
+        } finally {
+            ff.close(fd);
+        }
+    }
+
     static long readLongAtOffset(FilesFacade ff, Path path, long tempMem8b, long offset) {
         long fd = ff.openRO(path);
         if (fd == -1) {
@@ -433,6 +517,10 @@ public final class TableUtils {
         return (getColumnFlags(metaMem, columnIndex) & META_FLAG_BIT_SEQUENTIAL) != 0;
     }
 
+    static boolean isDedupKey(ReadOnlyColumn metaMem, int columnIndex) {
+        return (getColumnFlags(metaMem, columnIndex) & META_FLAG_BIT_DEDUP_KEY) != 0;
+    }
+
     static int getIndexBlockCapacity(ReadOnlyColumn metaMem, int columnIndex) {
         return metaMem.getInt(META_OFFSET_COLUMN_TYPES + columnIndex * META_COLUMN_DATA_SIZE + 9);
     }
@@ -0,0 +1,179 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+package io.questdb.cairo;
+
+import io.questdb.cairo.pool.ex.EntryUnavailableException;
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.Job;
+import io.questdb.std.*;
+import io.questdb.std.microtime.MicrosecondClock;
+import io.questdb.std.str.NativeLPSZ;
+import io.questdb.std.str.Path;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Opens readers of tables that match {@link CairoConfiguration#getWarmUpTables()} on startup,
+ * so that first queries do not pay for reading metadata, transaction file, partition list
+ * and symbol maps. Readers are returned to reader pool, where they stay until they become
+ * inactive. Optionally, column pages of the last {@link CairoConfiguration#getWarmUpPartitionCount()}
+ * partitions of each table are touched too.
+ * <p>
+ * Instance is shared by all workers of the pool, workers claim tables one at a time and
+ * warm them up in parallel. Job has nothing to do once every table is claimed.
+ */
+public class TableWarmUpJob implements Job {
+    private static final Log LOG = LogFactory.getLog(TableWarmUpJob.class);
+    private final CairoEngine engine;
+    private final MicrosecondClock clock;
+    private final int partitionCount;
+    private final ObjList<String> tableNames = new ObjList<>();
+    private final AtomicInteger claimed = new AtomicInteger();
+    private final AtomicInteger done = new AtomicInteger();
+    private final long startTime;
+
+    public TableWarmUpJob(CairoEngine engine) {
+        final CairoConfiguration configuration = engine.getConfiguration();
+        this.engine = engine;
+        this.clock = configuration.getMicrosecondClock();
+        this.partitionCount = configuration.getWarmUpPartitionCount();
+
+        final Pattern pattern = compilePatterns(configuration.getWarmUpTables());
+        if (pattern != null) {
+            final FilesFacade ff = configuration.getFilesFacade();
+            final CharSequence root = configuration.getRoot();
+            final NativeLPSZ nativeLPSZ = new NativeLPSZ();
+            final ObjList<String> names = new ObjList<>();
+            try (Path path = new Path()) {
+                ff.iterateDir(path.of(root).$(), (name, type) -> {
+                    if (type == Files.DT_DIR) {
+                        nativeLPSZ.of(name);
+                        if (nativeLPSZ.charAt(0) != '.' && pattern.matcher(nativeLPSZ).matches()) {
+                            names.add(Chars.toString(nativeLPSZ));
+                        }
+                    }
+                });
+                for (int i = 0, n = names.size(); i < n; i++) {
+                    final String name = names.getQuick(i);
+                    if (TableUtils.exists(ff, path, root, name) == TableUtils.TABLE_EXISTS) {
+                        tableNames.add(name);
+                    }
+                }
+            }
+        }
+        this.startTime = clock.getTicks();
+        LOG.info().$("warm-up started [tables=").$(tableNames.size()).$(", partitions=").$(partitionCount).$(']').$();
+    }
+
+    /**
+     * Compiles comma separated list of table name patterns into regular expression.
+     *
+     * @param patterns list of patterns, where "*" matches any number of characters
+     * @return pattern that matches any of the list, null when list is empty
+     */
+    @Nullable
+    static Pattern compilePatterns(@Nullable CharSequence patterns) {
+        if (patterns == null) {
+            return null;
+        }
+
+        final StringBuilder regex = new StringBuilder();
+        for (String pattern : patterns.toString().split(",")) {
+            pattern = pattern.trim();
+            if (pattern.length() == 0) {
+                continue;
+            }
+            if (regex.length() > 0) {
+                regex.append('|');
+            }
+            int lo = 0;
+            for (int i = 0, n = pattern.length(); i <= n; i++) {
+                if (i == n || pattern.charAt(i) == '*') {
+                    if (i > lo) {
+                        regex.append(Pattern.quote(pattern.substring(lo, i)));
+                    }
+                    if (i < n) {
+                        regex.append(".*");
+                    }
+                    lo = i + 1;
+                }
+            }
+        }
+        return regex.length() > 0 ? Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE) : null;
+    }
+
+    public ObjList<String> getTableNames() {
+        return tableNames;
+    }
+
+    public boolean isDone() {
+        return done.get() == tableNames.size();
+    }
+
+    @Override
+    public boolean run(int workerId) {
+        final int tableCount = tableNames.size();
+        // check before incrementing, idle workers would overflow the counter otherwise
+        if (claimed.get() >= tableCount) {
+            return false;
+        }
+
+        final int index = claimed.getAndIncrement();
+        if (index >= tableCount) {
+            return false;
+        }
+
+        final String tableName = tableNames.getQuick(index);
+        final long pageCount = warmUp(tableName);
+        final int count = done.incrementAndGet();
+        LOG.info().$("warmed up [table=").utf8(tableName)
+                .$(", pages=").$(pageCount)
+                .$(", worker=").$(workerId)
+                .$(", progress=").$(count).$('/').$(tableCount)
+                .$(']').$();
+        if (count == tableCount) {
+            LOG.info().$("warm-up complete [tables=").$(tableCount).$(", time=").$((clock.getTicks() - startTime) / 1000).$("ms]").$();
+        }
+        return true;
+    }
+
+    private long warmUp(String tableName) {
+        long pageCount = 0;
+        try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, tableName)) {
+            final int hi = reader.getPartitionCount();
+            for (int i = Math.max(0, hi - partitionCount); i < hi; i++) {
+                pageCount += reader.touchPartition(i);
+            }
+        } catch (EntryUnavailableException e) {
+            LOG.info().$("reader is unavailable, skipped warm-up [table=").utf8(tableName).$(", reason=").$(e.getFlyweightMessage()).$(']').$();
+        } catch (CairoException e) {
+            LOG.error().$("could not warm up [table=").utf8(tableName).$(", e=").$((Sinkable) e).$(']').$();
+        }
+        return pageCount;
+    }
+}
@@ -63,6 +63,9 @@ public class TableWriter implements Closeable {
     private final ObjList<ColumnIndexer> denseIndexers = new ObjList<>();
     private final Path path;
     private final Path other;
+    private final Path coldPath;
+    private final Path coldOther;
+    private final int coldRootLen;
     private final LongList refs = new LongList();
     private final Row row = new Row();
     private final int rootLen;
@@ -89,12 +92,22 @@ public class TableWriter implements Closeable {
     private final LongList indexSequences = new LongList();
     private final MessageBus messageBus;
     private final boolean parallelIndexerEnabled;
+    private final boolean deferredIndexing;
+    private final GroupCommitJob.Latch groupCommitLatch = new GroupCommitJob.Latch();
+    private final LongList groupCommitRegions = new LongList();
+    private final GroupCommitJob groupCommitJob;
     private final LongHashSet removedPartitions = new LongHashSet();
     private final Timestamps.TimestampFloorMethod timestampFloorMethod;
     private final Timestamps.TimestampAddMethod timestampAddMethod;
     private final int defaultCommitMode;
     private final FindVisitor removePartitionDirectories = this::removePartitionDirectories0;
     private final ObjList<Runnable> nullers;
+    private final IntList dedupColumns = new IntList();
+    private final IntList dedupSymbolKeys = new IntList();
+    private final IntList rowSymbolKeys = new IntList();
+    private DedupKeyMap dedupKeyMap;
+    private long lateRowTimestamp = Long.MIN_VALUE;
+    private long dedupRowCount = 0;
     private int txPartitionCount = 0;
     private long lockFd;
     private LongConsumer timestampSetter;
@@ -121,6 +134,9 @@ public class TableWriter implements Closeable {
     private final FragileCode RECOVER_FROM_SWAP_RENAME_FAILURE = this::recoverFromSwapRenameFailure;
     private final FragileCode RECOVER_FROM_COLUMN_OPEN_FAILURE = this::recoverOpenColumnFailure;
     private int indexCount;
+    private boolean deferredIndexPending = false;
+    private long deferredIndexLo;
+    private long deferredIndexHi;
     private boolean performRecovery;
     private boolean distressed = false;
     private LifecycleManager lifecycleManager;
@@ -150,6 +166,18 @@ public class TableWriter implements Closeable {
             boolean lock,
             LifecycleManager lifecycleManager,
             CharSequence root
+    ) {
+        this(configuration, name, messageBus, lock, lifecycleManager, root, null);
+    }
+
+    public TableWriter(
+            CairoConfiguration configuration,
+            CharSequence name,
+            @Nullable MessageBus messageBus,
+            boolean lock,
+            LifecycleManager lifecycleManager,
+            CharSequence root,
+            @Nullable GroupCommitJob groupCommitJob
     ) {
         LOG.info().$("open '").utf8(name).$('\'').$();
         this.configuration = configuration;
@@ -157,6 +185,8 @@ public class TableWriter implements Closeable {
         this.defaultCommitMode = configuration.getCommitMode();
         this.lifecycleManager = lifecycleManager;
         this.parallelIndexerEnabled = messageBus != null && configuration.isParallelIndexingEnabled();
+        this.deferredIndexing = configuration.isDeferredIndexingEnabled();
+        this.groupCommitJob = groupCommitJob;
         this.ff = configuration.getFilesFacade();
         this.mkDirMode = configuration.getMkDirMode();
         this.fileOperationRetryCount = configuration.getFileOperationRetryCount();
@@ -164,6 +194,16 @@ public class TableWriter implements Closeable {
         this.other = new Path().of(root).concat(name);
         this.name = Chars.toString(name);
         this.rootLen = path.length();
+        final CharSequence coldRoot = configuration.getColdStorageRoot();
+        if (coldRoot != null) {
+            this.coldPath = new Path().of(coldRoot).concat(name);
+            this.coldOther = new Path().of(coldRoot).concat(name);
+            this.coldRootLen = coldPath.length();
+        } else {
+            this.coldPath = null;
+            this.coldOther = null;
+            this.coldRootLen = 0;
+        }
         try {
             if (lock) {
                 lock();
@@ -233,6 +273,8 @@ public class TableWriter implements Closeable {
             configureAppendPosition();
             purgeUnusedPartitions();
             loadRemovedPartitions();
+            configureDedup();
+            loadDedupKeys();
         } catch (CairoException e) {
             LOG.error().$("cannot open '").$(path).$("' and this is why: {").$((Sinkable) e).$('}').$();
             doClose(false);
@@ -240,6 +282,32 @@ public class TableWriter implements Closeable {
         }
     }
 
+    public static Timestamps.TimestampFloorMethod selectPartitionFloorMethod(int partitionBy) {
+        switch (partitionBy) {
+            case PartitionBy.DAY:
+                return Timestamps.FLOOR_DD;
+            case PartitionBy.MONTH:
+                return Timestamps.FLOOR_MM;
+            case PartitionBy.YEAR:
+                return Timestamps.FLOOR_YYYY;
+            default:
+                return null;
+        }
+    }
+
+    public static Timestamps.TimestampAddMethod selectPartitionAddMethod(int partitionBy) {
+        switch (partitionBy) {
+            case PartitionBy.DAY:
+                return Timestamps.ADD_DD;
+            case PartitionBy.MONTH:
+                return Timestamps.ADD_MM;
+            case PartitionBy.YEAR:
+                return Timestamps.ADD_YYYY;
+            default:
+                return null;
+        }
+    }
+
     public static TimestampFormat selectPartitionDirFmt(int partitionBy) {
         switch (partitionBy) {
             case PartitionBy.DAY:
@@ -308,7 +376,7 @@ public class TableWriter implements Closeable {
 
         LOG.info().$("adding column '").utf8(name).$('[').$(ColumnType.nameOf(type)).$("]' to ").$(path).$();
 
-        commit();
+        commitBeforeStructureChange();
 
         removeColumnFiles(name, type, REMOVE_OR_EXCEPTION);
 
@@ -390,7 +458,7 @@ public class TableWriter implements Closeable {
             throw CairoException.instance(0).put("Invalid column name: ").put(columnName);
         }
 
-        commit();
+        commitBeforeStructureChange();
 
         if (isColumnIndexed(metaMem, columnIndex)) {
             throw CairoException.instance(0).put("already indexed [column=").put(columnName).put(']');
@@ -480,6 +548,142 @@ public class TableWriter implements Closeable {
         LOG.info().$("ADDED index to '").utf8(columnName).$('[').$(ColumnType.nameOf(existingType)).$("]' to ").$(path).$();
     }
 
+    /**
+     * Appends block of rows supplied column by column. Values are copied into column files as they are,
+     * bypassing {@link Row}, and indexes are updated for the whole block on commit or partition switch.
+     * Rows must be in ascending order of designated timestamp and may span partitions.
+     * <p>
+     * Fixed-size columns are expected in their storage format. Symbol columns expect keys resolved
+     * by {@link #resolveSymbol(int, CharSequence)}. For STRING and BINARY columns column address is
+     * the base for offsets, which are looked up at column offset address, one long per row. Values are
+     * in storage format, length prefix followed by payload, and are expected to be laid out contiguously.
+     * Zero column address appends nulls, except for designated timestamp column, which is mandatory.
+     *
+     * @param rowCount        number of rows in the block
+     * @param columnAddresses address of first value for every column of the table
+     * @param columnOffsets   address of value offsets for STRING and BINARY columns, ignored for other types
+     */
+    public void appendColumns(long rowCount, LongList columnAddresses, LongList columnOffsets) {
+        checkDistressed();
+
+        if (dedupKeyMap != null) {
+            throw CairoException.instance(0).put("Columnar append is not supported by tables with dedup keys. Table=").put(path);
+        }
+
+        if ((masterRef & 1) != 0) {
+            cancelRow();
+        }
+
+        final int timestampIndex = metadata.getTimestampIndex();
+        final long timestamps = timestampIndex == -1 ? 0 : columnAddresses.getQuick(timestampIndex);
+        if (timestampIndex != -1 && timestamps == 0) {
+            throw CairoException.instance(0).put("Designated timestamp column is required. Table=").put(path);
+        }
+
+        long lo = 0;
+        while (lo < rowCount) {
+            long timestamp = timestamps == 0 ? 0 : Unsafe.getUnsafe().getLong(timestamps + lo * Long.BYTES);
+            if (timestamp < maxTimestamp) {
+                throw CairoException.instance(ff.errno()).put("Cannot insert rows out of order. Table=").put(path);
+            }
+
+            if (rowFunction == openPartitionFunction) {
+                minTimestamp = timestamp;
+                openFirstPartition(timestamp);
+                rowFunction = switchPartitionFunction;
+            } else if (timestamp > partitionHi && partitionBy != PartitionBy.NONE) {
+                switchPartition(timestamp);
+            }
+
+            // rows up to partition boundary are copied in one go
+            long hi = lo + 1;
+            if (timestamps != 0) {
+                for (; hi < rowCount; hi++) {
+                    final long next = Unsafe.getUnsafe().getLong(timestamps + hi * Long.BYTES);
+                    if (next < timestamp) {
+                        throw CairoException.instance(ff.errno()).put("Cannot insert rows out of order. Table=").put(path);
+                    }
+                    if (next > partitionHi) {
+                        break;
+                    }
+                    timestamp = next;
+                }
+            } else {
+                hi = rowCount;
+            }
+
+            for (int i = 0; i < columnCount; i++) {
+                appendColumn(i, columnAddresses.getQuick(i), columnOffsets.getQuick(i), lo, hi);
+            }
+
+            transientRowCount += hi - lo;
+            prevMaxTimestamp = maxTimestamp;
+            maxTimestamp = timestamp;
+            if (prevMinTimestamp == Long.MAX_VALUE) {
+                prevMinTimestamp = minTimestamp;
+            }
+            lo = hi;
+        }
+    }
+
+    /**
+     * Attaches partition previously detached by {@link #detachPartition(long)}. Detached
+     * partition directory is looked up under table root first and then in cold storage.
+     *
+     * @param timestamp partition timestamp, as returned by {@link #partitionNameToTimestamp(CharSequence)}
+     * @return true if partition has been attached
+     */
+    public boolean attachPartition(long timestamp) {
+        if (partitionBy == PartitionBy.NONE || timestamp >= timestampFloorMethod.floor(maxTimestamp)) {
+            return false;
+        }
+
+        if (removedPartitions.excludes(timestamp)) {
+            LOG.error().$("partition is not detached [path=").$(path).$(", timestamp=").$ts(timestamp).$(']').$();
+            return false;
+        }
+
+        try {
+            Path path = this.path;
+            Path other = this.other;
+            int rootLen = this.rootLen;
+            if (!ff.exists(setPartitionDir(path, rootLen, timestamp).put(DETACHED_DIR_SUFFIX).$()) && coldPath != null) {
+                path = coldPath;
+                other = coldOther;
+                rootLen = coldRootLen;
+                setPartitionDir(path, rootLen, timestamp).put(DETACHED_DIR_SUFFIX).$();
+            }
+
+            if (!ff.exists(path)) {
+                LOG.error().$("detached partition not found [path=").$(path).$(']').$();
+                return false;
+            }
+
+            if (ff.exists(setPartitionDir(other, rootLen, timestamp).$())) {
+                LOG.error().$("cannot attach partition over existing directory [path=").$(other).$(']').$();
+                return false;
+            }
+
+            final int plen = path.length();
+            final long partitionSize = readPartitionSize(ff, path.chopZ(), tempMem8b);
+            dFile(path.trimTo(plen), metadata.getColumnName(metadata.getTimestampIndex()));
+            final long partitionMinTimestamp = TableUtils.readLongAtOffset(ff, path, tempMem8b, 0);
+
+            if (!ff.rename(path.trimTo(plen).$(), other)) {
+                LOG.error().$("cannot attach partition [from=").$(path).$(", to=").$(other).$(", errno=").$(ff.errno()).$(']').$();
+                return false;
+            }
+
+            removedPartitions.removeAt(removedPartitions.keyIndex(timestamp));
+            writePartitionTable(partitionMinTimestamp, partitionSize);
+            LOG.info().$("partition attached [path=").$(other).$(']').$();
+            return true;
+        } finally {
+            path.trimTo(rootLen);
+            other.trimTo(rootLen);
+        }
+    }
+
     public void changeCacheFlag(int columnIndex, boolean cache) {
         checkDistressed();
 
@@ -524,11 +728,23 @@ public class TableWriter implements Closeable {
 
         if (inTransaction()) {
 
-            if (commitMode != CommitMode.NOSYNC) {
+            final boolean groupCommit = commitMode == CommitMode.SYNC && groupCommitJob != null;
+            if (groupCommit) {
+                syncColumnsInGroup();
+            } else if (commitMode != CommitMode.NOSYNC) {
                 syncColumns(commitMode);
             }
 
-            updateIndexes();
+            if (deferredIndexing) {
+                updateIndexesDeferred();
+            } else {
+                updateIndexes();
+            }
+
+            // ranks have to cover symbols before readers can see them
+            for (int i = 0, n = denseSymbolMapWriters.size(); i < n; i++) {
+                denseSymbolMapWriters.getQuick(i).commitRanks();
+            }
 
             txMem.putLong(TX_OFFSET_TXN, ++txn);
             Unsafe.getUnsafe().storeFence();
@@ -552,13 +768,57 @@ public class TableWriter implements Closeable {
 
             Unsafe.getUnsafe().storeFence();
             txMem.putLong(TX_OFFSET_TXN_CHECK, txn);
-            if (commitMode != CommitMode.NOSYNC) {
+            if (groupCommit) {
+                groupCommitRegions.clear();
+                txMem.addSyncRegion(0, groupCommitRegions);
+                syncGroup();
+            } else if (commitMode != CommitMode.NOSYNC) {
                 txMem.sync(0, commitMode == CommitMode.ASYNC);
             }
             txPrevTransientRowCount = transientRowCount;
         }
     }
 
+    /**
+     * Detaches partition from table. Partition disappears from the table the same way
+     * {@link #removePartition(long)} makes it disappear, but its directory is renamed
+     * rather than deleted and can be brought back by {@link #attachPartition(long)}.
+     *
+     * @param timestamp partition timestamp, as returned by {@link #partitionNameToTimestamp(CharSequence)}
+     * @return true if partition has been detached
+     */
+    public boolean detachPartition(long timestamp) {
+        if (!isPartitionRemovable(timestamp)) {
+            return false;
+        }
+
+        try {
+            final long nextMinTimestamp = getNextMinTimestampIfFirst(timestamp);
+            final Path path = partitionPath(timestamp);
+            if (!ff.exists(path.$())) {
+                LOG.error().$("cannot detach already missing partition [path=").$(path).$(']').$();
+                return false;
+            }
+
+            final long partitionSize = readPartitionSize(ff, path.chopZ(), tempMem8b);
+            final Path other = path == this.path
+                    ? setPartitionDir(this.other, rootLen, timestamp)
+                    : setPartitionDir(coldOther, coldRootLen, timestamp);
+
+            if (!ff.rename(path.$(), other.put(DETACHED_DIR_SUFFIX).$())) {
+                LOG.error().$("cannot detach partition [from=").$(path).$(", to=").$(other).$(", errno=").$(ff.errno()).$(']').$();
+                return false;
+            }
+
+            writeRemovedPartition(timestamp, nextMinTimestamp, partitionSize);
+            LOG.info().$("partition detached [path=").$(other).$(']').$();
+            return true;
+        } finally {
+            path.trimTo(rootLen);
+            other.trimTo(rootLen);
+        }
+    }
+
     public int getColumnIndex(CharSequence name) {
         int index = metadata.getColumnIndexQuiet(name);
         if (index > -1) {
@@ -567,10 +827,32 @@ public class TableWriter implements Closeable {
         throw CairoException.instance(0).put("Invalid column name: ").put(name);
     }
 
+    /**
+     * Rows of tables with dedup keys are checked one by one, such tables do not
+     * support {@link #appendColumns(long, LongList, LongList)}.
+     *
+     * @return true when table has dedup keys
+     */
+    public boolean hasDedupKeys() {
+        return dedupKeyMap != null;
+    }
+
+    /**
+     * @return number of rows dropped since writer was opened because their dedup key
+     * was already present in the table
+     */
+    public long getDedupRowCount() {
+        return dedupRowCount;
+    }
+
     public long getMaxTimestamp() {
         return maxTimestamp;
     }
 
+    public long getMinTimestamp() {
+        return minTimestamp;
+    }
+
     public RecordMetadata getMetadata() {
         return metadata;
     }
@@ -587,6 +869,10 @@ public class TableWriter implements Closeable {
         return structureVersion;
     }
 
+    public int getTtlHours() {
+        return metaMem.getInt(META_OFFSET_TTL_HOURS);
+    }
+
     public boolean inTransaction() {
         return txPartitionCount > 1 || transientRowCount != txPrevTransientRowCount;
     }
@@ -644,7 +930,11 @@ public class TableWriter implements Closeable {
             throw CairoException.instance(0).put("Cannot remove timestamp from partitioned table");
         }
 
-        commit();
+        if (isDedupKey(metaMem, index)) {
+            throw CairoException.instance(0).put("Cannot remove dedup key column");
+        }
+
+        commitBeforeStructureChange();
 
         final CharSequence timestampColumnName = timestampIndex != -1 ? metadata.getColumnName(timestampIndex) : null;
 
@@ -701,6 +991,7 @@ public class TableWriter implements Closeable {
         } else if (timestampColumnName != null) {
             metadata.setTimestampIndex(metadata.getColumnIndex(timestampColumnName));
         }
+        configureDedup();
 
         LOG.info().$("REMOVED column '").utf8(name).$("' from ").$(path).$();
     }
@@ -715,7 +1006,7 @@ public class TableWriter implements Closeable {
 
         LOG.info().$("renaming column '").utf8(currentName).$("' to '").utf8(newName).$("' from ").$(path).$();
 
-        commit();
+        commitBeforeStructureChange();
 
         this.metaSwapIndex = renameColumnFromMeta(index, newName);
 
@@ -740,7 +1031,7 @@ public class TableWriter implements Closeable {
             removeTodoFile();
 
             // rename column files has to be done after _todo is removed
-            renameColumnFiles(currentName, newName, type);
+            renameColumnFiles(index, currentName, newName, type);
         } catch (CairoException err) {
             throwDistressException(err);
         }
@@ -752,27 +1043,18 @@ public class TableWriter implements Closeable {
         LOG.info().$("RENAMED column '").utf8(currentName).$("' to '").utf8(newName).$("' from ").$(path).$();
     }
 
-    private void renameColumnFiles(CharSequence columnName, CharSequence newName, int columnType) {
+    private void renameColumnFiles(int columnIndex, CharSequence columnName, CharSequence newName, int columnType) {
         try {
-            ff.iterateDir(path.$(), (file, type) -> {
-                nativeLPSZ.of(file);
-                if (type == Files.DT_DIR && IGNORED_FILES.excludes(nativeLPSZ)) {
-                    path.trimTo(rootLen);
-                    path.concat(nativeLPSZ);
-                    other.trimTo(rootLen);
-                    other.concat(nativeLPSZ);
-                    int plen = path.length();
-                    renameFileOrLog(ff, dFile(path.trimTo(plen), columnName), dFile(other.trimTo(plen), newName));
-                    renameFileOrLog(ff, iFile(path.trimTo(plen), columnName), iFile(other.trimTo(plen), newName));
-                    renameFileOrLog(ff, topFile(path.trimTo(plen), columnName), topFile(other.trimTo(plen), newName));
-                    renameFileOrLog(ff, BitmapIndexUtils.keyFileName(path.trimTo(plen), columnName), BitmapIndexUtils.keyFileName(other.trimTo(plen), newName));
-                    renameFileOrLog(ff, BitmapIndexUtils.valueFileName(path.trimTo(plen), columnName), BitmapIndexUtils.valueFileName(other.trimTo(plen), newName));
-                }
-            });
+            renamePartitionColumnFiles(path, other, rootLen, columnName, newName);
+            if (coldPath != null) {
+                renamePartitionColumnFiles(coldPath, coldOther, coldRootLen, columnName, newName);
+            }
 
             if (columnType == ColumnType.SYMBOL) {
                 renameFileOrLog(ff, SymbolMapWriter.offsetFileName(path.trimTo(rootLen), columnName), SymbolMapWriter.offsetFileName(other.trimTo(rootLen), newName));
                 renameFileOrLog(ff, SymbolMapWriter.charFileName(path.trimTo(rootLen), columnName), SymbolMapWriter.charFileName(other.trimTo(rootLen), newName));
+                renameFileOrLog(ff, SymbolMapWriter.rankFileName(path.trimTo(rootLen), columnName), SymbolMapWriter.rankFileName(other.trimTo(rootLen), newName));
+                symbolMapWriters.getQuick(columnIndex).renameRankFile(path.trimTo(rootLen), newName);
                 renameFileOrLog(ff, BitmapIndexUtils.keyFileName(path.trimTo(rootLen), columnName), BitmapIndexUtils.keyFileName(other.trimTo(rootLen), newName));
                 renameFileOrLog(ff, BitmapIndexUtils.valueFileName(path.trimTo(rootLen), columnName), BitmapIndexUtils.valueFileName(other.trimTo(rootLen), newName));
             }
@@ -782,22 +1064,28 @@ public class TableWriter implements Closeable {
         }
     }
 
-    public boolean removePartition(long timestamp) {
-
-        if (partitionBy == PartitionBy.NONE || timestamp < timestampFloorMethod.floor(minTimestamp) || timestamp > maxTimestamp) {
-            return false;
-        }
-
-        if (timestampFloorMethod.floor(timestamp) == timestampFloorMethod.floor(maxTimestamp)) {
-            LOG.error()
-                    .$("cannot remove active partition [path=").$(path)
-                    .$(", maxTimestamp=").$ts(maxTimestamp)
-                    .$(']').$();
-            return false;
-        }
+    private void renamePartitionColumnFiles(Path path, Path other, int rootLen, CharSequence columnName, CharSequence newName) {
+        ff.iterateDir(path.trimTo(rootLen).$(), (file, type) -> {
+            nativeLPSZ.of(file);
+            if (type == Files.DT_DIR && IGNORED_FILES.excludes(nativeLPSZ)) {
+                path.trimTo(rootLen);
+                path.concat(nativeLPSZ);
+                other.trimTo(rootLen);
+                other.concat(nativeLPSZ);
+                int plen = path.length();
+                renameFileOrLog(ff, dFile(path.trimTo(plen), columnName), dFile(other.trimTo(plen), newName));
+                renameFileOrLog(ff, iFile(path.trimTo(plen), columnName), iFile(other.trimTo(plen), newName));
+                renameFileOrLog(ff, topFile(path.trimTo(plen), columnName), topFile(other.trimTo(plen), newName));
+                renameFileOrLog(ff, BitmapIndexUtils.keyFileName(path.trimTo(plen), columnName), BitmapIndexUtils.keyFileName(other.trimTo(plen), newName));
+                renameFileOrLog(ff, BitmapIndexUtils.valueFileName(path.trimTo(plen), columnName), BitmapIndexUtils.valueFileName(other.trimTo(plen), newName));
+            }
+        });
+        path.trimTo(rootLen);
+        other.trimTo(rootLen);
+    }
 
-        if (removedPartitions.contains(timestamp)) {
-            LOG.error().$("partition is already marked for delete [path=").$(path).$(']').$();
+    public boolean removePartition(long timestamp) {
+        if (!isPartitionRemovable(timestamp)) {
             return false;
         }
 
@@ -811,57 +1099,23 @@ public class TableWriter implements Closeable {
             // what remains on disk
 
             // find out if we are removing min partition
+            final long nextMinTimestamp = getNextMinTimestampIfFirst(timestamp);
+            final Path path = partitionPath(timestamp);
 
-            final long nextMinTimestamp;
-            if (timestampFloorMethod.floor(timestamp) == timestampFloorMethod.floor(minTimestamp)) {
-                nextMinTimestamp = getNextMinTimestamp(timestampFloorMethod, timestampAddMethod);
-            } else {
-                nextMinTimestamp = minTimestamp;
-            }
-
-            setStateForTimestamp(timestamp, false);
-
-            if (ff.exists(path)) {
+            if (ff.exists(path.$())) {
 
                 // todo: when this fails - rescan partitions to calculate fixedRowCount
                 //     also write a _todo_ file, which will indicate which partition we wanted to delete
                 //     reconcile partitions we can read sizes of with partition table
                 //     add partitions we cannot read sizes of to partition table
-                final long partitionSize = readPartitionSize(ff, path, tempMem8b);
+                final long partitionSize = readPartitionSize(ff, path.chopZ(), tempMem8b);
 
-                int symbolWriterCount = denseSymbolMapWriters.size();
-                int partitionTableSize = txMem.getInt(getPartitionTableSizeOffset(symbolWriterCount));
-
-                long txn = txMem.getLong(TX_OFFSET_TXN) + 1;
-                txMem.putLong(TX_OFFSET_TXN, txn);
-                Unsafe.getUnsafe().storeFence();
-
-                final long partitionVersion = txMem.getLong(TX_OFFSET_PARTITION_TABLE_VERSION) + 1;
-                txMem.jumpTo(getPartitionTableIndexOffset(symbolWriterCount, partitionTableSize));
-                txMem.putLong(timestamp);
-
-                txMem.putLong(TX_OFFSET_PARTITION_TABLE_VERSION, partitionVersion);
-                txMem.putInt(getPartitionTableSizeOffset(symbolWriterCount), partitionTableSize + 1);
-
-                if (nextMinTimestamp != minTimestamp) {
-                    txMem.putLong(TX_OFFSET_MIN_TIMESTAMP, nextMinTimestamp);
-                    minTimestamp = nextMinTimestamp;
-                }
-
-                // decrement row count
-                txMem.putLong(TX_OFFSET_FIXED_ROW_COUNT, txMem.getLong(TX_OFFSET_FIXED_ROW_COUNT) - partitionSize);
-
-                Unsafe.getUnsafe().storeFence();
-                // txn check
-                txMem.putLong(TX_OFFSET_TXN_CHECK, txn);
+                writeRemovedPartition(timestamp, nextMinTimestamp, partitionSize);
 
                 if (!ff.rmdir(path.chopZ().put(Files.SEPARATOR).$())) {
                     LOG.info().$("partition directory delete is postponed [path=").$(path).$(']').$();
                 }
 
-                removedPartitions.add(timestamp);
-                fixedRowCount -= partitionSize;
-
                 LOG.info().$("partition marked for delete [path=").$(path).$(']').$();
                 return true;
             } else {
@@ -873,15 +1127,25 @@ public class TableWriter implements Closeable {
         }
     }
 
+    /**
+     * Resolves symbol value to the key {@link #appendColumns(long, LongList, LongList)} expects.
+     * Value is added to symbol table of the column when it is not already there.
+     */
+    public int resolveSymbol(int columnIndex, CharSequence value) {
+        return symbolMapWriters.getQuick(columnIndex).put(value);
+    }
+
     public void rollback() {
         checkDistressed();
         if (inTransaction()) {
             LOG.info().$("tx rollback [name=").$(name).$(']').$();
+            awaitDeferredIndexes();
             freeColumns(false);
             txPendingPartitionSizes.jumpTo(0);
             configureAppendPosition();
             rollbackIndexes();
             purgeUnusedPartitions();
+            loadDedupKeys();
             LOG.info().$("tx rollback complete [name=").$(name).$(']').$();
         }
     }
@@ -917,6 +1181,7 @@ public class TableWriter implements Closeable {
             return;
         }
 
+        awaitDeferredIndexes();
         writeTodo(TODO_TRUNCATE);
         for (int i = 0; i < columnCount; i++) {
             getPrimaryColumn(i).truncate();
@@ -954,16 +1219,38 @@ public class TableWriter implements Closeable {
             throwDistressException(err);
         }
 
+        if (dedupKeyMap != null) {
+            dedupKeyMap.clear();
+        }
+
         LOG.info().$("truncated [name=").$(name).$(']').$();
     }
 
     public void updateMetadataVersion() {
+        replaceMetadata(getTtlHours());
+    }
+
+    /**
+     * Sets time-to-live of table partitions. Partitions, which end more than TTL before max timestamp
+     * of the table, are removed by {@link PartitionTtlJob}.
+     *
+     * @param ttlHours TTL in hours, 0 turns TTL off
+     */
+    public void setTtlHours(int ttlHours) {
+        if (partitionBy == PartitionBy.NONE) {
+            throw CairoException.instance(0).put("TTL requires partitioned table");
+        }
+        replaceMetadata(ttlHours);
+        LOG.info().$("TTL set [table=").$(name).$(", hours=").$(ttlHours).$(']').$();
+    }
+
+    private void replaceMetadata(int ttlHours) {
 
         checkDistressed();
 
         commit();
         // create new _meta.swp
-        this.metaSwapIndex = copyMetadataAndUpdateVersion();
+        this.metaSwapIndex = copyMetadataAndUpdateVersion(ttlHours);
 
         // close _meta so we can rename it
         metaMem.close();
@@ -1102,7 +1389,7 @@ public class TableWriter implements Closeable {
 
     static void indexAndCountDown(ColumnIndexer indexer, long lo, long hi, SOCountDownLatch latch) {
         try {
-            indexer.refreshSourceAndIndex(lo, hi);
+            indexer.index(lo, hi);
         } catch (CairoException e) {
             indexer.distress();
             LOG.error().$("index error [fd=").$(indexer.getFd()).$(']').$('{').$((Sinkable) e).$('}').$();
@@ -1126,6 +1413,7 @@ public class TableWriter implements Closeable {
             ddlMem.putInt(metaMem.getInt(META_OFFSET_PARTITION_BY));
             ddlMem.putInt(metaMem.getInt(META_OFFSET_TIMESTAMP_INDEX));
             ddlMem.putInt(ColumnType.VERSION);
+            ddlMem.putInt(metaMem.getInt(META_OFFSET_TTL_HOURS));
             ddlMem.jumpTo(META_OFFSET_COLUMN_TYPES);
             for (int i = 0; i < columnCount; i++) {
                 writeColumnEntry(i);
@@ -1159,6 +1447,61 @@ public class TableWriter implements Closeable {
         return index;
     }
 
+    private void appendColumn(int columnIndex, long address, long offsets, long lo, long hi) {
+        final int type = metadata.getColumnType(columnIndex);
+        final AppendMemory mem1 = getPrimaryColumn(columnIndex);
+        if (address == 0) {
+            final Runnable nuller = nullers.getQuick(columnIndex);
+            for (long r = lo; r < hi; r++) {
+                nuller.run();
+            }
+            return;
+        }
+
+        switch (type) {
+            case ColumnType.STRING:
+            case ColumnType.BINARY:
+                final AppendMemory mem2 = getSecondaryColumn(columnIndex);
+                final long firstOffset = Unsafe.getUnsafe().getLong(offsets + lo * Long.BYTES);
+                final long lastOffset = Unsafe.getUnsafe().getLong(offsets + (hi - 1) * Long.BYTES);
+                final long lastSize;
+                if (type == ColumnType.STRING) {
+                    final int len = Unsafe.getUnsafe().getInt(address + lastOffset);
+                    lastSize = len > 0 ? Integer.BYTES + (long) len * Character.BYTES : Integer.BYTES;
+                } else {
+                    final long len = Unsafe.getUnsafe().getLong(address + lastOffset);
+                    lastSize = len > 0 ? Long.BYTES + len : Long.BYTES;
+                }
+                final long base = mem1.getAppendOffset() - firstOffset;
+                mem1.putBlockOfBytes(address + firstOffset, lastOffset + lastSize - firstOffset);
+                for (long r = lo; r < hi; r++) {
+                    mem2.putLong(base + Unsafe.getUnsafe().getLong(offsets + r * Long.BYTES));
+                }
+                break;
+            default:
+                final long size = ColumnType.sizeOf(type);
+                mem1.putBlockOfBytes(address + lo * size, (hi - lo) * size);
+                break;
+        }
+    }
+
+    /**
+     * Waits for indexers to finish rows handed over to {@link ColumnIndexerJob} by previous commit.
+     * Indexers that have not been picked up by workers yet are run on current thread.
+     */
+    private void awaitDeferredIndexes() {
+        if (deferredIndexPending) {
+            deferredIndexPending = false;
+            for (int i = 0, n = indexSequences.size(); i < n; i++) {
+                ColumnIndexer indexer = denseIndexers.getQuick(i);
+                if (indexer.tryLock(indexSequences.getQuick(i))) {
+                    indexAndCountDown(indexer, deferredIndexLo, deferredIndexHi, indexLatch);
+                }
+            }
+            indexLatch.await();
+        }
+    }
+
     private void bumpMasterRef() {
         if ((masterRef & 1) == 0) {
             masterRef++;
@@ -1201,6 +1544,8 @@ public class TableWriter implements Closeable {
             return;
         }
 
+        lateRowTimestamp = Long.MIN_VALUE;
+
         if (transientRowCount == 0) {
             if (partitionBy != PartitionBy.NONE) {
                 // we have to undo creation of partition
@@ -1277,6 +1622,17 @@ public class TableWriter implements Closeable {
         masterRef++;
     }
 
+    private void catchUpIndexes() {
+        for (int i = 0; i < indexCount; i++) {
+            try {
+                denseIndexers.getQuick(i).catchUp(transientRowCount);
+            } catch (CairoException e) {
+                LOG.error().$("index error {").$((Sinkable) e).$('}').$();
+                throwDistressException(e);
+            }
+        }
+    }
+
     private void checkDistressed() {
         if (!distressed) {
             return;
@@ -1284,6 +1640,27 @@ public class TableWriter implements Closeable {
         throw new CairoError("Table '" + name.toString() + "' is distressed");
     }
 
+    private void checkIndexersDistressed() {
+        boolean distressed = false;
+        for (int i = 0; i < indexCount; i++) {
+            ColumnIndexer indexer = denseIndexers.getQuick(i);
+            distressed = distressed | indexer.isDistressed();
+        }
+
+        if (distressed) {
+            throwDistressException(null);
+        }
+    }
+
+    /**
+     * Structure changes reconfigure indexers, which therefore cannot be left
+     * indexing in background.
+     */
+    private void commitBeforeStructureChange() {
+        commit();
+        awaitDeferredIndexes();
+    }
+
     private void commitPendingPartitions() {
         long offset = 0;
         for (int i = 0; i < txPartitionCount - 1; i++) {
@@ -1358,6 +1735,23 @@ public class TableWriter implements Closeable {
         refs.add(0);
     }
 
+    private void configureDedup() {
+        dedupColumns.clear();
+        boolean dedup = false;
+        for (int i = 0; i < columnCount; i++) {
+            if (isDedupKey(metaMem, i)) {
+                dedup = true;
+                if (getColumnType(metaMem, i) == ColumnType.SYMBOL) {
+                    dedupColumns.add(i);
+                }
+            }
+        }
+
+        if (dedup && dedupKeyMap == null) {
+            dedupKeyMap = new DedupKeyMap(configuration, dedupColumns.size());
+        }
+    }
+
     private void configureColumnMemory() {
         int expectedMapWriters = txMem.getInt(TX_OFFSET_MAP_WRITER_COUNT);
         long nextSymbolCountOffset = getSymbolWriterIndexOffset(0);
@@ -1444,6 +1838,7 @@ public class TableWriter implements Closeable {
             ddlMem.putInt(metaMem.getInt(META_OFFSET_PARTITION_BY));
             ddlMem.putInt(metaMem.getInt(META_OFFSET_TIMESTAMP_INDEX));
             ddlMem.putInt(ColumnType.VERSION);
+            ddlMem.putInt(metaMem.getInt(META_OFFSET_TTL_HOURS));
             ddlMem.jumpTo(META_OFFSET_COLUMN_TYPES);
             for (int i = 0; i < columnCount; i++) {
                 if (i != columnIndex) {
@@ -1454,6 +1849,9 @@ public class TableWriter implements Closeable {
                     if (isSequential(metaMem, i)) {
                         flags |= META_FLAG_BIT_SEQUENTIAL;
                     }
+                    if (isDedupKey(metaMem, i)) {
+                        flags |= META_FLAG_BIT_DEDUP_KEY;
+                    }
                     ddlMem.putLong(flags);
                     ddlMem.putInt(indexValueBlockSize);
                     ddlMem.skip(META_COLUMN_DATA_RESERVED);
@@ -1472,7 +1870,7 @@ public class TableWriter implements Closeable {
         }
     }
 
-    private int copyMetadataAndUpdateVersion() {
+    private int copyMetadataAndUpdateVersion(int ttlHours) {
         int index;
         try {
             index = openMetaSwapFile(ff, ddlMem, path, rootLen, configuration.getMaxSwapFileCount());
@@ -1482,6 +1880,7 @@ public class TableWriter implements Closeable {
             ddlMem.putInt(metaMem.getInt(META_OFFSET_PARTITION_BY));
             ddlMem.putInt(metaMem.getInt(META_OFFSET_TIMESTAMP_INDEX));
             ddlMem.putInt(ColumnType.VERSION);
+            ddlMem.putInt(ttlHours);
             ddlMem.jumpTo(META_OFFSET_COLUMN_TYPES);
             for (int i = 0; i < columnCount; i++) {
                 writeColumnEntry(i);
@@ -1508,6 +1907,10 @@ public class TableWriter implements Closeable {
      * @param plen                    path length. This is used to trim shared path object to.
      */
     private void createIndexFiles(CharSequence columnName, int indexValueBlockCapacity, int plen, boolean force) {
+        createIndexFiles(path, columnName, indexValueBlockCapacity, plen, force);
+    }
+
+    private void createIndexFiles(Path path, CharSequence columnName, int indexValueBlockCapacity, int plen, boolean force) {
         try {
             BitmapIndexUtils.keyFileName(path.trimTo(plen), columnName);
 
@@ -1548,6 +1951,7 @@ public class TableWriter implements Closeable {
 
     private void doClose(boolean truncate) {
         boolean tx = inTransaction();
+        awaitDeferredIndexes();
         freeColumns(truncate);
         freeSymbolMapWriters();
         freeIndexers();
@@ -1558,6 +1962,9 @@ public class TableWriter implements Closeable {
             Misc.free(txPendingPartitionSizes);
             Misc.free(ddlMem);
             Misc.free(other);
+            Misc.free(coldPath);
+            Misc.free(coldOther);
+            dedupKeyMap = Misc.free(dedupKeyMap);
             try {
                 releaseLock(!truncate | tx | performRecovery | distressed);
             } finally {
@@ -1626,7 +2033,7 @@ public class TableWriter implements Closeable {
         long nextMinTimestamp = minTimestamp;
         while (nextMinTimestamp < maxTimestamp) {
             long nextTimestamp = timestampFloorMethod.floor(timestampAddMethod.calculate(nextMinTimestamp, 1));
-            setStateForTimestamp(nextTimestamp, false);
+            final Path path = partitionPath(nextTimestamp);
             try {
                 dFile(path, metadata.getColumnName(metadata.getTimestampIndex()));
                 if (ff.exists(path)) {
@@ -1654,13 +2061,20 @@ public class TableWriter implements Closeable {
                 }
                 nextMinTimestamp = nextTimestamp;
             } finally {
-                path.trimTo(rootLen);
+                this.path.trimTo(rootLen);
             }
         }
         assert nextMinTimestamp > minTimestamp;
         return nextMinTimestamp;
     }
 
+    private long getNextMinTimestampIfFirst(long timestamp) {
+        if (timestampFloorMethod.floor(timestamp) == timestampFloorMethod.floor(minTimestamp)) {
+            return getNextMinTimestamp(timestampFloorMethod, timestampAddMethod);
+        }
+        return minTimestamp;
+    }
+
     private AppendMemory getPrimaryColumn(int column) {
         assert column < columnCount : "Column index is out of bounds: " + column + " >= " + columnCount;
         return columns.getQuick(getPrimaryColumnIndex(column));
@@ -1695,34 +2109,32 @@ public class TableWriter implements Closeable {
 
             while (timestamp < maxTimestamp) {
 
-                path.trimTo(rootLen);
-
-                setStateForTimestamp(timestamp, true);
+                final Path partitionPath = partitionPath(timestamp);
 
-                if (ff.exists(path.$())) {
+                if (ff.exists(partitionPath.$())) {
 
-                    final int plen = path.length();
+                    final int plen = partitionPath.length();
 
-                    TableUtils.dFile(path.trimTo(plen), columnName);
+                    TableUtils.dFile(partitionPath.trimTo(plen), columnName);
 
-                    if (ff.exists(path)) {
+                    if (ff.exists(partitionPath)) {
 
-                        path.trimTo(plen);
+                        partitionPath.trimTo(plen);
 
-                        LOG.info().$("indexing [path=").$(path).$(']').$();
+                        LOG.info().$("indexing [path=").$(partitionPath).$(']').$();
 
-                        createIndexFiles(columnName, indexValueBlockSize, plen, true);
+                        createIndexFiles(partitionPath, columnName, indexValueBlockSize, plen, true);
 
-                        final long partitionSize = TableUtils.readPartitionSize(ff, path.trimTo(plen), tempMem8b);
-                        final long columnTop = TableUtils.readColumnTop(ff, path.trimTo(plen), columnName, plen, tempMem8b);
+                        final long partitionSize = TableUtils.readPartitionSize(ff, partitionPath.trimTo(plen), tempMem8b);
+                        final long columnTop = TableUtils.readColumnTop(ff, partitionPath.trimTo(plen), columnName, plen, tempMem8b);
 
                         if (partitionSize > columnTop) {
-                            TableUtils.dFile(path.trimTo(plen), columnName);
+                            TableUtils.dFile(partitionPath.trimTo(plen), columnName);
 
-                            roMem.of(ff, path, ff.getPageSize(), 0);
+                            roMem.of(ff, partitionPath, ff.getPageSize(), 0);
                             roMem.grow((partitionSize - columnTop) << ColumnType.pow2SizeOf(ColumnType.INT));
 
-                            indexer.configureWriter(configuration, path.trimTo(plen), columnName, columnTop);
+                            indexer.configureWriter(configuration, partitionPath.trimTo(plen), columnName, columnTop);
                             indexer.index(roMem, columnTop, partitionSize);
                         }
                     }
@@ -1749,6 +2161,168 @@ public class TableWriter implements Closeable {
         return symbolMapWriters.getQuick(columnIndex).isCached();
     }
 
+    private boolean isPartitionRemovable(long timestamp) {
+        if (partitionBy == PartitionBy.NONE || timestamp < timestampFloorMethod.floor(minTimestamp) || timestamp > maxTimestamp) {
+            return false;
+        }
+
+        if (timestampFloorMethod.floor(timestamp) == timestampFloorMethod.floor(maxTimestamp)) {
+            LOG.error()
+                    .$("cannot remove active partition [path=").$(path)
+                    .$(", maxTimestamp=").$ts(maxTimestamp)
+                    .$(']').$();
+            return false;
+        }
+
+        if (removedPartitions.contains(timestamp)) {
+            LOG.error().$("partition is already marked for delete [path=").$(path).$(']').$();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks key of pending row against keys of recent rows. Row is cancelled when it
+     * turns out to be a duplicate. Late rows, those with timestamp below max timestamp
+     * of the table, cannot be appended and are always cancelled. Late row, which is not
+     * a duplicate, is reported as error.
+     *
+     * @return true when row has been cancelled as duplicate
+     */
+    private boolean isDuplicateRow() {
+        dedupSymbolKeys.clear();
+        for (int i = 0, n = dedupColumns.size(); i < n; i++) {
+            final int columnIndex = dedupColumns.getQuick(i);
+            dedupSymbolKeys.add(refs.getQuick(columnIndex) == masterRef ? rowSymbolKeys.getQuick(columnIndex) : SymbolTable.VALUE_IS_NULL);
+        }
+
+        final boolean late = lateRowTimestamp != Long.MIN_VALUE;
+        final int result = dedupKeyMap.put(late ? lateRowTimestamp : maxTimestamp, dedupSymbolKeys, !late);
+        if (result == DedupKeyMap.KEY_NEW && !late) {
+            return false;
+        }
+
+        // timestamp setter does not mark reference, without it cancel
+        // could leave timestamp value behind
+        refs.setQuick(metadata.getTimestampIndex(), masterRef);
+        cancelRow();
+        if (result == DedupKeyMap.KEY_DUPLICATE) {
+            dedupRowCount++;
+            return true;
+        }
+        throw CairoException.instance(0).put("Cannot insert rows out of order. Table=").put(path);
+    }
+
+    private void loadDedupKeys() {
+        if (dedupKeyMap == null) {
+            return;
+        }
+
+        dedupKeyMap.clear();
+        if (transientRowCount == 0 || maxTimestamp == Long.MIN_VALUE) {
+            return;
+        }
+
+        // window can reach back into partitions before the active one, keys
+        // have to be added in timestamp order, so older partitions go first
+        final long windowLo = dedupKeyMap.getWindowLo(maxTimestamp);
+        if (partitionBy != PartitionBy.NONE) {
+            final long activePartition = timestampFloorMethod.floor(maxTimestamp);
+            long partitionTimestamp = activePartition;
+            while (partitionTimestamp > windowLo && partitionTimestamp > minTimestamp) {
+                partitionTimestamp = timestampFloorMethod.floor(partitionTimestamp - 1);
+            }
+
+            while (partitionTimestamp < activePartition) {
+                if (!removedPartitions.contains(partitionTimestamp)) {
+                    try {
+                        final Path partitionPath = partitionPath(partitionTimestamp);
+                        // detached partitions are neither in table root nor in cold storage
+                        if (ff.exists(partitionPath.$())) {
+                            loadDedupKeys(partitionPath.chopZ(), readPartitionSize(ff, partitionPath, tempMem8b), false, windowLo);
+                        }
+                    } finally {
+                        path.trimTo(rootLen);
+                        if (coldPath != null) {
+                            coldPath.trimTo(coldRootLen);
+                        }
+                    }
+                }
+                partitionTimestamp = timestampFloorMethod.floor(timestampAddMethod.calculate(partitionTimestamp, 1));
+            }
+        }
+
+        try {
+            setStateForTimestamp(maxTimestamp, false);
+            loadDedupKeys(path, transientRowCount, true, windowLo);
+        } finally {
+            path.trimTo(rootLen);
+        }
+    }
+
+    /**
+     * Adds keys of partition rows within dedup window to the key map.
+     *
+     * @param partitionPath path to partition directory, it is restored before method returns
+     * @param rowCount      number of rows in partition
+     * @param active        true for the active partition, which has column tops in memory
+     * @param windowLo      lowest timestamp of dedup window
+     */
+    private void loadDedupKeys(Path partitionPath, long rowCount, boolean active, long windowLo) {
+        final int plen = partitionPath.length();
+        final int timestampIndex = metadata.getTimestampIndex();
+        final int keyCount = dedupColumns.size();
+        final ObjList<ReadOnlyMemory> keyColumns = new ObjList<>(keyCount);
+        final LongList keyColumnTops = new LongList(keyCount);
+        final ReadOnlyMemory timestamps = new ReadOnlyMemory();
+        try {
+            final long timestampTop = getDedupColumnTop(partitionPath, timestampIndex, active, plen);
+            if (timestampTop >= rowCount) {
+                return;
+            }
+            timestamps.of(ff, dFile(partitionPath, metadata.getColumnName(timestampIndex)), ff.getPageSize(), (rowCount - timestampTop) * Long.BYTES);
+            partitionPath.trimTo(plen);
+            for (int i = 0; i < keyCount; i++) {
+                final int columnIndex = dedupColumns.getQuick(i);
+                final long top = getDedupColumnTop(partitionPath, columnIndex, active, plen);
+                final ReadOnlyMemory mem = new ReadOnlyMemory();
+                keyColumns.add(mem);
+                keyColumnTops.add(top);
+                if (top < rowCount) {
+                    mem.of(ff, dFile(partitionPath, metadata.getColumnName(columnIndex)), ff.getPageSize(), (rowCount - top) * Integer.BYTES);
+                    partitionPath.trimTo(plen);
+                }
+            }
+
+            // rows in partition are ordered by timestamp, find first one within the window
+            long lo = rowCount;
+            while (lo > timestampTop && timestamps.getLong((lo - 1 - timestampTop) * Long.BYTES) >= windowLo) {
+                lo--;
+            }
+
+            for (long r = lo; r < rowCount; r++) {
+                dedupSymbolKeys.clear();
+                for (int i = 0; i < keyCount; i++) {
+                    final long top = keyColumnTops.getQuick(i);
+                    dedupSymbolKeys.add(r < top ? SymbolTable.VALUE_IS_NULL : keyColumns.getQuick(i).getInt((r - top) * Integer.BYTES));
+                }
+                dedupKeyMap.put(timestamps.getLong((r - timestampTop) * Long.BYTES), dedupSymbolKeys, true);
+            }
+            LOG.info().$("loaded dedup keys [path=").$(partitionPath).$(", rows=").$(rowCount - lo).$(']').$();
+        } finally {
+            partitionPath.trimTo(plen);
+            Misc.free(timestamps);
+            Misc.freeObjList(keyColumns);
+        }
+    }
+
+    private long getDedupColumnTop(Path partitionPath, int columnIndex, boolean active, int plen) {
+        if (active) {
+            return columnTops.getQuick(columnIndex);
+        }
+        return readColumnTop(ff, partitionPath, metadata.getColumnName(columnIndex), plen, tempMem8b);
+    }
+
     private void loadRemovedPartitions() {
         int symbolWriterCount = denseSymbolMapWriters.size();
         int partitionTableSize = txMem.getInt(getPartitionTableSizeOffset(symbolWriterCount));
@@ -1801,6 +2375,7 @@ public class TableWriter implements Closeable {
         if (performRecovery) {
             performRecovery();
         }
+        catchUpIndexes();
         txPartitionCount = 1;
     }
 
@@ -1893,6 +2468,21 @@ public class TableWriter implements Closeable {
         }
     }
 
+    /**
+     * Points path at directory of partition for given timestamp. Partitions moved to
+     * cold storage by {@link ColdStorageJob} are not present under table root, in which
+     * case cold storage path is returned. Both paths must be trimmed to their respective
+     * roots by caller.
+     */
+    private Path partitionPath(long timestamp) {
+        setPartitionDir(path, rootLen, timestamp);
+        if (coldPath == null || ff.exists(path.$())) {
+            return path.chopZ();
+        }
+        path.trimTo(rootLen);
+        return setPartitionDir(coldPath, coldRootLen, timestamp);
+    }
+
     private void performRecovery() {
         rollbackIndexes();
         rollbackSymbolTables();
@@ -1997,23 +2587,15 @@ public class TableWriter implements Closeable {
 
     private void removeColumnFiles(CharSequence columnName, int columnType, RemoveFileLambda removeLambda) {
         try {
-            ff.iterateDir(path.$(), (file, type) -> {
-                nativeLPSZ.of(file);
-                if (type == Files.DT_DIR && IGNORED_FILES.excludes(nativeLPSZ)) {
-                    path.trimTo(rootLen);
-                    path.concat(nativeLPSZ);
-                    int plen = path.length();
-                    removeLambda.remove(ff, dFile(path, columnName));
-                    removeLambda.remove(ff, iFile(path.trimTo(plen), columnName));
-                    removeLambda.remove(ff, topFile(path.trimTo(plen), columnName));
-                    removeLambda.remove(ff, BitmapIndexUtils.keyFileName(path.trimTo(plen), columnName));
-                    removeLambda.remove(ff, BitmapIndexUtils.valueFileName(path.trimTo(plen), columnName));
-                }
-            });
+            removePartitionColumnFiles(path, rootLen, columnName, removeLambda);
+            if (coldPath != null) {
+                removePartitionColumnFiles(coldPath, coldRootLen, columnName, removeLambda);
+            }
 
             if (columnType == ColumnType.SYMBOL) {
                 removeLambda.remove(ff, SymbolMapWriter.offsetFileName(path.trimTo(rootLen), columnName));
                 removeLambda.remove(ff, SymbolMapWriter.charFileName(path.trimTo(rootLen), columnName));
+                removeLambda.remove(ff, SymbolMapWriter.rankFileName(path.trimTo(rootLen), columnName));
                 removeLambda.remove(ff, BitmapIndexUtils.keyFileName(path.trimTo(rootLen), columnName));
                 removeLambda.remove(ff, BitmapIndexUtils.valueFileName(path.trimTo(rootLen), columnName));
             }
@@ -2022,6 +2604,23 @@ public class TableWriter implements Closeable {
         }
     }
 
+    private void removePartitionColumnFiles(Path path, int rootLen, CharSequence columnName, RemoveFileLambda removeLambda) {
+        ff.iterateDir(path.trimTo(rootLen).$(), (file, type) -> {
+            nativeLPSZ.of(file);
+            if (type == Files.DT_DIR && IGNORED_FILES.excludes(nativeLPSZ)) {
+                path.trimTo(rootLen);
+                path.concat(nativeLPSZ);
+                int plen = path.length();
+                removeLambda.remove(ff, dFile(path, columnName));
+                removeLambda.remove(ff, iFile(path.trimTo(plen), columnName));
+                removeLambda.remove(ff, topFile(path.trimTo(plen), columnName));
+                removeLambda.remove(ff, BitmapIndexUtils.keyFileName(path.trimTo(plen), columnName));
+                removeLambda.remove(ff, BitmapIndexUtils.valueFileName(path.trimTo(plen), columnName));
+            }
+        });
+        path.trimTo(rootLen);
+    }
+
     private int removeColumnFromMeta(int index) {
         try {
             int metaSwapIndex = openMetaSwapFile(ff, ddlMem, path, rootLen, fileOperationRetryCount);
@@ -2037,6 +2636,7 @@ public class TableWriter implements Closeable {
                 ddlMem.putInt(timestampIndex);
             }
             ddlMem.putInt(ColumnType.VERSION);
+            ddlMem.putInt(metaMem.getInt(META_OFFSET_TTL_HOURS));
             ddlMem.jumpTo(META_OFFSET_COLUMN_TYPES);
 
             for (int i = 0; i < columnCount; i++) {
@@ -2068,6 +2668,7 @@ public class TableWriter implements Closeable {
             ddlMem.putInt(partitionBy);
             ddlMem.putInt(timestampIndex);
             ddlMem.putInt(ColumnType.VERSION);
+            ddlMem.putInt(metaMem.getInt(META_OFFSET_TTL_HOURS));
             ddlMem.jumpTo(META_OFFSET_COLUMN_TYPES);
 
             for (int i = 0; i < columnCount; i++) {
@@ -2152,7 +2753,7 @@ public class TableWriter implements Closeable {
                 path.trimTo(rootLen);
                 path.concat(pName).$();
                 nativeLPSZ.of(pName);
-                if (IGNORED_FILES.excludes(nativeLPSZ) && type == Files.DT_DIR) {
+                if (IGNORED_FILES.excludes(nativeLPSZ) && type == Files.DT_DIR && !Chars.endsWith(nativeLPSZ, DETACHED_DIR_SUFFIX)) {
                     try {
                         long dirTimestamp = partitionDirFmt.parse(nativeLPSZ, null);
                         if (dirTimestamp <= timestamp) {
@@ -2178,6 +2779,7 @@ public class TableWriter implements Closeable {
         try {
             removeFileAndOrLog(ff, SymbolMapWriter.offsetFileName(path.trimTo(rootLen), name));
             removeFileAndOrLog(ff, SymbolMapWriter.charFileName(path.trimTo(rootLen), name));
+            removeFileAndOrLog(ff, SymbolMapWriter.rankFileName(path.trimTo(rootLen), name));
             removeFileAndOrLog(ff, BitmapIndexUtils.keyFileName(path.trimTo(rootLen), name));
             removeFileAndOrLog(ff, BitmapIndexUtils.valueFileName(path.trimTo(rootLen), name));
         } finally {
@@ -2267,15 +2869,14 @@ public class TableWriter implements Closeable {
             try {
                 final long tsLimit = timestampFloorMethod.floor(this.maxTimestamp);
                 for (long ts = minTimestamp; ts < tsLimit; ts = timestampAddMethod.calculate(ts, 1)) {
-                    path.trimTo(rootLen);
-                    setStateForTimestamp(ts, false);
-                    int p = path.length();
-                    if (ff.exists(path.concat(ARCHIVE_FILE_NAME).$())) {
-                        actualSize += TableUtils.readLongAtOffset(ff, path, tempMem8b, 0);
+                    final Path partitionPath = partitionPath(ts);
+                    int p = partitionPath.length();
+                    if (ff.exists(partitionPath.concat(ARCHIVE_FILE_NAME).$())) {
+                        actualSize += TableUtils.readLongAtOffset(ff, partitionPath, tempMem8b, 0);
                         lastTimestamp = ts;
                     } else {
                         if (removedPartitions.excludes(ts)) {
-                            LOG.info().$("missing partition [name=").$(path.trimTo(p).$()).$(']').$();
+                            LOG.info().$("missing partition [name=").$(partitionPath.trimTo(p).$()).$(']').$();
                         }
                     }
                 }
@@ -2431,6 +3032,11 @@ public class TableWriter implements Closeable {
         }
     }
 
+    private Path setPartitionDir(Path path, int rootLen, long timestamp) {
+        partitionDirFmt.format(timestamp, null, null, path.trimTo(rootLen).put(Files.SEPARATOR));
+        return path;
+    }
+
     /**
      * Sets path member variable to partition directory for the given timestamp and
      * partitionLo and partitionHi to partition interval in millis. These values are
@@ -2502,6 +3108,8 @@ public class TableWriter implements Closeable {
         // Before partition can be switched we need to index records
         // added so far. Index writers will start point to different
         // files after switch.
+        awaitDeferredIndexes();
+        checkIndexersDistressed();
         updateIndexes();
 
         // We need to store reference on partition so that archive
@@ -2529,6 +3137,27 @@ public class TableWriter implements Closeable {
         }
     }
 
+    private void syncColumnsInGroup() {
+        groupCommitRegions.clear();
+        for (int i = 0; i < columnCount; i++) {
+            columns.getQuick(i * 2).addSyncRegion(groupCommitRegions);
+            final AppendMemory m2 = columns.getQuick(i * 2 + 1);
+            if (m2 != null) {
+                m2.addSyncRegion(groupCommitRegions);
+            }
+        }
+        syncGroup();
+    }
+
+    private void syncGroup() {
+        try {
+            groupCommitJob.sync(groupCommitRegions, groupCommitLatch);
+        } catch (CairoException e) {
+            // writer cannot tell which of its pages made it to disk
+            throwDistressException(e);
+        }
+    }
+
     private void throwDistressException(Throwable cause) {
         this.distressed = true;
         throw new CairoError(cause);
@@ -2541,6 +3170,53 @@ public class TableWriter implements Closeable {
         updateIndexesSlow();
     }
 
+    /**
+     * Hands rows of this commit over to {@link ColumnIndexerJob} without waiting for them to be
+     * indexed. Index high-water mark tells readers which rows they have to find by scanning column.
+     * Indexers are not published to queue when there is no message bus or queue is full, they are
+     * then run by writer on next commit or whichever operation needs indexers first.
+     */
+    private void updateIndexesDeferred() {
+        awaitDeferredIndexes();
+        checkIndexersDistressed();
+
+        final long lo = txPartitionCount == 1 ? txPrevTransientRowCount : 0;
+        final long hi = transientRowCount;
+        if (indexCount == 0 || lo >= hi) {
+            return;
+        }
+
+        indexSequences.clear();
+        indexLatch.setCount(indexCount);
+        for (int i = 0; i < indexCount; i++) {
+            final ColumnIndexer indexer = denseIndexers.getQuick(i);
+            final long sequence = indexer.getSequence();
+            indexer.refreshSource();
+            indexSequences.add(sequence);
+
+            if (messageBus != null) {
+                final Sequence indexPubSequence = messageBus.getIndexerPubSequence();
+                long cursor;
+                do {
+                    cursor = indexPubSequence.next();
+                } while (cursor == -2);
+
+                if (cursor > -1) {
+                    final ColumnIndexerTask queueItem = messageBus.getIndexerQueue().get(cursor);
+                    queueItem.indexer = indexer;
+                    queueItem.lo = lo;
+                    queueItem.hi = hi;
+                    queueItem.countDownLatch = indexLatch;
+                    queueItem.sequence = sequence;
+                    indexPubSequence.done(cursor);
+                }
+            }
+        }
+        deferredIndexLo = lo;
+        deferredIndexHi = hi;
+        deferredIndexPending = true;
+    }
+
     private void updateIndexesParallel(long lo, long hi) {
         indexSequences.clear();
         indexLatch.setCount(indexCount);
@@ -2551,6 +3227,10 @@ public class TableWriter implements Closeable {
         LOG.info().$("parallel indexing [indexCount=").$(indexCount).$(']').$();
         int serialIndexCount = 0;
 
+        for (int i = 0; i < indexCount; i++) {
+            denseIndexers.getQuick(i).refreshSource();
+        }
+
         // we are going to index last column in this thread while other columns are on the queue
         OUT:
         for (int i = 0; i < nParallelIndexes; i++) {
@@ -2608,16 +3288,7 @@ public class TableWriter implements Closeable {
             indexLatch.await();
         }
 
-        // reset lock on completed indexers
-        boolean distressed = false;
-        for (int i = 0; i < indexCount; i++) {
-            ColumnIndexer indexer = denseIndexers.getQuick(i);
-            distressed = distressed | indexer.isDistressed();
-        }
-
-        if (distressed) {
-            throwDistressException(null);
-        }
+        checkIndexersDistressed();
 
         LOG.info().$("parallel indexing done [serialCount=").$(serialIndexCount).$(']').$();
     }
@@ -2646,6 +3317,17 @@ public class TableWriter implements Closeable {
         }
     }
 
+    private Row newLateRow(long timestamp) {
+        if (dedupKeyMap != null && transientRowCount > 0 && timestamp >= dedupKeyMap.getWindowLo(maxTimestamp)) {
+            // late row is only ever checked for being a duplicate, it is cancelled either way
+            prevMaxTimestamp = maxTimestamp;
+            timestampSetter.accept(timestamp);
+            lateRowTimestamp = timestamp;
+            return row;
+        }
+        throw CairoException.instance(ff.errno()).put("Cannot insert rows out of order. Table=").put(path);
+    }
+
     private void updateMaxTimestamp(long timestamp) {
         this.prevMaxTimestamp = maxTimestamp;
         this.maxTimestamp = timestamp;
@@ -2681,6 +3363,10 @@ public class TableWriter implements Closeable {
         if (isSequential(metaMem, i)) {
             flags |= META_FLAG_BIT_SEQUENTIAL;
         }
+
+        if (isDedupKey(metaMem, i)) {
+            flags |= META_FLAG_BIT_DEDUP_KEY;
+        }
         ddlMem.putLong(flags);
         ddlMem.putInt(getIndexBlockCapacity(metaMem, i));
         ddlMem.skip(META_COLUMN_DATA_RESERVED);
@@ -2698,6 +3384,69 @@ public class TableWriter implements Closeable {
         }
     }
 
+    private void writePartitionTable(long partitionMinTimestamp, long partitionSize) {
+        final int symbolWriterCount = denseSymbolMapWriters.size();
+        final int partitionTableSize = removedPartitions.size();
+
+        long txn = txMem.getLong(TX_OFFSET_TXN) + 1;
+        txMem.putLong(TX_OFFSET_TXN, txn);
+        Unsafe.getUnsafe().storeFence();
+
+        final long partitionVersion = txMem.getLong(TX_OFFSET_PARTITION_TABLE_VERSION) + 1;
+        for (int i = 0; i < partitionTableSize; i++) {
+            txMem.putLong(getPartitionTableIndexOffset(symbolWriterCount, i), removedPartitions.get(i));
+        }
+        txMem.putLong(TX_OFFSET_PARTITION_TABLE_VERSION, partitionVersion);
+        txMem.putInt(getPartitionTableSizeOffset(symbolWriterCount), partitionTableSize);
+
+        if (partitionMinTimestamp < minTimestamp) {
+            txMem.putLong(TX_OFFSET_MIN_TIMESTAMP, partitionMinTimestamp);
+            minTimestamp = partitionMinTimestamp;
+        }
+
+        // increment row count
+        txMem.putLong(TX_OFFSET_FIXED_ROW_COUNT, txMem.getLong(TX_OFFSET_FIXED_ROW_COUNT) + partitionSize);
+
+        Unsafe.getUnsafe().storeFence();
+        // txn check
+        txMem.putLong(TX_OFFSET_TXN_CHECK, txn);
+
+        fixedRowCount += partitionSize;
+        this.txn = txn;
+    }
+
+    private void writeRemovedPartition(long timestamp, long nextMinTimestamp, long partitionSize) {
+        int symbolWriterCount = denseSymbolMapWriters.size();
+        int partitionTableSize = txMem.getInt(getPartitionTableSizeOffset(symbolWriterCount));
+
+        long txn = txMem.getLong(TX_OFFSET_TXN) + 1;
+        txMem.putLong(TX_OFFSET_TXN, txn);
+        Unsafe.getUnsafe().storeFence();
+
+        final long partitionVersion = txMem.getLong(TX_OFFSET_PARTITION_TABLE_VERSION) + 1;
+        txMem.jumpTo(getPartitionTableIndexOffset(symbolWriterCount, partitionTableSize));
+        txMem.putLong(timestamp);
+
+        txMem.putLong(TX_OFFSET_PARTITION_TABLE_VERSION, partitionVersion);
+        txMem.putInt(getPartitionTableSizeOffset(symbolWriterCount), partitionTableSize + 1);
+
+        if (nextMinTimestamp != minTimestamp) {
+            txMem.putLong(TX_OFFSET_MIN_TIMESTAMP, nextMinTimestamp);
+            minTimestamp = nextMinTimestamp;
+        }
+
+        // decrement row count
+        txMem.putLong(TX_OFFSET_FIXED_ROW_COUNT, txMem.getLong(TX_OFFSET_FIXED_ROW_COUNT) - partitionSize);
+
+        Unsafe.getUnsafe().storeFence();
+        // txn check
+        txMem.putLong(TX_OFFSET_TXN_CHECK, txn);
+
+        removedPartitions.add(timestamp);
+        fixedRowCount -= partitionSize;
+        this.txn = txn;
+    }
+
     private void writeRestoreMetaTodo(CharSequence columnName) {
         try {
             writeTodo(((long) metaPrevIndex << 8) | TODO_RESTORE_META);
@@ -2756,7 +3505,7 @@ public class TableWriter implements Closeable {
                 updateMaxTimestamp(timestamp);
                 return row;
             }
-            throw CairoException.instance(ff.errno()).put("Cannot insert rows out of order. Table=").put(path);
+            return newLateRow(timestamp);
         }
     }
 
@@ -2774,7 +3523,7 @@ public class TableWriter implements Closeable {
         @NotNull
         private Row newRow0(long timestamp) {
             if (timestamp < maxTimestamp) {
-                throw CairoException.instance(ff.errno()).put("Cannot insert rows out of order. Table=").put(path);
+                return newLateRow(timestamp);
             }
 
             if (timestamp > partitionHi && partitionBy != PartitionBy.NONE) {
@@ -2789,6 +3538,10 @@ public class TableWriter implements Closeable {
     public class Row {
         public void append() {
             if ((masterRef & 1) != 0) {
+                if (dedupKeyMap != null && isDuplicateRow()) {
+                    return;
+                }
+
                 for (int i = 0; i < columnCount; i++) {
                     if (refs.getQuick(i) < masterRef) {
                         nullers.getQuick(i).run();
@@ -2891,13 +3644,11 @@ public class TableWriter implements Closeable {
         }
 
         public void putSym(int index, CharSequence value) {
-            getPrimaryColumn(index).putInt(symbolMapWriters.getQuick(index).put(value));
-            notNull(index);
+            putSymKey(index, symbolMapWriters.getQuick(index).put(value));
         }
 
         public void putSym(int index, char value) {
-            getPrimaryColumn(index).putInt(symbolMapWriters.getQuick(index).put(value));
-            notNull(index);
+            putSymKey(index, symbolMapWriters.getQuick(index).put(value));
         }
 
         public void putTimestamp(int index, long value) {
@@ -2907,6 +3658,14 @@ public class TableWriter implements Closeable {
         private void notNull(int index) {
             refs.setQuick(index, masterRef);
         }
+
+        private void putSymKey(int index, int key) {
+            getPrimaryColumn(index).putInt(key);
+            if (dedupKeyMap != null) {
+                rowSymbolKeys.extendAndSet(index, key);
+            }
+            notNull(index);
+        }
     }
 
     static {
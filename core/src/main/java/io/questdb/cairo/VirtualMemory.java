@@ -34,6 +34,8 @@ import io.questdb.std.Long256;
 import io.questdb.std.Long256Impl;
 import io.questdb.std.Long256Sink;
 import io.questdb.std.LongList;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.MemoryTracker;
 import io.questdb.std.Numbers;
 import io.questdb.std.Unsafe;
 import io.questdb.std.str.AbstractCharSequence;
@@ -50,6 +52,8 @@ public class VirtualMemory implements Closeable {
     private final Long256Impl long256B = new Long256Impl();
     private long pageSize;
     private final int maxPages;
+    private final int memoryTag;
+    private MemoryTracker memoryTracker;
     private int bits;
     private long mod;
     private long appendPointer = -1;
@@ -61,12 +65,18 @@ public class VirtualMemory implements Closeable {
     private long absolutePointer;
 
     public VirtualMemory(long pageSize, int maxPages) {
+        this(pageSize, maxPages, MemoryTag.NATIVE_DEFAULT);
+    }
+
+    public VirtualMemory(long pageSize, int maxPages, int memoryTag) {
         setPageSize(pageSize);
         this.maxPages = maxPages;
+        this.memoryTag = memoryTag;
     }
 
     protected VirtualMemory() {
         maxPages = Integer.MAX_VALUE;
+        memoryTag = MemoryTag.NATIVE_DEFAULT;
     }
 
     public static int getStorageLength(CharSequence s) {
@@ -297,6 +307,21 @@ public class VirtualMemory implements Closeable {
         return offset;
     }
 
+    /**
+     * Appends block of native memory as is, page boundaries are taken care of.
+     *
+     * @param from address of memory block
+     * @param len  length of memory block in bytes
+     */
+    public final void putBlockOfBytes(long from, long len) {
+        if (len < pageHi - appendPointer) {
+            Unsafe.getUnsafe().copyMemory(from, appendPointer, len);
+            appendPointer += len;
+        } else {
+            putBinSlit(from, len);
+        }
+    }
+
     public final long putBin(long from, long len) {
         final long offset = getAppendOffset();
         putLong(len > 0 ? len : TableUtils.NULL_LEN);
@@ -586,6 +611,16 @@ public class VirtualMemory implements Closeable {
      *
      * @param bytes number of bytes to skip
      */
+    /**
+     * Sets budget of the query that owns this memory. Pages allocated and released afterwards
+     * are charged to the budget when memory is tagged as query memory.
+     *
+     * @param memoryTracker query budget, null to stop charging
+     */
+    public void setMemoryTracker(MemoryTracker memoryTracker) {
+        this.memoryTracker = memoryTracker;
+    }
+
     public void skip(long bytes) {
         assert bytes >= 0;
         if (pageHi - appendPointer > bytes) {
@@ -615,7 +650,7 @@ public class VirtualMemory implements Closeable {
         if (page > maxPages) {
             throw LimitOverflowException.instance().put("Maximum number of pages (").put(maxPages).put(") breached in VirtualMemory");
         }
-        return Unsafe.malloc(getMapPageSize());
+        return Unsafe.malloc(getMapPageSize(), memoryTag, memoryTracker);
     }
 
     protected long cachePageAddress(int index, long address) {
@@ -1082,7 +1117,7 @@ public class VirtualMemory implements Closeable {
 
     protected void release(int page, long address) {
         if (address != 0) {
-            Unsafe.free(address, getPageSize(page));
+            Unsafe.free(address, getPageSize(page), memoryTag, memoryTracker);
         }
     }
 
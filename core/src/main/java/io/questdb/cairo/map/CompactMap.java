@@ -30,6 +30,8 @@ import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.griffin.engine.LimitOverflowException;
 import io.questdb.std.BinarySequence;
 import io.questdb.std.Long256;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.MemoryTracker;
 import io.questdb.std.Misc;
 import io.questdb.std.Numbers;
 
@@ -142,8 +144,8 @@ public class CompactMap implements Map {
     }
 
     CompactMap(int pageSize, ColumnTypes keyTypes, ColumnTypes valueTypes, long keyCapacity, double loadFactor, HashFunction hashFunction, int maxResizes, int maxPages) {
-        this.entries = new VirtualMemory(pageSize, maxPages);
-        this.entrySlots = new VirtualMemory(pageSize, maxPages);
+        this.entries = new VirtualMemory(pageSize, maxPages, MemoryTag.NATIVE_MAP);
+        this.entrySlots = new VirtualMemory(pageSize, maxPages, MemoryTag.NATIVE_MAP);
         try {
             this.loadFactor = loadFactor;
             this.columnOffsets = new long[keyTypes.getColumnCount() + valueTypes.getColumnCount()];
@@ -186,6 +188,12 @@ public class CompactMap implements Map {
         return cursor;
     }
 
+    @Override
+    public void setMemoryTracker(MemoryTracker memoryTracker) {
+        entries.setMemoryTracker(memoryTracker);
+        entrySlots.setMemoryTracker(memoryTracker);
+    }
+
     @Override
     public MapRecord getRecord() {
         return record;
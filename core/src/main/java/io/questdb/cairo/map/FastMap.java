@@ -39,6 +39,8 @@ import io.questdb.std.BinarySequence;
 import io.questdb.std.DirectLongList;
 import io.questdb.std.Hash;
 import io.questdb.std.Long256;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.MemoryTracker;
 import io.questdb.std.Misc;
 import io.questdb.std.Numbers;
 import io.questdb.std.Transient;
@@ -68,6 +70,7 @@ public class FastMap implements Map {
     private int mask;
     private int nResizes;
     private final int maxResizes;
+    private MemoryTracker memoryTracker;
 
     public FastMap(int pageSize,
                    @Transient @NotNull ColumnTypes keyTypes,
@@ -101,14 +104,14 @@ public class FastMap implements Map {
         assert loadFactor > 0 && loadFactor < 1d;
 
         this.loadFactor = loadFactor;
-        this.kStart = kPos = Unsafe.malloc(this.capacity = pageSize);
+        this.kStart = kPos = Unsafe.malloc(this.capacity = pageSize, MemoryTag.NATIVE_MAP);
         this.kLimit = kStart + pageSize;
 
         this.keyCapacity = (int) (keyCapacity / loadFactor);
         this.keyCapacity = this.keyCapacity < MIN_INITIAL_CAPACITY ? MIN_INITIAL_CAPACITY : Numbers.ceilPow2(this.keyCapacity);
         this.mask = this.keyCapacity - 1;
         this.free = (int) (this.keyCapacity * loadFactor);
-        this.offsets = new DirectLongList(this.keyCapacity);
+        this.offsets = new DirectLongList(this.keyCapacity, MemoryTag.NATIVE_MAP);
         this.offsets.setPos(this.keyCapacity);
         this.offsets.zero(-1);
         this.hashFunction = hashFunction;
@@ -218,7 +221,7 @@ public class FastMap implements Map {
     public final void close() {
         offsets = Misc.free(offsets);
         if (kStart != 0) {
-            Unsafe.free(kStart, capacity);
+            Unsafe.free(kStart, capacity, MemoryTag.NATIVE_MAP, memoryTracker);
             kStart = 0;
         }
     }
@@ -228,6 +231,12 @@ public class FastMap implements Map {
         return cursor.init(kStart, size);
     }
 
+    @Override
+    public void setMemoryTracker(MemoryTracker memoryTracker) {
+        this.memoryTracker = memoryTracker;
+        offsets.setMemoryTracker(memoryTracker);
+    }
+
     @Override
     public MapRecord getRecord() {
         return record;
@@ -320,8 +329,9 @@ public class FastMap implements Map {
 
     private void rehash() {
         int capacity = keyCapacity << 1;
+        // allocate first, query memory limit may reject new list
+        DirectLongList pointers = new DirectLongList(capacity, MemoryTag.NATIVE_MAP, memoryTracker);
         mask = capacity - 1;
-        DirectLongList pointers = new DirectLongList(capacity);
         pointers.setPos(capacity);
         pointers.zero(-1);
 
@@ -350,7 +360,7 @@ public class FastMap implements Map {
             if (kCapacity < target) {
                 kCapacity = Numbers.ceilPow2(target);
             }
-            long kAddress = Unsafe.realloc(this.kStart, this.capacity, kCapacity);
+            long kAddress = Unsafe.realloc(this.kStart, this.capacity, kCapacity, MemoryTag.NATIVE_MAP, memoryTracker);
     
             this.capacity = kCapacity;
             long d = kAddress - this.kStart;
@@ -27,6 +27,7 @@ package io.questdb.cairo.map;
 import java.io.Closeable;
 
 import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.std.MemoryTracker;
 import io.questdb.std.Mutable;
 
 public interface Map extends Mutable, Closeable {
@@ -39,6 +40,13 @@ public interface Map extends Mutable, Closeable {
 
     long size();
 
+    /**
+     * Sets budget of the query that fills the map, map growth is charged to the budget.
+     *
+     * @param memoryTracker query budget, null to stop charging
+     */
+    void setMemoryTracker(MemoryTracker memoryTracker);
+
     MapValue valueAt(long address);
 
     MapKey withKey();
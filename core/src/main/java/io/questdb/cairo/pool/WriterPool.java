@@ -72,6 +72,7 @@ public class WriterPool extends AbstractPool implements ResourcePool<TableWriter
     private final CharSequence root;
     @Nullable
     private final MessageBus messageBus;
+    private final GroupCommitJob groupCommitJob;
 
     /**
      * Pool constructor. WriterPool root directory is passed via configuration.
@@ -80,9 +81,21 @@ public class WriterPool extends AbstractPool implements ResourcePool<TableWriter
      * @param messageBus    message bus instance to allow index tasks to be communicated to available threads.
      */
     public WriterPool(CairoConfiguration configuration, @Nullable MessageBus messageBus) {
+        this(configuration, messageBus, null);
+    }
+
+    /**
+     * Pool constructor. WriterPool root directory is passed via configuration.
+     *
+     * @param configuration  configuration parameters.
+     * @param messageBus     message bus instance to allow index tasks to be communicated to available threads.
+     * @param groupCommitJob job writers of this pool group their durable commits with, null to disable group commit.
+     */
+    public WriterPool(CairoConfiguration configuration, @Nullable MessageBus messageBus, @Nullable GroupCommitJob groupCommitJob) {
         super(configuration, configuration.getInactiveWriterTTL());
         this.configuration = configuration;
         this.messageBus = messageBus;
+        this.groupCommitJob = groupCommitJob;
         this.clock = configuration.getMicrosecondClock();
         this.root = configuration.getRoot();
         notifyListener(Thread.currentThread().getId(), null, PoolListener.EV_POOL_OPEN);
@@ -368,7 +381,7 @@ public class WriterPool extends AbstractPool implements ResourcePool<TableWriter
         try {
             checkClosed();
             LOG.info().$("open [table=`").utf8(name).$("`, thread=").$(thread).$(']').$();
-            e.writer = new TableWriter(configuration, name, messageBus, true, e, root);
+            e.writer = new TableWriter(configuration, name, messageBus, true, e, root, groupCommitJob);
             return logAndReturn(e, PoolListener.EV_CREATE);
         } catch (CairoException ex) {
             LOG.error().$("could not open [table=`").utf8(name).$("`, thread=").$(e.owner).$(']').$();
@@ -26,6 +26,7 @@ package io.questdb.cairo.sql;
 
 import io.questdb.cairo.TableReader;
 import io.questdb.std.ObjList;
+import org.jetbrains.annotations.Nullable;
 
 public interface RowCursorFactory {
     static void prepareCursor(ObjList<RowCursorFactory> factories, TableReader tableReader) {
@@ -40,4 +41,16 @@ public interface RowCursorFactory {
     }
 
     boolean isEntity();
+
+    /**
+     * Creates factory of the same rows that rejects them with another filter. New filter
+     * must include the current one, which is then owned by the new factory.
+     *
+     * @param filter replacement of the filter this factory applies to rows
+     * @return null when this factory does not filter rows
+     */
+    @Nullable
+    default RowCursorFactory withFilter(Function filter) {
+        return null;
+    }
 }
@@ -30,4 +30,17 @@ public interface StaticSymbolTable extends SymbolTable {
     int keyOf(CharSequence value);
 
     boolean containsNullValue();
+
+    /**
+     * Number of symbol values that are less than the given value, or less than or equal to it
+     * when inclusive. Symbol rank can be compared to this bound instead of comparing strings.
+     * This method is available when {@link #hasRanks()} is true.
+     *
+     * @param value     not null value to compare symbol values to
+     * @param inclusive true to count values equal to the given one
+     * @return rank bound
+     */
+    default int rankBound(CharSequence value, boolean inclusive) {
+        throw new UnsupportedOperationException();
+    }
 }
@@ -31,4 +31,22 @@ public interface SymbolTable {
     int VALUE_IS_NULL = Numbers.INT_NaN;
 
     CharSequence valueOf(int key);
+
+    /**
+     * @return true when {@link #rankOf(int)} can be used to order symbol keys
+     */
+    default boolean hasRanks() {
+        return false;
+    }
+
+    /**
+     * Position of symbol value in sorted dictionary. Ranks compare the same way as
+     * symbol values do, null value ranks ahead of all other values.
+     *
+     * @param key symbol key
+     * @return rank of symbol value, -1 for null
+     */
+    default int rankOf(int key) {
+        throw new UnsupportedOperationException();
+    }
 }
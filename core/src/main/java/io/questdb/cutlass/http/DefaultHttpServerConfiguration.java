@@ -101,6 +101,31 @@ class DefaultHttpServerConfiguration implements HttpServerConfiguration {
         public long getMaxQueryResponseRowLimit() {
             return Long.MAX_VALUE;
         }
+
+        @Override
+        public int getHeavyQueryConcurrency() {
+            return 0;
+        }
+
+        @Override
+        public long getHeavyQueryRowThreshold() {
+            return 100_000_000;
+        }
+
+        @Override
+        public int getHeavyQueryQueueCapacity() {
+            return 64;
+        }
+
+        @Override
+        public long getHeavyQueryQueueTimeout() {
+            return 60_000;
+        }
+
+        @Override
+        public long getHeavyQueryTimeout() {
+            return 0;
+        }
     };
 
     public DefaultHttpServerConfiguration() {
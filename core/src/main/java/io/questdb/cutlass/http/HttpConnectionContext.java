@@ -26,6 +26,7 @@ package io.questdb.cutlass.http;
 
 import io.questdb.cairo.CairoSecurityContext;
 import io.questdb.cairo.security.CairoSecurityContextImpl;
+import io.questdb.cutlass.http.processors.JsonQueryProcessorConfiguration;
 import io.questdb.griffin.HttpSqlExecutionInterruptor;
 import io.questdb.griffin.SqlExecutionInterruptor;
 import io.questdb.log.Log;
@@ -67,15 +68,24 @@ public class HttpConnectionContext implements IOContext, Locality, Mutable {
         this.multipartContentHeaderParser = new HttpHeaderParser(configuration.getMultipartHeaderBufferSize(), csPool);
         this.multipartContentParser = new HttpMultipartContentParser(multipartContentHeaderParser);
         this.recvBufferSize = configuration.getRecvBufferSize();
-        this.recvBuffer = Unsafe.malloc(recvBufferSize);
-        this.sendBuffer = Unsafe.malloc(configuration.getSendBufferSize());
+        this.recvBuffer = Unsafe.malloc(recvBufferSize, MemoryTag.NATIVE_NETWORK);
+        this.sendBuffer = Unsafe.malloc(configuration.getSendBufferSize(), MemoryTag.NATIVE_NETWORK);
         this.responseSink = new HttpResponseSink(configuration);
         this.multipartIdleSpinCount = configuration.getMultipartIdleSpinCount();
         this.dumpNetworkTraffic = configuration.getDumpNetworkTraffic();
         this.allowDeflateBeforeSend = configuration.allowDeflateBeforeSend();
         cairoSecurityContext = new CairoSecurityContextImpl(!configuration.readOnlySecurityContext());
-        execInterruptor = configuration.isInterruptOnClosedConnection()
-                ? new HttpSqlExecutionInterruptor(this.nf, configuration.getInterruptorNIterationsPerCheck(), configuration.getInterruptorBufferSize())
+        // interruptor is needed to check connection or to enforce heavy query deadline
+        final JsonQueryProcessorConfiguration jsonQueryConfiguration = configuration.getJsonQueryProcessorConfiguration();
+        final boolean heavyQueryDeadline = jsonQueryConfiguration.getHeavyQueryConcurrency() > 0 && jsonQueryConfiguration.getHeavyQueryTimeout() > 0;
+        execInterruptor = configuration.isInterruptOnClosedConnection() || heavyQueryDeadline
+                ? new HttpSqlExecutionInterruptor(
+                this.nf,
+                configuration.getClock(),
+                configuration.getInterruptorNIterationsPerCheck(),
+                configuration.getInterruptorBufferSize(),
+                configuration.isInterruptOnClosedConnection()
+        )
                 : null;
     }
 
@@ -90,6 +100,9 @@ public class HttpConnectionContext implements IOContext, Locality, Mutable {
         this.csPool.clear();
         this.localValueMap.clear();
         this.responseSink.clear();
+        if (null != execInterruptor) {
+            execInterruptor.setDeadline(Long.MAX_VALUE);
+        }
     }
 
     @Override
@@ -104,8 +117,8 @@ public class HttpConnectionContext implements IOContext, Locality, Mutable {
         responseSink.close();
         headerParser.close();
         localValueMap.close();
-        Unsafe.free(recvBuffer, recvBufferSize);
-        Unsafe.free(sendBuffer, configuration.getSendBufferSize());
+        Unsafe.free(recvBuffer, recvBufferSize, MemoryTag.NATIVE_NETWORK);
+        Unsafe.free(sendBuffer, configuration.getSendBufferSize(), MemoryTag.NATIVE_NETWORK);
         LOG.debug().$("closed").$();
     }
 
@@ -364,6 +377,12 @@ public class HttpConnectionContext implements IOContext, Locality, Mutable {
             } catch (ServerDisconnectException e) {
                 LOG.info().$("kicked out [fd=").$(fd).$(']').$();
                 dispatcher.disconnect(this);
+            } catch (QueryPausedException e) {
+                LOG.debug().$("query paused [fd=").$(fd).$(']').$();
+                // processor re-dispatches paused request, it must not see request
+                // before resume processor is assigned
+                resumeProcessor = processor;
+                processor.parkRequest(this);
             } catch (PeerIsSlowToReadException e) {
                 LOG.debug().$("peer is slow reader [two]").$();
                 // it is important to assign resume processor before we fire
@@ -384,6 +403,9 @@ public class HttpConnectionContext implements IOContext, Locality, Mutable {
             responseSink.resumeSend();
             resumeProcessor.resumeSend(this);
             resumeProcessor = null;
+        } catch (QueryPausedException ignore) {
+            LOG.debug().$("query paused [fd=").$(fd).$(']').$();
+            resumeProcessor.parkRequest(this);
         } catch (PeerIsSlowToReadException ignore) {
             resumeProcessor.parkRequest(this);
             LOG.debug().$("peer is slow reader").$();
@@ -411,4 +433,24 @@ public class HttpConnectionContext implements IOContext, Locality, Mutable {
     public SqlExecutionInterruptor getSqlExecutionInterruptor() {
         return execInterruptor;
     }
+
+    /**
+     * Re-dispatches request that was paused with {@link QueryPausedException}. Request processor
+     * is resumed the same way as after slow peer becomes writable. Can be called from any thread.
+     */
+    public void resumeRequest() {
+        dispatcher.registerChannel(this, IOOperation.WRITE);
+    }
+
+    /**
+     * Interrupts query executed on behalf of the current request when wall clock passes the
+     * deadline. Has no effect when heavy queries are not timed out.
+     *
+     * @param deadline epoch milliseconds
+     */
+    public void setQueryDeadline(long deadline) {
+        if (null != execInterruptor) {
+            execInterruptor.setDeadline(deadline);
+        }
+    }
 }
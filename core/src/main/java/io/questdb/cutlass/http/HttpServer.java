@@ -30,7 +30,9 @@ import io.questdb.cairo.CairoEngine;
 import io.questdb.cairo.ColumnIndexerJob;
 import io.questdb.cutlass.http.processors.*;
 import io.questdb.griffin.FunctionFactoryCache;
+import io.questdb.griffin.QueryWarmUpJob;
 import io.questdb.griffin.engine.groupby.vect.GroupByNotKeyedJob;
+import io.questdb.griffin.engine.join.HashJoinJob;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.mp.EagerThreadSetup;
@@ -148,6 +150,12 @@ public class HttpServer implements Closeable {
     ) {
         final HttpServer s = new HttpServer(configuration, workerPool, localPool);
         QueryCache.configure(configuration);
+        // admission control is shared by all workers of both /exec and /exp
+        final WorkloadManager workloadManager = WorkloadManager.newInstance(configuration.getJsonQueryProcessorConfiguration());
+        if (workloadManager != null) {
+            // times out requests waiting for heavy query slot
+            workerPool.assign(workloadManager);
+        }
 
         s.bind(new HttpRequestProcessorFactory() {
             @Override
@@ -157,7 +165,8 @@ public class HttpServer implements Closeable {
                         cairoEngine,
                         messageBus,
                         workerPool.getWorkerCount(),
-                        functionFactoryCache
+                        functionFactoryCache,
+                        workloadManager
                 );
             }
 
@@ -187,7 +196,8 @@ public class HttpServer implements Closeable {
                         cairoEngine,
                         messageBus,
                         workerPool.getWorkerCount(),
-                        functionFactoryCache
+                        functionFactoryCache,
+                        workloadManager
                 );
             }
 
@@ -221,9 +231,25 @@ public class HttpServer implements Closeable {
             }
         });
 
+        // query cache is thread local, each worker compiles saved queries into its own cache
+        final ObjList<String> warmUpQueries = QueryWarmUpJob.parseQueries(cairoEngine.getConfiguration().getWarmUpQueries());
+        if (warmUpQueries.size() > 0) {
+            for (int i = 0, n = workerPool.getWorkerCount(); i < n; i++) {
+                workerPool.assign(i, new QueryWarmUpJob(
+                        cairoEngine,
+                        messageBus,
+                        functionFactoryCache,
+                        warmUpQueries,
+                        workerPool.getWorkerCount(),
+                        (query, factory) -> QueryCache.getInstance().push(query, factory)
+                ));
+            }
+        }
+
         // jobs that help parallel execution of queries
         workerPool.assign(new ColumnIndexerJob(messageBus));
         workerPool.assign(new GroupByNotKeyedJob(messageBus));
+        workerPool.assign(new HashJoinJob(messageBus));
         return s;
 
     }
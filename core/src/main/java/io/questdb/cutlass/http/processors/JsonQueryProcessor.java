@@ -53,6 +53,8 @@ public class JsonQueryProcessor implements HttpRequestProcessor, Closeable {
     private final SqlExecutionContextImpl sqlExecutionContext;
     private final ObjList<QueryExecutor> queryExecutors = new ObjList<>();
     private final NanosecondClock nanosecondClock;
+    private final long queryMemoryLimit;
+    private final WorkloadManager workloadManager;
 
     public JsonQueryProcessor(
             JsonQueryProcessorConfiguration configuration,
@@ -69,6 +71,17 @@ public class JsonQueryProcessor implements HttpRequestProcessor, Closeable {
             @Nullable MessageBus messageBus,
             int workerCount,
             @Nullable FunctionFactoryCache functionFactoryCache
+    ) {
+        this(configuration, engine, messageBus, workerCount, functionFactoryCache, null);
+    }
+
+    public JsonQueryProcessor(
+            JsonQueryProcessorConfiguration configuration,
+            CairoEngine engine,
+            @Nullable MessageBus messageBus,
+            int workerCount,
+            @Nullable FunctionFactoryCache functionFactoryCache,
+            @Nullable WorkloadManager workloadManager
     ) {
         this.configuration = configuration;
         this.compiler = new SqlCompiler(engine, messageBus, functionFactoryCache);
@@ -88,6 +101,8 @@ public class JsonQueryProcessor implements HttpRequestProcessor, Closeable {
         this.queryExecutors.extendAndSet(CompiledQuery.BACKUP_TABLE, sendConfirmation);
         this.sqlExecutionContext = new SqlExecutionContextImpl(messageBus, workerCount, engine);
         this.nanosecondClock = engine.getConfiguration().getNanosecondClock();
+        this.queryMemoryLimit = engine.getConfiguration().getSqlQueryMemoryLimit();
+        this.workloadManager = workloadManager;
     }
 
     private static void doResumeSend(
@@ -207,8 +222,10 @@ public class JsonQueryProcessor implements HttpRequestProcessor, Closeable {
         // do not set random for new request to avoid copying random from previous request into next one
         // the only time we need to copy random from state is when we resume request execution
         sqlExecutionContext.with(context.getCairoSecurityContext(), null, null, context.getFd(), context.getSqlExecutionInterruptor());
+        sqlExecutionContext.with(state.getMemoryTracker());
         state.info().$("exec [q='").utf8(state.getQuery()).$("']").$();
         final RecordCursorFactory factory = QueryCache.getInstance().poll(state.getQuery());
+        state.getMemoryTracker().of(queryMemoryLimit);
         try {
             if (factory != null) {
                 try {
@@ -277,7 +294,13 @@ public class JsonQueryProcessor implements HttpRequestProcessor, Closeable {
         if (state != null) {
             // we are resuming request execution, we need to copy random to execution context
             sqlExecutionContext.with(context.getCairoSecurityContext(), null, state.getRnd(), context.getFd(), context.getSqlExecutionInterruptor());
-            doResumeSend(state, context);
+            sqlExecutionContext.with(state.getMemoryTracker());
+            final RecordCursorFactory factory = state.getQueuedFactory();
+            if (factory != null) {
+                resumeQueuedSelect(state, factory);
+            } else {
+                doResumeSend(state, context);
+            }
         }
     }
 
@@ -287,9 +310,28 @@ public class JsonQueryProcessor implements HttpRequestProcessor, Closeable {
         if (state != null) {
             // preserve random when we park the context
             state.setRnd(sqlExecutionContext.getRandom());
+            if (workloadManager != null) {
+                workloadManager.park(state.getWorkloadTicket(), context);
+            }
         }
     }
 
+    private void admit(JsonQueryProcessorState state) throws QueryPausedException {
+        final WorkloadManager.Ticket ticket = state.getWorkloadTicket();
+        final boolean queued = ticket.isQueued();
+        if (workloadManager.tryAdmit(ticket, WorkloadManager.PRIORITY_INTERACTIVE)) {
+            state.info().$("heavy query admitted [running=").$(workloadManager.getRunningCount()).$(']').$();
+            state.getHttpConnectionContext().setQueryDeadline(workloadManager.getQueryDeadline());
+            return;
+        }
+        if (!queued) {
+            state.info().$("heavy query queued [queueSize=").$(workloadManager.getQueueSize()).$(']').$();
+        }
+        // pause request, manager re-dispatches it when there is a free slot or when it times out
+        // and we will make another admission attempt, see parkRequest()
+        throw QueryPausedException.INSTANCE;
+    }
+
     private void executeCachedSelect(
             JsonQueryProcessorState state,
             RecordCursorFactory factory,
@@ -351,6 +393,10 @@ public class JsonQueryProcessor implements HttpRequestProcessor, Closeable {
     ) throws PeerDisconnectedException, PeerIsSlowToReadException {
         state.logExecuteNew();
         final RecordCursorFactory factory = cc.getRecordCursorFactory();
+        if (workloadManager != null && workloadManager.isHeavy(cc.getScanRowEstimate())) {
+            state.ofHeavy(factory);
+            admit(state);
+        }
         executeSelect(
                 state,
                 factory,
@@ -371,6 +417,20 @@ public class JsonQueryProcessor implements HttpRequestProcessor, Closeable {
         sendException(socket, 0, message, 500, state.getQuery(), configuration.getKeepAliveHeader());
     }
 
+    private void resumeQueuedSelect(
+            JsonQueryProcessorState state,
+            RecordCursorFactory factory
+    ) throws PeerDisconnectedException, PeerIsSlowToReadException {
+        final HttpConnectionContext context = state.getHttpConnectionContext();
+        try {
+            admit(state);
+            executeSelect(state, factory, configuration.getKeepAliveHeader());
+        } catch (CairoError | CairoException e) {
+            internalError(context.getChunkedResponseSocket(), e.getFlyweightMessage(), e, state);
+            readyForNextRequest(context);
+        }
+    }
+
     private boolean parseUrl(
             JsonQueryProcessorState state,
             CharSequence keepAliveHeader
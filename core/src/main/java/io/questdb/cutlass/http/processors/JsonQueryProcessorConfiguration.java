@@ -42,4 +42,26 @@ public interface JsonQueryProcessorConfiguration {
     CharSequence getKeepAliveHeader();
 
     long getMaxQueryResponseRowLimit();
+
+    /**
+     * @return maximum number of heavy queries executed at the same time, 0 disables admission control
+     */
+    int getHeavyQueryConcurrency();
+
+    /**
+     * @return estimated number of scanned rows from which query is considered heavy
+     */
+    long getHeavyQueryRowThreshold();
+
+    int getHeavyQueryQueueCapacity();
+
+    /**
+     * @return milliseconds heavy query can wait in the queue before it is rejected
+     */
+    long getHeavyQueryQueueTimeout();
+
+    /**
+     * @return milliseconds after which running heavy query is interrupted, 0 means no limit
+     */
+    long getHeavyQueryTimeout();
 }
@@ -73,6 +73,8 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
     private final NanosecondClock nanosecondClock;
     private final int floatScale;
     private final int doubleScale;
+    private final MemoryTracker memoryTracker = new MemoryTracker();
+    private final WorkloadManager.Ticket workloadTicket = new WorkloadManager.Ticket();
     private Rnd rnd;
     private RecordCursorFactory recordCursorFactory;
     private RecordCursor cursor;
@@ -163,12 +165,14 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
         queryState = QUERY_PREFIX;
         columnIndex = 0;
         countRows = false;
+        workloadTicket.release();
     }
 
     @Override
     public void close() {
         cursor = Misc.free(cursor);
         recordCursorFactory = Misc.free(recordCursorFactory);
+        workloadTicket.release();
     }
 
     public void configure(
@@ -191,6 +195,14 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
         return LOG.error().$('[').$(getFd()).$("] ");
     }
 
+    public MemoryTracker getMemoryTracker() {
+        return memoryTracker;
+    }
+
+    public WorkloadManager.Ticket getWorkloadTicket() {
+        return workloadTicket;
+    }
+
     public HttpConnectionContext getHttpConnectionContext() {
         return httpConnectionContext;
     }
@@ -235,6 +247,7 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
                 $("[compiler: ").$(compilerNanos).
                 $(", count: ").$(recordCountNanos).
                 $(", execute: ").$(nanosecondClock.getTicks() - executeStartNanos).
+                $(", peakMemory: ").$(memoryTracker.getPeak()).
                 $(", q=`").$(query).
                 $("`]").$();
     }
@@ -511,9 +524,23 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
         return cursor == null;
     }
 
+    RecordCursorFactory getQueuedFactory() {
+        return workloadTicket.isQueued() ? recordCursorFactory : null;
+    }
+
+    /**
+     * Takes ownership of heavy query factory while query waits for admission. Heavy
+     * query factory is not returned to cache so that query cost is estimated every
+     * time query is compiled.
+     */
+    void ofHeavy(RecordCursorFactory factory) {
+        this.recordCursorFactory = factory;
+        this.queryCacheable = false;
+    }
+
     boolean of(RecordCursorFactory factory, SqlExecutionContextImpl sqlExecutionContext) throws PeerDisconnectedException, PeerIsSlowToReadException {
         this.recordCursorFactory = factory;
-        queryCacheable = true;
+        queryCacheable = !workloadTicket.isAdmitted();
         this.cursor = factory.getCursor(sqlExecutionContext);
         final RecordMetadata metadata = factory.getMetadata();
         HttpRequestHeader header = httpConnectionContext.getRequestHeader();
@@ -41,6 +41,7 @@ import io.questdb.network.IOOperation;
 import io.questdb.network.NoSpaceLeftInResponseBufferException;
 import io.questdb.network.PeerDisconnectedException;
 import io.questdb.network.PeerIsSlowToReadException;
+import io.questdb.network.QueryPausedException;
 import io.questdb.std.Chars;
 import io.questdb.std.Misc;
 import io.questdb.std.Numbers;
@@ -65,6 +66,7 @@ public class TextQueryProcessor implements HttpRequestProcessor, Closeable {
     private final SqlExecutionContextImpl sqlExecutionContext;
     private final MillisecondClock clock;
     private final int doubleScale;
+    private final WorkloadManager workloadManager;
 
     public TextQueryProcessor(
             JsonQueryProcessorConfiguration configuration,
@@ -81,6 +83,17 @@ public class TextQueryProcessor implements HttpRequestProcessor, Closeable {
             @Nullable MessageBus messageBus,
             int workerCount,
             @Nullable FunctionFactoryCache functionFactoryCache
+    ) {
+        this(configuration, engine, messageBus, workerCount, functionFactoryCache, null);
+    }
+
+    public TextQueryProcessor(
+            JsonQueryProcessorConfiguration configuration,
+            CairoEngine engine,
+            @Nullable MessageBus messageBus,
+            int workerCount,
+            @Nullable FunctionFactoryCache functionFactoryCache,
+            @Nullable WorkloadManager workloadManager
     ) {
         this.configuration = configuration;
         this.compiler = new SqlCompiler(engine, messageBus, functionFactoryCache);
@@ -88,6 +101,7 @@ public class TextQueryProcessor implements HttpRequestProcessor, Closeable {
         this.clock = configuration.getClock();
         this.sqlExecutionContext = new SqlExecutionContextImpl(messageBus, workerCount, engine);
         this.doubleScale = configuration.getDoubleScale();
+        this.workloadManager = workloadManager;
     }
 
     private static void putStringOrNull(CharSink r, CharSequence str) {
@@ -118,6 +132,11 @@ public class TextQueryProcessor implements HttpRequestProcessor, Closeable {
                         $("`, skip: ").$(state.skip).
                         $(", stop: ").$(state.stop).
                         $(']').$();
+                if (state.recordCursorFactory != null && workloadManager != null && workloadManager.isHeavy(cc.getScanRowEstimate())) {
+                    // heavy query cost has to be estimated every time it is compiled
+                    state.setQueryCacheable(false);
+                    admit(state);
+                }
             } else {
                 info(state).$("execute-cached [q=`").utf8(state.query).
                         $("`, skip: ").$(state.skip).
@@ -126,17 +145,7 @@ public class TextQueryProcessor implements HttpRequestProcessor, Closeable {
             }
 
             if (state.recordCursorFactory != null) {
-                try {
-                    state.cursor = state.recordCursorFactory.getCursor(sqlExecutionContext);
-                    state.metadata = state.recordCursorFactory.getMetadata();
-                    header(context.getChunkedResponseSocket(), 200);
-                    resumeSend(context);
-                } catch (CairoException e) {
-                    state.setQueryCacheable(e.isCacheable());
-                    internalError(context.getChunkedResponseSocket(), e, state);
-                } catch (CairoError e) {
-                    internalError(context.getChunkedResponseSocket(), e, state);
-                }
+                executeSelect(context, state);
             } else {
                 header(context.getChunkedResponseSocket(), 200);
                 sendConfirmation(context.getChunkedResponseSocket());
@@ -151,6 +160,38 @@ public class TextQueryProcessor implements HttpRequestProcessor, Closeable {
         }
     }
 
+    private void admit(TextQueryProcessorState state) throws QueryPausedException {
+        final boolean queued = state.workloadTicket.isQueued();
+        if (workloadManager.tryAdmit(state.workloadTicket, WorkloadManager.PRIORITY_EXPORT)) {
+            info(state).$("heavy query admitted [running=").$(workloadManager.getRunningCount()).$(']').$();
+            state.getHttpConnectionContext().setQueryDeadline(workloadManager.getQueryDeadline());
+            return;
+        }
+        if (!queued) {
+            info(state).$("heavy query queued [queueSize=").$(workloadManager.getQueueSize()).$(']').$();
+        }
+        // pause request, manager re-dispatches it when there is a free slot or when it times out
+        // and we will make another admission attempt, see parkRequest()
+        throw QueryPausedException.INSTANCE;
+    }
+
+    private void executeSelect(
+            HttpConnectionContext context,
+            TextQueryProcessorState state
+    ) throws PeerDisconnectedException, PeerIsSlowToReadException {
+        try {
+            state.cursor = state.recordCursorFactory.getCursor(sqlExecutionContext);
+            state.metadata = state.recordCursorFactory.getMetadata();
+            header(context.getChunkedResponseSocket(), 200);
+            resumeSend(context);
+        } catch (CairoException e) {
+            state.setQueryCacheable(e.isCacheable() && !state.workloadTicket.isAdmitted());
+            internalError(context.getChunkedResponseSocket(), e, state);
+        } catch (CairoError e) {
+            internalError(context.getChunkedResponseSocket(), e, state);
+        }
+    }
+
     @Override
     public void onHeadersReady(HttpConnectionContext context) {
     }
@@ -183,7 +224,16 @@ public class TextQueryProcessor implements HttpRequestProcessor, Closeable {
             HttpConnectionContext context
     ) throws PeerDisconnectedException, PeerIsSlowToReadException {
         TextQueryProcessorState state = LV.get(context);
-        if (state == null || state.cursor == null) {
+        if (state == null) {
+            return;
+        }
+
+        if (state.workloadTicket.isQueued()) {
+            resumeQueuedSelect(context, state);
+            return;
+        }
+
+        if (state.cursor == null) {
             return;
         }
 
@@ -288,11 +338,29 @@ public class TextQueryProcessor implements HttpRequestProcessor, Closeable {
         readyForNextRequest(context);
     }
 
+    private void resumeQueuedSelect(
+            HttpConnectionContext context,
+            TextQueryProcessorState state
+    ) throws PeerDisconnectedException, PeerIsSlowToReadException {
+        sqlExecutionContext.with(context.getCairoSecurityContext(), null, state.rnd, context.getFd(), context.getSqlExecutionInterruptor());
+        try {
+            admit(state);
+        } catch (CairoException e) {
+            internalError(context.getChunkedResponseSocket(), e, state);
+            readyForNextRequest(context);
+            return;
+        }
+        executeSelect(context, state);
+    }
+
     @Override
     public void parkRequest(HttpConnectionContext context) {
         TextQueryProcessorState state = LV.get(context);
         if (state != null) {
             state.rnd = sqlExecutionContext.getRandom();
+            if (workloadManager != null) {
+                workloadManager.park(state.workloadTicket, context);
+            }
         }
     }
 
@@ -38,6 +38,7 @@ import java.io.Closeable;
 
 public class TextQueryProcessorState implements Mutable, Closeable {
     final StringSink query = new StringSink();
+    final WorkloadManager.Ticket workloadTicket = new WorkloadManager.Ticket();
     private final HttpConnectionContext httpConnectionContext;
     boolean countRows = false;
     boolean noMeta = false;
@@ -82,6 +83,11 @@ public class TextQueryProcessorState implements Mutable, Closeable {
         queryState = JsonQueryProcessorState.QUERY_PREFIX;
         columnIndex = 0;
         countRows = false;
+        workloadTicket.release();
+    }
+
+    public HttpConnectionContext getHttpConnectionContext() {
+        return httpConnectionContext;
     }
 
     public long getFd() {
@@ -92,5 +98,6 @@ public class TextQueryProcessorState implements Mutable, Closeable {
     public void close() {
         cursor = Misc.free(cursor);
         recordCursorFactory = Misc.free(recordCursorFactory);
+        workloadTicket.release();
     }
 }
@@ -0,0 +1,301 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cutlass.http.processors;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.cutlass.http.HttpConnectionContext;
+import io.questdb.mp.SynchronizedJob;
+import io.questdb.network.QueryPausedException;
+import io.questdb.std.time.MillisecondClock;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Caps number of heavy queries HTTP workers execute at the same time. Heavy query, the one
+ * that is estimated to scan at least configured number of rows, has to be admitted before
+ * its cursor is opened. Queries that cannot be admitted wait in the queue, which is ordered
+ * by priority and then by arrival. Light queries bypass the manager entirely and therefore
+ * always find free worker.
+ * <p>
+ * Manager is shared between all HTTP workers and does not lock. Running queries are counted
+ * by atomic counter and waiting tickets are kept in lock-free FIFO lane per priority, head of
+ * the queue is the head of the highest priority lane that is not empty.
+ * <p>
+ * Waiting request does not hold the worker and is not registered with the dispatcher either.
+ * Request throws {@link QueryPausedException} and parks its ticket via
+ * {@link #park(Ticket, HttpConnectionContext)}. When a slot is released the manager re-dispatches
+ * the parked request at the head of the queue, which then makes another admission attempt.
+ * Manager is also a job, which re-dispatches parked requests that have waited for longer than
+ * the queue timeout, so that they fail even when no slot is ever released.
+ */
+public class WorkloadManager extends SynchronizedJob {
+    public static final int PRIORITY_EXPORT = 0;
+    public static final int PRIORITY_INTERACTIVE = 1;
+    @SuppressWarnings("unchecked")
+    private final ConcurrentLinkedQueue<Ticket>[] lanes = new ConcurrentLinkedQueue[PRIORITY_INTERACTIVE + 1];
+    private final AtomicInteger queueSize = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final MillisecondClock clock;
+    private final int concurrency;
+    private final long rowThreshold;
+    private final int queueCapacity;
+    private final long queueTimeout;
+    private final long queryTimeout;
+
+    public WorkloadManager(JsonQueryProcessorConfiguration configuration) {
+        this(
+                configuration.getClock(),
+                configuration.getHeavyQueryConcurrency(),
+                configuration.getHeavyQueryRowThreshold(),
+                configuration.getHeavyQueryQueueCapacity(),
+                configuration.getHeavyQueryQueueTimeout(),
+                configuration.getHeavyQueryTimeout()
+        );
+    }
+
+    public WorkloadManager(
+            MillisecondClock clock,
+            int concurrency,
+            long rowThreshold,
+            int queueCapacity,
+            long queueTimeout,
+            long queryTimeout
+    ) {
+        this.clock = clock;
+        this.concurrency = concurrency;
+        this.rowThreshold = rowThreshold;
+        this.queueCapacity = queueCapacity;
+        this.queueTimeout = queueTimeout;
+        this.queryTimeout = queryTimeout;
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    @Nullable
+    public static WorkloadManager newInstance(JsonQueryProcessorConfiguration configuration) {
+        return configuration.getHeavyQueryConcurrency() > 0 ? new WorkloadManager(configuration) : null;
+    }
+
+    /**
+     * @return epoch milliseconds by which admitted query must complete, Long.MAX_VALUE when heavy queries are not timed out
+     */
+    public long getQueryDeadline() {
+        return queryTimeout > 0 ? clock.getTicks() + queryTimeout : Long.MAX_VALUE;
+    }
+
+    public int getQueueSize() {
+        return queueSize.get();
+    }
+
+    public int getRunningCount() {
+        return running.get();
+    }
+
+    public boolean isHeavy(long scanRowEstimate) {
+        return scanRowEstimate >= rowThreshold;
+    }
+
+    /**
+     * Parks request of queued ticket until it can make progress. Processors call this once request
+     * has been paused, i.e. after the dispatcher is done with the request, so that re-dispatched
+     * request never races with the thread that paused it. Does nothing for tickets that are not queued.
+     *
+     * @param ticket  ticket of the request
+     * @param context connection to re-dispatch when ticket can be admitted or has timed out
+     */
+    public void park(Ticket ticket, HttpConnectionContext context) {
+        if (ticket.queued && ticket.context.compareAndSet(null, context)) {
+            // slot might have been released before the ticket was parked
+            wakeHead();
+        }
+    }
+
+    /**
+     * Attempts to admit query. First unsuccessful attempt puts ticket in the queue and subsequent
+     * attempts check if the ticket reached the head of the queue while there is a free slot.
+     *
+     * @param ticket   ticket of the request, owned by request state
+     * @param priority one of PRIORITY_* constants, used when ticket is queued
+     * @return true when query is admitted and can execute
+     * @throws CairoException when queue is full or ticket waited for longer than queue timeout
+     */
+    public boolean tryAdmit(Ticket ticket, int priority) {
+        if (ticket.admitted) {
+            return true;
+        }
+
+        if (!ticket.queued) {
+            if (queueSize.get() == 0 && tryAcquireSlot()) {
+                return admit(ticket);
+            }
+
+            if (queueSize.incrementAndGet() > queueCapacity) {
+                queueSize.decrementAndGet();
+                throw CairoException.instance(0).put("heavy query queue is full [capacity=").put(queueCapacity).put(']');
+            }
+
+            ticket.manager = this;
+            ticket.priority = priority;
+            ticket.queuedAt = clock.getTicks();
+            ticket.queued = true;
+            lanes[priority].add(ticket);
+            return false;
+        }
+
+        if (head() == ticket && tryAcquireSlot()) {
+            dequeue(ticket);
+            admit(ticket);
+            // there may be more free slots than tickets woken up so far
+            wakeHead();
+            return true;
+        }
+
+        if (clock.getTicks() - ticket.queuedAt > queueTimeout) {
+            dequeue(ticket);
+            // slot might be free with this ticket having been in the way
+            wakeHead();
+            throw CairoException.instance(0).put("timeout waiting for heavy query slot [timeout=").put(queueTimeout).put("ms]");
+        }
+        return false;
+    }
+
+    @Override
+    protected boolean runSerially() {
+        boolean useful = false;
+        final long now = clock.getTicks();
+        for (int i = 0; i < lanes.length; i++) {
+            for (Iterator<Ticket> it = lanes[i].iterator(); it.hasNext(); ) {
+                final Ticket ticket = it.next();
+                if (now - ticket.queuedAt > queueTimeout && wake(ticket)) {
+                    // request fails with timeout when it makes next admission attempt
+                    useful = true;
+                }
+            }
+        }
+        return useful;
+    }
+
+    private static boolean wake(Ticket ticket) {
+        // only one of the threads that race to wake the ticket re-dispatches its request
+        final HttpConnectionContext context = ticket.context.getAndSet(null);
+        if (context != null) {
+            context.resumeRequest();
+            return true;
+        }
+        return false;
+    }
+
+    private boolean admit(Ticket ticket) {
+        ticket.manager = this;
+        ticket.admitted = true;
+        return true;
+    }
+
+    private void dequeue(Ticket ticket) {
+        if (lanes[ticket.priority].remove(ticket)) {
+            queueSize.decrementAndGet();
+        }
+        ticket.queued = false;
+        ticket.context.set(null);
+    }
+
+    private Ticket head() {
+        for (int i = lanes.length - 1; i > -1; i--) {
+            final Ticket head = lanes[i].peek();
+            if (head != null) {
+                return head;
+            }
+        }
+        return null;
+    }
+
+    private void release(Ticket ticket) {
+        if (ticket.admitted) {
+            ticket.admitted = false;
+            running.decrementAndGet();
+        } else if (ticket.queued) {
+            dequeue(ticket);
+        }
+        wakeHead();
+    }
+
+    private boolean tryAcquireSlot() {
+        int n;
+        do {
+            n = running.get();
+            if (n >= concurrency) {
+                return false;
+            }
+        } while (!running.compareAndSet(n, n + 1));
+        return true;
+    }
+
+    private void wakeHead() {
+        if (running.get() < concurrency) {
+            final Ticket head = head();
+            // head that is not parked is either being parked or has been re-dispatched already
+            if (head != null) {
+                wake(head);
+            }
+        }
+    }
+
+    public static class Ticket {
+        private final AtomicReference<HttpConnectionContext> context = new AtomicReference<>();
+        private WorkloadManager manager;
+        private int priority;
+        private long queuedAt;
+        private boolean queued;
+        private boolean admitted;
+
+        public boolean isAdmitted() {
+            return admitted;
+        }
+
+        public boolean isParked() {
+            return context.get() != null;
+        }
+
+        public boolean isQueued() {
+            return queued;
+        }
+
+        /**
+         * Frees execution slot or leaves the queue. It is safe to release ticket that
+         * has never been admitted.
+         */
+        public void release() {
+            if (manager != null) {
+                manager.release(this);
+                manager = null;
+            }
+        }
+    }
+}
@@ -575,6 +575,16 @@ public class CairoLineProtoParser implements LineProtoParser, Closeable {
             return false;
         }
 
+        @Override
+        public boolean isDedupKey(int columnIndex) {
+            return false;
+        }
+
+        @Override
+        public int getTtlHours() {
+            return 0;
+        }
+
         @Override
         public int getPartitionBy() {
             return PartitionBy.NONE;
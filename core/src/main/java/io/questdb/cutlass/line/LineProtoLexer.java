@@ -38,6 +38,11 @@ public class LineProtoLexer implements Mutable, Closeable {
     private final ArrayBackedCharSequence cs = new ArrayBackedCharSequence();
     private final FloatingCharSequence floatingCharSequence = new FloatingCharSequence();
     private final ObjList<Runnable> charHandlers = new ObjList<>();
+    private final ByteCharSequence byteToken = new ByteCharSequence();
+    private final ByteCharSequence cachedByteToken = new ByteCharSequence();
+    private final DecodedCharSequence decodedToken = new DecodedCharSequence();
+    private final AdvancingCharSink decodingSink = new AdvancingCharSink();
+    private final CharSequenceCache inPlaceCache;
     private int state = LineProtoParser.EVT_MEASUREMENT;
     private boolean escape = false;
     private long buffer;
@@ -51,6 +56,12 @@ public class LineProtoLexer implements Mutable, Closeable {
     private long utf8ErrorPos;
     private int errorCode = 0;
     private boolean unquoted = true;
+    // in place parsing state, cache addresses of in place tokens are relative to start of message
+    private boolean inPlace = false;
+    private long inPlaceLo;
+    private long tokenLo;
+    private long tokenHi;
+    private boolean tokenAscii;
 
     public LineProtoLexer(int bufferSize) {
         buffer = Unsafe.malloc(bufferSize);
@@ -62,6 +73,12 @@ public class LineProtoLexer implements Mutable, Closeable {
             assert floatingCharSequence.lo >= buffer;
             return floatingCharSequence;
         };
+        inPlaceCache = address -> {
+            if (address < 0) {
+                return charSequenceCache.get(address & Long.MAX_VALUE);
+            }
+            return cachedByteToken.of(inPlaceLo + Numbers.decodeHighInt(address), inPlaceLo + Numbers.decodeLowInt(address));
+        };
         populateCharHandlers();
         clear();
     }
@@ -138,6 +155,90 @@ public class LineProtoLexer implements Mutable, Closeable {
         }
     }
 
+    /**
+     * Parses complete message, such as UDP datagram, without copying it. Tokens are views of
+     * the message bytes, only tokens with multi-byte UTF8 characters are decoded into lexer buffer.
+     * Escape characters are removed by shifting bytes of the token, so message memory is modified.
+     * Message must not end in the middle of a line, this method does the work of {@link #parseLast()}.
+     *
+     * @param lo message address
+     * @param hi high watermark for message address
+     */
+    public void parseInPlace(long lo, long hi) {
+        clear();
+        inPlace = true;
+        inPlaceLo = lo;
+
+        // bytes are written back at "w", which falls behind "p" when escape characters are removed
+        long p = lo;
+        long w = lo;
+        long lineLo = lo;
+        tokenLo = lo;
+        tokenAscii = true;
+
+        while (p < hi) {
+            byte b = Unsafe.getUnsafe().getByte(p++);
+
+            if (skipLine) {
+                if (b == '\n' || b == '\r') {
+                    clear();
+                    lineLo = tokenLo = w = p;
+                }
+                continue;
+            }
+
+            if (b == '\\' && p < hi) {
+                b = Unsafe.getUnsafe().getByte(p++);
+                Unsafe.getUnsafe().putByte(w++, b);
+                tokenAscii &= b > -1;
+                continue;
+            }
+
+            Unsafe.getUnsafe().putByte(w++, b);
+            if (b < 0) {
+                tokenAscii = false;
+                continue;
+            }
+
+            final Runnable runnable = charHandlers.getQuick(b);
+            if (runnable != NOOP) {
+                tokenHi = w - 1;
+                try {
+                    runnable.run();
+                    if (tokenHi == -1) {
+                        // event fired, next token starts after delimiter
+                        tokenLo = w;
+                        tokenAscii = true;
+                        if (state == LineProtoParser.EVT_MEASUREMENT) {
+                            lineLo = w;
+                        }
+                    }
+                } catch (LineProtoException ex) {
+                    parser.onError((int) (w - 1 - lineLo), state, errorCode);
+                    if (b == '\n' || b == '\r') {
+                        // line has ended already, do not skip the next one
+                        clear();
+                        lineLo = tokenLo = w;
+                        tokenAscii = true;
+                    } else {
+                        skipLine = true;
+                    }
+                }
+            }
+        }
+
+        if (!skipLine) {
+            tokenHi = w;
+            try {
+                onEol();
+            } catch (LineProtoException e) {
+                parser.onError((int) (w - lineLo), state, errorCode);
+            }
+        }
+        clear();
+        inPlace = false;
+    }
+
     public void parseLast() {
         if (!skipLine) {
             dstPos += 2;
@@ -159,6 +260,7 @@ public class LineProtoLexer implements Mutable, Closeable {
 
     private void chop() {
         dstTop = dstPos;
+        tokenHi = -1;
     }
 
     private void doSkipLine(byte b) {
@@ -168,6 +270,10 @@ public class LineProtoLexer implements Mutable, Closeable {
     }
 
     private void fireEvent() throws LineProtoException {
+        if (inPlace) {
+            fireInPlaceEvent();
+            return;
+        }
         // two bytes less between these and one more byte so we don't have to use >=
         if (dstTop > dstPos - 3) {
             errorCode = LineProtoParser.ERROR_EMPTY;
@@ -177,6 +283,46 @@ public class LineProtoLexer implements Mutable, Closeable {
         chop();
     }
 
+    private void fireInPlaceEvent() {
+        final long lo = tokenLo;
+        final long hi = tokenHi;
+        if (hi == lo) {
+            errorCode = LineProtoParser.ERROR_EMPTY;
+            throw LineProtoException.INSTANCE;
+        }
+
+        if (tokenAscii) {
+            parser.onEvent(byteToken.of(lo, hi), state, inPlaceCache);
+            tokenHi = -1;
+            return;
+        }
+
+        decodeInPlaceToken(lo, hi);
+        // account for delimiter, which is what char buffer tokens end with
+        dstPos += 2;
+        parser.onEvent(decodedToken, state, inPlaceCache);
+        chop();
+    }
+
+    // UTF8 is validated and decoded only when high bits are set
+    private void decodeInPlaceToken(long lo, long hi) {
+        long p = lo;
+        while (p < hi) {
+            final byte b = Unsafe.getUnsafe().getByte(p);
+            if (b < 0) {
+                final int n = Chars.utf8DecodeMultiByte(p, hi, b, decodingSink);
+                if (n == -1) {
+                    errorCode = LineProtoParser.ERROR_ENCODING;
+                    throw LineProtoException.INSTANCE;
+                }
+                p += n;
+            } else {
+                decodingSink.put((char) b);
+                p++;
+            }
+        }
+    }
+
     private void fireEventTransition(int evtTagName, int evtFieldName) {
         switch (state) {
             case LineProtoParser.EVT_MEASUREMENT:
@@ -219,13 +365,18 @@ public class LineProtoLexer implements Mutable, Closeable {
     private void onEol() throws LineProtoException {
         switch (state) {
             case LineProtoParser.EVT_MEASUREMENT:
+                if (inPlace && !tokenAscii) {
+                    // malformed bytes are reported even when line is dropped
+                    decodeInPlaceToken(tokenLo, tokenHi);
+                    dstPos = dstTop;
+                }
                 chop();
                 break;
             case LineProtoParser.EVT_TAG_VALUE:
             case LineProtoParser.EVT_FIELD_VALUE:
             case LineProtoParser.EVT_TIMESTAMP:
                 fireEvent();
-                parser.onLineEnd(charSequenceCache);
+                parser.onLineEnd(inPlace ? inPlaceCache : charSequenceCache);
                 clear();
                 break;
             default:
@@ -339,6 +490,66 @@ public class LineProtoLexer implements Mutable, Closeable {
         }
     }
 
+    private class ByteCharSequence extends AbstractCharSequence implements CachedCharSequence {
+        private long lo;
+        private long hi;
+
+        @Override
+        public long getCacheAddress() {
+            return Numbers.encodeLowHighInts((int) (hi - inPlaceLo), (int) (lo - inPlaceLo));
+        }
+
+        @Override
+        public int length() {
+            return (int) (hi - lo);
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) Unsafe.getUnsafe().getByte(lo + index);
+        }
+
+        private ByteCharSequence of(long lo, long hi) {
+            this.lo = lo;
+            this.hi = hi;
+            return this;
+        }
+    }
+
+    // token decoded into char buffer, its cache address is flagged to tell it apart from in place tokens
+    private class DecodedCharSequence extends AbstractCharSequence implements CachedCharSequence {
+
+        @Override
+        public long getCacheAddress() {
+            return cs.getCacheAddress() | Long.MIN_VALUE;
+        }
+
+        @Override
+        public int length() {
+            return cs.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return cs.charAt(index);
+        }
+    }
+
+    private class AdvancingCharSink extends AbstractCharSink {
+
+        @Override
+        public CharSink put(char c) {
+            sink.put(c);
+            dstPos += 2;
+            return this;
+        }
+
+        @Override
+        public CharSink put(char[] chars, int start, int len) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
     private class ArrayBackedCharSink extends AbstractCharSink {
 
         @Override
@@ -53,13 +53,28 @@ public abstract class AbstractLineProtoReceiver extends SynchronizedJob implemen
     protected int commitRate;
     protected long totalCount = 0;
     protected final int commitMode;
+    private final LineProtoDispatcher dispatcher;
 
     public AbstractLineProtoReceiver(
             LineUdpReceiverConfiguration configuration,
             CairoEngine engine,
             WorkerPool workerPool
+    ) {
+        this(configuration, engine, workerPool, null);
+    }
+
+    /**
+     * @param dispatcher when not null receiver shares the port with other receivers and hands lines
+     *                   over to writer jobs instead of writing to tables itself
+     */
+    public AbstractLineProtoReceiver(
+            LineUdpReceiverConfiguration configuration,
+            CairoEngine engine,
+            WorkerPool workerPool,
+            LineProtoDispatcher dispatcher
     ) {
         this.configuration = configuration;
+        this.dispatcher = dispatcher;
         this.commitMode = configuration.getCommitMode();
         nf = configuration.getNetworkFacade();
         fd = nf.socketUdp();
@@ -70,6 +85,12 @@ public abstract class AbstractLineProtoReceiver extends SynchronizedJob implemen
         }
 
         try {
+            if (dispatcher != null && nf.setReusePort(fd) != 0) {
+                int errno = nf.errno();
+                LOG.error().$("cannot set SO_REUSEPORT [errno=").$(errno).$(", fd=").$(fd).$(']').$();
+                throw CairoException.instance(errno).put("Cannot set SO_REUSEPORT");
+            }
+
             // when listening for multicast packets bind address must be 0
             bind(configuration);
             this.commitRate = configuration.getCommitRate();
@@ -78,9 +99,14 @@ public abstract class AbstractLineProtoReceiver extends SynchronizedJob implemen
                 LOG.error().$("cannot set receive buffer size [fd=").$(fd).$(", size=").$(configuration.getReceiveBufferSize()).$(']').$();
             }
 
-            lexer = new LineProtoLexer(configuration.getMsgBufferSize());
-            parser = new CairoLineProtoParser(engine, configuration.getCairoSecurityContext(), configuration.getTimestampAdapter());
-            lexer.withParser(parser);
+            if (dispatcher == null) {
+                lexer = new LineProtoLexer(configuration.getMsgBufferSize());
+                parser = new CairoLineProtoParser(engine, configuration.getCairoSecurityContext(), configuration.getTimestampAdapter());
+                lexer.withParser(parser);
+            } else {
+                lexer = null;
+                parser = null;
+            }
 
             if (!configuration.ownThread()) {
                 workerPool.assign(this);
@@ -135,6 +161,22 @@ public abstract class AbstractLineProtoReceiver extends SynchronizedJob implemen
         }
     }
 
+    protected void commit() {
+        if (dispatcher == null) {
+            parser.commitAll(commitMode);
+        } else {
+            dispatcher.flush();
+        }
+    }
+
+    protected void consume(long lo, long hi) {
+        if (dispatcher == null) {
+            lexer.parseInPlace(lo, hi);
+        } else {
+            dispatcher.dispatch(lo, hi);
+        }
+    }
+
     private void bind(LineUdpReceiverConfiguration configuration) {
         if (nf.bindUdp(fd, configuration.isUnicast() ? configuration.getBindIPv4Address() : 0, configuration.getPort())) {
             if (!configuration.isUnicast() && !nf.join(fd, configuration.getBindIPv4Address(), configuration.getGroupIPv4Address())) {
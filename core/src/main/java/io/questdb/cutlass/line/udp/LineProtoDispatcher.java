@@ -0,0 +1,123 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cutlass.line.udp;
+
+import io.questdb.std.ObjList;
+import io.questdb.std.Unsafe;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Splits datagrams into lines and routes each line to the writer job that owns its table.
+ * Table is chosen by hash of measurement name, so the same table always lands on the same job.
+ * Every receiver has its own dispatcher, tasks are claimed lazily and published on flush
+ * or when they run out of room.
+ */
+public class LineProtoDispatcher {
+    private final ObjList<LineProtoWriterJob> jobs;
+    private final long[] cursors;
+
+    public LineProtoDispatcher(ObjList<LineProtoWriterJob> jobs) {
+        this.jobs = jobs;
+        this.cursors = new long[jobs.size()];
+        Arrays.fill(cursors, -1);
+    }
+
+    public void dispatch(long lo, long hi) {
+        long p = lo;
+        while (p < hi) {
+            byte b = Unsafe.getUnsafe().getByte(p);
+            if (b == '\n' || b == '\r') {
+                p++;
+                continue;
+            }
+
+            final long lineLo = p;
+            int hash = 0;
+            boolean measurement = true;
+            while (p < hi) {
+                b = Unsafe.getUnsafe().getByte(p++);
+                if (b == '\\' && p < hi) {
+                    b = Unsafe.getUnsafe().getByte(p++);
+                } else if (b == '\n' || b == '\r') {
+                    p--;
+                    break;
+                } else if (b == ',' || b == ' ') {
+                    measurement = false;
+                }
+
+                if (measurement) {
+                    hash = 31 * hash + b;
+                }
+            }
+            put((hash & Integer.MAX_VALUE) % cursors.length, lineLo, p);
+        }
+    }
+
+    public void flush() {
+        for (int i = 0, n = cursors.length; i < n; i++) {
+            final long cursor = cursors[i];
+            if (cursor > -1) {
+                jobs.getQuick(i).publish(cursor);
+                cursors[i] = -1;
+            }
+        }
+    }
+
+    private long claim(int shard) {
+        final LineProtoWriterJob job = jobs.getQuick(shard);
+        while (true) {
+            final long cursor = job.nextCursor();
+            if (cursor > -1) {
+                job.getTask(cursor).of();
+                return cursors[shard] = cursor;
+            }
+
+            if (cursor == -1) {
+                // queue is full; tasks held by this dispatcher must not stall consumers
+                // while we wait, help the writer to drain its queue if it is idle
+                flush();
+                if (!job.run(0)) {
+                    LockSupport.parkNanos(1);
+                }
+            }
+        }
+    }
+
+    private void put(int shard, long lineLo, long lineHi) {
+        final LineProtoWriterJob job = jobs.getQuick(shard);
+        long cursor = cursors[shard];
+        if (cursor == -1) {
+            cursor = claim(shard);
+        }
+
+        if (!job.getTask(cursor).put(lineLo, lineHi)) {
+            job.publish(cursor);
+            cursors[shard] = -1;
+            job.getTask(claim(shard)).put(lineLo, lineHi);
+        }
+    }
+}
@@ -26,6 +26,7 @@ package io.questdb.cutlass.line.udp;
 
 import io.questdb.cairo.CairoEngine;
 import io.questdb.mp.WorkerPool;
+import io.questdb.std.MemoryTag;
 import io.questdb.std.Unsafe;
 import io.questdb.std.str.DirectByteCharSequence;
 
@@ -39,15 +40,24 @@ public class LineProtoReceiver extends AbstractLineProtoReceiver {
             CairoEngine engine,
             WorkerPool workerPool
     ) {
-        super(configuration, engine, workerPool);
-        this.buf = Unsafe.malloc(this.bufLen = configuration.getMsgBufferSize());
+        this(configuration, engine, workerPool, null);
+    }
+
+    public LineProtoReceiver(
+            LineUdpReceiverConfiguration configuration,
+            CairoEngine engine,
+            WorkerPool workerPool,
+            LineProtoDispatcher dispatcher
+    ) {
+        super(configuration, engine, workerPool, dispatcher);
+        this.buf = Unsafe.malloc(this.bufLen = configuration.getMsgBufferSize(), MemoryTag.NATIVE_NETWORK);
     }
 
     @Override
     public void close() {
         super.close();
         if (buf != 0) {
-            Unsafe.free(buf, bufLen);
+            Unsafe.free(buf, bufLen, MemoryTag.NATIVE_NETWORK);
             buf = 0;
         }
     }
@@ -58,14 +68,13 @@ public class LineProtoReceiver extends AbstractLineProtoReceiver {
         int count;
         while ((count = nf.recv(fd, buf, bufLen)) > 0) {
             byteSequence.of(buf, buf + count);
-            lexer.parse(buf, buf + count);
-            lexer.parseLast();
+            consume(buf, buf + count);
 
             totalCount++;
 
             if (totalCount > commitRate) {
                 totalCount = 0;
-                parser.commitAll(commitMode);
+                commit();
             }
 
             if (ran) {
@@ -74,7 +83,7 @@ public class LineProtoReceiver extends AbstractLineProtoReceiver {
 
             ran = true;
         }
-        parser.commitAll(commitMode);
+        commit();
         return ran;
     }
 }
@@ -0,0 +1,153 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cutlass.line.udp;
+
+import io.questdb.cairo.CairoEngine;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.Job;
+import io.questdb.mp.WorkerPool;
+import io.questdb.mp.WorkerPoolConfiguration;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.std.Os;
+
+import java.io.Closeable;
+import java.util.Arrays;
+
+/**
+ * Set of UDP receivers sharing the same port. With single receiver configured the receiver
+ * parses and writes lines itself. Otherwise each receiver binds its own socket with SO_REUSEPORT
+ * and dispatches lines to writer jobs, each of which exclusively owns a shard of tables.
+ */
+public class LineProtoReceiverGroup implements Closeable {
+    private static final Log LOG = LogFactory.getLog(LineProtoReceiverGroup.class);
+    private final ObjList<AbstractLineProtoReceiver> receivers = new ObjList<>();
+    private final ObjList<LineProtoWriterJob> writerJobs = new ObjList<>();
+    private WorkerPool writerPool;
+
+    public LineProtoReceiverGroup(LineUdpReceiverConfiguration configuration, CairoEngine engine, WorkerPool workerPool) {
+        int receiverCount = configuration.getReceiverCount();
+        if (receiverCount > 1 && !configuration.isUnicast()) {
+            // every socket bound to multicast group gets its own copy of each datagram
+            LOG.info().$("multicast is served by single receiver [receiverCount=").$(receiverCount).$(']').$();
+            receiverCount = 1;
+        }
+
+        try {
+            if (receiverCount < 2) {
+                receivers.add(createReceiver(configuration, engine, workerPool, null));
+            } else {
+                final int writerCount = Math.max(1, configuration.getWriterCount());
+                if (configuration.ownThread()) {
+                    // dedicated workers, one per writer job, back off when idle the same way shared ones do
+                    writerPool = new WorkerPool(new WriterPoolConfiguration(writerCount));
+                }
+                for (int i = 0; i < writerCount; i++) {
+                    final LineProtoWriterJob job = new LineProtoWriterJob(configuration, engine);
+                    writerJobs.add(job);
+                    if (writerPool != null) {
+                        writerPool.assign(i, (Job) job);
+                    } else {
+                        workerPool.assign(job);
+                    }
+                }
+
+                for (int i = 0; i < receiverCount; i++) {
+                    receivers.add(createReceiver(configuration, engine, workerPool, new LineProtoDispatcher(writerJobs)));
+                }
+                LOG.info().$("started [receivers=").$(receiverCount).$(", writers=").$(writerJobs.size()).$(']').$();
+            }
+        } catch (Throwable e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        halt();
+        Misc.freeObjList(receivers);
+        receivers.clear();
+        Misc.freeObjList(writerJobs);
+        writerJobs.clear();
+    }
+
+    public void halt() {
+        for (int i = 0, n = receivers.size(); i < n; i++) {
+            receivers.getQuick(i).halt();
+        }
+
+        if (writerPool != null) {
+            writerPool.halt();
+        }
+    }
+
+    public void start() {
+        for (int i = 0, n = receivers.size(); i < n; i++) {
+            receivers.getQuick(i).start();
+        }
+
+        if (writerPool != null) {
+            writerPool.start(LOG);
+        }
+    }
+
+    private static AbstractLineProtoReceiver createReceiver(
+            LineUdpReceiverConfiguration configuration,
+            CairoEngine engine,
+            WorkerPool workerPool,
+            LineProtoDispatcher dispatcher
+    ) {
+        if (Os.type == Os.LINUX_AMD64 || Os.type == Os.LINUX_ARM64) {
+            return new LinuxMMLineProtoReceiver(configuration, engine, workerPool, dispatcher);
+        }
+        return new LineProtoReceiver(configuration, engine, workerPool, dispatcher);
+    }
+
+    private static class WriterPoolConfiguration implements WorkerPoolConfiguration {
+        private final int[] affinity;
+
+        private WriterPoolConfiguration(int workerCount) {
+            this.affinity = new int[workerCount];
+            Arrays.fill(affinity, -1);
+        }
+
+        @Override
+        public int[] getWorkerAffinity() {
+            return affinity;
+        }
+
+        @Override
+        public int getWorkerCount() {
+            return affinity.length;
+        }
+
+        @Override
+        public boolean haltOnError() {
+            return false;
+        }
+    }
+}
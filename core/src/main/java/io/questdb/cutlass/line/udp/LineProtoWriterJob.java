@@ -0,0 +1,116 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cutlass.line.udp;
+
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cutlass.line.CairoLineProtoParser;
+import io.questdb.cutlass.line.LineProtoLexer;
+import io.questdb.mp.MPSequence;
+import io.questdb.mp.RingQueue;
+import io.questdb.mp.SCSequence;
+import io.questdb.mp.SynchronizedJob;
+import io.questdb.std.Misc;
+
+import java.io.Closeable;
+
+/**
+ * Owns writers of subset of tables. Receivers publish batches of lines via the queue and
+ * never touch writers themselves, which keeps every TableWriter confined to single job.
+ */
+public class LineProtoWriterJob extends SynchronizedJob implements Closeable {
+    private final RingQueue<LineProtoWriterTask> queue;
+    private final MPSequence pubSeq;
+    private final SCSequence subSeq = new SCSequence();
+    private final LineProtoLexer lexer;
+    private final CairoLineProtoParser parser;
+    private final int commitRate;
+    private final int commitMode;
+    private long totalCount = 0;
+    private boolean uncommitted = false;
+
+    public LineProtoWriterJob(LineUdpReceiverConfiguration configuration, CairoEngine engine) {
+        final int taskSize = configuration.getMsgBufferSize() + 1;
+        final int capacity = configuration.getWriterQueueCapacity();
+        this.queue = new RingQueue<>(() -> new LineProtoWriterTask(taskSize), capacity);
+        this.pubSeq = new MPSequence(capacity);
+        pubSeq.then(subSeq).then(pubSeq);
+        this.commitRate = configuration.getCommitRate();
+        this.commitMode = configuration.getCommitMode();
+        this.lexer = new LineProtoLexer(configuration.getMsgBufferSize());
+        this.parser = new CairoLineProtoParser(engine, configuration.getCairoSecurityContext(), configuration.getTimestampAdapter());
+        lexer.withParser(parser);
+    }
+
+    @Override
+    public void close() {
+        // drain what receivers have published before the job was stopped
+        runSerially();
+        Misc.free(parser);
+        Misc.free(lexer);
+        for (int i = 0, n = queue.getCapacity(); i < n; i++) {
+            Misc.free(queue.get(i));
+        }
+    }
+
+    /**
+     * @return next task to fill, -1 when queue is full or -2 on contention with other receivers
+     */
+    public long nextCursor() {
+        return pubSeq.next();
+    }
+
+    public LineProtoWriterTask getTask(long cursor) {
+        return queue.get(cursor);
+    }
+
+    public void publish(long cursor) {
+        pubSeq.done(cursor);
+    }
+
+    @Override
+    protected boolean runSerially() {
+        boolean useful = false;
+        long cursor;
+        while ((cursor = subSeq.next()) > -1) {
+            final LineProtoWriterTask task = queue.get(cursor);
+            lexer.parseInPlace(task.getLo(), task.getHi());
+            totalCount += task.getLineCount();
+            subSeq.done(cursor);
+            useful = uncommitted = true;
+
+            if (totalCount > commitRate) {
+                totalCount = 0;
+                parser.commitAll(commitMode);
+                uncommitted = false;
+            }
+        }
+
+        if (uncommitted) {
+            parser.commitAll(commitMode);
+            uncommitted = false;
+        }
+        return useful;
+    }
+}
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cutlass.line.udp;
+
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Unsafe;
+
+import java.io.Closeable;
+
+/**
+ * Batch of complete, newline-terminated lines that belong to tables owned by single writer job.
+ */
+public class LineProtoWriterTask implements Closeable {
+    private final int capacity;
+    private long lo;
+    private long hi;
+    private int lineCount;
+
+    public LineProtoWriterTask(int capacity) {
+        this.capacity = capacity;
+        this.lo = this.hi = Unsafe.malloc(capacity, MemoryTag.NATIVE_NETWORK);
+    }
+
+    @Override
+    public void close() {
+        if (lo != 0) {
+            Unsafe.free(lo, capacity, MemoryTag.NATIVE_NETWORK);
+            lo = hi = 0;
+        }
+    }
+
+    public long getHi() {
+        return hi;
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    public long getLo() {
+        return lo;
+    }
+
+    public boolean isEmpty() {
+        return hi == lo;
+    }
+
+    public void of() {
+        hi = lo;
+        lineCount = 0;
+    }
+
+    /**
+     * Copies line and terminates it with '\n'.
+     *
+     * @return false when there is not enough room left in the task, task is unchanged in this case
+     */
+    public boolean put(long lineLo, long lineHi) {
+        final long len = lineHi - lineLo;
+        if (hi + len + 1 > lo + capacity) {
+            return false;
+        }
+        Unsafe.getUnsafe().copyMemory(lineLo, hi, len);
+        hi += len;
+        Unsafe.getUnsafe().putByte(hi++, (byte) '\n');
+        lineCount++;
+        return true;
+    }
+}
@@ -46,6 +46,13 @@ public interface LineUdpReceiverConfiguration {
 
     int getPort();
 
+    /**
+     * Number of sockets bound to the same port via SO_REUSEPORT. Each socket is drained
+     * by its own receiver, which hands lines over to table-owning writer jobs.
+     * Values greater than 1 only take effect for unicast.
+     */
+    int getReceiverCount();
+
     int getReceiveBufferSize();
 
     CairoSecurityContext getCairoSecurityContext();
@@ -59,4 +66,11 @@ public interface LineUdpReceiverConfiguration {
     int ownThreadAffinity();
 
     LineProtoTimestampAdapter getTimestampAdapter();
+
+    /**
+     * Number of writer jobs tables are sharded across when more than one receiver is configured.
+     */
+    int getWriterCount();
+
+    int getWriterQueueCapacity();
 }
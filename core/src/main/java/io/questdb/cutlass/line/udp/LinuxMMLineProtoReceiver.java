@@ -37,7 +37,16 @@ public class LinuxMMLineProtoReceiver extends AbstractLineProtoReceiver {
             CairoEngine engine,
             WorkerPool workerPool
     ) {
-        super(configuration, engine, workerPool);
+        this(configuration, engine, workerPool, null);
+    }
+
+    public LinuxMMLineProtoReceiver(
+            LineUdpReceiverConfiguration configuration,
+            CairoEngine engine,
+            WorkerPool workerPool,
+            LineProtoDispatcher dispatcher
+    ) {
+        super(configuration, engine, workerPool, dispatcher);
         this.msgCount = configuration.getMsgCount();
         msgVec = nf.msgHeaders(configuration.getMsgBufferSize(), msgCount);
     }
@@ -59,8 +68,7 @@ public class LinuxMMLineProtoReceiver extends AbstractLineProtoReceiver {
             long p = msgVec;
             for (int i = 0; i < count; i++) {
                 long buf = nf.getMMsgBuf(p);
-                lexer.parse(buf, buf + nf.getMMsgBufLen(p));
-                lexer.parseLast();
+                consume(buf, buf + nf.getMMsgBufLen(p));
                 p += Net.MMSGHDR_SIZE;
             }
 
@@ -68,7 +76,7 @@ public class LinuxMMLineProtoReceiver extends AbstractLineProtoReceiver {
 
             if (totalCount > commitRate) {
                 totalCount = 0;
-                parser.commitAll(commitMode);
+                commit();
             }
 
             if (ran) {
@@ -77,7 +85,7 @@ public class LinuxMMLineProtoReceiver extends AbstractLineProtoReceiver {
 
             ran = true;
         }
-        parser.commitAll(commitMode);
+        commit();
         return ran;
     }
 }
@@ -123,6 +123,8 @@ public class PGConnectionContext implements IOContext, Mutable {
     private CharSequence username;
     private boolean authenticationRequired = true;
     private long transientCopyBuffer = 0;
+    private final MemoryTracker memoryTracker = new MemoryTracker();
+    private final long queryMemoryLimit;
     private IODispatcher<PGConnectionContext> dispatcher;
     private Rnd rnd;
 
@@ -134,9 +136,9 @@ public class PGConnectionContext implements IOContext, Mutable {
     ) {
         this.nf = configuration.getNetworkFacade();
         this.recvBufferSize = Numbers.ceilPow2(configuration.getRecvBufferSize());
-        this.recvBuffer = Unsafe.malloc(this.recvBufferSize);
+        this.recvBuffer = Unsafe.malloc(this.recvBufferSize, MemoryTag.NATIVE_NETWORK);
         this.sendBufferSize = Numbers.ceilPow2(configuration.getSendBufferSize());
-        this.sendBuffer = Unsafe.malloc(this.sendBufferSize);
+        this.sendBuffer = Unsafe.malloc(this.sendBufferSize, MemoryTag.NATIVE_NETWORK);
         this.sendBufferPtr = sendBuffer;
         this.sendBufferLimit = sendBuffer + sendBufferSize;
         this.queryCharacterStore = new CharacterStore(
@@ -152,7 +154,8 @@ public class PGConnectionContext implements IOContext, Mutable {
         this.authenticator = new PGBasicAuthenticator(configuration.getDefaultUsername(), configuration.getDefaultPassword());
         this.dateLocale = configuration.getDefaultDateLocale();
         this.timestampLocale = configuration.getDefaultTimestampLocale();
-        this.sqlExecutionContext = new SqlExecutionContextImpl(messageBus, workerCount, engine);
+        this.sqlExecutionContext = new SqlExecutionContextImpl(messageBus, workerCount, engine).with(memoryTracker);
+        this.queryMemoryLimit = engine.getConfiguration().getSqlQueryMemoryLimit();
         populateAppender();
     }
 
@@ -226,8 +229,8 @@ public class PGConnectionContext implements IOContext, Mutable {
         clear();
         this.fd = -1;
         sqlExecutionContext.with(AllowAllCairoSecurityContext.INSTANCE, null, null, -1, null);
-        Unsafe.free(sendBuffer, sendBufferSize);
-        Unsafe.free(recvBuffer, recvBufferSize);
+        Unsafe.free(sendBuffer, sendBufferSize, MemoryTag.NATIVE_NETWORK);
+        Unsafe.free(recvBuffer, recvBufferSize, MemoryTag.NATIVE_NETWORK);
         Misc.free(path);
     }
 
@@ -1025,6 +1028,7 @@ public class PGConnectionContext implements IOContext, Mutable {
     private void processExecute() throws PeerDisconnectedException, PeerIsSlowToReadException {
         if (currentFactory != null) {
             LOG.info().$("executing query").$();
+            memoryTracker.of(queryMemoryLimit);
             currentCursor = currentFactory.getCursor(sqlExecutionContext);
             // cache random if it was replaced
             this.rnd = sqlExecutionContext.getRandom();
@@ -1233,6 +1237,7 @@ public class PGConnectionContext implements IOContext, Mutable {
     ) throws BadProtocolException, SqlException, PeerDisconnectedException, PeerIsSlowToReadException {
         // vanilla query
         prepareForNewQuery();
+        memoryTracker.of(queryMemoryLimit);
         parseQueryText(lo, limit - 1);
 
         if (SqlKeywords.isSemicolon(queryText)) {
@@ -1351,7 +1356,7 @@ public class PGConnectionContext implements IOContext, Mutable {
                 }
             }
             responseAsciiSink.putLen(addr);
-            transientCopyBuffer = Unsafe.malloc(1024 * 1024);
+            transientCopyBuffer = Unsafe.malloc(1024 * 1024, MemoryTag.NATIVE_NETWORK);
             send();
         } else {
             prepareError(SqlException.$(0, "table '").put(textLoader.getTableName()).put("' does not exist"));
@@ -1392,6 +1397,7 @@ public class PGConnectionContext implements IOContext, Mutable {
             }
         }
 
+        LOG.info().$("query complete [peakMemory=").$(memoryTracker.getPeak()).$(']').$();
         prepareForNewQuery();
         send(TAIL_SUCCESS);
         sendExecuteTail();
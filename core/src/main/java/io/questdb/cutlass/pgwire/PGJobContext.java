@@ -26,6 +26,7 @@ package io.questdb.cutlass.pgwire;
 
 import io.questdb.MessageBus;
 import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.sql.RecordCursorFactory;
 import io.questdb.griffin.FunctionFactoryCache;
 import io.questdb.griffin.SqlCompiler;
 import io.questdb.network.PeerDisconnectedException;
@@ -63,6 +64,10 @@ public class PGJobContext implements Closeable {
         );
     }
 
+    public void cacheFactory(CharSequence queryText, RecordCursorFactory factory) {
+        factoryCache.put(queryText, factory);
+    }
+
     @Override
     public void close() {
         Misc.free(compiler);
@@ -28,6 +28,7 @@ import io.questdb.MessageBus;
 import io.questdb.WorkerPoolAwareConfiguration;
 import io.questdb.cairo.CairoEngine;
 import io.questdb.griffin.FunctionFactoryCache;
+import io.questdb.griffin.QueryWarmUpJob;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.mp.EagerThreadSetup;
@@ -35,6 +36,7 @@ import io.questdb.mp.Job;
 import io.questdb.mp.WorkerPool;
 import io.questdb.network.*;
 import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
 import io.questdb.std.ThreadLocal;
 import io.questdb.std.WeakObjectPool;
 import org.jetbrains.annotations.Nullable;
@@ -61,8 +63,12 @@ public class PGWireServer implements Closeable {
 
         workerPool.assign(dispatcher);
 
+        final ObjList<String> warmUpQueries = QueryWarmUpJob.parseQueries(engine.getConfiguration().getWarmUpQueries());
         for (int i = 0, n = workerPool.getWorkerCount(); i < n; i++) {
             final PGJobContext jobContext = new PGJobContext(configuration, engine, messageBus, functionFactoryCache);
+            if (warmUpQueries.size() > 0) {
+                workerPool.assign(i, new QueryWarmUpJob(engine, messageBus, functionFactoryCache, warmUpQueries, n, jobContext::cacheFactory));
+            }
             workerPool.assign(i, new Job() {
                 private final IORequestProcessor<PGConnectionContext> processor = (operation, context) -> {
                     try {
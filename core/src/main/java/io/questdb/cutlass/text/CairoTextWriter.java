@@ -347,6 +347,16 @@ public class CairoTextWriter implements Closeable, Mutable {
             return false;
         }
 
+        @Override
+        public boolean isDedupKey(int columnIndex) {
+            return false;
+        }
+
+        @Override
+        public int getTtlHours() {
+            return 0;
+        }
+
         @Override
         public int getPartitionBy() {
             return partitionBy;
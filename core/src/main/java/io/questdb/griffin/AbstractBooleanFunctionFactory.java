@@ -27,6 +27,17 @@ package io.questdb.griffin;
 public abstract class AbstractBooleanFunctionFactory {
     protected boolean isNegated = false;
 
+    /**
+     * Factories of "<" operator are also used to create ">" and "<=" operators with
+     * arguments swapped around. Factory that has arguments of different types must
+     * be able to create function when its arguments arrive in reverse order.
+     *
+     * @return true when factory handles arguments in either order
+     */
+    public boolean supportsSwappedArgs() {
+        return false;
+    }
+
     public void setNegated(boolean isNegated) {
         this.isNegated = isNegated;
     }
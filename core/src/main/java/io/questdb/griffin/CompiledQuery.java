@@ -50,4 +50,9 @@ public interface CompiledQuery {
     TextLoader getTextLoader();
 
     short getType();
+
+    /**
+     * @return number of rows SELECT is expected to scan, 0 for other query types
+     */
+    long getScanRowEstimate();
 }
@@ -33,6 +33,7 @@ public class CompiledQueryImpl implements CompiledQuery {
     private InsertStatement insertStatement;
     private TextLoader textLoader;
     private short type;
+    private long scanRowEstimate;
 
     @Override
     public RecordCursorFactory getRecordCursorFactory() {
@@ -54,10 +55,21 @@ public class CompiledQueryImpl implements CompiledQuery {
         return type;
     }
 
+    @Override
+    public long getScanRowEstimate() {
+        return scanRowEstimate;
+    }
+
     CompiledQuery of(RecordCursorFactory recordCursorFactory) {
         return of(SELECT, recordCursorFactory);
     }
 
+    CompiledQuery of(RecordCursorFactory recordCursorFactory, long scanRowEstimate) {
+        of(SELECT, recordCursorFactory);
+        this.scanRowEstimate = scanRowEstimate;
+        return this;
+    }
+
     private CompiledQuery of(short type) {
         return of(type, null);
     }
@@ -65,6 +77,7 @@ public class CompiledQueryImpl implements CompiledQuery {
     private CompiledQuery of(short type, RecordCursorFactory factory) {
         this.type = type;
         this.recordCursorFactory = factory;
+        this.scanRowEstimate = 0;
         return this;
     }
 
@@ -63,10 +63,13 @@ public class FunctionFactoryCache {
                         case "=":
                             addFactory(booleanFactories, "!=", factory);
                             break;
+                        case "~=":
+                            addFactory(booleanFactories, "!~", factory);
+                            break;
                         case "<":
                             // `a < b` == `a >= b`
                             addFactory(booleanFactories, ">=", factory);
-                            if (sig.charAt(2) == sig.charAt(3)) {
+                            if (sig.charAt(2) == sig.charAt(3) || ((AbstractBooleanFunctionFactory) factory).supportsSwappedArgs()) {
                                 // `a < b` == `b > a`
                                 addFactory(commutativeBooleanFactories, ">", factory);
                                 // `a < b` == `b > a` == `b <= a`
@@ -5,21 +5,36 @@ import java.io.Closeable;
 import io.questdb.cairo.CairoException;
 import io.questdb.network.NetworkFacade;
 import io.questdb.std.Unsafe;
+import io.questdb.std.time.MillisecondClock;
 
 public class HttpSqlExecutionInterruptor implements SqlExecutionInterruptor, Closeable {
     private final NetworkFacade nf;
     private final int nIterationsPerCheck;
     private final int bufferSize;
+    private final MillisecondClock clock;
+    private final boolean checkConnection;
     private long buffer;
     private int nIterationsSinceCheck;
     private long fd = -1;
+    private long deadline = Long.MAX_VALUE;
 
-    public HttpSqlExecutionInterruptor(NetworkFacade nf, int nIterationsPerCheck, int bufferSize) {
+    public HttpSqlExecutionInterruptor(NetworkFacade nf, MillisecondClock clock, int nIterationsPerCheck, int bufferSize) {
+        this(nf, clock, nIterationsPerCheck, bufferSize, true);
+    }
+
+    /**
+     * @param checkConnection when false interruptor only enforces query deadline and does not
+     *                        check if client closed the connection
+     */
+    public HttpSqlExecutionInterruptor(NetworkFacade nf, MillisecondClock clock, int nIterationsPerCheck, int bufferSize, boolean checkConnection) {
         super();
         this.nf = nf;
+        this.clock = clock;
         this.nIterationsPerCheck = nIterationsPerCheck;
         this.bufferSize = bufferSize;
-        buffer = Unsafe.malloc(bufferSize);
+        this.checkConnection = checkConnection;
+        // peek buffer is needed only to check connection
+        buffer = checkConnection ? Unsafe.malloc(bufferSize) : 0;
     }
 
     @Override
@@ -27,12 +42,21 @@ public class HttpSqlExecutionInterruptor implements SqlExecutionInterruptor, Clo
         assert fd != -1;
         if (nIterationsSinceCheck == nIterationsPerCheck) {
             nIterationsSinceCheck = 0;
-            checkConnection();
+            checkDeadline();
+            if (checkConnection) {
+                checkConnection();
+            }
         } else {
             nIterationsSinceCheck++;
         }
     }
 
+    private void checkDeadline() {
+        if (deadline != Long.MAX_VALUE && clock.getTicks() > deadline) {
+            throw CairoException.instance(0).put("timeout, query aborted [fd=").put(fd).put(']').setInterruption(true);
+        }
+    }
+
     private void checkConnection() {
         int nRead = nf.peek(fd, buffer, bufferSize);
         if (nRead == 0) {
@@ -58,16 +82,29 @@ public class HttpSqlExecutionInterruptor implements SqlExecutionInterruptor, Clo
     }
 
     public HttpSqlExecutionInterruptor of(long fd) {
-        assert buffer != 0;
+        assert buffer != 0 || !checkConnection;
         nIterationsSinceCheck = 0;
         this.fd = fd;
+        this.deadline = Long.MAX_VALUE;
         return this;
     }
 
+    /**
+     * Sets wall clock time in milliseconds after which running query is interrupted.
+     * Deadline is reset when interruptor is assigned to next connection.
+     *
+     * @param deadline epoch milliseconds, Long.MAX_VALUE for no deadline
+     */
+    public void setDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
     @Override
     public void close() {
-        Unsafe.free(buffer, bufferSize);
-        buffer = 0;
+        if (buffer != 0) {
+            Unsafe.free(buffer, bufferSize);
+            buffer = 0;
+        }
         fd = -1;
     }
 }
@@ -51,6 +51,8 @@ public final class OperatorExpression {
         add(new OperatorExpression("!~", 7, true, BINARY));
         add(new OperatorExpression("~=", 7, true, BINARY));
         add(new OperatorExpression("in", 7, true, SET, false));
+        add(new OperatorExpression("like", 7, true, BINARY, false));
+        add(new OperatorExpression("ilike", 7, true, BINARY, false));
         add(new OperatorExpression("and", 11, true, BINARY, false));
         add(new OperatorExpression("or", 11, true, BINARY, false));
         add(new OperatorExpression("not", 11, true, UNARY, false));
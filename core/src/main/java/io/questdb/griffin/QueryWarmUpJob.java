@@ -0,0 +1,125 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+package io.questdb.griffin;
+
+import io.questdb.MessageBus;
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.Job;
+import io.questdb.std.Chars;
+import io.questdb.std.ObjList;
+import io.questdb.std.Sinkable;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Compiles saved queries, see {@link io.questdb.cairo.CairoConfiguration#getWarmUpQueries()},
+ * into query cache of a worker once, on first run. Query caches are owned by workers,
+ * therefore server assigns own instance of this job to each of its workers. Factories
+ * are compiled without being executed and queries that are not SELECTs are skipped.
+ */
+public class QueryWarmUpJob implements Job {
+    private static final Log LOG = LogFactory.getLog(QueryWarmUpJob.class);
+    private final CairoEngine engine;
+    private final MessageBus messageBus;
+    private final FunctionFactoryCache functionFactoryCache;
+    private final ObjList<String> queries;
+    private final FactoryCache cache;
+    private final int workerCount;
+    private boolean done = false;
+
+    public QueryWarmUpJob(
+            CairoEngine engine,
+            @Nullable MessageBus messageBus,
+            @Nullable FunctionFactoryCache functionFactoryCache,
+            ObjList<String> queries,
+            int workerCount,
+            FactoryCache cache
+    ) {
+        this.engine = engine;
+        this.messageBus = messageBus;
+        this.functionFactoryCache = functionFactoryCache;
+        this.queries = queries;
+        this.workerCount = workerCount;
+        this.cache = cache;
+    }
+
+    /**
+     * Splits semicolon separated list of queries. Blank entries are ignored.
+     *
+     * @param queries list of queries, can be null
+     * @return list of trimmed queries, empty when there is nothing to compile
+     */
+    public static ObjList<String> parseQueries(@Nullable CharSequence queries) {
+        final ObjList<String> result = new ObjList<>();
+        if (queries != null) {
+            int lo = 0;
+            for (int i = 0, n = queries.length(); i <= n; i++) {
+                if (i == n || queries.charAt(i) == ';') {
+                    final String query = Chars.toString(queries, lo, i).trim();
+                    if (query.length() > 0) {
+                        result.add(query);
+                    }
+                    lo = i + 1;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean run(int workerId) {
+        if (done) {
+            return false;
+        }
+        done = true;
+
+        int count = 0;
+        try (SqlCompiler compiler = new SqlCompiler(engine, messageBus, functionFactoryCache)) {
+            final SqlExecutionContextImpl executionContext = new SqlExecutionContextImpl(messageBus, workerCount, engine)
+                    .with(AllowAllCairoSecurityContext.INSTANCE, null, null);
+            for (int i = 0, n = queries.size(); i < n; i++) {
+                final String query = queries.getQuick(i);
+                try {
+                    cache.put(query, compiler.compileSelect(query, executionContext));
+                    count++;
+                } catch (SqlException e) {
+                    LOG.error().$("could not compile saved query [q=`").utf8(query).$("`, at=").$(e.getPosition()).$(", error=").$(e.getFlyweightMessage()).$(']').$();
+                } catch (CairoException e) {
+                    LOG.error().$("could not compile saved query [q=`").utf8(query).$("`, e=").$((Sinkable) e).$(']').$();
+                }
+            }
+        }
+        LOG.info().$("saved queries compiled [worker=").$(workerId).$(", count=").$(count).$(", total=").$(queries.size()).$(']').$();
+        return true;
+    }
+
+    @FunctionalInterface
+    public interface FactoryCache {
+        void put(CharSequence query, RecordCursorFactory factory);
+    }
+}
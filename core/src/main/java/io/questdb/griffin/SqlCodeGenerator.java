@@ -30,13 +30,17 @@ import io.questdb.cairo.map.RecordValueSinkFactory;
 import io.questdb.cairo.sql.*;
 import io.questdb.griffin.engine.EmptyTableRecordCursorFactory;
 import io.questdb.griffin.engine.LimitRecordCursorFactory;
+import io.questdb.griffin.engine.functions.AbstractSymbolPredicateFunction;
 import io.questdb.griffin.engine.functions.GroupByFunction;
 import io.questdb.griffin.engine.functions.SymbolFunction;
+import io.questdb.griffin.engine.functions.bool.AndFunctionFactory;
+import io.questdb.griffin.engine.functions.columns.SymbolColumn;
 import io.questdb.griffin.engine.functions.constants.LongConstant;
 import io.questdb.griffin.engine.groupby.*;
 import io.questdb.griffin.engine.groupby.vect.GroupByRecordCursorFactory;
 import io.questdb.griffin.engine.groupby.vect.*;
 import io.questdb.griffin.engine.join.*;
+import io.questdb.griffin.engine.orderby.RecordComparator;
 import io.questdb.griffin.engine.orderby.RecordComparatorCompiler;
 import io.questdb.griffin.engine.orderby.SortedLightRecordCursorFactory;
 import io.questdb.griffin.engine.orderby.SortedRecordCursorFactory;
@@ -50,12 +54,15 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import static io.questdb.griffin.SqlKeywords.*;
+import static io.questdb.griffin.model.ExpressionNode.CONSTANT;
 import static io.questdb.griffin.model.ExpressionNode.FUNCTION;
 import static io.questdb.griffin.model.ExpressionNode.LITERAL;
+import static io.questdb.griffin.model.ExpressionNode.OPERATION;
 
 public class SqlCodeGenerator implements Mutable {
     public static final int GKK_VANILLA_INT = 0;
     public static final int GKK_HOUR_INT = 1;
+    public static final int GKK_VANILLA_LONG = 2;
     private static final IntHashSet limitTypes = new IntHashSet();
     private static final FullFatJoinGenerator CREATE_FULL_FAT_LT_JOIN = SqlCodeGenerator::createFullFatLtJoin;
     private static final FullFatJoinGenerator CREATE_FULL_FAT_AS_OF_JOIN = SqlCodeGenerator::createFullFatAsOfJoin;
@@ -122,6 +129,8 @@ public class SqlCodeGenerator implements Mutable {
     private final IntHashSet intHashSet = new IntHashSet();
     private final ArrayColumnTypes keyTypes = new ArrayColumnTypes();
     private final ArrayColumnTypes valueTypes = new ArrayColumnTypes();
+    private final AndFunctionFactory andFunctionFactory = new AndFunctionFactory();
+    private final ObjList<Function> andArgs = new ObjList<>();
     private final EntityColumnFilter entityColumnFilter = new EntityColumnFilter();
     private final ObjList<CharSequence> symbolValueList = new ObjList<>();
     private final ObjList<VectorAggregateFunction> tempVaf = new ObjList<>();
@@ -135,6 +144,7 @@ public class SqlCodeGenerator implements Mutable {
     private final IntList tempVecConstructorArgIndexes = new IntList();
     private final IntList tempKeyKinds = new IntList();
     private boolean fullFatJoins = false;
+    private long scanRowEstimate;
 
     public SqlCodeGenerator(
             CairoEngine engine,
@@ -180,6 +190,74 @@ public class SqlCodeGenerator implements Mutable {
     @Override
     public void clear() {
         whereClauseParser.clear();
+        scanRowEstimate = 0;
+    }
+
+    private static long estimateScanRows(TableReader reader, @Nullable LongList intervals) {
+        final long rows = reader.size();
+        final long lo = reader.getMinTimestamp();
+        final long hi = reader.getMaxTimestamp();
+        if (intervals == null || rows == 0 || hi <= lo) {
+            return rows;
+        }
+
+        // assume rows are evenly spread between min and max timestamp of the table
+        long covered = 0;
+        for (int i = 0, n = intervals.size(); i < n; i += 2) {
+            final long l = Math.max(lo, intervals.getQuick(i));
+            final long h = Math.min(hi, intervals.getQuick(i + 1));
+            if (h >= l) {
+                covered += h - l + 1;
+            }
+        }
+        return (long) (rows * Math.min(1.0, (double) covered / (hi - lo + 1)));
+    }
+
+    // returns index of hour(column) in virtual model, -1 when there is none
+    private static int findHourColumn(QueryModel model) {
+        if (model.getSelectModelType() == QueryModel.SELECT_MODEL_VIRTUAL) {
+            final ObjList<QueryColumn> columns = model.getColumns();
+            for (int i = 0, n = columns.size(); i < n; i++) {
+                final ExpressionNode ast = columns.getQuick(i).getAst();
+                if (ast.type == FUNCTION && isHourKeyword(ast.token) && ast.paramCount == 1 && ast.rhs.type == LITERAL) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isMultiKeySupported(ObjList<VectorAggregateFunction> vafList) {
+        for (int i = 0, n = vafList.size(); i < n; i++) {
+            if (!vafList.getQuick(i).isMultiKeySupported()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isRostiSupported(ObjList<VectorAggregateFunction> vafList) {
+        for (int i = 0, n = vafList.size(); i < n; i++) {
+            if (!vafList.getQuick(i).isRostiSupported()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSymbolPredicateCandidate(@Nullable ExpressionNode filter, RecordMetadata metadata) {
+        if (filter != null
+                && filter.type == OPERATION
+                && filter.paramCount == 2
+                && (Chars.equals(filter.token, "~=") || Chars.equals(filter.token, "!~"))
+                && filter.lhs.type == LITERAL
+                && filter.rhs.type == CONSTANT) {
+            final int columnIndex = metadata.getColumnIndexQuiet(filter.lhs.token);
+            return columnIndex > -1
+                    && metadata.getColumnType(columnIndex) == ColumnType.SYMBOL
+                    && metadata.isColumnIndexed(columnIndex);
+        }
+        return false;
     }
 
     private RecordCursorFactory createAsOfJoin(
@@ -436,6 +514,13 @@ public class SqlCodeGenerator implements Mutable {
 
         if (slave.recordCursorSupportsRandomAccess() && !fullFatJoins) {
             if (joinType == QueryModel.JOIN_INNER) {
+                // bloom filter over slave keys is pushed down to master to reject records early
+                JoinKeyBloomFilter bloomFilter = null;
+                final int bitsPerKey = configuration.getSqlHashJoinBloomFilterBitsPerKey();
+                if (bitsPerKey > 0 && isJoinKeyBloomFilterSupported(masterMetadata)) {
+                    bloomFilter = new JoinKeyBloomFilter(bitsPerKey);
+                    master = pushDownFilter(master, new JoinKeyBloomFilterFunction(0, bloomFilter, masterMetadata, listColumnFilterB));
+                }
                 return new HashJoinLightRecordCursorFactory(
                         configuration,
                         metadata,
@@ -445,7 +530,8 @@ public class SqlCodeGenerator implements Mutable {
                         valueTypes,
                         masterKeySink,
                         slaveKeySink,
-                        masterMetadata.getColumnCount()
+                        masterMetadata.getColumnCount(),
+                        bloomFilter
                 );
             }
 
@@ -556,6 +642,73 @@ public class SqlCodeGenerator implements Mutable {
             columnIndex = metadata.getColumnIndex(ast.rhs.token);
             tempVecConstructorArgIndexes.add(columnIndex);
             return maxConstructors.get(metadata.getColumnType(columnIndex));
+        } else if (isSingleColumnFunction(ast, "approx_count_distinct")) {
+            columnIndex = metadata.getColumnIndex(ast.rhs.token);
+            final int type = metadata.getColumnType(columnIndex);
+            if (type == ColumnType.INT || type == ColumnType.SYMBOL) {
+                tempVecConstructorArgIndexes.add(columnIndex);
+                return ApproxCountDistinctIntVectorAggregateFunction.CONSTRUCTOR;
+            }
+        } else if (isSingleColumnFunction(ast, "first")) {
+            return assembleFirstLastReference(metadata, ast.rhs, FirstLastKind.FIRST);
+        } else if (isSingleColumnFunction(ast, "last")) {
+            return assembleFirstLastReference(metadata, ast.rhs, FirstLastKind.LAST);
+        } else if (isSingleColumnFunction(ast, "first_not_null")) {
+            return assembleFirstLastReference(metadata, ast.rhs, FirstLastKind.FIRST_NOT_NULL);
+        } else if (isSingleColumnFunction(ast, "last_not_null")) {
+            return assembleFirstLastReference(metadata, ast.rhs, FirstLastKind.LAST_NOT_NULL);
+        } else if (isSingleColumnFunction(ast, "approx_median")) {
+            return assembleApproxPercentileReference(metadata, ast.rhs, 0.5);
+        } else if (ast.type == FUNCTION
+                && ast.paramCount == 2
+                && Chars.equals(ast.token, "approx_percentile")
+                && ast.lhs.type == LITERAL
+                && ast.rhs.type == CONSTANT
+        ) {
+            try {
+                final double percentile = Numbers.parseDouble(ast.rhs.token);
+                if (percentile >= 0 && percentile <= 1) {
+                    return assembleApproxPercentileReference(metadata, ast.lhs, percentile);
+                }
+            } catch (NumericException ignore) {
+                // let function parser report the error
+            }
+        }
+        return null;
+    }
+
+    private VectorAggregateFunctionConstructor assembleFirstLastReference(RecordMetadata metadata, ExpressionNode column, int kind) {
+        final int columnIndex = metadata.getColumnIndex(column.token);
+        final VectorAggregateFunctionConstructor constructor;
+        switch (metadata.getColumnType(columnIndex)) {
+            case ColumnType.INT:
+                constructor = (position, keyKind, index, workerCount) -> new FirstLastIntVectorAggregateFunction(position, index, kind);
+                break;
+            case ColumnType.LONG:
+                constructor = (position, keyKind, index, workerCount) -> new FirstLastLongVectorAggregateFunction(position, index, kind);
+                break;
+            case ColumnType.DOUBLE:
+                constructor = (position, keyKind, index, workerCount) -> new FirstLastDoubleVectorAggregateFunction(position, index, kind);
+                break;
+            case ColumnType.DATE:
+                constructor = (position, keyKind, index, workerCount) -> new FirstLastDateVectorAggregateFunction(position, index, kind);
+                break;
+            case ColumnType.TIMESTAMP:
+                constructor = (position, keyKind, index, workerCount) -> new FirstLastTimestampVectorAggregateFunction(position, index, kind);
+                break;
+            default:
+                return null;
+        }
+        tempVecConstructorArgIndexes.add(columnIndex);
+        return constructor;
+    }
+
+    private VectorAggregateFunctionConstructor assembleApproxPercentileReference(RecordMetadata metadata, ExpressionNode column, double percentile) {
+        final int columnIndex = metadata.getColumnIndex(column.token);
+        final int type = metadata.getColumnType(columnIndex);
+        if (type == ColumnType.INT || type == ColumnType.LONG || type == ColumnType.DOUBLE) {
+            tempVecConstructorArgIndexes.add(columnIndex);
+            return (position, keyKind, index, workerCount) -> new ApproxPercentileVectorAggregateFunction(position, index, type, workerCount, percentile);
         }
         return null;
     }
@@ -634,7 +787,17 @@ public class SqlCodeGenerator implements Mutable {
                         case QueryModel.JOIN_ASOF:
                             validateBothTimestamps(slaveModel, masterMetadata, slaveMetadata);
                             processJoinContext(index == 1, slaveModel.getContext(), masterMetadata, slaveMetadata);
-                            if (slave.recordCursorSupportsRandomAccess() && !fullFatJoins) {
+                            if (isIndexedTimeSeriesJoinSupported(slave, executionContext)) {
+                                master = new AsOfJoinIndexedRecordCursorFactory(
+                                        createJoinMetadata(masterAlias, masterMetadata, slaveModel.getName(), slaveMetadata),
+                                        master,
+                                        (TableReaderRecordCursorFactory) slave,
+                                        masterMetadata.getColumnCount(),
+                                        listColumnFilterB.size() > 0 ? listColumnFilterB.getColumnIndex(0) : -1,
+                                        listColumnFilterA.size() > 0 ? listColumnFilterA.getColumnIndex(0) : -1,
+                                        false
+                                );
+                            } else if (slave.recordCursorSupportsRandomAccess() && !fullFatJoins) {
                                 if (listColumnFilterA.size() > 0 && listColumnFilterB.size() > 0) {
                                     master = createAsOfJoin(
                                             createJoinMetadata(masterAlias, masterMetadata, slaveModel.getName(), slaveMetadata),
@@ -679,7 +842,17 @@ public class SqlCodeGenerator implements Mutable {
                         case QueryModel.JOIN_LT:
                             validateBothTimestamps(slaveModel, masterMetadata, slaveMetadata);
                             processJoinContext(index == 1, slaveModel.getContext(), masterMetadata, slaveMetadata);
-                            if (slave.recordCursorSupportsRandomAccess() && !fullFatJoins) {
+                            if (isIndexedTimeSeriesJoinSupported(slave, executionContext)) {
+                                master = new AsOfJoinIndexedRecordCursorFactory(
+                                        createJoinMetadata(masterAlias, masterMetadata, slaveModel.getName(), slaveMetadata),
+                                        master,
+                                        (TableReaderRecordCursorFactory) slave,
+                                        masterMetadata.getColumnCount(),
+                                        listColumnFilterB.size() > 0 ? listColumnFilterB.getColumnIndex(0) : -1,
+                                        listColumnFilterA.size() > 0 ? listColumnFilterA.getColumnIndex(0) : -1,
+                                        true
+                                );
+                            } else if (slave.recordCursorSupportsRandomAccess() && !fullFatJoins) {
                                 if (listColumnFilterA.size() > 0 && listColumnFilterB.size() > 0) {
                                     master = createLtJoin(
                                             createJoinMetadata(masterAlias, masterMetadata, slaveModel.getName(), slaveMetadata),
@@ -750,12 +923,34 @@ public class SqlCodeGenerator implements Mutable {
                             break;
                         default:
                             processJoinContext(index == 1, slaveModel.getContext(), masterMetadata, slaveMetadata);
-                            master = createHashJoin(
-                                    createJoinMetadata(masterAlias, masterMetadata, slaveModel.getName(), slaveMetadata),
-                                    master,
-                                    slave,
-                                    joinType
-                            );
+                            if (isMergeJoinSupported(masterMetadata, slave)) {
+                                master = new MergeJoinRecordCursorFactory(
+                                        configuration,
+                                        createJoinMetadata(masterAlias, masterMetadata, slaveModel.getName(), slaveMetadata),
+                                        master,
+                                        slave,
+                                        masterMetadata.getColumnCount(),
+                                        joinType == QueryModel.JOIN_OUTER
+                                );
+                            } else if (isParallelHashJoinSupported(master, slave, executionContext)) {
+                                master = new ParallelHashJoinRecordCursorFactory(
+                                        configuration,
+                                        createJoinMetadata(masterAlias, masterMetadata, slaveModel.getName(), slaveMetadata),
+                                        (TableReaderRecordCursorFactory) master,
+                                        (TableReaderRecordCursorFactory) slave,
+                                        listColumnFilterB.getColumnIndex(0),
+                                        listColumnFilterA.getColumnIndex(0),
+                                        masterMetadata.getColumnCount(),
+                                        joinType == QueryModel.JOIN_OUTER
+                                );
+                            } else {
+                                master = createHashJoin(
+                                        createJoinMetadata(masterAlias, masterMetadata, slaveModel.getName(), slaveMetadata),
+                                        master,
+                                        slave,
+                                        joinType
+                                );
+                            }
                             masterAlias = null;
                             break;
                     }
@@ -1068,12 +1263,34 @@ public class SqlCodeGenerator implements Mutable {
                 }
                 orderedMetadata = GenericRecordMetadata.copyOfSansTimestamp(metadata);
 
+                // symbol keys can be compared by rank when tables maintain them
+                IntList rankColumns = null;
+                RecordComparator rankComparator = null;
+                if (configuration.isSymbolRankEnabled()) {
+                    for (int i = 0, n = listColumnFilterA.size(); i < n; i++) {
+                        // filter holds 1-based indexes, negative for descending order
+                        final int key = listColumnFilterA.getQuick(i);
+                        final int index = (key > 0 ? key : -key) - 1;
+                        if (metadata.getColumnType(index) == ColumnType.SYMBOL) {
+                            if (rankColumns == null) {
+                                rankColumns = new IntList();
+                            }
+                            rankColumns.add(index);
+                        }
+                    }
+                    if (rankColumns != null) {
+                        rankComparator = recordComparatorCompiler.compile(metadata, listColumnFilterA, true);
+                    }
+                }
+
                 if (recordCursorFactory.recordCursorSupportsRandomAccess()) {
                     return new SortedLightRecordCursorFactory(
                             configuration,
                             orderedMetadata,
                             recordCursorFactory,
-                            recordComparatorCompiler.compile(metadata, listColumnFilterA)
+                            recordComparatorCompiler.compile(metadata, listColumnFilterA),
+                            rankComparator,
+                            rankColumns
                     );
                 }
 
@@ -1093,7 +1310,9 @@ public class SqlCodeGenerator implements Mutable {
                                 entityColumnFilter,
                                 false
                         ),
-                        recordComparatorCompiler.compile(metadata, listColumnFilterA)
+                        recordComparatorCompiler.compile(metadata, listColumnFilterA),
+                        rankComparator,
+                        rankColumns
                 );
             }
 
@@ -1494,6 +1713,30 @@ public class SqlCodeGenerator implements Mutable {
         }
     }
 
+    private boolean addVectorKey(int indexInThis, int indexInBase, int type) {
+        switch (type) {
+            case ColumnType.SYMBOL:
+                // symbol keys are aggregated by their int keys
+                tempSymbolSkewIndexes.extendAndSet(indexInThis, indexInBase);
+                tempKeyKinds.add(GKK_VANILLA_INT);
+                break;
+            case ColumnType.INT:
+                tempKeyKinds.add(GKK_VANILLA_INT);
+                break;
+            case ColumnType.LONG:
+            case ColumnType.DATE:
+            case ColumnType.TIMESTAMP:
+                tempKeyKinds.add(GKK_VANILLA_LONG);
+                break;
+            default:
+                return false;
+        }
+        tempKeyIndexesInBase.add(indexInBase);
+        tempKeyIndex.add(indexInThis);
+        arrayColumnTypes.add(type);
+        return true;
+    }
+
     private boolean assembleKeysAndFunctionReferences(
             ObjList<QueryColumn> columns,
             RecordMetadata metadata,
@@ -1501,7 +1744,6 @@ public class SqlCodeGenerator implements Mutable {
     ) {
         tempVaf.clear();
         tempMetadata.clear();
-        tempSymbolSkewIndexes.clear();
         tempVecConstructors.clear();
         tempVecConstructorArgIndexes.clear();
         tempAggIndex.clear();
@@ -1512,19 +1754,7 @@ public class SqlCodeGenerator implements Mutable {
             if (ast.type == LITERAL) {
                 if (checkLiterals) {
                     final int columnIndex = metadata.getColumnIndex(ast.token);
-                    final int type = metadata.getColumnType(columnIndex);
-                    if (type == ColumnType.INT) {
-                        tempKeyIndexesInBase.add(columnIndex);
-                        tempKeyIndex.add(i);
-                        arrayColumnTypes.add(ColumnType.INT);
-                        tempKeyKinds.add(GKK_VANILLA_INT);
-                    } else if (type == ColumnType.SYMBOL) {
-                        tempKeyIndexesInBase.add(columnIndex);
-                        tempKeyIndex.add(i);
-                        tempSymbolSkewIndexes.extendAndSet(i, columnIndex);
-                        arrayColumnTypes.add(ColumnType.SYMBOL);
-                        tempKeyKinds.add(GKK_VANILLA_INT);
-                    } else {
+                    if (!addVectorKey(i, columnIndex, metadata.getColumnType(columnIndex))) {
                         return false;
                     }
                 }
@@ -1572,6 +1802,7 @@ public class SqlCodeGenerator implements Mutable {
             tempKeyIndex.clear();
             arrayColumnTypes.clear();
             tempKeyKinds.clear();
+            tempSymbolSkewIndexes.clear();
 
             boolean pageFramingSupported = false;
             boolean specialCaseKeys = false;
@@ -1580,36 +1811,39 @@ public class SqlCodeGenerator implements Mutable {
             final QueryModel nested = model.getNestedModel();
             assert nested != null;
             // check if underlying model has reference to hour(column) function
-            if (nested.getSelectModelType() == QueryModel.SELECT_MODEL_VIRTUAL
-                    && (columnExpr = nested.getColumns().getQuick(0).getAst()).type == FUNCTION
-                    && isHourKeyword(columnExpr.token)
-                    && columnExpr.paramCount == 1
-                    && columnExpr.rhs.type == LITERAL
-            ) {
+            final int hourColumnIndex = findHourColumn(nested);
+            if (hourColumnIndex > -1) {
                 specialCaseKeys = true;
+                columnExpr = nested.getColumns().getQuick(hourColumnIndex).getAst();
                 factory = generateSubQuery(nested, executionContext);
                 pageFramingSupported = factory.supportPageFrameCursor();
                 if (pageFramingSupported) {
-
-                    // find position of the hour() argument in the factory meta
-                    tempKeyIndexesInBase.add(factory.getMetadata().getColumnIndex(columnExpr.rhs.token));
+                    final RecordMetadata baseMetadata = factory.getMetadata();
 
                     // find position of hour() alias in selected columns
-                    // also make sure there are no other literal column than our function reference
-                    final CharSequence functionColumnName = columns.getQuick(0).getName();
+                    // other literal columns must be plain columns of the base to be used as keys
+                    final CharSequence functionColumnName = nested.getColumns().getQuick(hourColumnIndex).getAlias();
                     columns = model.getBottomUpColumns();
                     for (int i = 0, n = columns.size(); i < n; i++) {
-                        columnExpr = columns.getQuick(i).getAst();
-                        if (columnExpr.type == LITERAL) {
-                            if (Chars.equals(columnExpr.token, functionColumnName)) {
+                        final ExpressionNode keyExpr = columns.getQuick(i).getAst();
+                        if (keyExpr.type == LITERAL) {
+                            if (Chars.equals(keyExpr.token, functionColumnName)) {
+                                // find position of the hour() argument in the factory meta
+                                tempKeyIndexesInBase.add(baseMetadata.getColumnIndex(columnExpr.rhs.token));
                                 tempKeyIndex.add(i);
                                 // storage dimension for Rosti is INT when we use hour(). This function produces INT.
                                 tempKeyKinds.add(GKK_HOUR_INT);
                                 arrayColumnTypes.add(ColumnType.INT);
                             } else {
-                                // there is something else here, fallback to default implementation
-                                pageFramingSupported = false;
-                                break;
+                                final QueryColumn nestedColumn = nested.getAliasToColumnMap().get(keyExpr.token);
+                                final int columnIndex = nestedColumn != null && nestedColumn.getAst().type == LITERAL
+                                        ? baseMetadata.getColumnIndexQuiet(nestedColumn.getAst().token)
+                                        : -1;
+                                if (columnIndex == -1 || !addVectorKey(i, columnIndex, baseMetadata.getColumnType(columnIndex))) {
+                                    // there is something else here, fallback to default implementation
+                                    pageFramingSupported = false;
+                                    break;
+                                }
                             }
                         }
                     }
@@ -1671,7 +1905,8 @@ public class SqlCodeGenerator implements Mutable {
                     );
                 }
 
-                if (tempKeyIndexesInBase.size() == 1) {
+                final boolean rostiSupported = isRostiSupported(tempVaf);
+                if (tempKeyIndexesInBase.size() == 1 && tempKeyKinds.getQuick(0) != GKK_VANILLA_LONG && rostiSupported) {
                     for (int i = 0, n = tempVaf.size(); i < n; i++) {
                         tempVaf.getQuick(i).pushValueTypes(arrayColumnTypes);
                     }
@@ -1688,6 +1923,22 @@ public class SqlCodeGenerator implements Mutable {
                             tempSymbolSkewIndexes
                     );
                 }
+
+                if ((tempKeyIndexesInBase.size() > 1 || !rostiSupported) && isMultiKeySupported(tempVaf)) {
+                    return new GroupByMultiKeyVectorRecordCursorFactory(
+                            configuration,
+                            factory,
+                            meta,
+                            executionContext.getWorkerCount(),
+                            tempVaf,
+                            tempAggIndex,
+                            tempKeyIndexesInBase,
+                            tempKeyIndex,
+                            tempKeyKinds,
+                            tempSymbolSkewIndexes
+                    );
+                }
+                Misc.freeObjList(tempVaf);
             }
 
             if (specialCaseKeys) {
@@ -2002,6 +2253,8 @@ public class SqlCodeGenerator implements Mutable {
                     return new EmptyTableRecordCursorFactory(myMeta);
                 }
 
+                scanRowEstimate += estimateScanRows(reader, intrinsicModel.intervals);
+
                 DataFrameCursorFactory dfcFactory;
 
                 if (latestByColumnCount > 0) {
@@ -2153,6 +2406,25 @@ public class SqlCodeGenerator implements Mutable {
                     );
                 }
 
+                if (isSymbolPredicateCandidate(intrinsicModel.filter, readerMeta)) {
+                    // predicate over indexed symbol column is evaluated once per symbol value and
+                    // matching rows are read from index, there is no need to scan the table
+                    final Function f = compileFilter(intrinsicModel, readerMeta, executionContext);
+                    if (f instanceof AbstractSymbolPredicateFunction) {
+                        final Function arg = ((AbstractSymbolPredicateFunction) f).getArg();
+                        if (arg instanceof SymbolColumn) {
+                            return new FilterOnSymbolPredicateRecordCursorFactory(
+                                    myMeta,
+                                    dfcFactory,
+                                    ((SymbolColumn) arg).getColumnIndex(),
+                                    (AbstractSymbolPredicateFunction) f,
+                                    columnIndexes
+                            );
+                        }
+                    }
+                    Misc.free(f);
+                }
+
                 if (intervalHitsOnlyOnePartition && intrinsicModel.filter == null) {
                     final ObjList<ExpressionNode> orderByAdvice = model.getOrderByAdvice();
                     final int orderByAdviceSize = orderByAdvice.size();
@@ -2196,6 +2468,7 @@ public class SqlCodeGenerator implements Mutable {
             }
 
             // no where clause
+            scanRowEstimate += reader.size();
             if (latestByColumnCount == 0) {
 
                 // construct new metadata, which is a copy of what we constructed just above, but
@@ -2296,6 +2569,120 @@ public class SqlCodeGenerator implements Mutable {
         return metadata.getTimestampIndex();
     }
 
+    /**
+     * ASOF and LT joins can search slave table instead of scanning it when slave is a plain table
+     * with its designated timestamp and the join is either not keyed or keyed on single indexed symbol.
+     * Must be called after join context has been processed into column filters.
+     */
+    private boolean isIndexedTimeSeriesJoinSupported(RecordCursorFactory slave, SqlExecutionContext executionContext) {
+        if (fullFatJoins || !(slave instanceof TableReaderRecordCursorFactory)) {
+            return false;
+        }
+
+        // timestamp override on slave table cannot be searched, data is only ordered by designated timestamp
+        final TableReaderRecordCursorFactory tableFactory = (TableReaderRecordCursorFactory) slave;
+        try (TableReader reader = tableFactory.getReader(executionContext.getCairoSecurityContext())) {
+            final int timestampIndex = slave.getMetadata().getTimestampIndex();
+            if (timestampIndex == -1 || reader.getMetadata().getTimestampIndex() != tableFactory.getColumnIndexes().getQuick(timestampIndex)) {
+                return false;
+            }
+        }
+
+        switch (listColumnFilterA.getColumnCount()) {
+            case 0:
+                return true;
+            case 1:
+                final RecordMetadata slaveMetadata = slave.getMetadata();
+                final int keyIndex = listColumnFilterA.getColumnIndex(0);
+                return slaveMetadata.getColumnType(keyIndex) == ColumnType.SYMBOL && slaveMetadata.isColumnIndexed(keyIndex);
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Both sides of equi-join on their timestamps are already ordered on join key and can be merged
+     * without building hash table of slave records. Merge join replays runs of equal slave timestamps
+     * by row id, so slave must support random access.
+     * Must be called after join context has been processed into column filters.
+     */
+    private boolean isMergeJoinSupported(RecordMetadata masterMetadata, RecordCursorFactory slave) {
+        if (fullFatJoins
+                || !configuration.isSqlMergeJoinEnabled()
+                || !slave.recordCursorSupportsRandomAccess()
+                || listColumnFilterA.getColumnCount() != 1) {
+            return false;
+        }
+        final int masterTimestampIndex = masterMetadata.getTimestampIndex();
+        final int slaveTimestampIndex = slave.getMetadata().getTimestampIndex();
+        return masterTimestampIndex != -1
+                && slaveTimestampIndex != -1
+                && listColumnFilterB.getColumnIndex(0) == masterTimestampIndex
+                && listColumnFilterA.getColumnIndex(0) == slaveTimestampIndex;
+    }
+
+    private boolean isParallelHashJoinSupported(
+            RecordCursorFactory master,
+            RecordCursorFactory slave,
+            SqlExecutionContext executionContext
+    ) {
+        // workers build and probe straight off key column pages, this requires plain table scans
+        if (fullFatJoins
+                || !configuration.isSqlParallelHashJoinEnabled()
+                || executionContext.getWorkerCount() < 2
+                || executionContext.getMessageBus() == null
+                || listColumnFilterA.getColumnCount() != 1
+                || !(master instanceof TableReaderRecordCursorFactory)
+                || !(slave instanceof TableReaderRecordCursorFactory)) {
+            return false;
+        }
+        final int keyType = master.getMetadata().getColumnType(listColumnFilterB.getColumnIndex(0));
+        return keyType == slave.getMetadata().getColumnType(listColumnFilterA.getColumnIndex(0))
+                && ParallelHashJoinRecordCursorFactory.isKeyTypeSupported(keyType);
+    }
+
+    /**
+     * Adds filter to the given factory, evaluating it ahead of filter the factory might already have.
+     */
+    private RecordCursorFactory pushDownFilter(RecordCursorFactory factory, Function filter) {
+        if (factory instanceof FilteredRecordCursorFactory) {
+            final FilteredRecordCursorFactory filteredFactory = (FilteredRecordCursorFactory) factory;
+            andArgs.clear();
+            andArgs.add(filter);
+            andArgs.add(filteredFactory.getFilter());
+            return new FilteredRecordCursorFactory(
+                    filteredFactory.getBaseFactory(),
+                    andFunctionFactory.newInstance(andArgs, filter.getPosition(), configuration)
+            );
+        }
+        if (factory instanceof DataFrameRecordCursorFactory) {
+            // where clause is applied to index hits by row cursor, pushed down filter must come first there too
+            final DataFrameRecordCursorFactory dataFrameFactory = (DataFrameRecordCursorFactory) factory;
+            final Function inlineFilter = dataFrameFactory.getFilter();
+            if (inlineFilter != null) {
+                andArgs.clear();
+                andArgs.add(filter);
+                andArgs.add(inlineFilter);
+                final DataFrameRecordCursorFactory filteredFactory = dataFrameFactory.withFilter(
+                        andFunctionFactory.newInstance(andArgs, filter.getPosition(), configuration)
+                );
+                if (filteredFactory != null) {
+                    return filteredFactory;
+                }
+            }
+        }
+        return new FilteredRecordCursorFactory(factory, filter);
+    }
+
+    private boolean isJoinKeyBloomFilterSupported(RecordMetadata masterMetadata) {
+        for (int i = 0, n = listColumnFilterB.getColumnCount(); i < n; i++) {
+            if (!JoinKeyBloomFilter.isSupported(masterMetadata.getColumnType(listColumnFilterB.getColumnIndex(i)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private boolean isFocused(LongList intervals, Timestamps.TimestampFloorMethod floorMethod) {
         long floor = floorMethod.floor(intervals.getQuick(0));
         for (int i = 1, n = intervals.size(); i < n; i++) {
@@ -2352,6 +2739,14 @@ public class SqlCodeGenerator implements Mutable {
         }
     }
 
+    /**
+     * @return number of table rows the last generated query is expected to scan, this is
+     * an upper bound that takes into account timestamp intervals but not the filters
+     */
+    long getScanRowEstimate() {
+        return scanRowEstimate;
+    }
+
     void setFullFatJoins(boolean fullFatJoins) {
         this.fullFatJoins = fullFatJoins;
     }
@@ -41,6 +41,7 @@ import io.questdb.std.*;
 import io.questdb.std.microtime.TimestampFormat;
 import io.questdb.std.str.NativeLPSZ;
 import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -98,6 +99,9 @@ public class SqlCompiler implements Closeable {
     private final EntityColumnFilter entityColumnFilter = new EntityColumnFilter();
     private final IntIntHashMap typeCast = new IntIntHashMap();
     private final ObjList<TableWriter> tableWriters = new ObjList<>();
+    private final LongList pageFrameAddresses = new LongList();
+    private final LongList pageFrameOffsets = new LongList();
+    private final ObjList<IntList> symbolKeyMaps = new ObjList<>();
     private final TableStructureAdapter tableStructureAdapter = new TableStructureAdapter();
     private final FunctionParser functionParser;
     private final CharSequenceObjHashMap<KeywordBasedExecutor> keywordBasedExecutors = new CharSequenceObjHashMap<>();
@@ -108,7 +112,9 @@ public class SqlCompiler implements Closeable {
     private final FilesFacade ff;
     private final ObjHashSet<CharSequence> tableNames = new ObjHashSet<>();
     private final NativeLPSZ nativeLPSZ = new NativeLPSZ();
-    private final CharSequenceObjHashMap<RecordToRowCopier> tableBackupRowCopieCache = new CharSequenceObjHashMap<>();
+    private final TableSnapshot tableSnapshot;
+    private final NativeLPSZ backupDirName = new NativeLPSZ();
+    private final StringSink prevBackupRoot = new StringSink();
     private transient SqlExecutionContext currentExecutionContext;
     private transient String cachedTmpBackupRoot;
     private final FindVisitor sqlDatabaseBackupOnFind = (file, type) -> {
@@ -134,6 +140,7 @@ public class SqlCompiler implements Closeable {
         this.engine = engine;
         this.configuration = engine.getConfiguration();
         this.ff = configuration.getFilesFacade();
+        this.tableSnapshot = new TableSnapshot(configuration);
         this.messageBus = messageBus;
         this.sqlNodePool = new ObjectPool<>(ExpressionNode.FACTORY, configuration.getSqlExpressionPoolCapacity());
         this.queryColumnPool = new ObjectPool<>(QueryColumn.FACTORY, configuration.getSqlColumnPoolCapacity());
@@ -685,6 +692,7 @@ public class SqlCompiler implements Closeable {
         Misc.free(path);
         Misc.free(renamePath);
         Misc.free(textLoader);
+        Misc.free(tableSnapshot);
     }
 
     @NotNull
@@ -708,6 +716,38 @@ public class SqlCompiler implements Closeable {
         return executor.execute(executionContext);
     }
 
+    /**
+     * Compiles SELECT query into factory without executing anything. Queries of other types
+     * are rejected before they take effect, which makes this method safe to use with
+     * query text that does not come from a client, such as configuration.
+     *
+     * @param query            text of SELECT query
+     * @param executionContext execution context
+     * @return factory, caller assumes ownership
+     * @throws SqlException when query is malformed or is not a SELECT
+     */
+    public RecordCursorFactory compileSelect(@NotNull CharSequence query, @NotNull SqlExecutionContext executionContext) throws SqlException {
+        clear();
+        lexer.of(query);
+
+        final CharSequence tok = SqlUtil.fetchNext(lexer);
+        if (tok == null) {
+            throw SqlException.$(0, "empty query");
+        }
+
+        if (keywordBasedExecutors.get(tok) != null) {
+            throw SqlException.$(0, "SELECT query expected");
+        }
+
+        lexer.unparse();
+        codeGenerator.clear();
+        final ExecutionModel model = parser.parse(lexer, executionContext);
+        if (model.getModelType() != ExecutionModel.QUERY) {
+            throw SqlException.$(0, "SELECT query expected");
+        }
+        return generate(optimiser.optimise((QueryModel) model, executionContext), executionContext);
+    }
+
     public CairoEngine getEngine() {
         return engine;
     }
@@ -763,6 +803,12 @@ public class SqlCompiler implements Closeable {
                     } else {
                         throw SqlException.$(lexer.lastTokenPosition(), "'column' or 'partition' expected");
                     }
+                } else if (SqlKeywords.isDetachKeyword(tok)) {
+                    expectKeyword(lexer, "partition");
+                    alterTableDetachPartition(writer);
+                } else if (SqlKeywords.isAttachKeyword(tok)) {
+                    expectKeyword(lexer, "partition");
+                    alterTableAttachPartition(writer);
                 } else if (SqlKeywords.isRenameKeyword(tok)) {
                     tok = expectToken(lexer, "'column'");
                     if (SqlKeywords.isColumnKeyword(tok)) {
@@ -793,8 +839,11 @@ public class SqlCompiler implements Closeable {
                         throw SqlException.$(lexer.lastTokenPosition(), "'column' or 'partition' expected");
                     }
 
+                } else if (SqlKeywords.isSetKeyword(tok)) {
+                    expectKeyword(lexer, "ttl");
+                    alterTableSetTtl(writer);
                 } else {
-                    throw SqlException.$(lexer.lastTokenPosition(), "'add' or 'drop' or 'rename' expected");
+                    throw SqlException.$(lexer.lastTokenPosition(), "'add', 'drop', 'detach', 'attach', 'rename' or 'set' expected");
                 }
             } catch (CairoException e) {
                 LOG.info().$("failed to alter table: ").$((Sinkable) e).$();
@@ -1056,6 +1105,76 @@ public class SqlCompiler implements Closeable {
         } while (true);
     }
 
+    private void alterTableAttachPartition(TableWriter writer) throws SqlException {
+        do {
+            CharSequence tok = expectToken(lexer, "partition name");
+            if (Chars.equals(tok, ',')) {
+                throw SqlException.$(lexer.lastTokenPosition(), "partition name missing");
+            }
+            final CharSequence unquoted = GenericLexer.unquote(tok);
+
+            final long timestamp;
+            try {
+                timestamp = writer.partitionNameToTimestamp(unquoted);
+            } catch (CairoException e) {
+                throw SqlException.$(lexer.lastTokenPosition(), e.getFlyweightMessage());
+            }
+
+            if (!writer.attachPartition(timestamp)) {
+                throw SqlException.$(lexer.lastTokenPosition(), "could not attach partition '").put(unquoted).put('\'');
+            }
+
+            tok = SqlUtil.fetchNext(lexer);
+
+            if (tok == null) {
+                break;
+            }
+
+            if (!Chars.equals(tok, ',')) {
+                throw SqlException.$(lexer.lastTokenPosition(), "',' expected");
+            }
+        } while (true);
+    }
+
+    private void alterTableSetTtl(TableWriter writer) throws SqlException {
+        final int position = lexer.lastTokenPosition();
+        if (writer.getPartitionBy() == PartitionBy.NONE) {
+            throw SqlException.$(position, "TTL requires partitioned table");
+        }
+        writer.setTtlHours(SqlUtil.parseTtlHours(lexer));
+    }
+
+    private void alterTableDetachPartition(TableWriter writer) throws SqlException {
+        do {
+            CharSequence tok = expectToken(lexer, "partition name");
+            if (Chars.equals(tok, ',')) {
+                throw SqlException.$(lexer.lastTokenPosition(), "partition name missing");
+            }
+            final CharSequence unquoted = GenericLexer.unquote(tok);
+
+            final long timestamp;
+            try {
+                timestamp = writer.partitionNameToTimestamp(unquoted);
+            } catch (CairoException e) {
+                throw SqlException.$(lexer.lastTokenPosition(), e.getFlyweightMessage());
+            }
+
+            if (!writer.detachPartition(timestamp)) {
+                throw SqlException.$(lexer.lastTokenPosition(), "could not detach partition '").put(unquoted).put('\'');
+            }
+
+            tok = SqlUtil.fetchNext(lexer);
+
+            if (tok == null) {
+                break;
+            }
+
+            if (!Chars.equals(tok, ',')) {
+                throw SqlException.$(lexer.lastTokenPosition(), "',' expected");
+            }
+        } while (true);
+    }
+
     private void alterTableDropPartition(TableWriter writer) throws SqlException {
         do {
             CharSequence tok = expectToken(lexer, "partition name");
@@ -1101,22 +1220,9 @@ public class SqlCompiler implements Closeable {
         try {
             CairoSecurityContext securityContext = executionContext.getCairoSecurityContext();
             try (TableReader reader = engine.getReader(securityContext, tableName)) {
-                cloneMetaData(tableName, cachedTmpBackupRoot, configuration.getBackupMkDirMode(), reader);
-
-                try (TableWriter backupWriter = engine.getBackupWriter(securityContext, tableName, cachedTmpBackupRoot)) {
-                    RecordMetadata writerMetadata = backupWriter.getMetadata();
-                    path.of(tableName).put(Files.SEPARATOR).put(reader.getVersion()).$();
-                    RecordToRowCopier recordToRowCopier = tableBackupRowCopieCache.get(path);
-                    if (null == recordToRowCopier) {
-                        entityColumnFilter.of(writerMetadata.getColumnCount());
-                        recordToRowCopier = assembleRecordToRowCopier(asm, reader.getMetadata(), writerMetadata, entityColumnFilter);
-                        tableBackupRowCopieCache.put(path.toString(), recordToRowCopier);
-                    }
-
-                    RecordCursor cursor = reader.getCursor();
-                    copyTableData(cursor, backupWriter, writerMetadata, recordToRowCopier);
-                    backupWriter.commit();
-                }
+                final CharSequence prevRoot = findPreviousBackupRoot(tableName);
+                createBackupDir(tableName, cachedTmpBackupRoot, configuration.getBackupMkDirMode());
+                tableSnapshot.snapshot(reader, cachedTmpBackupRoot, prevRoot);
             }
 
             path.of(configuration.getBackupRoot()).concat(configuration.getBackupTempDirName()).put(Files.SEPARATOR).concat(tableName).$();
@@ -1148,7 +1254,48 @@ public class SqlCompiler implements Closeable {
         parser.clear();
     }
 
-    private void cloneMetaData(CharSequence tableName, CharSequence backupRoot, int mkDirMode, TableReader reader) {
+    /**
+     * Finds the most recent backup of the table, closed partitions of new backup can be linked to
+     * its files. Backup directory names come from configurable format and do not necessarily sort
+     * in time order, backups are therefore compared by modification time of their "_txn" files.
+     *
+     * @return root of previous backup or null when table has not been backed up
+     */
+    @Nullable
+    private CharSequence findPreviousBackupRoot(CharSequence tableName) {
+        final CharSequence backupRoot = configuration.getBackupRoot();
+        long latest = Long.MIN_VALUE;
+        final long p = ff.findFirst(path.of(backupRoot).$());
+        if (p > 0) {
+            try {
+                do {
+                    if (ff.findType(p) != Files.DT_DIR) {
+                        continue;
+                    }
+                    final long name = ff.findName(p);
+                    backupDirName.of(name);
+                    if (Files.isDots(backupDirName) || Chars.equals(backupDirName, configuration.getBackupTempDirName())) {
+                        continue;
+                    }
+                    path.of(backupRoot).concat(name).concat(tableName).concat(TableUtils.TXN_FILE_NAME).$();
+                    if (ff.exists(path)) {
+                        final long lastModified = ff.getLastModified(path);
+                        if (lastModified > latest) {
+                            latest = lastModified;
+                            prevBackupRoot.clear();
+                            prevBackupRoot.put(backupRoot).put(Files.SEPARATOR);
+                            Chars.utf8DecodeZ(name, prevBackupRoot);
+                        }
+                    }
+                } while (ff.findNext(p) > 0);
+            } finally {
+                ff.findClose(p);
+            }
+        }
+        return latest == Long.MIN_VALUE ? null : prevBackupRoot;
+    }
+
+    private void createBackupDir(CharSequence tableName, CharSequence backupRoot, int mkDirMode) {
         path.of(backupRoot).concat(tableName).put(Files.SEPARATOR).$();
 
         if (ff.exists(path)) {
@@ -1158,28 +1305,6 @@ public class SqlCompiler implements Closeable {
         if (ff.mkdirs(path, mkDirMode) != 0) {
             throw CairoException.instance(ff.errno()).put("Could not create [dir=").put(path).put(']');
         }
-
-        TableReaderMetadata sourceMetaData = (TableReaderMetadata) reader.getMetadata();
-        int rootLen = path.length();
-        try {
-            mem.of(ff, path.trimTo(rootLen).concat(TableUtils.META_FILE_NAME).$(), ff.getPageSize());
-            sourceMetaData.cloneTo(mem);
-
-            // create symbol maps
-            path.trimTo(rootLen).$();
-            int symbolMapCount = 0;
-            for (int i = 0, sz = sourceMetaData.getColumnCount(); i < sz; i++) {
-                if (sourceMetaData.getColumnType(i) == ColumnType.SYMBOL) {
-                    SymbolMapReader mapReader = reader.getSymbolMapReader(i);
-                    SymbolMapWriter.createSymbolMapFiles(ff, mem, path, sourceMetaData.getColumnName(i), mapReader.getSymbolCapacity(), mapReader.isCached());
-                    symbolMapCount++;
-                }
-            }
-            mem.of(ff, path.trimTo(rootLen).concat(TableUtils.TXN_FILE_NAME).$(), ff.getPageSize());
-            TableUtils.resetTxn(mem, symbolMapCount, 0L, TableUtils.INITIAL_TXN);
-        } finally {
-            mem.close();
-        }
     }
 
     private ExecutionModel compileExecutionModel(SqlExecutionContext executionContext) throws SqlException {
@@ -1220,7 +1345,8 @@ public class SqlCompiler implements Closeable {
         switch (executionModel.getModelType()) {
             case ExecutionModel.QUERY:
                 LOG.info().$("plan [q=`").$((QueryModel) executionModel).$("`, fd=").$(executionContext.getRequestFd()).$(']').$();
-                return compiledQuery.of(generate((QueryModel) executionModel, executionContext));
+                final RecordCursorFactory factory = generate((QueryModel) executionModel, executionContext);
+                return compiledQuery.of(factory, codeGenerator.getScanRowEstimate());
             case ExecutionModel.CREATE_TABLE:
                 return createTableWithRetries(executionModel, executionContext);
             case ExecutionModel.COPY:
@@ -1243,6 +1369,99 @@ public class SqlCompiler implements Closeable {
         }
     }
 
+    private static boolean isPageFrameCopySupported(RecordCursorFactory factory, RecordMetadata cursorMetadata, TableWriter writer) {
+        final RecordMetadata writerMetadata = writer.getMetadata();
+        final int n = writerMetadata.getColumnCount();
+        // rows of dedup tables are checked one by one by row copier
+        if (writer.hasDedupKeys()
+                || !factory.supportPageFrameCursor()
+                || n != cursorMetadata.getColumnCount()
+                || writerMetadata.getTimestampIndex() != cursorMetadata.getTimestampIndex()) {
+            return false;
+        }
+
+        for (int i = 0; i < n; i++) {
+            if (writerMetadata.getColumnType(i) != cursorMetadata.getColumnType(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copies page frames of a table with identical layout straight into writer's column files. Symbol keys are
+     * translated into keys of target table, the rest of the columns are copied as they are.
+     */
+    private void copyPageFrames(PageFrameCursor cursor, TableWriter writer, RecordMetadata metadata) {
+        final int columnCount = metadata.getColumnCount();
+        int symbolColumnCount = 0;
+        for (int i = 0; i < columnCount; i++) {
+            if (metadata.getColumnType(i) == ColumnType.SYMBOL) {
+                symbolColumnCount++;
+                final IntList keyMap = symbolKeyMaps.getQuiet(i);
+                if (keyMap == null) {
+                    symbolKeyMaps.extendAndSet(i, new IntList());
+                } else {
+                    keyMap.clear();
+                }
+            }
+        }
+        pageFrameAddresses.setAll(columnCount, 0);
+        // framed columns are all fixed size, there are no offsets to pass
+        pageFrameOffsets.setAll(columnCount, 0);
+
+        long keys = 0;
+        long keysSize = 0;
+        try {
+            PageFrame frame;
+            while ((frame = cursor.next()) != null) {
+                final long rowCount = frame.getPageValueCount(0);
+                final long requiredSize = symbolColumnCount * rowCount * Integer.BYTES;
+                if (requiredSize > keysSize) {
+                    keys = Unsafe.realloc(keys, keysSize, requiredSize, MemoryTag.NATIVE_DEFAULT);
+                    keysSize = requiredSize;
+                }
+
+                long keyAddress = keys;
+                for (int i = 0; i < columnCount; i++) {
+                    long address = frame.getPageAddress(i);
+                    if (address != 0 && metadata.getColumnType(i) == ColumnType.SYMBOL) {
+                        translateSymbolKeys(writer, cursor.getSymbolTable(i), i, address, keyAddress, rowCount);
+                        address = keyAddress;
+                        keyAddress += rowCount * Integer.BYTES;
+                    }
+                    pageFrameAddresses.setQuick(i, address);
+                }
+                writer.appendColumns(rowCount, pageFrameAddresses, pageFrameOffsets);
+            }
+            writer.commit();
+        } finally {
+            if (keys != 0) {
+                Unsafe.free(keys, keysSize, MemoryTag.NATIVE_DEFAULT);
+            }
+        }
+    }
+
+    private void translateSymbolKeys(TableWriter writer, SymbolTable symbolTable, int columnIndex, long src, long dst, long rowCount) {
+        final IntList keyMap = symbolKeyMaps.getQuick(columnIndex);
+        for (long r = 0; r < rowCount; r++) {
+            final int key = Unsafe.getUnsafe().getInt(src + r * Integer.BYTES);
+            int writerKey;
+            if (key < 0) {
+                writerKey = writer.resolveSymbol(columnIndex, null);
+            } else {
+                while (keyMap.size() <= key) {
+                    keyMap.add(-1);
+                }
+                writerKey = keyMap.getQuick(key);
+                if (writerKey == -1) {
+                    keyMap.setQuick(key, writerKey = writer.resolveSymbol(columnIndex, symbolTable.valueOf(key)));
+                }
+            }
+            Unsafe.getUnsafe().putInt(dst + r * Integer.BYTES, writerKey);
+        }
+    }
+
     private void copyOrdered(TableWriter writer, RecordCursor cursor, RecordToRowCopier copier, int cursorTimestampIndex) {
         final Record record = cursor.getRecord();
         while (cursor.hasNext()) {
@@ -1625,6 +1844,18 @@ public class SqlCompiler implements Closeable {
                 copier = assembleRecordToRowCopier(asm, cursorMetadata, writerMetadata, listColumnFilter);
             } else {
 
+                if (isPageFrameCopySupported(factory, cursorMetadata, writer)) {
+                    try (PageFrameCursor cursor = factory.getPageFrameCursor(executionContext)) {
+                        try {
+                            copyPageFrames(cursor, writer, writerMetadata);
+                        } catch (CairoException e) {
+                            writer.rollback();
+                            throw e;
+                        }
+                    }
+                    return compiledQuery.ofInsertAsSelect();
+                }
+
                 final int n = writerMetadata.getColumnCount();
                 if (n > cursorMetadata.getColumnCount()) {
                     throw SqlException.$(model.getSelectKeywordPosition(), "not enough columns selected");
@@ -2034,6 +2265,27 @@ public class SqlCompiler implements Closeable {
         if (model.getPartitionBy() != PartitionBy.NONE && model.getTimestampIndex() == -1 && metadata.getTimestampIndex() == -1) {
             throw SqlException.position(0).put("timestamp is not defined");
         }
+
+        final ObjList<ExpressionNode> dedupKeys = model.getDedupKeys();
+        if (dedupKeys.size() > 0) {
+            final int timestampIndex = model.getTimestampIndex() != -1 ? model.getTimestampIndex() : metadata.getTimestampIndex();
+            if (timestampIndex == -1 || !model.isDedupKey(timestampIndex)) {
+                throw SqlException.position(dedupKeys.getQuick(0).position).put("dedup keys must include designated timestamp");
+            }
+
+            for (int i = 0, n = dedupKeys.size(); i < n; i++) {
+                final ExpressionNode key = dedupKeys.getQuick(i);
+                final int index = metadata.getColumnIndex(key.token);
+                if (index == timestampIndex) {
+                    continue;
+                }
+                final int castIndex = typeCast.keyIndex(index);
+                final int type = castIndex < 0 ? typeCast.valueAt(castIndex) : metadata.getColumnType(index);
+                if (type != ColumnType.SYMBOL) {
+                    throw SqlException.position(key.position).put("dedup key must be designated timestamp or SYMBOL column");
+                }
+            }
+        }
     }
 
     @FunctionalInterface
@@ -2090,6 +2342,16 @@ public class SqlCompiler implements Closeable {
             return model.isSequential(columnIndex);
         }
 
+        @Override
+        public boolean isDedupKey(int columnIndex) {
+            return model.isDedupKey(columnIndex);
+        }
+
+        @Override
+        public int getTtlHours() {
+            return model.getTtlHours();
+        }
+
         @Override
         public int getPartitionBy() {
             return model.getPartitionBy();
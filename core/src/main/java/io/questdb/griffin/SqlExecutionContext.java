@@ -28,6 +28,7 @@ import io.questdb.MessageBus;
 import io.questdb.cairo.CairoEngine;
 import io.questdb.cairo.CairoSecurityContext;
 import io.questdb.griffin.engine.functions.bind.BindVariableService;
+import io.questdb.std.MemoryTracker;
 import io.questdb.std.Rnd;
 import org.jetbrains.annotations.Nullable;
 
@@ -57,5 +58,11 @@ public interface SqlExecutionContext {
 
     SqlExecutionInterruptor getSqlExecutionInterruptor();
 
+    /**
+     * @return memory budget of the query, tasks executed on behalf of the query on other threads bind it
+     * for their duration; null when query memory is not tracked
+     */
+    @Nullable MemoryTracker getMemoryTracker();
+
     void storeTelemetry(short event, short origin);
 }
@@ -32,6 +32,7 @@ import io.questdb.griffin.engine.functions.bind.BindVariableService;
 import io.questdb.griffin.engine.functions.rnd.SharedRandom;
 import io.questdb.mp.*;
 import io.questdb.std.IntStack;
+import io.questdb.std.MemoryTracker;
 import io.questdb.std.Rnd;
 import io.questdb.std.time.MillisecondClock;
 import io.questdb.tasks.TelemetryTask;
@@ -54,6 +55,7 @@ public class SqlExecutionContextImpl implements SqlExecutionContext {
     private Rnd random;
     private long requestFd = -1;
     private SqlExecutionInterruptor interruptor = SqlExecutionInterruptor.NOP_INTERRUPTOR;
+    private MemoryTracker memoryTracker;
 
     public SqlExecutionContextImpl(@Nullable MessageBus messageBus, int workerCount, CairoEngine cairoEngine) {
         this(cairoEngine.getConfiguration(), messageBus, workerCount, cairoEngine);
@@ -135,6 +137,12 @@ public class SqlExecutionContextImpl implements SqlExecutionContext {
         return interruptor;
     }
 
+    @Override
+    @Nullable
+    public MemoryTracker getMemoryTracker() {
+        return memoryTracker;
+    }
+
     @Override
     public void storeTelemetry(short event, short origin) {
         telemetryMethod.store(event, origin);
@@ -182,6 +190,13 @@ public class SqlExecutionContextImpl implements SqlExecutionContext {
         return this;
     }
 
+    public SqlExecutionContextImpl with(
+            @Nullable MemoryTracker memoryTracker
+    ) {
+        this.memoryTracker = memoryTracker;
+        return this;
+    }
+
     public SqlExecutionContextImpl with(
             @NotNull CairoSecurityContext cairoSecurityContext,
             @Nullable BindVariableService bindVariableService,
@@ -420,6 +420,19 @@ public final class SqlParser {
             tok = optTok(lexer);
         }
 
+        if (tok != null && isTtlKeyword(tok)) {
+            if (model.getPartitionBy() == PartitionBy.NONE) {
+                throw SqlException.$(lexer.lastTokenPosition(), "TTL requires partitioned table");
+            }
+            model.setTtlHours(SqlUtil.parseTtlHours(lexer));
+            tok = optTok(lexer);
+        }
+
+        if (tok != null && isDedupKeyword(tok)) {
+            parseCreateTableDedupKeys(lexer, model);
+            tok = optTok(lexer);
+        }
+
         if (tok == null || Chars.equals(tok, ';')) {
             return model;
         }
@@ -619,6 +632,44 @@ public final class SqlParser {
         return null;
     }
 
+    private void parseCreateTableDedupKeys(GenericLexer lexer, CreateTableModel model) throws SqlException {
+        final int dedupPosition = lexer.lastTokenPosition();
+        expectTok(lexer, "keys");
+        expectTok(lexer, '(');
+        final boolean typesKnown = model.getQueryModel() == null;
+        while (true) {
+            final ExpressionNode key = expectLiteral(lexer);
+            final int columnIndex = getCreateTableColumnIndex(model, key.token, key.position);
+            if (!model.addDedupKey(key, columnIndex)) {
+                throw SqlException.$(key.position, "duplicate dedup key");
+            }
+
+            if (typesKnown && columnIndex != model.getTimestampIndex() && model.getColumnType(columnIndex) != ColumnType.SYMBOL) {
+                throw SqlException.$(key.position, "dedup key must be designated timestamp or SYMBOL column");
+            }
+
+            CharSequence tok = tok(lexer, "',' or ')'");
+            if (Chars.equals(tok, ')')) {
+                break;
+            }
+
+            if (!Chars.equals(tok, ',')) {
+                throw errUnexpected(lexer, tok);
+            }
+        }
+
+        if (typesKnown) {
+            final int timestampIndex = model.getTimestampIndex();
+            if (timestampIndex == -1) {
+                throw SqlException.$(dedupPosition, "dedup keys require designated timestamp");
+            }
+
+            if (!model.isDedupKey(timestampIndex)) {
+                throw SqlException.$(dedupPosition, "dedup keys must include designated timestamp");
+            }
+        }
+    }
+
     private ExpressionNode parseCreateTablePartition(GenericLexer lexer, CharSequence tok) throws SqlException {
         if (tok != null && isPartitionKeyword(tok)) {
             expectTok(lexer, "by");
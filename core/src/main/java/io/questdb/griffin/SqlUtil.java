@@ -73,6 +73,47 @@ public class SqlUtil {
         return null;
     }
 
+    /**
+     * Parses TTL value with its unit, such as "7 days".
+     *
+     * @return TTL in hours, 0 when TTL is off
+     */
+    static int parseTtlHours(GenericLexer lexer) throws SqlException {
+        CharSequence tok = fetchNext(lexer);
+        if (tok == null) {
+            throw SqlException.position(lexer.getPosition()).put("TTL value expected");
+        }
+
+        final int position = lexer.lastTokenPosition();
+        final int value;
+        try {
+            value = Numbers.parseInt(tok);
+        } catch (NumericException e) {
+            throw SqlException.$(position, "bad integer");
+        }
+
+        tok = fetchNext(lexer);
+        if (tok == null) {
+            throw SqlException.position(lexer.getPosition()).put("'hours', 'days' or 'weeks' expected");
+        }
+
+        final int multiplier;
+        if (Chars.equalsLowerCaseAscii(tok, "hour") || Chars.equalsLowerCaseAscii(tok, "hours")) {
+            multiplier = 1;
+        } else if (Chars.equalsLowerCaseAscii(tok, "day") || Chars.equalsLowerCaseAscii(tok, "days")) {
+            multiplier = 24;
+        } else if (Chars.equalsLowerCaseAscii(tok, "week") || Chars.equalsLowerCaseAscii(tok, "weeks")) {
+            multiplier = 7 * 24;
+        } else {
+            throw SqlException.$(lexer.lastTokenPosition(), "'hours', 'days' or 'weeks' expected");
+        }
+
+        if (value < 0 || value > Integer.MAX_VALUE / multiplier) {
+            throw SqlException.$(position, "TTL value is out of range");
+        }
+        return value * multiplier;
+    }
+
     static ExpressionNode nextLiteral(ObjectPool<ExpressionNode> pool, CharSequence token, int position) {
         return pool.next().of(ExpressionNode.LITERAL, token, 0, position);
     }
@@ -27,6 +27,8 @@ package io.questdb.griffin.engine;
 import java.io.Closeable;
 
 import io.questdb.std.MemoryPages;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.MemoryTracker;
 import io.questdb.std.Misc;
 import io.questdb.std.Mutable;
 import io.questdb.std.Unsafe;
@@ -47,7 +49,7 @@ public abstract class AbstractRedBlackTree implements Mutable, Closeable {
 
     public AbstractRedBlackTree(long keyPageSize, int keyMaxPages) {
         assert keyPageSize >= getBlockSize();
-        this.mem = new MemoryPages(keyPageSize, keyMaxPages);
+        this.mem = new MemoryPages(keyPageSize, keyMaxPages, MemoryTag.NATIVE_SORT);
     }
 
     @Override
@@ -61,6 +63,10 @@ public abstract class AbstractRedBlackTree implements Mutable, Closeable {
         Misc.free(mem);
     }
 
+    public void setMemoryTracker(MemoryTracker memoryTracker) {
+        mem.setMemoryTracker(memoryTracker);
+    }
+
     public long size() {
         return mem.size() / getBlockSize();
     }
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions;
+
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.StaticSymbolTable;
+import io.questdb.cairo.sql.SymbolTable;
+import io.questdb.cairo.sql.SymbolTableSource;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.std.IntList;
+
+/**
+ * Boolean predicate over symbol column, which is evaluated once per distinct symbol value
+ * rather than once per row. Results are cached against symbol keys, so that the per-row
+ * check is a lookup of the int key. Keys are evaluated lazily, which covers symbol values
+ * added after the function was initialised.
+ * <p>
+ * Argument must have static symbol table, e.g. be a symbol column.
+ */
+public abstract class AbstractSymbolPredicateFunction extends BooleanFunction implements UnaryFunction {
+    private static final int KEY_MATCH = 1;
+    private static final int KEY_NO_MATCH = 2;
+    private final SymbolFunction arg;
+    private final IntList keyResults = new IntList();
+    private boolean nullResult;
+
+    public AbstractSymbolPredicateFunction(int position, SymbolFunction arg) {
+        super(position);
+        this.arg = arg;
+    }
+
+    @Override
+    public Function getArg() {
+        return arg;
+    }
+
+    @Override
+    public boolean getBool(Record rec) {
+        return matchesKey(arg.getInt(rec));
+    }
+
+    @Override
+    public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) {
+        arg.init(symbolTableSource, executionContext);
+        keyResults.clear();
+        nullResult = matches(null);
+        final StaticSymbolTable symbolTable = arg.getStaticSymbolTable();
+        if (symbolTable != null) {
+            keyResults.setAll(symbolTable.size(), 0);
+        }
+    }
+
+    /**
+     * Tests symbol key against predicate. Predicate is evaluated on first encounter of the key
+     * and the result is reused afterwards.
+     *
+     * @param key symbol key as stored in column, {@link SymbolTable#VALUE_IS_NULL} for null
+     * @return true when symbol value satisfies the predicate
+     */
+    public boolean matchesKey(int key) {
+        if (key < 0) {
+            return nullResult;
+        }
+
+        while (key >= keyResults.size()) {
+            keyResults.add(0);
+        }
+
+        int result = keyResults.getQuick(key);
+        if (result == 0) {
+            result = matches(arg.valueOf(key)) ? KEY_MATCH : KEY_NO_MATCH;
+            keyResults.setQuick(key, result);
+        }
+        return result == KEY_MATCH;
+    }
+
+    /**
+     * Evaluates predicate against symbol value.
+     *
+     * @param value symbol value, null for null symbol
+     * @return true when value satisfies predicate
+     */
+    protected abstract boolean matches(CharSequence value);
+}
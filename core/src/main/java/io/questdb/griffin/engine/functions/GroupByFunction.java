@@ -28,6 +28,7 @@ import io.questdb.cairo.ArrayColumnTypes;
 import io.questdb.cairo.map.MapValue;
 import io.questdb.cairo.sql.Function;
 import io.questdb.cairo.sql.Record;
+import io.questdb.std.MemoryTracker;
 
 public interface GroupByFunction extends Function {
     void computeFirst(MapValue mapValue, Record record);
@@ -56,9 +57,25 @@ public interface GroupByFunction extends Function {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Sets budget of the query being aggregated. Functions, which keep aggregation state in native
+     * memory of their own, charge that memory to the budget.
+     */
+    default void setMemoryTracker(MemoryTracker memoryTracker) {
+    }
+
     void setNull(MapValue mapValue);
 
     default void setShort(MapValue mapValue, short value) {
         throw new UnsupportedOperationException();
     }
+
+    /**
+     * Called by SAMPLE BY before it aggregates next sample. Groups of previous samples will not see
+     * {@link #computeNext(MapValue, Record)} again, their values are either discarded or only read until
+     * the next {@link #computeFirst(MapValue, Record)}. Functions can release aggregation state, which is
+     * not needed to read group value.
+     */
+    default void toNextSample() {
+    }
 }
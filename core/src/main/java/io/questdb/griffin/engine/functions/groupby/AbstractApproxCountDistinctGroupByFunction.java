@@ -0,0 +1,183 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.groupby;
+
+import io.questdb.cairo.ArrayColumnTypes;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.map.MapValue;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.SymbolTableSource;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.GroupByFunction;
+import io.questdb.griffin.engine.functions.LongFunction;
+import io.questdb.griffin.engine.functions.UnaryFunction;
+import io.questdb.griffin.engine.groupby.HyperLogLog;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.MemoryTracker;
+import io.questdb.std.Numbers;
+import io.questdb.std.Unsafe;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Approximate count of distinct non-null values based on {@link HyperLogLog}. Every group gets its
+ * own sketch of constant size in off-heap memory owned by the function. Group value slot keeps index
+ * of the sketch together with register sum and count of zero registers, which are updated as registers
+ * change. Estimate is therefore computed from the group value alone and sketches are needed only
+ * while aggregation is in progress. Sketch memory is reused once function is initialised for the
+ * cursor, the cursor is rewound or SAMPLE BY moves to the next sample.
+ */
+public abstract class AbstractApproxCountDistinctGroupByFunction extends LongFunction implements GroupByFunction, UnaryFunction {
+    protected final Function arg;
+    private final int precision;
+    private final long sketchSize;
+    private long sketches;
+    private long capacity;
+    private long sketchCount;
+    private int valueIndex;
+    private MemoryTracker memoryTracker;
+
+    public AbstractApproxCountDistinctGroupByFunction(int position, @NotNull Function arg, int precision) {
+        super(position);
+        this.arg = arg;
+        this.precision = precision;
+        this.sketchSize = 1L << precision;
+    }
+
+    @Override
+    public void close() {
+        if (sketches != 0) {
+            Unsafe.free(sketches, capacity * sketchSize, MemoryTag.NATIVE_MAP, memoryTracker);
+            sketches = 0;
+            capacity = 0;
+        }
+        arg.close();
+    }
+
+    @Override
+    public void computeFirst(MapValue mapValue, Record record) {
+        if (sketchCount == capacity) {
+            final long newCapacity = Math.max(16, capacity << 1);
+            if (sketches == 0) {
+                sketches = Unsafe.malloc(newCapacity * sketchSize, MemoryTag.NATIVE_MAP, memoryTracker);
+            } else {
+                sketches = Unsafe.realloc(sketches, capacity * sketchSize, newCapacity * sketchSize, MemoryTag.NATIVE_MAP, memoryTracker);
+            }
+            capacity = newCapacity;
+        }
+        final long index = sketchCount++;
+        HyperLogLog.clear(sketches + index * sketchSize, precision);
+        mapValue.putLong(valueIndex, index);
+        mapValue.putDouble(valueIndex + 1, sketchSize);
+        mapValue.putLong(valueIndex + 2, sketchSize);
+        aggregate(mapValue, record);
+    }
+
+    @Override
+    public void computeNext(MapValue mapValue, Record record) {
+        aggregate(mapValue, record);
+    }
+
+    @Override
+    public void pushValueTypes(ArrayColumnTypes columnTypes) {
+        this.valueIndex = columnTypes.getColumnCount();
+        columnTypes.add(ColumnType.LONG); // sketch index
+        columnTypes.add(ColumnType.DOUBLE); // sum of register weights
+        columnTypes.add(ColumnType.LONG); // zero registers
+    }
+
+    @Override
+    public void setLong(MapValue mapValue, long value) {
+        // there is no sketch behind value set explicitly
+        mapValue.putLong(valueIndex, -1);
+        mapValue.putLong(valueIndex + 2, value);
+    }
+
+    @Override
+    public void setMemoryTracker(MemoryTracker memoryTracker) {
+        this.memoryTracker = memoryTracker;
+    }
+
+    @Override
+    public void setNull(MapValue mapValue) {
+        setLong(mapValue, Numbers.LONG_NaN);
+    }
+
+    @Override
+    public Function getArg() {
+        return arg;
+    }
+
+    @Override
+    public long getLong(Record rec) {
+        final long zeros = rec.getLong(valueIndex + 2);
+        if (rec.getLong(valueIndex) == -1) {
+            return zeros;
+        }
+        if (zeros == sketchSize) {
+            return 0;
+        }
+        return HyperLogLog.estimate(rec.getDouble(valueIndex + 1), zeros, precision);
+    }
+
+    @Override
+    public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) {
+        sketchCount = 0;
+    }
+
+    @Override
+    public boolean isConstant() {
+        return false;
+    }
+
+    @Override
+    public void toNextSample() {
+        sketchCount = 0;
+    }
+
+    @Override
+    public void toTop() {
+        sketchCount = 0;
+        arg.toTop();
+    }
+
+    protected void add(MapValue mapValue, long hash) {
+        final long p = sketches + mapValue.getLong(valueIndex) * sketchSize + HyperLogLog.index(hash, precision);
+        final byte rank = HyperLogLog.rank(hash, precision);
+        final byte register = Unsafe.getUnsafe().getByte(p);
+        if (rank > register) {
+            Unsafe.getUnsafe().putByte(p, rank);
+            mapValue.addDouble(valueIndex + 1, HyperLogLog.weight(rank) - HyperLogLog.weight(register));
+            if (register == 0) {
+                mapValue.addLong(valueIndex + 2, -1);
+            }
+        }
+    }
+
+    /**
+     * Adds hash of record value to the group sketch via {@link #add(MapValue, long)}, null values are skipped.
+     */
+    protected abstract void aggregate(MapValue mapValue, Record record);
+}
@@ -0,0 +1,158 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.groupby;
+
+import io.questdb.cairo.ArrayColumnTypes;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.map.Map;
+import io.questdb.cairo.map.MapFactory;
+import io.questdb.cairo.map.MapKey;
+import io.questdb.cairo.map.MapValue;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.SymbolTableSource;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.GroupByFunction;
+import io.questdb.griffin.engine.functions.LongFunction;
+import io.questdb.griffin.engine.functions.UnaryFunction;
+import io.questdb.std.MemoryTracker;
+import io.questdb.std.Numbers;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Exact count of distinct non-null values. Values of all groups are kept in single map keyed by
+ * group id and value, group value slot holds group id and running count. Group ids are never reused
+ * by the function instance, so that map can be cleared whenever aggregation is not in progress,
+ * counts are not affected because they are kept with the group. SAMPLE BY clears the map before
+ * every sample, which keeps it to distinct values of single sample.
+ */
+public abstract class AbstractCountDistinctGroupByFunction extends LongFunction implements GroupByFunction, UnaryFunction {
+    protected final Function arg;
+    private final Map distinctValues;
+    private long groupId;
+    private int valueIndex;
+
+    public AbstractCountDistinctGroupByFunction(
+            int position,
+            @NotNull Function arg,
+            CairoConfiguration configuration,
+            int valueType
+    ) {
+        super(position);
+        this.arg = arg;
+        final ArrayColumnTypes keyTypes = new ArrayColumnTypes();
+        keyTypes.add(ColumnType.LONG);
+        keyTypes.add(valueType);
+        this.distinctValues = MapFactory.createMap(configuration, keyTypes);
+    }
+
+    @Override
+    public void close() {
+        distinctValues.close();
+        arg.close();
+    }
+
+    @Override
+    public void computeFirst(MapValue mapValue, Record record) {
+        final long id = groupId++;
+        mapValue.putLong(valueIndex, id);
+        mapValue.putLong(valueIndex + 1, 0);
+        add(id, mapValue, record);
+    }
+
+    @Override
+    public void computeNext(MapValue mapValue, Record record) {
+        add(mapValue.getLong(valueIndex), mapValue, record);
+    }
+
+    @Override
+    public void pushValueTypes(ArrayColumnTypes columnTypes) {
+        this.valueIndex = columnTypes.getColumnCount();
+        columnTypes.add(ColumnType.LONG); // group id
+        columnTypes.add(ColumnType.LONG); // count
+    }
+
+    @Override
+    public void setLong(MapValue mapValue, long value) {
+        mapValue.putLong(valueIndex + 1, value);
+    }
+
+    @Override
+    public void setMemoryTracker(MemoryTracker memoryTracker) {
+        distinctValues.setMemoryTracker(memoryTracker);
+    }
+
+    @Override
+    public void setNull(MapValue mapValue) {
+        mapValue.putLong(valueIndex + 1, Numbers.LONG_NaN);
+    }
+
+    @Override
+    public Function getArg() {
+        return arg;
+    }
+
+    @Override
+    public long getLong(Record rec) {
+        return rec.getLong(valueIndex + 1);
+    }
+
+    @Override
+    public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) {
+        distinctValues.clear();
+    }
+
+    @Override
+    public boolean isConstant() {
+        return false;
+    }
+
+    @Override
+    public void toNextSample() {
+        distinctValues.clear();
+    }
+
+    @Override
+    public void toTop() {
+        distinctValues.clear();
+        arg.toTop();
+    }
+
+    /**
+     * Copies value of the record to the key.
+     *
+     * @return false when value is null and should not be counted
+     */
+    protected abstract boolean putValue(MapKey key, Record record);
+
+    private void add(long id, MapValue mapValue, Record record) {
+        final MapKey key = distinctValues.withKey();
+        key.putLong(id);
+        if (putValue(key, record) && key.create()) {
+            mapValue.addLong(valueIndex + 1, 1);
+        }
+    }
+}
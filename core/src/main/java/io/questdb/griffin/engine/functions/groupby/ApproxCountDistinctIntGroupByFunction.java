@@ -0,0 +1,47 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.groupby;
+
+import io.questdb.cairo.map.MapValue;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
+import io.questdb.griffin.engine.groupby.HyperLogLog;
+import io.questdb.std.Numbers;
+import org.jetbrains.annotations.NotNull;
+
+public class ApproxCountDistinctIntGroupByFunction extends AbstractApproxCountDistinctGroupByFunction {
+
+    public ApproxCountDistinctIntGroupByFunction(int position, @NotNull Function arg, int precision) {
+        super(position, arg, precision);
+    }
+
+    @Override
+    protected void aggregate(MapValue mapValue, Record record) {
+        final int value = arg.getInt(record);
+        if (value != Numbers.INT_NaN) {
+            add(mapValue, HyperLogLog.hash(value));
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.groupby;
+
+import io.questdb.cairo.ArrayColumnTypes;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.map.MapValue;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.SymbolTableSource;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.DoubleFunction;
+import io.questdb.griffin.engine.functions.GroupByFunction;
+import io.questdb.griffin.engine.functions.UnaryFunction;
+import io.questdb.griffin.engine.groupby.LogLinearHistogram;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.MemoryTracker;
+import io.questdb.std.Unsafe;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Approximate percentile of non-null values based on {@link LogLinearHistogram}. Every group gets its own
+ * histogram of fixed size in off-heap memory owned by the function. Group value slot keeps index of the
+ * histogram, count of values and their exact minimum and maximum. Histograms are read when the group value
+ * is, they stay intact until the function aggregates again after being initialised for the cursor or
+ * the cursor is rewound. Group that is aggregated again keeps its histogram. New groups of SAMPLE BY
+ * take histograms of previous samples over, because values of those are discarded.
+ */
+public class ApproxPercentileDoubleGroupByFunction extends DoubleFunction implements GroupByFunction, UnaryFunction {
+    private final Function arg;
+    private final double percentile;
+    private long histograms;
+    private long capacity;
+    private long histogramCount;
+    private long newGroupHistogram;
+    private int valueIndex;
+    private MemoryTracker memoryTracker;
+
+    public ApproxPercentileDoubleGroupByFunction(int position, @NotNull Function arg, double percentile) {
+        super(position);
+        this.arg = arg;
+        this.percentile = percentile;
+    }
+
+    @Override
+    public void close() {
+        if (histograms != 0) {
+            Unsafe.free(histograms, capacity * LogLinearHistogram.SIZE, MemoryTag.NATIVE_MAP, memoryTracker);
+            histograms = 0;
+            capacity = 0;
+        }
+        arg.close();
+    }
+
+    @Override
+    public void computeFirst(MapValue mapValue, Record record) {
+        long index;
+        if (mapValue.isNew()) {
+            index = newGroupHistogram++;
+        } else {
+            // group aggregates again, e.g. SAMPLE BY without keys or with FILL
+            index = mapValue.getLong(valueIndex);
+            if (index < 0 || index >= histogramCount) {
+                index = histogramCount;
+            }
+        }
+        if (index == histogramCount) {
+            if (histogramCount == capacity) {
+                final long newCapacity = Math.max(16, capacity << 1);
+                if (histograms == 0) {
+                    histograms = Unsafe.malloc(newCapacity * LogLinearHistogram.SIZE, MemoryTag.NATIVE_MAP, memoryTracker);
+                } else {
+                    histograms = Unsafe.realloc(histograms, capacity * LogLinearHistogram.SIZE, newCapacity * LogLinearHistogram.SIZE, MemoryTag.NATIVE_MAP, memoryTracker);
+                }
+                capacity = newCapacity;
+            }
+            histogramCount++;
+        }
+        LogLinearHistogram.clear(histograms + index * LogLinearHistogram.SIZE);
+        mapValue.putLong(valueIndex, index);
+        mapValue.putLong(valueIndex + 1, 0);
+        mapValue.putDouble(valueIndex + 2, Double.POSITIVE_INFINITY);
+        mapValue.putDouble(valueIndex + 3, Double.NEGATIVE_INFINITY);
+        computeNext(mapValue, record);
+    }
+
+    @Override
+    public void computeNext(MapValue mapValue, Record record) {
+        final double value = arg.getDouble(record);
+        if (value == value) {
+            LogLinearHistogram.add(histograms + mapValue.getLong(valueIndex) * LogLinearHistogram.SIZE, value);
+            mapValue.addLong(valueIndex + 1, 1);
+            if (value < mapValue.getDouble(valueIndex + 2)) {
+                mapValue.putDouble(valueIndex + 2, value);
+            }
+            if (value > mapValue.getDouble(valueIndex + 3)) {
+                mapValue.putDouble(valueIndex + 3, value);
+            }
+        }
+    }
+
+    @Override
+    public void pushValueTypes(ArrayColumnTypes columnTypes) {
+        this.valueIndex = columnTypes.getColumnCount();
+        columnTypes.add(ColumnType.LONG); // histogram index
+        columnTypes.add(ColumnType.LONG); // count
+        columnTypes.add(ColumnType.DOUBLE); // min
+        columnTypes.add(ColumnType.DOUBLE); // max
+    }
+
+    @Override
+    public void setDouble(MapValue mapValue, double value) {
+        // there is no histogram behind value set explicitly
+        mapValue.putLong(valueIndex, -1);
+        mapValue.putDouble(valueIndex + 2, value);
+    }
+
+    @Override
+    public void setMemoryTracker(MemoryTracker memoryTracker) {
+        this.memoryTracker = memoryTracker;
+    }
+
+    @Override
+    public void setNull(MapValue mapValue) {
+        setDouble(mapValue, Double.NaN);
+    }
+
+    @Override
+    public Function getArg() {
+        return arg;
+    }
+
+    @Override
+    public double getDouble(Record rec) {
+        final long index = rec.getLong(valueIndex);
+        if (index == -1) {
+            return rec.getDouble(valueIndex + 2);
+        }
+        return LogLinearHistogram.percentile(
+                histograms + index * LogLinearHistogram.SIZE,
+                rec.getLong(valueIndex + 1),
+                percentile,
+                rec.getDouble(valueIndex + 2),
+                rec.getDouble(valueIndex + 3)
+        );
+    }
+
+    @Override
+    public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) {
+        histogramCount = 0;
+        newGroupHistogram = 0;
+    }
+
+    @Override
+    public boolean isConstant() {
+        return false;
+    }
+
+    @Override
+    public void toNextSample() {
+        newGroupHistogram = 0;
+    }
+
+    @Override
+    public void toTop() {
+        histogramCount = 0;
+        newGroupHistogram = 0;
+        arg.toTop();
+    }
+}
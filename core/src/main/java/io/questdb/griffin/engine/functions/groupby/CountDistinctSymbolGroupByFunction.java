@@ -0,0 +1,51 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.groupby;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.map.MapKey;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.SymbolTable;
+import org.jetbrains.annotations.NotNull;
+
+public class CountDistinctSymbolGroupByFunction extends AbstractCountDistinctGroupByFunction {
+
+    public CountDistinctSymbolGroupByFunction(int position, @NotNull Function arg, CairoConfiguration configuration) {
+        super(position, arg, configuration, ColumnType.INT);
+    }
+
+    @Override
+    protected boolean putValue(MapKey key, Record record) {
+        // symbol keys are unique within the column, there is no need to compare symbol values
+        final int value = arg.getInt(record);
+        if (value != SymbolTable.VALUE_IS_NULL) {
+            key.putInt(value);
+            return true;
+        }
+        return false;
+    }
+}
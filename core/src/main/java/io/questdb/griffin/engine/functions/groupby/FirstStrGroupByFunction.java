@@ -0,0 +1,167 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.groupby;
+
+import io.questdb.cairo.ArrayColumnTypes;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.map.MapValue;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.SymbolTableSource;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.GroupByFunction;
+import io.questdb.griffin.engine.functions.StrFunction;
+import io.questdb.griffin.engine.functions.UnaryFunction;
+import io.questdb.std.ObjList;
+import io.questdb.std.str.StringSink;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Strings are copied to sinks owned by the function, group value slot holds index of the sink
+ * and null flag. Sinks stay intact until the function aggregates again after being initialised
+ * for the cursor or the cursor is rewound. Group that is aggregated again keeps its sink, new
+ * groups of SAMPLE BY take sinks of previous samples over.
+ */
+public class FirstStrGroupByFunction extends StrFunction implements GroupByFunction, UnaryFunction {
+    protected final Function arg;
+    protected int valueIndex;
+    private final ObjList<StringSink> sinks = new ObjList<>();
+    private final StringSink sinkB = new StringSink();
+    private int sinkCount;
+    private int newGroupSink;
+
+    public FirstStrGroupByFunction(int position, @NotNull Function arg) {
+        super(position);
+        this.arg = arg;
+    }
+
+    @Override
+    public void computeFirst(MapValue mapValue, Record record) {
+        long index;
+        if (mapValue.isNew()) {
+            index = newGroupSink++;
+        } else {
+            // group aggregates again, e.g. SAMPLE BY without keys or with FILL
+            index = mapValue.getLong(valueIndex);
+            if (index < 0 || index >= sinkCount) {
+                index = sinkCount;
+            }
+        }
+        if (index == sinkCount) {
+            sinkCount++;
+        }
+        mapValue.putLong(valueIndex, index);
+        computeValue(mapValue, arg.getStr(record));
+    }
+
+    @Override
+    public void computeNext(MapValue mapValue, Record record) {
+        // first value is already stored
+    }
+
+    @Override
+    public void pushValueTypes(ArrayColumnTypes columnTypes) {
+        this.valueIndex = columnTypes.getColumnCount();
+        columnTypes.add(ColumnType.LONG); // sink index
+        columnTypes.add(ColumnType.BOOLEAN); // null
+    }
+
+    @Override
+    public void setNull(MapValue mapValue) {
+        mapValue.putLong(valueIndex, -1);
+        mapValue.putBool(valueIndex + 1, true);
+    }
+
+    @Override
+    public Function getArg() {
+        return arg;
+    }
+
+    @Override
+    public CharSequence getStr(Record rec) {
+        return rec.getBool(valueIndex + 1) ? null : sinks.getQuick((int) rec.getLong(valueIndex));
+    }
+
+    @Override
+    public CharSequence getStrB(Record rec) {
+        final CharSequence value = getStr(rec);
+        if (value == null) {
+            return null;
+        }
+        sinkB.clear();
+        sinkB.put(value);
+        return sinkB;
+    }
+
+    @Override
+    public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) {
+        sinkCount = 0;
+        newGroupSink = 0;
+        arg.init(symbolTableSource, executionContext);
+    }
+
+    @Override
+    public boolean isConstant() {
+        return false;
+    }
+
+    @Override
+    public void toNextSample() {
+        newGroupSink = 0;
+    }
+
+    @Override
+    public void toTop() {
+        sinkCount = 0;
+        newGroupSink = 0;
+        arg.toTop();
+    }
+
+    /**
+     * Replaces string value of the group in the sink of the group.
+     */
+    protected void computeValue(MapValue mapValue, CharSequence value) {
+        if (value == null) {
+            mapValue.putBool(valueIndex + 1, true);
+        } else {
+            copy((int) mapValue.getLong(valueIndex), value);
+            mapValue.putBool(valueIndex + 1, false);
+        }
+    }
+
+    protected boolean isNull(MapValue mapValue) {
+        return mapValue.getBool(valueIndex + 1);
+    }
+
+    private void copy(int index, CharSequence value) {
+        StringSink sink = sinks.getQuiet(index);
+        if (sink == null) {
+            sink = new StringSink();
+            sinks.extendAndSet(index, sink);
+        }
+        sink.clear();
+        sink.put(value);
+    }
+}
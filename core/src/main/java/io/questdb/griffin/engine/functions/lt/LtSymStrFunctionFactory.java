@@ -0,0 +1,156 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+package io.questdb.griffin.engine.functions.lt;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.sql.*;
+import io.questdb.griffin.AbstractBooleanFunctionFactory;
+import io.questdb.griffin.FunctionFactory;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.BinaryFunction;
+import io.questdb.griffin.engine.functions.BooleanFunction;
+import io.questdb.griffin.engine.functions.SymbolFunction;
+import io.questdb.griffin.engine.functions.UnaryFunction;
+import io.questdb.std.Chars;
+import io.questdb.std.ObjList;
+
+public class LtSymStrFunctionFactory extends AbstractBooleanFunctionFactory implements FunctionFactory {
+    @Override
+    public String getSignature() {
+        return "<(KS)";
+    }
+
+    @Override
+    public boolean supportsSwappedArgs() {
+        return true;
+    }
+
+    @Override
+    public Function newInstance(ObjList<Function> args, int position, CairoConfiguration configuration) {
+        final Function left = args.getQuick(0);
+        final Function right = args.getQuick(1);
+        // arguments are swapped around when function implements '>' or '<='
+        final boolean symbolLeft = left.getType() == ColumnType.SYMBOL;
+        final Function symFunc = symbolLeft ? left : right;
+        final Function strFunc = symbolLeft ? right : left;
+
+        if (strFunc.isConstant() && ((SymbolFunction) symFunc).getStaticSymbolTable() != null) {
+            return new ConstCheckColumnFunc(position, (SymbolFunction) symFunc, strFunc.getStr(null), symbolLeft, isNegated);
+        }
+        return new Func(position, left, right, isNegated);
+    }
+
+    private static CharSequence getValue(Function function, Record rec) {
+        return function.getType() == ColumnType.SYMBOL ? function.getSymbol(rec) : function.getStr(rec);
+    }
+
+    private static class ConstCheckColumnFunc extends BooleanFunction implements UnaryFunction {
+        private final boolean isNegated;
+        private final SymbolFunction arg;
+        private final CharSequence constant;
+        private final boolean symbolLeft;
+        private StaticSymbolTable symbolTable;
+        private boolean ranked;
+        private int rankBound;
+
+        public ConstCheckColumnFunc(int position, SymbolFunction arg, CharSequence constant, boolean symbolLeft, boolean isNegated) {
+            super(position);
+            this.arg = arg;
+            this.constant = constant;
+            this.symbolLeft = symbolLeft;
+            this.isNegated = isNegated;
+        }
+
+        @Override
+        public Function getArg() {
+            return arg;
+        }
+
+        @Override
+        public boolean getBool(Record rec) {
+            final int key = arg.getInt(rec);
+            if (key == SymbolTable.VALUE_IS_NULL || constant == null) {
+                return false;
+            }
+
+            final boolean lt;
+            if (ranked) {
+                // rank bound counts values below constant, or up to and including
+                // constant when symbol is on the right
+                final int rank = symbolTable.rankOf(key);
+                lt = symbolLeft ? rank < rankBound : rank >= rankBound;
+            } else if (symbolLeft) {
+                lt = Chars.compare(symbolTable.valueOf(key), constant) < 0;
+            } else {
+                lt = Chars.compare(constant, symbolTable.valueOf(key)) < 0;
+            }
+            return isNegated != lt;
+        }
+
+        @Override
+        public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) {
+            arg.init(symbolTableSource, executionContext);
+            symbolTable = arg.getStaticSymbolTable();
+            assert symbolTable != null;
+            ranked = constant != null && symbolTable.hasRanks();
+            if (ranked) {
+                rankBound = symbolTable.rankBound(constant, !symbolLeft);
+            }
+        }
+    }
+
+    private static class Func extends BooleanFunction implements BinaryFunction {
+        private final boolean isNegated;
+        private final Function left;
+        private final Function right;
+
+        public Func(int position, Function left, Function right, boolean isNegated) {
+            super(position);
+            this.left = left;
+            this.right = right;
+            this.isNegated = isNegated;
+        }
+
+        @Override
+        public Function getLeft() {
+            return left;
+        }
+
+        @Override
+        public Function getRight() {
+            return right;
+        }
+
+        @Override
+        public boolean getBool(Record rec) {
+            final CharSequence a = getValue(left, rec);
+            final CharSequence b = getValue(right, rec);
+            if (a == null || b == null) {
+                return false;
+            }
+            return isNegated != (Chars.compare(a, b) < 0);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.regex;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
+import io.questdb.griffin.FunctionFactory;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.engine.functions.AbstractSymbolPredicateFunction;
+import io.questdb.griffin.engine.functions.BooleanFunction;
+import io.questdb.griffin.engine.functions.SymbolFunction;
+import io.questdb.griffin.engine.functions.UnaryFunction;
+import io.questdb.std.ObjList;
+
+public class LikeFunctionFactory implements FunctionFactory {
+    @Override
+    public String getSignature() {
+        return "like(Ss)";
+    }
+
+    @Override
+    public Function newInstance(ObjList<Function> args, int position, CairoConfiguration configuration) throws SqlException {
+        return newInstance(position, args.getQuick(0), args.getQuick(1), false);
+    }
+
+    static Function newInstance(int position, Function value, Function pattern, boolean caseInsensitive) throws SqlException {
+        // single character literals are parsed as char constants
+        final CharSequence likeString = pattern.getType() == ColumnType.CHAR
+                ? String.valueOf(pattern.getChar(null))
+                : pattern.getStr(null);
+
+        if (likeString == null) {
+            throw SqlException.$(pattern.getPosition(), "NULL pattern");
+        }
+
+        final LikeMatcher matcher = LikeMatcher.compile(likeString, caseInsensitive, pattern.getPosition());
+        if (value instanceof SymbolFunction) {
+            if (((SymbolFunction) value).isSymbolTableStatic()) {
+                // pattern is matched once per distinct symbol value
+                return new MatchKeyFunction(position, (SymbolFunction) value, matcher);
+            }
+            return new MatchSymbolFunction(position, value, matcher);
+        }
+        return new MatchFunction(position, value, matcher);
+    }
+
+    private static class MatchFunction extends BooleanFunction implements UnaryFunction {
+        private final Function arg;
+        private final LikeMatcher matcher;
+
+        public MatchFunction(int position, Function arg, LikeMatcher matcher) {
+            super(position);
+            this.arg = arg;
+            this.matcher = matcher;
+        }
+
+        @Override
+        public Function getArg() {
+            return arg;
+        }
+
+        @Override
+        public boolean getBool(Record rec) {
+            final CharSequence cs = arg.getStr(rec);
+            return cs != null && matcher.matches(cs);
+        }
+    }
+
+    private static class MatchSymbolFunction extends BooleanFunction implements UnaryFunction {
+        private final Function arg;
+        private final LikeMatcher matcher;
+
+        public MatchSymbolFunction(int position, Function arg, LikeMatcher matcher) {
+            super(position);
+            this.arg = arg;
+            this.matcher = matcher;
+        }
+
+        @Override
+        public Function getArg() {
+            return arg;
+        }
+
+        @Override
+        public boolean getBool(Record rec) {
+            final CharSequence cs = arg.getSymbol(rec);
+            return cs != null && matcher.matches(cs);
+        }
+    }
+
+    private static class MatchKeyFunction extends AbstractSymbolPredicateFunction {
+        private final LikeMatcher matcher;
+
+        public MatchKeyFunction(int position, SymbolFunction arg, LikeMatcher matcher) {
+            super(position, arg);
+            this.matcher = matcher;
+        }
+
+        @Override
+        protected boolean matches(CharSequence value) {
+            return value != null && matcher.matches(value);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.regex;
+
+import io.questdb.griffin.SqlException;
+
+/**
+ * Matcher for SQL LIKE patterns. '%' matches any sequence of characters, '_' matches
+ * single character and '\' escapes either of them. Pattern is classified on compilation
+ * and common shapes, such as 'abc', 'abc%', '%abc' and '%abc%', are matched by region
+ * comparison without backtracking. Remaining patterns fall back to generic wildcard matcher.
+ * <p>
+ * Matchers work directly on CharSequence, which for string columns is a flyweight over
+ * column memory, so that values are not copied.
+ */
+public abstract class LikeMatcher {
+    private static final char ANY_ONE = 1;
+    private static final char ANY_MANY = 2;
+    protected final boolean caseInsensitive;
+
+    private LikeMatcher(boolean caseInsensitive) {
+        this.caseInsensitive = caseInsensitive;
+    }
+
+    public static LikeMatcher compile(CharSequence pattern, boolean caseInsensitive, int position) throws SqlException {
+        // parse pattern into literal characters and wildcard kinds
+        final int len = pattern.length();
+        final char[] chars = new char[len];
+        final char[] kinds = new char[len];
+        int n = 0;
+        int wildcards = 0;
+        for (int i = 0; i < len; i++) {
+            char c = pattern.charAt(i);
+            if (c == '\\') {
+                if (++i == len) {
+                    throw SqlException.$(position + i, "LIKE pattern must not end with escape character");
+                }
+                chars[n] = fold(pattern.charAt(i), caseInsensitive);
+                kinds[n++] = 0;
+            } else if (c == '%') {
+                // collapse consecutive '%'
+                if (n == 0 || kinds[n - 1] != ANY_MANY) {
+                    kinds[n++] = ANY_MANY;
+                    wildcards++;
+                }
+            } else if (c == '_') {
+                kinds[n++] = ANY_ONE;
+                wildcards++;
+            } else {
+                chars[n] = fold(c, caseInsensitive);
+                kinds[n++] = 0;
+            }
+        }
+
+        final boolean leading = n > 0 && kinds[0] == ANY_MANY;
+        final boolean trailing = n > 0 && kinds[n - 1] == ANY_MANY;
+        final int expected = (leading ? 1 : 0) + (trailing && (!leading || n > 1) ? 1 : 0);
+
+        if (wildcards == expected) {
+            final int lo = leading ? 1 : 0;
+            final int hi = trailing ? n - 1 : n;
+            final String literal = new String(chars, lo, Math.max(0, hi - lo));
+            if (leading && trailing) {
+                return new ContainsMatcher(literal, caseInsensitive);
+            }
+            if (leading) {
+                return new SuffixMatcher(literal, caseInsensitive);
+            }
+            if (trailing) {
+                return new PrefixMatcher(literal, caseInsensitive);
+            }
+            return new ExactMatcher(literal, caseInsensitive);
+        }
+
+        final char[] genericChars = new char[n];
+        final char[] genericKinds = new char[n];
+        System.arraycopy(chars, 0, genericChars, 0, n);
+        System.arraycopy(kinds, 0, genericKinds, 0, n);
+        return new GenericMatcher(genericChars, genericKinds, caseInsensitive);
+    }
+
+    /**
+     * @param value non-null value to test
+     * @return true when whole value matches the pattern
+     */
+    public abstract boolean matches(CharSequence value);
+
+    private static char fold(char c, boolean caseInsensitive) {
+        return caseInsensitive ? Character.toLowerCase(Character.toUpperCase(c)) : c;
+    }
+
+    protected boolean regionMatches(CharSequence value, int offset, String literal) {
+        final int len = literal.length();
+        if (caseInsensitive) {
+            for (int i = 0; i < len; i++) {
+                if (fold(value.charAt(offset + i), true) != literal.charAt(i)) {
+                    return false;
+                }
+            }
+        } else {
+            for (int i = 0; i < len; i++) {
+                if (value.charAt(offset + i) != literal.charAt(i)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static class ExactMatcher extends LikeMatcher {
+        private final String literal;
+
+        private ExactMatcher(String literal, boolean caseInsensitive) {
+            super(caseInsensitive);
+            this.literal = literal;
+        }
+
+        @Override
+        public boolean matches(CharSequence value) {
+            return value.length() == literal.length() && regionMatches(value, 0, literal);
+        }
+    }
+
+    private static class PrefixMatcher extends LikeMatcher {
+        private final String literal;
+
+        private PrefixMatcher(String literal, boolean caseInsensitive) {
+            super(caseInsensitive);
+            this.literal = literal;
+        }
+
+        @Override
+        public boolean matches(CharSequence value) {
+            return value.length() >= literal.length() && regionMatches(value, 0, literal);
+        }
+    }
+
+    private static class SuffixMatcher extends LikeMatcher {
+        private final String literal;
+
+        private SuffixMatcher(String literal, boolean caseInsensitive) {
+            super(caseInsensitive);
+            this.literal = literal;
+        }
+
+        @Override
+        public boolean matches(CharSequence value) {
+            final int offset = value.length() - literal.length();
+            return offset >= 0 && regionMatches(value, offset, literal);
+        }
+    }
+
+    private static class ContainsMatcher extends LikeMatcher {
+        private final String literal;
+
+        private ContainsMatcher(String literal, boolean caseInsensitive) {
+            super(caseInsensitive);
+            this.literal = literal;
+        }
+
+        @Override
+        public boolean matches(CharSequence value) {
+            final int len = literal.length();
+            if (len == 0) {
+                return true;
+            }
+
+            // scan for first character of literal and compare remainder on hit
+            final char first = literal.charAt(0);
+            for (int i = 0, last = value.length() - len; i <= last; i++) {
+                if (fold(value.charAt(i), caseInsensitive) == first && regionMatches(value, i, literal)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static class GenericMatcher extends LikeMatcher {
+        private final char[] chars;
+        private final char[] kinds;
+
+        private GenericMatcher(char[] chars, char[] kinds, boolean caseInsensitive) {
+            super(caseInsensitive);
+            this.chars = chars;
+            this.kinds = kinds;
+        }
+
+        @Override
+        public boolean matches(CharSequence value) {
+            // iterative wildcard matching, backtracking to the most recent '%' only
+            final int n = chars.length;
+            final int len = value.length();
+            int p = 0;
+            int v = 0;
+            int starP = -1;
+            int starV = 0;
+            while (v < len) {
+                if (p < n && kinds[p] == ANY_MANY) {
+                    starP = p++;
+                    starV = v;
+                } else if (p < n && (kinds[p] == ANY_ONE || chars[p] == fold(value.charAt(v), caseInsensitive))) {
+                    p++;
+                    v++;
+                } else if (starP > -1) {
+                    p = starP + 1;
+                    v = ++starV;
+                } else {
+                    return false;
+                }
+            }
+
+            while (p < n && kinds[p] == ANY_MANY) {
+                p++;
+            }
+            return p == n;
+        }
+    }
+}
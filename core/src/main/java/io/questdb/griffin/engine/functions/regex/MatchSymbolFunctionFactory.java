@@ -0,0 +1,117 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.regex;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
+import io.questdb.griffin.AbstractBooleanFunctionFactory;
+import io.questdb.griffin.FunctionFactory;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.engine.functions.AbstractSymbolPredicateFunction;
+import io.questdb.griffin.engine.functions.BooleanFunction;
+import io.questdb.griffin.engine.functions.SymbolFunction;
+import io.questdb.griffin.engine.functions.UnaryFunction;
+import io.questdb.std.Chars;
+import io.questdb.std.ObjList;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Creates both ~= and !~ over symbols, the latter is negated counterpart of the former.
+ */
+public class MatchSymbolFunctionFactory extends AbstractBooleanFunctionFactory implements FunctionFactory {
+    @Override
+    public String getSignature() {
+        return "~=(Ks)";
+    }
+
+    @Override
+    public Function newInstance(ObjList<Function> args, int position, CairoConfiguration configuration) throws SqlException {
+        SymbolFunction value = (SymbolFunction) args.getQuick(0);
+        CharSequence regex = args.getQuick(1).getStr(null);
+
+        if (regex == null) {
+            throw SqlException.$(args.getQuick(1).getPosition(), "NULL regex");
+        }
+
+        try {
+            Matcher matcher = Pattern.compile(Chars.toString(regex)).matcher("");
+            if (value.isSymbolTableStatic()) {
+                // regex is evaluated once per distinct symbol value
+                return new MatchKeyFunction(position, value, matcher, isNegated);
+            }
+            return new MatchFunction(position, value, matcher, isNegated);
+        } catch (PatternSyntaxException e) {
+            throw SqlException.$(args.getQuick(1).getPosition() + e.getIndex() + 1, e.getMessage());
+        }
+    }
+
+    private static boolean matches(Matcher matcher, CharSequence value, boolean isNegated) {
+        // null symbol matches no regex
+        return isNegated != (value != null && matcher.reset(value).find());
+    }
+
+    private static class MatchFunction extends BooleanFunction implements UnaryFunction {
+        private final Function arg;
+        private final Matcher matcher;
+        private final boolean isNegated;
+
+        public MatchFunction(int position, Function arg, Matcher matcher, boolean isNegated) {
+            super(position);
+            this.arg = arg;
+            this.matcher = matcher;
+            this.isNegated = isNegated;
+        }
+
+        @Override
+        public Function getArg() {
+            return arg;
+        }
+
+        @Override
+        public boolean getBool(Record rec) {
+            return matches(matcher, arg.getSymbol(rec), isNegated);
+        }
+    }
+
+    private static class MatchKeyFunction extends AbstractSymbolPredicateFunction {
+        private final Matcher matcher;
+        private final boolean isNegated;
+
+        public MatchKeyFunction(int position, SymbolFunction arg, Matcher matcher, boolean isNegated) {
+            super(position, arg);
+            this.matcher = matcher;
+            this.isNegated = isNegated;
+        }
+
+        @Override
+        protected boolean matches(CharSequence value) {
+            return MatchSymbolFunctionFactory.matches(matcher, value, isNegated);
+        }
+    }
+}
@@ -78,6 +78,7 @@ public class DistinctRecordCursorFactory implements RecordCursorFactory {
 
     @Override
     public RecordCursor getCursor(SqlExecutionContext executionContext) {
+        dataMap.setMemoryTracker(executionContext.getMemoryTracker());
         dataMap.clear();
         final RecordCursor baseCursor = base.getCursor(executionContext);
         try {
@@ -71,6 +71,7 @@ public class GroupByNotKeyedRecordCursorFactory implements RecordCursorFactory {
         try {
             final Record baseRecord = baseCursor.getRecord();
             final int n = groupByFunctions.size();
+            GroupByUtils.setMemoryTracker(groupByFunctions, executionContext.getMemoryTracker());
 
             if (baseCursor.hasNext()) {
                 GroupByUtils.updateNew(groupByFunctions, n, simpleMapValue, baseRecord);
@@ -96,6 +96,8 @@ public class GroupByRecordCursorFactory implements RecordCursorFactory {
 
     @Override
     public RecordCursor getCursor(SqlExecutionContext executionContext) {
+        dataMap.setMemoryTracker(executionContext.getMemoryTracker());
+        GroupByUtils.setMemoryTracker(groupByFunctions, executionContext.getMemoryTracker());
         dataMap.clear();
         final RecordCursor baseCursor = base.getCursor(executionContext);
 
@@ -34,12 +34,14 @@ import io.questdb.griffin.SqlException;
 import io.questdb.griffin.SqlExecutionContext;
 import io.questdb.griffin.engine.functions.GroupByFunction;
 import io.questdb.griffin.engine.functions.SymbolFunction;
+import io.questdb.griffin.engine.functions.UnaryFunction;
 import io.questdb.griffin.engine.functions.columns.*;
 import io.questdb.griffin.model.ExpressionNode;
 import io.questdb.griffin.model.QueryColumn;
 import io.questdb.griffin.model.QueryModel;
 import io.questdb.std.Chars;
 import io.questdb.std.IntList;
+import io.questdb.std.MemoryTracker;
 import io.questdb.std.ObjList;
 import org.jetbrains.annotations.NotNull;
 
@@ -203,6 +205,18 @@ public class GroupByUtils {
                 recordFunctions.add(groupByFunction);
                 type = groupByFunction.getType();
 
+                // symbol values of functions such as first() and last() are keys of the
+                // base cursor's symbol table, expose that table under our column index
+                if (type == ColumnType.SYMBOL && groupByFunction instanceof UnaryFunction) {
+                    final Function arg = ((UnaryFunction) groupByFunction).getArg();
+                    if (arg instanceof SymbolColumn) {
+                        if (symbolTableSkewIndex == null) {
+                            symbolTableSkewIndex = new IntList();
+                        }
+                        symbolTableSkewIndex.extendAndSet(i, ((SymbolColumn) arg).getColumnIndex());
+                    }
+                }
+
                 // and finish with populating metadata for this factory
                 groupByMetadata.add(
                         new TableColumnMetadata(
@@ -228,6 +242,18 @@ public class GroupByUtils {
         }
     }
 
+    public static void setMemoryTracker(ObjList<GroupByFunction> groupByFunctions, MemoryTracker memoryTracker) {
+        for (int i = 0, n = groupByFunctions.size(); i < n; i++) {
+            groupByFunctions.getQuick(i).setMemoryTracker(memoryTracker);
+        }
+    }
+
+    public static void toNextSample(ObjList<GroupByFunction> groupByFunctions) {
+        for (int i = 0, n = groupByFunctions.size(); i < n; i++) {
+            groupByFunctions.getQuick(i).toNextSample();
+        }
+    }
+
     public static void updateExisting(ObjList<GroupByFunction> groupByFunctions, int n, MapValue value, Record record) {
         for (int i = 0; i < n; i++) {
             groupByFunctions.getQuick(i).computeNext(value, record);
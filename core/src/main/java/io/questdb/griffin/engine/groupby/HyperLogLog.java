@@ -0,0 +1,134 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.groupby;
+
+import io.questdb.std.Hash;
+import io.questdb.std.Unsafe;
+
+/**
+ * HyperLogLog sketch over off-heap memory. Sketch of precision p is an array of 2^p one byte registers,
+ * its size does not depend on number of values added. Sketches of same precision are merged by taking
+ * maximum of each register, which allows building partial sketches concurrently.
+ * <p>
+ * Estimate is derived from sum of 2^-register over all registers and count of zero registers. Callers
+ * that maintain these two incrementally, see {@link #weight(int)}, can estimate cardinality without
+ * scanning registers.
+ */
+public final class HyperLogLog {
+    public static final int DEFAULT_PRECISION = 12;
+
+    private HyperLogLog() {
+    }
+
+    public static void add(long address, int precision, long hash) {
+        final long p = address + index(hash, precision);
+        final byte rank = rank(hash, precision);
+        if (rank > Unsafe.getUnsafe().getByte(p)) {
+            Unsafe.getUnsafe().putByte(p, rank);
+        }
+    }
+
+    public static void clear(long address, int precision) {
+        Unsafe.getUnsafe().setMemory(address, 1L << precision, (byte) 0);
+    }
+
+    public static long estimate(long address, int precision) {
+        double sum = 0;
+        long zeros = 0;
+        for (long p = address, hi = address + (1L << precision); p < hi; p++) {
+            final int register = Unsafe.getUnsafe().getByte(p);
+            sum += weight(register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        return estimate(sum, zeros, precision);
+    }
+
+    /**
+     * @param sum   sum of 2^-register over all registers
+     * @param zeros number of registers that are still zero
+     */
+    public static long estimate(double sum, long zeros, int precision) {
+        final int m = 1 << precision;
+        final double alpha;
+        switch (precision) {
+            case 4:
+                alpha = 0.673;
+                break;
+            case 5:
+                alpha = 0.697;
+                break;
+            case 6:
+                alpha = 0.709;
+                break;
+            default:
+                alpha = 0.7213 / (1 + 1.079 / m);
+                break;
+        }
+        final double estimate = alpha * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            // small range correction, linear counting is more accurate while there are empty registers
+            return Math.round(m * Math.log((double) m / zeros));
+        }
+        return Math.round(estimate);
+    }
+
+    public static long hash(long value) {
+        return Hash.fmix64(value);
+    }
+
+    public static long hash(CharSequence value) {
+        return Hash.hash64(value);
+    }
+
+    public static int index(long hash, int precision) {
+        return (int) (hash >>> (Long.SIZE - precision));
+    }
+
+    /**
+     * Merges sketch at source address into sketch at destination address, both sketches must be of same precision.
+     */
+    public static void merge(long dstAddress, long srcAddress, int precision) {
+        for (long i = 0, n = 1L << precision; i < n; i++) {
+            final byte register = Unsafe.getUnsafe().getByte(srcAddress + i);
+            if (register > Unsafe.getUnsafe().getByte(dstAddress + i)) {
+                Unsafe.getUnsafe().putByte(dstAddress + i, register);
+            }
+        }
+    }
+
+    /**
+     * @return position of leftmost 1-bit in the part of the hash that is not used as register index
+     */
+    public static byte rank(long hash, int precision) {
+        // guard bit caps rank when remaining bits are all zero
+        return (byte) (Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1);
+    }
+
+    public static double weight(int register) {
+        return Math.scalb(1.0, -register);
+    }
+}
@@ -0,0 +1,149 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.groupby;
+
+import io.questdb.std.Unsafe;
+
+/**
+ * Log-linear histogram of double values over off-heap memory. Each power of two between
+ * 2^{@value #MIN_EXPONENT} and 2^{@value #MAX_EXPONENT} is split into {@value #SUB_BUCKET_COUNT} linear
+ * sub-buckets for both positive and negative values, with one more bucket for zero. Histogram size is fixed
+ * at {@link #SIZE} bytes regardless of number of values added. Buckets are laid out in value order and
+ * histograms are merged by adding bucket counts, which allows building partial histograms concurrently.
+ * <p>
+ * Percentile is estimated as the middle of the bucket that holds value of the requested rank. Relative error
+ * of the estimate is within 1/(2 * {@value #SUB_BUCKET_COUNT}) for values inside the covered range, which
+ * includes every INT and LONG value. Magnitudes below the range are counted as zero. Magnitudes of
+ * 2^{@value #MAX_EXPONENT} and above, which only DOUBLE values reach, are counted in a dedicated overflow
+ * bucket at either end of the histogram. Value of an overflow bucket is unknown, percentile that falls into
+ * it is reported as exact maximum, or exact minimum for negative values, which callers keep alongside the
+ * histogram. All other estimates are clamped to minimum and maximum as well.
+ */
+public final class LogLinearHistogram {
+    public static final int MIN_EXPONENT = -24;
+    public static final int MAX_EXPONENT = 64;
+    public static final int SUB_BUCKET_COUNT = 16;
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int OVERFLOW_MAGNITUDE = (MAX_EXPONENT - MIN_EXPONENT) * SUB_BUCKET_COUNT;
+    private static final int HALF_BUCKET_COUNT = OVERFLOW_MAGNITUDE + 1;
+    private static final int ZERO_BUCKET = HALF_BUCKET_COUNT;
+    public static final int BUCKET_COUNT = 2 * HALF_BUCKET_COUNT + 1;
+    public static final long SIZE = (long) BUCKET_COUNT * Long.BYTES;
+
+    private LogLinearHistogram() {
+    }
+
+    public static void add(long address, double value) {
+        final long p = address + ((long) bucket(value) << 3);
+        Unsafe.getUnsafe().putLong(p, Unsafe.getUnsafe().getLong(p) + 1);
+    }
+
+    public static int bucket(double value) {
+        if (value > 0) {
+            final int magnitude = magnitude(value);
+            return magnitude < 0 ? ZERO_BUCKET : ZERO_BUCKET + 1 + magnitude;
+        }
+        if (value < 0) {
+            final int magnitude = magnitude(-value);
+            return magnitude < 0 ? ZERO_BUCKET : ZERO_BUCKET - 1 - magnitude;
+        }
+        return ZERO_BUCKET;
+    }
+
+    public static void clear(long address) {
+        Unsafe.getUnsafe().setMemory(address, SIZE, (byte) 0);
+    }
+
+    public static void merge(long dst, long src) {
+        for (long i = 0; i < SIZE; i += Long.BYTES) {
+            Unsafe.getUnsafe().putLong(dst + i, Unsafe.getUnsafe().getLong(dst + i) + Unsafe.getUnsafe().getLong(src + i));
+        }
+    }
+
+    /**
+     * Estimates value of given percentile using nearest rank method.
+     *
+     * @param count      number of values added to the histogram
+     * @param percentile percentile between 0 and 1
+     * @param min        smallest value added to the histogram
+     * @param max        largest value added to the histogram
+     * @return percentile estimate or NaN when histogram is empty
+     */
+    public static double percentile(long address, long count, double percentile, double min, double max) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(percentile * count));
+        if (rank == 1) {
+            return min;
+        }
+        if (rank >= count) {
+            return max;
+        }
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += Unsafe.getUnsafe().getLong(address + ((long) i << 3));
+            if (seen >= rank) {
+                return Math.max(min, Math.min(max, value(i)));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * @return middle value of the bucket, infinity for overflow buckets
+     */
+    public static double value(int bucket) {
+        if (bucket > ZERO_BUCKET) {
+            return magnitudeValue(bucket - ZERO_BUCKET - 1);
+        }
+        if (bucket < ZERO_BUCKET) {
+            return -magnitudeValue(ZERO_BUCKET - 1 - bucket);
+        }
+        return 0;
+    }
+
+    private static int magnitude(double value) {
+        final int exponent = Math.getExponent(value);
+        if (exponent < MIN_EXPONENT) {
+            return -1;
+        }
+        if (exponent >= MAX_EXPONENT) {
+            return OVERFLOW_MAGNITUDE;
+        }
+        final int subBucket = (int) (Double.doubleToRawLongBits(value) >>> (52 - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return ((exponent - MIN_EXPONENT) << SUB_BUCKET_BITS) + subBucket;
+    }
+
+    private static double magnitudeValue(int magnitude) {
+        if (magnitude == OVERFLOW_MAGNITUDE) {
+            // percentile() clamps infinity to exact maximum or minimum
+            return Double.POSITIVE_INFINITY;
+        }
+        final int exponent = MIN_EXPONENT + (magnitude >> SUB_BUCKET_BITS);
+        final int subBucket = magnitude & (SUB_BUCKET_COUNT - 1);
+        return Math.scalb(1.0 + (subBucket + 0.5) / SUB_BUCKET_COUNT, exponent);
+    }
+}
@@ -97,6 +97,7 @@ class SampleByFillNoneNotKeyedRecordCursor implements DelegatingRecordCursor, No
         // at the start of this loop 'lastTimestamp' will be set to timestamp
         // of first record in base cursor
         int n = groupByFunctions.size();
+        GroupByUtils.toNextSample(groupByFunctions);
         GroupByUtils.updateNew(groupByFunctions, n, simpleMapValue, baseRecord);
 
         while (base.hasNext()) {
@@ -142,6 +143,7 @@ class SampleByFillNoneNotKeyedRecordCursor implements DelegatingRecordCursor, No
         this.nextTimestamp = timestampSampler.round(baseRecord.getTimestamp(timestampIndex));
         this.lastTimestamp = this.nextTimestamp;
         interruptor = executionContext.getSqlExecutionInterruptor();
+        GroupByUtils.setMemoryTracker(groupByFunctions, executionContext.getMemoryTracker());
     }
 
     private class TimestampFunc extends TimestampFunction implements NoArgFunction {
@@ -114,6 +114,7 @@ class SampleByFillNoneRecordCursor implements DelegatingRecordCursor, NoRandomAc
     private boolean computeNextBatch() {
         this.lastTimestamp = this.nextTimestamp;
         this.map.clear();
+        GroupByUtils.toNextSample(groupByFunctions);
 
         // looks like we need to populate key map
         // at the start of this loop 'lastTimestamp' will be set to timestamp
@@ -168,6 +169,7 @@ class SampleByFillNoneRecordCursor implements DelegatingRecordCursor, NoRandomAc
         this.nextTimestamp = timestampSampler.round(baseRecord.getTimestamp(timestampIndex));
         this.lastTimestamp = this.nextTimestamp;
         interruptor = executionContext.getSqlExecutionInterruptor();
+        GroupByUtils.setMemoryTracker(groupByFunctions, executionContext.getMemoryTracker());
     }
 
     private boolean mapHasNext() {
@@ -97,6 +97,7 @@ public class SampleByFillNoneRecordCursorFactory implements RecordCursorFactory
         final RecordCursor baseCursor = base.getCursor(executionContext);
         try {
             if (baseCursor.hasNext()) {
+                map.setMemoryTracker(executionContext.getMemoryTracker());
                 map.clear();
                 return initFunctionsAndCursor(executionContext, baseCursor);
             }
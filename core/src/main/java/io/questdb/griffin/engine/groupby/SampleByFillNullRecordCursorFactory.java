@@ -160,6 +160,7 @@ public class SampleByFillNullRecordCursorFactory implements RecordCursorFactory
         final RecordCursor baseCursor = base.getCursor(executionContext);
         final SqlExecutionInterruptor interruptor = executionContext.getSqlExecutionInterruptor();
         try {
+            map.setMemoryTracker(executionContext.getMemoryTracker());
             map.clear();
 
             // This factory fills gaps in data. To do that we
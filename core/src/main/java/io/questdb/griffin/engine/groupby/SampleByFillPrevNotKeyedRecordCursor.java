@@ -116,6 +116,7 @@ public class SampleByFillPrevNotKeyedRecordCursor implements DelegatingRecordCur
         this.lastTimestamp = timestampSampler.round(baseRecord.getTimestamp(timestampIndex));
 
         final int n = groupByFunctions.size();
+        GroupByUtils.toNextSample(groupByFunctions);
         for (int i = 0; i < n; i++) {
             groupByFunctions.getQuick(i).computeFirst(simpleMapValue, baseRecord);
         }
@@ -166,6 +167,7 @@ public class SampleByFillPrevNotKeyedRecordCursor implements DelegatingRecordCur
         this.nextTimestamp = timestampSampler.round(baseRecord.getTimestamp(timestampIndex));
         this.lastTimestamp = this.nextTimestamp;
         interruptor = executionContext.getSqlExecutionInterruptor();
+        GroupByUtils.setMemoryTracker(groupByFunctions, executionContext.getMemoryTracker());
     }
 
     private class TimestampFunc extends TimestampFunction implements NoArgFunction {
@@ -125,6 +125,7 @@ class SampleByFillPrevRecordCursor implements DelegatingRecordCursor, NoRandomAc
         }
 
         this.lastTimestamp = this.nextTimestamp;
+        GroupByUtils.toNextSample(groupByFunctions);
 
         // looks like we need to populate key map
 
@@ -206,6 +207,7 @@ class SampleByFillPrevRecordCursor implements DelegatingRecordCursor, NoRandomAc
         this.nextTimestamp = timestampSampler.round(baseRecord.getTimestamp(timestampIndex));
         this.lastTimestamp = this.nextTimestamp;
         interruptor = executionContext.getSqlExecutionInterruptor();
+        GroupByUtils.setMemoryTracker(groupByFunctions, executionContext.getMemoryTracker());
     }
 
     private class TimestampFunc extends TimestampFunction implements NoArgFunction {
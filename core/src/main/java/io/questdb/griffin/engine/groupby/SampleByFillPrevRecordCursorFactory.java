@@ -114,6 +114,7 @@ public class SampleByFillPrevRecordCursorFactory implements RecordCursorFactory
         final RecordCursor baseCursor = base.getCursor(executionContext);
         final SqlExecutionInterruptor interruptor = executionContext.getSqlExecutionInterruptor();
         try {
+            map.setMemoryTracker(executionContext.getMemoryTracker());
             map.clear();
             // This factory fills gaps in data. To do that we
             // have to know all possible key values. Essentially, every time
@@ -121,6 +121,7 @@ public class SampleByFillValueNotKeyedRecordCursor implements DelegatingRecordCu
         record.setActiveA();
 
         int n = groupByFunctions.size();
+        GroupByUtils.toNextSample(groupByFunctions);
         // initialize values
         for (int i = 0; i < n; i++) {
             interruptor.checkInterrupted();
@@ -173,6 +174,7 @@ public class SampleByFillValueNotKeyedRecordCursor implements DelegatingRecordCu
         this.nextTimestamp = timestampSampler.round(baseRecord.getTimestamp(timestampIndex));
         this.lastTimestamp = this.nextTimestamp;
         interruptor = executionContext.getSqlExecutionInterruptor();
+        GroupByUtils.setMemoryTracker(groupByFunctions, executionContext.getMemoryTracker());
     }
 
     private class TimestampFunc extends TimestampFunction implements NoArgFunction {
@@ -131,6 +131,7 @@ class SampleByFillValueRecordCursor implements DelegatingRecordCursor, NoRandomA
         }
 
         this.lastTimestamp = this.nextTimestamp;
+        GroupByUtils.toNextSample(groupByFunctions);
 
         // looks like we need to populate key map
 
@@ -213,6 +214,7 @@ class SampleByFillValueRecordCursor implements DelegatingRecordCursor, NoRandomA
         this.nextTimestamp = timestampSampler.round(baseRecord.getTimestamp(timestampIndex));
         this.lastTimestamp = this.nextTimestamp;
         interruptor = executionContext.getSqlExecutionInterruptor();
+        GroupByUtils.setMemoryTracker(groupByFunctions, executionContext.getMemoryTracker());
     }
 
     private void refreshCursorAndRecord() {
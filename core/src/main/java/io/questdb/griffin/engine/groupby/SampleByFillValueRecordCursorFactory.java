@@ -180,6 +180,7 @@ public class SampleByFillValueRecordCursorFactory implements RecordCursorFactory
         final RecordCursor baseCursor = base.getCursor(executionContext);
         final SqlExecutionInterruptor interruptor = executionContext.getSqlExecutionInterruptor();
         try {
+            map.setMemoryTracker(executionContext.getMemoryTracker());
             map.clear();
 
             // This factory fills gaps in data. To do that we
@@ -200,6 +200,9 @@ public class SampleByInterpolateRecordCursorFactory implements RecordCursorFacto
 
     @Override
     public RecordCursor getCursor(SqlExecutionContext executionContext) {
+        recordKeyMap.setMemoryTracker(executionContext.getMemoryTracker());
+        dataMap.setMemoryTracker(executionContext.getMemoryTracker());
+        GroupByUtils.setMemoryTracker(groupByFunctions, executionContext.getMemoryTracker());
         recordKeyMap.clear();
         dataMap.clear();
         final RecordCursor baseCursor = base.getCursor(executionContext);
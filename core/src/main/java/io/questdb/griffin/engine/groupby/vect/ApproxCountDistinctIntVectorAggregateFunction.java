@@ -0,0 +1,108 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.groupby.vect;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.sql.Record;
+import io.questdb.griffin.engine.functions.LongFunction;
+import io.questdb.griffin.engine.groupby.HyperLogLog;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Numbers;
+import io.questdb.std.Unsafe;
+
+/**
+ * Approximate count of distinct INT or SYMBOL key values without group keys. Each worker adds page frame
+ * values to its own {@link HyperLogLog} sketch. Sketches are merged into a separate result sketch when
+ * result is read, so that worker sketches stay intact and result can be read more than once.
+ * Sketches do not fit Rosti value slots, keyed queries use map based group by instead.
+ */
+public class ApproxCountDistinctIntVectorAggregateFunction extends LongFunction implements VectorAggregateFunction {
+    public static final VectorAggregateFunctionConstructor CONSTRUCTOR = ApproxCountDistinctIntVectorAggregateFunction::new;
+    private static final int PRECISION = HyperLogLog.DEFAULT_PRECISION;
+    private static final long SKETCH_SIZE = 1L << PRECISION;
+    private final int columnIndex;
+    private final int workerCount;
+    // worker sketches followed by result sketch
+    private final long memSize;
+    private long sketches;
+
+    public ApproxCountDistinctIntVectorAggregateFunction(int position, int keyKind, int columnIndex, int workerCount) {
+        super(position);
+        this.columnIndex = columnIndex;
+        this.workerCount = Math.max(1, workerCount);
+        this.memSize = (this.workerCount + 1) * SKETCH_SIZE;
+        this.sketches = Unsafe.malloc(memSize, MemoryTag.NATIVE_MAP);
+        clear();
+    }
+
+    @Override
+    public void aggregate(long address, long count, int workerId) {
+        if (workerId < 0 || workerId >= workerCount) {
+            throw CairoException.instance(0).put("worker id is out of range [workerId=").put(workerId).put(", workerCount=").put(workerCount).put(']');
+        }
+        if (address != 0) {
+            final long sketch = sketches + workerId * SKETCH_SIZE;
+            for (long p = address, hi = address + (count << 2); p < hi; p += Integer.BYTES) {
+                final int value = Unsafe.getUnsafe().getInt(p);
+                if (value != Numbers.INT_NaN) {
+                    HyperLogLog.add(sketch, PRECISION, HyperLogLog.hash(value));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        Unsafe.getUnsafe().setMemory(sketches, memSize, (byte) 0);
+    }
+
+    @Override
+    public void close() {
+        if (sketches != 0) {
+            Unsafe.free(sketches, memSize, MemoryTag.NATIVE_MAP);
+            sketches = 0;
+        }
+    }
+
+    @Override
+    public int getColumnIndex() {
+        return columnIndex;
+    }
+
+    @Override
+    public long getLong(Record rec) {
+        final long result = sketches + workerCount * SKETCH_SIZE;
+        HyperLogLog.clear(result, PRECISION);
+        for (int i = 0; i < workerCount; i++) {
+            HyperLogLog.merge(result, sketches + i * SKETCH_SIZE, PRECISION);
+        }
+        return HyperLogLog.estimate(result, PRECISION);
+    }
+
+    @Override
+    public boolean isRostiSupported() {
+        return false;
+    }
+}
@@ -0,0 +1,167 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.groupby.vect;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.sql.Record;
+import io.questdb.griffin.engine.functions.DoubleFunction;
+import io.questdb.griffin.engine.groupby.LogLinearHistogram;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Misc;
+import io.questdb.std.Numbers;
+import io.questdb.std.Unsafe;
+
+import java.util.Arrays;
+
+/**
+ * Approximate percentile of INT, LONG or DOUBLE column values without group keys. Each worker adds page
+ * frame values to its own {@link LogLinearHistogram}, histograms are merged when result is read.
+ * Histograms do not fit Rosti value slots, keyed queries use map based group by instead.
+ */
+public class ApproxPercentileVectorAggregateFunction extends DoubleFunction implements VectorAggregateFunction {
+    private final int columnIndex;
+    private final int columnType;
+    private final double percentile;
+    private final int workerCount;
+    private final long[] count;
+    private final double[] min;
+    private final double[] max;
+    private long histograms;
+
+    public ApproxPercentileVectorAggregateFunction(int position, int columnIndex, int columnType, int workerCount, double percentile) {
+        super(position);
+        this.columnIndex = columnIndex;
+        this.columnType = columnType;
+        this.percentile = percentile;
+        this.workerCount = Math.max(1, workerCount);
+        this.count = new long[this.workerCount * Misc.CACHE_LINE_SIZE];
+        this.min = new double[this.workerCount * Misc.CACHE_LINE_SIZE];
+        this.max = new double[this.workerCount * Misc.CACHE_LINE_SIZE];
+        this.histograms = Unsafe.malloc(this.workerCount * LogLinearHistogram.SIZE, MemoryTag.NATIVE_MAP);
+        clear();
+    }
+
+    @Override
+    public void aggregate(long address, long count, int workerId) {
+        if (workerId < 0 || workerId >= workerCount) {
+            throw CairoException.instance(0).put("worker id is out of range [workerId=").put(workerId).put(", workerCount=").put(workerCount).put(']');
+        }
+        if (address != 0) {
+            final long histogram = histograms + workerId * LogLinearHistogram.SIZE;
+            final int offset = workerId * Misc.CACHE_LINE_SIZE;
+            long n = 0;
+            double min = this.min[offset];
+            double max = this.max[offset];
+            switch (columnType) {
+                case ColumnType.INT:
+                    for (long p = address, hi = address + count * Integer.BYTES; p < hi; p += Integer.BYTES) {
+                        final int value = Unsafe.getUnsafe().getInt(p);
+                        if (value != Numbers.INT_NaN) {
+                            LogLinearHistogram.add(histogram, value);
+                            min = Math.min(min, value);
+                            max = Math.max(max, value);
+                            n++;
+                        }
+                    }
+                    break;
+                case ColumnType.LONG:
+                    for (long p = address, hi = address + count * Long.BYTES; p < hi; p += Long.BYTES) {
+                        final long value = Unsafe.getUnsafe().getLong(p);
+                        if (value != Numbers.LONG_NaN) {
+                            LogLinearHistogram.add(histogram, value);
+                            min = Math.min(min, value);
+                            max = Math.max(max, value);
+                            n++;
+                        }
+                    }
+                    break;
+                default:
+                    for (long p = address, hi = address + count * Double.BYTES; p < hi; p += Double.BYTES) {
+                        final double value = Unsafe.getUnsafe().getDouble(p);
+                        if (value == value) {
+                            LogLinearHistogram.add(histogram, value);
+                            min = Math.min(min, value);
+                            max = Math.max(max, value);
+                            n++;
+                        }
+                    }
+                    break;
+            }
+            this.count[offset] += n;
+            this.min[offset] = min;
+            this.max[offset] = max;
+        }
+    }
+
+    @Override
+    public void clear() {
+        Unsafe.getUnsafe().setMemory(histograms, workerCount * LogLinearHistogram.SIZE, (byte) 0);
+        Arrays.fill(count, 0);
+        Arrays.fill(min, Double.POSITIVE_INFINITY);
+        Arrays.fill(max, Double.NEGATIVE_INFINITY);
+    }
+
+    @Override
+    public void close() {
+        if (histograms != 0) {
+            Unsafe.free(histograms, workerCount * LogLinearHistogram.SIZE, MemoryTag.NATIVE_MAP);
+            histograms = 0;
+        }
+    }
+
+    @Override
+    public int getColumnIndex() {
+        return columnIndex;
+    }
+
+    @Override
+    public double getDouble(Record rec) {
+        long count = this.count[0];
+        double min = this.min[0];
+        double max = this.max[0];
+        for (int i = 1; i < workerCount; i++) {
+            final int offset = i * Misc.CACHE_LINE_SIZE;
+            if (this.count[offset] > 0) {
+                LogLinearHistogram.merge(histograms, histograms + i * LogLinearHistogram.SIZE);
+                count += this.count[offset];
+                min = Math.min(min, this.min[offset]);
+                max = Math.max(max, this.max[offset]);
+                // merged histogram stays with worker 0 so that result can be read again
+                LogLinearHistogram.clear(histograms + i * LogLinearHistogram.SIZE);
+                this.count[offset] = 0;
+            }
+        }
+        this.count[0] = count;
+        this.min[0] = min;
+        this.max[0] = max;
+        return LogLinearHistogram.percentile(histograms, count, percentile, min, max);
+    }
+
+    @Override
+    public boolean isRostiSupported() {
+        return false;
+    }
+}
@@ -26,6 +26,7 @@ package io.questdb.griffin.engine.groupby.vect;
 
 import io.questdb.cairo.ArrayColumnTypes;
 import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.map.MapValue;
 import io.questdb.cairo.sql.Record;
 import io.questdb.griffin.engine.functions.DoubleFunction;
 import io.questdb.std.Rosti;
@@ -126,4 +127,38 @@ public class AvgDoubleVectorAggregateFunction extends DoubleFunction implements
         }
         return Double.NaN;
     }
+
+    @Override
+    public boolean isMultiKeySupported() {
+        return true;
+    }
+
+    @Override
+    public void initValue(MapValue value) {
+        value.putDouble(valueOffset, 0);
+        value.putLong(valueOffset + 1, 0);
+    }
+
+    @Override
+    public void aggregate(MapValue value, long address, long row) {
+        if (address != 0) {
+            final double v = Unsafe.getUnsafe().getDouble(address + (row << 3));
+            if (v == v) {
+                value.addDouble(valueOffset, v);
+                value.addLong(valueOffset + 1, 1);
+            }
+        }
+    }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        destValue.addDouble(valueOffset, srcValue.getDouble(valueOffset));
+        destValue.addLong(valueOffset + 1, srcValue.getLong(valueOffset + 1));
+    }
+
+    @Override
+    public void wrapUp(MapValue value) {
+        final long count = value.getLong(valueOffset + 1);
+        value.putDouble(valueOffset, count > 0 ? value.getDouble(valueOffset) / count : Double.NaN);
+    }
 }
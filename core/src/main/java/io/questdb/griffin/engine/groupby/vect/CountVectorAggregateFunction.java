@@ -26,6 +26,7 @@ package io.questdb.griffin.engine.groupby.vect;
 
 import io.questdb.cairo.ArrayColumnTypes;
 import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.map.MapValue;
 import io.questdb.cairo.sql.Record;
 import io.questdb.griffin.SqlCodeGenerator;
 import io.questdb.griffin.engine.functions.LongFunction;
@@ -99,4 +100,24 @@ public class CountVectorAggregateFunction extends LongFunction implements Vector
     private interface CountFunc {
         void count(long pRosti, long pKeys, long count, int valueOffset);
     }
+
+    @Override
+    public boolean isMultiKeySupported() {
+        return true;
+    }
+
+    @Override
+    public void initValue(MapValue value) {
+        value.putLong(valueOffset, 0);
+    }
+
+    @Override
+    public void aggregate(MapValue value, long address, long row) {
+        value.addLong(valueOffset, 1);
+    }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        destValue.addLong(valueOffset, srcValue.getLong(valueOffset));
+    }
 }
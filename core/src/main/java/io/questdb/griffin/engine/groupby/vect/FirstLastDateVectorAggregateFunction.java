@@ -0,0 +1,163 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+package io.questdb.griffin.engine.groupby.vect;
+
+import io.questdb.cairo.ArrayColumnTypes;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.map.MapValue;
+import io.questdb.cairo.sql.Record;
+import io.questdb.griffin.engine.functions.DateFunction;
+import io.questdb.std.Numbers;
+import io.questdb.std.Unsafe;
+
+public class FirstLastDateVectorAggregateFunction extends DateFunction implements VectorAggregateFunction {
+
+    private final int columnIndex;
+    private final int kind;
+    private int valueOffset;
+    private long value = Numbers.LONG_NaN;
+    private boolean found;
+
+    public FirstLastDateVectorAggregateFunction(int position, int columnIndex, int kind) {
+        super(position);
+        this.columnIndex = columnIndex;
+        this.kind = kind;
+    }
+
+    @Override
+    public void aggregate(long address, long count, int workerId) {
+        // frames arrive in order, first and last values are at the edges of the frame
+        if (count < 1) {
+            return;
+        }
+        switch (kind) {
+            case FirstLastKind.FIRST:
+                if (!found) {
+                    value = valueAt(address, 0);
+                    found = true;
+                }
+                break;
+            case FirstLastKind.LAST:
+                value = valueAt(address, count - 1);
+                break;
+            case FirstLastKind.FIRST_NOT_NULL:
+                if (value == Numbers.LONG_NaN && address != 0) {
+                    for (long row = 0; row < count; row++) {
+                        final long v = valueAt(address, row);
+                        if (v != Numbers.LONG_NaN) {
+                            value = v;
+                            break;
+                        }
+                    }
+                }
+                break;
+            default:
+                if (address != 0) {
+                    for (long row = count - 1; row > -1; row--) {
+                        final long v = valueAt(address, row);
+                        if (v != Numbers.LONG_NaN) {
+                            value = v;
+                            break;
+                        }
+                    }
+                }
+                break;
+        }
+    }
+
+    @Override
+    public void pushValueTypes(ArrayColumnTypes types) {
+        this.valueOffset = types.getColumnCount();
+        types.add(ColumnType.DATE);
+        types.add(ColumnType.LONG);
+    }
+
+    @Override
+    public int getColumnIndex() {
+        return columnIndex;
+    }
+
+    @Override
+    public int getValueOffset() {
+        return valueOffset;
+    }
+
+    @Override
+    public boolean isMultiKeySupported() {
+        return true;
+    }
+
+    @Override
+    public boolean isRostiSupported() {
+        // values are kept with row ids, which Rosti value slots cannot hold
+        return false;
+    }
+
+    @Override
+    public boolean isOrderSensitive() {
+        return true;
+    }
+
+    @Override
+    public void initValue(MapValue value) {
+        value.putDate(valueOffset, Numbers.LONG_NaN);
+        value.putLong(valueOffset + 1, -1);
+    }
+
+    @Override
+    public void aggregate(MapValue value, long address, long row, long rowId) {
+        final long v = valueAt(address, row);
+        if (FirstLastKind.isNotNull(kind) && v == Numbers.LONG_NaN) {
+            return;
+        }
+        if (FirstLastKind.replaces(kind, rowId, value.getLong(valueOffset + 1))) {
+            value.putDate(valueOffset, v);
+            value.putLong(valueOffset + 1, rowId);
+        }
+    }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        final long rowId = srcValue.getLong(valueOffset + 1);
+        if (rowId != -1 && FirstLastKind.replaces(kind, rowId, destValue.getLong(valueOffset + 1))) {
+            destValue.putDate(valueOffset, srcValue.getDate(valueOffset));
+            destValue.putLong(valueOffset + 1, rowId);
+        }
+    }
+
+    @Override
+    public void clear() {
+        value = Numbers.LONG_NaN;
+        found = false;
+    }
+
+    @Override
+    public long getDate(Record rec) {
+        return value;
+    }
+
+    private static long valueAt(long address, long row) {
+        return address == 0 ? Numbers.LONG_NaN : Unsafe.getUnsafe().getLong(address + (row << 3));
+    }
+}
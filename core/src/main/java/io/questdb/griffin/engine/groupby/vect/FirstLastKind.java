@@ -0,0 +1,52 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+package io.questdb.griffin.engine.groupby.vect;
+
+/**
+ * Flavours of first() and last() vector aggregates. Values of a group are kept together with
+ * row id, which is position of the row in page frame sequence. Frames are aggregated out of order
+ * by workers, row id decides which value wins when groups are merged.
+ */
+public final class FirstLastKind {
+    public static final int FIRST = 0;
+    public static final int LAST = 1;
+    public static final int FIRST_NOT_NULL = 2;
+    public static final int LAST_NOT_NULL = 3;
+
+    private FirstLastKind() {
+    }
+
+    public static boolean isFirst(int kind) {
+        return kind == FIRST || kind == FIRST_NOT_NULL;
+    }
+
+    public static boolean isNotNull(int kind) {
+        return kind == FIRST_NOT_NULL || kind == LAST_NOT_NULL;
+    }
+
+    // true when value with row id "rowId" replaces value of the group stored with "currentRowId"
+    static boolean replaces(int kind, long rowId, long currentRowId) {
+        return currentRowId == -1 || (isFirst(kind) ? rowId < currentRowId : rowId > currentRowId);
+    }
+}
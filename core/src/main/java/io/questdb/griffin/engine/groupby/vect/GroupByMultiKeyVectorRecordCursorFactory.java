@@ -0,0 +1,552 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.groupby.vect;
+
+import io.questdb.MessageBus;
+import io.questdb.cairo.ArrayColumnTypes;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.map.*;
+import io.questdb.cairo.sql.*;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.RingQueue;
+import io.questdb.mp.SOUnboundedCountDownLatch;
+import io.questdb.mp.Sequence;
+import io.questdb.mp.Worker;
+import io.questdb.std.*;
+import io.questdb.std.microtime.Timestamps;
+import io.questdb.std.str.CharSink;
+import io.questdb.tasks.VectorAggregateTask;
+
+import static io.questdb.griffin.SqlCodeGenerator.GKK_HOUR_INT;
+import static io.questdb.griffin.SqlCodeGenerator.GKK_VANILLA_LONG;
+
+/**
+ * Keyed GROUP BY over several fixed width key columns. Rosti hashes single int key, here
+ * key values are packed into map keys instead. Page frames are aggregated by worker pool into
+ * per-worker maps, which are merged once all frames are done. Worker map is created when the
+ * worker aggregates its first frame. It starts with room for as many keys as the query has rows,
+ * capped by configured map capacity, and grows from there.
+ */
+public class GroupByMultiKeyVectorRecordCursorFactory implements RecordCursorFactory {
+
+    private final static Log LOG = LogFactory.getLog(GroupByMultiKeyVectorRecordCursorFactory.class);
+    private static final int MIN_MAP_PAGE_SIZE = 4096;
+
+    private final RecordCursorFactory base;
+    private final ObjList<VectorAggregateFunction> vafList;
+    private final ObjectPool<VectorAggregateEntry> entryPool;
+    private final ObjectPool<MultiKeyFrame> framePool;
+    private final ObjList<VectorAggregateEntry> activeEntries;
+    private final SOUnboundedCountDownLatch doneLatch = new SOUnboundedCountDownLatch();
+    private final RecordMetadata metadata;
+    private final ObjList<Map> maps;
+    private final CairoConfiguration configuration;
+    private final ArrayColumnTypes keyTypes = new ArrayColumnTypes();
+    private final ArrayColumnTypes valueTypes = new ArrayColumnTypes();
+    private final int workerCount;
+    private final int entrySize;
+    private final IntList keyColumnIndexes;
+    private final IntList keyKinds;
+    private final int valueColumnCount;
+    private final MultiKeyRecordCursor cursor;
+    private volatile Throwable error;
+    private MemoryTracker memoryTracker;
+    private int mapKeyCapacity;
+    private int mapPageSize;
+
+    public GroupByMultiKeyVectorRecordCursorFactory(
+            CairoConfiguration configuration,
+            RecordCursorFactory base,
+            RecordMetadata metadata,
+            int workerCount,
+            @Transient ObjList<VectorAggregateFunction> vafList,
+            @Transient IntList aggregateIndexesInThisCursor,
+            @Transient IntList keyColumnIndexesInBase,
+            @Transient IntList keyColumnIndexesInThisCursor,
+            @Transient IntList keyKinds,
+            @Transient IntList symbolTableSkewIndex
+    ) {
+        this.entryPool = new ObjectPool<>(VectorAggregateEntry::new, configuration.getGroupByPoolCapacity());
+        this.framePool = new ObjectPool<>(MultiKeyFrame::new, configuration.getGroupByPoolCapacity());
+        this.activeEntries = new ObjList<>(configuration.getGroupByPoolCapacity());
+        this.base = base;
+        this.metadata = metadata;
+        this.configuration = configuration;
+        this.workerCount = workerCount;
+
+        final int keyCount = keyColumnIndexesInBase.size();
+        this.keyColumnIndexes = new IntList(keyCount);
+        this.keyColumnIndexes.addAll(keyColumnIndexesInBase);
+        this.keyKinds = new IntList(keyCount);
+        this.keyKinds.addAll(keyKinds);
+
+        int entrySize = Integer.BYTES;
+        for (int i = 0; i < keyCount; i++) {
+            keyTypes.add(keyKinds.getQuick(i) == GKK_VANILLA_LONG ? ColumnType.LONG : ColumnType.INT);
+            entrySize += ColumnType.sizeOf(keyTypes.getColumnType(i));
+        }
+
+        final int vafCount = vafList.size();
+        this.vafList = new ObjList<>(vafCount);
+        this.vafList.addAll(vafList);
+        for (int i = 0; i < vafCount; i++) {
+            vafList.getQuick(i).pushValueTypes(valueTypes);
+        }
+        this.valueColumnCount = valueTypes.getColumnCount();
+        for (int i = 0; i < valueColumnCount; i++) {
+            entrySize += ColumnType.sizeOf(valueTypes.getColumnType(i));
+        }
+        this.entrySize = entrySize;
+
+        // maps are created by workers on demand
+        this.maps = new ObjList<>(workerCount);
+        this.maps.setAll(workerCount, null);
+
+        // map record has value columns followed by key columns, translate indexes of this cursor
+        final IntList columnSkewIndex = new IntList(metadata.getColumnCount());
+        columnSkewIndex.setAll(metadata.getColumnCount(), 0);
+        for (int i = 0; i < vafCount; i++) {
+            columnSkewIndex.setQuick(aggregateIndexesInThisCursor.getQuick(i), vafList.getQuick(i).getValueOffset());
+        }
+        for (int i = 0; i < keyCount; i++) {
+            columnSkewIndex.setQuick(keyColumnIndexesInThisCursor.getQuick(i), valueColumnCount + i);
+        }
+        final IntList symbolSkew = new IntList(symbolTableSkewIndex.size());
+        symbolSkew.addAll(symbolTableSkewIndex);
+        this.cursor = new MultiKeyRecordCursor(columnSkewIndex, symbolSkew);
+    }
+
+    @Override
+    public void close() {
+        Misc.freeObjList(vafList);
+        Misc.freeObjList(maps);
+        Misc.free(base);
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) {
+        memoryTracker = executionContext.getMemoryTracker();
+        for (int i = 0, n = maps.size(); i < n; i++) {
+            final Map map = maps.getQuick(i);
+            if (map != null) {
+                // maps grow on worker threads, they charge the query they aggregate for
+                map.setMemoryTracker(memoryTracker);
+                map.clear();
+            }
+        }
+
+        final MessageBus bus = executionContext.getMessageBus();
+        assert bus != null;
+
+        final PageFrameCursor cursor = base.getPageFrameCursor(executionContext);
+        // query cannot have more distinct keys than rows
+        final long queryRowCount = cursor.size();
+        mapKeyCapacity = queryRowCount < 0 ? configuration.getSqlMapKeyCapacity() : (int) Math.max(1, Math.min(queryRowCount, configuration.getSqlMapKeyCapacity()));
+        mapPageSize = (int) Math.min(configuration.getSqlMapPageSize(), Numbers.ceilPow2(Math.max(MIN_MAP_PAGE_SIZE, (long) mapKeyCapacity * entrySize)));
+        final int vafCount = vafList.size();
+        final int keyCount = keyColumnIndexes.size();
+
+        final RingQueue<VectorAggregateTask> queue = bus.getVectorAggregateQueue();
+        final Sequence pubSeq = bus.getVectorAggregatePubSequence();
+
+        this.entryPool.clear();
+        this.framePool.clear();
+        this.activeEntries.clear();
+        this.error = null;
+        int queuedCount = 0;
+        int ownCount = 0;
+        int reclaimed = 0;
+        int total = 0;
+
+        doneLatch.reset();
+
+        // check if this executed via worker pool
+        final Thread thread = Thread.currentThread();
+        final int workerId;
+        if (thread instanceof Worker) {
+            workerId = ((Worker) thread).getWorkerId();
+        } else {
+            workerId = 0;
+        }
+
+        long rowOffset = 0;
+        PageFrame frame;
+        while ((frame = cursor.next()) != null) {
+            final MultiKeyFrame f = framePool.next().of(this);
+            long rowCount = 0;
+            for (int i = 0; i < keyCount; i++) {
+                final int columnIndex = keyColumnIndexes.getQuick(i);
+                f.keyAddresses.add(frame.getPageAddress(columnIndex));
+                rowCount = Math.max(rowCount, frame.getPageValueCount(columnIndex));
+            }
+            for (int i = 0; i < vafCount; i++) {
+                final int columnIndex = vafList.getQuick(i).getColumnIndex();
+                f.valueAddresses.add(frame.getPageAddress(columnIndex));
+                rowCount = Math.max(rowCount, frame.getPageValueCount(columnIndex));
+            }
+            f.rowCount = rowCount;
+            f.rowOffset = rowOffset;
+            rowOffset += rowCount;
+
+            final long seq = pubSeq.next();
+            if (seq < 0) {
+                aggregate(f, workerId);
+                ownCount++;
+            } else {
+                final VectorAggregateEntry entry = entryPool.next();
+                entry.of(queuedCount++, f, doneLatch);
+                activeEntries.add(entry);
+                queue.get(seq).entry = entry;
+                pubSeq.done(seq);
+            }
+            total++;
+        }
+
+        // start at the back to reduce chance of clashing
+        for (int i = activeEntries.size() - 1; i > -1 && doneLatch.getCount() > -queuedCount; i--) {
+            if (activeEntries.getQuick(i).run(workerId)) {
+                reclaimed++;
+            }
+        }
+
+        LOG.info().$("waiting for parts [queuedCount=").$(queuedCount).$(']').$();
+        doneLatch.await(queuedCount);
+
+        final Throwable e = error;
+        if (e != null) {
+            error = null;
+            Misc.free(cursor);
+            if (e instanceof CairoException) {
+                throw (CairoException) e;
+            }
+            throw CairoException.instance(0).put("group by task failed [error=").put(e.toString()).put(']');
+        }
+
+        Map map0 = null;
+        for (int i = 0, n = maps.size(); i < n; i++) {
+            final Map map = maps.getQuick(i);
+            if (map == null) {
+                continue;
+            }
+            if (map0 == null) {
+                map0 = map;
+            } else {
+                merge(map0, map);
+            }
+        }
+        if (map0 == null) {
+            // no frames, cursor still needs a map to iterate
+            map0 = getMap(0);
+        }
+
+        final RecordCursor mapCursor = map0.getCursor();
+        final MapRecord record = (MapRecord) mapCursor.getRecord();
+        while (mapCursor.hasNext()) {
+            final MapValue value = record.getValue();
+            for (int i = 0; i < vafCount; i++) {
+                vafList.getQuick(i).wrapUp(value);
+            }
+        }
+
+        LOG.info().$("done [total=").$(total).$(", ownCount=").$(ownCount).$(", reclaimed=").$(reclaimed).$(", queuedCount=").$(queuedCount).$(']').$();
+
+        return this.cursor.of(mapCursor, cursor);
+    }
+
+    @Override
+    public RecordMetadata getMetadata() {
+        return metadata;
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return true;
+    }
+
+    void aggregate(MultiKeyFrame frame, int workerId) {
+        try {
+            final Map map = getMap(workerId);
+            final int keyCount = keyColumnIndexes.size();
+            final int vafCount = vafList.size();
+            for (long row = 0, n = frame.rowCount; row < n; row++) {
+                final MapKey key = map.withKey();
+                for (int i = 0; i < keyCount; i++) {
+                    final long address = frame.keyAddresses.getQuick(i);
+                    switch (keyKinds.getQuick(i)) {
+                        case GKK_VANILLA_LONG:
+                            key.putLong(address == 0 ? Numbers.LONG_NaN : Unsafe.getUnsafe().getLong(address + (row << 3)));
+                            break;
+                        case GKK_HOUR_INT:
+                            key.putInt(address == 0 ? Numbers.INT_NaN : hour(Unsafe.getUnsafe().getLong(address + (row << 3))));
+                            break;
+                        default:
+                            key.putInt(address == 0 ? Numbers.INT_NaN : Unsafe.getUnsafe().getInt(address + (row << 2)));
+                            break;
+                    }
+                }
+                final MapValue value = key.createValue();
+                if (value.isNew()) {
+                    for (int i = 0; i < vafCount; i++) {
+                        vafList.getQuick(i).initValue(value);
+                    }
+                }
+                for (int i = 0; i < vafCount; i++) {
+                    vafList.getQuick(i).aggregate(value, frame.valueAddresses.getQuick(i), row, frame.rowOffset + row);
+                }
+            }
+        } catch (Throwable e) {
+            LOG.error().$("group by frame failed [error=").$(e).$(']').$();
+            error = e;
+        }
+    }
+
+    private Map getMap(int workerId) {
+        if (workerId < 0 || workerId >= workerCount) {
+            throw CairoException.instance(0).put("worker id is out of range [workerId=").put(workerId).put(", workerCount=").put(workerCount).put(']');
+        }
+        Map map = maps.getQuick(workerId);
+        if (map == null) {
+            // only the worker that owns the slot creates its map
+            map = new FastMap(
+                    mapPageSize,
+                    keyTypes,
+                    valueTypes,
+                    mapKeyCapacity,
+                    configuration.getSqlFastMapLoadFactor(),
+                    configuration.getSqlMapMaxResizes()
+            );
+            map.setMemoryTracker(memoryTracker);
+            maps.setQuick(workerId, map);
+        }
+        return map;
+    }
+
+    private static int hour(long timestamp) {
+        return timestamp == Numbers.LONG_NaN ? Numbers.INT_NaN : Timestamps.getHourOfDay(timestamp);
+    }
+
+    private void merge(Map dest, Map src) {
+        final int keyCount = keyColumnIndexes.size();
+        final int vafCount = vafList.size();
+        final RecordCursor srcCursor = src.getCursor();
+        final MapRecord record = (MapRecord) srcCursor.getRecord();
+        while (srcCursor.hasNext()) {
+            final MapKey key = dest.withKey();
+            for (int i = 0; i < keyCount; i++) {
+                if (keyKinds.getQuick(i) == GKK_VANILLA_LONG) {
+                    key.putLong(record.getLong(valueColumnCount + i));
+                } else {
+                    key.putInt(record.getInt(valueColumnCount + i));
+                }
+            }
+            final MapValue destValue = key.createValue();
+            if (destValue.isNew()) {
+                for (int i = 0; i < vafCount; i++) {
+                    vafList.getQuick(i).initValue(destValue);
+                }
+            }
+            final MapValue srcValue = record.getValue();
+            for (int i = 0; i < vafCount; i++) {
+                vafList.getQuick(i).merge(destValue, srcValue);
+            }
+        }
+    }
+
+    private static class MultiKeyRecordCursor implements RecordCursor {
+        private final IntList columnSkewIndex;
+        private final IntList symbolTableSkewIndex;
+        private final MultiKeyRecord record = new MultiKeyRecord();
+        private final MultiKeyRecord recordB = new MultiKeyRecord();
+        private RecordCursor mapCursor;
+        private PageFrameCursor parent;
+
+        public MultiKeyRecordCursor(IntList columnSkewIndex, IntList symbolTableSkewIndex) {
+            this.columnSkewIndex = columnSkewIndex;
+            this.symbolTableSkewIndex = symbolTableSkewIndex;
+        }
+
+        @Override
+        public void close() {
+            parent = Misc.free(parent);
+        }
+
+        @Override
+        public Record getRecord() {
+            return record;
+        }
+
+        @Override
+        public SymbolTable getSymbolTable(int columnIndex) {
+            return parent.getSymbolTable(symbolTableSkewIndex.getQuick(columnIndex));
+        }
+
+        @Override
+        public boolean hasNext() {
+            return mapCursor.hasNext();
+        }
+
+        @Override
+        public Record getRecordB() {
+            return recordB;
+        }
+
+        @Override
+        public void recordAt(Record record, long atRowId) {
+            mapCursor.recordAt(((MultiKeyRecord) record).base, atRowId);
+        }
+
+        @Override
+        public void toTop() {
+            mapCursor.toTop();
+        }
+
+        @Override
+        public long size() {
+            return mapCursor.size();
+        }
+
+        private MultiKeyRecordCursor of(RecordCursor mapCursor, PageFrameCursor parent) {
+            this.mapCursor = mapCursor;
+            this.parent = parent;
+            this.record.base = mapCursor.getRecord();
+            this.recordB.base = mapCursor.getRecordB();
+            mapCursor.toTop();
+            return this;
+        }
+
+        private class MultiKeyRecord implements Record {
+            private Record base;
+
+            @Override
+            public BinarySequence getBin(int col) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public long getBinLen(int col) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public boolean getBool(int col) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public byte getByte(int col) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public char getChar(int col) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public long getDate(int col) {
+                return base.getDate(columnSkewIndex.getQuick(col));
+            }
+
+            @Override
+            public double getDouble(int col) {
+                return base.getDouble(columnSkewIndex.getQuick(col));
+            }
+
+            @Override
+            public float getFloat(int col) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int getInt(int col) {
+                return base.getInt(columnSkewIndex.getQuick(col));
+            }
+
+            @Override
+            public long getLong(int col) {
+                return base.getLong(columnSkewIndex.getQuick(col));
+            }
+
+            @Override
+            public void getLong256(int col, CharSink sink) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Long256 getLong256A(int col) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Long256 getLong256B(int col) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public long getRowId() {
+                return base.getRowId();
+            }
+
+            @Override
+            public short getShort(int col) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CharSequence getStr(int col) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void getStr(int col, CharSink sink) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CharSequence getStrB(int col) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int getStrLen(int col) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CharSequence getSym(int col) {
+                return parent.getSymbolTable(symbolTableSkewIndex.getQuick(col)).valueOf(getInt(col));
+            }
+
+            @Override
+            public long getTimestamp(int col) {
+                return base.getTimestamp(columnSkewIndex.getQuick(col));
+            }
+        }
+    }
+}
@@ -66,6 +66,12 @@ public class GroupByNotKeyedVectorRecordCursorFactory implements RecordCursorFac
         this.cursor = new GroupByNotKeyedVectorRecordCursor(this.vafList);
     }
 
+    @Override
+    public void close() {
+        Misc.freeObjList(vafList);
+        Misc.free(base);
+    }
+
     @Override
     public RecordCursor getCursor(SqlExecutionContext executionContext) {
         final MessageBus bus = executionContext.getMessageBus();
@@ -107,7 +113,8 @@ public class GroupByNotKeyedVectorRecordCursorFactory implements RecordCursorFac
                 final int columnIndex = vaf.getColumnIndex();
                 final long pageAddress = frame.getPageAddress(columnIndex);
                 final long pageValueCount = frame.getPageValueCount(columnIndex);
-                long seq = pubSeq.next();
+                // order sensitive functions are aggregated by this thread, frame by frame
+                long seq = vaf.isOrderSensitive() ? -1 : pubSeq.next();
                 if (seq < 0) {
                     // diy the func
                     // vaf need to know which column it is hitting int he frame and will need to
@@ -30,6 +30,7 @@ import io.questdb.cairo.ColumnType;
 import io.questdb.cairo.ColumnTypes;
 import io.questdb.cairo.sql.*;
 import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.LimitOverflowException;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.mp.RingQueue;
@@ -52,6 +53,8 @@ public class GroupByRecordCursorFactory implements RecordCursorFactory {
     private final RecordMetadata metadata;
 
     private final long[] pRosti;
+    // map sizes accounted so far, maps grow natively while workers aggregate
+    private final long[] rostiSizes;
     private final int keyColumnIndex;
     private final RostiRecordCursor cursor;
 
@@ -80,10 +83,12 @@ public class GroupByRecordCursorFactory implements RecordCursorFactory {
         this.metadata = metadata;
         // first column is INT or SYMBOL
         this.pRosti = new long[workerCount];
+        this.rostiSizes = new long[workerCount];
         final int vafCount = vafList.size();
         this.vafList = new ObjList<>(vafCount);
         for (int i = 0; i < workerCount; i++) {
             pRosti[i] = Rosti.alloc(columnTypes, configuration.getGroupByMapCapacity());
+            rostiSizes[i] = Rosti.getAllocMemory(pRosti[i]);
 
             // todo: init key to null value
 
@@ -264,6 +269,23 @@ public class GroupByRecordCursorFactory implements RecordCursorFactory {
 
         LOG.info().$("done [total=").$(total).$(", ownCount=").$(ownCount).$(", reclaimed=").$(reclaimed).$(", queuedCount=").$(queuedCount).$(']').$();
 
+        // maps grow natively on worker threads, charge their growth to the query once they are merged
+        long growth = 0;
+        for (int i = 0, n = pRosti.length; i < n; i++) {
+            final long size = Rosti.updateMemoryUsage(pRosti[i], rostiSizes[i]);
+            growth += size - rostiSizes[i];
+            rostiSizes[i] = size;
+        }
+        final MemoryTracker memoryTracker = executionContext.getMemoryTracker();
+        if (memoryTracker != null && growth > 0) {
+            try {
+                memoryTracker.charge(growth);
+            } catch (LimitOverflowException e) {
+                Misc.free(cursor);
+                throw e;
+            }
+        }
+
         return this.cursor.of(cursor);
     }
 
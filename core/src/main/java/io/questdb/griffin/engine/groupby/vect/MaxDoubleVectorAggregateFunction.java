@@ -26,6 +26,7 @@ package io.questdb.griffin.engine.groupby.vect;
 
 import io.questdb.cairo.ArrayColumnTypes;
 import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.map.MapValue;
 import io.questdb.cairo.sql.Record;
 import io.questdb.griffin.engine.functions.DoubleFunction;
 import io.questdb.std.Rosti;
@@ -120,4 +121,38 @@ public class MaxDoubleVectorAggregateFunction extends DoubleFunction implements
     public void wrapUp(long pRosti) {
         Rosti.keyedIntMaxDoubleWrapUp(pRosti, valueOffset, max.get());
     }
+
+    @Override
+    public boolean isMultiKeySupported() {
+        return true;
+    }
+
+    @Override
+    public void initValue(MapValue value) {
+        value.putDouble(valueOffset, Double.NaN);
+    }
+
+    @Override
+    public void aggregate(MapValue value, long address, long row) {
+        if (address != 0) {
+            final double v = Unsafe.getUnsafe().getDouble(address + (row << 3));
+            if (v == v) {
+                final double current = value.getDouble(valueOffset);
+                if (v > current || current != current) {
+                    value.putDouble(valueOffset, v);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        final double v = srcValue.getDouble(valueOffset);
+        if (v == v) {
+            final double current = destValue.getDouble(valueOffset);
+            if (v > current || current != current) {
+                destValue.putDouble(valueOffset, v);
+            }
+        }
+    }
 }
@@ -26,8 +26,10 @@ package io.questdb.griffin.engine.groupby.vect;
 
 import io.questdb.cairo.ArrayColumnTypes;
 import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.map.MapValue;
 import io.questdb.cairo.sql.Record;
 import io.questdb.griffin.engine.functions.IntFunction;
+import io.questdb.std.Numbers;
 import io.questdb.std.Rosti;
 import io.questdb.std.Unsafe;
 import io.questdb.std.Vect;
@@ -116,4 +118,38 @@ public class MaxIntVectorAggregateFunction extends IntFunction implements Vector
     public int getInt(Record rec) {
         return max.intValue();
     }
+
+    @Override
+    public boolean isMultiKeySupported() {
+        return true;
+    }
+
+    @Override
+    public void initValue(MapValue value) {
+        value.putInt(valueOffset, Numbers.INT_NaN);
+    }
+
+    @Override
+    public void aggregate(MapValue value, long address, long row) {
+        if (address != 0) {
+            final int v = Unsafe.getUnsafe().getInt(address + (row << 2));
+            if (v != Numbers.INT_NaN) {
+                final int current = value.getInt(valueOffset);
+                if (v > current || current == Numbers.INT_NaN) {
+                    value.putInt(valueOffset, v);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        final int v = srcValue.getInt(valueOffset);
+        if (v != Numbers.INT_NaN) {
+            final int current = destValue.getInt(valueOffset);
+            if (v > current || current == Numbers.INT_NaN) {
+                destValue.putInt(valueOffset, v);
+            }
+        }
+    }
 }
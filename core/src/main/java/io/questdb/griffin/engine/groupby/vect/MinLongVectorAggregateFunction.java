@@ -26,6 +26,7 @@ package io.questdb.griffin.engine.groupby.vect;
 
 import io.questdb.cairo.ArrayColumnTypes;
 import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.map.MapValue;
 import io.questdb.cairo.sql.Record;
 import io.questdb.griffin.engine.functions.LongFunction;
 import io.questdb.std.Numbers;
@@ -121,4 +122,38 @@ public class MinLongVectorAggregateFunction extends LongFunction implements Vect
         final long value = accumulator.longValue();
         return value == Long.MAX_VALUE ? Numbers.LONG_NaN : value;
     }
+
+    @Override
+    public boolean isMultiKeySupported() {
+        return true;
+    }
+
+    @Override
+    public void initValue(MapValue value) {
+        value.putLong(valueOffset, Numbers.LONG_NaN);
+    }
+
+    @Override
+    public void aggregate(MapValue value, long address, long row) {
+        if (address != 0) {
+            final long v = Unsafe.getUnsafe().getLong(address + (row << 3));
+            if (v != Numbers.LONG_NaN) {
+                final long current = value.getLong(valueOffset);
+                if (v < current || current == Numbers.LONG_NaN) {
+                    value.putLong(valueOffset, v);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        final long v = srcValue.getLong(valueOffset);
+        if (v != Numbers.LONG_NaN) {
+            final long current = destValue.getLong(valueOffset);
+            if (v < current || current == Numbers.LONG_NaN) {
+                destValue.putLong(valueOffset, v);
+            }
+        }
+    }
 }
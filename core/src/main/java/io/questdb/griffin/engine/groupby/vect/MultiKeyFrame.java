@@ -0,0 +1,59 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.groupby.vect;
+
+import io.questdb.std.LongList;
+import io.questdb.std.Mutable;
+
+/**
+ * Column page addresses of a page frame queued for multi-key aggregation.
+ */
+class MultiKeyFrame implements Mutable {
+    final LongList keyAddresses = new LongList();
+    final LongList valueAddresses = new LongList();
+    long rowCount;
+    // row id of the first row of the frame
+    long rowOffset;
+    private GroupByMultiKeyVectorRecordCursorFactory factory;
+
+    @Override
+    public void clear() {
+        keyAddresses.clear();
+        valueAddresses.clear();
+        rowCount = 0;
+        rowOffset = 0;
+        factory = null;
+    }
+
+    void aggregate(int workerId) {
+        factory.aggregate(this, workerId);
+    }
+
+    MultiKeyFrame of(GroupByMultiKeyVectorRecordCursorFactory factory) {
+        clear();
+        this.factory = factory;
+        return this;
+    }
+}
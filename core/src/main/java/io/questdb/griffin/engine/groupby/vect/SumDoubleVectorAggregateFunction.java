@@ -26,6 +26,7 @@ package io.questdb.griffin.engine.groupby.vect;
 
 import io.questdb.cairo.ArrayColumnTypes;
 import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.map.MapValue;
 import io.questdb.cairo.sql.Record;
 import io.questdb.griffin.engine.functions.DoubleFunction;
 import io.questdb.std.Misc;
@@ -143,4 +144,39 @@ public class SumDoubleVectorAggregateFunction extends DoubleFunction implements
         }
         return count > 0 ? sum : Double.NaN;
     }
+
+    @Override
+    public boolean isMultiKeySupported() {
+        return true;
+    }
+
+    @Override
+    public void initValue(MapValue value) {
+        value.putDouble(valueOffset, 0);
+        value.putLong(valueOffset + 1, 0);
+    }
+
+    @Override
+    public void aggregate(MapValue value, long address, long row) {
+        if (address != 0) {
+            final double v = Unsafe.getUnsafe().getDouble(address + (row << 3));
+            if (v == v) {
+                value.addDouble(valueOffset, v);
+                value.addLong(valueOffset + 1, 1);
+            }
+        }
+    }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        destValue.addDouble(valueOffset, srcValue.getDouble(valueOffset));
+        destValue.addLong(valueOffset + 1, srcValue.getLong(valueOffset + 1));
+    }
+
+    @Override
+    public void wrapUp(MapValue value) {
+        if (value.getLong(valueOffset + 1) == 0) {
+            value.putDouble(valueOffset, Double.NaN);
+        }
+    }
 }
@@ -26,6 +26,7 @@ package io.questdb.griffin.engine.groupby.vect;
 
 import io.questdb.cairo.ArrayColumnTypes;
 import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.map.MapValue;
 import io.questdb.cairo.sql.Record;
 import io.questdb.griffin.engine.functions.LongFunction;
 import io.questdb.std.Numbers;
@@ -122,4 +123,38 @@ public class SumIntVectorAggregateFunction extends LongFunction implements Vecto
         return this.count.sum() > 0 ? this.sum.sum() : Numbers.LONG_NaN;
     }
 
+    @Override
+    public boolean isMultiKeySupported() {
+        return true;
+    }
+
+    @Override
+    public void initValue(MapValue value) {
+        value.putLong(valueOffset, 0);
+        value.putLong(valueOffset + 1, 0);
+    }
+
+    @Override
+    public void aggregate(MapValue value, long address, long row) {
+        if (address != 0) {
+            final int v = Unsafe.getUnsafe().getInt(address + (row << 2));
+            if (v != Numbers.INT_NaN) {
+                value.addLong(valueOffset, v);
+                value.addLong(valueOffset + 1, 1);
+            }
+        }
+    }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        destValue.addLong(valueOffset, srcValue.getLong(valueOffset));
+        destValue.addLong(valueOffset + 1, srcValue.getLong(valueOffset + 1));
+    }
+
+    @Override
+    public void wrapUp(MapValue value) {
+        if (value.getLong(valueOffset + 1) == 0) {
+            value.putLong(valueOffset, Numbers.LONG_NaN);
+        }
+    }
 }
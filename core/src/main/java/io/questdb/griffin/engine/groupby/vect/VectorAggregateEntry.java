@@ -41,6 +41,7 @@ public class VectorAggregateEntry implements Mutable {
     private long valueAddress;
     private long valueCount;
     private VectorAggregateFunction func;
+    private MultiKeyFrame frame;
     private int srcSequence;
     // to "lock" the entry thread must successfully CAS targetSequence form "srcSequence" value
     // to "srcSequence+1". Executing thread must not be changing value of "srcSequence"
@@ -62,6 +63,16 @@ public class VectorAggregateEntry implements Mutable {
         this.valueAddress = valuePageAddress;
         this.valueCount = valuePageCount;
         this.func = vaf;
+        this.frame = null;
+        this.srcSequence = sequence;
+        this.targetSequence = sequence;
+        this.doneLatch = doneLatch;
+    }
+
+    void of(int sequence, MultiKeyFrame frame, CountDownLatchSPI doneLatch) {
+        this.pRosti = null;
+        this.func = null;
+        this.frame = frame;
         this.srcSequence = sequence;
         this.targetSequence = sequence;
         this.doneLatch = doneLatch;
@@ -73,7 +84,9 @@ public class VectorAggregateEntry implements Mutable {
 
     public boolean run(int workerId) {
         if (tryLock()) {
-            if (pRosti != null) {
+            if (frame != null) {
+                frame.aggregate(workerId);
+            } else if (pRosti != null) {
                 func.aggregate(pRosti[workerId], keyAddress, valueAddress, valueCount, workerId);
             } else {
                 func.aggregate(valueAddress, valueCount, workerId);
@@ -89,5 +102,6 @@ public class VectorAggregateEntry implements Mutable {
         this.valueAddress = 0;
         this.valueCount = 0;
         func = null;
+        frame = null;
     }
 }
@@ -25,6 +25,7 @@
 package io.questdb.griffin.engine.groupby.vect;
 
 import io.questdb.cairo.ArrayColumnTypes;
+import io.questdb.cairo.map.MapValue;
 import io.questdb.cairo.sql.Function;
 import io.questdb.cairo.sql.SymbolTableSource;
 import io.questdb.griffin.SqlExecutionContext;
@@ -34,24 +35,80 @@ public interface VectorAggregateFunction extends Function, Mutable {
 
     void aggregate(long address, long count, int workerId);
 
-    void aggregate(long pRosti, long keyAddress, long valueAddress, long count, int workerId);
+    int getColumnIndex();
 
-    void pushValueTypes(ArrayColumnTypes types);
+    // functions that keep per group state Rosti value slots cannot hold opt out of
+    // Rosti keyed aggregation, the Rosti methods below are not called for them
+    default boolean isRostiSupported() {
+        return true;
+    }
 
-    void initRosti(long pRosti);
+    default void aggregate(long pRosti, long keyAddress, long valueAddress, long count, int workerId) {
+        throw new UnsupportedOperationException();
+    }
 
-    int getColumnIndex();
+    default void initRosti(long pRosti) {
+        throw new UnsupportedOperationException();
+    }
 
-    void merge(long pRostiA, long pRostiB);
+    default void merge(long pRostiA, long pRostiB) {
+        throw new UnsupportedOperationException();
+    }
 
     // sets null as result of aggregation of all nulls
     // this typically checks non-null count and replaces 0 with null if all values were null
-    void wrapUp(long pRosti);
+    default void wrapUp(long pRosti) {
+        throw new UnsupportedOperationException();
+    }
+
+    // value slots are added for keyed aggregation, either Rosti or multi-key map
+    default void pushValueTypes(ArrayColumnTypes types) {
+        throw new UnsupportedOperationException();
+    }
 
     // value offset in map
-    int getValueOffset();
+    default int getValueOffset() {
+        throw new UnsupportedOperationException();
+    }
 
     @Override
     default void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) {
     }
+
+    // Rosti keys are single int column, when there are several key columns values are
+    // aggregated into map values instead, see GroupByMultiKeyVectorRecordCursorFactory.
+    // Value slots are those added by pushValueTypes().
+
+    // order sensitive functions are not keyed aggregated by Rosti and non-keyed
+    // aggregation calls them with page frames in order they appear in the table
+    default boolean isOrderSensitive() {
+        return false;
+    }
+
+    default boolean isMultiKeySupported() {
+        return false;
+    }
+
+    default void initValue(MapValue value) {
+        throw new UnsupportedOperationException();
+    }
+
+    // aggregates value at given row of column page
+    default void aggregate(MapValue value, long address, long row) {
+        throw new UnsupportedOperationException();
+    }
+
+    // row id is position of the row in page frame sequence, order sensitive functions
+    // such as first() and last() rely on it to merge values aggregated out of order
+    default void aggregate(MapValue value, long address, long row, long rowId) {
+        aggregate(value, address, row);
+    }
+
+    default void merge(MapValue destValue, MapValue srcValue) {
+        throw new UnsupportedOperationException();
+    }
+
+    // leaves result of aggregation in the first value slot
+    default void wrapUp(MapValue value) {
+    }
 }
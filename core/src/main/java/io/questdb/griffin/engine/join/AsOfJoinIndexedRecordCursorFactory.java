@@ -0,0 +1,314 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.join;
+
+import io.questdb.cairo.*;
+import io.questdb.cairo.sql.*;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.std.IntList;
+import io.questdb.std.Misc;
+import io.questdb.std.Rows;
+
+/**
+ * ASOF and LT join against a table, which is searched rather than scanned. For every master row
+ * slave partition is binary searched on designated timestamp for the last row that is not after
+ * master timestamp. Keyed join then walks backward bitmap index of slave symbol column from this
+ * row to find the latest row with matching key. Cost of the join is therefore proportional to the
+ * number of master rows and does not depend on density of slave table.
+ * <p>
+ * Master timestamps are ascending, which is why search in partition gallops from position found
+ * for previous master row.
+ */
+public class AsOfJoinIndexedRecordCursorFactory extends AbstractRecordCursorFactory {
+    private final RecordCursorFactory masterFactory;
+    private final TableReaderRecordCursorFactory slaveFactory;
+    private final AsOfJoinIndexedRecordCursor cursor;
+
+    /**
+     * @param masterKeyIndex index of master SYMBOL key column, -1 when join is not keyed
+     * @param slaveKeyIndex  index of indexed slave SYMBOL key column, ignored when join is not keyed
+     * @param strict         true for LT join, where slave timestamp must be strictly less than master timestamp
+     */
+    public AsOfJoinIndexedRecordCursorFactory(
+            RecordMetadata metadata,
+            RecordCursorFactory masterFactory,
+            TableReaderRecordCursorFactory slaveFactory,
+            int columnSplit,
+            int masterKeyIndex,
+            int slaveKeyIndex,
+            boolean strict
+    ) {
+        super(metadata);
+        this.masterFactory = masterFactory;
+        this.slaveFactory = slaveFactory;
+        final IntList columnIndexes = slaveFactory.getColumnIndexes();
+        final RecordMetadata masterMetadata = masterFactory.getMetadata();
+        final RecordMetadata slaveMetadata = slaveFactory.getMetadata();
+        this.cursor = new AsOfJoinIndexedRecordCursor(
+                columnSplit,
+                NullRecordFactory.getInstance(slaveMetadata),
+                columnIndexes,
+                masterMetadata.getTimestampIndex(),
+                columnIndexes.getQuick(slaveMetadata.getTimestampIndex()),
+                masterKeyIndex,
+                masterKeyIndex == -1 ? -1 : columnIndexes.getQuick(slaveKeyIndex),
+                strict
+        );
+    }
+
+    @Override
+    public void close() {
+        ((JoinRecordMetadata) getMetadata()).close();
+        masterFactory.close();
+        slaveFactory.close();
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) {
+        final RecordCursor masterCursor = masterFactory.getCursor(executionContext);
+        try {
+            cursor.of(masterCursor, slaveFactory.getReader(executionContext.getCairoSecurityContext()));
+        } catch (Throwable e) {
+            Misc.free(masterCursor);
+            throw e;
+        }
+        return cursor;
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return false;
+    }
+
+    private static class AsOfJoinIndexedRecordCursor implements NoRandomAccessRecordCursor {
+        private static final int NO_KEY = -1;
+        private static final int KEY_NOT_FOUND = -2;
+        private static final int KEY_UNKNOWN = -3;
+        private final OuterJoinRecord record;
+        private final TableReaderSelectedColumnRecordCursor slaveCursor;
+        private final IntList keyCache = new IntList();
+        private final int columnSplit;
+        private final int masterTimestampIndex;
+        private final int slaveTimestampIndex;
+        private final int masterKeyIndex;
+        private final int slaveKeyIndex;
+        private final boolean strict;
+        private RecordCursor masterCursor;
+        private Record masterRecord;
+        private Record slaveRecord;
+        private TableReader reader;
+        private SymbolMapReader slaveSymbols;
+        private int hintPartition;
+        private long hintRow;
+
+        public AsOfJoinIndexedRecordCursor(
+                int columnSplit,
+                Record nullRecord,
+                IntList slaveColumnIndexes,
+                int masterTimestampIndex,
+                int slaveTimestampIndex,
+                int masterKeyIndex,
+                int slaveKeyIndex,
+                boolean strict
+        ) {
+            this.record = new OuterJoinRecord(columnSplit, nullRecord);
+            this.slaveCursor = new TableReaderSelectedColumnRecordCursor(slaveColumnIndexes);
+            this.columnSplit = columnSplit;
+            this.masterTimestampIndex = masterTimestampIndex;
+            this.slaveTimestampIndex = slaveTimestampIndex;
+            this.masterKeyIndex = masterKeyIndex;
+            this.slaveKeyIndex = slaveKeyIndex;
+            this.strict = strict;
+        }
+
+        @Override
+        public void close() {
+            masterCursor = Misc.free(masterCursor);
+            Misc.free(slaveCursor);
+            reader = null;
+            slaveSymbols = null;
+        }
+
+        @Override
+        public Record getRecord() {
+            return record;
+        }
+
+        @Override
+        public SymbolTable getSymbolTable(int columnIndex) {
+            if (columnIndex < columnSplit) {
+                return masterCursor.getSymbolTable(columnIndex);
+            }
+            return slaveCursor.getSymbolTable(columnIndex - columnSplit);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (masterCursor.hasNext()) {
+                final int indexKey = masterKeyIndex == -1 ? NO_KEY : slaveIndexKey();
+                final long rowId = indexKey == KEY_NOT_FOUND ? -1 : findSlaveRow(masterRecord.getTimestamp(masterTimestampIndex), indexKey);
+                if (rowId > -1) {
+                    slaveCursor.recordAt(slaveRecord, rowId);
+                    record.hasSlave(true);
+                } else {
+                    record.hasSlave(false);
+                }
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public long size() {
+            return masterCursor.size();
+        }
+
+        @Override
+        public void toTop() {
+            masterCursor.toTop();
+            record.hasSlave(false);
+            hintPartition = -1;
+        }
+
+        private static long gallop(ReadOnlyColumn column, long value, long lo, long count, boolean strict) {
+            // rows up to and including "lo" are known to be before value
+            long step = 1;
+            long hi = lo + step;
+            while (hi < count && before(column.getLong(hi * 8), value, strict)) {
+                lo = hi;
+                step <<= 1;
+                hi = lo + step;
+            }
+
+            // answer is in (lo, hi)
+            long low = lo + 1;
+            long high = Math.min(hi, count) - 1;
+            while (low <= high) {
+                final long mid = (low + high) >>> 1;
+                if (before(column.getLong(mid * 8), value, strict)) {
+                    lo = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return lo;
+        }
+
+        private static boolean before(long slaveTimestamp, long masterTimestamp, boolean strict) {
+            return slaveTimestamp < masterTimestamp || (!strict && slaveTimestamp == masterTimestamp);
+        }
+
+        private long findSlaveRow(long timestamp, int indexKey) {
+            final int partitionCount = reader.getPartitionCount();
+            final int partitionHi = partitionOf(timestamp, partitionCount);
+            for (int partitionIndex = partitionHi; partitionIndex > -1; partitionIndex--) {
+                final long rowCount = reader.openPartition(partitionIndex);
+                if (rowCount < 1) {
+                    continue;
+                }
+
+                final int columnBase = reader.getColumnBase(partitionIndex);
+                final long row;
+                if (partitionIndex == partitionHi) {
+                    row = gallop(
+                            reader.getColumn(TableReader.getPrimaryColumnIndex(columnBase, slaveTimestampIndex)),
+                            timestamp,
+                            partitionIndex == hintPartition ? hintRow : -1,
+                            rowCount,
+                            strict
+                    );
+                    hintPartition = partitionIndex;
+                    hintRow = row;
+                    if (row < 0) {
+                        continue;
+                    }
+                } else {
+                    row = rowCount - 1;
+                }
+
+                if (indexKey == NO_KEY) {
+                    return Rows.toRowID(partitionIndex, row);
+                }
+
+                final RowCursor rowCursor = reader.getBitmapIndexReader(columnBase, slaveKeyIndex, BitmapIndexReader.DIR_BACKWARD)
+                        .getCursor(true, indexKey, 0, row);
+                if (rowCursor.hasNext()) {
+                    return Rows.toRowID(partitionIndex, rowCursor.next());
+                }
+            }
+            return -1;
+        }
+
+        private int partitionOf(long timestamp, int partitionCount) {
+            if (reader.getPartitionedBy() == PartitionBy.NONE || timestamp >= reader.getMaxTimestamp()) {
+                return partitionCount - 1;
+            }
+            // min timestamp is only maintained for partitioned tables
+            final long partitionLo = reader.floorToPartitionTimestamp(reader.getMinTimestamp());
+            if (timestamp < partitionLo) {
+                return -1;
+            }
+            return Math.min(
+                    partitionCount - 1,
+                    reader.getPartitionCountBetweenTimestamps(partitionLo, reader.floorToPartitionTimestamp(timestamp))
+            );
+        }
+
+        private int slaveIndexKey() {
+            // master symbol keys are translated into slave index keys once per cursor
+            final int masterKey = masterRecord.getInt(masterKeyIndex);
+            if (masterKey == SymbolTable.VALUE_IS_NULL) {
+                return TableUtils.toIndexKey(masterKey);
+            }
+            while (keyCache.size() <= masterKey) {
+                keyCache.add(KEY_UNKNOWN);
+            }
+            int indexKey = keyCache.getQuick(masterKey);
+            if (indexKey == KEY_UNKNOWN) {
+                indexKey = toIndexKey(slaveSymbols.keyOf(masterRecord.getSym(masterKeyIndex)));
+                keyCache.setQuick(masterKey, indexKey);
+            }
+            return indexKey;
+        }
+
+        private static int toIndexKey(int symbolKey) {
+            return symbolKey == SymbolTable.VALUE_NOT_FOUND ? KEY_NOT_FOUND : TableUtils.toIndexKey(symbolKey);
+        }
+
+        private void of(RecordCursor masterCursor, TableReader reader) {
+            this.masterCursor = masterCursor;
+            this.masterRecord = masterCursor.getRecord();
+            this.reader = reader;
+            slaveCursor.of(reader);
+            this.slaveRecord = slaveCursor.getRecordB();
+            this.slaveSymbols = masterKeyIndex == -1 ? null : reader.getSymbolMapReader(slaveKeyIndex);
+            keyCache.clear();
+            record.of(masterRecord, slaveRecord);
+            record.hasSlave(false);
+            hintPartition = -1;
+        }
+    }
+}
@@ -85,6 +85,7 @@ public class AsOfJoinRecordCursorFactory extends AbstractRecordCursorFactory {
 
     @Override
     public RecordCursor getCursor(SqlExecutionContext executionContext) {
+        joinKeyMap.setMemoryTracker(executionContext.getMemoryTracker());
         cursor.of(
                 masterFactory.getCursor(executionContext),
                 slaveFactory.getCursor(executionContext)
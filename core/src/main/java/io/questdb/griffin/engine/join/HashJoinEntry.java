@@ -0,0 +1,99 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.join;
+
+import io.questdb.mp.CountDownLatchSPI;
+import io.questdb.std.Mutable;
+import io.questdb.std.Unsafe;
+
+/**
+ * Unit of work of parallel hash join. Entry either builds one partition of join key tables or
+ * probes one frame of master keys. Entry is executed by whichever thread locks it first, worker
+ * picking it from the queue or query thread reclaiming its own entries.
+ */
+public class HashJoinEntry implements Mutable {
+    static final int BUILD = 0;
+    static final int PROBE = 1;
+    private static final long TARGET_SEQUENCE_OFFSET;
+
+    static {
+        TARGET_SEQUENCE_OFFSET = Unsafe.getFieldOffset(HashJoinEntry.class, "targetSequence");
+    }
+
+    private ParallelHashJoinRecordCursorFactory.ParallelHashJoinRecordCursor cursor;
+    private int kind;
+    private int index;
+    private int slot;
+    private int srcSequence;
+    // to "lock" the entry thread must successfully CAS targetSequence form "srcSequence" value
+    // to "srcSequence+1". Executing thread must not be changing value of "srcSequence"
+    @SuppressWarnings({"FieldCanBeLocal", "unused"})
+    private int targetSequence;
+    private CountDownLatchSPI doneLatch;
+
+    @Override
+    public void clear() {
+        cursor = null;
+    }
+
+    public boolean run() {
+        if (tryLock()) {
+            try {
+                if (kind == BUILD) {
+                    cursor.build(index);
+                } else {
+                    cursor.probe(index, slot);
+                }
+            } catch (Throwable e) {
+                cursor.fail(e);
+            } finally {
+                doneLatch.countDown();
+            }
+            return true;
+        }
+        return false;
+    }
+
+    public boolean tryLock() {
+        return Unsafe.cas(this, TARGET_SEQUENCE_OFFSET, srcSequence, srcSequence + 1);
+    }
+
+    void of(
+            int sequence,
+            ParallelHashJoinRecordCursorFactory.ParallelHashJoinRecordCursor cursor,
+            int kind,
+            int index,
+            int slot,
+            CountDownLatchSPI doneLatch
+    ) {
+        this.cursor = cursor;
+        this.kind = kind;
+        this.index = index;
+        this.slot = slot;
+        this.srcSequence = sequence;
+        this.targetSequence = sequence;
+        this.doneLatch = doneLatch;
+    }
+}
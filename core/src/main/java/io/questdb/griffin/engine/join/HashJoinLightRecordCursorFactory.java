@@ -41,8 +41,10 @@ import io.questdb.cairo.sql.RecordMetadata;
 import io.questdb.cairo.sql.SymbolTable;
 import io.questdb.griffin.SqlExecutionContext;
 import io.questdb.griffin.SqlExecutionInterruptor;
+import io.questdb.std.IntList;
 import io.questdb.std.Misc;
 import io.questdb.std.Transient;
+import org.jetbrains.annotations.Nullable;
 
 public class HashJoinLightRecordCursorFactory extends AbstractRecordCursorFactory {
     private final Map joinKeyMap;
@@ -52,6 +54,9 @@ public class HashJoinLightRecordCursorFactory extends AbstractRecordCursorFactor
     private final RecordSink masterKeySink;
     private final RecordSink slaveKeySink;
     private final HashJoinRecordCursor cursor;
+    private final JoinKeyBloomFilter bloomFilter;
+    private final IntList bloomFilterKeyIndexes = new IntList();
+    private final IntList bloomFilterKeyTypes = new IntList();
 
     public HashJoinLightRecordCursorFactory(
             CairoConfiguration configuration,
@@ -63,7 +68,25 @@ public class HashJoinLightRecordCursorFactory extends AbstractRecordCursorFactor
             RecordSink masterKeySink,
             RecordSink slaveKeySink,
             int columnSplit
+    ) {
+        this(configuration, metadata, masterFactory, slaveFactory, joinColumnTypes, valueTypes, masterKeySink, slaveKeySink, columnSplit, null);
+    }
 
+    /**
+     * @param bloomFilter filter pushed down to master scan, it is filled with keys of slave records
+     *                    before master cursor is opened
+     */
+    public HashJoinLightRecordCursorFactory(
+            CairoConfiguration configuration,
+            RecordMetadata metadata,
+            RecordCursorFactory masterFactory,
+            RecordCursorFactory slaveFactory,
+            @Transient ColumnTypes joinColumnTypes,
+            @Transient ColumnTypes valueTypes, // this expected to be just LONG, we store chain references in map
+            RecordSink masterKeySink,
+            RecordSink slaveKeySink,
+            int columnSplit,
+            @Nullable JoinKeyBloomFilter bloomFilter
     ) {
         super(metadata);
         this.masterFactory = masterFactory;
@@ -73,22 +96,44 @@ public class HashJoinLightRecordCursorFactory extends AbstractRecordCursorFactor
         this.masterKeySink = masterKeySink;
         this.slaveKeySink = slaveKeySink;
         this.cursor = new HashJoinRecordCursor(columnSplit, joinKeyMap, slaveChain);
+        this.bloomFilter = bloomFilter;
+        if (bloomFilter != null) {
+            // map records list values ahead of keys
+            final int valueCount = valueTypes.getColumnCount();
+            for (int i = 0, n = joinColumnTypes.getColumnCount(); i < n; i++) {
+                bloomFilterKeyIndexes.add(valueCount + i);
+                bloomFilterKeyTypes.add(joinColumnTypes.getColumnType(i));
+            }
+        }
     }
 
     @Override
     public void close() {
         joinKeyMap.close();
         slaveChain.close();
+        Misc.free(bloomFilter);
         ((JoinRecordMetadata) getMetadata()).close();
         masterFactory.close();
         slaveFactory.close();
     }
 
+    public RecordCursorFactory getMasterFactory() {
+        return masterFactory;
+    }
+
     @Override
     public RecordCursor getCursor(SqlExecutionContext executionContext) {
+        joinKeyMap.setMemoryTracker(executionContext.getMemoryTracker());
+        slaveChain.setMemoryTracker(executionContext.getMemoryTracker());
+        if (bloomFilter != null) {
+            bloomFilter.setMemoryTracker(executionContext.getMemoryTracker());
+        }
         RecordCursor slaveCursor = slaveFactory.getCursor(executionContext);
         try {
             buildMapOfSlaveRecords(slaveCursor, executionContext.getSqlExecutionInterruptor());
+            if (bloomFilter != null) {
+                buildBloomFilter();
+            }
         } catch (CairoException e) {
             slaveCursor.close();
             throw e;
@@ -102,6 +147,15 @@ public class HashJoinLightRecordCursorFactory extends AbstractRecordCursorFactor
         return false;
     }
 
+    private void buildBloomFilter() {
+        bloomFilter.of(joinKeyMap.size());
+        final RecordCursor keyCursor = joinKeyMap.getCursor();
+        final Record record = keyCursor.getRecord();
+        while (keyCursor.hasNext()) {
+            bloomFilter.add(JoinKeyBloomFilter.hash(record, bloomFilterKeyIndexes, bloomFilterKeyTypes));
+        }
+    }
+
     private void buildMapOfSlaveRecords(RecordCursor slaveCursor, SqlExecutionInterruptor interruptor) {
         slaveChain.clear();
         joinKeyMap.clear();
@@ -91,6 +91,8 @@ public class HashOuterJoinLightRecordCursorFactory extends AbstractRecordCursorF
 
     @Override
     public RecordCursor getCursor(SqlExecutionContext executionContext) {
+        joinKeyMap.setMemoryTracker(executionContext.getMemoryTracker());
+        slaveChain.setMemoryTracker(executionContext.getMemoryTracker());
         RecordCursor slaveCursor = slaveFactory.getCursor(executionContext);
         try {
             buildMapOfSlaveRecords(slaveCursor, executionContext.getSqlExecutionInterruptor());
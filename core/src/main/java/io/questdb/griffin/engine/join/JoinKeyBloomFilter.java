@@ -0,0 +1,180 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.join;
+
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.sql.Record;
+import io.questdb.std.*;
+
+import java.io.Closeable;
+
+/**
+ * Off-heap Bloom filter over join keys of hash join build side. Inner hash join fills the filter
+ * once slave keys are known and master scan consults it ahead of its own filter. Master rows, which
+ * cannot have a match, are then rejected without being hashed into join key map.
+ * <p>
+ * Keys are hashed column by column from {@link Record}, which allows hashing both map records of
+ * the build side and master records, as long as key types are compatible, see {@link #isSupported(int)}.
+ */
+public class JoinKeyBloomFilter implements Mutable, Closeable {
+    private static final int HASH_COUNT = 3;
+    private static final long MIN_BITS = 512;
+    private final int bitsPerKey;
+    private long address;
+    private long size;
+    private long mask;
+    private boolean built;
+    private MemoryTracker memoryTracker;
+
+    public JoinKeyBloomFilter(int bitsPerKey) {
+        this.bitsPerKey = bitsPerKey;
+    }
+
+    public static long hash(Record record, IntList columnIndexes, IntList columnTypes) {
+        long h = 0;
+        for (int i = 0, n = columnIndexes.size(); i < n; i++) {
+            h = h * 31 + hashColumn(record, columnIndexes.getQuick(i), columnTypes.getQuick(i));
+        }
+        return h;
+    }
+
+    public static boolean isSupported(int columnType) {
+        switch (columnType) {
+            case ColumnType.BOOLEAN:
+            case ColumnType.BYTE:
+            case ColumnType.SHORT:
+            case ColumnType.CHAR:
+            case ColumnType.INT:
+            case ColumnType.LONG:
+            case ColumnType.DATE:
+            case ColumnType.TIMESTAMP:
+            case ColumnType.FLOAT:
+            case ColumnType.DOUBLE:
+            case ColumnType.STRING:
+            case ColumnType.SYMBOL:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public void add(long hash) {
+        final long h1 = Hash.fmix64(hash);
+        final long h2 = (h1 >>> 32) | 1;
+        for (int i = 0; i < HASH_COUNT; i++) {
+            final long bit = (h1 + i * h2) & mask;
+            final long p = address + (bit >>> 3);
+            Unsafe.getUnsafe().putByte(p, (byte) (Unsafe.getUnsafe().getByte(p) | (1 << (bit & 7))));
+        }
+    }
+
+    @Override
+    public void clear() {
+        built = false;
+    }
+
+    @Override
+    public void close() {
+        if (address != 0) {
+            Unsafe.free(address, size, MemoryTag.NATIVE_JOIN, memoryTracker);
+            address = 0;
+            size = 0;
+        }
+        built = false;
+    }
+
+    /**
+     * @return false when filter has not been built yet and cannot reject anything
+     */
+    public boolean isBuilt() {
+        return built;
+    }
+
+    public boolean mightContain(long hash) {
+        final long h1 = Hash.fmix64(hash);
+        final long h2 = (h1 >>> 32) | 1;
+        for (int i = 0; i < HASH_COUNT; i++) {
+            final long bit = (h1 + i * h2) & mask;
+            if ((Unsafe.getUnsafe().getByte(address + (bit >>> 3)) & (1 << (bit & 7))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Empties filter and sizes it for given number of distinct keys. Filter is considered built
+     * from this point onwards, keys have to be added before it is used.
+     */
+    public void of(long keyCount) {
+        final long bits = Numbers.ceilPow2(Math.max(MIN_BITS, keyCount * bitsPerKey));
+        final long bytes = bits >>> 3;
+        if (bytes != size) {
+            if (address == 0) {
+                address = Unsafe.malloc(bytes, MemoryTag.NATIVE_JOIN, memoryTracker);
+            } else {
+                address = Unsafe.realloc(address, size, bytes, MemoryTag.NATIVE_JOIN, memoryTracker);
+            }
+            size = bytes;
+        }
+        Unsafe.getUnsafe().setMemory(address, bytes, (byte) 0);
+        mask = bits - 1;
+        built = true;
+    }
+
+    public void setMemoryTracker(MemoryTracker memoryTracker) {
+        this.memoryTracker = memoryTracker;
+    }
+
+    private static long hashColumn(Record record, int columnIndex, int columnType) {
+        switch (columnType) {
+            case ColumnType.BOOLEAN:
+                return record.getBool(columnIndex) ? 1 : 0;
+            case ColumnType.BYTE:
+                return record.getByte(columnIndex);
+            case ColumnType.SHORT:
+                return record.getShort(columnIndex);
+            case ColumnType.CHAR:
+                return record.getChar(columnIndex);
+            case ColumnType.INT:
+                return record.getInt(columnIndex);
+            case ColumnType.FLOAT:
+                return Float.floatToRawIntBits(record.getFloat(columnIndex));
+            case ColumnType.DOUBLE:
+                return Double.doubleToRawLongBits(record.getDouble(columnIndex));
+            case ColumnType.STRING:
+                return hashStr(record.getStr(columnIndex));
+            case ColumnType.SYMBOL:
+                return hashStr(record.getSym(columnIndex));
+            default:
+                // LONG, DATE and TIMESTAMP
+                return record.getLong(columnIndex);
+        }
+    }
+
+    private static long hashStr(CharSequence value) {
+        return value == null ? Numbers.LONG_NaN : Chars.hashCode(value);
+    }
+}
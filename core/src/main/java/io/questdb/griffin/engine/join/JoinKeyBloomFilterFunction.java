@@ -0,0 +1,57 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.join;
+
+import io.questdb.cairo.ColumnFilter;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.griffin.engine.functions.BooleanFunction;
+import io.questdb.griffin.engine.functions.NoArgFunction;
+import io.questdb.std.IntList;
+
+/**
+ * Filter, which hash join pushes down to master scan. It is true for records whose join key might
+ * be present on build side of the join. The filter is shared with the join, which owns and fills it.
+ */
+public class JoinKeyBloomFilterFunction extends BooleanFunction implements NoArgFunction {
+    private final JoinKeyBloomFilter bloomFilter;
+    private final IntList keyColumnIndexes = new IntList();
+    private final IntList keyColumnTypes = new IntList();
+
+    public JoinKeyBloomFilterFunction(int position, JoinKeyBloomFilter bloomFilter, RecordMetadata metadata, ColumnFilter keyColumns) {
+        super(position);
+        this.bloomFilter = bloomFilter;
+        for (int i = 0, n = keyColumns.getColumnCount(); i < n; i++) {
+            final int columnIndex = keyColumns.getColumnIndex(i);
+            keyColumnIndexes.add(columnIndex);
+            keyColumnTypes.add(metadata.getColumnType(columnIndex));
+        }
+    }
+
+    @Override
+    public boolean getBool(Record rec) {
+        return !bloomFilter.isBuilt() || bloomFilter.mightContain(JoinKeyBloomFilter.hash(rec, keyColumnIndexes, keyColumnTypes));
+    }
+}
@@ -0,0 +1,203 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.join;
+
+import io.questdb.griffin.engine.LimitOverflowException;
+import io.questdb.std.Hash;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.MemoryTracker;
+import io.questdb.std.Mutable;
+import io.questdb.std.Numbers;
+import io.questdb.std.Unsafe;
+
+import java.io.Closeable;
+
+/**
+ * Off-heap multi-map of fixed-size join key to row ids of build side. Table is open-addressed, each
+ * slot holds key together with head and tail of row id chain, so that row ids are returned in the
+ * order they were added. Table is filled by single thread and once filled it can be probed by many
+ * threads concurrently.
+ * <p>
+ * Caller supplies key together with its {@link #hash(long)}. Slots are chosen by upper half of the
+ * hash, lower bits are left for caller to partition keys across tables. Table fails with
+ * {@link LimitOverflowException} when its slots and chain would outgrow configured size.
+ */
+public class JoinKeyRowIdTable implements Mutable, Closeable {
+    private static final long SLOT_SIZE = 3 * Long.BYTES;
+    private static final long CHAIN_ENTRY_SIZE = 2 * Long.BYTES;
+    private static final long MIN_CAPACITY = 64;
+    private final long maxSize;
+    private long slots;
+    private long capacity;
+    private long mask;
+    private long size;
+    private long chain;
+    private long chainCapacity;
+    private long chainSize;
+    private MemoryTracker memoryTracker;
+
+    /**
+     * @param maxSize maximum number of bytes slots and chain of row ids can take together
+     */
+    public JoinKeyRowIdTable(long maxSize) {
+        this.maxSize = maxSize;
+        this.capacity = MIN_CAPACITY;
+        this.mask = capacity - 1;
+        this.slots = Unsafe.malloc(capacity * SLOT_SIZE, MemoryTag.NATIVE_JOIN);
+        this.chainCapacity = MIN_CAPACITY;
+        this.chain = Unsafe.malloc(chainCapacity * CHAIN_ENTRY_SIZE, MemoryTag.NATIVE_JOIN);
+        clear();
+    }
+
+    public static long hash(long key) {
+        return Hash.fmix64(key);
+    }
+
+    @Override
+    public void clear() {
+        // head of -1 marks empty slot
+        Unsafe.getUnsafe().setMemory(slots, capacity * SLOT_SIZE, (byte) -1);
+        size = 0;
+        chainSize = 0;
+    }
+
+    @Override
+    public void close() {
+        if (slots != 0) {
+            Unsafe.free(slots, capacity * SLOT_SIZE, MemoryTag.NATIVE_JOIN, memoryTracker);
+            slots = 0;
+        }
+        if (chain != 0) {
+            Unsafe.free(chain, chainCapacity * CHAIN_ENTRY_SIZE, MemoryTag.NATIVE_JOIN, memoryTracker);
+            chain = 0;
+        }
+    }
+
+    /**
+     * @return offset of first row id chain entry for the key or -1 when key is not in the table
+     */
+    public long find(long key, long hash) {
+        long index = slotIndex(hash);
+        while (true) {
+            final long p = slots + index * SLOT_SIZE;
+            final long head = Unsafe.getUnsafe().getLong(p + Long.BYTES);
+            if (head == -1 || Unsafe.getUnsafe().getLong(p) == key) {
+                return head;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    public long getRowId(long chainOffset) {
+        return Unsafe.getUnsafe().getLong(chain + chainOffset);
+    }
+
+    /**
+     * @return offset of next chain entry or -1 when there are no more row ids for the key
+     */
+    public long next(long chainOffset) {
+        return Unsafe.getUnsafe().getLong(chain + chainOffset + Long.BYTES);
+    }
+
+    public void put(long key, long hash, long rowId) {
+        final long entry = addChainEntry(rowId);
+        long index = slotIndex(hash);
+        while (true) {
+            final long p = slots + index * SLOT_SIZE;
+            final long head = Unsafe.getUnsafe().getLong(p + Long.BYTES);
+            if (head == -1) {
+                Unsafe.getUnsafe().putLong(p, key);
+                Unsafe.getUnsafe().putLong(p + Long.BYTES, entry);
+                Unsafe.getUnsafe().putLong(p + 2 * Long.BYTES, entry);
+                if (++size > (capacity >>> 1)) {
+                    rehash();
+                }
+                return;
+            }
+            if (Unsafe.getUnsafe().getLong(p) == key) {
+                final long tail = Unsafe.getUnsafe().getLong(p + 2 * Long.BYTES);
+                Unsafe.getUnsafe().putLong(chain + tail + Long.BYTES, entry);
+                Unsafe.getUnsafe().putLong(p + 2 * Long.BYTES, entry);
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    public void setMemoryTracker(MemoryTracker memoryTracker) {
+        this.memoryTracker = memoryTracker;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    private long addChainEntry(long rowId) {
+        if (chainSize == chainCapacity) {
+            final long newCapacity = chainCapacity << 1;
+            checkSize(capacity, newCapacity);
+            chain = Unsafe.realloc(chain, chainCapacity * CHAIN_ENTRY_SIZE, newCapacity * CHAIN_ENTRY_SIZE, MemoryTag.NATIVE_JOIN, memoryTracker);
+            chainCapacity = newCapacity;
+        }
+        final long offset = (chainSize++) * CHAIN_ENTRY_SIZE;
+        Unsafe.getUnsafe().putLong(chain + offset, rowId);
+        Unsafe.getUnsafe().putLong(chain + offset + Long.BYTES, -1);
+        return offset;
+    }
+
+    private void checkSize(long capacity, long chainCapacity) {
+        if (capacity * SLOT_SIZE + chainCapacity * CHAIN_ENTRY_SIZE > maxSize) {
+            throw LimitOverflowException.instance().put("Maximum size of join key table (").put(maxSize).put(") breached");
+        }
+    }
+
+    private void rehash() {
+        final long oldSlots = slots;
+        final long oldCapacity = capacity;
+        final long newCapacity = Numbers.ceilPow2(oldCapacity << 1);
+        checkSize(newCapacity, chainCapacity);
+        // allocation may fail on query memory limit, table must stay consistent for close()
+        slots = Unsafe.malloc(newCapacity * SLOT_SIZE, MemoryTag.NATIVE_JOIN, memoryTracker);
+        capacity = newCapacity;
+        mask = capacity - 1;
+        Unsafe.getUnsafe().setMemory(slots, capacity * SLOT_SIZE, (byte) -1);
+        for (long i = 0; i < oldCapacity; i++) {
+            final long src = oldSlots + i * SLOT_SIZE;
+            if (Unsafe.getUnsafe().getLong(src + Long.BYTES) != -1) {
+                final long key = Unsafe.getUnsafe().getLong(src);
+                long index = slotIndex(hash(key));
+                while (Unsafe.getUnsafe().getLong(slots + index * SLOT_SIZE + Long.BYTES) != -1) {
+                    index = (index + 1) & mask;
+                }
+                Unsafe.getUnsafe().copyMemory(src, slots + index * SLOT_SIZE, SLOT_SIZE);
+            }
+        }
+        Unsafe.free(oldSlots, oldCapacity * SLOT_SIZE, MemoryTag.NATIVE_JOIN, memoryTracker);
+    }
+
+    private long slotIndex(long hash) {
+        return (hash >>> 32) & mask;
+    }
+}
@@ -25,6 +25,8 @@
 package io.questdb.griffin.engine.join;
 
 import io.questdb.cairo.VirtualMemory;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.MemoryTracker;
 import io.questdb.std.Mutable;
 
 import java.io.Closeable;
@@ -35,7 +37,7 @@ public class LongChain implements Closeable, Mutable {
     private final TreeCursor cursor;
 
     public LongChain(long valuePageSize, int valueMaxPages) {
-        this.valueChain = new VirtualMemory(valuePageSize, valueMaxPages);
+        this.valueChain = new VirtualMemory(valuePageSize, valueMaxPages, MemoryTag.NATIVE_JOIN);
         this.cursor = new TreeCursor();
     }
 
@@ -63,6 +65,10 @@ public class LongChain implements Closeable, Mutable {
         return appendOffset;
     }
 
+    public void setMemoryTracker(MemoryTracker memoryTracker) {
+        valueChain.setMemoryTracker(memoryTracker);
+    }
+
     public class TreeCursor {
         private long nextOffset;
 
@@ -0,0 +1,230 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.join;
+
+import io.questdb.cairo.AbstractRecordCursorFactory;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.sql.*;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.SqlExecutionInterruptor;
+import io.questdb.griffin.engine.LimitOverflowException;
+import io.questdb.std.LongList;
+import io.questdb.std.Misc;
+
+/**
+ * Inner and left outer equi-join of two time series on their timestamps. Both sides are ordered
+ * on timestamp, which lets the join walk slave cursor alongside master instead of building hash
+ * table of slave records. The only state retained is row ids of current run of slave records
+ * sharing the same timestamp, which is replayed for every master record with this timestamp.
+ * Run is bounded by the same limits as row id chains of light hash join.
+ */
+public class MergeJoinRecordCursorFactory extends AbstractRecordCursorFactory {
+    private final RecordCursorFactory masterFactory;
+    private final RecordCursorFactory slaveFactory;
+    private final MergeJoinRecordCursor cursor;
+
+    /**
+     * @param outer true for left outer join, master records without matching slave records are
+     *              then joined with null record
+     */
+    public MergeJoinRecordCursorFactory(
+            CairoConfiguration configuration,
+            RecordMetadata metadata,
+            RecordCursorFactory masterFactory,
+            RecordCursorFactory slaveFactory,
+            int columnSplit,
+            boolean outer
+    ) {
+        super(metadata);
+        this.masterFactory = masterFactory;
+        this.slaveFactory = slaveFactory;
+        this.cursor = new MergeJoinRecordCursor(
+                columnSplit,
+                NullRecordFactory.getInstance(slaveFactory.getMetadata()),
+                masterFactory.getMetadata().getTimestampIndex(),
+                slaveFactory.getMetadata().getTimestampIndex(),
+                outer,
+                Math.min((long) configuration.getSqlHashJoinLightValuePageSize() / Long.BYTES * configuration.getSqlHashJoinLightValueMaxPages(), Integer.MAX_VALUE)
+        );
+    }
+
+    @Override
+    public void close() {
+        ((JoinRecordMetadata) getMetadata()).close();
+        masterFactory.close();
+        slaveFactory.close();
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) {
+        final RecordCursor masterCursor = masterFactory.getCursor(executionContext);
+        final RecordCursor slaveCursor;
+        try {
+            slaveCursor = slaveFactory.getCursor(executionContext);
+        } catch (Throwable e) {
+            Misc.free(masterCursor);
+            throw e;
+        }
+        cursor.of(masterCursor, slaveCursor, executionContext.getSqlExecutionInterruptor());
+        return cursor;
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return false;
+    }
+
+    private static class MergeJoinRecordCursor implements NoRandomAccessRecordCursor {
+        private final OuterJoinRecord record;
+        private final LongList slaveRun = new LongList();
+        private final int columnSplit;
+        private final int masterTimestampIndex;
+        private final int slaveTimestampIndex;
+        private final boolean outer;
+        private final long maxRunSize;
+        private RecordCursor masterCursor;
+        private RecordCursor slaveCursor;
+        private Record masterRecord;
+        private Record slaveRecord;
+        private Record slaveRunRecord;
+        private SqlExecutionInterruptor interruptor;
+        private boolean slaveHasNext;
+        private boolean slaveRunValid;
+        private long slaveRunTimestamp;
+        private int slaveRunPos;
+
+        public MergeJoinRecordCursor(
+                int columnSplit,
+                Record nullRecord,
+                int masterTimestampIndex,
+                int slaveTimestampIndex,
+                boolean outer,
+                long maxRunSize
+        ) {
+            this.record = new OuterJoinRecord(columnSplit, nullRecord);
+            this.columnSplit = columnSplit;
+            this.masterTimestampIndex = masterTimestampIndex;
+            this.slaveTimestampIndex = slaveTimestampIndex;
+            this.outer = outer;
+            this.maxRunSize = maxRunSize;
+        }
+
+        @Override
+        public void close() {
+            masterCursor = Misc.free(masterCursor);
+            slaveCursor = Misc.free(slaveCursor);
+            interruptor = null;
+        }
+
+        @Override
+        public Record getRecord() {
+            return record;
+        }
+
+        @Override
+        public SymbolTable getSymbolTable(int columnIndex) {
+            if (columnIndex < columnSplit) {
+                return masterCursor.getSymbolTable(columnIndex);
+            }
+            return slaveCursor.getSymbolTable(columnIndex - columnSplit);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (slaveRunPos < slaveRun.size()) {
+                slaveCursor.recordAt(slaveRunRecord, slaveRun.getQuick(slaveRunPos++));
+                return true;
+            }
+
+            while (masterCursor.hasNext()) {
+                final long timestamp = masterRecord.getTimestamp(masterTimestampIndex);
+                if (!slaveRunValid || timestamp != slaveRunTimestamp) {
+                    nextSlaveRun(timestamp);
+                }
+
+                if (slaveRun.size() > 0) {
+                    slaveCursor.recordAt(slaveRunRecord, slaveRun.getQuick(0));
+                    slaveRunPos = 1;
+                    record.hasSlave(true);
+                    return true;
+                }
+
+                if (outer) {
+                    record.hasSlave(false);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public long size() {
+            return -1;
+        }
+
+        @Override
+        public void toTop() {
+            masterCursor.toTop();
+            slaveCursor.toTop();
+            toTop0();
+        }
+
+        private void nextSlaveRun(long timestamp) {
+            slaveRun.clear();
+            slaveRunPos = 0;
+            slaveRunValid = true;
+            slaveRunTimestamp = timestamp;
+            while (slaveHasNext && slaveRecord.getTimestamp(slaveTimestampIndex) < timestamp) {
+                interruptor.checkInterrupted();
+                slaveHasNext = slaveCursor.hasNext();
+            }
+            while (slaveHasNext && slaveRecord.getTimestamp(slaveTimestampIndex) == timestamp) {
+                if (slaveRun.size() == maxRunSize) {
+                    throw LimitOverflowException.instance().put("Maximum size of merge join run (").put(maxRunSize).put(") breached");
+                }
+                slaveRun.add(slaveRecord.getRowId());
+                slaveHasNext = slaveCursor.hasNext();
+            }
+        }
+
+        void of(RecordCursor masterCursor, RecordCursor slaveCursor, SqlExecutionInterruptor interruptor) {
+            this.masterCursor = masterCursor;
+            this.slaveCursor = slaveCursor;
+            this.interruptor = interruptor;
+            this.masterRecord = masterCursor.getRecord();
+            this.slaveRecord = slaveCursor.getRecord();
+            this.slaveRunRecord = slaveCursor.getRecordB();
+            record.of(masterRecord, slaveRunRecord);
+            toTop0();
+        }
+
+        private void toTop0() {
+            slaveRun.clear();
+            slaveRunPos = 0;
+            slaveRunValid = false;
+            slaveHasNext = slaveCursor.hasNext();
+        }
+    }
+}
@@ -0,0 +1,505 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.join;
+
+import io.questdb.MessageBus;
+import io.questdb.cairo.*;
+import io.questdb.cairo.sql.NoRandomAccessRecordCursor;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.cairo.sql.SymbolTable;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.SqlExecutionInterruptor;
+import io.questdb.griffin.engine.LimitOverflowException;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.RingQueue;
+import io.questdb.mp.SOUnboundedCountDownLatch;
+import io.questdb.mp.Sequence;
+import io.questdb.std.*;
+import io.questdb.tasks.HashJoinTask;
+
+/**
+ * Hash join of two table scans on single fixed-size key, which builds and probes on shared worker pool.
+ * <p>
+ * Build side is radix-partitioned by key hash into as many join key tables as there are workers. Query
+ * thread scatters slave keys and row ids into per-partition lists in single pass over slave key column,
+ * then each partition is built by its own task. Master key column is split into frames and frames are
+ * probed by tasks in batches. Every
+ * task emits master and slave row id pairs for its frame. Cursor consumes frames of the batch in order,
+ * so that join result keeps master order and, for each master row, slave row order, same as single
+ * threaded hash join.
+ * <p>
+ * Tasks that do not fit hash join queue, as well as tasks that workers have not picked up by the time
+ * query thread is done publishing, are executed by query thread.
+ * <p>
+ * Join key tables, partition lists and probe outputs are each limited to the size of hash join value
+ * memory, i.e. page size times max pages. Join fails with {@link LimitOverflowException} when any of
+ * them outgrows the limit.
+ */
+public class ParallelHashJoinRecordCursorFactory extends AbstractRecordCursorFactory {
+    private static final Log LOG = LogFactory.getLog(ParallelHashJoinRecordCursorFactory.class);
+    // long frames are split to spread large partitions across workers
+    private static final long MAX_FRAME_ROWS = 1024 * 1024;
+    private static final int MAX_PARTITION_COUNT = 64;
+    private static final int FRAME_ENTRY_SIZE = 4;
+    private final TableReaderRecordCursorFactory masterFactory;
+    private final TableReaderRecordCursorFactory slaveFactory;
+    private final int masterKeyIndex;
+    private final int slaveKeyIndex;
+    private final boolean keyIsInt;
+    private final long maxListSize;
+    private final ParallelHashJoinRecordCursor cursor;
+
+    /**
+     * @param masterKeyIndex index of key column in master metadata
+     * @param slaveKeyIndex  index of key column in slave metadata, its type must be same as master key type
+     * @param outer          true to emit master rows without matching slave rows
+     */
+    public ParallelHashJoinRecordCursorFactory(
+            CairoConfiguration configuration,
+            RecordMetadata metadata,
+            TableReaderRecordCursorFactory masterFactory,
+            TableReaderRecordCursorFactory slaveFactory,
+            int masterKeyIndex,
+            int slaveKeyIndex,
+            int columnSplit,
+            boolean outer
+    ) {
+        super(metadata);
+        this.masterFactory = masterFactory;
+        this.slaveFactory = slaveFactory;
+        this.masterKeyIndex = masterFactory.getColumnIndexes().getQuick(masterKeyIndex);
+        this.slaveKeyIndex = slaveFactory.getColumnIndexes().getQuick(slaveKeyIndex);
+        this.keyIsInt = masterFactory.getMetadata().getColumnType(masterKeyIndex) == ColumnType.INT;
+        this.maxListSize = (long) configuration.getSqlHashJoinValuePageSize() * configuration.getSqlHashJoinValueMaxPages();
+        this.cursor = new ParallelHashJoinRecordCursor(
+                columnSplit,
+                outer ? NullRecordFactory.getInstance(slaveFactory.getMetadata()) : null
+        );
+    }
+
+    public static boolean isKeyTypeSupported(int columnType) {
+        switch (columnType) {
+            case ColumnType.INT:
+            case ColumnType.LONG:
+            case ColumnType.DATE:
+            case ColumnType.TIMESTAMP:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        cursor.free();
+        ((JoinRecordMetadata) getMetadata()).close();
+        masterFactory.close();
+        slaveFactory.close();
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) {
+        final TableReader slaveReader = slaveFactory.getReader(executionContext.getCairoSecurityContext());
+        final TableReader masterReader;
+        try {
+            masterReader = masterFactory.getReader(executionContext.getCairoSecurityContext());
+        } catch (CairoException e) {
+            slaveReader.close();
+            throw e;
+        }
+        cursor.of(executionContext, masterReader, slaveReader);
+        return cursor;
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return false;
+    }
+
+    private void addFrames(LongList frames, long address, long rowCount, int partitionIndex, long rowLo) {
+        final int shift = keyIsInt ? 2 : 3;
+        while (rowCount > 0) {
+            final long n = Math.min(rowCount, MAX_FRAME_ROWS);
+            frames.add(address);
+            frames.add(n);
+            frames.add(partitionIndex);
+            frames.add(rowLo);
+            if (address != 0) {
+                address += n << shift;
+            }
+            rowLo += n;
+            rowCount -= n;
+        }
+    }
+
+    /**
+     * Maps key column of every partition on the calling thread. Frames keep raw page addresses, which
+     * workers read without touching reader state.
+     */
+    private void collectFrames(TableReader reader, int columnIndex, LongList frames) {
+        final int shift = keyIsInt ? 2 : 3;
+        frames.clear();
+        for (int partitionIndex = 0, n = reader.getPartitionCount(); partitionIndex < n; partitionIndex++) {
+            final long partitionSize = reader.openPartition(partitionIndex);
+            if (partitionSize < 1) {
+                continue;
+            }
+            final int base = reader.getColumnBase(partitionIndex);
+            final ReadOnlyColumn column = reader.getColumn(TableReader.getPrimaryColumnIndex(base, columnIndex));
+            // rows above column top have no data, frame address of 0 stands for nulls
+            final long top = column instanceof NullColumn ? partitionSize : Math.min(partitionSize, reader.getColumnTop(base, columnIndex));
+            addFrames(frames, 0, top, partitionIndex, 0);
+            long rowLo = top;
+            int page = 0;
+            while (rowLo < partitionSize) {
+                // map page before asking for its size
+                final long address = column.getPageAddress(page);
+                final long rowCount = Math.min(column.getPageSize(page) >> shift, partitionSize - rowLo);
+                if (rowCount < 1) {
+                    break;
+                }
+                addFrames(frames, address, rowCount, partitionIndex, rowLo);
+                rowLo += rowCount;
+                page++;
+            }
+        }
+    }
+
+    private void addPair(DirectLongList list, long a, long b) {
+        list.add(a);
+        list.add(b);
+        if ((long) list.size() << 3 > maxListSize) {
+            throw LimitOverflowException.instance().put("Maximum size of hash join list (").put(maxListSize).put(") breached");
+        }
+    }
+
+    private long readKey(long address, long row) {
+        if (keyIsInt) {
+            return address == 0 ? Numbers.INT_NaN : Unsafe.getUnsafe().getInt(address + (row << 2));
+        }
+        return address == 0 ? Numbers.LONG_NaN : Unsafe.getUnsafe().getLong(address + (row << 3));
+    }
+
+    class ParallelHashJoinRecordCursor implements NoRandomAccessRecordCursor {
+        private final TableReaderSelectedColumnRecordCursor masterCursor;
+        private final TableReaderSelectedColumnRecordCursor slaveCursor;
+        private final JoinRecord record;
+        private final OuterJoinRecord outerRecord;
+        private final int columnSplit;
+        private final ObjList<JoinKeyRowIdTable> tables = new ObjList<>();
+        private final ObjList<DirectLongList> outputs = new ObjList<>();
+        private final ObjList<DirectLongList> partitionRows = new ObjList<>();
+        private final LongList masterFrames = new LongList();
+        private final LongList slaveFrames = new LongList();
+        private final ObjectPool<HashJoinEntry> entryPool = new ObjectPool<>(HashJoinEntry::new, MAX_PARTITION_COUNT);
+        private final ObjList<HashJoinEntry> activeEntries = new ObjList<>();
+        private final SOUnboundedCountDownLatch doneLatch = new SOUnboundedCountDownLatch();
+        private Record masterRecord;
+        private Record slaveRecord;
+        private SqlExecutionInterruptor interruptor;
+        private MemoryTracker memoryTracker;
+        private RingQueue<HashJoinTask> queue;
+        private Sequence pubSeq;
+        private int sequence;
+        private volatile Throwable error;
+        private int partitionCount;
+        private long partitionMask;
+        private int batchSize;
+        private int batchLo;
+        private int batchHi;
+        private int outputSlot;
+        private long outputPos;
+        private long outputLimit;
+
+        ParallelHashJoinRecordCursor(int columnSplit, Record nullRecord) {
+            this.masterCursor = new TableReaderSelectedColumnRecordCursor(masterFactory.getColumnIndexes());
+            this.slaveCursor = new TableReaderSelectedColumnRecordCursor(slaveFactory.getColumnIndexes());
+            this.columnSplit = columnSplit;
+            if (nullRecord != null) {
+                this.outerRecord = new OuterJoinRecord(columnSplit, nullRecord);
+                this.record = null;
+            } else {
+                this.outerRecord = null;
+                this.record = new JoinRecord(columnSplit);
+            }
+        }
+
+        @Override
+        public void close() {
+            masterCursor.close();
+            slaveCursor.close();
+        }
+
+        @Override
+        public Record getRecord() {
+            return record != null ? record : outerRecord;
+        }
+
+        @Override
+        public SymbolTable getSymbolTable(int columnIndex) {
+            if (columnIndex < columnSplit) {
+                return masterCursor.getSymbolTable(columnIndex);
+            }
+            return slaveCursor.getSymbolTable(columnIndex - columnSplit);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (true) {
+                if (outputPos < outputLimit) {
+                    final DirectLongList output = outputs.getQuick(outputSlot);
+                    masterCursor.recordAt(masterRecord, output.get(outputPos));
+                    final long slaveRowId = output.get(outputPos + 1);
+                    outputPos += 2;
+                    if (record != null) {
+                        slaveCursor.recordAt(slaveRecord, slaveRowId);
+                    } else if (slaveRowId != -1) {
+                        slaveCursor.recordAt(slaveRecord, slaveRowId);
+                        outerRecord.hasSlave(true);
+                    } else {
+                        outerRecord.hasSlave(false);
+                    }
+                    return true;
+                }
+
+                if (++outputSlot < batchHi - batchLo) {
+                    outputPos = 0;
+                    outputLimit = outputs.getQuick(outputSlot).size();
+                    continue;
+                }
+
+                final int frameCount = masterFrames.size() / FRAME_ENTRY_SIZE;
+                if (batchHi >= frameCount) {
+                    return false;
+                }
+                interruptor.checkInterrupted();
+                batchLo = batchHi;
+                batchHi = Math.min(frameCount, batchLo + batchSize);
+                dispatch(HashJoinEntry.PROBE, batchLo, batchHi);
+                outputSlot = -1;
+                outputPos = 0;
+                outputLimit = 0;
+            }
+        }
+
+        @Override
+        public long size() {
+            return -1;
+        }
+
+        @Override
+        public void toTop() {
+            batchLo = 0;
+            batchHi = 0;
+            outputSlot = 0;
+            outputPos = 0;
+            outputLimit = 0;
+        }
+
+        void build(int partitionIndex) {
+            final JoinKeyRowIdTable table = tables.getQuick(partitionIndex);
+            final DirectLongList rows = partitionRows.getQuick(partitionIndex);
+            table.clear();
+            for (long i = 0, n = rows.size(); i < n; i += 2) {
+                final long key = rows.get(i);
+                table.put(key, JoinKeyRowIdTable.hash(key), rows.get(i + 1));
+            }
+        }
+
+        void fail(Throwable e) {
+            error = e;
+        }
+
+        void probe(int frameIndex, int slot) {
+            final DirectLongList output = outputs.getQuick(slot);
+            output.setPos(0);
+            final int f = frameIndex * FRAME_ENTRY_SIZE;
+            final long address = masterFrames.getQuick(f);
+            final long rowCount = masterFrames.getQuick(f + 1);
+            final int framePartitionIndex = (int) masterFrames.getQuick(f + 2);
+            final long rowLo = masterFrames.getQuick(f + 3);
+            for (long r = 0; r < rowCount; r++) {
+                final long key = readKey(address, r);
+                final long hash = JoinKeyRowIdTable.hash(key);
+                final JoinKeyRowIdTable table = tables.getQuick((int) (hash & partitionMask));
+                long chainOffset = table.find(key, hash);
+                if (chainOffset != -1) {
+                    final long masterRowId = Rows.toRowID(framePartitionIndex, rowLo + r);
+                    do {
+                        addPair(output, masterRowId, table.getRowId(chainOffset));
+                        chainOffset = table.next(chainOffset);
+                    } while (chainOffset != -1);
+                } else if (outerRecord != null) {
+                    addPair(output, Rows.toRowID(framePartitionIndex, rowLo + r), -1);
+                }
+            }
+        }
+
+        private void dispatch(int kind, int lo, int hi) {
+            entryPool.clear();
+            activeEntries.clear();
+            doneLatch.reset();
+            int queuedCount = 0;
+            int ownCount = 0;
+            try {
+                for (int i = lo; i < hi; i++) {
+                    final long seq = pubSeq != null ? pubSeq.next() : -1;
+                    if (seq < 0) {
+                        run(kind, i, i - lo);
+                        ownCount++;
+                    } else {
+                        final HashJoinEntry entry = entryPool.next();
+                        entry.of(sequence++, this, kind, i, i - lo, doneLatch);
+                        activeEntries.add(entry);
+                        queue.get(seq).entry = entry;
+                        pubSeq.done(seq);
+                        queuedCount++;
+                    }
+                }
+            } finally {
+                // start at the back to reduce chance of clashing with workers
+                for (int i = activeEntries.size() - 1; i > -1 && doneLatch.getCount() > -queuedCount; i--) {
+                    activeEntries.getQuick(i).run();
+                }
+                doneLatch.await(queuedCount);
+            }
+
+            LOG.debug().$("done [kind=").$(kind).$(", total=").$(hi - lo).$(", ownCount=").$(ownCount).$(']').$();
+
+            final Throwable e = error;
+            if (e != null) {
+                error = null;
+                if (e instanceof CairoException) {
+                    throw (CairoException) e;
+                }
+                throw CairoException.instance(0).put("hash join task failed [error=").put(e.toString()).put(']');
+            }
+        }
+
+        private void free() {
+            close();
+            Misc.freeObjList(tables);
+            tables.clear();
+            Misc.freeObjList(outputs);
+            outputs.clear();
+            freePartitionRows();
+        }
+
+        private void freePartitionRows() {
+            // lists hold copy of slave keys, they are not needed once tables are built
+            Misc.freeObjList(partitionRows);
+            partitionRows.clear();
+        }
+
+        void of(SqlExecutionContext executionContext, TableReader masterReader, TableReader slaveReader) {
+            masterCursor.of(masterReader);
+            slaveCursor.of(slaveReader);
+            masterRecord = masterCursor.getRecord();
+            slaveRecord = slaveCursor.getRecordB();
+            if (record != null) {
+                record.of(masterRecord, slaveRecord);
+            } else {
+                outerRecord.of(masterRecord, slaveRecord);
+            }
+            interruptor = executionContext.getSqlExecutionInterruptor();
+            memoryTracker = executionContext.getMemoryTracker();
+
+            final MessageBus bus = executionContext.getMessageBus();
+            if (bus != null) {
+                queue = bus.getHashJoinQueue();
+                pubSeq = bus.getHashJoinPubSequence();
+            } else {
+                queue = null;
+                pubSeq = null;
+            }
+
+            partitionCount = Math.min(MAX_PARTITION_COUNT, Numbers.ceilPow2(executionContext.getWorkerCount()));
+            partitionMask = partitionCount - 1;
+            batchSize = partitionCount * 2;
+            for (int i = tables.size(); i < partitionCount; i++) {
+                tables.add(new JoinKeyRowIdTable(maxListSize));
+            }
+            for (int i = outputs.size(); i < batchSize; i++) {
+                outputs.add(new DirectLongList(1024, MemoryTag.NATIVE_JOIN));
+            }
+            // tables and outputs grow on worker threads, they charge the query they are built for
+            for (int i = 0, n = tables.size(); i < n; i++) {
+                tables.getQuick(i).setMemoryTracker(memoryTracker);
+            }
+            for (int i = 0, n = outputs.size(); i < n; i++) {
+                outputs.getQuick(i).setMemoryTracker(memoryTracker);
+            }
+
+            collectFrames(slaveReader, slaveKeyIndex, slaveFrames);
+            collectFrames(masterReader, masterKeyIndex, masterFrames);
+            try {
+                scatter();
+                dispatch(HashJoinEntry.BUILD, 0, partitionCount);
+            } catch (Throwable e) {
+                close();
+                throw e;
+            } finally {
+                freePartitionRows();
+            }
+            toTop();
+        }
+
+        /**
+         * Copies slave keys and row ids into lists of partitions their keys hash into. Lists keep slave
+         * row order, so that build tasks can add row ids to chains in that order.
+         */
+        private void scatter() {
+            for (int i = 0; i < partitionCount; i++) {
+                partitionRows.add(new DirectLongList(1024, MemoryTag.NATIVE_JOIN, memoryTracker));
+            }
+            for (int f = 0, n = slaveFrames.size(); f < n; f += FRAME_ENTRY_SIZE) {
+                interruptor.checkInterrupted();
+                final long address = slaveFrames.getQuick(f);
+                final long rowCount = slaveFrames.getQuick(f + 1);
+                final int framePartitionIndex = (int) slaveFrames.getQuick(f + 2);
+                final long rowLo = slaveFrames.getQuick(f + 3);
+                for (long r = 0; r < rowCount; r++) {
+                    final long key = readKey(address, r);
+                    addPair(
+                            partitionRows.getQuick((int) (JoinKeyRowIdTable.hash(key) & partitionMask)),
+                            key,
+                            Rows.toRowID(framePartitionIndex, rowLo + r)
+                    );
+                }
+            }
+        }
+
+        private void run(int kind, int index, int slot) {
+            if (kind == HashJoinEntry.BUILD) {
+                build(index);
+            } else {
+                probe(index, slot);
+            }
+        }
+    }
+}
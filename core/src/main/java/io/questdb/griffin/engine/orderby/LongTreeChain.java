@@ -28,6 +28,8 @@ import io.questdb.cairo.VirtualMemory;
 import io.questdb.cairo.sql.Record;
 import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.griffin.engine.AbstractRedBlackTree;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.MemoryTracker;
 import io.questdb.std.Misc;
 
 public class LongTreeChain extends AbstractRedBlackTree {
@@ -36,7 +38,7 @@ public class LongTreeChain extends AbstractRedBlackTree {
 
     public LongTreeChain(long keyPageSize, int keyMaxPages, long valuePageSize, int valueMaxPages) {
         super(keyPageSize, keyMaxPages);
-        this.valueChain = new VirtualMemory(valuePageSize, valueMaxPages);
+        this.valueChain = new VirtualMemory(valuePageSize, valueMaxPages, MemoryTag.NATIVE_SORT);
     }
 
     @Override
@@ -106,6 +108,12 @@ public class LongTreeChain extends AbstractRedBlackTree {
         fix(p);
     }
 
+    @Override
+    public void setMemoryTracker(MemoryTracker memoryTracker) {
+        super.setMemoryTracker(memoryTracker);
+        valueChain.setMemoryTracker(memoryTracker);
+    }
+
     @Override
     protected void putParent(long value) {
         root = allocateBlock();
@@ -25,9 +25,12 @@
 package io.questdb.griffin.engine.orderby;
 
 import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.SymbolTableSource;
 
 public interface RecordComparator {
     int compare(Record record);
 
     void setLeft(Record record);
+
+    void setSymbolTableSource(SymbolTableSource source);
 }
@@ -27,6 +27,8 @@ package io.questdb.griffin.engine.orderby;
 import io.questdb.cairo.ColumnType;
 import io.questdb.cairo.ColumnTypes;
 import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.SymbolTable;
+import io.questdb.cairo.sql.SymbolTableSource;
 import io.questdb.griffin.SqlParser;
 import io.questdb.std.*;
 
@@ -40,7 +42,9 @@ public class RecordComparatorCompiler {
     private final IntList fieldRecordAccessorIndicesA = new IntList();
     private final IntList fieldRecordAccessorIndicesB = new IntList();
     private final IntList comparatorAccessorIndices = new IntList();
+    private final IntList symbolTableFieldIndices = new IntList();
     private final IntList branches = new IntList();
+    private int rankOfIndex;
 
     public RecordComparatorCompiler(BytecodeAssembler asm) {
         this.asm = asm;
@@ -57,6 +61,21 @@ public class RecordComparatorCompiler {
      * @return RecordComparator instance.
      */
     public RecordComparator compile(ColumnTypes columnTypes, @Transient IntList keyColumnIndices) {
+        return compile(columnTypes, keyColumnIndices, false);
+    }
+
+    /**
+     * Generates byte code for record comparator, which optionally compares SYMBOL columns by
+     * rank of their values instead of values themselves. Symbol tables to look up ranks
+     * in are assigned via {@link RecordComparator#setSymbolTableSource(SymbolTableSource)}
+     * and must all support ranks.
+     *
+     * @param columnTypes      types of columns in the cursor. All but BINARY types are supported
+     * @param keyColumnIndices indexes of columns in types object, see {@link #compile(ColumnTypes, IntList)}
+     * @param symbolRanks      true to compare symbols by rank
+     * @return RecordComparator instance.
+     */
+    public RecordComparator compile(ColumnTypes columnTypes, @Transient IntList keyColumnIndices, boolean symbolRanks) {
 
         assert keyColumnIndices.size() < SqlParser.MAX_ORDER_BY_COLUMNS;
 
@@ -71,10 +90,14 @@ public class RecordComparatorCompiler {
         int compareNameIndex = asm.poolUtf8("compare");
         // our compare method signature
         int compareDescIndex = asm.poolUtf8("(Lio/questdb/cairo/sql/Record;)I");
-        poolFieldArtifacts(compareNameIndex, thisClassIndex, recordClassIndex, columnTypes, keyColumnIndices);
+        poolFieldArtifacts(compareNameIndex, thisClassIndex, recordClassIndex, columnTypes, keyColumnIndices, symbolRanks);
         // elements for setLeft() method
         int setLeftNameIndex = asm.poolUtf8("setLeft");
         int setLeftDescIndex = asm.poolUtf8("(Lio/questdb/cairo/sql/Record;)V");
+        // elements for setSymbolTableSource() method
+        int setSourceNameIndex = asm.poolUtf8("setSymbolTableSource");
+        int setSourceDescIndex = asm.poolUtf8("(Lio/questdb/cairo/sql/SymbolTableSource;)V");
+        int getSymbolTableIndex = asm.poolInterfaceMethod(SymbolTableSource.class, "getSymbolTable", "(I)Lio/questdb/cairo/sql/SymbolTable;");
         //
         asm.finishPool();
         asm.defineClass(thisClassIndex);
@@ -84,10 +107,11 @@ public class RecordComparatorCompiler {
         for (int i = 0, n = fieldNameIndices.size(); i < n; i++) {
             asm.defineField(fieldNameIndices.getQuick(i), fieldTypeIndices.getQuick(i));
         }
-        asm.methodCount(3);
+        asm.methodCount(4);
         asm.defineDefaultConstructor();
         instrumentSetLeftMethod(setLeftNameIndex, setLeftDescIndex, keyColumnIndices);
         instrumentCompareMethod(stackMapTableIndex, compareNameIndex, compareDescIndex, keyColumnIndices);
+        instrumentSetSymbolTableSourceMethod(setSourceNameIndex, setSourceDescIndex, getSymbolTableIndex, keyColumnIndices);
 
         // class attribute count
         asm.putShort(0);
@@ -107,10 +131,18 @@ public class RecordComparatorCompiler {
             }
             asm.aload(0);
             asm.getfield(fieldIndices.getQuick(i));
+            final int symbolTableFieldIndex = symbolTableFieldIndices.getQuick(i);
+            if (symbolTableFieldIndex != -1) {
+                asm.aload(0);
+                asm.getfield(symbolTableFieldIndex);
+            }
             asm.aload(1);
             int index = keyColumns.getQuick(i);
             asm.iconst((index > 0 ? index : -index) - 1);
             asm.invokeInterface(fieldRecordAccessorIndicesA.getQuick(i), 1);
+            if (symbolTableFieldIndex != -1) {
+                asm.invokeInterface(rankOfIndex, 1);
+            }
             asm.invokeStatic(comparatorAccessorIndices.getQuick(i));
             if (index < 0) {
                 asm.ineg();
@@ -173,14 +205,22 @@ public class RecordComparatorCompiler {
      * method signatures in constant pool in bytecode.
      */
     private void instrumentSetLeftMethod(int nameIndex, int descIndex, IntList keyColumns) {
-        asm.startMethod(nameIndex, descIndex, 3, 2);
+        asm.startMethod(nameIndex, descIndex, 4, 2);
         for (int i = 0, n = keyColumns.size(); i < n; i++) {
             asm.aload(0);
+            final int symbolTableFieldIndex = symbolTableFieldIndices.getQuick(i);
+            if (symbolTableFieldIndex != -1) {
+                asm.aload(0);
+                asm.getfield(symbolTableFieldIndex);
+            }
             asm.aload(1);
             int index = keyColumns.getQuick(i);
             // make sure column index is valid in case of "descending sort" flag
             asm.iconst((index > 0 ? index : -index) - 1);
             asm.invokeInterface(fieldRecordAccessorIndicesB.getQuick(i), 1);
+            if (symbolTableFieldIndex != -1) {
+                asm.invokeInterface(rankOfIndex, 1);
+            }
             asm.putfield(fieldIndices.getQuick(i));
         }
         asm.return_();
@@ -192,12 +232,43 @@ public class RecordComparatorCompiler {
         asm.endMethod();
     }
 
+    /*
+     * setSymbolTableSource(SymbolTableSource)
+     *
+     * Assigns symbol tables of columns that are compared by rank to class fields:
+     * t1 = source.getSymbolTable(3);
+     *
+     * Method has empty body when comparator does not use ranks.
+     */
+    private void instrumentSetSymbolTableSourceMethod(int nameIndex, int descIndex, int getSymbolTableIndex, IntList keyColumns) {
+        asm.startMethod(nameIndex, descIndex, 3, 2);
+        for (int i = 0, n = keyColumns.size(); i < n; i++) {
+            final int symbolTableFieldIndex = symbolTableFieldIndices.getQuick(i);
+            if (symbolTableFieldIndex != -1) {
+                asm.aload(0);
+                asm.aload(1);
+                int index = keyColumns.getQuick(i);
+                asm.iconst((index > 0 ? index : -index) - 1);
+                asm.invokeInterface(getSymbolTableIndex, 1);
+                asm.putfield(symbolTableFieldIndex);
+            }
+        }
+        asm.return_();
+        asm.endMethodCode();
+        // exceptions
+        asm.putShort(0);
+        // attributes
+        asm.putShort(0);
+        asm.endMethod();
+    }
+
     private void poolFieldArtifacts(
             int compareMethodIndex,
             int thisClassIndex,
             int recordClassIndex,
             ColumnTypes columnTypes,
-            IntList keyColumnIndices) {
+            IntList keyColumnIndices,
+            boolean symbolRanks) {
         typeMap.clear();
         fieldIndices.clear();
         fieldNameIndices.clear();
@@ -205,7 +276,9 @@ public class RecordComparatorCompiler {
         fieldRecordAccessorIndicesA.clear();
         fieldRecordAccessorIndicesB.clear();
         comparatorAccessorIndices.clear();
+        symbolTableFieldIndices.clear();
         methodMap.clear();
+        int symbolTableTypeIndex = -1;
 
         // define names and types
         for (int i = 0, n = keyColumnIndices.size(); i < n; i++) {
@@ -289,13 +362,33 @@ public class RecordComparatorCompiler {
                     break;
                 default:
                     // SYMBOL
-                    getterNameA = "getSym";
-                    fieldType = "Ljava/lang/CharSequence;";
-                    comparatorClass = Chars.class;
-                    comparatorDesc = "(Ljava/lang/CharSequence;Ljava/lang/CharSequence;)I";
+                    if (symbolRanks) {
+                        // compare ranks of symbol keys
+                        getterNameA = "getInt";
+                        fieldType = "I";
+                        comparatorClass = Integer.class;
+                    } else {
+                        getterNameA = "getSym";
+                        fieldType = "Ljava/lang/CharSequence;";
+                        comparatorClass = Chars.class;
+                        comparatorDesc = "(Ljava/lang/CharSequence;Ljava/lang/CharSequence;)I";
+                    }
                     break;
             }
 
+            if (symbolRanks && columnTypes.getColumnType(index) == ColumnType.SYMBOL) {
+                if (symbolTableTypeIndex == -1) {
+                    symbolTableTypeIndex = asm.poolUtf8("Lio/questdb/cairo/sql/SymbolTable;");
+                    rankOfIndex = asm.poolInterfaceMethod(SymbolTable.class, "rankOf", "(I)I");
+                }
+                int tableNameIndex = asm.poolUtf8().put('t').put(i).$();
+                fieldNameIndices.add(tableNameIndex);
+                fieldTypeIndices.add(symbolTableTypeIndex);
+                symbolTableFieldIndices.add(asm.poolField(thisClassIndex, asm.poolNameAndType(tableNameIndex, symbolTableTypeIndex)));
+            } else {
+                symbolTableFieldIndices.add(-1);
+            }
+
             int keyIndex;
             int nameIndex;
             int typeIndex;
@@ -31,6 +31,8 @@ import io.questdb.cairo.sql.Record;
 import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.cairo.sql.SymbolTable;
 import io.questdb.std.MemoryPages;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.MemoryTracker;
 import io.questdb.std.Misc;
 import io.questdb.std.Mutable;
 import io.questdb.std.Unsafe;
@@ -51,22 +53,19 @@ public class RecordTreeChain implements Closeable, Mutable {
     private final RecordChain recordChain;
     private final Record recordChainRecord;
     private final MemoryPages mem;
-    private final RecordComparator comparator;
     private final TreeCursor cursor = new TreeCursor();
     private long root = -1;
 
     public RecordTreeChain(
             ColumnTypes columnTypes,
             RecordSink recordSink,
-            RecordComparator comparator,
             long keyPageSize,
             int keyMaxPages,
             long valuePageSize,
             int valueMaxPages
     ) {
-        this.comparator = comparator;
-        this.mem = new MemoryPages(keyPageSize, keyMaxPages);
-        this.recordChain = new RecordChain(columnTypes, recordSink, valuePageSize, valueMaxPages);
+        this.mem = new MemoryPages(keyPageSize, keyMaxPages, MemoryTag.NATIVE_SORT);
+        this.recordChain = new RecordChain(columnTypes, recordSink, valuePageSize, valueMaxPages, MemoryTag.NATIVE_SORT);
         this.recordChainRecord = this.recordChain.getRecordB();
     }
 
@@ -161,7 +160,12 @@ public class RecordTreeChain implements Closeable, Mutable {
         return cursor;
     }
 
-    public void put(Record record) {
+    public void setMemoryTracker(MemoryTracker memoryTracker) {
+        mem.setMemoryTracker(memoryTracker);
+        recordChain.setMemoryTracker(memoryTracker);
+    }
+
+    public void put(Record record, RecordComparator comparator) {
         if (root == -1) {
             putParent(record);
             return;
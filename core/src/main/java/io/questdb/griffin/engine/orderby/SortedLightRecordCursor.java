@@ -30,17 +30,22 @@ import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.cairo.sql.SymbolTable;
 import io.questdb.griffin.SqlExecutionContext;
 import io.questdb.griffin.SqlExecutionInterruptor;
+import io.questdb.std.IntList;
 
 class SortedLightRecordCursor implements DelegatingRecordCursor {
     private final LongTreeChain chain;
     private final RecordComparator comparator;
+    private final RecordComparator rankComparator;
+    private final IntList rankColumns;
     private final LongTreeChain.TreeCursor chainCursor;
     private RecordCursor base;
     private Record baseRecord;
 
-    public SortedLightRecordCursor(LongTreeChain chain, RecordComparator comparator) {
+    public SortedLightRecordCursor(LongTreeChain chain, RecordComparator comparator, RecordComparator rankComparator, IntList rankColumns) {
         this.chain = chain;
         this.comparator = comparator;
+        this.rankComparator = rankComparator;
+        this.rankColumns = rankColumns;
         // assign it once, its the same instance anyway
         this.chainCursor = chain.getCursor();
     }
@@ -95,6 +100,7 @@ class SortedLightRecordCursor implements DelegatingRecordCursor {
         this.base = base;
         this.baseRecord = base.getRecord();
         final Record placeHolderRecord = base.getRecordB();
+        final RecordComparator comparator = SortedRecordCursor.selectComparator(this.comparator, rankComparator, rankColumns, base);
         SqlExecutionInterruptor interruptor = executionContext.getSqlExecutionInterruptor();
 
         chain.clear();
@@ -30,6 +30,8 @@ import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.cairo.sql.RecordCursorFactory;
 import io.questdb.cairo.sql.RecordMetadata;
 import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.std.IntList;
+import org.jetbrains.annotations.Nullable;
 
 public class SortedLightRecordCursorFactory extends AbstractRecordCursorFactory {
     private final RecordCursorFactory base;
@@ -40,7 +42,9 @@ public class SortedLightRecordCursorFactory extends AbstractRecordCursorFactory
             CairoConfiguration configuration,
             RecordMetadata metadata,
             RecordCursorFactory base,
-            RecordComparator comparator) {
+            RecordComparator comparator,
+            @Nullable RecordComparator rankComparator,
+            @Nullable IntList rankColumns) {
         super(metadata);
         this.chain = new LongTreeChain(
                 configuration.getSqlSortKeyPageSize(),
@@ -49,7 +53,7 @@ public class SortedLightRecordCursorFactory extends AbstractRecordCursorFactory
                         .getSqlSortLightValuePageSize(),
                 configuration.getSqlSortLightValueMaxPages());
         this.base = base;
-        this.cursor = new SortedLightRecordCursor(chain, comparator);
+        this.cursor = new SortedLightRecordCursor(chain, comparator, rankComparator, rankColumns);
     }
 
     @Override
@@ -60,6 +64,7 @@ public class SortedLightRecordCursorFactory extends AbstractRecordCursorFactory
 
     @Override
     public RecordCursor getCursor(SqlExecutionContext executionContext) {
+        chain.setMemoryTracker(executionContext.getMemoryTracker());
         RecordCursor baseCursor = base.getCursor(executionContext);
         try {
             cursor.of(baseCursor, executionContext);
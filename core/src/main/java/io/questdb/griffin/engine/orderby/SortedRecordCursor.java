@@ -31,13 +31,42 @@ import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.cairo.sql.SymbolTable;
 import io.questdb.griffin.SqlExecutionContext;
 import io.questdb.griffin.SqlExecutionInterruptor;
+import io.questdb.std.IntList;
 
 class SortedRecordCursor implements DelegatingRecordCursor {
     private final RecordTreeChain chain;
+    private final RecordComparator comparator;
+    private final RecordComparator rankComparator;
+    private final IntList rankColumns;
     private RecordTreeChain.TreeCursor chainCursor;
 
-    public SortedRecordCursor(RecordTreeChain chain) {
+    public SortedRecordCursor(RecordTreeChain chain, RecordComparator comparator, RecordComparator rankComparator, IntList rankColumns) {
         this.chain = chain;
+        this.comparator = comparator;
+        this.rankComparator = rankComparator;
+        this.rankColumns = rankColumns;
+    }
+
+    /**
+     * Chooses comparator, which compares symbols by rank, when symbol tables of all
+     * symbol sort keys have ranks.
+     */
+    static RecordComparator selectComparator(
+            RecordComparator comparator,
+            RecordComparator rankComparator,
+            IntList rankColumns,
+            RecordCursor cursor
+    ) {
+        if (rankComparator == null) {
+            return comparator;
+        }
+        for (int i = 0, n = rankColumns.size(); i < n; i++) {
+            if (!cursor.getSymbolTable(rankColumns.getQuick(i)).hasRanks()) {
+                return comparator;
+            }
+        }
+        rankComparator.setSymbolTableSource(cursor);
+        return rankComparator;
     }
 
     @Override
@@ -86,6 +115,7 @@ class SortedRecordCursor implements DelegatingRecordCursor {
         try {
             this.chainCursor = chain.getCursor(base);
             final Record record = base.getRecord();
+            final RecordComparator comparator = selectComparator(this.comparator, rankComparator, rankColumns, base);
             SqlExecutionInterruptor interruptor = executionContext.getSqlExecutionInterruptor();
 
             chain.clear();
@@ -95,7 +125,7 @@ class SortedRecordCursor implements DelegatingRecordCursor {
                 // other rows to do record comparison. We must use our
                 // own record instance in case base cursor keeps
                 // state in the record it returns.
-                chain.put(record);
+                chain.put(record, comparator);
             }
             chainCursor.toTop();
         } catch (CairoException ex) {
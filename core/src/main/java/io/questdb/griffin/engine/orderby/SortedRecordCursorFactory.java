@@ -32,6 +32,8 @@ import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.cairo.sql.RecordCursorFactory;
 import io.questdb.cairo.sql.RecordMetadata;
 import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.std.IntList;
+import org.jetbrains.annotations.Nullable;
 
 public class SortedRecordCursorFactory extends AbstractRecordCursorFactory {
     private final RecordCursorFactory base;
@@ -44,19 +46,20 @@ public class SortedRecordCursorFactory extends AbstractRecordCursorFactory {
             RecordCursorFactory base,
             ColumnTypes columnTypes,
             RecordSink recordSink,
-            RecordComparator comparator) {
+            RecordComparator comparator,
+            @Nullable RecordComparator rankComparator,
+            @Nullable IntList rankColumns) {
         super(metadata);
         this.chain = new RecordTreeChain(
                 columnTypes,
                 recordSink,
-                comparator,
                 configuration.getSqlSortKeyPageSize(),
                 configuration
                         .getSqlSortKeyMaxPages(),
                 configuration.getSqlSortValuePageSize(),
                 configuration.getSqlSortValueMaxPages());
         this.base = base;
-        this.cursor = new SortedRecordCursor(chain);
+        this.cursor = new SortedRecordCursor(chain, comparator, rankComparator, rankColumns);
     }
 
     @Override
@@ -67,6 +70,7 @@ public class SortedRecordCursorFactory extends AbstractRecordCursorFactory {
 
     @Override
     public RecordCursor getCursor(SqlExecutionContext executionContext) {
+        chain.setMemoryTracker(executionContext.getMemoryTracker());
         this.cursor.of(base.getCursor(executionContext), executionContext);
         return cursor;
     }
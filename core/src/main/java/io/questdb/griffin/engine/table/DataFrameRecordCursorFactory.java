@@ -37,6 +37,7 @@ import org.jetbrains.annotations.Nullable;
 
 public class DataFrameRecordCursorFactory extends AbstractDataFrameRecordCursorFactory {
     private final DataFrameRecordCursor cursor;
+    private final RowCursorFactory rowCursorFactory;
     private final boolean followsOrderByAdvice;
     private final Function filter;
     private final boolean framingSupported;
@@ -57,6 +58,7 @@ public class DataFrameRecordCursorFactory extends AbstractDataFrameRecordCursorF
     ) {
         super(metadata, dataFrameCursorFactory);
         this.cursor = new DataFrameRecordCursor(rowCursorFactory, rowCursorFactory.isEntity(), filter, columnIndexes);
+        this.rowCursorFactory = rowCursorFactory;
         this.followsOrderByAdvice = followsOrderByAdvice;
         this.filter = filter;
         this.framingSupported = framingSupported;
@@ -69,6 +71,11 @@ public class DataFrameRecordCursorFactory extends AbstractDataFrameRecordCursorF
         return followsOrderByAdvice;
     }
 
+    @Nullable
+    public Function getFilter() {
+        return filter;
+    }
+
     @Override
     public boolean recordCursorSupportsRandomAccess() {
         return true;
@@ -109,6 +116,32 @@ public class DataFrameRecordCursorFactory extends AbstractDataFrameRecordCursorF
         Misc.free(filter);
     }
 
+    /**
+     * Creates factory that rejects rows with another filter instead of the current one. New filter
+     * must include the current filter, which is then owned by the new factory. This factory must not
+     * be used or closed afterwards.
+     *
+     * @param filter replacement of the filter row cursor applies to rows
+     * @return null when this factory does not filter rows
+     */
+    @Nullable
+    public DataFrameRecordCursorFactory withFilter(Function filter) {
+        final RowCursorFactory rcf = rowCursorFactory.withFilter(filter);
+        if (rcf == null) {
+            return null;
+        }
+        return new DataFrameRecordCursorFactory(
+                getMetadata(),
+                dataFrameCursorFactory,
+                rcf,
+                followsOrderByAdvice,
+                filter,
+                framingSupported,
+                columnIndexes,
+                columnSizes
+        );
+    }
+
     private static class TableReaderPageFrameCursor implements PageFrameCursor {
         private final LongList columnPageNextAddress = new LongList();
         private final LongList columnPageAddress = new LongList();
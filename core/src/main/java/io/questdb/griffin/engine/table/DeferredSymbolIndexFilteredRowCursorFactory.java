@@ -32,6 +32,8 @@ public class DeferredSymbolIndexFilteredRowCursorFactory implements RowCursorFac
     private final SymbolIndexFilteredRowCursor cursor;
     private final int columnIndex;
     private final String symbol;
+    private final boolean cachedIndexReaderCursor;
+    private final int indexDirection;
     private int symbolKey = SymbolTable.VALUE_NOT_FOUND;
 
     public DeferredSymbolIndexFilteredRowCursorFactory(
@@ -43,6 +45,8 @@ public class DeferredSymbolIndexFilteredRowCursorFactory implements RowCursorFac
     ) {
         this.columnIndex = columnIndex;
         this.symbol = symbol;
+        this.cachedIndexReaderCursor = cachedIndexReaderCursor;
+        this.indexDirection = indexDirection;
         this.cursor = new SymbolIndexFilteredRowCursor(columnIndex, filter, cachedIndexReaderCursor, indexDirection);
     }
 
@@ -67,4 +71,9 @@ public class DeferredSymbolIndexFilteredRowCursorFactory implements RowCursorFac
     public boolean isEntity() {
         return false;
     }
+
+    @Override
+    public RowCursorFactory withFilter(Function filter) {
+        return new DeferredSymbolIndexFilteredRowCursorFactory(columnIndex, symbol, filter, cachedIndexReaderCursor, indexDirection);
+    }
 }
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.BitmapIndexReader;
+import io.questdb.cairo.sql.*;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.EmptyTableRandomRecordCursor;
+import io.questdb.griffin.engine.functions.AbstractSymbolPredicateFunction;
+import io.questdb.std.IntList;
+import io.questdb.std.IntObjHashMap;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Filters indexed symbol column by predicate, which is evaluated once per symbol value
+ * in symbol table. Rows are then read from index cursors of the matching keys.
+ */
+public class FilterOnSymbolPredicateRecordCursorFactory extends AbstractDataFrameRecordCursorFactory {
+    private final DataFrameRecordCursor cursor;
+    private final int columnIndex;
+    private final AbstractSymbolPredicateFunction predicate;
+    private final ObjList<RowCursorFactory> cursorFactories;
+    private final IntObjHashMap<RowCursorFactory> factories = new IntObjHashMap<>(64, 0.5, -5);
+
+    public FilterOnSymbolPredicateRecordCursorFactory(
+            @NotNull RecordMetadata metadata,
+            @NotNull DataFrameCursorFactory dataFrameCursorFactory,
+            int columnIndex,
+            @NotNull AbstractSymbolPredicateFunction predicate,
+            @NotNull IntList columnIndexes
+    ) {
+        super(metadata, dataFrameCursorFactory);
+        this.columnIndex = columnIndex;
+        this.predicate = predicate;
+        this.cursorFactories = new ObjList<>();
+        this.cursor = new DataFrameRecordCursor(new HeapRowCursorFactory(cursorFactories), false, null, columnIndexes);
+    }
+
+    @Override
+    public void close() {
+        Misc.free(predicate);
+        factories.clear();
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return true;
+    }
+
+    @Override
+    protected RecordCursor getCursorInstance(
+            DataFrameCursor dataFrameCursor,
+            SqlExecutionContext executionContext
+    ) {
+        predicate.init(dataFrameCursor, executionContext);
+        final StaticSymbolTable symbolTable = dataFrameCursor.getSymbolTable(columnIndex);
+
+        cursorFactories.clear();
+        if (predicate.matchesKey(SymbolTable.VALUE_IS_NULL)) {
+            addFactory(SymbolTable.VALUE_IS_NULL);
+        }
+        for (int key = 0, n = symbolTable.size(); key < n; key++) {
+            if (predicate.matchesKey(key)) {
+                addFactory(key);
+            }
+        }
+
+        if (cursorFactories.size() == 0) {
+            dataFrameCursor.close();
+            return EmptyTableRandomRecordCursor.INSTANCE;
+        }
+
+        this.cursor.of(dataFrameCursor, executionContext);
+        return this.cursor;
+    }
+
+    private void addFactory(int symbolKey) {
+        final int index = factories.keyIndex(symbolKey);
+        final RowCursorFactory rowCursorFactory;
+        if (index > -1) {
+            rowCursorFactory = new SymbolIndexRowCursorFactory(columnIndex, symbolKey, false, BitmapIndexReader.DIR_FORWARD);
+            factories.putAt(index, symbolKey, rowCursorFactory);
+        } else {
+            rowCursorFactory = factories.valueAtQuick(index);
+        }
+        cursorFactories.add(rowCursorFactory);
+    }
+}
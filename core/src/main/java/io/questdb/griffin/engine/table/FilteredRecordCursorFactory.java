@@ -48,6 +48,10 @@ public class FilteredRecordCursorFactory implements RecordCursorFactory {
         filter.close();
     }
 
+    public RecordCursorFactory getBaseFactory() {
+        return base;
+    }
+
     @Override
     public RecordCursor getCursor(SqlExecutionContext executionContext) {
         RecordCursor cursor = base.getCursor(executionContext);
@@ -55,6 +59,10 @@ public class FilteredRecordCursorFactory implements RecordCursorFactory {
         return this.cursor;
     }
 
+    public Function getFilter() {
+        return filter;
+    }
+
     @Override
     public RecordMetadata getMetadata() {
         return base.getMetadata();
@@ -77,6 +77,7 @@ public class LatestByAllFilteredRecordCursorFactory extends AbstractTreeSetRecor
             DataFrameCursor dataFrameCursor,
             SqlExecutionContext executionContext
     ) {
+        map.setMemoryTracker(executionContext.getMemoryTracker());
         return super.getCursorInstance(dataFrameCursor, executionContext);
     }
 }
@@ -38,7 +38,7 @@ import org.jetbrains.annotations.Nullable;
 public class LatestByValuesIndexedFilteredRecordCursorFactory extends AbstractDeferredTreeSetRecordCursorFactory {
 
     private final Function filter;
-    private final DirectLongList rowidList = new DirectLongList(1024 * 1024);
+    private final DirectLongList rowidList = new DirectLongList(1024 * 1024, MemoryTag.NATIVE_INDEX);
 
     public LatestByValuesIndexedFilteredRecordCursorFactory(
             @NotNull CairoConfiguration configuration,
@@ -78,6 +78,7 @@ public class LatestByValuesIndexedFilteredRecordCursorFactory extends AbstractDe
             DataFrameCursor dataFrameCursor,
             SqlExecutionContext executionContext
     ) {
+        rowidList.setMemoryTracker(executionContext.getMemoryTracker());
         if (filter != null) {
             AbstractDataFrameRecordCursor cursor = super.getCursorInstance(dataFrameCursor, executionContext);
             filter.init(cursor, executionContext);
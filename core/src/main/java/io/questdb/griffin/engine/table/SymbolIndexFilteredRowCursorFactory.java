@@ -32,6 +32,10 @@ import io.questdb.cairo.sql.RowCursorFactory;
 
 public class SymbolIndexFilteredRowCursorFactory implements RowCursorFactory {
     private final SymbolIndexFilteredRowCursor cursor;
+    private final int columnIndex;
+    private final int symbolKey;
+    private final boolean cachedIndexReaderCursor;
+    private final int indexDirection;
 
     public SymbolIndexFilteredRowCursorFactory(
             int columnIndex,
@@ -40,6 +44,10 @@ public class SymbolIndexFilteredRowCursorFactory implements RowCursorFactory {
             boolean cachedIndexReaderCursor,
             int indexDirection
     ) {
+        this.columnIndex = columnIndex;
+        this.symbolKey = symbolKey;
+        this.cachedIndexReaderCursor = cachedIndexReaderCursor;
+        this.indexDirection = indexDirection;
         this.cursor = new SymbolIndexFilteredRowCursor(
                 columnIndex,
                 symbolKey,
@@ -63,4 +71,9 @@ public class SymbolIndexFilteredRowCursorFactory implements RowCursorFactory {
     public boolean isEntity() {
         return false;
     }
+
+    @Override
+    public RowCursorFactory withFilter(Function filter) {
+        return new SymbolIndexFilteredRowCursorFactory(columnIndex, symbolKey, filter, cachedIndexReaderCursor, indexDirection);
+    }
 }
@@ -59,6 +59,7 @@ public class UnionRecordCursorFactory implements RecordCursorFactory {
 
     @Override
     public RecordCursor getCursor(SqlExecutionContext executionContext) {
+        map.setMemoryTracker(executionContext.getMemoryTracker());
         RecordCursor masterCursor = masterFactory.getCursor(executionContext);
         RecordCursor slaveCursor = slaveFactory.getCursor(executionContext);
         try {
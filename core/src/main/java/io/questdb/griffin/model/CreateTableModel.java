@@ -34,14 +34,17 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
     public static final ObjectFactory<CreateTableModel> FACTORY = CreateTableModel::new;
     private static final int COLUMN_FLAG_CACHED = 1;
     private static final int COLUMN_FLAG_INDEXED = 2;
+    private static final int COLUMN_FLAG_DEDUP_KEY = 4;
     private final CharSequenceObjHashMap<ColumnCastModel> columnCastModels = new CharSequenceObjHashMap<>();
     private final LongList columnBits = new LongList();
     private final ObjList<CharSequence> columnNames = new ObjList<>();
     private final CharSequenceIntHashMap columnNameIndexMap = new CharSequenceIntHashMap();
+    private final ObjList<ExpressionNode> dedupKeys = new ObjList<>();
     private ExpressionNode name;
     private QueryModel queryModel;
     private ExpressionNode timestamp;
     private ExpressionNode partitionBy;
+    private int ttlHours;
 
     private CreateTableModel() {
     }
@@ -56,6 +59,17 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
         return false;
     }
 
+    public boolean addDedupKey(ExpressionNode key, int columnIndex) {
+        final int pos = columnIndex * 2 + 1;
+        final int flags = getLowAt(pos);
+        if ((flags & COLUMN_FLAG_DEDUP_KEY) != 0) {
+            return false;
+        }
+        columnBits.setQuick(pos, Numbers.encodeLowHighInts(flags | COLUMN_FLAG_DEDUP_KEY, getHighAt(pos)));
+        dedupKeys.add(key);
+        return true;
+    }
+
     public boolean addColumnCastModel(ColumnCastModel model) {
         return columnCastModels.put(model.getName().token, model);
     }
@@ -78,10 +92,12 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
         queryModel = null;
         timestamp = null;
         partitionBy = null;
+        ttlHours = 0;
         name = null;
         columnBits.clear();
         columnNames.clear();
         columnNameIndexMap.clear();
+        dedupKeys.clear();
     }
 
     public CharSequenceObjHashMap<ColumnCastModel> getColumnCastModels() {
@@ -119,6 +135,15 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
         return false;
     }
 
+    @Override
+    public boolean isDedupKey(int columnIndex) {
+        return (getLowAt(columnIndex * 2 + 1) & COLUMN_FLAG_DEDUP_KEY) != 0;
+    }
+
+    public ObjList<ExpressionNode> getDedupKeys() {
+        return dedupKeys;
+    }
+
     @Override
     public int getPartitionBy() {
         return partitionBy == null ? PartitionBy.NONE : PartitionBy.fromString(partitionBy.token);
@@ -128,6 +153,15 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
         this.partitionBy = partitionBy;
     }
 
+    @Override
+    public int getTtlHours() {
+        return ttlHours;
+    }
+
+    public void setTtlHours(int ttlHours) {
+        this.ttlHours = ttlHours;
+    }
+
     @Override
     public boolean getSymbolCacheFlag(int index) {
         return (getLowAt(index * 2 + 1) & COLUMN_FLAG_CACHED) != 0;
@@ -281,6 +315,21 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
         if (partitionBy != null) {
             sink.put(" partition by ").put(partitionBy.token);
         }
+
+        if (ttlHours > 0) {
+            sink.put(" ttl ").put(ttlHours).put(" hours");
+        }
+
+        if (dedupKeys.size() > 0) {
+            sink.put(" dedup keys(");
+            for (int i = 0, n = dedupKeys.size(); i < n; i++) {
+                if (i > 0) {
+                    sink.put(", ");
+                }
+                sink.put(dedupKeys.getQuick(i).token);
+            }
+            sink.put(')');
+        }
     }
 
     private int getHighAt(int index) {
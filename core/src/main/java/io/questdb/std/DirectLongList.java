@@ -37,10 +37,22 @@ public class DirectLongList implements Mutable, Closeable {
     long limit;
     private long address;
     private long capacity;
+    private final int memoryTag;
+    private MemoryTracker memoryTracker;
 
     public DirectLongList(long capacity) {
+        this(capacity, MemoryTag.NATIVE_DEFAULT);
+    }
+
+    public DirectLongList(long capacity, int memoryTag) {
+        this(capacity, memoryTag, null);
+    }
+
+    public DirectLongList(long capacity, int memoryTag, MemoryTracker memoryTracker) {
+        this.memoryTag = memoryTag;
+        this.memoryTracker = memoryTracker;
         this.pow2 = 3;
-        this.address = Unsafe.malloc(this.capacity = ((capacity << 3) + Misc.CACHE_LINE_SIZE));
+        this.address = Unsafe.malloc(this.capacity = ((capacity << 3) + Misc.CACHE_LINE_SIZE), memoryTag, memoryTracker);
         this.start = this.pos = address + (address & (Misc.CACHE_LINE_SIZE - 1));
         this.limit = pos + ((capacity - 1) << 3);
         this.onePow2 = (1 << 3);
@@ -96,7 +108,7 @@ public class DirectLongList implements Mutable, Closeable {
     @Override
     public void close() {
         if (address != 0) {
-            Unsafe.free(address, capacity);
+            Unsafe.free(address, capacity, memoryTag, memoryTracker);
             address = 0;
         }
     }
@@ -134,12 +146,16 @@ public class DirectLongList implements Mutable, Closeable {
         pos = start + (p << pow2);
     }
 
+    public void setMemoryTracker(MemoryTracker memoryTracker) {
+        this.memoryTracker = memoryTracker;
+    }
+
     public int size() {
         return (int) ((pos - start) >> pow2);
     }
 
     public DirectLongList subset(int lo, int hi) {
-        DirectLongList that = new DirectLongList(hi - lo);
+        DirectLongList that = new DirectLongList(hi - lo, memoryTag, memoryTracker);
         Unsafe.getUnsafe().copyMemory(start + (lo << 3), that.start, (hi - lo) << 3);
         that.pos += (hi - lo) << 3;
         return that;
@@ -170,12 +186,14 @@ public class DirectLongList implements Mutable, Closeable {
     }
 
     private void extend(long capacity) {
-        long address = Unsafe.malloc(this.capacity = ((capacity << pow2) + Misc.CACHE_LINE_SIZE));
+        final long size = (capacity << pow2) + Misc.CACHE_LINE_SIZE;
+        long address = Unsafe.malloc(size, memoryTag, memoryTracker);
         long start = address + (address & (Misc.CACHE_LINE_SIZE - 1));
         Unsafe.getUnsafe().copyMemory(this.start, start, limit + onePow2 - this.start);
         if (this.address != 0) {
-            Unsafe.free(this.address, this.capacity);
+            Unsafe.free(this.address, this.capacity, memoryTag, memoryTracker);
         }
+        this.capacity = size;
         this.pos = this.pos - this.start + start;
         this.limit = start + ((capacity - 1) << pow2);
         this.address = address;
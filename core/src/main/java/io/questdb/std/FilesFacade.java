@@ -58,6 +58,17 @@ public interface FilesFacade {
 
     long getPageSize();
 
+    /**
+     * Creates hard link to existing file. Links can only be created within the
+     * same file system, callers are expected to fall back to copying file contents
+     * when this method returns false.
+     *
+     * @param src      existing file
+     * @param hardLink path of link to create, must not exist
+     * @return true when link has been created
+     */
+    boolean hardLink(LPSZ src, LPSZ hardLink);
+
     boolean isRestrictedFileSystem();
 
     void iterateDir(LPSZ path, FindVisitor func);
@@ -27,6 +27,10 @@ package io.questdb.std;
 import io.questdb.cairo.CairoException;
 import io.questdb.std.str.LPSZ;
 import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
+
+import java.io.IOException;
+import java.nio.file.Paths;
 
 public class FilesFacadeImpl implements FilesFacade {
 
@@ -120,6 +124,18 @@ public class FilesFacadeImpl implements FilesFacade {
         return Files.PAGE_SIZE;
     }
 
+    @Override
+    public boolean hardLink(LPSZ src, LPSZ hardLink) {
+        // prebuilt native libraries do not export link(), java.nio is the only way to create
+        // links here and it takes UTF-16 paths, so both paths are decoded for each link
+        try {
+            java.nio.file.Files.createLink(Paths.get(toUtf16(hardLink)), Paths.get(toUtf16(src)));
+            return true;
+        } catch (IOException | UnsupportedOperationException | SecurityException e) {
+            return false;
+        }
+    }
+
     @Override
     public boolean isRestrictedFileSystem() {
         return Os.type == Os.WINDOWS;
@@ -235,4 +251,10 @@ public class FilesFacadeImpl implements FilesFacade {
             return mapPageSize;
         }
     }
+
+    private static String toUtf16(LPSZ lpsz) {
+        final StringSink sink = new StringSink();
+        Chars.utf8DecodeZ(lpsz.address(), sink);
+        return sink.toString();
+    }
 }
@@ -44,6 +44,39 @@ public final class Hash {
         return s == null ? -1 : (Chars.hashCode(s) & 0xFFFFFFF) & max;
     }
 
+    /**
+     * Finalizer of MurmurHash3, spreads bits of the value across the whole word. Hash of
+     * sequential keys is suitable both for power-of-two tables and probabilistic sketches.
+     *
+     * @param h value to hash
+     * @return 64-bit hash
+     */
+    public static long fmix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * 64-bit FNV-1a hash of all chars of the sequence finished with {@link #fmix64(long)}. Unlike
+     * {@link Chars#hashCode(CharSequence)} it does not fold the value into 32 bits, which matters
+     * to sketches that take register index and rank from different parts of the hash.
+     *
+     * @param s char sequence, not null
+     * @return 64-bit hash
+     */
+    public static long hash64(CharSequence s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0, n = s.length(); i < n; i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return fmix64(h);
+    }
+
     /**
      * Calculates positive integer hash of memory pointer using Java hashcode() algorithm.
      *
@@ -41,12 +41,19 @@ public class MemoryPages implements Closeable, Mutable {
     private long cachePageHi;
     private long cachePageLo;
     private final int maxPages;
+    private final int memoryTag;
+    private MemoryTracker memoryTracker;
 
     public MemoryPages(long pageSize) {
         this(pageSize, Integer.MAX_VALUE);
     }
 
     public MemoryPages(long pageSize, int maxPages) {
+        this(pageSize, maxPages, MemoryTag.NATIVE_DEFAULT);
+    }
+
+    public MemoryPages(long pageSize, int maxPages, int memoryTag) {
+        this.memoryTag = memoryTag;
         this.pageSize = Numbers.ceilPow2(pageSize);
         this.bits = Numbers.msb(this.pageSize);
         this.mask = this.pageSize - 1;
@@ -80,12 +87,16 @@ public class MemoryPages implements Closeable, Mutable {
         for (int i = 0; i < pages.size(); i++) {
             long address = pages.getQuick(i);
             if (address != 0) {
-                Unsafe.free(address, pageSize);
+                Unsafe.free(address, pageSize, memoryTag, memoryTracker);
             }
         }
         pages.clear();
     }
 
+    public void setMemoryTracker(MemoryTracker memoryTracker) {
+        this.memoryTracker = memoryTracker;
+    }
+
     public long size() {
         return cachePageLo;
     }
@@ -100,7 +111,7 @@ public class MemoryPages implements Closeable, Mutable {
         }
 
         if (index >= pages.size()) {
-            pages.extendAndSet((int) index, Unsafe.malloc(pageSize));
+            pages.extendAndSet((int) index, Unsafe.malloc(pageSize, memoryTag, memoryTracker));
             LOG.info().$("new page [size=").$(pageSize).$(']').$();
         }
 
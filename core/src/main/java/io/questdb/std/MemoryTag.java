@@ -0,0 +1,64 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.std;
+
+/**
+ * Tags of native memory allocations. Each tag has its own usage counter in {@link Unsafe}.
+ * Allocations of query data structures, such as maps, sort trees, join chains and index row lists,
+ * are tagged as query memory and count towards budget of the query they are made for, see
+ * {@link MemoryTracker}. Untagged allocations, such as column read buffers and paths, count
+ * as {@link #NATIVE_DEFAULT} and are never charged to a query.
+ */
+public final class MemoryTag {
+    public static final int NATIVE_DEFAULT = 0;
+    public static final int NATIVE_NETWORK = 1;
+    public static final int NATIVE_INDEX = 2;
+    public static final int NATIVE_MAP = 3;
+    public static final int NATIVE_SORT = 4;
+    public static final int NATIVE_JOIN = 5;
+    public static final int SIZE = NATIVE_JOIN + 1;
+
+    private static final ObjList<String> names = new ObjList<>(SIZE);
+
+    static {
+        names.extendAndSet(NATIVE_DEFAULT, "NATIVE_DEFAULT");
+        names.extendAndSet(NATIVE_NETWORK, "NATIVE_NETWORK");
+        names.extendAndSet(NATIVE_INDEX, "NATIVE_INDEX");
+        names.extendAndSet(NATIVE_MAP, "NATIVE_MAP");
+        names.extendAndSet(NATIVE_SORT, "NATIVE_SORT");
+        names.extendAndSet(NATIVE_JOIN, "NATIVE_JOIN");
+    }
+
+    private MemoryTag() {
+    }
+
+    public static boolean isQueryMemory(int memoryTag) {
+        return memoryTag >= NATIVE_INDEX;
+    }
+
+    public static String nameOf(int memoryTag) {
+        return names.getQuick(memoryTag);
+    }
+}
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.std;
+
+import io.questdb.griffin.engine.LimitOverflowException;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Accounts native memory of a single query. Tracker is carried by the execution context of the
+ * query and cursor factories hand it to their maps, sort trees and join tables when they open
+ * a cursor. Worker tasks of the query, such as parallel hash join tasks, receive the tracker
+ * with the task. Data structures charge allocations tagged as query memory, see
+ * {@link MemoryTag#isQueryMemory(int)}, to the tracker before memory is allocated. Queries that
+ * would breach the limit fail with {@link LimitOverflowException} instead of exhausting memory
+ * of the host.
+ * <p>
+ * Tracker measures memory query allocates while it is executing. Memory retained by cached
+ * factories from previous executions is not counted.
+ */
+public class MemoryTracker implements Mutable {
+    private final AtomicLong used = new AtomicLong();
+    private final AtomicLong peak = new AtomicLong();
+    private long limit;
+
+    @Override
+    public void clear() {
+        used.set(0);
+        peak.set(0);
+    }
+
+    /**
+     * Counts memory towards the budget. {@link Unsafe} charges memory before it is allocated,
+     * native maps are charged after they have grown.
+     *
+     * @param size number of bytes allocated, negative when memory is released
+     * @throws LimitOverflowException when limit is exceeded, the usage is not updated in this case
+     */
+    public void charge(long size) {
+        while (true) {
+            final long current = used.get();
+            // freeing memory allocated before query started must not create headroom
+            final long next = Math.max(0, current + size);
+            if (size > 0 && limit > 0 && next > limit) {
+                throw LimitOverflowException.instance()
+                        .put("query memory limit exceeded [limit=").put(limit)
+                        .put(", used=").put(current)
+                        .put(", requested=").put(size)
+                        .put(']');
+            }
+            if (used.compareAndSet(current, next)) {
+                long p;
+                while (next > (p = peak.get()) && !peak.compareAndSet(p, next)) {
+                    // another thread raised peak concurrently, retry
+                }
+                return;
+            }
+        }
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+
+    public long getPeak() {
+        return peak.get();
+    }
+
+    public long getUsed() {
+        return used.get();
+    }
+
+    /**
+     * Resets usage counters for new query.
+     *
+     * @param limit maximum number of bytes query is allowed to allocate, 0 for no limit
+     * @return this tracker
+     */
+    public MemoryTracker of(long limit) {
+        this.limit = limit;
+        clear();
+        return this;
+    }
+}
@@ -28,7 +28,8 @@ import io.questdb.cairo.ColumnTypes;
 
 public final class Rosti {
 
-    public static final int FAKE_ALLOC_SIZE = 1024;
+    // width of control byte group of native map, SSE2
+    private static final long GROUP_WIDTH = 16;
 
     public static native long alloc(long pKeyTypes, int keyTypeCount, long capacity);
 
@@ -41,18 +42,46 @@ public final class Rosti {
                 Unsafe.getUnsafe().putInt(p, types.getColumnType(i));
                 p += Integer.BYTES;
             }
-            // this is not an exact size of memory allocated for Rosti, but this is useful to
-            // track that we free these maps
-            Unsafe.recordMemAlloc(FAKE_ALLOC_SIZE);
-            return alloc(mem, columnCount, Numbers.ceilPow2(capacity) - 1);
+            final long pRosti = alloc(mem, columnCount, Numbers.ceilPow2(capacity) - 1);
+            Unsafe.recordMemAlloc(getAllocMemory(pRosti), MemoryTag.NATIVE_MAP);
+            return pRosti;
         } finally {
             Unsafe.free(mem, Integer.BYTES * columnCount);
         }
     }
 
     public static void free(long pRosti) {
+        Unsafe.recordMemAlloc(-getAllocMemory(pRosti), MemoryTag.NATIVE_MAP);
         free0(pRosti);
-        Unsafe.recordMemAlloc(-FAKE_ALLOC_SIZE);
+    }
+
+    /**
+     * Size of control and slot arena of the map. Map allocates and grows its arena natively,
+     * this size is what Java side accounts for the map.
+     *
+     * @param pRosti map pointer
+     * @return arena size in bytes
+     */
+    public static long getAllocMemory(long pRosti) {
+        final long capacity = getCapacity(pRosti);
+        final long slotSize = getSlotSize(pRosti);
+        return slotSize + (capacity + 1) * (2 * GROUP_WIDTH + slotSize);
+    }
+
+    /**
+     * Accounts growth of the map since its size was last accounted. Map grows natively, callers
+     * charge the growth to the query budget, see {@link MemoryTracker#charge(long)}.
+     *
+     * @param pRosti        map pointer
+     * @param accountedSize size of the map accounted so far
+     * @return current size of the map
+     */
+    public static long updateMemoryUsage(long pRosti, long accountedSize) {
+        final long size = getAllocMemory(pRosti);
+        if (size != accountedSize) {
+            Unsafe.recordMemAlloc(size - accountedSize, MemoryTag.NATIVE_MAP);
+        }
+        return size;
     }
 
     private static native void free0(long pRosti);
@@ -183,6 +212,14 @@ public final class Rosti {
         return Unsafe.getUnsafe().getLong(pRosti + 2 * Long.BYTES);
     }
 
+    public static long getCapacity(long pRosti) {
+        return Unsafe.getUnsafe().getLong(pRosti + 3 * Long.BYTES);
+    }
+
+    public static long getSlotSize(long pRosti) {
+        return Unsafe.getUnsafe().getLong(pRosti + 4 * Long.BYTES);
+    }
+
     public static long getSlotShift(long pRosti) {
         return Unsafe.getUnsafe().getLong(pRosti + 5 * Long.BYTES);
     }
@@ -25,6 +25,7 @@
 package io.questdb.std;
 
 import io.questdb.std.ex.FatalError;
+import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Field;
 import java.util.concurrent.atomic.AtomicLong;
@@ -38,6 +39,7 @@ public final class Unsafe {
     private static final sun.misc.Unsafe UNSAFE;
     private static final AtomicLong MALLOC_COUNT = new AtomicLong(0);
     private static final AtomicLong FREE_COUNT = new AtomicLong(0);
+    private static final AtomicLong[] COUNTERS = new AtomicLong[MemoryTag.SIZE];
 
     static {
         try {
@@ -54,6 +56,10 @@ public final class Unsafe {
         } catch (Exception e) {
             throw new FatalError(e);
         }
+
+        for (int i = 0; i < MemoryTag.SIZE; i++) {
+            COUNTERS[i] = new AtomicLong();
+        }
     }
 
     private Unsafe() {
@@ -70,7 +76,11 @@ public final class Unsafe {
     }
 
     public static long calloc(long size) {
-        long ptr = malloc(size);
+        return calloc(size, MemoryTag.NATIVE_DEFAULT);
+    }
+
+    public static long calloc(long size, int memoryTag) {
+        long ptr = malloc(size, memoryTag);
         getUnsafe().setMemory(ptr, size, (byte) 0);
         return ptr;
     }
@@ -89,9 +99,25 @@ public final class Unsafe {
     }
 
     public static void free(long ptr, long size) {
+        free(ptr, size, MemoryTag.NATIVE_DEFAULT);
+    }
+
+    public static void free(long ptr, long size, int memoryTag) {
         getUnsafe().freeMemory(ptr);
         FREE_COUNT.incrementAndGet();
-        recordMemAlloc(-size);
+        recordMemAlloc(-size, memoryTag);
+    }
+
+    /**
+     * Frees memory allocated on behalf of a query and releases it from the query budget.
+     *
+     * @param memoryTracker budget of the query, null when query is not accounted
+     */
+    public static void free(long ptr, long size, int memoryTag, @Nullable MemoryTracker memoryTracker) {
+        free(ptr, size, memoryTag);
+        if (memoryTracker != null && MemoryTag.isQueryMemory(memoryTag)) {
+            memoryTracker.charge(-size);
+        }
     }
 
     public static boolean getBool(long address) {
@@ -120,25 +146,64 @@ public final class Unsafe {
         return MEM_USED.get();
     }
 
+    public static long getMemUsedByTag(int memoryTag) {
+        return COUNTERS[memoryTag].get();
+    }
+
     public static sun.misc.Unsafe getUnsafe() {
         return UNSAFE;
     }
 
     public static long malloc(long size) {
+        return malloc(size, MemoryTag.NATIVE_DEFAULT);
+    }
+
+    public static long malloc(long size, int memoryTag) {
         long ptr = getUnsafe().allocateMemory(size);
-        recordMemAlloc(size);
+        recordMemAlloc(size, memoryTag);
         MALLOC_COUNT.incrementAndGet();
         return ptr;
     }
 
+    /**
+     * Allocates memory on behalf of a query. Allocations tagged as query memory are charged to
+     * the query budget before memory is allocated, which leaves nothing to clean up when the
+     * budget is exceeded.
+     *
+     * @param memoryTracker budget of the query, null when query is not accounted
+     * @throws io.questdb.griffin.engine.LimitOverflowException when allocation would exceed the budget
+     */
+    public static long malloc(long size, int memoryTag, @Nullable MemoryTracker memoryTracker) {
+        if (memoryTracker != null && MemoryTag.isQueryMemory(memoryTag)) {
+            memoryTracker.charge(size);
+        }
+        return malloc(size, memoryTag);
+    }
+
     public static long realloc(long address, long oldSize, long newSize) {
+        return realloc(address, oldSize, newSize, MemoryTag.NATIVE_DEFAULT);
+    }
+
+    public static long realloc(long address, long oldSize, long newSize, int memoryTag) {
         long ptr = getUnsafe().reallocateMemory(address, newSize);
-        recordMemAlloc(-oldSize + newSize);
+        recordMemAlloc(-oldSize + newSize, memoryTag);
         return ptr;
     }
 
+    public static long realloc(long address, long oldSize, long newSize, int memoryTag, @Nullable MemoryTracker memoryTracker) {
+        if (memoryTracker != null && MemoryTag.isQueryMemory(memoryTag)) {
+            memoryTracker.charge(newSize - oldSize);
+        }
+        return realloc(address, oldSize, newSize, memoryTag);
+    }
+
     static void recordMemAlloc(long size) {
+        recordMemAlloc(size, MemoryTag.NATIVE_DEFAULT);
+    }
+
+    static void recordMemAlloc(long size, int memoryTag) {
         MEM_USED.addAndGet(size);
+        COUNTERS[memoryTag].addAndGet(size);
     }
 
     private static int msb(int value) {
@@ -105,6 +105,7 @@ open module io.questdb {
             io.questdb.griffin.engine.functions.eq.EqIntStrCFunctionFactory,
 //                   '<' operator
             io.questdb.griffin.engine.functions.lt.LtDoubleVVFunctionFactory,
+            io.questdb.griffin.engine.functions.lt.LtSymStrFunctionFactory,
 //                   '+' operator
             io.questdb.griffin.engine.functions.math.AddByteFunctionFactory,
             io.questdb.griffin.engine.functions.math.AddShortFunctionFactory,
@@ -139,8 +140,19 @@ open module io.questdb {
 //                    # '~=',
             io.questdb.griffin.engine.functions.regex.MatchStrFunctionFactory,
             io.questdb.griffin.engine.functions.regex.MatchCharFunctionFactory,
+            io.questdb.griffin.engine.functions.regex.MatchSymbolFunctionFactory,
 //                    # '!~',
             io.questdb.griffin.engine.functions.regex.NotMatchStrFunctionFactory,
+//                    # 'like',
+            io.questdb.griffin.engine.functions.regex.LikeFunctionFactory,
+            io.questdb.griffin.engine.functions.regex.LikeCharFunctionFactory,
+            io.questdb.griffin.engine.functions.regex.LikeSymbolFunctionFactory,
+            io.questdb.griffin.engine.functions.regex.LikeSymbolCharFunctionFactory,
+//                    # 'ilike',
+            io.questdb.griffin.engine.functions.regex.ILikeFunctionFactory,
+            io.questdb.griffin.engine.functions.regex.ILikeCharFunctionFactory,
+            io.questdb.griffin.engine.functions.regex.ILikeSymbolFunctionFactory,
+            io.questdb.griffin.engine.functions.regex.ILikeSymbolCharFunctionFactory,
 //                    # 'to_char',
             io.questdb.griffin.engine.functions.date.ToStrDateFunctionFactory,
             io.questdb.griffin.engine.functions.date.ToStrTimestampFunctionFactory,
@@ -391,9 +403,50 @@ open module io.questdb {
             io.questdb.griffin.engine.functions.groupby.SumLongGroupByFunctionFactory,
             io.questdb.griffin.engine.functions.groupby.KSumDoubleGroupByFunctionFactory,
             io.questdb.griffin.engine.functions.groupby.NSumDoubleGroupByFunctionFactory,
+//                  'first' group by function
+            io.questdb.griffin.engine.functions.groupby.FirstBooleanGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.FirstByteGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.FirstShortGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.FirstCharGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.FirstIntGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.FirstLongGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.FirstFloatGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.FirstDoubleGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.FirstDateGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.FirstTimestampGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.FirstSymbolGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.FirstStrGroupByFunctionFactory,
 //                  'last' group by function
+            io.questdb.griffin.engine.functions.groupby.LastBooleanGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.LastByteGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.LastShortGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.LastCharGroupByFunctionFactory,
             io.questdb.griffin.engine.functions.groupby.LastIntGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.LastLongGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.LastFloatGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.LastDoubleGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.LastDateGroupByFunctionFactory,
             io.questdb.griffin.engine.functions.groupby.LastTimestampGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.LastSymbolGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.LastStrGroupByFunctionFactory,
+//                  'first_not_null' group by function
+            io.questdb.griffin.engine.functions.groupby.FirstNotNullIntGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.FirstNotNullLongGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.FirstNotNullFloatGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.FirstNotNullDoubleGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.FirstNotNullDateGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.FirstNotNullTimestampGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.FirstNotNullSymbolGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.FirstNotNullStrGroupByFunctionFactory,
+//                  'last_not_null' group by function
+            io.questdb.griffin.engine.functions.groupby.LastNotNullIntGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.LastNotNullLongGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.LastNotNullFloatGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.LastNotNullDoubleGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.LastNotNullDateGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.LastNotNullTimestampGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.LastNotNullSymbolGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.LastNotNullStrGroupByFunctionFactory,
 //                  'max' group
             io.questdb.griffin.engine.functions.groupby.MaxDoubleGroupByFunctionFactory,
             io.questdb.griffin.engine.functions.groupby.MaxIntGroupByFunctionFactory,
@@ -412,6 +465,19 @@ open module io.questdb {
             io.questdb.griffin.engine.functions.groupby.MinDateGroupByFunctionFactory,
 //                  'count' group by function
             io.questdb.griffin.engine.functions.groupby.CountGroupByFunctionFactory,
+//                  'count_distinct' group by function
+            io.questdb.griffin.engine.functions.groupby.CountDistinctIntGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.CountDistinctLongGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.CountDistinctStrGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.CountDistinctSymbolGroupByFunctionFactory,
+//                  'approx_count_distinct' group by function
+            io.questdb.griffin.engine.functions.groupby.ApproxCountDistinctIntGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.ApproxCountDistinctLongGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.ApproxCountDistinctStrGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.ApproxCountDistinctSymbolGroupByFunctionFactory,
+//                  'approx_percentile' and 'approx_median' group by functions
+            io.questdb.griffin.engine.functions.groupby.ApproxMedianDoubleGroupByFunctionFactory,
+            io.questdb.griffin.engine.functions.groupby.ApproxPercentileDoubleGroupByFunctionFactory,
 //                  'isOrdered'
             io.questdb.griffin.engine.functions.groupby.IsLongOrderedGroupByFunctionFactory,
 //                  round()
@@ -119,6 +119,11 @@ public class PropServerConfigurationTest {
         Assert.assertTrue(configuration.getHttpServerConfiguration().isInterruptOnClosedConnection());
         Assert.assertEquals(2_000_000, configuration.getHttpServerConfiguration().getInterruptorNIterationsPerCheck());
         Assert.assertEquals(64, configuration.getHttpServerConfiguration().getInterruptorBufferSize());
+        Assert.assertEquals(0, configuration.getHttpServerConfiguration().getJsonQueryProcessorConfiguration().getHeavyQueryConcurrency());
+        Assert.assertEquals(100_000_000, configuration.getHttpServerConfiguration().getJsonQueryProcessorConfiguration().getHeavyQueryRowThreshold());
+        Assert.assertEquals(64, configuration.getHttpServerConfiguration().getJsonQueryProcessorConfiguration().getHeavyQueryQueueCapacity());
+        Assert.assertEquals(60_000, configuration.getHttpServerConfiguration().getJsonQueryProcessorConfiguration().getHeavyQueryQueueTimeout());
+        Assert.assertEquals(0, configuration.getHttpServerConfiguration().getJsonQueryProcessorConfiguration().getHeavyQueryTimeout());
 
         Assert.assertEquals(CommitMode.NOSYNC, configuration.getCairoConfiguration().getCommitMode());
         Assert.assertEquals(2097152, configuration.getCairoConfiguration().getSqlCopyBufferSize());
@@ -164,6 +169,25 @@ public class PropServerConfigurationTest {
         Assert.assertEquals(Integer.MAX_VALUE, configuration.getCairoConfiguration().getSqlSortValueMaxPages());
         Assert.assertEquals(10000, configuration.getCairoConfiguration().getWorkStealTimeoutNanos());
         Assert.assertTrue(configuration.getCairoConfiguration().isParallelIndexingEnabled());
+        Assert.assertFalse(configuration.getCairoConfiguration().isPartitionPrefetchEnabled());
+        Assert.assertEquals(1048576, configuration.getCairoConfiguration().getPartitionPrefetchBufferSize());
+        Assert.assertEquals(2, configuration.getCairoConfiguration().getPartitionPrefetchDepth());
+        Assert.assertEquals(0, configuration.getCairoConfiguration().getSqlQueryMemoryLimit());
+        Assert.assertEquals(10, configuration.getCairoConfiguration().getSqlHashJoinBloomFilterBitsPerKey());
+        Assert.assertTrue(configuration.getCairoConfiguration().isSqlParallelHashJoinEnabled());
+        Assert.assertTrue(configuration.getCairoConfiguration().isSqlMergeJoinEnabled());
+        Assert.assertNull(configuration.getCairoConfiguration().getColdStorageRoot());
+        Assert.assertEquals(30, configuration.getCairoConfiguration().getColdStoragePartitionAge());
+        Assert.assertEquals(60_000, configuration.getCairoConfiguration().getColdStorageCheckInterval());
+        Assert.assertEquals(60_000, configuration.getCairoConfiguration().getDedupWindow());
+        Assert.assertEquals(60_000, configuration.getCairoConfiguration().getPartitionTtlCheckInterval());
+        Assert.assertFalse(configuration.getCairoConfiguration().isSymbolRankEnabled());
+        Assert.assertFalse(configuration.getCairoConfiguration().isDeferredIndexingEnabled());
+        Assert.assertNull(configuration.getCairoConfiguration().getWarmUpTables());
+        Assert.assertEquals(0, configuration.getCairoConfiguration().getWarmUpPartitionCount());
+        Assert.assertNull(configuration.getCairoConfiguration().getWarmUpQueries());
+        Assert.assertEquals(0, configuration.getCairoConfiguration().getGroupCommitWindow());
+        Assert.assertEquals(1024, configuration.getCairoConfiguration().getGroupCommitQueueCapacity());
         Assert.assertEquals(16 * 1024, configuration.getCairoConfiguration().getSqlJoinMetadataPageSize());
         Assert.assertEquals(Integer.MAX_VALUE, configuration.getCairoConfiguration().getSqlJoinMetadataMaxResizes());
         Assert.assertEquals(64, configuration.getCairoConfiguration().getAnalyticColumnPoolCapacity());
@@ -186,6 +210,9 @@ public class PropServerConfigurationTest {
         Assert.assertTrue(configuration.getLineUdpReceiverConfiguration().isEnabled());
         Assert.assertEquals(-1, configuration.getLineUdpReceiverConfiguration().ownThreadAffinity());
         Assert.assertFalse(configuration.getLineUdpReceiverConfiguration().ownThread());
+        Assert.assertEquals(1, configuration.getLineUdpReceiverConfiguration().getReceiverCount());
+        Assert.assertEquals(1, configuration.getLineUdpReceiverConfiguration().getWriterCount());
+        Assert.assertEquals(1024, configuration.getLineUdpReceiverConfiguration().getWriterQueueCapacity());
 
         // statics
         Assert.assertSame(FilesFacadeImpl.INSTANCE, configuration.getHttpServerConfiguration().getStaticContentProcessorConfiguration().getFilesFacade());
@@ -343,6 +370,11 @@ public class PropServerConfigurationTest {
             Assert.assertFalse(configuration.getHttpServerConfiguration().isInterruptOnClosedConnection());
             Assert.assertEquals(500, configuration.getHttpServerConfiguration().getInterruptorNIterationsPerCheck());
             Assert.assertEquals(32, configuration.getHttpServerConfiguration().getInterruptorBufferSize());
+            Assert.assertEquals(2, configuration.getHttpServerConfiguration().getJsonQueryProcessorConfiguration().getHeavyQueryConcurrency());
+            Assert.assertEquals(1_000_000, configuration.getHttpServerConfiguration().getJsonQueryProcessorConfiguration().getHeavyQueryRowThreshold());
+            Assert.assertEquals(16, configuration.getHttpServerConfiguration().getJsonQueryProcessorConfiguration().getHeavyQueryQueueCapacity());
+            Assert.assertEquals(5_000, configuration.getHttpServerConfiguration().getJsonQueryProcessorConfiguration().getHeavyQueryQueueTimeout());
+            Assert.assertEquals(600_000, configuration.getHttpServerConfiguration().getJsonQueryProcessorConfiguration().getHeavyQueryTimeout());
 
             Assert.assertEquals(new File(root, "public_ok").getAbsolutePath(),
                     configuration.getHttpServerConfiguration().getStaticContentProcessorConfiguration().getPublicDirectory());
@@ -423,6 +455,25 @@ public class PropServerConfigurationTest {
             Assert.assertEquals(1028, configuration.getCairoConfiguration().getSqlSortValueMaxPages());
             Assert.assertEquals(1000000, configuration.getCairoConfiguration().getWorkStealTimeoutNanos());
             Assert.assertFalse(configuration.getCairoConfiguration().isParallelIndexingEnabled());
+            Assert.assertTrue(configuration.getCairoConfiguration().isPartitionPrefetchEnabled());
+            Assert.assertEquals(4194304, configuration.getCairoConfiguration().getPartitionPrefetchBufferSize());
+            Assert.assertEquals(4, configuration.getCairoConfiguration().getPartitionPrefetchDepth());
+            Assert.assertEquals(1073741824, configuration.getCairoConfiguration().getSqlQueryMemoryLimit());
+            Assert.assertEquals(8, configuration.getCairoConfiguration().getSqlHashJoinBloomFilterBitsPerKey());
+            Assert.assertFalse(configuration.getCairoConfiguration().isSqlParallelHashJoinEnabled());
+            Assert.assertFalse(configuration.getCairoConfiguration().isSqlMergeJoinEnabled());
+            TestUtils.assertEquals("/tmp/cold", configuration.getCairoConfiguration().getColdStorageRoot());
+            Assert.assertEquals(7, configuration.getCairoConfiguration().getColdStoragePartitionAge());
+            Assert.assertEquals(1000, configuration.getCairoConfiguration().getColdStorageCheckInterval());
+            Assert.assertEquals(30_000, configuration.getCairoConfiguration().getDedupWindow());
+            Assert.assertEquals(10_000, configuration.getCairoConfiguration().getPartitionTtlCheckInterval());
+            Assert.assertTrue(configuration.getCairoConfiguration().isSymbolRankEnabled());
+            Assert.assertTrue(configuration.getCairoConfiguration().isDeferredIndexingEnabled());
+            TestUtils.assertEquals("trades*,quotes", configuration.getCairoConfiguration().getWarmUpTables());
+            Assert.assertEquals(2, configuration.getCairoConfiguration().getWarmUpPartitionCount());
+            TestUtils.assertEquals("select * from trades latest by sym;quotes where bid > 0", configuration.getCairoConfiguration().getWarmUpQueries());
+            Assert.assertEquals(500, configuration.getCairoConfiguration().getGroupCommitWindow());
+            Assert.assertEquals(2048, configuration.getCairoConfiguration().getGroupCommitQueueCapacity());
             Assert.assertEquals(8 * 1024, configuration.getCairoConfiguration().getSqlJoinMetadataPageSize());
             Assert.assertEquals(10_000, configuration.getCairoConfiguration().getSqlJoinMetadataMaxResizes());
 
@@ -443,6 +494,9 @@ public class PropServerConfigurationTest {
             Assert.assertFalse(configuration.getLineUdpReceiverConfiguration().isEnabled());
             Assert.assertEquals(2, configuration.getLineUdpReceiverConfiguration().ownThreadAffinity());
             Assert.assertTrue(configuration.getLineUdpReceiverConfiguration().ownThread());
+            Assert.assertEquals(4, configuration.getLineUdpReceiverConfiguration().getReceiverCount());
+            Assert.assertEquals(2, configuration.getLineUdpReceiverConfiguration().getWriterCount());
+            Assert.assertEquals(512, configuration.getLineUdpReceiverConfiguration().getWriterQueueCapacity());
 
             Assert.assertTrue(configuration.getTelemetryConfiguration().getEnabled());
             Assert.assertEquals(512, configuration.getTelemetryConfiguration().getQueueCapacity());
@@ -0,0 +1,204 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.std.Files;
+import io.questdb.std.Rnd;
+import io.questdb.std.microtime.TimestampFormatUtils;
+import io.questdb.std.str.Path;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ColdStorageJobTest extends AbstractCairoTest {
+    private static final long DAY = 24 * 3600 * 1000000L;
+    private CharSequence coldRoot;
+    private CairoConfiguration coldConfiguration;
+
+    @Before
+    public void setUp1() throws Exception {
+        coldRoot = temp.newFolder().getAbsolutePath();
+        coldConfiguration = new DefaultCairoConfiguration(root) {
+            @Override
+            public CharSequence getColdStorageRoot() {
+                return coldRoot;
+            }
+
+            @Override
+            public long getColdStorageCheckInterval() {
+                return 0;
+            }
+        };
+    }
+
+    @Test
+    public void testMovePartitions() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            createTable();
+            final String expected = printTable();
+
+            try (
+                    CairoEngine engine = new CairoEngine(coldConfiguration);
+                    ColdStorageJob job = new ColdStorageJob(engine)
+            ) {
+                try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, "x")) {
+                    assertThat(expected, reader.getCursor(), reader.getMetadata(), true);
+                }
+
+                Assert.assertTrue(job.run(0));
+
+                assertPartition(false, root, "2020-01-01");
+                assertPartition(true, coldRoot, "2020-01-01");
+                assertPartition(false, root, "2020-01-09");
+                assertPartition(true, coldRoot, "2020-01-09");
+                // active partition stays
+                assertPartition(true, root, "2020-01-10");
+                assertPartition(false, coldRoot, "2020-01-10");
+
+                // pooled reader has partitions open, new reader opens them from cold storage
+                try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, "x")) {
+                    assertThat(expected, reader.getCursor(), reader.getMetadata(), true);
+                }
+                try (TableReader reader = new TableReader(coldConfiguration, "x")) {
+                    assertThat(expected, reader.getCursor(), reader.getMetadata(), true);
+                }
+
+                Assert.assertFalse(job.run(0));
+            }
+
+            // writer open repairs data gaps, cold partitions must be accounted for
+            try (TableWriter writer = new TableWriter(coldConfiguration, "x")) {
+                Assert.assertEquals(100, writer.size());
+                TableWriter.Row row = writer.newRow(TimestampFormatUtils.parseDateTime("2020-01-10T12:00:00.000Z"));
+                row.putInt(0, 1000);
+                row.append();
+                writer.commit();
+                Assert.assertEquals(101, writer.size());
+            }
+
+            try (TableReader reader = new TableReader(coldConfiguration, "x")) {
+                Assert.assertEquals(101, reader.size());
+            }
+        });
+    }
+
+    @Test
+    public void testWriterOperationsOnColdPartitions() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            createTable();
+            try (
+                    CairoEngine engine = new CairoEngine(coldConfiguration);
+                    ColdStorageJob job = new ColdStorageJob(engine)
+            ) {
+                Assert.assertTrue(job.run(0));
+            }
+
+            try (TableWriter writer = new TableWriter(coldConfiguration, "x")) {
+                final long timestamp = writer.partitionNameToTimestamp("2020-01-02");
+
+                Assert.assertTrue(writer.detachPartition(timestamp));
+                Assert.assertEquals(90, writer.size());
+                assertPartition(false, coldRoot, "2020-01-02");
+                assertPartition(true, coldRoot, "2020-01-02" + TableUtils.DETACHED_DIR_SUFFIX);
+                Assert.assertFalse(writer.detachPartition(timestamp));
+
+                try (TableReader reader = new TableReader(coldConfiguration, "x")) {
+                    Assert.assertEquals(90, reader.size());
+                }
+
+                Assert.assertTrue(writer.attachPartition(timestamp));
+                Assert.assertEquals(100, writer.size());
+                assertPartition(true, coldRoot, "2020-01-02");
+                Assert.assertFalse(writer.attachPartition(timestamp));
+
+                writer.addIndex("sym", 256);
+                assertFile(true, coldRoot, "2020-01-02", "sym.k");
+
+                writer.removeColumn("s");
+                assertFile(false, coldRoot, "2020-01-02", "s.d");
+
+                Assert.assertTrue(writer.removePartition(writer.partitionNameToTimestamp("2020-01-03")));
+                assertPartition(false, coldRoot, "2020-01-03");
+                Assert.assertEquals(90, writer.size());
+            }
+
+            try (TableReader reader = new TableReader(coldConfiguration, "x")) {
+                Assert.assertEquals(90, reader.size());
+                long count = 0;
+                final RecordCursor cursor = reader.getCursor();
+                while (cursor.hasNext()) {
+                    count++;
+                }
+                Assert.assertEquals(90, count);
+            }
+        });
+    }
+
+    private void assertFile(boolean expected, CharSequence root, String partitionName, String fileName) {
+        try (Path path = new Path().of(root).concat("x").concat(partitionName).concat(fileName).$()) {
+            Assert.assertEquals(path.toString(), expected, Files.exists(path));
+        }
+    }
+
+    private void assertPartition(boolean expected, CharSequence root, String partitionName) {
+        try (Path path = new Path().of(root).concat("x").concat(partitionName).$()) {
+            Assert.assertEquals(path.toString(), expected, Files.exists(path));
+        }
+    }
+
+    private void createTable() throws Exception {
+        try (TableModel model = new TableModel(configuration, "x", PartitionBy.DAY)
+                .col("i", ColumnType.INT)
+                .col("s", ColumnType.STRING)
+                .col("sym", ColumnType.SYMBOL)
+                .timestamp()) {
+            CairoTestUtils.create(model);
+        }
+
+        final Rnd rnd = new Rnd();
+        long ts = TimestampFormatUtils.parseDateTime("2020-01-01T00:00:00.000Z");
+        try (TableWriter writer = new TableWriter(configuration, "x")) {
+            for (int i = 0; i < 100; i++) {
+                TableWriter.Row row = writer.newRow(ts + (i / 10) * DAY + (i % 10) * 1000000L);
+                row.putInt(0, rnd.nextInt());
+                row.putStr(1, rnd.nextChars(5));
+                row.putSym(2, rnd.nextString(2));
+                row.append();
+            }
+            writer.commit();
+        }
+    }
+
+    private String printTable() {
+        try (TableReader reader = new TableReader(configuration, "x")) {
+            sink.clear();
+            printer.print(reader.getCursor(), reader.getMetadata(), true);
+            return sink.toString();
+        }
+    }
+}
@@ -24,53 +24,29 @@
 
 package io.questdb.cairo;
 
+import io.questdb.MessageBus;
+import io.questdb.MessageBusImpl;
 import io.questdb.cairo.security.AllowAllCairoSecurityContext;
 import io.questdb.cairo.sql.DataFrame;
 import io.questdb.cairo.sql.DataFrameCursor;
 import io.questdb.cairo.sql.ReaderOutOfDateException;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.FilesFacadeImpl;
+import io.questdb.std.LongHashSet;
 import io.questdb.std.Rnd;
+import io.questdb.std.str.LPSZ;
 import io.questdb.test.tools.TestUtils;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class FullFwdDataFrameCursorFactoryTest extends AbstractCairoTest {
     @Test
     public void testFactory() throws Exception {
         TestUtils.assertMemoryLeak(() -> {
-            final int N = 100;
-            // separate two symbol columns with primitive. It will make problems apparent if index does not shift correctly
-            try (TableModel model = new TableModel(configuration, "x", PartitionBy.DAY).
-                    col("a", ColumnType.STRING).
-                    col("b", ColumnType.SYMBOL).indexed(true, N / 4).
-                    col("i", ColumnType.INT).
-                    col("c", ColumnType.SYMBOL).indexed(true, N / 4).
-                    timestamp()
-            ) {
-                CairoTestUtils.create(model);
-            }
-
-            final Rnd rnd = new Rnd();
-            final String[] symbols = new String[N];
             final int M = 1000;
-            final long increment = 1000000 * 60L * 10;
-
-            for (int i = 0; i < N; i++) {
-                symbols[i] = rnd.nextChars(8).toString();
-            }
-
-            // prepare the data
-            long timestamp = 0;
-            try (TableWriter writer = new TableWriter(configuration, "x")) {
-                for (int i = 0; i < M; i++) {
-                    TableWriter.Row row = writer.newRow(timestamp += increment);
-                    row.putStr(0, rnd.nextChars(20));
-                    row.putSym(1, symbols[rnd.nextPositiveInt() % N]);
-                    row.putInt(2, rnd.nextInt());
-                    row.putSym(3, symbols[rnd.nextPositiveInt() % N]);
-                    row.append();
-                }
-                writer.commit();
-            }
+            createTable(M);
 
             try (CairoEngine engine = new CairoEngine(configuration, null)) {
                 FullFwdDataFrameCursorFactory factory = new FullFwdDataFrameCursorFactory(engine, "x", 0);
@@ -96,4 +72,207 @@ public class FullFwdDataFrameCursorFactoryTest extends AbstractCairoTest {
             }
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFactoryPrefetch() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            final int M = 1000;
+            createTable(M);
+
+            final AtomicInteger readCount = new AtomicInteger();
+            final FilesFacade ff = new FilesFacadeImpl() {
+                @Override
+                public long read(long fd, long buf, long len, long offset) {
+                    // reader itself reads 8-byte partition sizes, anything larger is read-ahead
+                    if (len > Long.BYTES) {
+                        readCount.incrementAndGet();
+                    }
+                    return super.read(fd, buf, len, offset);
+                }
+            };
+
+            final CairoConfiguration configuration = new DefaultCairoConfiguration(root) {
+                @Override
+                public FilesFacade getFilesFacade() {
+                    return ff;
+                }
+
+                @Override
+                public boolean isPartitionPrefetchEnabled() {
+                    return true;
+                }
+            };
+
+            final MessageBus messageBus = new MessageBusImpl(serverConfiguration);
+            try (
+                    CairoEngine engine = new CairoEngine(configuration, messageBus);
+                    ColumnPrefetchJob job = new ColumnPrefetchJob(configuration, messageBus)
+            ) {
+                FullFwdDataFrameCursorFactory factory = new FullFwdDataFrameCursorFactory(engine, "x", 0);
+                long count = 0;
+                try (DataFrameCursor cursor = factory.getCursor(AllowAllCairoSecurityContext.INSTANCE)) {
+                    Assert.assertTrue(cursor.getTableReader().getPartitionCount() > 1);
+                    DataFrame frame;
+                    while ((frame = cursor.next()) != null) {
+                        count += frame.getRowHi() - frame.getRowLo();
+                        // read ahead partition before cursor moves to it
+                        //noinspection StatementWithEmptyBody
+                        while (job.run(0)) {
+                        }
+                    }
+                }
+                Assert.assertEquals(M, count);
+                Assert.assertTrue(readCount.get() > 0);
+            }
+        });
+    }
+
+    @Test
+    public void testFactoryPrefetchDepth() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            final int M = 1000;
+            createTable(M);
+
+            final AtomicInteger readCount = new AtomicInteger();
+            final FilesFacade ff = new FilesFacadeImpl() {
+                @Override
+                public long read(long fd, long buf, long len, long offset) {
+                    if (len > Long.BYTES) {
+                        readCount.incrementAndGet();
+                    }
+                    return super.read(fd, buf, len, offset);
+                }
+            };
+
+            final CairoConfiguration configuration = new DefaultCairoConfiguration(root) {
+                @Override
+                public FilesFacade getFilesFacade() {
+                    return ff;
+                }
+
+                @Override
+                public int getPartitionPrefetchDepth() {
+                    return 100;
+                }
+
+                @Override
+                public boolean isPartitionPrefetchEnabled() {
+                    return true;
+                }
+            };
+
+            final MessageBus messageBus = new MessageBusImpl(serverConfiguration);
+            try (
+                    CairoEngine engine = new CairoEngine(configuration, messageBus);
+                    ColumnPrefetchJob job = new ColumnPrefetchJob(configuration, messageBus)
+            ) {
+                FullFwdDataFrameCursorFactory factory = new FullFwdDataFrameCursorFactory(engine, "x", 0);
+                try (DataFrameCursor cursor = factory.getCursor(AllowAllCairoSecurityContext.INSTANCE)) {
+                    Assert.assertTrue(cursor.getTableReader().getPartitionCount() > 2);
+                    Assert.assertNotNull(cursor.next());
+                    //noinspection StatementWithEmptyBody
+                    while (job.run(0)) {
+                    }
+                    // all remaining partitions are in flight after first frame
+                    final int expected = readCount.get();
+                    Assert.assertTrue(expected > 0);
+                    while (cursor.next() != null) {
+                        Assert.assertFalse(job.run(0));
+                    }
+                    Assert.assertEquals(expected, readCount.get());
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testPrefetchAfterReaderClosed() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            final int M = 1000;
+            createTable(M);
+
+            final LongHashSet prefetchFds = new LongHashSet();
+            final AtomicInteger readCount = new AtomicInteger();
+            final FilesFacade ff = new FilesFacadeImpl() {
+                @Override
+                public long openRO(LPSZ name) {
+                    final long fd = super.openRO(name);
+                    if (Thread.currentThread().getName().equals("prefetch")) {
+                        prefetchFds.add(fd);
+                    }
+                    return fd;
+                }
+
+                @Override
+                public long read(long fd, long buf, long len, long offset) {
+                    if (len > Long.BYTES) {
+                        // descriptors of closed reader must not be read
+                        Assert.assertFalse(prefetchFds.excludes(fd));
+                        readCount.incrementAndGet();
+                    }
+                    return super.read(fd, buf, len, offset);
+                }
+            };
+
+            final CairoConfiguration configuration = new DefaultCairoConfiguration(root) {
+                @Override
+                public FilesFacade getFilesFacade() {
+                    return ff;
+                }
+            };
+
+            final MessageBus messageBus = new MessageBusImpl(serverConfiguration);
+            try (ColumnPrefetchJob job = new ColumnPrefetchJob(configuration, messageBus)) {
+                try (TableReader reader = new TableReader(configuration, "x")) {
+                    Assert.assertTrue(reader.getPartitionCount() > 1);
+                    reader.prefetchPartition(1, null, messageBus);
+                }
+
+                final Thread thread = new Thread(() -> {
+                    //noinspection StatementWithEmptyBody
+                    while (job.run(0)) {
+                    }
+                }, "prefetch");
+                thread.start();
+                thread.join();
+                Assert.assertTrue(readCount.get() > 0);
+            }
+        });
+    }
+
+    private void createTable(int M) {
+        final int N = 100;
+        // separate two symbol columns with primitive. It will make problems apparent if index does not shift correctly
+        try (TableModel model = new TableModel(configuration, "x", PartitionBy.DAY).
+                col("a", ColumnType.STRING).
+                col("b", ColumnType.SYMBOL).indexed(true, N / 4).
+                col("i", ColumnType.INT).
+                col("c", ColumnType.SYMBOL).indexed(true, N / 4).
+                timestamp()
+        ) {
+            CairoTestUtils.create(model);
+        }
+
+        final Rnd rnd = new Rnd();
+        final String[] symbols = new String[N];
+        final long increment = 1000000 * 60L * 10;
+
+        for (int i = 0; i < N; i++) {
+            symbols[i] = rnd.nextChars(8).toString();
+        }
+
+        // prepare the data
+        long timestamp = 0;
+        try (TableWriter writer = new TableWriter(configuration, "x")) {
+            for (int i = 0; i < M; i++) {
+                TableWriter.Row row = writer.newRow(timestamp += increment);
+                row.putStr(0, rnd.nextChars(20));
+                row.putSym(1, symbols[rnd.nextPositiveInt() % N]);
+                row.putInt(2, rnd.nextInt());
+                row.putSym(3, symbols[rnd.nextPositiveInt() % N]);
+                row.append();
+            }
+            writer.commit();
+        }
+    }
+}
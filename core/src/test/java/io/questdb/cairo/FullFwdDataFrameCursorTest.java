@@ -36,6 +36,9 @@ import io.questdb.std.microtime.Timestamps;
 import io.questdb.std.str.LPSZ;
 import io.questdb.std.str.StringSink;
 import io.questdb.tasks.ColumnIndexerTask;
+import io.questdb.tasks.ColumnPrefetchTask;
+import io.questdb.tasks.GroupCommitTask;
+import io.questdb.tasks.HashJoinTask;
 import io.questdb.tasks.TelemetryTask;
 import io.questdb.tasks.VectorAggregateTask;
 import io.questdb.test.tools.TestUtils;
@@ -2469,6 +2472,51 @@ public class FullFwdDataFrameCursorTest extends AbstractCairoTest {
             return subSeq;
         }
 
+        @Override
+        public RingQueue<GroupCommitTask> getGroupCommitQueue() {
+            return null;
+        }
+
+        @Override
+        public Sequence getGroupCommitPubSequence() {
+            return null;
+        }
+
+        @Override
+        public Sequence getGroupCommitSubSequence() {
+            return null;
+        }
+
+        @Override
+        public RingQueue<ColumnPrefetchTask> getColumnPrefetchQueue() {
+            return null;
+        }
+
+        @Override
+        public Sequence getColumnPrefetchPubSequence() {
+            return null;
+        }
+
+        @Override
+        public Sequence getColumnPrefetchSubSequence() {
+            return null;
+        }
+
+        @Override
+        public RingQueue<HashJoinTask> getHashJoinQueue() {
+            return null;
+        }
+
+        @Override
+        public Sequence getHashJoinPubSequence() {
+            return null;
+        }
+
+        @Override
+        public Sequence getHashJoinSubSequence() {
+            return null;
+        }
+
         @Override
         public RingQueue<VectorAggregateTask> getVectorAggregateQueue() {
             return null;
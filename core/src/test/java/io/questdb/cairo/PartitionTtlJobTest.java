@@ -0,0 +1,187 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.pool.PoolListener;
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import io.questdb.std.Files;
+import io.questdb.std.microtime.TimestampFormatUtils;
+import io.questdb.std.str.Path;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PartitionTtlJobTest extends AbstractCairoTest {
+    private static final long DAY = 24 * 3600 * 1000000L;
+
+    @Test
+    public void testBusyWriter() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            createTable(3 * 24);
+            try (
+                    CairoEngine engine = new CairoEngine(configuration);
+                    PartitionTtlJob job = new PartitionTtlJob(engine)
+            ) {
+                Assert.assertTrue(engine.lockWriter("x"));
+                try {
+                    Assert.assertEquals(0, job.removeExpiredPartitions());
+                    assertPartition(true, "2020-01-01");
+                } finally {
+                    engine.unlockWriter("x");
+                }
+                Assert.assertEquals(6, job.removeExpiredPartitions());
+                assertPartition(false, "2020-01-01");
+            }
+        });
+    }
+
+    @Test
+    public void testNoTtl() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            createTable(0);
+            try (
+                    CairoEngine engine = new CairoEngine(configuration);
+                    PartitionTtlJob job = new PartitionTtlJob(engine)
+            ) {
+                final int[] readerCount = {0};
+                engine.setPoolListener((factoryType, thread, name, event, segment, position) -> {
+                    if (factoryType == PoolListener.SRC_READER && (event == PoolListener.EV_CREATE || event == PoolListener.EV_GET)) {
+                        readerCount[0]++;
+                    }
+                });
+                Assert.assertFalse(job.run(0));
+                // table without TTL is skipped on metadata alone
+                Assert.assertEquals(0, readerCount[0]);
+                Assert.assertEquals(0, engine.getBusyWriterCount());
+                engine.setPoolListener(null);
+                try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, "x")) {
+                    Assert.assertEquals(100, reader.size());
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testRemoveExpiredPartitions() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            createTable(3 * 24);
+            try (
+                    CairoEngine engine = new CairoEngine(configuration);
+                    PartitionTtlJob job = new PartitionTtlJob(engine)
+            ) {
+                Assert.assertTrue(job.run(0));
+
+                // 2020-01-07 ends less than 3 days before max timestamp
+                assertPartition(false, "2020-01-06");
+                assertPartition(true, "2020-01-07");
+                try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, "x")) {
+                    Assert.assertEquals(40, reader.size());
+                    Assert.assertEquals(TimestampFormatUtils.parseDateTime("2020-01-07T00:00:00.000Z"), reader.getMinTimestamp());
+                }
+
+                Assert.assertEquals(0, job.removeExpiredPartitions());
+
+                // new data moves TTL horizon
+                try (TableWriter writer = engine.getWriter(AllowAllCairoSecurityContext.INSTANCE, "x")) {
+                    TableWriter.Row row = writer.newRow(TimestampFormatUtils.parseDateTime("2020-01-12T00:00:00.000Z"));
+                    row.putInt(0, 1);
+                    row.append();
+                    writer.commit();
+                }
+                Assert.assertEquals(2, job.removeExpiredPartitions());
+                assertPartition(false, "2020-01-08");
+                assertPartition(true, "2020-01-09");
+            }
+        });
+    }
+
+    @Test
+    public void testSetTtl() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            createTable(0);
+            try (
+                    CairoEngine engine = new CairoEngine(configuration);
+                    PartitionTtlJob job = new PartitionTtlJob(engine)
+            ) {
+                try (TableWriter writer = engine.getWriter(AllowAllCairoSecurityContext.INSTANCE, "x")) {
+                    writer.setTtlHours(24);
+                    Assert.assertEquals(24, writer.getTtlHours());
+                    // TTL survives other metadata changes
+                    writer.addColumn("z", ColumnType.LONG);
+                    Assert.assertEquals(24, writer.getTtlHours());
+                }
+
+                Assert.assertEquals(8, job.removeExpiredPartitions());
+                assertPartition(false, "2020-01-08");
+                assertPartition(true, "2020-01-09");
+
+                try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, "x")) {
+                    Assert.assertEquals(24, reader.getTtlHours());
+                    Assert.assertEquals(20, reader.size());
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testTtlNotPartitioned() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            try (TableModel model = new TableModel(configuration, "y", PartitionBy.NONE).col("i", ColumnType.INT).timestamp()) {
+                CairoTestUtils.create(model);
+            }
+            try (TableWriter writer = new TableWriter(configuration, "y")) {
+                writer.setTtlHours(24);
+                Assert.fail();
+            } catch (CairoException e) {
+                TestUtils.assertContains(e.getFlyweightMessage(), "TTL requires partitioned table");
+            }
+        });
+    }
+
+    private void assertPartition(boolean expected, String partitionName) {
+        try (Path path = new Path().of(root).concat("x").concat(partitionName).$()) {
+            Assert.assertEquals(path.toString(), expected, Files.exists(path));
+        }
+    }
+
+    private void createTable(int ttlHours) throws Exception {
+        try (TableModel model = new TableModel(configuration, "x", PartitionBy.DAY)
+                .col("i", ColumnType.INT)
+                .timestamp()
+                .ttlHours(ttlHours)) {
+            CairoTestUtils.create(model);
+        }
+
+        final long ts = TimestampFormatUtils.parseDateTime("2020-01-01T00:00:00.000Z");
+        try (TableWriter writer = new TableWriter(configuration, "x")) {
+            for (int i = 0; i < 100; i++) {
+                TableWriter.Row row = writer.newRow(ts + (i / 10) * DAY + (i % 10) * 1000000L);
+                row.putInt(0, i);
+                row.append();
+            }
+            writer.commit();
+        }
+    }
+}
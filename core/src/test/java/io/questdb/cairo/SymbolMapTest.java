@@ -26,14 +26,29 @@ package io.questdb.cairo;
 
 import io.questdb.cairo.sql.SymbolTable;
 import io.questdb.std.Chars;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.FilesFacadeImpl;
 import io.questdb.std.ObjList;
 import io.questdb.std.Rnd;
+import io.questdb.std.str.LPSZ;
 import io.questdb.std.str.Path;
 import io.questdb.test.tools.TestUtils;
 import org.junit.Assert;
+import org.junit.BeforeClass;
 import org.junit.Test;
 
 public class SymbolMapTest extends AbstractCairoTest {
+    private static CairoConfiguration rankConfiguration;
+
+    @BeforeClass
+    public static void setUp1() {
+        rankConfiguration = new DefaultCairoConfiguration(root) {
+            @Override
+            public boolean isSymbolRankEnabled() {
+                return true;
+            }
+        };
+    }
 
     public static void create(Path path, CharSequence name, int symbolCapacity, boolean useCache) {
         int plen = path.length();
@@ -164,6 +179,133 @@ public class SymbolMapTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testRanks() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            int N = 500;
+            try (Path path = new Path().of(configuration.getRoot())) {
+                create(path, "x", 3 * N, false);
+                Rnd rnd = new Rnd();
+                ObjList<String> values = new ObjList<>();
+                try (SymbolMapWriter writer = new SymbolMapWriter(rankConfiguration, path, "x", 0)) {
+                    appendSymbols(writer, rnd, values, N);
+                    writer.commitRanks();
+                    assertRanks(path, values, values.size());
+
+                    try (SymbolMapReaderImpl reader = new SymbolMapReaderImpl(rankConfiguration, path, "x", N)) {
+                        appendSymbols(writer, rnd, values, N);
+                        writer.commitRanks();
+                        // reader picks up new rank file when symbol count changes
+                        reader.updateSymbolCount(2 * N);
+                        assertRanks(reader, values, 2 * N);
+                    }
+                    // rank file covers symbols reader does not see yet
+                    assertRanks(path, values, N);
+                }
+
+                // writer continues from existing rank file
+                try (SymbolMapWriter writer = new SymbolMapWriter(rankConfiguration, path, "x", 2 * N)) {
+                    appendSymbols(writer, rnd, values, N);
+                    writer.commitRanks();
+                    assertRanks(path, values, values.size());
+                }
+
+                // ranks are removed when writer does not maintain them
+                new SymbolMapWriter(configuration, path, "x", 3 * N).close();
+                try (SymbolMapReaderImpl reader = new SymbolMapReaderImpl(rankConfiguration, path, "x", 3 * N)) {
+                    Assert.assertFalse(reader.hasRanks());
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testRanksAppend() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            final int[] renameCount = {0};
+            final FilesFacade ff = new FilesFacadeImpl() {
+                @Override
+                public boolean rename(LPSZ from, LPSZ to) {
+                    renameCount[0]++;
+                    return super.rename(from, to);
+                }
+            };
+            final CairoConfiguration configuration = new DefaultCairoConfiguration(root) {
+                @Override
+                public FilesFacade getFilesFacade() {
+                    return ff;
+                }
+
+                @Override
+                public boolean isSymbolRankEnabled() {
+                    return true;
+                }
+            };
+            try (Path path = new Path().of(configuration.getRoot())) {
+                create(path, "x", 16, false);
+                ObjList<String> values = new ObjList<>();
+                try (SymbolMapWriter writer = new SymbolMapWriter(configuration, path, "x", 0)) {
+                    putSymbols(writer, values, "d", "b");
+                    writer.commitRanks();
+                    assertRanks(path, values, 2);
+                    Assert.assertEquals(1, renameCount[0]);
+
+                    // symbols sorting after existing ones are appended to rank file in place
+                    try (SymbolMapReaderImpl reader = new SymbolMapReaderImpl(configuration, path, "x", 2)) {
+                        putSymbols(writer, values, "f", "e");
+                        writer.commitRanks();
+                        reader.updateSymbolCount(4);
+                        assertRanks(reader, values, 4);
+                    }
+                    Assert.assertEquals(1, renameCount[0]);
+
+                    // symbol between existing ones changes their ranks, rank file is rewritten
+                    putSymbols(writer, values, "c");
+                    writer.commitRanks();
+                    assertRanks(path, values, 5);
+                    Assert.assertEquals(2, renameCount[0]);
+                }
+
+                // writer continues appending to existing rank file
+                try (SymbolMapWriter writer = new SymbolMapWriter(configuration, path, "x", 5)) {
+                    putSymbols(writer, values, "g");
+                    writer.commitRanks();
+                    assertRanks(path, values, 6);
+                    Assert.assertEquals(2, renameCount[0]);
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testRanksRollback() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            int N = 200;
+            try (Path path = new Path().of(configuration.getRoot())) {
+                create(path, "x", 2 * N, true);
+                Rnd rnd = new Rnd();
+                ObjList<String> values = new ObjList<>();
+                try (SymbolMapWriter writer = new SymbolMapWriter(rankConfiguration, path, "x", 0)) {
+                    appendSymbols(writer, rnd, values, N);
+                    writer.commitRanks();
+                    assertRanks(path, values, N);
+
+                    // keys above N / 2 will be reused for other values
+                    writer.rollback(N / 2);
+                    values.setPos(N / 2);
+                    try (SymbolMapReaderImpl reader = new SymbolMapReaderImpl(rankConfiguration, path, "x", N / 2)) {
+                        Assert.assertFalse(reader.hasRanks());
+                        Assert.assertNull(reader.valueOf(N / 2));
+                    }
+
+                    appendSymbols(writer, rnd, values, N);
+                    writer.commitRanks();
+                    assertRanks(path, values, values.size());
+                }
+            }
+        });
+    }
+
     @Test
     public void testReadEmptySymbolMap() throws Exception {
         TestUtils.assertMemoryLeak(() -> {
@@ -352,4 +494,55 @@ public class SymbolMapTest extends AbstractCairoTest {
             }
         });
     }
-}
\ No newline at end of file
+
+    private static void appendSymbols(SymbolMapWriter writer, Rnd rnd, ObjList<String> values, int count) {
+        final int symbolCount = values.size() + count;
+        while (values.size() < symbolCount) {
+            String value = rnd.nextChars(rnd.nextPositiveInt() % 5 + 1).toString();
+            if (writer.put(value) == values.size()) {
+                values.add(value);
+            }
+        }
+    }
+
+    private static void putSymbols(SymbolMapWriter writer, ObjList<String> values, String... symbols) {
+        for (String symbol : symbols) {
+            Assert.assertEquals(values.size(), writer.put(symbol));
+            values.add(symbol);
+        }
+    }
+
+    private static void assertRanks(Path path, ObjList<String> values, int symbolCount) {
+        try (SymbolMapReaderImpl reader = new SymbolMapReaderImpl(rankConfiguration, path, "x", symbolCount)) {
+            assertRanks(reader, values, symbolCount);
+        }
+    }
+
+    private static void assertRanks(SymbolMapReaderImpl reader, ObjList<String> values, int symbolCount) {
+        Assert.assertTrue(reader.hasRanks());
+        Assert.assertEquals(-1, reader.rankOf(SymbolTable.VALUE_IS_NULL));
+
+        // order keys by rank, values have to come out sorted
+        final ObjList<String> sorted = new ObjList<>();
+        for (int key = 0; key < symbolCount; key++) {
+            final int rank = reader.rankOf(key);
+            Assert.assertTrue(rank > -1);
+            sorted.extendAndSet(rank, values.getQuick(key));
+        }
+        String prev = null;
+        for (int i = 0, n = sorted.size(); i < n; i++) {
+            final String value = sorted.getQuick(i);
+            if (value == null) {
+                // rank of symbol reader does not see
+                continue;
+            }
+            if (prev != null) {
+                Assert.assertTrue(Chars.compare(prev, value) < 0);
+            }
+            Assert.assertEquals(i, reader.rankBound(value, false));
+            Assert.assertEquals(i + 1, reader.rankBound(value, true));
+            prev = value;
+        }
+        Assert.assertEquals(0, reader.rankBound("", true));
+    }
+}
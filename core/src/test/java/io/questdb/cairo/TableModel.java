@@ -32,6 +32,7 @@ import java.io.Closeable;
 public class TableModel implements TableStructure, Closeable {
     private static final long COLUMN_FLAG_CACHED = 1L;
     private static final long COLUMN_FLAG_INDEXED = 2L;
+    private static final long COLUMN_FLAG_DEDUP_KEY = 4L;
     private final String name;
     private final int partitionBy;
     private final AppendMemory mem = new AppendMemory();
@@ -40,6 +41,7 @@ public class TableModel implements TableStructure, Closeable {
     private final Path path = new Path();
     private final CairoConfiguration cairoCfg;
     private int timestampIndex = -1;
+    private int ttlHours = 0;
 
     public TableModel(CairoConfiguration cairoCfg, String name, int partitionBy) {
         this.cairoCfg = cairoCfg;
@@ -74,11 +76,23 @@ public class TableModel implements TableStructure, Closeable {
         return this;
     }
 
+    public TableModel dedupKey() {
+        int pos = columnBits.size() - 1;
+        assert pos > 0;
+        columnBits.setQuick(pos, columnBits.getQuick(pos) | COLUMN_FLAG_DEDUP_KEY);
+        return this;
+    }
+
     @Override
     public boolean isSequential(int columnIndex) {
         return false;
     }
 
+    @Override
+    public boolean isDedupKey(int columnIndex) {
+        return (columnBits.getQuick(columnIndex * 2 + 1) & COLUMN_FLAG_DEDUP_KEY) == COLUMN_FLAG_DEDUP_KEY;
+    }
+
     public boolean getSymbolCacheFlag(int index) {
         return (columnBits.getQuick(index * 2 + 1) & COLUMN_FLAG_CACHED) == COLUMN_FLAG_CACHED;
     }
@@ -119,6 +133,11 @@ public class TableModel implements TableStructure, Closeable {
         return partitionBy;
     }
 
+    @Override
+    public int getTtlHours() {
+        return ttlHours;
+    }
+
     public Path getPath() {
         return path;
     }
@@ -159,6 +178,11 @@ public class TableModel implements TableStructure, Closeable {
         return this;
     }
 
+    public TableModel ttlHours(int ttlHours) {
+        this.ttlHours = ttlHours;
+        return this;
+    }
+
     public TableModel timestamp() {
         return timestamp("timestamp");
     }
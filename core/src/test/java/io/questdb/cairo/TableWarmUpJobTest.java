@@ -0,0 +1,175 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+package io.questdb.cairo;
+
+import io.questdb.cairo.pool.PoolListener;
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import io.questdb.std.Chars;
+import io.questdb.std.ObjList;
+import io.questdb.std.microtime.TimestampFormatUtils;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.regex.Pattern;
+
+public class TableWarmUpJobTest extends AbstractCairoTest {
+    private static final long DAY = 24 * 3600 * 1000000L;
+
+    @Test
+    public void testCompilePatterns() {
+        Assert.assertNull(TableWarmUpJob.compilePatterns(null));
+        Assert.assertNull(TableWarmUpJob.compilePatterns(" , "));
+
+        final Pattern pattern = TableWarmUpJob.compilePatterns("trades*, quotes,*.log,a*b*c");
+        Assert.assertNotNull(pattern);
+        Assert.assertTrue(pattern.matcher("trades").matches());
+        Assert.assertTrue(pattern.matcher("trades_eu").matches());
+        Assert.assertTrue(pattern.matcher("TRADES_US").matches());
+        Assert.assertTrue(pattern.matcher("quotes").matches());
+        Assert.assertTrue(pattern.matcher("server.log").matches());
+        Assert.assertTrue(pattern.matcher("abc").matches());
+        Assert.assertTrue(pattern.matcher("a1b2c").matches());
+        Assert.assertFalse(pattern.matcher("quotes_eu").matches());
+        Assert.assertFalse(pattern.matcher("my_trades").matches());
+        Assert.assertFalse(pattern.matcher("serverlog").matches());
+        Assert.assertFalse(pattern.matcher("abcd").matches());
+    }
+
+    @Test
+    public void testNothingToWarmUp() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            createTable("x");
+            try (CairoEngine engine = new CairoEngine(new DefaultCairoConfiguration(root) {
+                @Override
+                public CharSequence getWarmUpTables() {
+                    return "y*";
+                }
+            })) {
+                final TableWarmUpJob job = new TableWarmUpJob(engine);
+                Assert.assertEquals(0, job.getTableNames().size());
+                Assert.assertTrue(job.isDone());
+                Assert.assertFalse(job.run(0));
+            }
+        });
+    }
+
+    @Test
+    public void testTouchPartition() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            createTable("x");
+            try (TableReader reader = new TableReader(configuration, "x")) {
+                Assert.assertEquals(10, reader.getPartitionCount());
+                Assert.assertTrue(reader.touchPartition(9) > 0);
+                Assert.assertEquals(0, reader.touchPartition(-1));
+                Assert.assertEquals(0, reader.touchPartition(10));
+                Assert.assertEquals(100, reader.size());
+            }
+        });
+    }
+
+    @Test
+    public void testWarmUp() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            createTable("trades_eu");
+            createTable("trades_us");
+            createTable("quotes");
+            createTable("orders");
+
+            final CairoConfiguration configuration = new DefaultCairoConfiguration(root) {
+                @Override
+                public int getWarmUpPartitionCount() {
+                    return 2;
+                }
+
+                @Override
+                public CharSequence getWarmUpTables() {
+                    return "trades*,quotes";
+                }
+            };
+
+            final ObjList<String> created = new ObjList<>();
+            try (CairoEngine engine = new CairoEngine(configuration)) {
+                engine.setPoolListener((factoryType, thread, name, event, segment, position) -> {
+                    if (factoryType == PoolListener.SRC_READER && event == PoolListener.EV_CREATE) {
+                        synchronized (created) {
+                            created.add(Chars.toString(name));
+                        }
+                    }
+                });
+
+                final TableWarmUpJob job = new TableWarmUpJob(engine);
+                final ObjList<String> tableNames = new ObjList<>();
+                tableNames.addAll(job.getTableNames());
+                tableNames.sort(Chars::compare);
+                TestUtils.assertEquals("[quotes,trades_eu,trades_us]", tableNames.toString());
+                Assert.assertFalse(job.isDone());
+
+                // readers are opened by as many workers as there are tables
+                for (int i = 0; i < 3; i++) {
+                    Assert.assertTrue(job.run(i));
+                }
+                Assert.assertTrue(job.isDone());
+                Assert.assertFalse(job.run(0));
+
+                Assert.assertEquals(3, created.size());
+                Assert.assertEquals(0, engine.getBusyReaderCount());
+
+                // readers are taken from pool rather than opened
+                for (int i = 0; i < 3; i++) {
+                    try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, tableNames.getQuick(i))) {
+                        Assert.assertEquals(100, reader.size());
+                    }
+                }
+                Assert.assertEquals(3, created.size());
+
+                try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, "orders")) {
+                    Assert.assertEquals(100, reader.size());
+                }
+                Assert.assertEquals(4, created.size());
+                TestUtils.assertEquals("orders", created.getQuick(3));
+            }
+        });
+    }
+
+    private void createTable(String tableName) throws Exception {
+        try (TableModel model = new TableModel(configuration, tableName, PartitionBy.DAY)
+                .col("i", ColumnType.INT)
+                .col("s", ColumnType.SYMBOL)
+                .timestamp()) {
+            CairoTestUtils.create(model);
+        }
+
+        final long ts = TimestampFormatUtils.parseDateTime("2020-01-01T00:00:00.000Z");
+        try (TableWriter writer = new TableWriter(configuration, tableName)) {
+            for (int i = 0; i < 100; i++) {
+                TableWriter.Row row = writer.newRow(ts + (i / 10) * DAY + (i % 10) * 1000000L);
+                row.putInt(0, i);
+                row.putSym(1, i % 2 == 0 ? "a" : "b");
+                row.append();
+            }
+            writer.commit();
+        }
+    }
+}
@@ -24,19 +24,23 @@
 
 package io.questdb.cairo;
 
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
 import io.questdb.cairo.sql.Record;
 import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
+import io.questdb.mp.SOCountDownLatch;
 import io.questdb.std.*;
 import io.questdb.std.microtime.*;
 import io.questdb.std.str.LPSZ;
 import io.questdb.std.str.NativeLPSZ;
 import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
 import io.questdb.test.tools.TestUtils;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class TableWriterTest extends AbstractCairoTest {
@@ -725,6 +729,108 @@ public class TableWriterTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testAppendColumns() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            final int n = 1000;
+            for (String name : new String[]{"rows", "columns"}) {
+                try (TableModel model = new TableModel(configuration, name, PartitionBy.DAY)
+                        .col("i", ColumnType.INT)
+                        .col("s", ColumnType.STRING)
+                        .col("sym", ColumnType.SYMBOL).indexed(true, 256)
+                        .col("b", ColumnType.BINARY)
+                        .col("l", ColumnType.LONG)
+                        .timestamp()) {
+                    CairoTestUtils.create(model);
+                }
+            }
+
+            final long ts0 = TimestampFormatUtils.parseDateTime("2013-03-04T00:00:00.000Z");
+            final long interval = 5 * 60000L * 1000L;
+            Rnd rnd = new Rnd();
+            try (TableWriter writer = new TableWriter(configuration, "rows")) {
+                long ts = ts0;
+                for (int r = 0; r < n; r++) {
+                    TableWriter.Row row = writer.newRow(ts += interval);
+                    row.putInt(0, rnd.nextInt());
+                    row.putStr(1, rnd.nextBoolean() ? null : rnd.nextChars(rnd.nextPositiveInt() % 16));
+                    row.putSym(2, rnd.nextBoolean() ? null : rnd.nextString(2));
+                    final byte[] bytes = rnd.nextBytes(rnd.nextPositiveInt() % 8);
+                    row.putBin(3, bytes.length == 0 ? null : new TestRecord.ArrayBinarySequence().of(bytes));
+                    row.append();
+                }
+                writer.commit();
+            }
+
+            rnd.reset();
+            try (
+                    TableWriter writer = new TableWriter(configuration, "columns");
+                    VirtualMemory ints = new VirtualMemory(1024 * 1024, 1);
+                    VirtualMemory strs = new VirtualMemory(1024 * 1024, 1);
+                    VirtualMemory strOffsets = new VirtualMemory(1024 * 1024, 1);
+                    VirtualMemory syms = new VirtualMemory(1024 * 1024, 1);
+                    VirtualMemory bins = new VirtualMemory(1024 * 1024, 1);
+                    VirtualMemory binOffsets = new VirtualMemory(1024 * 1024, 1);
+                    VirtualMemory timestamps = new VirtualMemory(1024 * 1024, 1)
+            ) {
+                long ts = ts0;
+                for (int r = 0; r < n; r++) {
+                    ints.putInt(rnd.nextInt());
+                    strOffsets.putLong(strs.putStr(rnd.nextBoolean() ? null : rnd.nextChars(rnd.nextPositiveInt() % 16)));
+                    syms.putInt(writer.resolveSymbol(2, rnd.nextBoolean() ? null : rnd.nextString(2)));
+                    final byte[] bytes = rnd.nextBytes(rnd.nextPositiveInt() % 8);
+                    binOffsets.putLong(bins.putBin(bytes.length == 0 ? null : new TestRecord.ArrayBinarySequence().of(bytes)));
+                    timestamps.putLong(ts += interval);
+                }
+
+                LongList addresses = new LongList();
+                LongList offsets = new LongList();
+                addresses.add(ints.addressOf(0));
+                addresses.add(strs.addressOf(0));
+                addresses.add(syms.addressOf(0));
+                addresses.add(bins.addressOf(0));
+                addresses.add(0);
+                addresses.add(timestamps.addressOf(0));
+                offsets.setAll(6, 0);
+                offsets.setQuick(1, strOffsets.addressOf(0));
+                offsets.setQuick(3, binOffsets.addressOf(0));
+
+                writer.appendColumns(n, addresses, offsets);
+                Assert.assertEquals(n, writer.size());
+                writer.commit();
+
+                // row by row append continues where block ended
+                writer.newRow(ts + interval).append();
+                writer.commit();
+                Assert.assertEquals(n + 1, writer.size());
+
+                try {
+                    writer.appendColumns(n, addresses, offsets);
+                    Assert.fail();
+                } catch (CairoException e) {
+                    TestUtils.assertContains(e.getMessage(), "Cannot insert rows out of order");
+                }
+            }
+
+            try (TableWriter writer = new TableWriter(configuration, "rows")) {
+                writer.newRow(ts0 + (n + 1) * interval).append();
+                writer.commit();
+            }
+
+            final StringSink expected = new StringSink();
+            final StringSink actual = new StringSink();
+            try (
+                    TableReader rowsReader = new TableReader(configuration, "rows");
+                    TableReader columnsReader = new TableReader(configuration, "columns")
+            ) {
+                new RecordCursorPrinter(expected).print(rowsReader.getCursor(), rowsReader.getMetadata(), true);
+                new RecordCursorPrinter(actual).print(columnsReader.getCursor(), columnsReader.getMetadata(), true);
+                Assert.assertTrue(columnsReader.getPartitionCount() > 1);
+            }
+            TestUtils.assertEquals(expected, actual);
+        });
+    }
+
     @Test
     public void testAppendOutOfOrder() throws Exception {
         int N = 10000;
@@ -1689,6 +1795,68 @@ public class TableWriterTest extends AbstractCairoTest {
         }
     }
 
+    @Test
+    public void testGroupCommit() throws Exception {
+        final AtomicInteger msyncCount = new AtomicInteger();
+        testGroupCommit(new FilesFacadeImpl() {
+            @Override
+            public int msync(long addr, long len, boolean async) {
+                Assert.assertFalse(async);
+                msyncCount.incrementAndGet();
+                return super.msync(addr, len, async);
+            }
+        });
+        Assert.assertTrue(msyncCount.get() > 0);
+    }
+
+    @Test
+    public void testGroupCommitMsyncFailure() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            final CairoConfiguration configuration = new DefaultCairoConfiguration(root) {
+                @Override
+                public FilesFacade getFilesFacade() {
+                    return new FilesFacadeImpl() {
+                        @Override
+                        public int msync(long addr, long len, boolean async) {
+                            return -1;
+                        }
+                    };
+                }
+
+                @Override
+                public long getGroupCommitWindow() {
+                    return 1000;
+                }
+            };
+
+            try (TableModel model = new TableModel(configuration, "x", PartitionBy.DAY).col("i", ColumnType.INT).timestamp()) {
+                CairoTestUtils.create(model);
+            }
+
+            try (CairoEngine engine = new CairoEngine(configuration, messageBus)) {
+                try (TableWriter writer = engine.getWriter(AllowAllCairoSecurityContext.INSTANCE, "x")) {
+                    TableWriter.Row row = writer.newRow(0);
+                    row.putInt(0, 1);
+                    row.append();
+                    try {
+                        writer.commit(CommitMode.SYNC);
+                        Assert.fail();
+                    } catch (CairoError e) {
+                        TestUtils.assertContains(e.getMessage(), "could not msync");
+                    }
+
+                    try {
+                        writer.commit(CommitMode.SYNC);
+                        Assert.fail();
+                    } catch (CairoError e) {
+                        TestUtils.assertContains(e.getMessage(), "is distressed");
+                    }
+                }
+            }
+            Assert.assertTrue(messageBus.getGroupCommitSubSequence().next() < 0);
+        });
+    }
+
     @Test
     public void testIncorrectTodoCode() throws Exception {
         TestUtils.assertMemoryLeak(() -> {
@@ -3949,4 +4117,64 @@ public class TableWriterTest extends AbstractCairoTest {
     static class CountingFilesFacade extends FilesFacadeImpl {
         long count = Long.MAX_VALUE;
     }
-}
\ No newline at end of file
+
+    private void testGroupCommit(FilesFacade ff) throws Exception {
+        final int writerCount = 8;
+        final int commitsPerWriter = 10;
+        TestUtils.assertMemoryLeak(() -> {
+            final CairoConfiguration configuration = new DefaultCairoConfiguration(root) {
+                @Override
+                public FilesFacade getFilesFacade() {
+                    return ff;
+                }
+
+                @Override
+                public long getGroupCommitWindow() {
+                    return 1000;
+                }
+            };
+
+            for (int i = 0; i < writerCount; i++) {
+                try (TableModel model = new TableModel(configuration, "x" + i, PartitionBy.DAY).col("i", ColumnType.INT).timestamp()) {
+                    CairoTestUtils.create(model);
+                }
+            }
+
+            // there is no worker pool, writers lead groups themselves
+            try (CairoEngine engine = new CairoEngine(configuration, messageBus)) {
+                Assert.assertNotNull(engine.getGroupCommitJob());
+                final CyclicBarrier barrier = new CyclicBarrier(writerCount);
+                final SOCountDownLatch halted = new SOCountDownLatch(writerCount);
+                final AtomicInteger errors = new AtomicInteger();
+                for (int i = 0; i < writerCount; i++) {
+                    final String tableName = "x" + i;
+                    new Thread(() -> {
+                        try (TableWriter writer = engine.getWriter(AllowAllCairoSecurityContext.INSTANCE, tableName)) {
+                            for (int j = 0; j < commitsPerWriter; j++) {
+                                TableWriter.Row row = writer.newRow(j * 1000000L);
+                                row.putInt(0, j);
+                                row.append();
+                                barrier.await();
+                                writer.commit(CommitMode.SYNC);
+                            }
+                        } catch (Throwable e) {
+                            LOG.error().$(e).$();
+                            errors.incrementAndGet();
+                        } finally {
+                            halted.countDown();
+                        }
+                    }).start();
+                }
+                halted.await();
+                Assert.assertEquals(0, errors.get());
+
+                for (int i = 0; i < writerCount; i++) {
+                    try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, "x" + i)) {
+                        Assert.assertEquals(commitsPerWriter, reader.size());
+                    }
+                }
+            }
+            Assert.assertTrue(messageBus.getGroupCommitSubSequence().next() < 0);
+        });
+    }
+}
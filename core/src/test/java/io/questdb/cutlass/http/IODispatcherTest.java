@@ -41,6 +41,7 @@ import io.questdb.std.str.DirectByteCharSequence;
 import io.questdb.std.str.Path;
 import io.questdb.std.str.StringSink;
 import io.questdb.std.time.MillisecondClock;
+import io.questdb.std.time.MillisecondClockImpl;
 import io.questdb.test.tools.TestUtils;
 import org.jetbrains.annotations.NotNull;
 import org.junit.Assert;
@@ -3271,6 +3272,107 @@ public class IODispatcherTest {
         );
     }
 
+    @Test
+    public void testJsonQueryQueuedForHeavyQuerySlotDoesNotSpin() throws Exception {
+        final AtomicInteger admissionAttempts = new AtomicInteger();
+        final WorkloadManager workloadManager = new WorkloadManager(MillisecondClockImpl.INSTANCE, 1, 1, 16, 60_000, 0) {
+            @Override
+            public synchronized boolean tryAdmit(Ticket ticket, int priority) {
+                admissionAttempts.incrementAndGet();
+                return super.tryAdmit(ticket, priority);
+            }
+        };
+        // another heavy query occupies the only slot
+        final WorkloadManager.Ticket ticket = new WorkloadManager.Ticket();
+        Assert.assertTrue(workloadManager.tryAdmit(ticket, WorkloadManager.PRIORITY_INTERACTIVE));
+        admissionAttempts.set(0);
+
+        final AtomicInteger attemptsWhileQueued = new AtomicInteger();
+        final Thread thread = new Thread(() -> {
+            while (workloadManager.getQueueSize() == 0) {
+                LockSupport.parkNanos(1_000_000);
+            }
+            // queued request must not be re-dispatched until the slot is released
+            LockSupport.parkNanos(200_000_000);
+            attemptsWhileQueued.set(admissionAttempts.get());
+            ticket.release();
+        });
+        thread.start();
+
+        testJsonQuery0(2, this::sendAndReceiveHeavyQuery, false, workloadManager);
+
+        thread.join();
+        Assert.assertEquals(1, attemptsWhileQueued.get());
+        // first request is queued and re-dispatched once, the other nine find free slot
+        Assert.assertEquals(11, admissionAttempts.get());
+        Assert.assertEquals(0, workloadManager.getRunningCount());
+        Assert.assertEquals(0, workloadManager.getQueueSize());
+    }
+
+    @Test
+    public void testJsonQueryTimesOutWaitingForHeavyQuerySlot() throws Exception {
+        final WorkloadManager workloadManager = new WorkloadManager(MillisecondClockImpl.INSTANCE, 1, 1, 16, 100, 0);
+        // another heavy query holds the only slot and never releases it
+        final WorkloadManager.Ticket ticket = new WorkloadManager.Ticket();
+        Assert.assertTrue(workloadManager.tryAdmit(ticket, WorkloadManager.PRIORITY_INTERACTIVE));
+
+        testJsonQuery0(2, engine -> {
+            CairoTestUtils.createTestTable(
+                    engine.getConfiguration(),
+                    20,
+                    new Rnd(),
+                    new TestRecord.ArrayBinarySequence()
+            );
+            sendAndReceive(
+                    NetworkFacadeImpl.INSTANCE,
+                    "GET /query?query=x HTTP/1.1\r\n" +
+                            "Host: localhost:9001\r\n" +
+                            "Connection: keep-alive\r\n" +
+                            "\r\n",
+                    "HTTP/1.1 500 Internal server error\r\n" +
+                            "Server: questDB/1.0\r\n" +
+                            "Date: Thu, 1 Jan 1970 00:00:00 GMT\r\n" +
+                            "Transfer-Encoding: chunked\r\n" +
+                            "Content-Type: application/json; charset=utf-8\r\n" +
+                            "Keep-Alive: timeout=5, max=10000\r\n" +
+                            "\r\n" +
+                            "59\r\n" +
+                            "{\"query\":\"x\",\"error\":\"timeout waiting for heavy query slot [timeout=100ms]\",\"position\":0}\r\n" +
+                            "00\r\n" +
+                            "\r\n",
+                    1,
+                    0,
+                    false
+            );
+        }, false, workloadManager);
+
+        ticket.release();
+        Assert.assertEquals(0, workloadManager.getRunningCount());
+        Assert.assertEquals(0, workloadManager.getQueueSize());
+    }
+
+    @Test
+    public void testJsonQueryWaitsForHeavyQuerySlot() throws Exception {
+        final WorkloadManager workloadManager = new WorkloadManager(MillisecondClockImpl.INSTANCE, 1, 1, 16, 60_000, 0);
+        // another heavy query occupies the only slot
+        final WorkloadManager.Ticket ticket = new WorkloadManager.Ticket();
+        Assert.assertTrue(workloadManager.tryAdmit(ticket, WorkloadManager.PRIORITY_INTERACTIVE));
+
+        final Thread thread = new Thread(() -> {
+            while (workloadManager.getQueueSize() == 0) {
+                LockSupport.parkNanos(1_000_000);
+            }
+            ticket.release();
+        });
+        thread.start();
+
+        testJsonQuery0(2, this::sendAndReceiveHeavyQuery, false, workloadManager);
+
+        thread.join();
+        Assert.assertEquals(0, workloadManager.getRunningCount());
+        Assert.assertEquals(0, workloadManager.getQueueSize());
+    }
+
     @Test
     public void testJsonQueryTopLimitAndCount() throws Exception {
         testJsonQuery(
@@ -4894,6 +4996,31 @@ public class IODispatcherTest {
                 public long getMaxQueryResponseRowLimit() {
                     return configuredMaxQueryResponseRowLimit;
                 }
+
+                @Override
+                public int getHeavyQueryConcurrency() {
+                    return 0;
+                }
+
+                @Override
+                public long getHeavyQueryRowThreshold() {
+                    return 100_000_000;
+                }
+
+                @Override
+                public int getHeavyQueryQueueCapacity() {
+                    return 64;
+                }
+
+                @Override
+                public long getHeavyQueryQueueTimeout() {
+                    return 60_000;
+                }
+
+                @Override
+                public long getHeavyQueryTimeout() {
+                    return 0;
+                }
             };
 
             @Override
@@ -4933,6 +5060,42 @@ public class IODispatcherTest {
         };
     }
 
+    private void sendAndReceiveHeavyQuery(CairoEngine engine) throws InterruptedException {
+        CairoTestUtils.createTestTable(
+                engine.getConfiguration(),
+                20,
+                new Rnd(),
+                new TestRecord.ArrayBinarySequence()
+        );
+        sendAndReceive(
+                NetworkFacadeImpl.INSTANCE,
+                "GET /query?query=x&limit=10 HTTP/1.1\r\n" +
+                        "Host: localhost:9001\r\n" +
+                        "Connection: keep-alive\r\n" +
+                        "Cache-Control: max-age=0\r\n" +
+                        "Upgrade-Insecure-Requests: 1\r\n" +
+                        "User-Agent: Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/74.0.3729.169 Safari/537.36\r\n" +
+                        "Accept: text/html,application/xhtml+xml,application/xml;q=0.9,image/webp,image/apng,*/*;q=0.8,application/signed-exchange;v=b3\r\n" +
+                        "Accept-Encoding: gzip, deflate, br\r\n" +
+                        "Accept-Language: en-GB,en-US;q=0.9,en;q=0.8\r\n" +
+                        "\r\n",
+                "HTTP/1.1 200 OK\r\n" +
+                        "Server: questDB/1.0\r\n" +
+                        "Date: Thu, 1 Jan 1970 00:00:00 GMT\r\n" +
+                        "Transfer-Encoding: chunked\r\n" +
+                        "Content-Type: application/json; charset=utf-8\r\n" +
+                        "Keep-Alive: timeout=5, max=10000\r\n" +
+                        "\r\n" +
+                        "06ac\r\n" +
+                        "{\"query\":\"x\",\"columns\":[{\"name\":\"a\",\"type\":\"BYTE\"},{\"name\":\"b\",\"type\":\"SHORT\"},{\"name\":\"c\",\"type\":\"INT\"},{\"name\":\"d\",\"type\":\"LONG\"},{\"name\":\"e\",\"type\":\"DATE\"},{\"name\":\"f\",\"type\":\"TIMESTAMP\"},{\"name\":\"g\",\"type\":\"FLOAT\"},{\"name\":\"h\",\"type\":\"DOUBLE\"},{\"name\":\"i\",\"type\":\"STRING\"},{\"name\":\"j\",\"type\":\"SYMBOL\"},{\"name\":\"k\",\"type\":\"BOOLEAN\"},{\"name\":\"l\",\"type\":\"BINARY\"}],\"dataset\":[[80,24814,-727724771,8920866532787660373,\"-169665660-01-09T01:58:28.119Z\",\"-51129-02-11T06:38:29.397464Z\",null,null,\"EHNRX\",\"ZSX\",false,[]],[30,32312,-303295973,6854658259142399220,null,\"273652-10-24T01:16:04.499209Z\",0.38179755,0.9687423276940171,\"EDRQQ\",\"LOF\",false,[]],[-79,-21442,1985398001,7522482991756933150,\"279864478-12-31T01:58:35.932Z\",\"20093-07-24T16:56:53.198086Z\",null,0.05384400312338511,\"HVUVS\",\"OTS\",true,[]],[70,-29572,-1966408995,-2406077911451945242,null,\"-254163-09-17T05:33:54.251307Z\",0.81233966,null,\"IKJSM\",\"SUQ\",false,[]],[-97,15913,2011884585,4641238585508069993,\"-277437004-09-03T08:55:41.803Z\",\"186548-11-05T05:57:55.827139Z\",0.89989215,0.6583311519893554,\"ZIMNZ\",\"RMF\",false,[]],[-9,5991,-907794648,null,null,null,0.13264287,null,\"OHNZH\",null,false,[]],[-94,30598,-1510166985,6056145309392106540,null,null,0.54669005,null,\"MZVQE\",\"NDC\",true,[]],[-97,-11913,null,750145151786158348,\"-144112168-08-02T20:50:38.542Z\",\"-279681-08-19T06:26:33.186955Z\",0.8977236,0.5691053034055052,\"WIFFL\",\"BRO\",false,[]],[58,7132,null,6793615437970356479,\"63572238-04-24T11:00:13.287Z\",\"171291-08-24T10:16:32.229138Z\",null,0.7215959171612961,\"KWZLU\",\"GXH\",false,[]],[37,7618,null,-9219078548506735248,\"286623354-12-11T19:15:45.735Z\",\"197633-02-20T09:12:49.579955Z\",null,0.8001632261203552,null,\"KFM\",false,[]]],\"count\":10}\r\n" +
+                        "00\r\n" +
+                        "\r\n",
+                10,
+                0,
+                false
+        );
+    }
+
     private void sendAndReceive(
             NetworkFacade nf,
             String request,
@@ -5070,6 +5233,10 @@ public class IODispatcherTest {
     }
 
     private void testJsonQuery0(int workerCount, HttpClientCode code, boolean telemetry) throws Exception {
+        testJsonQuery0(workerCount, code, telemetry, null);
+    }
+
+    private void testJsonQuery0(int workerCount, HttpClientCode code, boolean telemetry, WorkloadManager workloadManager) throws Exception {
         final int[] workerAffinity = new int[workerCount];
         Arrays.fill(workerAffinity, -1);
 
@@ -5130,7 +5297,9 @@ public class IODispatcherTest {
                                 httpConfiguration.getJsonQueryProcessorConfiguration(),
                                 engine,
                                 messageBus,
-                                workerPool.getWorkerCount()
+                                workerPool.getWorkerCount(),
+                                null,
+                                workloadManager
                         );
                     }
 
@@ -5147,7 +5316,9 @@ public class IODispatcherTest {
                                 httpConfiguration.getJsonQueryProcessorConfiguration(),
                                 engine,
                                 null,
-                                workerPool.getWorkerCount()
+                                workerPool.getWorkerCount(),
+                                null,
+                                workloadManager
                         );
                     }
 
@@ -5170,6 +5341,10 @@ public class IODispatcherTest {
                     }
                 });
 
+                if (workloadManager != null) {
+                    workerPool.assign(workloadManager);
+                }
+
                 workerPool.start(LOG);
 
                 try {
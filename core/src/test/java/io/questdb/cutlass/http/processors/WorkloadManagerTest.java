@@ -0,0 +1,156 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cutlass.http.processors;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.mp.SOCountDownLatch;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+public class WorkloadManagerTest {
+    private long now;
+    private final WorkloadManager manager = new WorkloadManager(() -> now, 1, 1000, 2, 100, 500);
+
+    @Test
+    public void testHeavy() {
+        Assert.assertFalse(manager.isHeavy(999));
+        Assert.assertTrue(manager.isHeavy(1000));
+    }
+
+    @Test
+    public void testInteractiveAheadOfExport() {
+        final WorkloadManager.Ticket running = new WorkloadManager.Ticket();
+        final WorkloadManager.Ticket export = new WorkloadManager.Ticket();
+        final WorkloadManager.Ticket interactive = new WorkloadManager.Ticket();
+
+        Assert.assertTrue(manager.tryAdmit(running, WorkloadManager.PRIORITY_INTERACTIVE));
+        Assert.assertFalse(manager.tryAdmit(export, WorkloadManager.PRIORITY_EXPORT));
+        Assert.assertFalse(manager.tryAdmit(interactive, WorkloadManager.PRIORITY_INTERACTIVE));
+        Assert.assertEquals(2, manager.getQueueSize());
+
+        running.release();
+        // export arrived first but interactive query has higher priority
+        Assert.assertFalse(manager.tryAdmit(export, WorkloadManager.PRIORITY_EXPORT));
+        Assert.assertTrue(manager.tryAdmit(interactive, WorkloadManager.PRIORITY_INTERACTIVE));
+        Assert.assertFalse(manager.tryAdmit(export, WorkloadManager.PRIORITY_EXPORT));
+
+        interactive.release();
+        Assert.assertTrue(manager.tryAdmit(export, WorkloadManager.PRIORITY_EXPORT));
+        export.release();
+
+        Assert.assertEquals(0, manager.getRunningCount());
+        Assert.assertEquals(0, manager.getQueueSize());
+    }
+
+    @Test
+    public void testConcurrentAdmission() throws Exception {
+        final int concurrency = 2;
+        final int threadCount = 8;
+        final int iterations = 10_000;
+        final WorkloadManager manager = new WorkloadManager(() -> 0, concurrency, 1000, threadCount, 100, 0);
+        final AtomicInteger executing = new AtomicInteger();
+        final AtomicInteger errors = new AtomicInteger();
+        final CyclicBarrier barrier = new CyclicBarrier(threadCount);
+        final SOCountDownLatch haltLatch = new SOCountDownLatch(threadCount);
+
+        for (int t = 0; t < threadCount; t++) {
+            final int priority = t % 2 == 0 ? WorkloadManager.PRIORITY_INTERACTIVE : WorkloadManager.PRIORITY_EXPORT;
+            new Thread(() -> {
+                try {
+                    barrier.await();
+                    final WorkloadManager.Ticket ticket = new WorkloadManager.Ticket();
+                    for (int i = 0; i < iterations; i++) {
+                        while (!manager.tryAdmit(ticket, priority)) {
+                            LockSupport.parkNanos(1);
+                        }
+                        if (executing.incrementAndGet() > concurrency) {
+                            errors.incrementAndGet();
+                        }
+                        executing.decrementAndGet();
+                        ticket.release();
+                    }
+                } catch (Throwable e) {
+                    e.printStackTrace();
+                    errors.incrementAndGet();
+                } finally {
+                    haltLatch.countDown();
+                }
+            }).start();
+        }
+
+        haltLatch.await();
+        Assert.assertEquals(0, errors.get());
+        Assert.assertEquals(0, manager.getRunningCount());
+        Assert.assertEquals(0, manager.getQueueSize());
+    }
+
+    @Test
+    public void testQueryDeadline() {
+        now = 1000;
+        Assert.assertEquals(1500, manager.getQueryDeadline());
+        Assert.assertEquals(Long.MAX_VALUE, new WorkloadManager(() -> now, 1, 1000, 2, 100, 0).getQueryDeadline());
+    }
+
+    @Test
+    public void testQueueFull() {
+        final WorkloadManager.Ticket running = new WorkloadManager.Ticket();
+        Assert.assertTrue(manager.tryAdmit(running, WorkloadManager.PRIORITY_INTERACTIVE));
+        Assert.assertFalse(manager.tryAdmit(new WorkloadManager.Ticket(), WorkloadManager.PRIORITY_INTERACTIVE));
+        Assert.assertFalse(manager.tryAdmit(new WorkloadManager.Ticket(), WorkloadManager.PRIORITY_INTERACTIVE));
+        try {
+            manager.tryAdmit(new WorkloadManager.Ticket(), WorkloadManager.PRIORITY_INTERACTIVE);
+            Assert.fail();
+        } catch (CairoException e) {
+            TestUtils.assertContains(e.getFlyweightMessage(), "heavy query queue is full");
+        }
+    }
+
+    @Test
+    public void testQueueTimeout() {
+        final WorkloadManager.Ticket running = new WorkloadManager.Ticket();
+        final WorkloadManager.Ticket waiting = new WorkloadManager.Ticket();
+        Assert.assertTrue(manager.tryAdmit(running, WorkloadManager.PRIORITY_INTERACTIVE));
+        Assert.assertFalse(manager.tryAdmit(waiting, WorkloadManager.PRIORITY_INTERACTIVE));
+        now += 100;
+        Assert.assertFalse(manager.tryAdmit(waiting, WorkloadManager.PRIORITY_INTERACTIVE));
+        now++;
+        try {
+            manager.tryAdmit(waiting, WorkloadManager.PRIORITY_INTERACTIVE);
+            Assert.fail();
+        } catch (CairoException e) {
+            TestUtils.assertContains(e.getFlyweightMessage(), "timeout waiting for heavy query slot");
+        }
+        Assert.assertEquals(0, manager.getQueueSize());
+        // releasing ticket that left the queue is harmless
+        waiting.release();
+        running.release();
+        Assert.assertEquals(0, manager.getRunningCount());
+    }
+}
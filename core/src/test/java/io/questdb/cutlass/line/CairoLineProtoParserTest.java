@@ -57,6 +57,34 @@ public class CairoLineProtoParserTest extends AbstractCairoTest {
         assertThat(expected, lines, "tab");
     }
 
+    @Test
+    public void testAddColumnInPlace() throws Exception {
+        final String expected = "tag\ttag2\tfield\tf4\tfield2\tfx\ttimestamp\tf5\n" +
+                "abc\txyz\t10000\t9.034\tstr\ttrue\t1970-01-01T00:01:40.000000Z\tNaN\n" +
+                "woopsie\tdaisy\t2000\t3.0889100000000003\tcomment\ttrue\t1970-01-01T00:01:40.000000Z\tNaN\n" +
+                "444\td555\t510\t1.4000000000000001\tcomment\ttrue\t1970-01-01T00:01:40.000000Z\t55\n" +
+                "666\t777\t410\t1.1\tcomment X\tfalse\t1970-01-01T00:01:40.000000Z\tNaN\n";
+
+        final String lines = "tab,tag=abc,tag2=xyz field=10000i,f4=9.034,field2=\"str\",fx=true 100000000000\n" +
+                "tab,tag=woopsie,tag2=daisy field=2000i,f4=3.08891,field2=\"comment\",fx=true 100000000000\n" +
+                "tab,tag=444,tag2=d555 field=510i,f4=1.4,f5=55i,field2=\"comment\",fx=true 100000000000\n" +
+                "tab,tag=666,tag2=777 field=410i,f4=1.1,field2=\"comment\\ X\",fx=false 100000000000\n";
+
+        assertThat(expected, lines, "tab", configuration, true);
+    }
+
+    @Test
+    public void testUtf8InPlace() throws Exception {
+        final String expected = "терминал\tзначение\tfield\ttimestamp\n" +
+                "привет мир\tabc\t15\t1970-01-01T00:01:40.000000Z\n" +
+                "abc\tсимвол\t-4\t1970-01-01T00:01:40.000000Z\n";
+
+        final String lines = "таблица,терминал=привет\\ мир,значение=abc field=15i 100000000000\n" +
+                "таблица,терминал=abc,значение=символ field=-4i 100000000000\n";
+
+        assertThat(expected, lines, "таблица", configuration, true);
+    }
+
     @Test
     public void testAddTag() throws Exception {
         final String expected = "tag\ttag3\tfield\tf4\tfield2\tfx\ttimestamp\ttag2\n" +
@@ -546,6 +574,10 @@ public class CairoLineProtoParserTest extends AbstractCairoTest {
     }
 
     private void assertThat(String expected, String lines, CharSequence tableName, CairoConfiguration configuration) throws Exception {
+        assertThat(expected, lines, tableName, configuration, false);
+    }
+
+    private void assertThat(String expected, String lines, CharSequence tableName, CairoConfiguration configuration, boolean inPlace) throws Exception {
         TestUtils.assertMemoryLeak(() -> {
             try (CairoEngine engine = new CairoEngine(configuration, null)) {
                 try (CairoLineProtoParser parser = new CairoLineProtoParser(engine, AllowAllCairoSecurityContext.INSTANCE, LineProtoNanoTimestampAdapter.INSTANCE)) {
@@ -558,8 +590,12 @@ public class CairoLineProtoParserTest extends AbstractCairoTest {
                         }
                         try (LineProtoLexer lexer = new LineProtoLexer(4096)) {
                             lexer.withParser(parser);
-                            lexer.parse(mem, mem + len);
-                            lexer.parseLast();
+                            if (inPlace) {
+                                lexer.parseInPlace(mem, mem + len);
+                            } else {
+                                lexer.parse(mem, mem + len);
+                                lexer.parseLast();
+                            }
                             parser.commitAll(CommitMode.NOSYNC);
                         }
                     } finally {
@@ -297,6 +297,14 @@ public class LineProtoLexerTest {
                 Assert.assertEquals(code, lineAssemblingParser.errorCode);
                 Assert.assertEquals(position, lineAssemblingParser.errorPosition);
             }
+
+            lineAssemblingParser.clear();
+            lexer.clear();
+            lexer.withParser(lineAssemblingParser);
+            lexer.parseInPlace(mem, mem + len);
+            Assert.assertEquals(state, lineAssemblingParser.errorState);
+            Assert.assertEquals(code, lineAssemblingParser.errorCode);
+            Assert.assertEquals(position, lineAssemblingParser.errorPosition);
         } finally {
             Unsafe.free(mem, bytes.length);
         }
@@ -344,6 +352,12 @@ public class LineProtoLexerTest {
             smallBufLexer.parse(mem, mem + len);
             smallBufLexer.parseLast();
             TestUtils.assertEquals(expected, sink);
+
+            // assert in place parsing, which modifies message, so it goes last
+            lineAssemblingParser.clear();
+            smallBufLexer.parseInPlace(mem, mem + len);
+            TestUtils.assertEquals(expected, sink);
+            smallBufLexer.close();
         } finally {
             Unsafe.free(mem, len);
         }
@@ -78,6 +78,63 @@ public class LinuxLineProtoReceiverTest extends AbstractCairoTest {
         assertReceive(new TestLineUdpReceiverConfiguration(), GENERIC_FACTORY);
     }
 
+    @Test
+    public void testGroupShardedReceive() throws Exception {
+        LineUdpReceiverConfiguration receiverCfg = new TestLineUdpReceiverConfiguration() {
+            @Override
+            public int getReceiverCount() {
+                return 3;
+            }
+
+            @Override
+            public int getWriterCount() {
+                return 2;
+            }
+
+            @Override
+            public int getWriterQueueCapacity() {
+                return 4;
+            }
+
+            @Override
+            public boolean isUnicast() {
+                return true;
+            }
+        };
+
+        TestUtils.assertMemoryLeak(() -> {
+            final String[] tables = {"tab1", "tab2", "tab3"};
+            try (CairoEngine engine = new CairoEngine(new DefaultCairoConfiguration(root), null)) {
+                try (LineProtoReceiverGroup group = new LineProtoReceiverGroup(receiverCfg, engine, null)) {
+                    group.start();
+
+                    try (LineProtoSender sender = new LineProtoSender(NetworkFacadeImpl.INSTANCE, 0, receiverCfg.getBindIPv4Address(), receiverCfg.getPort(), 1400, 1)) {
+                        for (int i = 0; i < 300; i++) {
+                            sender.metric(tables[i % tables.length]).tag("colour", "blue").field("size", i).$(100000000000L + i);
+                        }
+                        sender.flush();
+                    }
+
+                    for (String table : tables) {
+                        int count = 1000000;
+                        while (count-- > 0) {
+                            try (TableReader reader = new TableReader(new DefaultCairoConfiguration(root), table)) {
+                                if (reader.size() == 100) {
+                                    break;
+                                }
+                            } catch (CairoException ignore) {
+                                // table is not created yet
+                            }
+                            LockSupport.parkNanos(1);
+                        }
+                        Assert.assertTrue(count > 0);
+                    }
+                    group.halt();
+                }
+            }
+        });
+    }
+
     @Test
     public void testLinuxCannotBindSocket() throws Exception {
         if (Os.type != Os.LINUX_AMD64) {
@@ -341,6 +398,21 @@ public class LinuxLineProtoReceiverTest extends AbstractCairoTest {
             return -1;
         }
 
+        @Override
+        public int getReceiverCount() {
+            return 1;
+        }
+
+        @Override
+        public int getWriterCount() {
+            return 1;
+        }
+
+        @Override
+        public int getWriterQueueCapacity() {
+            return 1024;
+        }
+
         @Override
         public CairoSecurityContext getCairoSecurityContext() {
             return AllowAllCairoSecurityContext.INSTANCE;
@@ -356,6 +356,23 @@ public class AbstractGriffinTest extends AbstractCairoTest {
         }
     }
 
+    /**
+     * Iterates query cursor to the end.
+     *
+     * @return native map memory allocated while cursor was iterated
+     */
+    protected static long getNativeMapMemoryGrowth(CharSequence query) throws SqlException {
+        try (RecordCursorFactory factory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory()) {
+            try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                final long memUsed = Unsafe.getMemUsedByTag(MemoryTag.NATIVE_MAP);
+                while (cursor.hasNext()) {
+                    // aggregate all samples
+                }
+                return Unsafe.getMemUsedByTag(MemoryTag.NATIVE_MAP) - memUsed;
+            }
+        }
+    }
+
     protected static void printSqlResult(
             CharSequence expected,
             CharSequence query,
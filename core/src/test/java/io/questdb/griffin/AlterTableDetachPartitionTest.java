@@ -0,0 +1,148 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin;
+
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.engine.functions.rnd.SharedRandom;
+import io.questdb.std.Rnd;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static io.questdb.griffin.CompiledQuery.ALTER;
+
+public class AlterTableDetachPartitionTest extends AbstractGriffinTest {
+
+    @Before
+    public void setUp3() {
+        SharedRandom.RANDOM.set(new Rnd());
+    }
+
+    @Test
+    public void testAttachNotDetachedPartition() throws Exception {
+        assertFailure("alter table x attach partition '2018-01-02'", 31, "could not attach partition");
+    }
+
+    @Test
+    public void testDetachActivePartition() throws Exception {
+        assertFailure("alter table x detach partition '2018-01-09'", 31, "could not detach partition");
+    }
+
+    @Test
+    public void testDetachAndAttachFirstPartition() throws Exception {
+        assertMemoryLeak(() -> {
+            createX();
+
+            assertResult("count\n1000\n", "select count() from x");
+            assertResult("count\n119\n", "select count() from x where timestamp = '2018-01-01'");
+
+            Assert.assertEquals(ALTER, compiler.compile("alter table x detach partition '2018-01-01'", sqlExecutionContext).getType());
+            assertResult("count\n881\n", "select count() from x");
+            assertResult("count\n0\n", "select count() from x where timestamp = '2018-01-01'");
+            assertResult("min\n2018-01-02T00:00:00.000000Z\n", "select min(timestamp) from x");
+
+            Assert.assertEquals(ALTER, compiler.compile("alter table x attach partition '2018-01-01'", sqlExecutionContext).getType());
+            assertResult("count\n1000\n", "select count() from x");
+            assertResult("count\n119\n", "select count() from x where timestamp = '2018-01-01'");
+            assertResult("min\n2018-01-01T00:12:00.000000Z\n", "select min(timestamp) from x");
+        });
+    }
+
+    @Test
+    public void testDetachAndAttachTwoPartitions() throws Exception {
+        assertMemoryLeak(() -> {
+            createX();
+
+            Assert.assertEquals(ALTER, compiler.compile("alter table x DETACH partition '2018-01-03', '2018-01-05'", sqlExecutionContext).getType());
+            assertResult("count\n760\n", "select count() from x");
+            assertResult("count\n0\n", "select count() from x where timestamp = '2018-01-03'");
+            assertResult("count\n0\n", "select count() from x where timestamp = '2018-01-05'");
+
+            // partition can be detached once
+            try {
+                compiler.compile("alter table x detach partition '2018-01-03'", sqlExecutionContext);
+                Assert.fail();
+            } catch (SqlException e) {
+                Assert.assertEquals(31, e.getPosition());
+                TestUtils.assertContains(e.getFlyweightMessage(), "could not detach partition");
+            }
+
+            Assert.assertEquals(ALTER, compiler.compile("alter table x ATTACH partition '2018-01-03', '2018-01-05'", sqlExecutionContext).getType());
+            assertResult("count\n1000\n", "select count() from x");
+            assertResult("count\n120\n", "select count() from x where timestamp = '2018-01-03'");
+            assertResult("count\n120\n", "select count() from x where timestamp = '2018-01-05'");
+        });
+    }
+
+    @Test
+    public void testDetachPartitionExpectName() throws Exception {
+        assertFailure("alter table x detach partition", 30, "partition name expected");
+    }
+
+    @Test
+    public void testDetachPartitionExpectPartitionKeyword() throws Exception {
+        assertFailure("alter table x detach column", 21, "'partition' expected");
+    }
+
+    private void assertFailure(String sql, int position, String message) throws Exception {
+        assertMemoryLeak(() -> {
+            try {
+                createX();
+                compiler.compile(sql, sqlExecutionContext);
+                Assert.fail();
+            } catch (SqlException e) {
+                Assert.assertEquals(position, e.getPosition());
+                TestUtils.assertContains(e.getFlyweightMessage(), message);
+            }
+        });
+    }
+
+    private void assertResult(String expected, String query) throws SqlException {
+        try (RecordCursorFactory factory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory()) {
+            try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                sink.clear();
+                printer.print(cursor, factory.getMetadata(), true);
+                TestUtils.assertEquals(expected, sink);
+            }
+        }
+    }
+
+    private void createX() throws SqlException {
+        compiler.compile(
+                "create table x as (" +
+                        "select" +
+                        " cast(x as int) i," +
+                        " rnd_symbol('msft','ibm', 'googl') sym," +
+                        " to_timestamp('2018-01', 'yyyy-MM') + x * 720000000 timestamp," +
+                        " rnd_str('ABC', 'CDE', null, 'XYZ') c" +
+                        " from long_sequence(1000)" +
+                        ") timestamp (timestamp)" +
+                        "partition by DAY",
+                sqlExecutionContext
+        );
+    }
+}
@@ -0,0 +1,128 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin;
+
+import io.questdb.cairo.PartitionTtlJob;
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static io.questdb.griffin.CompiledQuery.ALTER;
+
+public class AlterTableSetTtlTest extends AbstractGriffinTest {
+
+    @Test
+    public void testBadUnit() throws Exception {
+        assertFailure("alter table x set ttl 2 months", 24, "'hours', 'days' or 'weeks' expected");
+    }
+
+    @Test
+    public void testBadValue() throws Exception {
+        assertFailure("alter table x set ttl two days", 22, "bad integer");
+    }
+
+    @Test
+    public void testCreateTableWithTtl() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table y (i int, ts timestamp) timestamp(ts) partition by DAY ttl 1 week", sqlExecutionContext);
+            try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, "y")) {
+                Assert.assertEquals(7 * 24, reader.getTtlHours());
+            }
+        });
+    }
+
+    @Test
+    public void testNotPartitioned() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table y (i int, ts timestamp) timestamp(ts)", sqlExecutionContext);
+            try {
+                compiler.compile("alter table y set ttl 2 days", sqlExecutionContext);
+                Assert.fail();
+            } catch (SqlException e) {
+                Assert.assertEquals(18, e.getPosition());
+                TestUtils.assertContains(e.getFlyweightMessage(), "TTL requires partitioned table");
+            }
+        });
+    }
+
+    @Test
+    public void testSetTtl() throws Exception {
+        assertMemoryLeak(() -> {
+            createX();
+            Assert.assertEquals(ALTER, compiler.compile("alter table x set ttl 2 days", sqlExecutionContext).getType());
+            try (PartitionTtlJob job = new PartitionTtlJob(engine)) {
+                Assert.assertEquals(6, job.removeExpiredPartitions());
+                Assert.assertEquals(0, job.removeExpiredPartitions());
+            }
+            assertResult("min\n2018-01-07T00:00:00.000000Z\n", "select min(timestamp) from x");
+
+            // TTL is off
+            compiler.compile("alter table x set ttl 0 hours", sqlExecutionContext);
+            try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, "x")) {
+                Assert.assertEquals(0, reader.getTtlHours());
+            }
+        });
+    }
+
+    private void assertFailure(String sql, int position, String message) throws Exception {
+        assertMemoryLeak(() -> {
+            try {
+                createX();
+                compiler.compile(sql, sqlExecutionContext);
+                Assert.fail();
+            } catch (SqlException e) {
+                Assert.assertEquals(position, e.getPosition());
+                TestUtils.assertContains(e.getFlyweightMessage(), message);
+            }
+        });
+    }
+
+    private void assertResult(String expected, String query) throws SqlException {
+        try (RecordCursorFactory factory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory()) {
+            try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                sink.clear();
+                printer.print(cursor, factory.getMetadata(), true);
+                TestUtils.assertEquals(expected, sink);
+            }
+        }
+    }
+
+    private void createX() throws SqlException {
+        compiler.compile(
+                "create table x as (" +
+                        "select" +
+                        " cast(x as int) i," +
+                        " to_timestamp('2018-01', 'yyyy-MM') + x * 720000000 timestamp" +
+                        " from long_sequence(1000)" +
+                        ") timestamp (timestamp)" +
+                        "partition by DAY",
+                sqlExecutionContext
+        );
+    }
+}
@@ -24,8 +24,11 @@
 
 package io.questdb.griffin;
 
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
 import io.questdb.griffin.engine.functions.rnd.SharedRandom;
 import io.questdb.std.Rnd;
+import io.questdb.test.tools.TestUtils;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -36,6 +39,66 @@ public class AsOfJoinTest extends AbstractGriffinTest {
         SharedRandom.RANDOM.set(new Rnd());
     }
 
+    @Test
+    public void testAsOfJoinIndexed() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table quotes (sym symbol index, bid double, ts timestamp) timestamp(ts) partition by DAY", sqlExecutionContext);
+            compiler.compile(
+                    "insert into quotes select * from (" +
+                            "select rnd_symbol('A', 'B') sym, x bid, timestamp_sequence(43200000000, 43200000000) ts from long_sequence(4)" +
+                            ") timestamp(ts)",
+                    sqlExecutionContext
+            );
+            compiler.compile(
+                    "create table trades as (" +
+                            "select rnd_symbol('A', 'B', 'C') sym, x qty, timestamp_sequence(0, 86400000000) ts from long_sequence(5)" +
+                            ") timestamp(ts) partition by DAY",
+                    sqlExecutionContext
+            );
+
+            final String expected = "sym\tqty\tts\tsym1\tbid\tts1\n" +
+                    "C\t1\t1970-01-01T00:00:00.000000Z\t\tNaN\t\n" +
+                    "C\t2\t1970-01-02T00:00:00.000000Z\t\tNaN\t\n" +
+                    "C\t3\t1970-01-03T00:00:00.000000Z\t\tNaN\t\n" +
+                    "B\t4\t1970-01-04T00:00:00.000000Z\tB\t4.0\t1970-01-03T00:00:00.000000Z\n" +
+                    "A\t5\t1970-01-05T00:00:00.000000Z\tA\t2.0\t1970-01-02T00:00:00.000000Z\n";
+
+            try (RecordCursorFactory factory = compiler.compile("trades asof join quotes on sym", sqlExecutionContext).getRecordCursorFactory()) {
+                assertCursor(expected, factory, false, true);
+            }
+            try (RecordCursorFactory factory = compiler.compile("trades lt join quotes on sym", sqlExecutionContext).getRecordCursorFactory()) {
+                assertCursor(expected, factory, false, true);
+            }
+        });
+    }
+
+    @Test
+    public void testAsOfJoinIndexedMatchesScan() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table quotes (sym symbol index, bid double, ts timestamp) timestamp(ts) partition by DAY", sqlExecutionContext);
+            compiler.compile(
+                    "insert into quotes select * from (" +
+                            "select rnd_symbol('A', 'B', 'C', null) sym, rnd_double() bid, timestamp_sequence(86400000000, 600000000) ts" +
+                            " from long_sequence(1000)" +
+                            ") timestamp(ts)",
+                    sqlExecutionContext
+            );
+            // trades start before first quote, end after last quote and coincide with quotes
+            compiler.compile(
+                    "create table trades as (" +
+                            "select rnd_symbol('A', 'B', 'C', 'D', null) sym, rnd_int() qty, timestamp_sequence(0, 10800000000) ts" +
+                            " from long_sequence(100)" +
+                            ") timestamp(ts) partition by DAY",
+                    sqlExecutionContext
+            );
+
+            assertIndexedJoinMatchesScan("trades t asof join quotes q on sym");
+            assertIndexedJoinMatchesScan("trades t lt join quotes q on sym");
+            assertIndexedJoinMatchesScan("trades t asof join quotes q");
+            assertIndexedJoinMatchesScan("trades t lt join quotes q");
+        });
+    }
+
     @Test
     public void testAsofJoinForSelectWithoutTimestamp() throws Exception {
         final String expected = "tag\thi\tlo\n" +
@@ -102,6 +165,32 @@ public class AsOfJoinTest extends AbstractGriffinTest {
         );
     }
 
+    private static String print(String query) throws SqlException {
+        try (
+                RecordCursorFactory factory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory();
+                RecordCursor cursor = factory.getCursor(sqlExecutionContext)
+        ) {
+            sink.clear();
+            printer.print(cursor, factory.getMetadata(), true);
+            return sink.toString();
+        }
+    }
+
+    private static void assertIndexedJoinMatchesScan(String query) throws SqlException {
+        final String expected;
+        compiler.setFullSatJoins(true);
+        try {
+            expected = print(query);
+        } finally {
+            compiler.setFullSatJoins(false);
+        }
+
+        try (RecordCursorFactory factory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory()) {
+            assertCursor(expected, factory, false, true);
+        }
+        TestUtils.assertContains(expected, "\tNaN\t");
+    }
+
     @Test
     public void testLtJoinForSelectWithoutTimestampAndWithWhereStatement() throws Exception {
         final String expected = "hi\tlo\n" +
@@ -0,0 +1,370 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.TableWriter;
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import io.questdb.std.LongList;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DedupTest extends AbstractGriffinTest {
+
+    private static final long T0 = 1_577_836_800_000_000L; // 2020-01-01T00:00:00.000000Z
+
+    @Test
+    public void testColumnarAppendNotSupported() throws Exception {
+        assertMemoryLeak(() -> {
+            createX();
+            try (TableWriter writer = getWriter()) {
+                writer.appendColumns(0, new LongList(), new LongList());
+                Assert.fail();
+            } catch (CairoException e) {
+                TestUtils.assertContains(e.getFlyweightMessage(), "Columnar append is not supported");
+            }
+        });
+    }
+
+    @Test
+    public void testCreateTableAsSelect() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table y as (select cast(x as symbol) sym, x, timestamp_sequence(0, 1000000) ts from long_sequence(3)) timestamp(ts) dedup keys(ts, sym)", sqlExecutionContext);
+            try (TableWriter writer = engine.getWriter(AllowAllCairoSecurityContext.INSTANCE, "y")) {
+                append(writer, 2_000_000, "3", 10);
+                append(writer, 3_000_000, "3", 11);
+                writer.commit();
+                Assert.assertEquals(1, writer.getDedupRowCount());
+            }
+            assertQuery(
+                    "sym\tx\tts\n" +
+                            "1\t1\t1970-01-01T00:00:00.000000Z\n" +
+                            "2\t2\t1970-01-01T00:00:01.000000Z\n" +
+                            "3\t3\t1970-01-01T00:00:02.000000Z\n" +
+                            "3\t11\t1970-01-01T00:00:03.000000Z\n",
+                    "y",
+                    "ts",
+                    true
+            );
+        });
+    }
+
+    @Test
+    public void testCreateTableAsSelectNotSymbol() throws Exception {
+        assertFailure(
+                "create table y as (select x, timestamp_sequence(0, 1000000) ts from long_sequence(3)) timestamp(ts) dedup keys(ts, x)",
+                null,
+                115,
+                "dedup key must be designated timestamp or SYMBOL column"
+        );
+    }
+
+    @Test
+    public void testDuplicateAfterReopen() throws Exception {
+        assertMemoryLeak(() -> {
+            createX();
+            try (TableWriter writer = getWriter()) {
+                append(writer, T0, "a", 1);
+                append(writer, T0 + 1000, "b", 2);
+                writer.commit();
+            }
+            engine.releaseAllWriters();
+
+            try (TableWriter writer = getWriter()) {
+                append(writer, T0, "a", 3);
+                append(writer, T0 + 1000, "b", 4);
+                append(writer, T0 + 2000, "a", 5);
+                writer.commit();
+                Assert.assertEquals(2, writer.getDedupRowCount());
+            }
+            assertX(
+                    "sym\tv\tts\n" +
+                            "a\t1\t2020-01-01T00:00:00.000000Z\n" +
+                            "b\t2\t2020-01-01T00:00:00.001000Z\n" +
+                            "a\t5\t2020-01-01T00:00:00.002000Z\n"
+            );
+        });
+    }
+
+    @Test
+    public void testDuplicateInPreviousPartitionAfterReopen() throws Exception {
+        assertMemoryLeak(() -> {
+            createX();
+            try (TableWriter writer = getWriter()) {
+                // dedup window reaches back into previous day
+                append(writer, T0 - 1000, "a", 1);
+                append(writer, T0 + 1000, "b", 2);
+                writer.commit();
+            }
+            engine.releaseAllWriters();
+
+            try (TableWriter writer = getWriter()) {
+                append(writer, T0 - 1000, "a", 3);
+                append(writer, T0 + 2000, "a", 4);
+                writer.commit();
+                Assert.assertEquals(1, writer.getDedupRowCount());
+            }
+            assertX(
+                    "sym\tv\tts\n" +
+                            "a\t1\t2019-12-31T23:59:59.999000Z\n" +
+                            "b\t2\t2020-01-01T00:00:00.001000Z\n" +
+                            "a\t4\t2020-01-01T00:00:00.002000Z\n"
+            );
+        });
+    }
+
+    @Test
+    public void testDuplicateInBatch() throws Exception {
+        assertMemoryLeak(() -> {
+            createX();
+            try (TableWriter writer = getWriter()) {
+                append(writer, T0, "a", 1);
+                append(writer, T0, "a", 2);
+                append(writer, T0, "b", 3);
+                append(writer, T0, null, 4);
+                append(writer, T0, null, 5);
+                append(writer, T0 + 1000, "a", 6);
+                writer.commit();
+                Assert.assertEquals(2, writer.getDedupRowCount());
+            }
+            assertX(
+                    "sym\tv\tts\n" +
+                            "a\t1\t2020-01-01T00:00:00.000000Z\n" +
+                            "b\t3\t2020-01-01T00:00:00.000000Z\n" +
+                            "\t4\t2020-01-01T00:00:00.000000Z\n" +
+                            "a\t6\t2020-01-01T00:00:00.001000Z\n"
+            );
+        });
+    }
+
+    @Test
+    public void testDuplicateInsert() throws Exception {
+        assertMemoryLeak(() -> {
+            createX();
+            executeInsert("insert into x values('a', 1, to_timestamp('2020-01-01T00:00:00', 'yyyy-MM-ddTHH:mm:ss'))");
+            executeInsert("insert into x values('a', 2, to_timestamp('2020-01-01T00:00:00', 'yyyy-MM-ddTHH:mm:ss'))");
+            executeInsert("insert into x values('b', 3, to_timestamp('2020-01-01T00:00:00', 'yyyy-MM-ddTHH:mm:ss'))");
+            assertX(
+                    "sym\tv\tts\n" +
+                            "a\t1\t2020-01-01T00:00:00.000000Z\n" +
+                            "b\t3\t2020-01-01T00:00:00.000000Z\n"
+            );
+        });
+    }
+
+    @Test
+    public void testInsertAsSelectSameLayout() throws Exception {
+        assertMemoryLeak(() -> {
+            createX();
+            // layout of y matches x, which would otherwise copy page frames
+            compiler.compile(
+                    "create table y as (" +
+                            "select cast(case when x < 3 then 'a' else 'b' end as symbol) sym," +
+                            " cast(x as int) v," +
+                            " cast(1577836800000000 + (x / 3) * 1000 as timestamp) ts" +
+                            " from long_sequence(3)" +
+                            ") timestamp(ts) partition by DAY",
+                    sqlExecutionContext
+            );
+            compiler.compile("insert into x select * from y", sqlExecutionContext);
+            assertX(
+                    "sym\tv\tts\n" +
+                            "a\t1\t2020-01-01T00:00:00.000000Z\n" +
+                            "b\t3\t2020-01-01T00:00:00.001000Z\n"
+            );
+        });
+    }
+
+    @Test
+    public void testLateDuplicate() throws Exception {
+        assertMemoryLeak(() -> {
+            createX();
+            try (TableWriter writer = getWriter()) {
+                append(writer, T0, "a", 1);
+                append(writer, T0 + 10_000_000, "b", 2);
+                writer.commit();
+                // retried row arriving after newer rows
+                append(writer, T0, "a", 3);
+                append(writer, T0 + 20_000_000, "a", 4);
+                writer.commit();
+                Assert.assertEquals(1, writer.getDedupRowCount());
+            }
+            assertX(
+                    "sym\tv\tts\n" +
+                            "a\t1\t2020-01-01T00:00:00.000000Z\n" +
+                            "b\t2\t2020-01-01T00:00:10.000000Z\n" +
+                            "a\t4\t2020-01-01T00:00:20.000000Z\n"
+            );
+        });
+    }
+
+    @Test
+    public void testLateRowNotDuplicate() throws Exception {
+        assertMemoryLeak(() -> {
+            createX();
+            try (TableWriter writer = getWriter()) {
+                append(writer, T0 + 10_000_000, "a", 1);
+                try {
+                    append(writer, T0, "a", 2);
+                    Assert.fail();
+                } catch (CairoException e) {
+                    TestUtils.assertContains(e.getFlyweightMessage(), "Cannot insert rows out of order");
+                }
+                append(writer, T0 + 20_000_000, "a", 3);
+                writer.commit();
+            }
+            assertX(
+                    "sym\tv\tts\n" +
+                            "a\t1\t2020-01-01T00:00:10.000000Z\n" +
+                            "a\t3\t2020-01-01T00:00:20.000000Z\n"
+            );
+        });
+    }
+
+    @Test
+    public void testLateRowOutsideWindow() throws Exception {
+        assertMemoryLeak(() -> {
+            createX();
+            try (TableWriter writer = getWriter()) {
+                append(writer, T0, "a", 1);
+                append(writer, T0 + 3600_000_000L, "a", 2);
+                try {
+                    writer.newRow(T0);
+                    Assert.fail();
+                } catch (CairoException e) {
+                    TestUtils.assertContains(e.getFlyweightMessage(), "Cannot insert rows out of order");
+                }
+                writer.commit();
+            }
+            assertX(
+                    "sym\tv\tts\n" +
+                            "a\t1\t2020-01-01T00:00:00.000000Z\n" +
+                            "a\t2\t2020-01-01T01:00:00.000000Z\n"
+            );
+        });
+    }
+
+    @Test
+    public void testNoDesignatedTimestamp() throws Exception {
+        assertFailure(
+                "create table x (sym symbol, ts timestamp) dedup keys(sym)",
+                null,
+                42,
+                "dedup keys require designated timestamp"
+        );
+    }
+
+    @Test
+    public void testNotSymbol() throws Exception {
+        assertFailure(
+                "create table x (sym symbol, v int, ts timestamp) timestamp(ts) dedup keys(ts, v)",
+                null,
+                78,
+                "dedup key must be designated timestamp or SYMBOL column"
+        );
+    }
+
+    @Test
+    public void testRemoveKeyColumn() throws Exception {
+        assertMemoryLeak(() -> {
+            createX();
+            try {
+                compiler.compile("alter table x drop column sym", sqlExecutionContext);
+                Assert.fail();
+            } catch (SqlException e) {
+                TestUtils.assertContains(e.getFlyweightMessage(), "cannot drop column");
+            }
+
+            compiler.compile("alter table x drop column v", sqlExecutionContext);
+            executeInsert("insert into x values('a', to_timestamp('2020-01-01T00:00:00', 'yyyy-MM-ddTHH:mm:ss'))");
+            executeInsert("insert into x values('a', to_timestamp('2020-01-01T00:00:00', 'yyyy-MM-ddTHH:mm:ss'))");
+            assertX(
+                    "sym\tts\n" +
+                            "a\t2020-01-01T00:00:00.000000Z\n"
+            );
+        });
+    }
+
+    @Test
+    public void testRollback() throws Exception {
+        assertMemoryLeak(() -> {
+            createX();
+            try (TableWriter writer = getWriter()) {
+                append(writer, T0, "a", 1);
+                writer.commit();
+                append(writer, T0 + 1000, "a", 2);
+                writer.rollback();
+                append(writer, T0 + 1000, "a", 3);
+                append(writer, T0 + 1000, "a", 4);
+                writer.commit();
+            }
+            assertX(
+                    "sym\tv\tts\n" +
+                            "a\t1\t2020-01-01T00:00:00.000000Z\n" +
+                            "a\t3\t2020-01-01T00:00:00.001000Z\n"
+            );
+        });
+    }
+
+    @Test
+    public void testTimestampNotKey() throws Exception {
+        assertFailure(
+                "create table x (sym symbol, ts timestamp) timestamp(ts) dedup keys(sym)",
+                null,
+                56,
+                "dedup keys must include designated timestamp"
+        );
+    }
+
+    @Test
+    public void testUnknownColumn() throws Exception {
+        assertFailure(
+                "create table x (sym symbol, ts timestamp) timestamp(ts) dedup keys(ts, z)",
+                null,
+                71,
+                "Invalid column"
+        );
+    }
+
+    private static void append(TableWriter writer, long timestamp, CharSequence sym, int v) {
+        TableWriter.Row r = writer.newRow(timestamp);
+        r.putSym(0, sym);
+        r.putInt(1, v);
+        r.append();
+    }
+
+    private static void createX() throws SqlException {
+        compiler.compile("create table x (sym symbol, v int, ts timestamp) timestamp(ts) partition by DAY dedup keys(ts, sym)", sqlExecutionContext);
+    }
+
+    private static TableWriter getWriter() {
+        return engine.getWriter(AllowAllCairoSecurityContext.INSTANCE, "x");
+    }
+
+    private void assertX(String expected) throws SqlException {
+        assertQuery(expected, "x", "ts", true);
+    }
+}
@@ -0,0 +1,202 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+package io.questdb.griffin;
+
+import io.questdb.cairo.*;
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import io.questdb.cairo.sql.RowCursor;
+import io.questdb.std.str.Path;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class DeferredIndexingTest extends AbstractGriffinTest {
+
+    @BeforeClass
+    public static void setUp3() {
+        engine.close();
+        compiler.close();
+        configuration = new DefaultCairoConfiguration(root) {
+            @Override
+            public boolean isDeferredIndexingEnabled() {
+                return true;
+            }
+        };
+        engine = new CairoEngine(configuration, messageBus);
+        compiler = new SqlCompiler(engine);
+        sqlExecutionContext = new SqlExecutionContextImpl(messageBus, 1, engine)
+                .with(AllowAllCairoSecurityContext.INSTANCE, bindVariableService, null, -1, null);
+    }
+
+    @Test
+    public void testFilterReadsUnIndexedRows() throws Exception {
+        assertMemoryLeak(() -> {
+            createX();
+            appendRows(0, "a", "b", "c", "c", "b", "a");
+            assertQuery(
+                    "sym\tv\tts\n" +
+                            "a\t1\t1970-01-01T00:00:00.000000Z\n" +
+                            "a\t6\t1970-01-01T05:00:00.000000Z\n",
+                    "x where sym = 'a'",
+                    "ts",
+                    true
+            );
+
+            appendRows(6, "d", "c", "b", "a");
+            assertQuery(
+                    "sym\tv\tts\n" +
+                            "a\t1\t1970-01-01T00:00:00.000000Z\n" +
+                            "a\t6\t1970-01-01T05:00:00.000000Z\n" +
+                            "a\t10\t1970-01-01T09:00:00.000000Z\n",
+                    "x where sym = 'a'",
+                    "ts",
+                    true
+            );
+            assertQuery(
+                    "sym\tv\tts\n" +
+                            "d\t7\t1970-01-01T06:00:00.000000Z\n",
+                    "x where sym = 'd'",
+                    "ts",
+                    true
+            );
+        });
+    }
+
+    @Test
+    public void testIndexerJobCatchesUp() throws Exception {
+        assertMemoryLeak(() -> {
+            createX();
+            appendRows(0, "a", "b", "c", "c", "b", "a");
+            Assert.assertEquals(0, countIndexedRows("a"));
+
+            // queue may hold tasks of earlier tests, which writer indexed by itself
+            final ColumnIndexerJob job = new ColumnIndexerJob(messageBus);
+            for (int i = 0, n = messageBus.getIndexerQueue().getCapacity(); i < n; i++) {
+                job.run(0);
+            }
+
+            Assert.assertEquals(2, countIndexedRows("a"));
+            Assert.assertEquals(2, countIndexedRows("c"));
+
+            assertQuery(
+                    "sym\tv\tts\n" +
+                            "c\t3\t1970-01-01T02:00:00.000000Z\n" +
+                            "c\t4\t1970-01-01T03:00:00.000000Z\n",
+                    "x where sym = 'c'",
+                    "ts",
+                    true
+            );
+        });
+    }
+
+    @Test
+    public void testLatestByReadsUnIndexedRows() throws Exception {
+        assertMemoryLeak(() -> {
+            createX();
+            appendRows(0, "a", "b", "c", "c", "b", "a");
+            assertQuery(
+                    "sym\tv\tts\n" +
+                            "c\t4\t1970-01-01T03:00:00.000000Z\n" +
+                            "b\t5\t1970-01-01T04:00:00.000000Z\n" +
+                            "a\t6\t1970-01-01T05:00:00.000000Z\n",
+                    "x latest by sym",
+                    "ts",
+                    true
+            );
+
+            // second commit indexes rows of the first one and defers its own
+            appendRows(6, "d", "c", "b", "a");
+            Assert.assertEquals(2, countIndexedRows("a"));
+            Assert.assertEquals(0, countIndexedRows("d"));
+            assertQuery(
+                    "sym\tv\tts\n" +
+                            "d\t7\t1970-01-01T06:00:00.000000Z\n" +
+                            "c\t8\t1970-01-01T07:00:00.000000Z\n" +
+                            "b\t9\t1970-01-01T08:00:00.000000Z\n" +
+                            "a\t10\t1970-01-01T09:00:00.000000Z\n",
+                    "x latest by sym",
+                    "ts",
+                    true
+            );
+        });
+    }
+
+    @Test
+    public void testWriterCatchesUpIndexOnOpen() throws Exception {
+        assertMemoryLeak(() -> {
+            createX();
+            appendRows(0, "a", "b", "c", "c", "b", "a");
+            engine.releaseAllWriters();
+            Assert.assertEquals(2, countIndexedRows("a"));
+
+            // leave index behind the way writer, which did not get to finish deferred indexing, would
+            try (Path path = new Path().of(configuration.getRoot()).concat("x").concat("1970-01-01")) {
+                try (BitmapIndexWriter writer = new BitmapIndexWriter(configuration, path, "sym")) {
+                    writer.rollbackValues(2);
+                    Assert.assertEquals(3, writer.getIndexedRowCount());
+                }
+            }
+            Assert.assertEquals(1, countIndexedRows("a"));
+
+            try (TableWriter ignored = engine.getWriter(AllowAllCairoSecurityContext.INSTANCE, "x")) {
+                Assert.assertEquals(2, countIndexedRows("a"));
+                Assert.assertEquals(2, countIndexedRows("b"));
+            }
+        });
+    }
+
+    private static void appendRows(int offset, String... symbols) {
+        try (TableWriter writer = engine.getWriter(AllowAllCairoSecurityContext.INSTANCE, "x")) {
+            for (int i = 0; i < symbols.length; i++) {
+                TableWriter.Row row = writer.newRow((offset + i) * 3_600_000_000L);
+                row.putSym(0, symbols[i]);
+                row.putInt(1, offset + i + 1);
+                row.append();
+            }
+            writer.commit();
+        }
+    }
+
+    private static int countIndexedRows(String symbol) {
+        try (
+                TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, "x");
+                Path path = new Path().of(configuration.getRoot()).concat("x").concat("1970-01-01")
+        ) {
+            final int key = TableUtils.toIndexKey(reader.getSymbolMapReader(0).keyOf(symbol));
+            try (BitmapIndexFwdReader indexReader = new BitmapIndexFwdReader(configuration, path, "sym", 0)) {
+                final RowCursor cursor = indexReader.getCursor(true, key, 0, Long.MAX_VALUE);
+                int count = 0;
+                while (cursor.hasNext()) {
+                    cursor.next();
+                    count++;
+                }
+                return count;
+            }
+        }
+    }
+
+    private static void createX() throws SqlException {
+        compiler.compile("create table x (sym symbol index, v int, ts timestamp) timestamp(ts) partition by DAY", sqlExecutionContext);
+    }
+}
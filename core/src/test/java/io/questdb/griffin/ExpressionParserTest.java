@@ -468,6 +468,11 @@ public class ExpressionParserTest extends AbstractCairoTest {
         x("abcin", "a in (b,c)");
     }
 
+    @Test
+    public void testLike() throws Exception {
+        x("a'b%'likes'%d'ilikeand", "a like 'b%' and s ilike '%d'");
+    }
+
     @Test
     public void testLambdaInOperator() throws SqlException {
         x("1(select-choose a, b, c from (x))+", "1 + (select a,b,c from x)");
@@ -26,9 +26,19 @@ package io.questdb.griffin;
 
 import io.questdb.cairo.TableWriter;
 import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import io.questdb.cairo.sql.Function;
 import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.engine.functions.BinaryFunction;
 import io.questdb.griffin.engine.functions.rnd.SharedRandom;
+import io.questdb.griffin.engine.join.HashJoinJob;
+import io.questdb.griffin.engine.join.HashJoinLightRecordCursorFactory;
+import io.questdb.griffin.engine.join.JoinKeyBloomFilterFunction;
+import io.questdb.griffin.engine.join.ParallelHashJoinRecordCursorFactory;
+import io.questdb.griffin.engine.table.DataFrameRecordCursorFactory;
+import io.questdb.griffin.engine.table.SelectedRecordCursorFactory;
+import io.questdb.mp.SOCountDownLatch;
+import io.questdb.mp.Sequence;
 import io.questdb.std.Chars;
 import io.questdb.std.Misc;
 import io.questdb.std.Rnd;
@@ -38,6 +48,8 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 public class JoinTest extends AbstractGriffinTest {
     @Before
     public void setUp3() {
@@ -2426,6 +2438,69 @@ public class JoinTest extends AbstractGriffinTest {
         testFullFat(this::testJoinInnerNoSlaveRecords);
     }
 
+    @Test
+    public void testJoinInnerKeyBloomFilter() throws Exception {
+        assertMemoryLeak(() -> {
+            // only few fact keys match dimension, bloom filter pushed down to fact scan rejects the rest
+            final String expected = "x\tk\tname\n" +
+                    "20\t20\ta\n" +
+                    "30\t30\tb\n" +
+                    "60\t10\ta\n" +
+                    "70\t20\ta\n" +
+                    "80\t30\tb\n";
+
+            compiler.compile("create table d as (select cast(x * 10 as int) k, rnd_symbol('a', 'b', 'c') name from long_sequence(3))", sqlExecutionContext);
+            compiler.compile("create table f as (select x, cast(x % 50 as int) k, rnd_str('x', 'y', null) s from long_sequence(100))", sqlExecutionContext);
+
+            assertQuery(expected, "select f.x, f.k, d.name from f join d on (k) where f.x > 15", null, false);
+            assertQuery(
+                    "x\tk\tname\ts\n" +
+                            "20\t20\ta\tx\n" +
+                            "60\t10\ta\tx\n" +
+                            "80\t30\tb\tx\n",
+                    "select f.x, f.k, d.name, f.s from f join d on (k) where f.x > 15 and s = 'x'", null, false);
+        });
+    }
+
+    @Test
+    public void testJoinInnerKeyBloomFilterInlineFilter() throws Exception {
+        assertMemoryLeak(() -> {
+            // where clause over indexed symbol is applied by row cursor of fact scan,
+            // bloom filter must reject records before the rest of the where clause
+            compiler.compile("create table d as (select cast(x * 10 as int) k, rnd_symbol('a', 'b', 'c') name from long_sequence(3))", sqlExecutionContext);
+            compiler.compile("create table f as (select x, cast(x % 500 as int) k, rnd_symbol('x', 'y') s from long_sequence(1000)), index(s)", sqlExecutionContext);
+
+            final String query = "select f.x, f.k, d.name, f.s from f join d on (k) where s = 'x' and x > 0";
+            assertQuery(
+                    "x\tk\tname\ts\n" +
+                            "10\t10\ta\tx\n" +
+                            "20\t20\ta\tx\n" +
+                            "30\t30\tb\tx\n" +
+                            "510\t10\ta\tx\n",
+                    query, null, false);
+
+            try (RecordCursorFactory factory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory()) {
+                final RecordCursorFactory joinFactory = getJoinFactory(factory);
+                Assert.assertTrue(joinFactory instanceof HashJoinLightRecordCursorFactory);
+                final RecordCursorFactory master = ((HashJoinLightRecordCursorFactory) joinFactory).getMasterFactory();
+                Assert.assertTrue(master instanceof DataFrameRecordCursorFactory);
+                final Function filter = ((DataFrameRecordCursorFactory) master).getFilter();
+                Assert.assertTrue(filter instanceof BinaryFunction);
+                Assert.assertTrue(((BinaryFunction) filter).getLeft() instanceof JoinKeyBloomFilterFunction);
+            }
+        });
+    }
+
+    @Test
+    public void testJoinInnerParallel() throws Exception {
+        assertMemoryLeak(() -> {
+            createParallelHashJoinTables();
+            assertParallelHashJoin("select * from x join y on (i)");
+            // column top of slave key
+            assertParallelHashJoin("select * from x join y on x.l = y.k");
+        });
+    }
+
     @Test
     public void testJoinInnerOnSymbol() throws Exception {
         assertMemoryLeak(() -> {
@@ -2671,6 +2746,35 @@ public class JoinTest extends AbstractGriffinTest {
         }));
     }
 
+    @Test
+    public void testJoinInnerOnTimestamp() throws Exception {
+        assertMemoryLeak(() -> {
+            final String expected = "c\td\tts\tts1\n" +
+                    "3\t3\t2018-03-01T00:00:02.000000Z\t2018-03-01T00:00:02.000000Z\n" +
+                    "3\t4\t2018-03-01T00:00:02.000000Z\t2018-03-01T00:00:02.000000Z\n" +
+                    "3\t5\t2018-03-01T00:00:02.000000Z\t2018-03-01T00:00:02.000000Z\n" +
+                    "4\t3\t2018-03-01T00:00:02.000000Z\t2018-03-01T00:00:02.000000Z\n" +
+                    "4\t4\t2018-03-01T00:00:02.000000Z\t2018-03-01T00:00:02.000000Z\n" +
+                    "4\t5\t2018-03-01T00:00:02.000000Z\t2018-03-01T00:00:02.000000Z\n" +
+                    "7\t6\t2018-03-01T00:00:04.000000Z\t2018-03-01T00:00:04.000000Z\n" +
+                    "7\t7\t2018-03-01T00:00:04.000000Z\t2018-03-01T00:00:04.000000Z\n" +
+                    "7\t8\t2018-03-01T00:00:04.000000Z\t2018-03-01T00:00:04.000000Z\n" +
+                    "8\t6\t2018-03-01T00:00:04.000000Z\t2018-03-01T00:00:04.000000Z\n" +
+                    "8\t7\t2018-03-01T00:00:04.000000Z\t2018-03-01T00:00:04.000000Z\n" +
+                    "8\t8\t2018-03-01T00:00:04.000000Z\t2018-03-01T00:00:04.000000Z\n";
+
+            compiler.compile("create table x as (select cast(x as int) c, to_timestamp('2018-03-01', 'yyyy-MM-dd') + ((x + 1) / 2) * 1000000 ts from long_sequence(8)) timestamp(ts)", sqlExecutionContext);
+            compiler.compile("create table y as (select cast(x as int) d, to_timestamp('2018-03-01', 'yyyy-MM-dd') + (x / 3) * 2000000 ts from long_sequence(8)) timestamp(ts)", sqlExecutionContext);
+
+            assertQuery(expected, "select x.c, y.d, x.ts, y.ts from x join y on (ts)", "ts", false);
+        });
+    }
+
+    @Test
+    public void testJoinInnerOnTimestampFF() throws Exception {
+        testFullFat(this::testJoinInnerOnTimestamp);
+    }
+
     @Test
     public void testJoinOuterAllTypes() throws Exception {
         assertMemoryLeak(() -> {
@@ -2841,6 +2945,16 @@ public class JoinTest extends AbstractGriffinTest {
         });
     }
 
+    @Test
+    public void testJoinOuterParallel() throws Exception {
+        assertMemoryLeak(() -> {
+            createParallelHashJoinTables();
+            assertParallelHashJoin("select * from x left join y on (i)");
+            // column top of master key
+            assertParallelHashJoin("select * from y left join x on y.k = x.l");
+        });
+    }
+
     @Test
     public void testJoinOuterNoSlaveRecords() throws Exception {
         assertMemoryLeak(() -> {
@@ -2931,6 +3045,39 @@ public class JoinTest extends AbstractGriffinTest {
         });
     }
 
+    @Test
+    public void testJoinOuterOnTimestamp() throws Exception {
+        assertMemoryLeak(() -> {
+            final String expected = "c\td\tts\tts1\n" +
+                    "1\tNaN\t2018-03-01T00:00:01.000000Z\t\n" +
+                    "2\tNaN\t2018-03-01T00:00:01.000000Z\t\n" +
+                    "3\t3\t2018-03-01T00:00:02.000000Z\t2018-03-01T00:00:02.000000Z\n" +
+                    "3\t4\t2018-03-01T00:00:02.000000Z\t2018-03-01T00:00:02.000000Z\n" +
+                    "3\t5\t2018-03-01T00:00:02.000000Z\t2018-03-01T00:00:02.000000Z\n" +
+                    "4\t3\t2018-03-01T00:00:02.000000Z\t2018-03-01T00:00:02.000000Z\n" +
+                    "4\t4\t2018-03-01T00:00:02.000000Z\t2018-03-01T00:00:02.000000Z\n" +
+                    "4\t5\t2018-03-01T00:00:02.000000Z\t2018-03-01T00:00:02.000000Z\n" +
+                    "5\tNaN\t2018-03-01T00:00:03.000000Z\t\n" +
+                    "6\tNaN\t2018-03-01T00:00:03.000000Z\t\n" +
+                    "7\t6\t2018-03-01T00:00:04.000000Z\t2018-03-01T00:00:04.000000Z\n" +
+                    "7\t7\t2018-03-01T00:00:04.000000Z\t2018-03-01T00:00:04.000000Z\n" +
+                    "7\t8\t2018-03-01T00:00:04.000000Z\t2018-03-01T00:00:04.000000Z\n" +
+                    "8\t6\t2018-03-01T00:00:04.000000Z\t2018-03-01T00:00:04.000000Z\n" +
+                    "8\t7\t2018-03-01T00:00:04.000000Z\t2018-03-01T00:00:04.000000Z\n" +
+                    "8\t8\t2018-03-01T00:00:04.000000Z\t2018-03-01T00:00:04.000000Z\n";
+
+            compiler.compile("create table x as (select cast(x as int) c, to_timestamp('2018-03-01', 'yyyy-MM-dd') + ((x + 1) / 2) * 1000000 ts from long_sequence(8)) timestamp(ts)", sqlExecutionContext);
+            compiler.compile("create table y as (select cast(x as int) d, to_timestamp('2018-03-01', 'yyyy-MM-dd') + (x / 3) * 2000000 ts from long_sequence(8)) timestamp(ts)", sqlExecutionContext);
+
+            assertQuery(expected, "select x.c, y.d, x.ts, y.ts from x outer join y on (ts)", "ts", false);
+        });
+    }
+
+    @Test
+    public void testJoinOuterOnTimestampFF() throws Exception {
+        testFullFat(this::testJoinOuterOnTimestamp);
+    }
+
     @Test
     public void testSpliceCorrectness() throws Exception {
         assertMemoryLeak(() -> {
@@ -3494,6 +3641,87 @@ public class JoinTest extends AbstractGriffinTest {
         testFullFat(this::testTypeMismatch);
     }
 
+    private void assertParallelHashJoin(String query) throws Exception {
+        // expected result comes from single threaded hash join
+        final String expected;
+        try (RecordCursorFactory factory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory()) {
+            Assert.assertFalse(getJoinFactory(factory) instanceof ParallelHashJoinRecordCursorFactory);
+            try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                sink.clear();
+                printer.print(cursor, factory.getMetadata(), true);
+                expected = sink.toString();
+            }
+        }
+
+        final SqlExecutionContext parallelContext = new SqlExecutionContextImpl(messageBus, 4, engine)
+                .with(AllowAllCairoSecurityContext.INSTANCE, bindVariableService, null, -1, null);
+
+        // drain queue, so that tasks other tests might have left there do not interfere
+        final Sequence subSeq = messageBus.getHashJoinSubSequence();
+        while (true) {
+            long cursor = subSeq.next();
+            if (cursor == -1) {
+                break;
+            } else if (cursor > -1) {
+                subSeq.done(cursor);
+            }
+        }
+
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final SOCountDownLatch haltLatch = new SOCountDownLatch(1);
+        final HashJoinJob job = new HashJoinJob(messageBus);
+        new Thread(() -> {
+            while (running.get()) {
+                job.run(0);
+            }
+            haltLatch.countDown();
+        }).start();
+
+        try (RecordCursorFactory factory = compiler.compile(query, parallelContext).getRecordCursorFactory()) {
+            Assert.assertTrue(getJoinFactory(factory) instanceof ParallelHashJoinRecordCursorFactory);
+            try (RecordCursor cursor = factory.getCursor(parallelContext)) {
+                sink.clear();
+                printer.print(cursor, factory.getMetadata(), true);
+                TestUtils.assertEquals(expected, sink);
+
+                cursor.toTop();
+                sink.clear();
+                printer.print(cursor, factory.getMetadata(), true);
+                TestUtils.assertEquals(expected, sink);
+            }
+        } finally {
+            running.set(false);
+            haltLatch.await();
+        }
+    }
+
+    private void createParallelHashJoinTables() throws SqlException {
+        compiler.compile(
+                "create table x as (" +
+                        "select rnd_int(0, 40, 4) i, rnd_symbol('a', 'b', 'c') sym, rnd_long(0, 30, 4) l, timestamp_sequence(0, 3600000000) ts from long_sequence(200)" +
+                        ") timestamp(ts) partition by DAY",
+                sqlExecutionContext
+        );
+        compiler.compile(
+                "create table y as (" +
+                        "select rnd_int(0, 40, 4) i, rnd_str(3, 3, 2) s, timestamp_sequence(0, 1800000000) ts from long_sequence(300)" +
+                        ") timestamp(ts) partition by DAY",
+                sqlExecutionContext
+        );
+        compiler.compile("alter table y add column k long", sqlExecutionContext);
+        compiler.compile(
+                "insert into y select rnd_int(0, 40, 4) i, rnd_str(3, 3, 2) s, timestamp_sequence(540000000000, 1800000000) ts, rnd_long(0, 30, 4) k from long_sequence(100)",
+                sqlExecutionContext
+        );
+    }
+
+    private static RecordCursorFactory getJoinFactory(RecordCursorFactory factory) {
+        if (factory instanceof SelectedRecordCursorFactory) {
+            return ((SelectedRecordCursorFactory) factory).getBaseFactory();
+        }
+        return factory;
+    }
+
     private void testFullFat(TestMethod method) throws Exception {
         compiler.setFullSatJoins(true);
         try {
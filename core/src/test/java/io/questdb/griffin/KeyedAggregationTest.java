@@ -24,14 +24,24 @@
 
 package io.questdb.griffin;
 
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
 import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.cairo.sql.RecordCursorFactory;
 import io.questdb.griffin.engine.functions.rnd.SharedRandom;
+import io.questdb.griffin.engine.groupby.vect.GroupByMultiKeyVectorRecordCursorFactory;
+import io.questdb.griffin.engine.groupby.vect.GroupByNotKeyedJob;
+import io.questdb.mp.SOCountDownLatch;
+import io.questdb.mp.Sequence;
+import io.questdb.std.MemoryTag;
 import io.questdb.std.Rnd;
+import io.questdb.std.Unsafe;
 import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 public class KeyedAggregationTest extends AbstractGriffinTest {
     @Before
     public void setUp3() {
@@ -865,4 +875,158 @@ public class KeyedAggregationTest extends AbstractGriffinTest {
             }
         });
     }
+
+    @Test
+    public void testMultiKeyHourSymbol() throws Exception {
+        assertMultiKey(
+                "select s, hour(ts) h, count(), sum(l), max(d) from tab order by s, h",
+                "select s, hour(ts) h, count(), sum(l + 0), max(d + 0) from tab order by s, h",
+                "select s, hour(ts), sum(l) from tab",
+                "create table tab as (select rnd_symbol('a','b','c', null) s, rnd_long(0, 1000, 2) l, rnd_double(2) d, timestamp_sequence(0, 1000000) ts from long_sequence(200000)) timestamp(ts) partition by DAY"
+        );
+    }
+
+    @Test
+    public void testMultiKeyLongTimestamp() throws Exception {
+        assertMultiKey(
+                "select k, t, count(), min(i), max(l), sum(d) from tab order by k, t",
+                "select k, t, count(), min(i + 0), max(l + 0), sum(d + 0) from tab order by k, t",
+                "select k, t, min(i) from tab",
+                "create table tab as (select x % 7 k, cast((x % 3) * 1000000 as timestamp) t, rnd_int(0, 100, 2) i, rnd_long(-100, 100, 2) l, rnd_double(2) d from long_sequence(100000))"
+        );
+    }
+
+    @Test
+    public void testMultiKeySymbolInt() throws Exception {
+        assertMultiKey(
+                "select s, i, count(), sum(l), min(d), max(i2), avg(i2), avg(d) from tab order by s, i",
+                "select s, i, count(), sum(l + 0), min(d + 0), max(i2 + 0), avg(i2 + 0), avg(d + 0) from tab order by s, i",
+                "select i, s, sum(l) from tab",
+                "create table tab as (select rnd_symbol('a','b','c', null) s, rnd_int(0, 5, 2) i, rnd_long(0, 1000, 2) l, rnd_double(2) d, rnd_int(-10, 10, 0) i2 from long_sequence(100000))"
+        );
+    }
+
+    @Test
+    public void testFirstLastSingleKey() throws Exception {
+        assertMultiKey(
+                "select s, first(i), last(l), first_not_null(d), last_not_null(i), first(ts), last(dt) from tab order by s",
+                "select s, first(i + 0), last(l + 0), first_not_null(d + 0), last_not_null(i + 0), first(cast(ts as timestamp)), last(cast(dt as date)) from tab order by s",
+                "select s, first(i), last(d) from tab",
+                "create table tab as (select rnd_symbol('a','b','c', null) s, rnd_int(0, 100, 2) i, rnd_long(0, 1000, 2) l, rnd_double(2) d, rnd_date(to_date('2015', 'yyyy'), to_date('2016', 'yyyy'), 2) dt, timestamp_sequence(0, 3600000000) ts from long_sequence(10000)) timestamp(ts) partition by DAY"
+        );
+    }
+
+    @Test
+    public void testFirstLastMultiKey() throws Exception {
+        assertMultiKey(
+                "select s, i, first(l), last(d), first_not_null(d), last_not_null(l) from tab order by s, i",
+                "select s, i, first(l + 0), last(d + 0), first_not_null(d + 0), last_not_null(l + 0) from tab order by s, i",
+                "select s, i, last(l) from tab",
+                "create table tab as (select rnd_symbol('a','b','c', null) s, rnd_int(0, 5, 2) i, rnd_long(0, 1000, 2) l, rnd_double(2) d, timestamp_sequence(0, 3600000000) ts from long_sequence(10000)) timestamp(ts) partition by DAY"
+        );
+    }
+
+    @Test
+    public void testMultiKeyMapsAllocatedOnDemand() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table tab as (select rnd_symbol('a','b','c') s, x % 3 l, rnd_int(0, 100, 0) i from long_sequence(1000))", sqlExecutionContext);
+            compiler.compile("create table empty as (select * from tab where 1 = 0)", sqlExecutionContext);
+
+            final long memUsed = Unsafe.getMemUsedByTag(MemoryTag.NATIVE_MAP);
+            try (RecordCursorFactory factory = compiler.compile("select s, l, sum(i) from tab", sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertTrue(factory instanceof GroupByMultiKeyVectorRecordCursorFactory);
+                // maps are not allocated until workers aggregate frames
+                Assert.assertTrue(Unsafe.getMemUsedByTag(MemoryTag.NATIVE_MAP) - memUsed < 1024 * 1024);
+
+                // re-running the factory reuses maps it has created
+                String expected = null;
+                for (int i = 0; i < 2; i++) {
+                    try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                        sink.clear();
+                        printer.print(cursor, factory.getMetadata(), true);
+                    }
+                    if (expected == null) {
+                        expected = sink.toString();
+                    } else {
+                        TestUtils.assertEquals(expected, sink);
+                    }
+                }
+                // 1000 rows cannot have more keys than rows, maps are sized accordingly
+                Assert.assertTrue(Unsafe.getMemUsedByTag(MemoryTag.NATIVE_MAP) - memUsed < 1024 * 1024);
+            }
+
+            try (RecordCursorFactory factory = compiler.compile("select s, l, sum(i) from empty", sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertTrue(factory instanceof GroupByMultiKeyVectorRecordCursorFactory);
+                try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                    Assert.assertFalse(cursor.hasNext());
+                }
+            }
+        });
+    }
+
+    private void assertMultiKey(String query, String referenceQuery, String vectorQuery, String ddl) throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile(ddl, sqlExecutionContext);
+
+            try (RecordCursorFactory factory = compiler.compile(vectorQuery, sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertTrue(factory instanceof GroupByMultiKeyVectorRecordCursorFactory);
+            }
+
+            // reference result comes from map based group by
+            final String expected;
+            try (
+                    RecordCursorFactory factory = compiler.compile(referenceQuery, sqlExecutionContext).getRecordCursorFactory();
+                    RecordCursor cursor = factory.getCursor(sqlExecutionContext)
+            ) {
+                sink.clear();
+                printer.print(cursor, factory.getMetadata(), true);
+                expected = sink.toString();
+            }
+
+            try (
+                    RecordCursorFactory factory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory();
+                    RecordCursor cursor = factory.getCursor(sqlExecutionContext)
+            ) {
+                sink.clear();
+                printer.print(cursor, factory.getMetadata(), true);
+                TestUtils.assertEquals(expected, sink);
+            }
+
+            // drain queue, so that tasks other tests might have left there do not interfere
+            final Sequence subSeq = messageBus.getVectorAggregateSubSequence();
+            while (true) {
+                long cursor = subSeq.next();
+                if (cursor == -1) {
+                    break;
+                } else if (cursor > -1) {
+                    subSeq.done(cursor);
+                }
+            }
+
+            final SqlExecutionContext parallelContext = new SqlExecutionContextImpl(messageBus, 2, engine)
+                    .with(AllowAllCairoSecurityContext.INSTANCE, bindVariableService, null, -1, null);
+            final AtomicBoolean running = new AtomicBoolean(true);
+            final SOCountDownLatch haltLatch = new SOCountDownLatch(1);
+            final GroupByNotKeyedJob job = new GroupByNotKeyedJob(messageBus);
+            new Thread(() -> {
+                while (running.get()) {
+                    // query thread aggregates as worker 0
+                    job.run(1);
+                }
+                haltLatch.countDown();
+            }).start();
+
+            try (
+                    RecordCursorFactory factory = compiler.compile(query, parallelContext).getRecordCursorFactory();
+                    RecordCursor cursor = factory.getCursor(parallelContext)
+            ) {
+                sink.clear();
+                printer.print(cursor, factory.getMetadata(), true);
+                TestUtils.assertEquals(expected, sink);
+            } finally {
+                running.set(false);
+                haltLatch.await();
+            }
+        });
+    }
 }
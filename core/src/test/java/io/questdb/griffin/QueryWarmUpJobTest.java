@@ -0,0 +1,106 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+package io.questdb.griffin;
+
+import io.questdb.cairo.TableUtils;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.std.Chars;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.std.str.Path;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class QueryWarmUpJobTest extends AbstractGriffinTest {
+
+    @Test
+    public void testCompileSavedQueries() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x as (select x i from long_sequence(5))", sqlExecutionContext);
+
+            final ObjList<String> queries = QueryWarmUpJob.parseQueries(
+                    "select * from x where i > 3; drop table x; create table y (a int); x where i = 1; select * from z; ;"
+            );
+            final ObjList<CharSequence> cachedQueries = new ObjList<>();
+            final ObjList<RecordCursorFactory> cachedFactories = new ObjList<>();
+            final QueryWarmUpJob job = new QueryWarmUpJob(engine, messageBus, null, queries, 1, (query, factory) -> {
+                cachedQueries.add(Chars.toString(query));
+                cachedFactories.add(factory);
+            });
+
+            try {
+                Assert.assertTrue(job.run(0));
+                // queries are compiled once
+                Assert.assertFalse(job.run(0));
+
+                Assert.assertEquals(2, cachedFactories.size());
+                TestUtils.assertEquals("select * from x where i > 3", cachedQueries.getQuick(0));
+                TestUtils.assertEquals("x where i = 1", cachedQueries.getQuick(1));
+                assertCursor("i\n4\n5\n", cachedFactories.getQuick(0), true, true);
+                assertCursor("i\n1\n", cachedFactories.getQuick(1), true, true);
+
+                // DDL is not executed
+                try (Path path = new Path()) {
+                    Assert.assertEquals(TableUtils.TABLE_EXISTS, TableUtils.exists(configuration.getFilesFacade(), path, root, "x"));
+                    Assert.assertEquals(TableUtils.TABLE_DOES_NOT_EXIST, TableUtils.exists(configuration.getFilesFacade(), path, root, "y"));
+                }
+            } finally {
+                for (int i = 0, n = cachedFactories.size(); i < n; i++) {
+                    Misc.free(cachedFactories.getQuick(i));
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testCompileSelectRejectsOtherQueries() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x (a int)", sqlExecutionContext);
+            assertCompileSelectFails("truncate table x", "SELECT query expected");
+            assertCompileSelectFails("insert into x values (1)", "SELECT query expected");
+            assertCompileSelectFails("rename table x to y", "SELECT query expected");
+            assertCompileSelectFails("  ", "empty query");
+            try (RecordCursorFactory factory = compiler.compileSelect("x", sqlExecutionContext)) {
+                assertCursor("a\n", factory, true, true);
+            }
+        });
+    }
+
+    @Test
+    public void testParseQueries() {
+        Assert.assertEquals(0, QueryWarmUpJob.parseQueries(null).size());
+        Assert.assertEquals(0, QueryWarmUpJob.parseQueries(" ; ;").size());
+        TestUtils.assertEquals("[x,select * from y where a = 1,z]", QueryWarmUpJob.parseQueries(" x;select * from y where a = 1 ;;\nz").toString());
+    }
+
+    private void assertCompileSelectFails(String query, String message) {
+        try {
+            compiler.compileSelect(query, sqlExecutionContext);
+            Assert.fail();
+        } catch (SqlException e) {
+            TestUtils.assertContains(e.getFlyweightMessage(), message);
+        }
+    }
+}
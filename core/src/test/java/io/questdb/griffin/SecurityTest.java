@@ -28,14 +28,27 @@ import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.CairoEngine;
 import io.questdb.cairo.CairoException;
 import io.questdb.cairo.DefaultCairoConfiguration;
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
 import io.questdb.cairo.security.CairoSecurityContextImpl;
 import io.questdb.cairo.sql.InsertMethod;
 import io.questdb.cairo.sql.InsertStatement;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.engine.LimitOverflowException;
+import io.questdb.griffin.engine.join.HashJoinJob;
+import io.questdb.griffin.engine.join.MergeJoinRecordCursorFactory;
+import io.questdb.griffin.engine.join.ParallelHashJoinRecordCursorFactory;
+import io.questdb.griffin.engine.table.SelectedRecordCursorFactory;
+import io.questdb.mp.SOCountDownLatch;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.MemoryTracker;
+import io.questdb.std.Unsafe;
 import io.questdb.test.tools.TestUtils;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class SecurityTest extends AbstractGriffinTest {
@@ -87,6 +100,12 @@ public class SecurityTest extends AbstractGriffinTest {
             public int getSqlSortLightValueMaxPages() {
                 return 11;
             }
+
+            @Override
+            public boolean isSqlMergeJoinEnabled() {
+                // timestamp joins below exercise hash join limits, merge join limits are tested separately
+                return false;
+            }
         };
         memoryRestrictedEngine = new CairoEngine(readOnlyConfiguration, messageBus);
         SqlExecutionInterruptor dummyInterruptor = () -> {
@@ -797,4 +816,202 @@ public class SecurityTest extends AbstractGriffinTest {
         });
     }
 
+    @Test
+    public void testMemoryRestrictionsWithMergeJoin() throws Exception {
+        assertMemoryLeak(() -> {
+            sqlExecutionContext.getRandom().reset();
+            compiler.compile("create table tb1 as (select" +
+                    " rnd_symbol(4,4,4,20000) sym1," +
+                    " rnd_double(2) d1," +
+                    " timestamp_sequence(0, 1000000000) ts1" +
+                    " from long_sequence(10)) timestamp(ts1)", sqlExecutionContext);
+            compiler.compile("create table tb2 as (select" +
+                    " rnd_symbol(3,3,3,20000) sym2," +
+                    " rnd_double(2) d2," +
+                    " timestamp_sequence(0, 1000000000) ts2" +
+                    " from long_sequence(10)) timestamp(ts2)", sqlExecutionContext);
+
+            // map limits that fail hash join do not apply to merge join, it keeps no join key map
+            final CairoConfiguration restrictedConfiguration = new DefaultCairoConfiguration(root) {
+                @Override
+                public int getSqlMapPageSize() {
+                    return 64;
+                }
+
+                @Override
+                public int getSqlMapMaxResizes() {
+                    return 2;
+                }
+
+                @Override
+                public int getSqlHashJoinLightValuePageSize() {
+                    return 64;
+                }
+
+                @Override
+                public int getSqlHashJoinLightValueMaxPages() {
+                    return 2;
+                }
+            };
+            try (
+                    CairoEngine restrictedEngine = new CairoEngine(restrictedConfiguration, messageBus);
+                    SqlCompiler restrictedCompiler = new SqlCompiler(restrictedEngine, messageBus)
+            ) {
+                final SqlExecutionContext restrictedContext = new SqlExecutionContextImpl(messageBus, 1, restrictedEngine)
+                        .with(AllowAllCairoSecurityContext.INSTANCE, bindVariableService, null, -1, null);
+                try (RecordCursorFactory factory = restrictedCompiler.compile("select sym1, sym2 from tb1 inner join tb2 on tb2.ts2=tb1.ts1 where d1 < 0.3", restrictedContext).getRecordCursorFactory()) {
+                    Assert.assertTrue(((SelectedRecordCursorFactory) factory).getBaseFactory() instanceof MergeJoinRecordCursorFactory);
+                    assertCursor("sym1\tsym2\nVTJW\tFJG\nVTJW\tULO\n", factory, false, true, restrictedContext);
+                }
+                try (RecordCursorFactory factory = restrictedCompiler.compile("select sym1, sym2 from tb1 outer join tb2 on tb2.ts2=tb1.ts1 where d1 < 0.3", restrictedContext).getRecordCursorFactory()) {
+                    Assert.assertTrue(((SelectedRecordCursorFactory) factory).getBaseFactory() instanceof MergeJoinRecordCursorFactory);
+                    assertCursor("sym1\tsym2\nVTJW\tFJG\nVTJW\tULO\n", factory, false, true, restrictedContext);
+                }
+
+                // run of slave rows with the same timestamp is bounded by light hash join value limits
+                compiler.compile("create table tb3 as (select" +
+                        " rnd_symbol(3,3,3,20000) sym3," +
+                        " cast(0 as timestamp) ts3" +
+                        " from long_sequence(20)) timestamp(ts3)", sqlExecutionContext);
+                try (RecordCursorFactory factory = restrictedCompiler.compile("select sym1, sym3 from tb1 inner join tb3 on tb3.ts3=tb1.ts1", restrictedContext).getRecordCursorFactory()) {
+                    Assert.assertTrue(((SelectedRecordCursorFactory) factory).getBaseFactory() instanceof MergeJoinRecordCursorFactory);
+                    try (RecordCursor cursor = factory.getCursor(restrictedContext)) {
+                        cursor.hasNext();
+                        Assert.fail();
+                    } catch (LimitOverflowException ex) {
+                        TestUtils.assertContains(ex.getFlyweightMessage(), "Maximum size of merge join run (16) breached");
+                    }
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testMemoryRestrictionsWithParallelHashJoin() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x as (select rnd_int(0, 1000, 0) i from long_sequence(10000))", sqlExecutionContext);
+            compiler.compile("create table y as (select rnd_int(0, 1000, 0) i from long_sequence(10000))", sqlExecutionContext);
+
+            final CairoConfiguration restrictedConfiguration = new DefaultCairoConfiguration(root) {
+                @Override
+                public int getSqlHashJoinValuePageSize() {
+                    return 1024;
+                }
+
+                @Override
+                public int getSqlHashJoinValueMaxPages() {
+                    return 16;
+                }
+            };
+            try (
+                    CairoEngine restrictedEngine = new CairoEngine(restrictedConfiguration, messageBus);
+                    SqlCompiler restrictedCompiler = new SqlCompiler(restrictedEngine, messageBus)
+            ) {
+                final SqlExecutionContext parallelContext = new SqlExecutionContextImpl(messageBus, 4, restrictedEngine)
+                        .with(AllowAllCairoSecurityContext.INSTANCE, bindVariableService, null, -1, null);
+                try (RecordCursorFactory factory = restrictedCompiler.compile("select * from x join y on (i)", parallelContext).getRecordCursorFactory()) {
+                    Assert.assertTrue(((SelectedRecordCursorFactory) factory).getBaseFactory() instanceof ParallelHashJoinRecordCursorFactory);
+                    try (RecordCursor ignored = factory.getCursor(parallelContext)) {
+                        Assert.fail();
+                    } catch (LimitOverflowException ex) {
+                        TestUtils.assertContains(ex.getFlyweightMessage(), "Maximum size of hash join list (16384) breached");
+                    }
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testQueryMemoryLimit() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table tb1 as (select" +
+                    " rnd_long() k," +
+                    " rnd_double(2) d" +
+                    " from long_sequence(100000))", sqlExecutionContext);
+
+            final long mapMemory = Unsafe.getMemUsedByTag(MemoryTag.NATIVE_MAP);
+            final MemoryTracker tracker = new MemoryTracker();
+            final SqlExecutionContext trackedContext = new SqlExecutionContextImpl(messageBus, 1, engine)
+                    .with(AllowAllCairoSecurityContext.INSTANCE, bindVariableService, null, -1, null)
+                    .with(tracker);
+            try (RecordCursorFactory factory = compiler.compile("select k, sum(d) from tb1", trackedContext).getRecordCursorFactory()) {
+                tracker.of(1024 * 1024);
+                try (RecordCursor ignored = factory.getCursor(trackedContext)) {
+                    Assert.fail();
+                } catch (LimitOverflowException ex) {
+                    TestUtils.assertContains(ex.getFlyweightMessage(), "query memory limit exceeded [limit=1048576");
+                }
+                Assert.assertTrue(tracker.getPeak() <= 1024 * 1024);
+
+                // query that fits into the limit reports its peak memory
+                tracker.of(0);
+                try (RecordCursor cursor = factory.getCursor(trackedContext)) {
+                    long count = 0;
+                    while (cursor.hasNext()) {
+                        count++;
+                    }
+                    Assert.assertEquals(100000, count);
+                }
+                Assert.assertTrue(tracker.getPeak() > 1024 * 1024);
+                Assert.assertTrue(Unsafe.getMemUsedByTag(MemoryTag.NATIVE_MAP) > mapMemory);
+
+                // context without tracker is not accounted, untagged memory is never accounted
+                tracker.of(1);
+                try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                    Assert.assertTrue(cursor.hasNext());
+                }
+                Assert.assertEquals(0, tracker.getPeak());
+            }
+            Assert.assertEquals(mapMemory, Unsafe.getMemUsedByTag(MemoryTag.NATIVE_MAP));
+        });
+    }
+
+    @Test
+    public void testQueryMemoryLimitCountsWorkerAllocations() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x as (select rnd_int(0, 100000, 0) i from long_sequence(100000))", sqlExecutionContext);
+            compiler.compile("create table y as (select rnd_int(0, 100000, 0) i from long_sequence(100000))", sqlExecutionContext);
+
+            // tracker is carried by execution context only, query thread does not bind it
+            final MemoryTracker tracker = new MemoryTracker();
+            final SqlExecutionContext parallelContext = new SqlExecutionContextImpl(messageBus, 4, engine)
+                    .with(AllowAllCairoSecurityContext.INSTANCE, bindVariableService, null, -1, null)
+                    .with(tracker);
+
+            final AtomicBoolean running = new AtomicBoolean(true);
+            final SOCountDownLatch haltLatch = new SOCountDownLatch(1);
+            final HashJoinJob job = new HashJoinJob(messageBus);
+            new Thread(() -> {
+                while (running.get()) {
+                    job.run(0);
+                }
+                haltLatch.countDown();
+            }).start();
+
+            try {
+                try (RecordCursorFactory factory = compiler.compile("select * from x join y on (i)", parallelContext).getRecordCursorFactory()) {
+                    tracker.of(0);
+                    try (RecordCursor cursor = factory.getCursor(parallelContext)) {
+                        while (cursor.hasNext()) {
+                            // consume join output
+                        }
+                    }
+                    Assert.assertTrue(tracker.getPeak() > 1024 * 1024);
+                }
+
+                // join tables are retained by factory, new factory allocates them again
+                try (RecordCursorFactory factory = compiler.compile("select * from x join y on (i)", parallelContext).getRecordCursorFactory()) {
+                    tracker.of(1024 * 1024);
+                    try (RecordCursor ignored = factory.getCursor(parallelContext)) {
+                        Assert.fail();
+                    } catch (LimitOverflowException ex) {
+                        TestUtils.assertContains(ex.getFlyweightMessage(), "query memory limit exceeded [limit=1048576");
+                    }
+                }
+            } finally {
+                running.set(false);
+                haltLatch.await();
+            }
+        });
+    }
 }
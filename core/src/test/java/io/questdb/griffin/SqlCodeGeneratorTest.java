@@ -35,6 +35,7 @@ import io.questdb.mp.Sequence;
 import io.questdb.std.Chars;
 import io.questdb.std.FilesFacade;
 import io.questdb.std.FilesFacadeImpl;
+import io.questdb.std.Misc;
 import io.questdb.std.Rnd;
 import io.questdb.std.str.LPSZ;
 import io.questdb.test.tools.TestUtils;
@@ -3782,6 +3783,28 @@ public class SqlCodeGeneratorTest extends AbstractGriffinTest {
         );
     }
 
+    @Test
+    public void testScanRowEstimate() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x as (select timestamp_sequence(0, 1000000) ts from long_sequence(100)) timestamp(ts) partition by DAY", sqlExecutionContext);
+
+            CompiledQuery cc = compiler.compile("x", sqlExecutionContext);
+            Assert.assertEquals(100, cc.getScanRowEstimate());
+            Misc.free(cc.getRecordCursorFactory());
+
+            cc = compiler.compile("x where ts < '1970-01-01T00:00:25'", sqlExecutionContext);
+            Assert.assertEquals(25, cc.getScanRowEstimate(), 1);
+            Misc.free(cc.getRecordCursorFactory());
+
+            cc = compiler.compile("x a cross join x b", sqlExecutionContext);
+            Assert.assertEquals(200, cc.getScanRowEstimate());
+            Misc.free(cc.getRecordCursorFactory());
+
+            cc = compiler.compile("create table y (a int)", sqlExecutionContext);
+            Assert.assertEquals(0, cc.getScanRowEstimate());
+        });
+    }
+
     @Test
     public void testSelectColumns() throws Exception {
         assertQuery("a\ta1\tb\tc\td\te\tf1\tf\tg\th\ti\tj\tj1\tk\tl\tm\n" +
@@ -2922,6 +2922,52 @@ public class SqlCompilerTest extends AbstractGriffinTest {
         });
     }
 
+    @Test
+    public void testInsertAsSelectPageFrames() throws Exception {
+        final String expected = "s\ti\tts\n" +
+                "C\t0\t1970-01-01T00:00:00.000000Z\n" +
+                "B\t1\t1970-01-01T00:00:00.000001Z\n" +
+                "\t2\t1970-01-01T10:00:00.000001Z\n" +
+                "A\t3\t1970-01-01T20:00:00.000001Z\n" +
+                "B\t4\t1970-01-02T06:00:00.000001Z\n" +
+                "\t5\t1970-01-02T16:00:00.000001Z\n" +
+                "A\t6\t1970-01-03T02:00:00.000001Z\n";
+
+        TestUtils.assertMemoryLeak(() -> {
+            try {
+                compiler.compile("create table src as (" +
+                        "select cast(case when x % 3 = 0 then 'A' when x % 3 = 1 then 'B' end as symbol) s, x i, timestamp_sequence(1, 36000000000) ts" +
+                        " from long_sequence(6)" +
+                        ") timestamp(ts) partition by DAY", sqlExecutionContext);
+                compiler.compile("create table dst (s symbol index, i long, ts timestamp) timestamp(ts) partition by DAY", sqlExecutionContext);
+                compiler.compile("insert into dst select cast('C' as symbol), 0L, cast(0 as timestamp) from long_sequence(1)", sqlExecutionContext);
+
+                // source and target layouts are identical, rows are copied page frame at a time
+                // and symbol keys are re-mapped to those of the target table
+                compiler.compile("insert into dst select * from src", sqlExecutionContext);
+                assertSql("select * from dst", expected);
+
+                assertSql("select * from dst where s = 'B'", "s\ti\tts\n" +
+                        "B\t1\t1970-01-01T00:00:00.000001Z\n" +
+                        "B\t4\t1970-01-02T06:00:00.000001Z\n");
+
+                try {
+                    compiler.compile("insert into dst select * from src", sqlExecutionContext);
+                    Assert.fail();
+                } catch (CairoException e) {
+                    TestUtils.assertContains(e.getMessage(), "Cannot insert rows out of order");
+                }
+                assertSql("select count() from dst", "count\n7\n");
+
+                Assert.assertEquals(0, engine.getBusyReaderCount());
+                Assert.assertEquals(0, engine.getBusyWriterCount());
+            } finally {
+                engine.releaseAllWriters();
+                engine.releaseAllReaders();
+            }
+        });
+    }
+
     @Test
     public void testInsertAsSelectReplaceColumn() throws Exception {
         final String expected = "a\tb\n" +
@@ -3169,6 +3215,16 @@ public class SqlCompilerTest extends AbstractGriffinTest {
         }
     }
 
+    private void assertSql(CharSequence sql, CharSequence expected) throws SqlException {
+        try (RecordCursorFactory factory = compiler.compile(sql, sqlExecutionContext).getRecordCursorFactory()) {
+            sink.clear();
+            try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                printer.print(cursor, factory.getMetadata(), true);
+            }
+            TestUtils.assertEquals(expected, sink);
+        }
+    }
+
     private void assertCastByte(String expectedData, int castTo) throws SqlException {
         String expectedMeta = "{\"columnCount\":1,\"columns\":[{\"index\":0,\"name\":\"a\",\"type\":\"" + ColumnType.nameOf(castTo) + "\"}],\"timestampIndex\":-1}";
 
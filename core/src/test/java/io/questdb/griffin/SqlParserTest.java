@@ -596,6 +596,40 @@ public class SqlParserTest extends AbstractGriffinTest {
         );
     }
 
+    @Test
+    public void testCreateTableDedupKeys() throws SqlException {
+        assertCreateTable(
+                "create table x (s SYMBOL capacity 128 cache, v INT, t TIMESTAMP) timestamp(t) partition by DAY dedup keys(t, s)",
+                "create table x (s symbol, v int, t timestamp) timestamp(t) partition by DAY dedup keys(t, s)"
+        );
+    }
+
+    @Test
+    public void testCreateTableTtl() throws SqlException {
+        assertCreateTable(
+                "create table x (v INT, t TIMESTAMP) timestamp(t) partition by DAY ttl 72 hours",
+                "create table x (v int, t timestamp) timestamp(t) partition by DAY ttl 3 days"
+        );
+    }
+
+    @Test
+    public void testCreateTableTtlNotPartitioned() throws Exception {
+        assertSyntaxError(
+                "create table x (v int, t timestamp) timestamp(t) ttl 3 days",
+                49,
+                "TTL requires partitioned table"
+        );
+    }
+
+    @Test
+    public void testCreateTableDedupKeysDuplicate() throws Exception {
+        assertSyntaxError(
+                "create table x (s symbol, t timestamp) timestamp(t) dedup keys(t, s, t)",
+                69,
+                "duplicate dedup key"
+        );
+    }
+
     @Test
     public void testCreateTableBadColumnDef() throws Exception {
         assertSyntaxError(
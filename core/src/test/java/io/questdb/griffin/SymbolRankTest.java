@@ -0,0 +1,225 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+package io.questdb.griffin;
+
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.DefaultCairoConfiguration;
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class SymbolRankTest extends AbstractGriffinTest {
+
+    @BeforeClass
+    public static void setUp3() {
+        engine.close();
+        compiler.close();
+        configuration = new DefaultCairoConfiguration(root) {
+            @Override
+            public boolean isSymbolRankEnabled() {
+                return true;
+            }
+        };
+        engine = new CairoEngine(configuration, messageBus);
+        compiler = new SqlCompiler(engine);
+        sqlExecutionContext = new SqlExecutionContextImpl(messageBus, 1, engine)
+                .with(AllowAllCairoSecurityContext.INSTANCE, bindVariableService, null, -1, null);
+    }
+
+    @Test
+    public void testOrderBy() throws Exception {
+        assertMemoryLeak(() -> {
+            createX();
+            assertQuery(
+                    "s\ti\n" +
+                            "\t5\n" +
+                            "aardvark\t7\n" +
+                            "alpha\t2\n" +
+                            "bravo\t4\n" +
+                            "bravo\t8\n" +
+                            "charlie\t3\n" +
+                            "delta\t1\n" +
+                            "echo\t6\n",
+                    "x order by s, i",
+                    null,
+                    true
+            );
+        });
+    }
+
+    @Test
+    public void testOrderByDescending() throws Exception {
+        assertMemoryLeak(() -> {
+            createX();
+            assertQuery(
+                    "s\ti\n" +
+                            "echo\t6\n" +
+                            "delta\t1\n" +
+                            "charlie\t3\n" +
+                            "bravo\t8\n" +
+                            "bravo\t4\n" +
+                            "alpha\t2\n" +
+                            "aardvark\t7\n" +
+                            "\t5\n",
+                    "x order by s desc, i desc",
+                    null,
+                    true
+            );
+        });
+    }
+
+    @Test
+    public void testOrderByGroupBy() throws Exception {
+        assertMemoryLeak(() -> {
+            createX();
+            assertQuery(
+                    "s\tcount\n" +
+                            "echo\t1\n" +
+                            "delta\t1\n" +
+                            "charlie\t1\n" +
+                            "bravo\t2\n" +
+                            "alpha\t1\n" +
+                            "aardvark\t1\n" +
+                            "\t1\n",
+                    "select s, count() from x order by s desc",
+                    null,
+                    true
+            );
+        });
+    }
+
+    @Test
+    public void testRanksFollowInserts() throws Exception {
+        assertMemoryLeak(() -> {
+            createX();
+            try (TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, "x")) {
+                Assert.assertTrue(reader.getSymbolMapReader(0).hasRanks());
+                Assert.assertEquals(0, reader.getSymbolMapReader(0).rankOf(reader.getSymbolMapReader(0).keyOf("aardvark")));
+                Assert.assertEquals(5, reader.getSymbolMapReader(0).rankOf(reader.getSymbolMapReader(0).keyOf("echo")));
+
+                executeInsert("insert into x values ('beta', 9)");
+                Assert.assertTrue(reader.reload());
+                Assert.assertTrue(reader.getSymbolMapReader(0).hasRanks());
+                Assert.assertEquals(2, reader.getSymbolMapReader(0).rankOf(reader.getSymbolMapReader(0).keyOf("beta")));
+                Assert.assertEquals(6, reader.getSymbolMapReader(0).rankOf(reader.getSymbolMapReader(0).keyOf("echo")));
+            }
+        });
+    }
+
+    @Test
+    public void testRangeFilterGreater() throws Exception {
+        assertRangeFilter(
+                "s\ti\n" +
+                        "delta\t1\n" +
+                        "charlie\t3\n" +
+                        "echo\t6\n",
+                "s > 'bravo'"
+        );
+    }
+
+    @Test
+    public void testRangeFilterGreaterOrEqual() throws Exception {
+        assertRangeFilter(
+                "s\ti\n" +
+                        "delta\t1\n" +
+                        "charlie\t3\n" +
+                        "bravo\t4\n" +
+                        "echo\t6\n" +
+                        "bravo\t8\n",
+                "s >= 'bravo'"
+        );
+    }
+
+    @Test
+    public void testRangeFilterLess() throws Exception {
+        assertRangeFilter(
+                "s\ti\n" +
+                        "alpha\t2\n" +
+                        "aardvark\t7\n",
+                "s < 'az'"
+        );
+    }
+
+    @Test
+    public void testRangeFilterLessOrEqual() throws Exception {
+        assertRangeFilter(
+                "s\ti\n" +
+                        "alpha\t2\n" +
+                        "bravo\t4\n" +
+                        "aardvark\t7\n" +
+                        "bravo\t8\n",
+                "s <= 'bravo'"
+        );
+    }
+
+    @Test
+    public void testRangeFilterMissingValue() throws Exception {
+        assertRangeFilter(
+                "s\ti\n" +
+                        "delta\t1\n" +
+                        "charlie\t3\n" +
+                        "echo\t6\n",
+                "s > 'bz' and s < 'fox'"
+        );
+    }
+
+    @Test
+    public void testRangeFilterStringColumn() throws Exception {
+        assertMemoryLeak(() -> {
+            createX();
+            compiler.compile("alter table x add column t string", sqlExecutionContext);
+            executeInsert("insert into x values ('alpha', 9, 'bravo')");
+            executeInsert("insert into x values ('delta', 10, 'bravo')");
+            assertQuery(
+                    "s\ti\tt\n" +
+                            "alpha\t9\tbravo\n",
+                    "x where s < t",
+                    null,
+                    true
+            );
+        });
+    }
+
+    private void assertRangeFilter(String expected, String filter) throws Exception {
+        assertMemoryLeak(() -> {
+            createX();
+            assertQuery(expected, "x where " + filter, null, true);
+        });
+    }
+
+    private static void createX() throws SqlException {
+        compiler.compile("create table x (s symbol, i int)", sqlExecutionContext);
+        executeInsert("insert into x values ('delta', 1)");
+        executeInsert("insert into x values ('alpha', 2)");
+        executeInsert("insert into x values ('charlie', 3)");
+        executeInsert("insert into x values ('bravo', 4)");
+        executeInsert("insert into x values (null, 5)");
+        // ranks of existing symbols move when symbols are added in between
+        executeInsert("insert into x values ('echo', 6)");
+        executeInsert("insert into x values ('aardvark', 7)");
+        executeInsert("insert into x values ('bravo', 8)");
+    }
+}
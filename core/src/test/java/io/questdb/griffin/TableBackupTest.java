@@ -34,6 +34,7 @@ import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.cairo.sql.RecordCursorFactory;
 import io.questdb.cutlass.json.JsonException;
 import io.questdb.griffin.engine.functions.bind.BindVariableService;
+import io.questdb.std.Chars;
 import io.questdb.std.Files;
 import io.questdb.std.FilesFacade;
 import io.questdb.std.FilesFacadeImpl;
@@ -48,6 +49,7 @@ import org.junit.*;
 import org.junit.rules.TemporaryFolder;
 
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Properties;
 
 public class TableBackupTest {
@@ -58,6 +60,7 @@ public class TableBackupTest {
     public TemporaryFolder temp = new TemporaryFolder();
 
     private CharSequence backupRoot;
+    private CharSequence coldRoot;
     private Path finalBackupPath;
 
     private CairoConfiguration mainConfiguration;
@@ -67,14 +70,17 @@ public class TableBackupTest {
     private int renameErrno;
     private int mkdirsErrno;
     private int mkdirsErrnoCountDown = 0;
+    private boolean hardLinkDisabled;
 
     @Before
     public void setup() throws IOException, JsonException, ServerConfigurationException {
         finalBackupPath = new Path();
         CharSequence root = temp.newFolder("dbRoot").getAbsolutePath();
         backupRoot = temp.newFolder("dbBackupRoot").getAbsolutePath();
+        coldRoot = temp.newFolder("dbColdRoot").getAbsolutePath();
         mkdirsErrno = -1;
         renameErrno = -1;
+        hardLinkDisabled = false;
         FilesFacade ff = new FilesFacadeImpl() {
             private int nextErrno = -1;
 
@@ -88,6 +94,12 @@ public class TableBackupTest {
                 return super.errno();
             }
 
+            @Override
+            public boolean hardLink(LPSZ src, LPSZ hardLink) {
+                // cold storage is on another volume, files cannot be linked from there
+                return !hardLinkDisabled && !Chars.startsWith(src, coldRoot) && super.hardLink(src, hardLink);
+            }
+
             @Override
             public int mkdirs(LPSZ path, int mode) {
                 if (mkdirsErrno != -1 && --mkdirsErrnoCountDown < 1) {
@@ -120,6 +132,11 @@ public class TableBackupTest {
                 return backupRoot;
             }
 
+            @Override
+            public CharSequence getColdStorageRoot() {
+                return coldRoot;
+            }
+
             @Override
             public TimestampFormat getBackupDirTimestampFormat() {
                 return new DateFormatCompiler().compile("ddMMMyyyy");
@@ -209,6 +226,83 @@ public class TableBackupTest {
         });
     }
 
+    @Test
+    public void testClosedPartitionsAreLinked() throws Exception {
+        assertMemoryLeak(() -> {
+            String tableName = "testTable1";
+            // @formatter:off
+            mainCompiler.compile("create table " + tableName + " as (select" +
+                    " rnd_symbol(4,4,4,2) sym," +
+                    " rnd_double(2) d," +
+                    " timestamp_sequence(0, 3600000000) ts" +
+                    " from long_sequence(100)) timestamp(ts) partition by DAY", mainSqlExecutionContext);
+            // @formatter:on
+
+            mainCompiler.compile("backup table " + tableName, mainSqlExecutionContext);
+            setFinalBackupPath();
+            String backupSelectAll1 = selectAll(tableName, true);
+            Assert.assertEquals(selectAll(tableName, false), backupSelectAll1);
+            Assert.assertEquals(2, getLinkCount(tableName, "1970-01-01"));
+            Assert.assertEquals(2, getLinkCount(tableName, "1970-01-04"));
+            Assert.assertEquals(1, getLinkCount(tableName, "1970-01-05"));
+
+            // @formatter:off
+            mainCompiler.compile("insert into " + tableName +
+                    " select * from (" +
+                    " select rnd_symbol(4,4,4,2) sym, rnd_double(2) d, timestamp_sequence(360000000000, 60000000) ts from long_sequence(5)" +
+                    ") timestamp(ts)", mainSqlExecutionContext);
+            // @formatter:on
+
+            mainCompiler.compile("backup table " + tableName, mainSqlExecutionContext);
+            setFinalBackupPath(1);
+            Assert.assertEquals(selectAll(tableName, false), selectAll(tableName, true));
+            Assert.assertEquals(3, getLinkCount(tableName, "1970-01-01"));
+            Assert.assertEquals(1, getLinkCount(tableName, "1970-01-05"));
+
+            // previous backup must not see rows appended to active partition
+            setFinalBackupPath();
+            Assert.assertEquals(backupSelectAll1, selectAll(tableName, true));
+        });
+    }
+
+    @Test
+    public void testColdPartitionsAreLinkedToPreviousBackup() throws Exception {
+        assertMemoryLeak(() -> {
+            String tableName = "testTable1";
+            // @formatter:off
+            mainCompiler.compile("create table " + tableName + " as (select" +
+                    " rnd_symbol(4,4,4,2) sym," +
+                    " rnd_double(2) d," +
+                    " timestamp_sequence(0, 3600000000) ts" +
+                    " from long_sequence(100)) timestamp(ts) partition by DAY", mainSqlExecutionContext);
+            // @formatter:on
+
+            // move the oldest partition to cold storage
+            try (Path from = new Path(); Path to = new Path()) {
+                to.of(coldRoot).concat(tableName).put(Files.SEPARATOR).$();
+                Assert.assertEquals(0, mainConfiguration.getFilesFacade().mkdirs(to, mainConfiguration.getMkDirMode()));
+                from.of(mainConfiguration.getRoot()).concat(tableName).concat("1970-01-01").$();
+                to.of(coldRoot).concat(tableName).concat("1970-01-01").$();
+                Assert.assertTrue(mainConfiguration.getFilesFacade().rename(from, to));
+            }
+            mainEngine.releaseAllReaders();
+
+            // first backup has nothing to link cold partition to
+            mainCompiler.compile("backup table " + tableName, mainSqlExecutionContext);
+            setFinalBackupPath();
+            Assert.assertEquals(selectAll(tableName, false), selectAll(tableName, true));
+            Assert.assertEquals(1, getBackupLinkCount(tableName, "1970-01-01"));
+            Assert.assertEquals(2, getBackupLinkCount(tableName, "1970-01-02"));
+
+            // second backup links cold partition to the first one
+            mainCompiler.compile("backup table " + tableName, mainSqlExecutionContext);
+            setFinalBackupPath(1);
+            Assert.assertEquals(selectAll(tableName, false), selectAll(tableName, true));
+            Assert.assertEquals(2, getBackupLinkCount(tableName, "1970-01-01"));
+            Assert.assertEquals(3, getBackupLinkCount(tableName, "1970-01-02"));
+        });
+    }
+
     @Test
     public void testCompromisedTableName() throws Exception {
         assertMemoryLeak(() -> {
@@ -229,6 +323,26 @@ public class TableBackupTest {
         });
     }
 
+    @Test
+    public void testHardLinkFailure() throws Exception {
+        assertMemoryLeak(() -> {
+            String tableName = "testTable1";
+            // @formatter:off
+            mainCompiler.compile("create table " + tableName + " as (select" +
+                    " rnd_symbol(4,4,4,2) sym," +
+                    " rnd_double(2) d," +
+                    " timestamp_sequence(0, 3600000000) ts" +
+                    " from long_sequence(100)) timestamp(ts) partition by DAY", mainSqlExecutionContext);
+            // @formatter:on
+
+            hardLinkDisabled = true;
+            mainCompiler.compile("backup table " + tableName, mainSqlExecutionContext);
+            setFinalBackupPath();
+            Assert.assertEquals(selectAll(tableName, false), selectAll(tableName, true));
+            Assert.assertEquals(1, getLinkCount(tableName, "1970-01-01"));
+        });
+    }
+
     @Test
     public void testIncorrectConfig() throws Exception {
         backupRoot = null;
@@ -498,6 +612,20 @@ public class TableBackupTest {
         });
     }
 
+    private int getLinkCount(String tableName, String partitionName) throws IOException {
+        return (int) java.nio.file.Files.getAttribute(
+                Paths.get(mainConfiguration.getRoot().toString(), tableName, partitionName, "d.d"),
+                "unix:nlink"
+        );
+    }
+
+    private int getBackupLinkCount(String tableName, String partitionName) throws IOException {
+        return (int) java.nio.file.Files.getAttribute(
+                Paths.get(finalBackupPath.toString(), tableName, partitionName, "d.d"),
+                "unix:nlink"
+        );
+    }
+
     private String selectAll(SqlCompiler compiler, SqlExecutionContext sqlExecutionContext, String tableName) throws Exception {
         CompiledQuery compiledQuery = compiler.compile("select * from " + tableName, sqlExecutionContext);
         try (RecordCursorFactory factory = compiledQuery.getRecordCursorFactory(); RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
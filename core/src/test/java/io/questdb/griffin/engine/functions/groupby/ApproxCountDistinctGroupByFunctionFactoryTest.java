@@ -0,0 +1,186 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.groupby;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.griffin.AbstractGriffinTest;
+import io.questdb.griffin.engine.functions.rnd.SharedRandom;
+import io.questdb.griffin.engine.groupby.vect.ApproxCountDistinctIntVectorAggregateFunction;
+import io.questdb.std.Rnd;
+import io.questdb.std.Unsafe;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ApproxCountDistinctGroupByFunctionFactoryTest extends AbstractGriffinTest {
+
+    @Before
+    public void setUp3() {
+        SharedRandom.RANDOM.set(new Rnd());
+    }
+
+    @Test
+    public void testAllNullThenOne() throws Exception {
+        assertQuery(
+                "approx_count_distinct\n" +
+                        "0\n",
+                "select approx_count_distinct(f) from tab",
+                "create table tab as (select cast(null as int) f from long_sequence(33))",
+                null,
+                "insert into tab select 4567866 from long_sequence(1)",
+                "approx_count_distinct\n" +
+                        "1\n",
+                false
+        );
+    }
+
+    @Test
+    public void testIntVector() throws Exception {
+        assertQuery(
+                "approx_count_distinct\n" +
+                        "101\n",
+                "select approx_count_distinct(f) from tab",
+                "create table tab as (select cast(x % 100 as int) f from long_sequence(10000))",
+                null,
+                false
+        );
+    }
+
+    @Test
+    public void testIntVectorKeyed() throws Exception {
+        assertQuery(
+                "k\tapprox_count_distinct\n" +
+                        "0\t50\n" +
+                        "1\t50\n",
+                "select k, approx_count_distinct(f) from tab order by k",
+                "create table tab as (select cast(x % 2 as int) k, cast(x % 100 as int) f from long_sequence(5000))",
+                null,
+                true
+        );
+    }
+
+    @Test
+    public void testIntVectorWorkers() throws Exception {
+        assertMemoryLeak(() -> {
+            final int count = 1000;
+            final long address = Unsafe.malloc(count * Integer.BYTES);
+            try (ApproxCountDistinctIntVectorAggregateFunction function = new ApproxCountDistinctIntVectorAggregateFunction(0, 0, 0, 2)) {
+                for (int i = 0; i < count; i++) {
+                    Unsafe.getUnsafe().putInt(address + i * Integer.BYTES, i);
+                }
+                function.aggregate(address, count / 2, 0);
+                function.aggregate(address + count / 2 * Integer.BYTES, count / 2, 1);
+                final long expected = function.getLong(null);
+                Assert.assertEquals(expected, function.getLong(null));
+                Assert.assertTrue(Math.abs(expected - count) < count / 50);
+
+                try {
+                    function.aggregate(address, count, 2);
+                    Assert.fail();
+                } catch (CairoException e) {
+                    TestUtils.assertContains(e.getFlyweightMessage(), "worker id is out of range");
+                }
+            } finally {
+                Unsafe.free(address, count * Integer.BYTES);
+            }
+        });
+    }
+
+    @Test
+    public void testKeyed() throws Exception {
+        assertQuery(
+                "k\tapprox_count_distinct\tapprox_count_distinct1\n" +
+                        "0\t50\t10\n" +
+                        "1\t50\t10\n",
+                "select k, approx_count_distinct(f), approx_count_distinct(s) from tab order by k",
+                "create table tab as (select cast(x % 2 as int) k, cast(x % 100 as int) f, cast(x % 20 as string) s from long_sequence(5000))",
+                null,
+                true
+        );
+    }
+
+    @Test
+    public void testLargeCardinality() throws Exception {
+        assertQuery(
+                "approx_count_distinct\n" +
+                        "100110\n",
+                "select approx_count_distinct(f) from tab",
+                "create table tab as (select x f from long_sequence(100000))",
+                null,
+                false
+        );
+    }
+
+    @Test
+    public void testSampleByMemoryBounded() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table small as (select cast(x % 2 as int) k, x f, cast(x as string) s, timestamp_sequence(0, 1000000) ts from long_sequence(60)) timestamp(ts)", sqlExecutionContext);
+            compiler.compile("create table large as (select cast(x % 2 as int) k, x f, cast(x as string) s, timestamp_sequence(0, 1000000) ts from long_sequence(60000)) timestamp(ts)", sqlExecutionContext);
+            final String[] queries = {
+                    "select k, approx_count_distinct(f), approx_count_distinct(s) from %s sample by 1m",
+                    "select approx_count_distinct(f), approx_count_distinct(s) from %s sample by 1m",
+                    "select k, approx_count_distinct(f) from %s sample by 1m fill(prev)",
+                    "select approx_count_distinct(f) from %s sample by 1m fill(null)"
+            };
+            // sketches of previous samples are reused, 1000 samples take as much memory as one
+            for (String query : queries) {
+                Assert.assertEquals(
+                        query,
+                        getNativeMapMemoryGrowth(String.format(query, "small")),
+                        getNativeMapMemoryGrowth(String.format(query, "large"))
+                );
+            }
+        });
+    }
+
+    @Test
+    public void testStrSameHashCode() throws Exception {
+        // "Aa" and "BB" share 32-bit hash code
+        assertQuery(
+                "approx_count_distinct\n" +
+                        "1\n",
+                "select approx_count_distinct(s) from tab",
+                "create table tab as (select 'Aa' s from long_sequence(1))",
+                null,
+                "insert into tab select 'BB' from long_sequence(1)",
+                "approx_count_distinct\n" +
+                        "2\n",
+                false
+        );
+    }
+
+    @Test
+    public void testSymbolVector() throws Exception {
+        assertQuery(
+                "approx_count_distinct\n" +
+                        "6\n",
+                "select approx_count_distinct(s) from tab",
+                "create table tab as (select rnd_symbol('a','b','c','d','e','f', null) s from long_sequence(1000))",
+                null,
+                false
+        );
+    }
+}
@@ -0,0 +1,199 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.groupby;
+
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.AbstractGriffinTest;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.engine.functions.rnd.SharedRandom;
+import io.questdb.griffin.engine.groupby.LogLinearHistogram;
+import io.questdb.std.Rnd;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ApproxPercentileGroupByFunctionFactoryTest extends AbstractGriffinTest {
+
+    @Before
+    public void setUp3() {
+        SharedRandom.RANDOM.set(new Rnd());
+    }
+
+    @Test
+    public void testAllNullThenOne() throws Exception {
+        assertQuery(
+                "approx_percentile\n" +
+                        "NaN\n",
+                "select approx_percentile(f, 0.99) from tab",
+                "create table tab as (select cast(null as double) f from long_sequence(33))",
+                null,
+                "insert into tab select 4567.5 from long_sequence(1)",
+                "approx_percentile\n" +
+                        "4567.5\n",
+                false
+        );
+    }
+
+    @Test
+    public void testInvalidPercentile() throws Exception {
+        assertFailure(
+                "select approx_percentile(f, 1.5) from tab",
+                "create table tab as (select rnd_double() f from long_sequence(10))",
+                28,
+                "percentile must be between 0 and 1"
+        );
+    }
+
+    @Test
+    public void testKeyed() throws Exception {
+        assertQuery(
+                "k\tapprox_median\tapprox_percentile\n" +
+                        "0\t504.0\t976.0\n" +
+                        "1\t504.0\t976.0\n",
+                "select k, approx_median(f), approx_percentile(f, 0.99) from tab order by k",
+                "create table tab as (select cast(x % 2 as int) k, cast(x / 2 as double) f from long_sequence(2000))",
+                null,
+                true
+        );
+    }
+
+    @Test
+    public void testLargeLongs() throws Exception {
+        // values are above 2^40 and must not collapse into single bucket
+        final String ddl = "create table tab as (select cast(x % 2 as int) k, x * 1125899906842624 f from long_sequence(1000))";
+        assertMemoryLeak(() -> {
+            compiler.compile(ddl, sqlExecutionContext);
+            final double expected = 500 * 1125899906842624.0;
+            assertRelativeError(expected, "select approx_median(f) from tab");
+            assertRelativeError(expected, "select k, approx_median(f) from tab where k = 0");
+        });
+    }
+
+    @Test
+    public void testOverflow() throws Exception {
+        // magnitudes of 2^64 and above are counted apart, percentiles in there report exact bounds
+        assertQuery(
+                "approx_percentile\tapprox_median\tapprox_percentile1\n" +
+                        "-3.0000000000000003E30\t102.0\t3.0000000000000003E30\n",
+                "select approx_percentile(f, 0.2), approx_median(f), approx_percentile(f, 0.8) from tab",
+                "create table tab as (" +
+                        "select cast(x * -1e30 as double) f from long_sequence(3)" +
+                        " union all select cast(x * 1e30 as double) from long_sequence(3)" +
+                        " union all select 100.0 from long_sequence(1)" +
+                        ")",
+                null,
+                false
+        );
+    }
+
+    @Test
+    public void testMinAndMax() throws Exception {
+        assertQuery(
+                "approx_percentile\tapprox_percentile1\n" +
+                        "-17.25\t1234.5\n",
+                "select approx_percentile(f, 0), approx_percentile(f, 1) from tab",
+                "create table tab as (select rnd_double() * 100 f from long_sequence(1000) union all select -17.25 from long_sequence(1) union all select 1234.5 from long_sequence(1))",
+                null,
+                false
+        );
+    }
+
+    @Test
+    public void testSampleBy() throws Exception {
+        assertQuery(
+                "approx_percentile\tts\n" +
+                        "98.0\t1970-01-01T00:00:00.000000Z\n" +
+                        "196.0\t1970-01-01T00:01:40.000000Z\n",
+                "select approx_percentile(f, 0.99), ts from tab sample by 100s",
+                "create table tab as (select cast(x as double) f, timestamp_sequence(0, 1000000) ts from long_sequence(200)) timestamp(ts)",
+                "ts",
+                false
+        );
+    }
+
+    @Test
+    public void testSampleByFillPrev() throws Exception {
+        // key 1 has no values in the second sample, its histogram of the first sample is read again
+        assertQuery(
+                "k\tapprox_percentile\tts\n" +
+                        "1\t30.0\t1970-01-01T00:00:00.000000Z\n" +
+                        "0\t20.0\t1970-01-01T00:00:00.000000Z\n" +
+                        "1\t30.0\t1970-01-01T00:00:30.000000Z\n" +
+                        "0\t60.0\t1970-01-01T00:00:30.000000Z\n" +
+                        "1\t90.0\t1970-01-01T00:01:00.000000Z\n" +
+                        "0\t80.0\t1970-01-01T00:01:00.000000Z\n",
+                "select k, approx_percentile(f, 0.99), ts from tab sample by 30s fill(prev)",
+                "create table tab as (select case when x > 3 and x < 7 then 0 else cast(x % 2 as int) end k, cast(x * 10 as double) f, timestamp_sequence(0, 10000000) ts from long_sequence(9)) timestamp(ts)",
+                "ts",
+                false
+        );
+    }
+
+    @Test
+    public void testSampleByMemoryBounded() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table small as (select cast(x % 2 as int) k, cast(x as double) f, timestamp_sequence(0, 1000000) ts from long_sequence(60)) timestamp(ts)", sqlExecutionContext);
+            compiler.compile("create table large as (select cast(x % 2 as int) k, cast(x as double) f, timestamp_sequence(0, 1000000) ts from long_sequence(60000)) timestamp(ts)", sqlExecutionContext);
+            final String[] queries = {
+                    "select k, approx_percentile(f, 0.5) from %s sample by 1m",
+                    "select approx_percentile(f, 0.5) from %s sample by 1m",
+                    "select k, approx_percentile(f, 0.5) from %s sample by 1m fill(prev)",
+                    "select k, approx_percentile(f, 0.5) from %s sample by 1m fill(null)"
+            };
+            // histograms of previous samples are reused, 1000 samples take as much memory as one
+            for (String query : queries) {
+                Assert.assertEquals(
+                        query,
+                        getNativeMapMemoryGrowth(String.format(query, "small")),
+                        getNativeMapMemoryGrowth(String.format(query, "large"))
+                );
+            }
+        });
+    }
+
+    @Test
+    public void testVector() throws Exception {
+        assertQuery(
+                "approx_median\tapprox_percentile\tapprox_percentile1\n" +
+                        "4992.0\t9984.0\t-5.035400390625E-4\n",
+                "select approx_median(i), approx_percentile(l, 0.99), approx_percentile(d, 0.5) from tab",
+                "create table tab as (select cast(x as int) i, x l, (x - 5000.5) / 1000 d from long_sequence(10000))",
+                null,
+                false
+        );
+    }
+
+    private void assertRelativeError(double expected, String query) throws SqlException {
+        try (
+                RecordCursorFactory factory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory();
+                RecordCursor cursor = factory.getCursor(sqlExecutionContext)
+        ) {
+            Assert.assertTrue(cursor.hasNext());
+            final double actual = cursor.getRecord().getDouble(factory.getMetadata().getColumnCount() - 1);
+            Assert.assertEquals(expected, actual, expected / (2 * LogLinearHistogram.SUB_BUCKET_COUNT));
+        }
+    }
+}
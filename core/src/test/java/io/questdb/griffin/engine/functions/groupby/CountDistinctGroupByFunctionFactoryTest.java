@@ -0,0 +1,143 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.groupby;
+
+import io.questdb.griffin.AbstractGriffinTest;
+import io.questdb.griffin.engine.functions.rnd.SharedRandom;
+import io.questdb.std.Rnd;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CountDistinctGroupByFunctionFactoryTest extends AbstractGriffinTest {
+
+    @Before
+    public void setUp3() {
+        SharedRandom.RANDOM.set(new Rnd());
+    }
+
+    @Test
+    public void testAllNull() throws Exception {
+        assertQuery(
+                "count_distinct\n" +
+                        "0\n",
+                "select count_distinct(f) from tab",
+                "create table tab as (select cast(null as int) f from long_sequence(33))",
+                null,
+                "insert into tab select 4567866 from long_sequence(5)",
+                "count_distinct\n" +
+                        "1\n",
+                false
+        );
+    }
+
+    @Test
+    public void testInt() throws Exception {
+        assertQuery(
+                "count_distinct\n" +
+                        "17\n",
+                "select count_distinct(f) from tab",
+                "create table tab as (select cast(x % 17 as int) f from long_sequence(1000))",
+                null,
+                false
+        );
+    }
+
+    @Test
+    public void testKeyed() throws Exception {
+        assertQuery(
+                "k\tcount_distinct\n" +
+                        "0\t10\n" +
+                        "1\t10\n" +
+                        "2\t10\n",
+                "select k, count_distinct(f) from tab order by k",
+                "create table tab as (select x % 3 k, x % 30 f from long_sequence(3000))",
+                null,
+                true
+        );
+    }
+
+    @Test
+    public void testKeyedStrAndSymbol() throws Exception {
+        assertQuery(
+                "k\tcount_distinct\tcount_distinct1\n" +
+                        "0\t5\t5\n" +
+                        "1\t5\t5\n",
+                "select k, count_distinct(s), count_distinct(sym) from tab order by k",
+                "create table tab as (select x % 2 k, cast(x % 10 as string) s, cast(x % 10 as symbol) sym from long_sequence(1000))",
+                null,
+                true
+        );
+    }
+
+    @Test
+    public void testLong() throws Exception {
+        assertQuery(
+                "count_distinct\n" +
+                        "101\n",
+                "select count_distinct(f) from tab",
+                "create table tab as (select x % 101 f from long_sequence(10000))",
+                null,
+                "insert into tab select cast(null as long) from long_sequence(10)",
+                "count_distinct\n" +
+                        "101\n",
+                false
+        );
+    }
+
+    @Test
+    public void testSampleBy() throws Exception {
+        assertQuery(
+                "count_distinct\tts\n" +
+                        "6\t1970-01-01T00:00:00.000000Z\n" +
+                        "6\t1970-01-01T01:00:00.000000Z\n",
+                "select count_distinct(s), ts from tab sample by 1h",
+                "create table tab as (select rnd_symbol('a','b','c','d','e','f') s, timestamp_sequence(0, 36000000) ts from long_sequence(200)) timestamp(ts)",
+                "ts",
+                false
+        );
+    }
+
+    @Test
+    public void testSampleByMemoryBounded() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table small as (select cast(x % 2 as int) k, x f, timestamp_sequence(0, 1000000) ts from long_sequence(60)) timestamp(ts)", sqlExecutionContext);
+            compiler.compile("create table large as (select cast(x % 2 as int) k, x f, timestamp_sequence(0, 1000000) ts from long_sequence(60000)) timestamp(ts)", sqlExecutionContext);
+            final String[] queries = {
+                    "select k, count_distinct(f) from %s sample by 1m",
+                    "select count_distinct(f) from %s sample by 1m",
+                    "select k, count_distinct(f) from %s sample by 1m fill(prev)"
+            };
+            // values of previous samples are discarded, 1000 samples take as much memory as one
+            for (String query : queries) {
+                Assert.assertEquals(
+                        query,
+                        getNativeMapMemoryGrowth(String.format(query, "small")),
+                        getNativeMapMemoryGrowth(String.format(query, "large"))
+                );
+            }
+        });
+    }
+}
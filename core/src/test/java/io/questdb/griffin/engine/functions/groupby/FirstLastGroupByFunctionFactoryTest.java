@@ -0,0 +1,152 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+package io.questdb.griffin.engine.functions.groupby;
+
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.AbstractGriffinTest;
+import io.questdb.griffin.engine.groupby.vect.GroupByNotKeyedVectorRecordCursorFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FirstLastGroupByFunctionFactoryTest extends AbstractGriffinTest {
+
+    @Test
+    public void testAllNull() throws Exception {
+        assertQuery(
+                "first\tlast\tfirst_not_null\tlast_not_null\n" +
+                        "\t\t\t\n",
+                "select first(s), last(s), first_not_null(s), last_not_null(s) from tab",
+                "create table tab as (select cast(null as string) s from long_sequence(5))",
+                null,
+                false
+        );
+    }
+
+    @Test
+    public void testFixedTypes() throws Exception {
+        assertQuery(
+                "first\tlast\tfirst1\tlast1\tfirst2\tlast2\tfirst3\tlast3\tfirst4\tlast4\tfirst5\tlast5\n" +
+                        "false\ttrue\t1\t10\t2\t20\tB\tK\t1.5000\t15.0000\t0.5\t5.0\n",
+                "select first(b), last(b), first(bt), last(bt), first(sh), last(sh), first(c), last(c), first(f), last(f), first(dbl), last(dbl) from tab",
+                "create table tab as (" +
+                        "select x % 2 = 0 b, cast(x as byte) bt, cast(x * 2 as short) sh, cast(x + 65 as char) c," +
+                        " cast(x * 1.5 as float) f, x * 0.5 dbl from long_sequence(10))",
+                null,
+                false
+        );
+    }
+
+    @Test
+    public void testKeyed() throws Exception {
+        assertQuery(
+                "k\tfirst\tlast\tfirst_not_null\tlast_not_null\n" +
+                        "0\tc3\tc9\tc3\tc9\n" +
+                        "1\tc1\t\tc1\tc7\n" +
+                        "2\tc2\tc8\tc2\tc8\n",
+                "select k, first(s), last(s), first_not_null(s), last_not_null(s) from tab order by k",
+                "create table tab as (select x % 3 k, case when x % 5 = 0 then null else concat('c', x) end s from long_sequence(10))",
+                null,
+                true
+        );
+    }
+
+    @Test
+    public void testNotKeyedVector() throws Exception {
+        assertQuery(
+                "first\tlast\tfirst_not_null\tlast_not_null\tfirst1\tlast_not_null1\tfirst_not_null1\tlast1\tfirst2\tlast2\n" +
+                        "NaN\tNaN\t3\t99998\tNaN\t99998\t1.5\tNaN\t1970-01-01T00:00:00.000000Z\t1970-01-02T03:46:39.000000Z\n",
+                "select first(l), last(l), first_not_null(l), last_not_null(l), first(i), last_not_null(i), first_not_null(d), last(d), first(ts), last(ts) from tab",
+                "create table tab as (" +
+                        "select case when x < 3 or x > 99998 then cast(null as long) else x end l," +
+                        " case when x < 3 or x > 99998 then cast(null as int) else cast(x as int) end i," +
+                        " case when x < 3 or x > 99998 then cast(null as double) else x * 0.5 end d," +
+                        " timestamp_sequence(0, 1000000) ts from long_sequence(100000)" +
+                        ") timestamp(ts) partition by DAY",
+                null,
+                false
+        );
+
+        assertMemoryLeak(() -> {
+            try (RecordCursorFactory factory = compiler.compile("select first(l), last(d) from tab", sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertTrue(factory instanceof GroupByNotKeyedVectorRecordCursorFactory);
+            }
+        });
+    }
+
+    @Test
+    public void testSampleByKeyed() throws Exception {
+        assertQuery(
+                "s\tfirst\tlast\tfirst_not_null\tlast_not_null\tts\n" +
+                        "a\t0.0000\t0.5000\t0.0000\t0.5000\t1970-01-01T00:00:00.000000Z\n" +
+                        "b\tNaN\t0.7500\t0.7500\t0.7500\t1970-01-01T00:00:00.000000Z\n" +
+                        "a\t1.0000\t1.5000\t1.0000\t1.5000\t1970-01-01T01:00:00.000000Z\n" +
+                        "b\t1.2500\tNaN\t1.2500\t1.2500\t1970-01-01T01:00:00.000000Z\n",
+                "select s, first(f), last(f), first_not_null(f), last_not_null(f), ts from tab sample by 1h",
+                "create table tab as (" +
+                        "select case when x % 2 = 0 then 'b' else 'a' end s," +
+                        " case when x = 2 or x = 8 then cast(null as float) else cast((x - 1) * 0.25 as float) end f," +
+                        " timestamp_sequence(0, 900000000) ts from long_sequence(8)" +
+                        ") timestamp(ts)",
+                "ts",
+                false
+        );
+    }
+
+    @Test
+    public void testSampleByStrFillPrev() throws Exception {
+        // key 1 has no rows in the second sample, its strings of the first sample are read again
+        assertQuery(
+                "k\tfirst\tlast\tfirst_not_null\tlast_not_null\tts\n" +
+                        "1\t\ts3\ts3\ts3\t1970-01-01T00:00:00.000000Z\n" +
+                        "0\ts2\ts2\ts2\ts2\t1970-01-01T00:00:00.000000Z\n" +
+                        "1\t\ts3\ts3\ts3\t1970-01-01T00:00:30.000000Z\n" +
+                        "0\ts4\t\ts4\ts5\t1970-01-01T00:00:30.000000Z\n" +
+                        "1\ts7\t\ts7\ts7\t1970-01-01T00:01:00.000000Z\n" +
+                        "0\ts8\ts8\ts8\ts8\t1970-01-01T00:01:00.000000Z\n",
+                "select k, first(s), last(s), first_not_null(s), last_not_null(s), ts from tab sample by 30s fill(prev)",
+                "create table tab as (" +
+                        "select case when x > 3 and x < 7 then 0 else cast(x % 2 as int) end k," +
+                        " case when x = 1 or x = 6 or x = 9 then null else concat('s', x) end s," +
+                        " timestamp_sequence(0, 10000000) ts from long_sequence(9)" +
+                        ") timestamp(ts)",
+                "ts",
+                false
+        );
+    }
+
+    @Test
+    public void testSymbol() throws Exception {
+        assertQuery(
+                "k\tfirst\tlast\tfirst_not_null\tlast_not_null\n" +
+                        "0\t\t\ts4\ts3\n" +
+                        "1\ts1\ts4\ts1\ts4\n",
+                "select k, first(sym), last(sym), first_not_null(sym), last_not_null(sym) from tab order by k",
+                "create table tab as (" +
+                        "select k, cast(s as symbol) sym from (select x % 2 k, case when x % 5 = 0 or x = 2 then null else concat('s', x % 5) end s from long_sequence(10))" +
+                        ")",
+                null,
+                true
+        );
+    }
+}
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+package io.questdb.griffin.engine.functions.regex;
+
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.AbstractGriffinTest;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.engine.functions.rnd.SharedRandom;
+import io.questdb.griffin.engine.table.FilterOnSymbolPredicateRecordCursorFactory;
+import io.questdb.std.Rnd;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LikeFunctionFactoryTest extends AbstractGriffinTest {
+
+    @Before
+    public void setUp3() {
+        SharedRandom.RANDOM.set(new Rnd());
+    }
+
+    @Test
+    public void testEscape() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x as (select rnd_str('a%b', 'a_b', 'axb', 'a\\b', null) s from long_sequence(20))", sqlExecutionContext);
+            assertLike("select distinct s from x where s like 'a\\%b'", "s\na%b\n");
+            assertLike("select distinct s from x where s like 'a\\_b'", "s\na_b\n");
+            assertLike("select distinct s from x where s like 'a\\\\b' order by s", "s\na\\b\n");
+            assertLike("select distinct s from x where s like 'a_b' order by s", "s\na%b\na\\b\na_b\naxb\n");
+        });
+    }
+
+    @Test
+    public void testNullPattern() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x as (select rnd_str() s from long_sequence(20))", sqlExecutionContext);
+            try {
+                compiler.compile("select * from x where s like null", sqlExecutionContext);
+                Assert.fail();
+            } catch (SqlException e) {
+                Assert.assertEquals(29, e.getPosition());
+                TestUtils.assertContains(e.getFlyweightMessage(), "NULL pattern");
+            }
+        });
+    }
+
+    @Test
+    public void testPatternEndsWithEscape() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x as (select rnd_str() s from long_sequence(20))", sqlExecutionContext);
+            try {
+                compiler.compile("select * from x where s like 'ab\\'", sqlExecutionContext);
+                Assert.fail();
+            } catch (SqlException e) {
+                TestUtils.assertContains(e.getFlyweightMessage(), "must not end with escape character");
+            }
+        });
+    }
+
+    @Test
+    public void testString() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x as (select rnd_str(1, 8, 2) s from long_sequence(10000))", sqlExecutionContext);
+            assertPatterns("s");
+        });
+    }
+
+    @Test
+    public void testSymbol() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x as (select rnd_symbol(300, 1, 8, 20) s from long_sequence(10000))", sqlExecutionContext);
+            assertPatterns("s");
+        });
+    }
+
+    @Test
+    public void testSymbolIndexed() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x as (select rnd_symbol(300, 1, 8, 20) s, timestamp_sequence(0, 60000000) ts from long_sequence(10000)), index(s) timestamp(ts) partition by DAY", sqlExecutionContext);
+            assertPatterns("s");
+            try (RecordCursorFactory factory = compiler.compile("select * from x where s ilike 'b%'", sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertTrue(factory instanceof FilterOnSymbolPredicateRecordCursorFactory);
+            }
+        });
+    }
+
+    private void assertLike(String query, String expected) throws SqlException {
+        try (
+                RecordCursorFactory factory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory();
+                RecordCursor cursor = factory.getCursor(sqlExecutionContext)
+        ) {
+            sink.clear();
+            printer.print(cursor, factory.getMetadata(), true);
+            TestUtils.assertEquals(expected, sink);
+        }
+    }
+
+    private void assertPatterns(String column) throws SqlException {
+        // like patterns and equivalent regular expressions
+        final String[] patterns = {
+                "BC", "^BC$",
+                "B%", "^B",
+                "%Z", "Z$",
+                "%XY%", "XY",
+                "%", ".*",
+                "_", "^.$",
+                "B_%Z", "^B..*Z$",
+                "%B%C%", "B.*C",
+                "__X%", "^..X",
+        };
+
+        for (int i = 0; i < patterns.length; i += 2) {
+            final String like = patterns[i];
+            final String regex = patterns[i + 1];
+            final String expected = select("select * from x where cast(" + column + " as string) ~= '" + regex + "'");
+            TestUtils.assertEquals(expected, select("select * from x where " + column + " like '" + like + "'"));
+
+            final String expectedCaseInsensitive = select("select * from x where cast(" + column + " as string) ~= '(?i)" + regex + "'");
+            TestUtils.assertEquals(expectedCaseInsensitive, select("select * from x where " + column + " ilike '" + like.toLowerCase() + "'"));
+        }
+    }
+
+    private String select(String query) throws SqlException {
+        try (
+                RecordCursorFactory factory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory();
+                RecordCursor cursor = factory.getCursor(sqlExecutionContext)
+        ) {
+            sink.clear();
+            printer.print(cursor, factory.getMetadata(), true);
+            return sink.toString();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.regex;
+
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.AbstractGriffinTest;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.engine.functions.rnd.SharedRandom;
+import io.questdb.griffin.engine.table.FilterOnSymbolPredicateRecordCursorFactory;
+import io.questdb.std.Rnd;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MatchSymbolFunctionFactoryTest extends AbstractGriffinTest {
+
+    @Before
+    public void setUp3() {
+        SharedRandom.RANDOM.set(new Rnd());
+    }
+
+    @Test
+    public void testNullRegex() throws Exception {
+        assertNullRegex("~=");
+    }
+
+    @Test
+    public void testNullRegexNegated() throws Exception {
+        assertNullRegex("!~");
+    }
+
+    @Test
+    public void testSymbol() throws Exception {
+        assertSymbol("~=");
+    }
+
+    @Test
+    public void testSymbolNegated() throws Exception {
+        assertSymbol("!~");
+    }
+
+    @Test
+    public void testSymbolIndexed() throws Exception {
+        assertSymbolIndexed("~=");
+    }
+
+    @Test
+    public void testSymbolIndexedNegated() throws Exception {
+        assertSymbolIndexed("!~");
+    }
+
+    private void assertNullRegex(String operator) throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x as (select rnd_symbol('a', 'b') s from long_sequence(20))", sqlExecutionContext);
+            try {
+                compiler.compile("select * from x where s " + operator + " null", sqlExecutionContext);
+                Assert.fail();
+            } catch (SqlException e) {
+                Assert.assertEquals(27, e.getPosition());
+                TestUtils.assertContains(e.getFlyweightMessage(), "NULL regex");
+            }
+        });
+    }
+
+    private void assertSymbol(String operator) throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x as (select rnd_symbol(500, 2, 6, 50) s, timestamp_sequence(0, 1000000) ts from long_sequence(20000)) timestamp(ts)", sqlExecutionContext);
+            assertSymbolQuery(
+                    "select * from x where s " + operator + " '^[A-L].*[W-Z]$'",
+                    "select * from x where cast(s as string) " + operator + " '^[A-L].*[W-Z]$'",
+                    false
+            );
+        });
+    }
+
+    private void assertSymbolIndexed(String operator) throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x as (select rnd_symbol(500, 2, 6, 50) s, timestamp_sequence(0, 60000000) ts from long_sequence(20000)), index(s) timestamp(ts) partition by DAY", sqlExecutionContext);
+            assertSymbolQuery(
+                    "select * from x where s " + operator + " '^[A-L].*[W-Z]$'",
+                    "select * from x where cast(s as string) " + operator + " '^[A-L].*[W-Z]$'",
+                    true
+            );
+
+            // symbol values added after the first evaluation
+            compiler.compile("insert into x select rnd_symbol('AXW', 'QQQ', null) s, timestamp_sequence(2000000000000, 1000000) ts from long_sequence(100)", sqlExecutionContext);
+            assertSymbolQuery(
+                    "select * from x where s " + operator + " '^[A-L].*[W-Z]$'",
+                    "select * from x where cast(s as string) " + operator + " '^[A-L].*[W-Z]$'",
+                    true
+            );
+        });
+    }
+
+    private void assertSymbolQuery(String query, String referenceQuery, boolean indexed) throws SqlException {
+        final String expected;
+        try (
+                RecordCursorFactory factory = compiler.compile(referenceQuery, sqlExecutionContext).getRecordCursorFactory();
+                RecordCursor cursor = factory.getCursor(sqlExecutionContext)
+        ) {
+            sink.clear();
+            printer.print(cursor, factory.getMetadata(), true);
+            expected = sink.toString();
+        }
+
+        try (RecordCursorFactory factory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory()) {
+            Assert.assertEquals(indexed, factory instanceof FilterOnSymbolPredicateRecordCursorFactory);
+            try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                sink.clear();
+                printer.print(cursor, factory.getMetadata(), true);
+                TestUtils.assertEquals(expected, sink);
+            }
+        }
+    }
+}
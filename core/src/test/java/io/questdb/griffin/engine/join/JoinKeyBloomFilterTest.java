@@ -0,0 +1,88 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.join;
+
+import io.questdb.std.Rnd;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class JoinKeyBloomFilterTest {
+
+    @Test
+    public void testAddedKeysAreFound() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            try (JoinKeyBloomFilter filter = new JoinKeyBloomFilter(10)) {
+                Assert.assertFalse(filter.isBuilt());
+                final int N = 10_000;
+                filter.of(N);
+                Assert.assertTrue(filter.isBuilt());
+
+                Rnd rnd = new Rnd();
+                for (int i = 0; i < N; i++) {
+                    filter.add(rnd.nextLong());
+                }
+
+                rnd.reset();
+                for (int i = 0; i < N; i++) {
+                    Assert.assertTrue(filter.mightContain(rnd.nextLong()));
+                }
+
+                // with 10 bits per key false positive rate is about 2%
+                int falsePositives = 0;
+                for (int i = 0; i < N; i++) {
+                    if (filter.mightContain(rnd.nextLong())) {
+                        falsePositives++;
+                    }
+                }
+                Assert.assertTrue(falsePositives < N / 20);
+            }
+        });
+    }
+
+    @Test
+    public void testRebuildClearsKeys() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            try (JoinKeyBloomFilter filter = new JoinKeyBloomFilter(10)) {
+                filter.of(10);
+                for (int i = 0; i < 10; i++) {
+                    filter.add(i);
+                }
+
+                filter.of(1000);
+                int found = 0;
+                for (int i = 0; i < 10; i++) {
+                    if (filter.mightContain(i)) {
+                        found++;
+                    }
+                }
+                Assert.assertEquals(0, found);
+
+                filter.clear();
+                Assert.assertFalse(filter.isBuilt());
+            }
+        });
+    }
+}